@@ -76,3 +76,26 @@ void tsmm(double* m1Ptr, double* retPtr, int m1rlen, int m1clen, bool leftTrans,
     cblas_dsyrk(CblasRowMajor, CblasUpper, leftTrans ? CblasTrans : CblasNoTrans, n, k, 1, m1Ptr, n, 0, retPtr, n);
   }
 }
+
+int dcholesky(double* aPtr, int n, int numThreads) {
+  setNumThreadsForBLAS(numThreads);
+  return (int) LAPACKE_dpotrf(LAPACK_ROW_MAJOR, 'L', n, aPtr, n);
+}
+
+int dlu(double* aPtr, int* ipivPtr, int n, int numThreads) {
+  setNumThreadsForBLAS(numThreads);
+  return (int) LAPACKE_dgetrf(LAPACK_ROW_MAJOR, n, n, aPtr, n, (lapack_int*) ipivPtr);
+}
+
+int dsolve(double* aPtr, double* bPtr, int n, int nrhs, int numThreads) {
+  setNumThreadsForBLAS(numThreads);
+  lapack_int* ipiv = new lapack_int[n];
+  int info = (int) LAPACKE_dgesv(LAPACK_ROW_MAJOR, n, nrhs, aPtr, n, ipiv, bPtr, nrhs);
+  delete[] ipiv;
+  return info;
+}
+
+int dsymeigen(double* aPtr, double* wPtr, int n, int numThreads) {
+  setNumThreadsForBLAS(numThreads);
+  return (int) LAPACKE_dsyevd(LAPACK_ROW_MAJOR, 'V', 'L', n, aPtr, n, wPtr);
+}
@@ -46,6 +46,7 @@
   extern "C" void mkl_set_num_threads(int numThreads);
 #else
   #include <cblas.h>
+  #include <lapacke.h>
   extern "C" void openblas_set_num_threads(int numThreads);
 #endif
 
@@ -58,4 +59,11 @@ void smatmult(float* m1Ptr, float* m2Ptr, float* retPtr, int m, int k, int n, in
 
 void tsmm(double* m1Ptr, double* retPtr, int m1rlen, int m1clen, bool isLeftTrans, int numThreads);
 
+// Dense factorizations and solvers via LAPACK, in-place over row-major inputs
+// of shape (n, n); all functions return the LAPACK info code (0 on success)
+int dcholesky(double* aPtr, int n, int numThreads);
+int dlu(double* aPtr, int* ipivPtr, int n, int numThreads);
+int dsolve(double* aPtr, double* bPtr, int n, int nrhs, int numThreads);
+int dsymeigen(double* aPtr, double* wPtr, int n, int numThreads);
+
 #endif
@@ -122,6 +122,78 @@ JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_tsmm
   return (jboolean) true;
 }
 
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dcholesky
+  (JNIEnv * env, jclass cls, jdoubleArray a, jint n, jint numThreads) {
+  double* aPtr = GET_DOUBLE_ARRAY(env, a, numThreads);
+  if(aPtr == NULL)
+    return (jboolean) false;
+
+  int info = dcholesky(aPtr, (int)n, (int)numThreads);
+
+  RELEASE_ARRAY(env, a, aPtr, numThreads);
+  return (jboolean) (info == 0);
+}
+
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dlu
+  (JNIEnv * env, jclass cls, jdoubleArray a, jintArray ipiv, jint n, jint numThreads) {
+  double* aPtr = GET_DOUBLE_ARRAY(env, a, numThreads);
+  int* ipivPtr = ((int*)env->GetPrimitiveArrayCritical(ipiv, NULL));
+  if(aPtr == NULL || ipivPtr == NULL) {
+    //release the successfully pinned array (w/o copy back)
+    if(aPtr != NULL)
+      RELEASE_INPUT_ARRAY(env, a, aPtr, numThreads);
+    if(ipivPtr != NULL)
+      env->ReleasePrimitiveArrayCritical(ipiv, ipivPtr, JNI_ABORT);
+    return (jboolean) false;
+  }
+
+  int info = dlu(aPtr, ipivPtr, (int)n, (int)numThreads);
+
+  env->ReleasePrimitiveArrayCritical(ipiv, ipivPtr, 0);
+  RELEASE_ARRAY(env, a, aPtr, numThreads);
+  return (jboolean) (info >= 0); //info > 0: exactly singular U, but factors computed
+}
+
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dsolve
+  (JNIEnv * env, jclass cls, jdoubleArray a, jdoubleArray b, jint n, jint nrhs, jint numThreads) {
+  double* aPtr = GET_DOUBLE_ARRAY(env, a, numThreads);
+  double* bPtr = GET_DOUBLE_ARRAY(env, b, numThreads);
+  if(aPtr == NULL || bPtr == NULL) {
+    //release the successfully pinned array (w/o copy back)
+    if(aPtr != NULL)
+      RELEASE_INPUT_ARRAY(env, a, aPtr, numThreads);
+    if(bPtr != NULL)
+      RELEASE_INPUT_ARRAY(env, b, bPtr, numThreads);
+    return (jboolean) false;
+  }
+
+  int info = dsolve(aPtr, bPtr, (int)n, (int)nrhs, (int)numThreads);
+
+  RELEASE_INPUT_ARRAY(env, a, aPtr, numThreads);
+  RELEASE_ARRAY(env, b, bPtr, numThreads);
+  return (jboolean) (info == 0);
+}
+
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dsymeigen
+  (JNIEnv * env, jclass cls, jdoubleArray a, jdoubleArray w, jint n, jint numThreads) {
+  double* aPtr = GET_DOUBLE_ARRAY(env, a, numThreads);
+  double* wPtr = GET_DOUBLE_ARRAY(env, w, numThreads);
+  if(aPtr == NULL || wPtr == NULL) {
+    //release the successfully pinned array (w/o copy back)
+    if(aPtr != NULL)
+      RELEASE_INPUT_ARRAY(env, a, aPtr, numThreads);
+    if(wPtr != NULL)
+      RELEASE_INPUT_ARRAY(env, w, wPtr, numThreads);
+    return (jboolean) false;
+  }
+
+  int info = dsymeigen(aPtr, wPtr, (int)n, (int)numThreads);
+
+  RELEASE_ARRAY(env, a, aPtr, numThreads);
+  RELEASE_ARRAY(env, w, wPtr, numThreads);
+  return (jboolean) (info == 0);
+}
+
 JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_conv2dSparse
   (JNIEnv * env, jclass, jint apos, jint alen, jintArray aix, jdoubleArray avals, jdoubleArray filter,
     jdoubleArray ret, jint N, jint C, jint H, jint W, jint K, jint R, jint S,
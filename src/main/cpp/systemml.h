@@ -48,6 +48,38 @@ JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_smmdd
 JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_tsmm
   (JNIEnv *, jclass, jdoubleArray, jdoubleArray, jint, jint, jboolean, jint);
 
+/*
+ * Class:     org_apache_sysml_utils_NativeHelper
+ * Method:    dcholesky
+ * Signature: ([DII)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dcholesky
+  (JNIEnv *, jclass, jdoubleArray, jint, jint);
+
+/*
+ * Class:     org_apache_sysml_utils_NativeHelper
+ * Method:    dlu
+ * Signature: ([D[III)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dlu
+  (JNIEnv *, jclass, jdoubleArray, jintArray, jint, jint);
+
+/*
+ * Class:     org_apache_sysml_utils_NativeHelper
+ * Method:    dsolve
+ * Signature: ([D[DIII)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dsolve
+  (JNIEnv *, jclass, jdoubleArray, jdoubleArray, jint, jint, jint);
+
+/*
+ * Class:     org_apache_sysml_utils_NativeHelper
+ * Method:    dsymeigen
+ * Signature: ([D[DII)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_apache_sysml_utils_NativeHelper_dsymeigen
+  (JNIEnv *, jclass, jdoubleArray, jdoubleArray, jint, jint);
+
 /*
  * Class:     org_apache_sysml_utils_NativeHelper
  * Method:    conv2dDense
@@ -61,13 +61,20 @@ import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.DMLScriptException;
 import org.tugraz.sysds.runtime.controlprogram.Program;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContextFactory;
 import org.tugraz.sysds.runtime.controlprogram.context.SparkExecutionContext;
 import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.tugraz.sysds.runtime.controlprogram.parfor.util.IDHandler;
 import org.tugraz.sysds.runtime.instructions.gpu.context.GPUContextPool;
+import org.tugraz.sysds.runtime.io.BinaryBlockSerialization;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult.KernelType;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.matrix.mapred.MRConfigurationNames;
 import org.tugraz.sysds.runtime.matrix.mapred.MRJobConfiguration;
 import org.tugraz.sysds.runtime.util.LocalFileUtils;
@@ -417,6 +424,35 @@ public class DMLScript
 		CacheableData.CACHING_BUFFER_SIZE = dmlconf.getDoubleValue(DMLConfig.CACHING_BUFFER_SIZE);
 		if(CacheableData.CACHING_BUFFER_SIZE < 0 || CacheableData.CACHING_BUFFER_SIZE > 1) 
 			throw new RuntimeException("Incorrect value (" + CacheableData.CACHING_BUFFER_SIZE + ") for the configuration " + DMLConfig.CACHING_BUFFER_SIZE);
+		CacheableData.CACHING_BUFFER_OFFHEAP = dmlconf.getBooleanValue(DMLConfig.CACHING_BUFFER_OFFHEAP);
+		CacheableData.CACHING_BUFFER_COMPRESSION = dmlconf.getBooleanValue(DMLConfig.CACHING_BUFFER_COMPRESSION);
+		CacheableData.CACHING_PREFETCH = dmlconf.getIntValue(DMLConfig.CACHING_PREFETCH);
+		BinaryBlockSerialization.DELTA_SPARSE_INDEXES = dmlconf.getBooleanValue(DMLConfig.BINARYBLOCK_DELTA);
+		MatrixBlock.ALLOW_TILED_SPARSEBLOCK = dmlconf.getBooleanValue(DMLConfig.CP_SPARSE_TILED);
+		try {
+			BlockCompressionCodec.BINARYBLOCK_CODEC = CodecType.valueOf(
+				dmlconf.getTextValue(DMLConfig.BINARYBLOCK_CODEC).trim().toUpperCase());
+		}
+		catch(IllegalArgumentException ex) {
+			throw new RuntimeException("Incorrect value (" + dmlconf.getTextValue(DMLConfig.BINARYBLOCK_CODEC)
+				+ ") for the configuration " + DMLConfig.BINARYBLOCK_CODEC);
+		}
+		try {
+			LibMatrixMult.setKernelType(KernelType.valueOf(
+				dmlconf.getTextValue(DMLConfig.CP_MULT_KERNELS).trim().toUpperCase()));
+		}
+		catch(IllegalArgumentException ex) {
+			throw new RuntimeException("Incorrect value (" + dmlconf.getTextValue(DMLConfig.CP_MULT_KERNELS)
+				+ ") for the configuration " + DMLConfig.CP_MULT_KERNELS);
+		}
+		try {
+			CacheableData.CACHING_BUFFER_POLICY = RPolicy.valueOf(
+				dmlconf.getTextValue(DMLConfig.CACHING_BUFFER_POLICY).trim().toUpperCase());
+		}
+		catch(IllegalArgumentException ex) {
+			throw new RuntimeException("Incorrect value (" + dmlconf.getTextValue(DMLConfig.CACHING_BUFFER_POLICY)
+				+ ") for the configuration " + DMLConfig.CACHING_BUFFER_POLICY);
+		}
 		
 		DMLScript.STATISTICS_MAX_WRAP_LEN = dmlconf.getIntValue(DMLConfig.STATS_MAX_WRAP_LEN);		
 		NativeHelper.initialize(dmlconf.getTextValue(DMLConfig.NATIVE_BLAS_DIR), dmlconf.getTextValue(DMLConfig.NATIVE_BLAS).trim());
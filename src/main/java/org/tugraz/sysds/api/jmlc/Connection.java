@@ -59,6 +59,7 @@ import org.tugraz.sysds.runtime.io.FrameReaderFactory;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.io.MatrixReader;
 import org.tugraz.sysds.runtime.io.MatrixReaderFactory;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.InputInfo;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
@@ -828,6 +829,24 @@ public class Connection implements Closeable
 		return ret;
 	}
 	
+	/**
+	 * Converts a set of columns in the Arrow columnar layout into a frame
+	 * block. Numeric columns without nulls and string columns are wrapped
+	 * but not copied, which avoids per-cell string conversions.
+	 * 
+	 * @param cols columns in the Arrow columnar layout
+	 * @param colnames column names, or null for default names
+	 * @return frame as a frame block
+	 */
+	public FrameBlock convertToFrame(FrameArrowColumn[] cols, String[] colnames) {
+		FrameBlock ret = new FrameBlock();
+		for( FrameArrowColumn col : cols )
+			ret.appendColumn(col);
+		if( colnames != null )
+			ret.setColumnNames(colnames);
+		return ret;
+	}
+	
 	////////////////////////////////////////////
 	// Read transform meta data
 	////////////////////////////////////////////
@@ -27,6 +27,7 @@ import org.tugraz.sysds.runtime.controlprogram.caching.FrameObject;
 import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.tugraz.sysds.runtime.instructions.cp.Data;
 import org.tugraz.sysds.runtime.instructions.cp.ScalarObject;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.util.DataConverter;
@@ -129,6 +130,23 @@ public class ResultVariables
 		return fb;
 	}
 	
+	/**
+	 * Obtain the frame represented by the given output variable as
+	 * columns in the Arrow columnar layout. Numeric columns are exported 
+	 * without copying the data, i.e., the returned buffers are shared with
+	 * the frame and must be treated as read-only.
+	 * 
+	 * @param varname output variable name
+	 * @return frame as an array of columns in the Arrow columnar layout
+	 */
+	public FrameArrowColumn[] getArrowFrame(String varname) {
+		FrameBlock fb = getFrameBlock(varname);
+		FrameArrowColumn[] ret = new FrameArrowColumn[fb.getNumColumns()];
+		for( int j=0; j<ret.length; j++ )
+			ret[j] = fb.getArrowColumn(j);
+		return ret;
+	}
+	
 	/**
 	 * Obtain the double value represented by the given output variable.
 	 * 
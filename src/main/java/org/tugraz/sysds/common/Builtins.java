@@ -143,12 +143,14 @@ public enum Builtins {
 	INVCDF("icdf", false, true),
 	LOWER_TRI("lower.tri", false, true),
 	ORDER("order", false, true),
+	DEQUANTIZE("dequantize", false, true),
 	PARAMSERV("paramserv", false, true),
 	PCHISQ("pchisq", false, true),
 	PEXP("pexp", false, true),
 	PF("pf", false, true),
 	PNORM("pnorm", false, true),
 	PT("pt", false, true),
+	QUANTIZE("quantize", false, true),
 	QCHISQ("qchisq", false, true),
 	QF("qf", false, true),
 	QNORM("qnorm", false, true),
@@ -56,17 +56,26 @@ public class Types
 	 * Value types (int, double, string, boolean, unknown).
 	 */
 	public enum ValueType {
-		FP32, FP64, INT32, INT64, BOOLEAN, STRING, UNKNOWN;
+		FP32, FP64, INT32, INT64, BOOLEAN, STRING,
+		FP16, BF16, INT8, //low-precision types (appended to keep serialized ordinals)
+		UNKNOWN;
 		public boolean isNumeric() {
-			return this == INT32 || this == INT64 || this == FP32 || this == FP64;
+			return this == INT32 || this == INT64 || this == FP32 || this == FP64
+				|| this == FP16 || this == BF16 || this == INT8;
+		}
+		public boolean isLowPrecision() {
+			return this == FP16 || this == BF16 || this == INT8;
 		}
 		public boolean isPseudoNumeric() {
 			return isNumeric() || this == BOOLEAN;
 		}
 		public String toExternalString() {
 			switch(this) {
+				case FP16:
+				case BF16:
 				case FP32:
 				case FP64:    return "DOUBLE";
+				case INT8:
 				case INT32:
 				case INT64:   return "INT";
 				case BOOLEAN: return "BOOLEAN";
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.conf;
+
+/**
+ * Configuration of compressed linear algebra (see sysml.compressed.linalg):
+ * TRUE compresses all read-only loop inputs, AUTO only those that are large
+ * and exclusively consumed by operations over compressed data.
+ */
+public enum CompressConfig {
+	TRUE,
+	FALSE,
+	AUTO;
+	
+	public boolean isEnabled() {
+		return this != FALSE;
+	}
+	
+	public static CompressConfig valueOfCaseInsensitive(String value) {
+		return valueOf(value.trim().toUpperCase());
+	}
+}
@@ -188,6 +188,11 @@ public class ConfigurationManager
 		//a counter-productive impact on performance.
 	}
 	
+	public static CompressConfig getCompressConfig() {
+		return CompressConfig.valueOfCaseInsensitive(
+			getDMLConfig().getTextValue(DMLConfig.COMPRESSED_LINALG));
+	}
+	
 	///////////////////////////////////////
 	// Thread-local classes
 	
@@ -44,7 +44,9 @@ import org.tugraz.sysds.hops.codegen.SpoofCompiler.CompilerType;
 import org.tugraz.sysds.hops.codegen.SpoofCompiler.PlanSelector;
 import org.tugraz.sysds.parser.ParseException;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult.KernelType;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -72,6 +74,11 @@ public class DMLConfig
 	public static final String YARN_APPQUEUE        = "sysml.yarn.app.queue"; 
 	public static final String CP_PARALLEL_OPS      = "sysml.cp.parallel.ops";
 	public static final String CP_PARALLEL_IO       = "sysml.cp.parallel.io";
+	public static final String CP_MMAP_IO           = "sysml.cp.mmap.io";
+	public static final String CP_MULT_KERNELS      = "sysml.cp.mult.kernels"; //see LibMatrixMult.KernelType
+	public static final String CP_SPARSE_TILED      = "sysml.cp.sparse.tiled"; //boolean: default:false
+	public static final String BINARYBLOCK_CODEC    = "sysml.io.binaryblock.codec"; //see BlockCompressionCodec.CodecType
+	public static final String BINARYBLOCK_DELTA    = "sysml.io.binaryblock.delta"; //boolean: default:false
 	public static final String NATIVE_BLAS          = "sysml.native.blas";
 	public static final String NATIVE_BLAS_DIR      = "sysml.native.blas.directory";
 	public static final String CODEGEN              = "sysml.codegen.enabled"; //boolean
@@ -80,6 +87,11 @@ public class DMLConfig
 	public static final String CODEGEN_PLANCACHE    = "sysml.codegen.plancache"; //boolean
 	public static final String CODEGEN_LITERALS     = "sysml.codegen.literals"; //1..heuristic, 2..always
 	public static final String CACHING_BUFFER_SIZE 	= "sysml.caching.bufferSize"; //double: default:0.15
+	public static final String CACHING_BUFFER_OFFHEAP = "sysml.caching.offheap"; //boolean: default:false
+	public static final String CACHING_BUFFER_POLICY = "sysml.caching.eviction.policy"; //string: fifo, lru, cost
+	public static final String CACHING_BUFFER_COMPRESSION = "sysml.caching.compression"; //boolean: default:false
+	public static final String CACHING_PREFETCH     = "sysml.caching.prefetch"; //int: num instructions, default:0 (disabled)
+	public static final String COMPRESSED_LINALG    = "sysml.compressed.linalg"; //see CompressConfig
 	public static final String EXTRA_FINEGRAINED_STATS = "sysml.stats.finegrained"; //boolean
 	public static final String STATS_MAX_WRAP_LEN   = "sysml.stats.maxWrapLength"; //int
 	public static final String AVAILABLE_GPUS       = "sysml.gpu.availableGPUs"; // String to specify which GPUs to use (a range, all GPUs, comma separated list or a specific GPU)
@@ -126,6 +138,11 @@ public class DMLConfig
 		_defaultVals.put(YARN_APPQUEUE,    	     "default" );
 		_defaultVals.put(CP_PARALLEL_OPS,        "true" );
 		_defaultVals.put(CP_PARALLEL_IO,         "true" );
+		_defaultVals.put(CP_MMAP_IO,             "false" );
+		_defaultVals.put(CP_MULT_KERNELS,        KernelType.AUTO.name().toLowerCase() );
+		_defaultVals.put(CP_SPARSE_TILED,        "false" );
+		_defaultVals.put(BINARYBLOCK_CODEC,      CodecType.NONE.name().toLowerCase() );
+		_defaultVals.put(BINARYBLOCK_DELTA,      "false" );
 		_defaultVals.put(CODEGEN,                "false" );
 		_defaultVals.put(CODEGEN_COMPILER,       CompilerType.AUTO.name() );
 		_defaultVals.put(CODEGEN_OPTIMIZER,      PlanSelector.FUSE_COST_BASED_V2.name() );
@@ -143,6 +160,11 @@ public class DMLConfig
 		_defaultVals.put(GPU_EVICTION_POLICY,    "min_evict");
 		_defaultVals.put(SYNCHRONIZE_GPU,        "false" );
 		_defaultVals.put(CACHING_BUFFER_SIZE,    "0.15" );
+		_defaultVals.put(CACHING_BUFFER_OFFHEAP, "false" );
+		_defaultVals.put(CACHING_BUFFER_POLICY,  "fifo" );
+		_defaultVals.put(CACHING_BUFFER_COMPRESSION, "false" );
+		_defaultVals.put(CACHING_PREFETCH,       "0" );
+		_defaultVals.put(COMPRESSED_LINALG,      CompressConfig.FALSE.name().toLowerCase() );
 		_defaultVals.put(EAGER_CUDA_FREE,        "false" );
 		_defaultVals.put(FLOATING_POINT_PRECISION,        	 "double" );
 	}
@@ -422,9 +444,9 @@ public class DMLConfig
 				LOCAL_TMP_DIR,SCRATCH_SPACE,OPTIMIZATION_LEVEL,
 				NUM_REDUCERS, DEFAULT_BLOCK_SIZE,
 				YARN_APPMASTER, YARN_APPMASTERMEM, YARN_MAPREDUCEMEM, 
-				CP_PARALLEL_OPS, CP_PARALLEL_IO, NATIVE_BLAS, NATIVE_BLAS_DIR,
+				CP_PARALLEL_OPS, CP_PARALLEL_IO, CP_MMAP_IO, CP_MULT_KERNELS, CP_SPARSE_TILED, BINARYBLOCK_CODEC, BINARYBLOCK_DELTA, NATIVE_BLAS, NATIVE_BLAS_DIR,
 				CODEGEN, CODEGEN_COMPILER, CODEGEN_OPTIMIZER, CODEGEN_PLANCACHE, CODEGEN_LITERALS,
-				EXTRA_FINEGRAINED_STATS, STATS_MAX_WRAP_LEN, PRINT_GPU_MEMORY_INFO, CACHING_BUFFER_SIZE,
+				EXTRA_FINEGRAINED_STATS, STATS_MAX_WRAP_LEN, PRINT_GPU_MEMORY_INFO, CACHING_BUFFER_SIZE, CACHING_BUFFER_OFFHEAP, CACHING_BUFFER_POLICY, CACHING_BUFFER_COMPRESSION, CACHING_PREFETCH, COMPRESSED_LINALG,
 				AVAILABLE_GPUS, SYNCHRONIZE_GPU, EAGER_CUDA_FREE, FLOATING_POINT_PRECISION, GPU_EVICTION_POLICY, EVICTION_SHADOW_BUFFERSIZE,
 				GPU_MEMORY_ALLOCATOR, GPU_MEMORY_UTILIZATION_FACTOR
 		}; 
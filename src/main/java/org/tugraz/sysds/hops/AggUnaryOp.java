@@ -46,6 +46,9 @@ public class AggUnaryOp extends MultiThreadedHop
 	
 	private AggOp _op;
 	private Direction _direction;
+	
+	//streaming aggregation over row batches of a csv read
+	private boolean _streamingInput = false;
 
 	private AggUnaryOp() {
 		//default constructor for clone
@@ -84,6 +87,14 @@ public class AggUnaryOp extends MultiThreadedHop
 	{
 		_direction = direction;
 	}
+	
+	public void setStreamingInput(boolean flag) {
+		_streamingInput = flag;
+	}
+	
+	public boolean isStreamingInput() {
+		return _streamingInput;
+	}
 
 	
 	@Override
@@ -152,6 +163,8 @@ public class AggUnaryOp extends MultiThreadedHop
 					int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
 					agg1 = new PartialAggregate(input.constructLops(), 
 							HopsAgg2Lops.get(_op), HopsDirection2Lops.get(_direction), getDataType(),getValueType(), et, k);
+					if( _streamingInput && et == ExecType.CP )
+						((PartialAggregate)agg1).setStreamingInput(true);
 				}
 				
 				setOutputDimensions(agg1);
@@ -379,6 +392,10 @@ public class AggUnaryOp extends MultiThreadedHop
 			
 			//check for valid CP dimensions and matrix size
 			checkAndSetInvalidCPDimsAndSize();
+			
+			//streaming aggregates require only memory for a batch of rows
+			if( _streamingInput )
+				_etype = ExecType.CP;
 		}
 
 		//spark-specific decision refinement (execute unary aggregate w/ spark input and 
@@ -659,6 +676,7 @@ public class AggUnaryOp extends MultiThreadedHop
 		ret._op = _op;
 		ret._direction = _direction;
 		ret._maxNumThreads = _maxNumThreads;
+		ret._streamingInput = _streamingInput;
 		
 		return ret;
 	}
@@ -404,7 +404,8 @@ public class BinaryOp extends MultiThreadedHop
 				ot = HopsOpOp2LopsU.get(op);
 
 			Unary unary1 = new Unary(getInput().get(0).constructLops(),
-				getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et);
+				getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et,
+				OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 		
 			setOutputDimensions(unary1);
 			setLineNumbers(unary1);
@@ -445,7 +446,7 @@ public class BinaryOp extends MultiThreadedHop
 				}
 				else
 					binary = new Binary(getInput().get(0).constructLops(), getInput().get(1).constructLops(), HopsOpOp2LopsB.get(op),
-						getDataType(), getValueType(), et);
+						getDataType(), getValueType(), et, OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 				
 				setOutputDimensions(binary);
 				setLineNumbers(binary);
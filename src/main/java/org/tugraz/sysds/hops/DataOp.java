@@ -48,6 +48,13 @@ public class DataOp extends Hop
 	private long _inRowsInBlock = -1;
 	private long _inColsInBlock = -1;
 	
+	//column projection of parquet reads (1-based, inclusive, -1 if none)
+	private long _inColLower = -1;
+	private long _inColUpper = -1;
+	
+	//streaming read of csv inputs consumed by a single aggregate
+	private boolean _streamingRead = false;
+	
 	private boolean _recompileRead = true;
 	
 	/**
@@ -275,6 +282,8 @@ public class DataOp extends Hop
 				l = new Data(HopsData2Lops.get(_dataop), null, inputLops, getName(), null, 
 						getDataType(), getValueType(), false, getInputFormatType());
 				l.getOutputParameters().setDimensions(getDim1(), getDim2(), _inRowsInBlock, _inColsInBlock, getNnz(), getUpdateType());
+				if( hasColumnProjection() )
+					((Data)l).setColumnProjection(_inColLower, _inColUpper);
 				break;
 				
 			case PERSISTENTWRITE:
@@ -340,6 +349,31 @@ public class DataOp extends Hop
 		return _inColsInBlock;
 	}
 	
+	public void setColumnProjection( long cl, long cu ) {
+		_inColLower = cl;
+		_inColUpper = cu;
+	}
+	
+	public boolean hasColumnProjection() {
+		return _inColLower > 0;
+	}
+	
+	public long getColumnProjectionLower() {
+		return _inColLower;
+	}
+	
+	public long getColumnProjectionUpper() {
+		return _inColUpper;
+	}
+	
+	public void setStreamingRead( boolean flag ) {
+		_streamingRead = flag;
+	}
+	
+	public boolean isStreamingRead() {
+		return _streamingRead;
+	}
+	
 	public boolean isRead()
 	{
 		return( _dataop == DataOpTypes.PERSISTENTREAD || _dataop == DataOpTypes.TRANSIENTREAD );
@@ -456,6 +490,10 @@ public class DataOp extends Hop
 			if( getDataType()==DataType.SCALAR )
 				_etypeForced = ExecType.CP;
 			
+			//parquet files are only written from the local runtime
+			if( _dataop == DataOpTypes.PERSISTENTWRITE && _inFormat == FileFormatTypes.PARQUET )
+				_etypeForced = ExecType.CP;
+			
 			if( _etypeForced != null )
 			{
 				_etype = _etypeForced;
@@ -492,6 +530,10 @@ public class DataOp extends Hop
 			}
 			
 			_etype = letype;
+			
+			//streaming reads are consumed by local, streaming aggregates
+			if( _streamingRead )
+				_etype = ExecType.CP;
 		}
 		
 		return _etype;
@@ -540,6 +582,9 @@ public class DataOp extends Hop
 		ret._inFormat = _inFormat;
 		ret._inRowsInBlock = _inRowsInBlock;
 		ret._inColsInBlock = _inColsInBlock;
+		ret._inColLower = _inColLower;
+		ret._inColUpper = _inColUpper;
+		ret._streamingRead = _streamingRead;
 		ret._recompileRead = _recompileRead;
 		ret._paramIndexMap = (HashMap<String, Integer>) _paramIndexMap.clone();
 		//note: no deep cp of params since read-only 
@@ -566,6 +611,9 @@ public class DataOp extends Hop
 					  && _inFormat == that2._inFormat
 					  && _inRowsInBlock == that2._inRowsInBlock
 					  && _inColsInBlock == that2._inColsInBlock
+					  && _inColLower == that2._inColLower
+					  && _inColUpper == that2._inColUpper
+					  && _streamingRead == that2._streamingRead
 					  && _paramIndexMap!=null && that2._paramIndexMap!=null );
 		
 		//above conditions also ensure consistency with regard to 
@@ -38,7 +38,7 @@ import org.tugraz.sysds.runtime.controlprogram.parfor.opt.CostEstimatorHops;
  * Note: Currently, we support expressions in function arguments along with function calls
  * in expressions with single outputs, leaving multiple outputs handling as it is.
  */
-public class FunctionOp extends Hop
+public class FunctionOp extends MultiThreadedHop
 {
 	public enum FunctionType{
 		DML,
@@ -267,7 +267,8 @@ public class FunctionOp extends Hop
 			tmp.add( in.constructLops() );
 		
 		//construct function call
-		Lop fcall = new FunctionCallCP(tmp, _fnamespace, _fname, _inputNames, _outputNames, _outputHops, et);
+		int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+		Lop fcall = new FunctionCallCP(tmp, _fnamespace, _fname, _inputNames, _outputNames, _outputHops, et, k);
 		setLineNumbers(fcall);
 		setLops(fcall);
 		
@@ -348,6 +349,7 @@ public class FunctionOp extends Hop
 		ret._outputNames = _outputNames.clone();
 		if( _outputHops != null )
 			ret._outputHops = (ArrayList<Hop>) _outputHops.clone();
+		ret._maxNumThreads = _maxNumThreads;
 		
 		return ret;
 	}
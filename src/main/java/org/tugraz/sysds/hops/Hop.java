@@ -34,6 +34,7 @@ import org.tugraz.sysds.lops.Binary;
 import org.tugraz.sysds.lops.BinaryScalar;
 import org.tugraz.sysds.lops.CSVReBlock;
 import org.tugraz.sysds.lops.Checkpoint;
+import org.tugraz.sysds.lops.Compression;
 import org.tugraz.sysds.lops.Data;
 import org.tugraz.sysds.lops.Lop;
 import org.tugraz.sysds.lops.LopsException;
@@ -105,6 +106,10 @@ public abstract class Hop implements ParseInfo
 	// (the default storage level for caching is not yet exposed here)
 	protected boolean _requiresCheckpoint = false;
 	
+	// indicates if the output of this hop needs to be compressed
+	// (this happens on persistent reads after reblock but before checkpoint)
+	protected boolean _requiresCompression = false;
+	
 	// indicates if the output of this hops needs to contain materialized empty blocks 
 	// if those exists; otherwise only blocks w/ non-zero values are materialized
 	protected boolean _outputEmptyBlocks = true;
@@ -258,10 +263,21 @@ public abstract class Hop implements ParseInfo
 		return _requiresCheckpoint;
 	}
 	
+	public void setRequiresCompression(boolean flag) {
+		_requiresCompression = flag;
+	}
+	
+	public boolean requiresCompression() {
+		return _requiresCompression;
+	}
+	
 	public void constructAndSetLopsDataFlowProperties() {
 		//Step 1: construct reblock lop if required (output of hop)
 		constructAndSetReblockLopIfRequired();
 		
+		//Step 2: construct compression lop if required (output of hop or reblock)
+		constructAndSetCompressionLopIfRequired();
+		
 		//Step 3: construct checkpoint lop if required (output of hop or reblock)
 		constructAndSetCheckpointLopIfRequired();
 	}
@@ -307,6 +323,20 @@ public abstract class Hop implements ParseInfo
 		}
 	}
 
+	private void constructAndSetCompressionLopIfRequired() {
+		//compression only supported for matrices in CP
+		if( !_requiresCompression || getDataType()!=DataType.MATRIX 
+			|| !(getExecType()==ExecType.CP || getExecType()==null) )
+			return;
+		
+		//add compression lop to output
+		Lop compress = new Compression(getLops(), getDataType(), getValueType(), 
+			ExecType.CP, OptimizerUtils.getConstrainedNumThreads(-1));
+		setOutputDimensions( compress );
+		setLineNumbers( compress );
+		setLops( compress );
+	}
+	
 	private void constructAndSetCheckpointLopIfRequired() {
 		//determine execution type
 		ExecType et = ExecType.CP;
@@ -1050,13 +1080,13 @@ public abstract class Hop implements ParseInfo
 
 	public enum ParamBuiltinOp {
 		INVALID, CDF, INVCDF, GROUPEDAGG, RMEMPTY, REPLACE, REXPAND,
-		LOWER_TRI, UPPER_TRI,
+		LOWER_TRI, UPPER_TRI, QUANTIZE, DEQUANTIZE,
 		TRANSFORMAPPLY, TRANSFORMDECODE, TRANSFORMCOLMAP, TRANSFORMMETA,
 		TOSTRING, LIST, PARAMSERV
 	}
 
 	public enum FileFormatTypes {
-		TEXT, BINARY, MM, CSV
+		TEXT, BINARY, MM, CSV, PARQUET
 	}
 
 	public enum DataOpTypes {
@@ -1363,6 +1393,8 @@ public abstract class Hop implements ParseInfo
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.REXPAND, ParameterizedBuiltin.OperationTypes.REXPAND);
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.LOWER_TRI, ParameterizedBuiltin.OperationTypes.LOWER_TRI);
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.UPPER_TRI, ParameterizedBuiltin.OperationTypes.UPPER_TRI);
+		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.QUANTIZE, ParameterizedBuiltin.OperationTypes.QUANTIZE);
+		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.DEQUANTIZE, ParameterizedBuiltin.OperationTypes.DEQUANTIZE);
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.TRANSFORMAPPLY, ParameterizedBuiltin.OperationTypes.TRANSFORMAPPLY);
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.TRANSFORMDECODE, ParameterizedBuiltin.OperationTypes.TRANSFORMDECODE);
 		HopsParameterizedBuiltinLops.put(ParamBuiltinOp.TRANSFORMCOLMAP, ParameterizedBuiltin.OperationTypes.TRANSFORMCOLMAP);
@@ -1816,6 +1848,7 @@ public abstract class Hop implements ParseInfo
 		_requiresRecompile = that._requiresRecompile;
 		_requiresReblock = that._requiresReblock;
 		_requiresCheckpoint = that._requiresCheckpoint;
+		_requiresCompression = that._requiresCompression;
 		_outputEmptyBlocks = that._outputEmptyBlocks;
 		
 		_beginLine = that._beginLine;
@@ -95,7 +95,8 @@ public class OptimizerUtils
 	public static final double INVALID_SIZE = -1d; // memory estimate not computed
 
 	//constants for valid CP matrix dimension sizes / nnz (dense/sparse)
-	public static final long MAX_NUMCELLS_CP_DENSE = Integer.MAX_VALUE;
+	//(dense blocks beyond int cells are supported by large dense row blocks)
+	public static final long MAX_NUMCELLS_CP_DENSE = Long.MAX_VALUE;
 	public static final long MAX_NNZ_CP_SPARSE = (MatrixBlock.DEFAULT_SPARSEBLOCK == 
 			SparseBlock.Type.MCSR) ? Long.MAX_VALUE : Integer.MAX_VALUE;
 
@@ -361,6 +362,9 @@ public class OptimizerUtils
 			cconf.set(ConfigType.PARALLEL_CP_READ_BINARYFORMATS, false);
 			cconf.set(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS, false);
 		}
+		
+		//handle memory-mapped binary io of local matrices
+		cconf.set(ConfigType.MMAP_CP_BINARYFORMATS, dmlconf.getBooleanValue(DMLConfig.CP_MMAP_IO));
 
 		//handle parallel matrix mult / rand configuration
 		if (!dmlconf.getBooleanValue(DMLConfig.CP_PARALLEL_OPS)) {
@@ -872,7 +876,8 @@ public class OptimizerUtils
 		boolean ret = true;
 		
 		//the current CP runtime implementation has several limitations:
-		//1) for dense: 16GB because we use a linearized array (bounded to int in java)
+		//1) for dense: none, because large dense row blocks (LDRB) split rows into
+		//   multiple linearized arrays (each bounded to int in java)
 		//2) for sparse: 2G x 2G nnz because (1) nnz maintained as long, (2) potential changes 
 		//   to dense, and (3) sparse row arrays also of max int size (worst case in case of skew)  
 		long nnz = (long)(sparsity * rows * cols);
@@ -166,6 +166,8 @@ public class ParameterizedBuiltinOp extends MultiThreadedHop
 			case REPLACE:
 			case LOWER_TRI:
 			case UPPER_TRI:
+			case QUANTIZE:
+			case DEQUANTIZE:
 			case TRANSFORMAPPLY:
 			case TRANSFORMDECODE:
 			case TRANSFORMCOLMAP:
@@ -713,7 +715,8 @@ public class ParameterizedBuiltinOp extends MultiThreadedHop
 		if (_op == ParamBuiltinOp.TRANSFORMCOLMAP || _op == ParamBuiltinOp.TRANSFORMMETA
 				|| _op == ParamBuiltinOp.TOSTRING || _op == ParamBuiltinOp.LIST
 				|| _op == ParamBuiltinOp.CDF || _op == ParamBuiltinOp.INVCDF
-				|| _op == ParamBuiltinOp.PARAMSERV) {
+				|| _op == ParamBuiltinOp.PARAMSERV
+				|| _op == ParamBuiltinOp.QUANTIZE || _op == ParamBuiltinOp.DEQUANTIZE) {
 			_etype = ExecType.CP;
 		}
 
@@ -765,7 +768,9 @@ public class ParameterizedBuiltinOp extends MultiThreadedHop
 				break;
 			}
 			case LOWER_TRI:
-			case UPPER_TRI: {
+			case UPPER_TRI:
+			case QUANTIZE:
+			case DEQUANTIZE: {
 				Hop target = getTargetHop();
 				setDim1(target.getDim1());
 				setDim2(target.getDim2());
@@ -181,8 +181,9 @@ public class ReorgOp extends MultiThreadedHop
 			}
 			case REV:
 			{
+				int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
 				Lop rev = new Transform( getInput().get(0).constructLops(), 
-					HopsTransf2Lops.get(op), getDataType(), getValueType(), et);
+					HopsTransf2Lops.get(op), getDataType(), getValueType(), et, k);
 				setOutputDimensions(rev);
 				setLineNumbers(rev);
 				setLops(rev);
@@ -197,8 +198,9 @@ public class ReorgOp extends MultiThreadedHop
 				
 				_outputEmptyBlocks = (et==ExecType.SPARK &&
 					!OptimizerUtils.allowsToFilterEmptyBlockOutputs(this)); 
+				int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
 				Transform transform1 = new Transform( linputs,
-					HopsTransf2Lops.get(op), getDataType(), getValueType(), _outputEmptyBlocks, et);
+					HopsTransf2Lops.get(op), getDataType(), getValueType(), _outputEmptyBlocks, et, k);
 				setOutputDimensions(transform1);
 				setLineNumbers(transform1);
 				
@@ -215,14 +217,15 @@ public class ReorgOp extends MultiThreadedHop
 				if( et==ExecType.SPARK ) {
 					boolean sortRewrite = !FORCE_DIST_SORT_INDEXES 
 						&& isSortSPRewriteApplicable() && by.getDataType().isScalar();
-					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, sortRewrite);
+					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, sortRewrite, 1);
 					setOutputDimensions(transform1);
 					setLineNumbers(transform1);
 					setLops(transform1);
 				}
 				else //CP
 				{
-					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, false);
+					int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, false, k);
 					setOutputDimensions(transform1);
 					setLineNumbers(transform1);
 					setLops(transform1);
@@ -240,14 +243,14 @@ public class ReorgOp extends MultiThreadedHop
 		return getLops();
 	}
 
-	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem ) 
+	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem, int k ) 
 	{
 		Hop[] hinputs = new Hop[]{input, by, desc, ixret};
 		Lop[] linputs = new Lop[4];
 		for( int i=0; i<4; i++ )
 			linputs[i] = hinputs[i].constructLops();
 		return new Transform( linputs, HopsTransf2Lops.get(ReOrgOp.SORT), 
-			input.getDataType(), input.getValueType(), et, bSortIndInMem);
+			input.getDataType(), input.getValueType(), et, bSortIndInMem, k);
 	}
 	
 	@Override
@@ -98,6 +98,8 @@ public class ProgramRewriter
 				_dagRuleSet.add( new RewriteCommonSubexpressionElimination()     );
 			if( OptimizerUtils.ALLOW_AUTO_VECTORIZATION )
 				_dagRuleSet.add( new RewriteIndexingVectorization()              ); //dependency: cse, simplifications
+			_dagRuleSet.add( new RewriteColumnProjectionPushdown()               ); //dependency: cse
+			_dagRuleSet.add( new RewriteStreamingCSVAggregates()                 ); //dependency: cse
 			_dagRuleSet.add( new RewriteInjectSparkPReadCheckpointing()          ); //dependency: reblock
 			
 			//add statement block rewrite rules
@@ -112,6 +114,7 @@ public class ProgramRewriter
  			if( OptimizerUtils.ALLOW_AUTO_VECTORIZATION )
 				_sbRuleSet.add(  new RewriteForLoopVectorization()               ); //dependency: reblock (reblockop)
  			_sbRuleSet.add( new RewriteInjectSparkLoopCheckpointing(true)        ); //dependency: reblock (blocksizes)
+ 			_sbRuleSet.add( new RewriteCompressedReblock()                      ); //dependency: reblock (blocksizes)
  			if( OptimizerUtils.ALLOW_CODE_MOTION )
  				_sbRuleSet.add(  new RewriteHoistLoopInvariantOperations()       ); //dependency: vectorize, but before inplace
  			if( OptimizerUtils.ALLOW_LOOP_UPDATE_IN_PLACE )
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.hops.rewrite;
+
+import java.util.ArrayList;
+
+import org.tugraz.sysds.hops.DataOp;
+import org.tugraz.sysds.hops.Hop;
+import org.tugraz.sysds.hops.IndexingOp;
+import org.tugraz.sysds.hops.LiteralOp;
+import org.tugraz.sysds.hops.Hop.DataOpTypes;
+import org.tugraz.sysds.hops.Hop.FileFormatTypes;
+import org.tugraz.sysds.hops.Hop.OpOp1;
+
+/**
+ * Rule: Column projection pushdown. For persistent reads of columnar
+ * (parquet) inputs that are exclusively consumed by column range indexing
+ * with literal bounds, e.g., X = read(...); Y = X[,2:4]; Z = X[,7];
+ * we push the covering column range into the read, which then only
+ * decodes the required column chunks, and shift the indexing bounds
+ * accordingly.
+ */
+public class RewriteColumnProjectionPushdown extends HopRewriteRule
+{
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state) {
+		if( roots == null )
+			return null;
+		for( Hop h : roots )
+			rule_ColumnProjectionPushdown(h);
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) {
+		//not applicable to predicates (we do not allow persistent reads there)
+		return root;
+	}
+
+	private void rule_ColumnProjectionPushdown(Hop hop) {
+		if( hop.isVisited() )
+			return;
+		
+		//process childs before the read itself, which has no matrix inputs
+		for( int i=0; i<hop.getInput().size(); i++ )
+			rule_ColumnProjectionPushdown(hop.getInput().get(i));
+		
+		if( isApplicable(hop) )
+			pushdownColumnProjection((DataOp)hop);
+		
+		hop.setVisited();
+	}
+	
+	private static boolean isApplicable(Hop hop) {
+		if( !(HopRewriteUtils.isData(hop, DataOpTypes.PERSISTENTREAD)
+			&& ((DataOp)hop).getInputFormatType() == FileFormatTypes.PARQUET
+			&& !((DataOp)hop).hasColumnProjection()
+			&& hop.dimsKnown() && !hop.getParent().isEmpty()) )
+			return false;
+		
+		//all consumers are column range indexing w/ literal bounds or nrow
+		boolean ret = false;
+		for( Hop p : hop.getParent() ) {
+			if( p instanceof IndexingOp && p.getInput().get(0) == hop ) {
+				ret = true;
+				if( !(((IndexingOp)p).isAllRows()
+					&& p.getInput().get(3) instanceof LiteralOp
+					&& p.getInput().get(4) instanceof LiteralOp) )
+					return false;
+			}
+			else if( !HopRewriteUtils.isUnary(p, OpOp1.NROW) )
+				return false;
+		}
+		return ret;
+	}
+	
+	private static void pushdownColumnProjection(DataOp read) {
+		//determine covering column range
+		long cl = Long.MAX_VALUE, cu = Long.MIN_VALUE;
+		for( Hop p : read.getParent() ) {
+			if( !(p instanceof IndexingOp) )
+				continue;
+			cl = Math.min(cl, HopRewriteUtils.getIntValueSafe((LiteralOp)p.getInput().get(3)));
+			cu = Math.max(cu, HopRewriteUtils.getIntValueSafe((LiteralOp)p.getInput().get(4)));
+		}
+		if( cl < 1 || cu > read.getDim2() || cl > cu || cu-cl+1 == read.getDim2() )
+			return; //invalid or full range
+		
+		//update the read and shift the indexing bounds
+		read.setColumnProjection(cl, cu);
+		read.setDim2(cu-cl+1);
+		read.setNnz(-1);
+		for( Hop p : new ArrayList<>(read.getParent()) ) {
+			if( !(p instanceof IndexingOp) )
+				continue;
+			for( int pos=3; pos<=4; pos++ ) {
+				Hop in = p.getInput().get(pos);
+				LiteralOp lit = new LiteralOp(HopRewriteUtils.getIntValueSafe((LiteralOp)in)-cl+1);
+				HopRewriteUtils.replaceChildReference(p, in, lit, pos, false);
+				HopRewriteUtils.cleanupUnreferenced(in);
+			}
+			p.refreshSizeInformation();
+		}
+		
+		LOG.debug("Applied columnProjectionPushdown (line "+read.getBeginLine()
+			+ "): "+read.getFileName()+"["+cl+":"+cu+"]");
+	}
+}
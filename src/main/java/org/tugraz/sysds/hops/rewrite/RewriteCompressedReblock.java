@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.hops.rewrite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.tugraz.sysds.conf.CompressConfig;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.hops.AggBinaryOp;
+import org.tugraz.sysds.hops.BinaryOp;
+import org.tugraz.sysds.hops.DataOp;
+import org.tugraz.sysds.hops.Hop;
+import org.tugraz.sysds.hops.Hop.AggOp;
+import org.tugraz.sysds.hops.Hop.DataOpTypes;
+import org.tugraz.sysds.hops.Hop.OpOp1;
+import org.tugraz.sysds.parser.DataIdentifier;
+import org.tugraz.sysds.parser.ForStatement;
+import org.tugraz.sysds.parser.ForStatementBlock;
+import org.tugraz.sysds.parser.IfStatement;
+import org.tugraz.sysds.parser.IfStatementBlock;
+import org.tugraz.sysds.parser.IndexedIdentifier;
+import org.tugraz.sysds.parser.StatementBlock;
+import org.tugraz.sysds.parser.VariableSet;
+import org.tugraz.sysds.parser.WhileStatement;
+import org.tugraz.sysds.parser.WhileStatementBlock;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.tugraz.sysds.common.Types.DataType;
+import org.tugraz.sysds.common.Types.ValueType;
+
+/**
+ * Rule: Compressed re-block of read-only loop inputs. Similar to loop
+ * checkpointing, we inject a statement block before while and for loops,
+ * which compresses all matrices read but not updated inside the loop body.
+ * In auto mode, we only compress sufficiently large matrices whose loop
+ * consumers are all supported over compressed blocks, because any other
+ * operation would require (cached) decompression.
+ */
+public class RewriteCompressedReblock extends StatementBlockRewriteRule
+{
+	@Override
+	public boolean createsSplitDag() {
+		return true;
+	}
+	
+	@Override
+	public List<StatementBlock> rewriteStatementBlock(StatementBlock sb, ProgramRewriteStatus status)
+	{
+		CompressConfig compress = ConfigurationManager.getCompressConfig();
+		if( !compress.isEnabled() || status.isInParforContext()
+			|| !(sb instanceof WhileStatementBlock || sb instanceof ForStatementBlock) ) {
+			// nothing to do here, return original statement block
+			return Arrays.asList(sb);
+		}
+		
+		ArrayList<StatementBlock> ret = new ArrayList<>();
+		int blocksize = status.getBlocksize(); //block size set by reblock rewrite
+		ArrayList<StatementBlock> body = (sb instanceof WhileStatementBlock) ?
+			((WhileStatement)sb.getStatement(0)).getBody() :
+			((ForStatement)sb.getStatement(0)).getBody();
+		
+		//step 1: determine compression candidates
+		ArrayList<String> candidates = new ArrayList<>();
+		VariableSet read = sb.variablesRead();
+		VariableSet updated = sb.variablesUpdated();
+		for( String rvar : read.getVariableNames() ) {
+			DataIdentifier dat = read.getVariable(rvar);
+			if( updated.containsVariable(rvar) || dat.getDataType()!=DataType.MATRIX )
+				continue;
+			if( compress == CompressConfig.AUTO && !(getDim1(dat) >= CompressedMatrixBlockFactory.MIN_NUM_ROWS
+				&& getDim2(dat) > 1 && rIsCompressionAware(body, rvar)) )
+				continue;
+			candidates.add(rvar);
+		}
+		
+		//step 2: insert statement block with compression operations
+		if( !candidates.isEmpty() ) {
+			StatementBlock sb0 = new StatementBlock();
+			sb0.setDMLProg(sb.getDMLProg());
+			sb0.setParseInfo(sb);
+			ArrayList<Hop> hops = new ArrayList<>();
+			VariableSet livein = new VariableSet();
+			VariableSet liveout = new VariableSet();
+			for( String var : candidates ) {
+				DataIdentifier dat = read.getVariable(var);
+				DataOp tread = new DataOp(var, DataType.MATRIX, ValueType.FP64, DataOpTypes.TRANSIENTREAD,
+					dat.getFilename(), getDim1(dat), getDim2(dat), dat.getNnz(), blocksize, blocksize);
+				tread.setRequiresCompression(true);
+				DataOp twrite = HopRewriteUtils.createTransientWrite(var, tread);
+				hops.add(twrite);
+				livein.addVariable(var, dat);
+				liveout.addVariable(var, dat);
+			}
+			sb0.setHops(hops);
+			sb0.setLiveIn(livein);
+			sb0.setLiveOut(liveout);
+			sb0.setSplitDag(true);
+			ret.add(sb0);
+		}
+		
+		//add original statement block to end
+		ret.add(sb);
+		
+		return ret;
+	}
+	
+	@Override
+	public List<StatementBlock> rewriteStatementBlocks(List<StatementBlock> sbs, ProgramRewriteStatus sate) {
+		return sbs;
+	}
+	
+	private static long getDim1(DataIdentifier dat) {
+		return (dat instanceof IndexedIdentifier) ? ((IndexedIdentifier)dat).getOrigDim1() : dat.getDim1();
+	}
+	
+	private static long getDim2(DataIdentifier dat) {
+		return (dat instanceof IndexedIdentifier) ? ((IndexedIdentifier)dat).getOrigDim2() : dat.getDim2();
+	}
+	
+	private static boolean rIsCompressionAware(ArrayList<StatementBlock> sbs, String varname) {
+		//NOTE: predicates are not considered, as they typically only use
+		//sizes or scalars, and function calls render the variable as unsupported
+		boolean ret = true;
+		for( StatementBlock sb : sbs ) {
+			if( !sb.variablesRead().containsVariable(varname) )
+				continue;
+			if( sb instanceof WhileStatementBlock )
+				ret &= rIsCompressionAware(((WhileStatement)sb.getStatement(0)).getBody(), varname);
+			else if( sb instanceof ForStatementBlock ) //incl parfor
+				ret &= rIsCompressionAware(((ForStatement)sb.getStatement(0)).getBody(), varname);
+			else if( sb instanceof IfStatementBlock ) {
+				IfStatement istmt = (IfStatement)sb.getStatement(0);
+				ret &= rIsCompressionAware(istmt.getIfBody(), varname);
+				if( ret && istmt.getElseBody() != null )
+					ret &= rIsCompressionAware(istmt.getElseBody(), varname);
+			}
+			else if( sb.getHops() != null ) {
+				Hop.resetVisitStatus(sb.getHops());
+				for( Hop hop : sb.getHops() )
+					ret &= rIsCompressionAware(hop, varname);
+				Hop.resetVisitStatus(sb.getHops());
+			}
+			else {
+				ret = false; //e.g., function call blocks
+			}
+			
+			//early abort if not applicable
+			if( !ret ) break;
+		}
+		return ret;
+	}
+	
+	private static boolean rIsCompressionAware(Hop hop, String varname) {
+		if( hop.isVisited() )
+			return true;
+		boolean ret = true;
+		if( HopRewriteUtils.isData(hop, DataOpTypes.TRANSIENTREAD) && hop.getName().equals(varname) ) {
+			for( Hop p : hop.getParent() )
+				ret &= isCompressionAwareConsumer(p);
+		}
+		for( Hop c : hop.getInput() )
+			ret &= rIsCompressionAware(c, varname);
+		hop.setVisited();
+		return ret;
+	}
+	
+	private static boolean isCompressionAwareConsumer(Hop hop) {
+		return hop instanceof AggBinaryOp
+			|| HopRewriteUtils.isAggUnaryOp(hop, AggOp.SUM, AggOp.MIN, AggOp.MAX)
+			|| (hop instanceof BinaryOp && (hop.getInput().get(0).isScalar() || hop.getInput().get(1).isScalar()))
+			|| HopRewriteUtils.isUnary(hop, OpOp1.NROW, OpOp1.NCOL, OpOp1.LENGTH)
+			|| (HopRewriteUtils.isTransposeOperation(hop)
+				&& hop.getParent().stream().allMatch(p -> p instanceof AggBinaryOp))
+			|| HopRewriteUtils.isData(hop, DataOpTypes.TRANSIENTWRITE);
+	}
+}
@@ -61,8 +61,9 @@ public class RewriteInjectSparkPReadCheckpointing extends HopRewriteRule
 			return;
 		
 		// The reblocking is performed after transform, and hence checkpoint only non-transformed reads.
-		if( (hop instanceof DataOp && ((DataOp)hop).getDataOpType()==DataOpTypes.PERSISTENTREAD)
-			|| hop.requiresReblock() )
+		// Streaming csv reads are consumed by local aggregates and never checkpointed.
+		if( (hop instanceof DataOp && ((DataOp)hop).getDataOpType()==DataOpTypes.PERSISTENTREAD
+			&& !((DataOp)hop).isStreamingRead()) || hop.requiresReblock() )
 		{
 			//make given hop for checkpointing (w/ default storage level)
 			//note: we do not recursively process childs here in order to prevent unnecessary checkpoints
@@ -154,6 +154,7 @@ public class RewriteSplitDagUnknownCSVRead extends StatementBlockRewriteRule
 			if(    dop.getDataOpType() == DataOpTypes.PERSISTENTREAD
 				&& dop.getInputFormatType() == FileFormatTypes.CSV
 				&& !dop.dimsKnown()
+				&& !dop.isStreamingRead()
 				&& !HopRewriteUtils.hasOnlyWriteParents(dop, true, false) )
 			{
 				cand.add(dop);
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.hops.rewrite;
+
+import java.util.ArrayList;
+
+import org.tugraz.sysds.api.DMLScript;
+import org.tugraz.sysds.common.Types.DataType;
+import org.tugraz.sysds.common.Types.ExecMode;
+import org.tugraz.sysds.hops.AggUnaryOp;
+import org.tugraz.sysds.hops.DataOp;
+import org.tugraz.sysds.hops.Hop;
+import org.tugraz.sysds.hops.Hop.AggOp;
+import org.tugraz.sysds.hops.Hop.DataOpTypes;
+import org.tugraz.sysds.hops.Hop.Direction;
+import org.tugraz.sysds.hops.Hop.FileFormatTypes;
+
+/**
+ * Rule: Streaming csv aggregates. For persistent reads of csv inputs
+ * that are exclusively consumed by a single unary aggregate, e.g., 
+ * X = read(...); s = sum(X); we mark the read and its aggregate for 
+ * streaming, which computes the aggregate over batches of parsed rows 
+ * without materializing the entire input. Since every streaming aggregate
+ * parses the file again, reads with multiple consumers are materialized
+ * once as usual. The rewrite
+ * applies in single-node mode or for full aggregates of csv inputs of
+ * unknown size, which avoids the split of the hop DAG as well as the
+ * distributed reblock.
+ */
+public class RewriteStreamingCSVAggregates extends HopRewriteRule
+{
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state) {
+		if( roots == null )
+			return null;
+		for( Hop h : roots )
+			rule_StreamingCSVAggregates(h);
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) {
+		//not applicable to predicates (we do not allow persistent reads there)
+		return root;
+	}
+
+	private void rule_StreamingCSVAggregates(Hop hop) {
+		if( hop.isVisited() )
+			return;
+		
+		for( int i=0; i<hop.getInput().size(); i++ )
+			rule_StreamingCSVAggregates(hop.getInput().get(i));
+		
+		if( isApplicable(hop) ) {
+			DataOp read = (DataOp) hop;
+			read.setStreamingRead(true);
+			read.setRequiresReblock(false); //no distributed csv reblock
+			((AggUnaryOp)read.getParent().get(0)).setStreamingInput(true);
+			LOG.debug("Applied streamingCSVAggregates (line "+read.getBeginLine()
+				+ "): "+read.getFileName());
+		}
+		
+		hop.setVisited();
+	}
+	
+	private static boolean isApplicable(Hop hop) {
+		if( !(HopRewriteUtils.isData(hop, DataOpTypes.PERSISTENTREAD)
+			&& ((DataOp)hop).getInputFormatType() == FileFormatTypes.CSV
+			&& hop.getDataType() == DataType.MATRIX
+			&& !((DataOp)hop).isStreamingRead() && hop.getParent().size() == 1
+			&& (DMLScript.getGlobalExecMode() == ExecMode.SINGLE_NODE || !hop.dimsKnown())) )
+			return false;
+		
+		//single consumer is a unary aggregate over the read (single scan)
+		Hop p = hop.getParent().get(0);
+		return p instanceof AggUnaryOp && p.getInput().get(0) == hop
+			&& isSupportedAggregate((AggUnaryOp)p);
+	}
+	
+	private static boolean isSupportedAggregate(AggUnaryOp agg) {
+		//w/o split of the hop DAG, the outputs of row and column aggregates
+		//would have unknown size and thus consumers compiled to spark
+		if( DMLScript.getGlobalExecMode() != ExecMode.SINGLE_NODE
+			&& agg.getDirection() != Direction.RowCol )
+			return false;
+		switch( agg.getOp() ) {
+			case SUM: case SUM_SQ: case MEAN: case VAR:
+			case MIN: case MAX: case PROD:
+				return true;
+			case MAXINDEX: case MININDEX:
+				return agg.getDirection() == Direction.Row;
+			default: //e.g., trace
+				return false;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.lops;
+
+import org.tugraz.sysds.lops.LopProperties.ExecType;
+import org.tugraz.sysds.common.Types.DataType;
+import org.tugraz.sysds.common.Types.ValueType;
+
+/**
+ * Lop for the compression of matrices into column-group compressed blocks,
+ * which is injected for read-only matrices that are reused in loops.
+ */
+public class Compression extends Lop 
+{
+	public static final String OPCODE = "compress";
+	
+	private final int _numThreads;
+	
+	public Compression(Lop input, DataType dt, ValueType vt, ExecType et, int k) {
+		super(Lop.Type.Compression, dt, vt);
+		_numThreads = k;
+		addInput(input);
+		input.addOutput(this);
+		lps.setProperties(inputs, et);
+	}
+	
+	@Override
+	public String toString() {
+		return "Compress";
+	}
+	
+	@Override
+	public String getInstructions(String input1, String output) {
+		if( getExecType() != ExecType.CP )
+			throw new LopsException("Wrong execution type for Compression.getInstructions (expected: CP, found: "+getExecType()+").");
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append( getExecType() );
+		sb.append( Lop.OPERAND_DELIMITOR );
+		sb.append( OPCODE );
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( getInputs().get(0).prepInputOperand(input1));
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( prepOutputOperand(output));
+		sb.append( OPERAND_DELIMITOR );
+		sb.append( _numThreads );
+		
+		return sb.toString();
+	}
+}
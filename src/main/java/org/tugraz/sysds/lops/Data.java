@@ -45,6 +45,10 @@ public class Data extends Lop
 	boolean literal_var = false;
 	boolean transient_var = false;
 	
+	//column projection of persistent reads (1-based, inclusive, -1 if none)
+	private long _projColLower = -1;
+	private long _projColUpper = -1;
+	
 	private HashMap<String, Lop> _inputParams;
 
 	/**
@@ -158,6 +162,8 @@ public class Data extends Lop
 			this.outParams.setFormat(Format.MM);
 		else if (type == FileFormatTypes.CSV )
 			this.outParams.setFormat(Format.CSV);
+		else if (type == FileFormatTypes.PARQUET )
+			this.outParams.setFormat(Format.PARQUET);
 		else 
 			throw new LopsException("Unexpected format: " + type);
 		setLopProperties();
@@ -171,6 +177,17 @@ public class Data extends Lop
 	{
 		return formatType ;
 	}
+	
+	/**
+	 * Method to set the column projection of persistent parquet reads.
+	 * 
+	 * @param cl column lower bound (1-based, inclusive)
+	 * @param cu column upper bound (1-based, inclusive)
+	 */
+	public void setColumnProjection(long cl, long cu) {
+		_projColLower = cl;
+		_projColUpper = cu;
+	}
  
 	@Override
 	public String toString() {
@@ -323,6 +340,8 @@ public class Data extends Lop
 					fmt = "textcell";
 				else if (oparams.getFormat() == Format.CSV)
 					fmt = "csv";
+				else if (oparams.getFormat() == Format.PARQUET)
+					fmt = "parquet";
 				else if ( oparams.getFormat() == Format.BINARY ){
 					if ( oparams.getRowsInBlock() > 0 || oparams.getColsInBlock() > 0 )
 						fmt = "binaryblock"; 
@@ -417,6 +436,8 @@ public class Data extends Lop
 				fmt = "matrixmarket";
 			else if ( oparams.getFormat() == Format.CSV )
 				fmt = "csv";
+			else if ( oparams.getFormat() == Format.PARQUET )
+				fmt = "parquet";
 			else { //binary
 				fmt = ( getDataType() == DataType.FRAME || oparams.getRowsInBlock() > 0 
 					|| oparams.getColsInBlock() > 0 ) ? "binaryblock" : "binarycell";
@@ -454,6 +475,13 @@ public class Data extends Lop
 				sb.append( OPERAND_DELIMITOR );
 				sb.append( createVarCSVHelper() );
 			}
+			else if ( oparams.getFormat() == Format.PARQUET
+				&& operation == OperationTypes.READ && _projColLower > 0 ) {
+				sb.append( OPERAND_DELIMITOR );
+				sb.append( _projColLower );
+				sb.append( OPERAND_DELIMITOR );
+				sb.append( _projColUpper );
+			}
 			
 			// Frame-specific properties
 			if( getDataType()==DataType.FRAME ) {
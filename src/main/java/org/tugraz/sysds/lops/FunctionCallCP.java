@@ -36,10 +36,17 @@ public class FunctionCallCP extends Lop
 	private String[] _inputNames;
 	private String[] _outputNames;
 	private ArrayList<Lop> _outputLops = null;
+	private int _numThreads = 1;
 
 	public FunctionCallCP(ArrayList<Lop> inputs, String fnamespace, String fname, 
 		String[] inputNames, String[] outputNames, ArrayList<Hop> outputHops, ExecType et) {
+		this(inputs, fnamespace, fname, inputNames, outputNames, outputHops, et, 1);
+	}
+	
+	public FunctionCallCP(ArrayList<Lop> inputs, String fnamespace, String fname, 
+		String[] inputNames, String[] outputNames, ArrayList<Hop> outputHops, ExecType et, int numThreads) {
 		this(inputs, fnamespace, fname, inputNames, outputNames, et);
+		_numThreads = numThreads;
 		if(outputHops != null) {
 			_outputLops = new ArrayList<>();
 			setLevel();
@@ -101,9 +108,21 @@ public class FunctionCallCP extends Lop
 			sb.append(_outputNames[i]);
 		}
 		
+		//append degree of parallelism for multi-threaded decompositions
+		if( getExecType() == ExecType.CP && isMultiThreadedBuiltin(_fname) ) {
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(_numThreads);
+		}
+		
 		return sb.toString();
 	}
 	
+	public static boolean isMultiThreadedBuiltin(String fname) {
+		return fname.equalsIgnoreCase("qr")
+			|| fname.equalsIgnoreCase("lu")
+			|| fname.equalsIgnoreCase("eigen");
+	}
+	
 	/**
 	 * Method to generate instructions for external functions as well as builtin functions with multiple returns.
 	 * Builtin functions have their namespace set to DMLProgram.INTERNAL_NAMESPACE ("_internal").
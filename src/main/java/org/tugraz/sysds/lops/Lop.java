@@ -56,6 +56,7 @@ public abstract class Lop
 		WeightedSquaredLoss, WeightedSigmoid, WeightedDivMM, WeightedCeMM, WeightedUMM,
 		SortKeys, PickValues, Ctable,
 		Checkpoint,                                         //Spark persist into storage level
+		Compression,                                        //CP compression of read-only matrices
 		PlusMult, MinusMult,                                //CP
 		SpoofFused,                                         //CP/SP generated fused operator
 	}
@@ -36,7 +36,7 @@ import org.tugraz.sysds.common.Types.ValueType;
 public class ParameterizedBuiltin extends Lop 
 {
 	public enum OperationTypes { 
-		CDF, INVCDF, RMEMPTY, REPLACE, REXPAND, LOWER_TRI, UPPER_TRI,
+		CDF, INVCDF, RMEMPTY, REPLACE, REXPAND, LOWER_TRI, UPPER_TRI, QUANTIZE, DEQUANTIZE,
 		TRANSFORMAPPLY, TRANSFORMDECODE, TRANSFORMCOLMAP, TRANSFORMMETA,
 		TOSTRING, LIST, PARAMSERV
 	}
@@ -157,6 +157,20 @@ public class ParameterizedBuiltin extends Lop
 				break;
 			}
 			
+			case QUANTIZE: {
+				sb.append( "quantize" );
+				sb.append( OPERAND_DELIMITOR );
+				sb.append(compileGenericParamMap(_inputParams));
+				break;
+			}
+			
+			case DEQUANTIZE: {
+				sb.append( "dequantize" );
+				sb.append( OPERAND_DELIMITOR );
+				sb.append(compileGenericParamMap(_inputParams));
+				break;
+			}
+			
 			case REXPAND:
 				sb.append("rexpand");
 				sb.append(OPERAND_DELIMITOR);
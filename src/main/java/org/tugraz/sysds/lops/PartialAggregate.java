@@ -69,6 +69,9 @@ public class PartialAggregate extends Lop
 	
 	//optional attribute for spark exec type
 	private SparkAggType _aggtype = SparkAggType.MULTI_BLOCK;
+	
+	//optional attribute for CP streaming aggregation of csv inputs
+	private boolean _streamingInput = false;
 
 	public PartialAggregate( Lop input, Aggregate.OperationTypes op,
 			PartialAggregate.DirectionTypes direct, DataType dt, ValueType vt, ExecType et, int k)
@@ -211,6 +214,10 @@ public class PartialAggregate extends Lop
 		return loc;
 	}
 
+	public void setStreamingInput(boolean flag) {
+		_streamingInput = flag;
+	}
+	
 	public void setDimensionsBasedOnDirection(long dim1, long dim2,  
 			long rowsPerBlock, long colsPerBlock)
 	{
@@ -265,8 +272,13 @@ public class PartialAggregate extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		if( getExecType() == ExecType.SPARK )
 			sb.append( _aggtype );
-		else if( getExecType() == ExecType.CP )
-			sb.append( _numThreads );	
+		else if( getExecType() == ExecType.CP ) {
+			sb.append( _numThreads );
+			if( _streamingInput ) {
+				sb.append( OPERAND_DELIMITOR );
+				sb.append( _streamingInput );
+			}
+		}
 		
 		return sb.toString();
 	}
@@ -51,7 +51,11 @@ public class Transform extends Lop
 	}
 	
 	public Transform(Lop[] inputs, Transform.OperationTypes op, DataType dt, ValueType vt, boolean outputEmptyBlock, ExecType et) {
-		this(inputs, op, dt, vt, et, 1);
+		this(inputs, op, dt, vt, outputEmptyBlock, et, 1);
+	}
+	
+	public Transform(Lop[] inputs, Transform.OperationTypes op, DataType dt, ValueType vt, boolean outputEmptyBlock, ExecType et, int k) {
+		this(inputs, op, dt, vt, et, k);
 		_outputEmptyBlock = outputEmptyBlock;
 	}
 	
@@ -74,9 +78,14 @@ public class Transform extends Lop
 	}
 	
 	public Transform(Lop[] inputs, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem) {
+		this(inputs, op, dt, vt, et, bSortIndInMem, 1);
+	}
+	
+	public Transform(Lop[] inputs, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et, boolean bSortIndInMem, int k) {
 		super(Lop.Type.Transform, dt, vt);
 		_bSortIndInMem = bSortIndInMem;
 		init(inputs, op, dt, vt, et);
+		_numThreads = k;
 	}
 	
 	private void init (Lop[] input, Transform.OperationTypes op, DataType dt, ValueType vt, ExecType et) 
@@ -148,7 +157,8 @@ public class Transform extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( this.prepOutputOperand(output));
 		
-		if( getExecType()==ExecType.CP && operation == OperationTypes.Transpose ) {
+		if( getExecType()==ExecType.CP && (operation == OperationTypes.Transpose
+			|| operation == OperationTypes.Rev) ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( _numThreads );
 		}
@@ -158,7 +168,7 @@ public class Transform extends Lop
 
 	@Override
 	public String getInstructions(String input1, String input2, String input3, String input4, String output) {
-		//only used for reshape
+		//used for reshape and sort
 		
 		StringBuilder sb = new StringBuilder();
 		sb.append( getExecType() );
@@ -190,6 +200,12 @@ public class Transform extends Lop
 			sb.append( _bSortIndInMem );
 		}
 		
+		if( getExecType()==ExecType.CP && (operation == OperationTypes.Sort
+			|| operation == OperationTypes.Reshape) ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 }
\ No newline at end of file
@@ -67,8 +67,24 @@ public class Unary extends Lop
 	 * @param et execution type
 	 */
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et) {
+		this(input1, input2, op, dt, vt, et, 1);
+	}
+	
+	/**
+	 * Constructor to perform a unary operation with 2 inputs
+	 * 
+	 * @param input1 low-level operator 1
+	 * @param input2 low-level operator 2
+	 * @param op operation type
+	 * @param dt data type
+	 * @param vt value type
+	 * @param et execution type
+	 * @param numThreads number of threads
+	 */
+	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, input2, op, dt, vt, et);
+		_numThreads = numThreads;
 	}
 
 	private void init(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et) {
@@ -301,7 +317,9 @@ public class Unary extends Lop
 			|| op==OperationTypes.CUMSUMPROD
 			|| op==OperationTypes.EXP
 			|| op==OperationTypes.LOG
-			|| op==OperationTypes.SIGMOID;
+			|| op==OperationTypes.SIGMOID
+			|| op==OperationTypes.INVERSE
+			|| op==OperationTypes.CHOLESKY;
 	}
 	
 	@Override
@@ -356,6 +374,13 @@ public class Unary extends Lop
 		sb.append( OPERAND_DELIMITOR );
 		sb.append( this.prepOutputOperand(output));
 		
+		//num threads for cp matrix-scalar ops (log parsed as builtin)
+		if( getExecType() == ExecType.CP && getDataType().isMatrix()
+			&& operation != OperationTypes.LOG && operation != OperationTypes.LOG_NZ ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 }
@@ -720,6 +720,9 @@ public class Dag<N extends Lop>
 			else if ( oparams.getFormat() == Format.CSV ) {
 				oinfo = OutputInfo.CSVOutputInfo;
 			}
+			else if ( oparams.getFormat() == Format.PARQUET ) {
+				oinfo = OutputInfo.ParquetOutputInfo;
+			}
 			else {
 				oinfo = OutputInfo.BinaryCellOutputInfo;
 			}
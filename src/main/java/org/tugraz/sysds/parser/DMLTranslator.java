@@ -997,6 +997,7 @@ public class DMLTranslator
 					case TEXT:
 					case MM:
 					case CSV:
+					case PARQUET:
 						// write output in textcell format
 						ae.setOutputParams(ae.getDim1(), ae.getDim2(), ae.getNnz(), ae.getUpdateType(), -1, -1);
 						break;
@@ -1945,6 +1946,8 @@ public class DMLTranslator
 			case REPLACE:
 			case LOWER_TRI:
 			case UPPER_TRI:
+			case QUANTIZE:
+			case DEQUANTIZE:
 			case TRANSFORMAPPLY:
 			case TRANSFORMDECODE:
 			case TRANSFORMCOLMAP:
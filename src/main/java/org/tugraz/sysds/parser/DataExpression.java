@@ -20,6 +20,7 @@
 package org.tugraz.sysds.parser;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -43,6 +44,7 @@ import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.tugraz.sysds.runtime.io.FileFormatPropertiesMM;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+import org.tugraz.sysds.runtime.io.ReaderParquet;
 import org.tugraz.sysds.runtime.util.HDFSTool;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
 import org.tugraz.sysds.utils.JSONHelper;
@@ -75,6 +77,7 @@ public class DataExpression extends DataIdentifier
 	public static final String FORMAT_TYPE_VALUE_BINARY = "binary";
 	public static final String FORMAT_TYPE_VALUE_CSV = "csv";
 	public static final String FORMAT_TYPE_VALUE_MATRIXMARKET = "mm";
+	public static final String FORMAT_TYPE_VALUE_PARQUET = "parquet";
 	
 	public static final String ROWBLOCKCOUNTPARAM = "rows_in_block";
 	public static final String COLUMNBLOCKCOUNTPARAM = "cols_in_block";
@@ -84,6 +87,7 @@ public class DataExpression extends DataIdentifier
 	public static final String AUTHORPARAM = "author";
 	public static final String SCHEMAPARAM = "schema";
 	public static final String CREATEDPARAM = "created";
+	public static final String CODECPARAM = "codec";
 
 	// Parameter names relevant to reading/writing delimited/csv files
 	public static final String DELIM_DELIMITER = "sep";
@@ -106,7 +110,7 @@ public class DataExpression extends DataIdentifier
 	public static final String[] READ_VALID_MTD_PARAM_NAMES = 
 		{ IO_FILENAME, READROWPARAM, READCOLPARAM, READNNZPARAM, FORMAT_TYPE,
 			ROWBLOCKCOUNTPARAM, COLUMNBLOCKCOUNTPARAM, DATATYPEPARAM, VALUETYPEPARAM, SCHEMAPARAM, DESCRIPTIONPARAM,
-			AUTHORPARAM, CREATEDPARAM,
+			AUTHORPARAM, CREATEDPARAM, CODECPARAM,
 			// Parameters related to delimited/csv files.
 			DELIM_FILL_VALUE, DELIM_DELIMITER, DELIM_FILL, DELIM_HAS_HEADER_ROW, DELIM_NA_STRINGS
 		}; 
@@ -723,6 +727,22 @@ public class DataExpression extends DataIdentifier
 		        	LOG.warn("Metadata file: " + new Path(mtdFileName) + " not provided");
 		        }
 			} 
+			
+			// obtain missing size information from the parquet footers
+			if( _checkMetadata && getVarParam(FORMAT_TYPE) != null
+				&& getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_PARQUET)
+				&& (getVarParam(READROWPARAM) == null || getVarParam(READCOLPARAM) == null) )
+			{
+				try {
+					long[] dims = ReaderParquet.readDimensions(inputFileName);
+					addVarParam(READROWPARAM, new IntIdentifier(dims[0], this));
+					addVarParam(READCOLPARAM, new IntIdentifier(dims[1], this));
+				}
+				catch(IOException ex) {
+					raiseValidateError("Failed to read parquet footers of "
+						+ inputFileName + ": " + ex.getMessage(), conditional);
+				}
+			}
 	        
 			boolean isCSV = false;
 			isCSV = (formatTypeString != null && formatTypeString.equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV));
@@ -883,6 +903,11 @@ public class DataExpression extends DataIdentifier
 				{
 					getOutput().setFormatType(FormatType.MM);
 					format = 1;
+				}
+				else if ( fmt.equalsIgnoreCase(FORMAT_TYPE_VALUE_PARQUET) )
+				{
+					getOutput().setFormatType(FormatType.PARQUET);
+					format = 1;
 				} else {
 					raiseValidateError("Invalid format '" + fmt+ "' in statement: " + this.toString(), conditional);
 				}
@@ -996,6 +1021,8 @@ public class DataExpression extends DataIdentifier
 				getOutput().setBlockDimensions(ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize());
 			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_MATRIXMARKET) || (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_CSV)))
 				getOutput().setBlockDimensions(-1, -1);
+			else if (getVarParam(FORMAT_TYPE).toString().equalsIgnoreCase(FORMAT_TYPE_VALUE_PARQUET))
+				getOutput().setBlockDimensions(-1, -1);
 			
 			else{
 				raiseValidateError("Invalid format " + getVarParam(FORMAT_TYPE) +  " in statement: " + this.toString(), conditional);
@@ -1705,7 +1732,8 @@ public class DataExpression extends DataIdentifier
 				if (getVarParam(key.toString()) == null){
 					if (( !key.toString().equalsIgnoreCase(DESCRIPTIONPARAM) ) &&
 							( !key.toString().equalsIgnoreCase(AUTHORPARAM) ) &&
-							( !key.toString().equalsIgnoreCase(CREATEDPARAM) ) )
+							( !key.toString().equalsIgnoreCase(CREATEDPARAM) ) &&
+							( !key.toString().equalsIgnoreCase(CODECPARAM) ) )
 					{
 						StringIdentifier strId = new StringIdentifier(val.toString(), this);
 						
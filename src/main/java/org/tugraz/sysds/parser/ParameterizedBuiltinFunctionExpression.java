@@ -59,6 +59,8 @@ public class ParameterizedBuiltinFunctionExpression extends DataIdentifier
 		pbHopMap.put(Builtins.REPLACE, ParamBuiltinOp.REPLACE);
 		pbHopMap.put(Builtins.LOWER_TRI, ParamBuiltinOp.LOWER_TRI);
 		pbHopMap.put(Builtins.UPPER_TRI, ParamBuiltinOp.UPPER_TRI);
+		pbHopMap.put(Builtins.QUANTIZE, ParamBuiltinOp.QUANTIZE);
+		pbHopMap.put(Builtins.DEQUANTIZE, ParamBuiltinOp.DEQUANTIZE);
 		
 		// For order, a ReorgOp is constructed with ReorgOp.SORT type
 		pbHopMap.put(Builtins.ORDER, ParamBuiltinOp.INVALID);
@@ -224,6 +226,11 @@ public class ParameterizedBuiltinFunctionExpression extends DataIdentifier
 			validateExtractTriangular(output, getOpCode(), conditional);
 			break;
 			
+		case QUANTIZE:
+		case DEQUANTIZE:
+			validateQuantize(output, getOpCode(), conditional);
+			break;
+			
 		case TOSTRING:
 			validateCastAsString(output, conditional);
 			break;
@@ -447,6 +454,34 @@ public class ParameterizedBuiltinFunctionExpression extends DataIdentifier
 		output.setDimensions(in.getDim1(), in.getDim2());
 	}
 	
+	private void validateQuantize(DataIdentifier output,  Builtins op, boolean conditional) {
+		
+		//check for invalid parameters
+		Set<String> valid = (op == Builtins.QUANTIZE) ?
+			UtilFunctions.asSet("target", "type") : UtilFunctions.asSet("target");
+		checkInvalidParameters(op, getVarParams(), valid);
+		
+		//check existence and correctness of arguments
+		checkTargetParam(getVarParam("target"), conditional);
+		if( op == Builtins.QUANTIZE ) {
+			checkStringParam(true, op.getName(), "type", conditional);
+			if( getVarParam("type") == null ) //default handling
+				_varParams.put("type", new StringIdentifier(ValueType.INT8.name().toLowerCase(), this));
+			else if( getVarParam("type") instanceof StringIdentifier ) {
+				String type = ((StringIdentifier)getVarParam("type")).getValue();
+				if( !UtilFunctions.asSet("int8", "fp16", "bf16").contains(type.toLowerCase()) )
+					raiseValidateError("Unsupported quantization type '"+type+"', "
+						+ "valid types are int8, fp16, and bf16.", conditional, LanguageErrorCodes.INVALID_PARAMETERS);
+			}
+		}
+		
+		// Output is a matrix with the same dims as the input
+		Identifier in = getVarParam("target").getOutput();
+		output.setDataType(DataType.MATRIX);
+		output.setValueType(ValueType.FP64);
+		output.setDimensions(in.getDim1(), in.getDim2());
+	}
+	
 	private void validateReplace(DataIdentifier output, boolean conditional) {
 		//check existence and correctness of arguments
 		Expression target = getVarParam("target");
@@ -269,14 +269,8 @@ public abstract class SpoofOperator implements Serializable
 			SparseBlock sblock = mdat.getSparseBlock();
 			if( sblock == null ) return;
 			Arrays.fill(values, 0);
-			if( !sblock.isEmpty(r) ) {
-				int apos = sblock.pos(r);
-				int alen = sblock.size(r);
-				int[] aix = sblock.indexes(r);
-				double[] avals = sblock.values(r);
-				for(int k=apos; k<apos+alen; k++)
-					values[aix[k]] = avals[k];
-			}
+			if( !sblock.isEmpty(r) )
+				sblock.scatter(r, values, 0);
 		}
 	}
 	
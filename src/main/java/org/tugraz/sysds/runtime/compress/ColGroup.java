@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Abstract class for column groups of a compressed matrix block. A column
+ * group holds a subset of columns in a specific encoding and all operations
+ * are expressed in terms of the column indexes of the entire matrix, i.e.,
+ * the group scatters its results into the respective output positions.
+ *
+ * Column groups are immutable: update operations such as scalar operations
+ * create new column groups, potentially with shared index structures.
+ */
+public abstract class ColGroup implements Serializable
+{
+	private static final long serialVersionUID = 2439785418908671481L;
+
+	public enum CompressionType {
+		DDC,          //dense dictionary coding
+		OLE,          //offset list encoding
+		RLE,          //run length encoding
+		UNCOMPRESSED, //uncompressed matrix block
+		QUANTIZED,    //lossy low-precision values
+	}
+
+	//sorted column indexes of this group w.r.t. the entire matrix
+	protected int[] _colIndexes;
+
+	//number of rows of the entire matrix
+	protected int _numRows;
+
+	protected ColGroup() {
+		//default constructor for deserialization
+	}
+
+	protected ColGroup(int[] colIndexes, int numRows) {
+		_colIndexes = colIndexes;
+		_numRows = numRows;
+	}
+
+	public int[] getColIndices() {
+		return _colIndexes;
+	}
+
+	public int getColIndex(int colpos) {
+		return _colIndexes[colpos];
+	}
+
+	public int getNumCols() {
+		return _colIndexes.length;
+	}
+
+	public int getNumRows() {
+		return _numRows;
+	}
+
+	/**
+	 * Get the position of the given matrix column in this group.
+	 *
+	 * @param c column index w.r.t. the entire matrix
+	 * @return column position in this group, -1 if not contained
+	 */
+	public int getColPos(int c) {
+		for( int j=0; j<_colIndexes.length; j++ )
+			if( _colIndexes[j] == c )
+				return j;
+		return -1;
+	}
+
+	public abstract CompressionType getCompType();
+
+	/**
+	 * Get a single value of this group.
+	 *
+	 * @param r row index
+	 * @param c column index w.r.t. the entire matrix
+	 * @return value
+	 */
+	public abstract double get(int r, int c);
+
+	/**
+	 * Decompress the rows [rl,ru) of this column group into the given
+	 * preallocated dense target block of the entire matrix. Only non-zero
+	 * values are written, i.e., the target is expected to be 0-initialized.
+	 *
+	 * @param target dense target block
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	public abstract void decompressToBlock(MatrixBlock target, int rl, int ru);
+
+	/**
+	 * Decompress a single column of this group into a dense array.
+	 *
+	 * @param colpos column position in this group
+	 * @param c 0-initialized output array of length numRows
+	 */
+	public abstract void decompressColumn(int colpos, double[] c);
+
+	/**
+	 * Right matrix multiplication c[rl:ru,] += this %*% b[colIndexes,] for
+	 * a dense row-major input b of all matrix columns.
+	 *
+	 * @param b dense right-hand-side input of size ncol x n
+	 * @param c dense output of size nrow x n
+	 * @param n number of columns of b and c
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	public abstract void rightMultByMatrix(double[] b, double[] c, int n, int rl, int ru);
+
+	/**
+	 * Left vector multiplication c[colIndexes] += t(a) %*% this.
+	 *
+	 * @param a dense left-hand-side row vector of length nrow
+	 * @param c dense output row vector of length ncol
+	 */
+	public abstract void leftMultByRowVector(double[] a, double[] c);
+
+	/**
+	 * Sum of all values of this group.
+	 *
+	 * @param kbuff kahan buffer for full sum
+	 */
+	public abstract void computeSum(KahanObject kbuff);
+
+	/**
+	 * Row sums of the rows [rl,ru) of this group, added to the given output.
+	 *
+	 * @param c dense output vector of length nrow
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	public abstract void computeRowSums(double[] c, int rl, int ru);
+
+	/**
+	 * Column sums of this group, added to the given output.
+	 *
+	 * @param c dense output vector of length ncol
+	 */
+	public abstract void computeColSums(double[] c);
+
+	/**
+	 * Min or max over all values of this group, including zeros.
+	 *
+	 * @param fn builtin min or max function
+	 * @return aggregate value
+	 */
+	public abstract double computeMxx(Builtin fn);
+
+	/**
+	 * Column mins or maxs of this group, including zeros.
+	 *
+	 * @param c output vector of length ncol, initialized with the neutral element
+	 * @param fn builtin min or max function
+	 */
+	public abstract void computeColMxx(double[] c, Builtin fn);
+
+	/**
+	 * Perform the given scalar operation on all values of this group,
+	 * including zeros if the operation is not sparse-safe.
+	 *
+	 * @param op scalar operator
+	 * @return new column group
+	 */
+	public abstract ColGroup scalarOperation(ScalarOperator op);
+
+	public abstract long countNonZeros();
+
+	public abstract long estimateInMemorySize();
+
+	public abstract long getExactSizeOnDisk();
+
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(_numRows);
+		out.writeInt(_colIndexes.length);
+		for( int i=0; i<_colIndexes.length; i++ )
+			out.writeInt(_colIndexes[i]);
+	}
+
+	public void readFields(DataInput in) throws IOException {
+		_numRows = in.readInt();
+		_colIndexes = new int[in.readInt()];
+		for( int i=0; i<_colIndexes.length; i++ )
+			_colIndexes[i] = in.readInt();
+	}
+
+	protected long getHeaderSizeOnDisk() {
+		return 8 + 4L * _colIndexes.length;
+	}
+
+	protected long getHeaderSizeInMemory() {
+		//object header, int array, num rows
+		return 16 + 16 + 4L * _colIndexes.length + 4;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append(" (rows="+_numRows+", cols="+_colIndexes.length+")");
+		return sb.toString();
+	}
+}
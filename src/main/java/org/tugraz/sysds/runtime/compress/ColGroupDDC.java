@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Column group with dense dictionary coding (DDC), which stores a value
+ * tuple reference for every row. References are stored as 1-byte codes
+ * for up to 256 distinct tuples and as 2-byte codes for up to 65536
+ * distinct tuples. Zero rows are encoded as an explicit zero tuple, which
+ * allows for arbitrary scalar operations over the dictionary.
+ */
+public class ColGroupDDC extends ColGroupValue
+{
+	private static final long serialVersionUID = -5769772089913918987L;
+
+	public static final int MAX_VALUES_1B = 256;
+	public static final int MAX_VALUES_2B = 65536;
+
+	//tuple references, either 1-byte or 2-byte codes
+	private byte[] _data1 = null;
+	private char[] _data2 = null;
+
+	//number of rows per tuple (derived)
+	private int[] _counts;
+
+	protected ColGroupDDC() {
+		super();
+	}
+
+	/**
+	 * Creates a DDC column group from the given tuple references.
+	 *
+	 * @param colIndexes column indexes
+	 * @param numRows number of rows
+	 * @param values value tuples, incl the zero tuple if required
+	 * @param refs tuple reference per row
+	 */
+	public ColGroupDDC(int[] colIndexes, int numRows, double[] values, int[] refs) {
+		super(colIndexes, numRows, values);
+		int numVals = getNumValues();
+		if( numVals > MAX_VALUES_2B )
+			throw new DMLRuntimeException("Too many distinct values for DDC: "+numVals);
+		if( numVals <= MAX_VALUES_1B ) {
+			_data1 = new byte[numRows];
+			for( int i=0; i<numRows; i++ )
+				_data1[i] = (byte) refs[i];
+		}
+		else {
+			_data2 = new char[numRows];
+			for( int i=0; i<numRows; i++ )
+				_data2[i] = (char) refs[i];
+		}
+		_counts = computeCounts();
+	}
+
+	private ColGroupDDC(int[] colIndexes, int numRows, double[] values, byte[] data1, char[] data2, int[] counts) {
+		super(colIndexes, numRows, values);
+		_data1 = data1;
+		_data2 = data2;
+		_counts = counts;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.DDC;
+	}
+
+	public int getIndex(int r) {
+		return (_data1 != null) ? _data1[r] & 0xFF : _data2[r];
+	}
+
+	@Override
+	public int[] getCounts() {
+		return _counts;
+	}
+
+	@Override
+	public boolean hasImplicitZeros() {
+		return false;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		int colpos = getColPos(c);
+		return (colpos < 0) ? 0 :
+			_values[getIndex(r) * getNumCols() + colpos];
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) {
+		final int numCols = getNumCols();
+		DenseBlock c = target.getDenseBlock();
+		for( int i=rl; i<ru; i++ ) {
+			double[] cvals = c.values(i);
+			int cix = c.pos(i);
+			int valOff = getIndex(i) * numCols;
+			for( int j=0; j<numCols; j++ )
+				cvals[cix+_colIndexes[j]] = _values[valOff+j];
+		}
+	}
+
+	@Override
+	public void decompressColumn(int colpos, double[] c) {
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			c[i] = _values[getIndex(i) * numCols + colpos];
+	}
+
+	@Override
+	public void rightMultByMatrix(double[] b, double[] c, int n, int rl, int ru) {
+		double[] vals = preaggValues(b, n);
+		if( n == 1 ) {
+			for( int i=rl; i<ru; i++ )
+				c[i] += vals[getIndex(i)];
+		}
+		else {
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				int vix = getIndex(i) * n;
+				for( int l=0; l<n; l++ )
+					c[cix+l] += vals[vix+l];
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		double[] weights = new double[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			weights[getIndex(i)] += a[i];
+		postScaling(weights, c);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		double[] vals = sumAllValues();
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[getIndex(i)];
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) {
+		//all rows are encoded, so the op only applies to the dictionary
+		return new ColGroupDDC(_colIndexes, _numRows,
+			applyScalarOp(op), _data1, _data2, _counts);
+	}
+
+	private int[] computeCounts() {
+		int[] ret = new int[getNumValues()];
+		for( int i=0; i<_numRows; i++ )
+			ret[getIndex(i)]++;
+		return ret;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeBoolean(_data1 != null);
+		for( int i=0; i<_numRows; i++ ) {
+			if( _data1 != null )
+				out.writeByte(_data1[i]);
+			else
+				out.writeChar(_data2[i]);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		_data1 = null;
+		_data2 = null;
+		if( in.readBoolean() ) {
+			_data1 = new byte[_numRows];
+			for( int i=0; i<_numRows; i++ )
+				_data1[i] = in.readByte();
+		}
+		else {
+			_data2 = new char[_numRows];
+			for( int i=0; i<_numRows; i++ )
+				_data2[i] = in.readChar();
+		}
+		_counts = computeCounts();
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return super.getExactSizeOnDisk() + 1
+			+ (long) _numRows * (_data1 != null ? 1 : 2);
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return super.estimateInMemorySize() + 16 + 16
+			+ (long) _numRows * (_data1 != null ? 1 : 2)
+			+ 4L * _counts.length;
+	}
+
+	/**
+	 * Estimates the in-memory size of a DDC group for planning.
+	 *
+	 * @param numRows number of rows
+	 * @param numCols number of columns
+	 * @param numVals number of distinct tuples, incl the zero tuple
+	 * @return estimated size in bytes, or Long.MAX_VALUE if not applicable
+	 */
+	public static long estimateInMemorySize(int numRows, int numCols, int numVals) {
+		if( numVals > MAX_VALUES_2B )
+			return Long.MAX_VALUE;
+		return 64 + 8L * numVals * numCols + 4L * numVals
+			+ (long) numRows * (numVals <= MAX_VALUES_1B ? 1 : 2);
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.util.Arrays;
+
+import org.tugraz.sysds.runtime.data.DenseBlock;
+
+/**
+ * Column group with offset list encoding (OLE), which stores the sorted
+ * list of row offsets per distinct non-zero value tuple. This encoding
+ * is beneficial for sparse columns with few distinct values.
+ */
+public class ColGroupOLE extends ColGroupOffset
+{
+	private static final long serialVersionUID = 6213780492738112734L;
+
+	protected ColGroupOLE() {
+		super();
+	}
+
+	/**
+	 * Creates an OLE column group from the given offset lists.
+	 *
+	 * @param colIndexes column indexes
+	 * @param numRows number of rows
+	 * @param values non-zero value tuples
+	 * @param ptr pointers into the offsets per tuple
+	 * @param offsets sorted row offsets per tuple
+	 */
+	public ColGroupOLE(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] offsets) {
+		super(colIndexes, numRows, values, ptr, offsets);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.OLE;
+	}
+
+	@Override
+	protected ColGroupOffset create(double[] values) {
+		return new ColGroupOLE(_colIndexes, _numRows, values, _ptr, _data);
+	}
+
+	@Override
+	protected int[] computeCounts() {
+		int[] ret = new int[_ptr.length-1];
+		for( int k=0; k<ret.length; k++ )
+			ret[k] = _ptr[k+1] - _ptr[k];
+		return ret;
+	}
+
+	@Override
+	protected int getTupleIndex(int r) {
+		for( int k=0; k<_ptr.length-1; k++ )
+			if( Arrays.binarySearch(_data, _ptr[k], _ptr[k+1], r) >= 0 )
+				return k;
+		return -1;
+	}
+
+	@Override
+	protected void setTupleReferences(int k, int[] refs) {
+		for( int i=_ptr[k]; i<_ptr[k+1]; i++ )
+			refs[_data[i]] = k;
+	}
+
+	@Override
+	protected void decompressTuple(int k, DenseBlock c, int rl, int ru) {
+		int valOff = k * getNumCols();
+		for( int i=skipTo(k, rl); i<_ptr[k+1] && _data[i]<ru; i++ )
+			setTuple(c, _data[i], valOff);
+	}
+
+	@Override
+	protected double sumRows(int k, double[] a) {
+		double ret = 0;
+		for( int i=_ptr[k]; i<_ptr[k+1]; i++ )
+			ret += a[_data[i]];
+		return ret;
+	}
+
+	@Override
+	protected void addToRows(int k, double[] vals, double[] c, int n, int rl, int ru) {
+		int vix = k * n;
+		if( n == 1 ) {
+			double val = vals[k];
+			for( int i=skipTo(k, rl); i<_ptr[k+1] && _data[i]<ru; i++ )
+				c[_data[i]] += val;
+		}
+		else {
+			for( int i=skipTo(k, rl); i<_ptr[k+1] && _data[i]<ru; i++ ) {
+				int cix = _data[i] * n;
+				for( int l=0; l<n; l++ )
+					c[cix+l] += vals[vix+l];
+			}
+		}
+	}
+
+	private int skipTo(int k, int rl) {
+		if( rl <= 0 )
+			return _ptr[k];
+		int ix = Arrays.binarySearch(_data, _ptr[k], _ptr[k+1], rl);
+		return (ix >= 0) ? ix : -ix-1;
+	}
+
+	/**
+	 * Estimates the in-memory size of an OLE group for planning.
+	 *
+	 * @param numCols number of columns
+	 * @param numVals number of distinct non-zero tuples
+	 * @param numOffsets number of non-zero rows
+	 * @return estimated size in bytes
+	 */
+	public static long estimateInMemorySize(int numCols, int numVals, long numOffsets) {
+		return 96 + 8L * numVals * numCols + 8L * (numVals+1) + 4L * numOffsets;
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class for offset-based column groups (OLE, RLE), which store a
+ * list of row encodings per non-zero value tuple, i.e., rows not covered
+ * by any tuple are implicitly zero. The encoding of tuple k is stored in
+ * _data[_ptr[k]:_ptr[k+1]).
+ */
+public abstract class ColGroupOffset extends ColGroupValue
+{
+	private static final long serialVersionUID = -4105103687174067602L;
+
+	//pointers into the encoded data per tuple
+	protected int[] _ptr;
+
+	//encoded row offsets or runs
+	protected int[] _data;
+
+	//number of rows per tuple (derived)
+	protected int[] _counts;
+
+	protected ColGroupOffset() {
+		super();
+	}
+
+	protected ColGroupOffset(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] data) {
+		super(colIndexes, numRows, values);
+		_ptr = ptr;
+		_data = data;
+		_counts = computeCounts();
+	}
+
+	@Override
+	public int[] getCounts() {
+		return _counts;
+	}
+
+	@Override
+	public boolean hasImplicitZeros() {
+		long cnt = 0;
+		for( int k=0; k<_counts.length; k++ )
+			cnt += _counts[k];
+		return cnt < _numRows;
+	}
+
+	/**
+	 * Get the tuple reference per row, where rows not covered by
+	 * any tuple are assigned the given default reference.
+	 *
+	 * @param defaultRef reference for implicit zero rows
+	 * @return tuple references of length numRows
+	 */
+	public int[] getTupleReferences(int defaultRef) {
+		int[] refs = new int[_numRows];
+		Arrays.fill(refs, defaultRef);
+		for( int k=0; k<getNumValues(); k++ )
+			setTupleReferences(k, refs);
+		return refs;
+	}
+
+	/**
+	 * Sets the reference k for all rows of the given tuple.
+	 *
+	 * @param k tuple index
+	 * @param refs tuple references of length numRows
+	 */
+	protected abstract void setTupleReferences(int k, int[] refs);
+
+	/**
+	 * Sum of the values a[i] over all rows i of the given tuple.
+	 *
+	 * @param k tuple index
+	 * @param a dense input vector of length numRows
+	 * @return sum
+	 */
+	protected abstract double sumRows(int k, double[] a);
+
+	/**
+	 * Adds the given value to c[i] for all rows i in [rl,ru) of the given tuple.
+	 *
+	 * @param k tuple index
+	 * @param vals dense values of size numValues x n
+	 * @param c dense output of size numRows x n
+	 * @param n number of columns
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	protected abstract void addToRows(int k, double[] vals, double[] c, int n, int rl, int ru);
+
+	protected abstract int[] computeCounts();
+
+	protected abstract ColGroupOffset create(double[] values);
+
+	@Override
+	public double get(int r, int c) {
+		int colpos = getColPos(c);
+		if( colpos < 0 )
+			return 0;
+		int k = getTupleIndex(r);
+		return (k < 0) ? 0 : _values[k * getNumCols() + colpos];
+	}
+
+	/**
+	 * Get the tuple index for a given row.
+	 *
+	 * @param r row index
+	 * @return tuple index, -1 if implicitly zero
+	 */
+	protected abstract int getTupleIndex(int r);
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) {
+		DenseBlock c = target.getDenseBlock();
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ )
+			decompressTuple(k, c, rl, ru);
+	}
+
+	/**
+	 * Decompress the rows [rl,ru) of the given tuple into a dense block.
+	 *
+	 * @param k tuple index
+	 * @param c dense target block
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 */
+	protected abstract void decompressTuple(int k, DenseBlock c, int rl, int ru);
+
+	protected void setTuple(DenseBlock c, int r, int valOff) {
+		double[] cvals = c.values(r);
+		int cix = c.pos(r);
+		for( int j=0; j<_colIndexes.length; j++ )
+			cvals[cix+_colIndexes[j]] = _values[valOff+j];
+	}
+
+	@Override
+	public void decompressColumn(int colpos, double[] c) {
+		final int numCols = getNumCols();
+		final int numVals = getNumValues();
+		double[] vals = new double[numVals];
+		for( int k=0; k<numVals; k++ )
+			vals[k] = _values[k*numCols+colpos];
+		for( int k=0; k<numVals; k++ )
+			if( vals[k] != 0 )
+				addToRows(k, vals, c, 1, 0, _numRows);
+	}
+
+	@Override
+	public void rightMultByMatrix(double[] b, double[] c, int n, int rl, int ru) {
+		double[] vals = preaggValues(b, n);
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ )
+			addToRows(k, vals, c, n, rl, ru);
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		final int numVals = getNumValues();
+		double[] weights = new double[numVals];
+		for( int k=0; k<numVals; k++ )
+			weights[k] = sumRows(k, a);
+		postScaling(weights, c);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		double[] vals = sumAllValues();
+		final int numVals = getNumValues();
+		for( int k=0; k<numVals; k++ )
+			if( vals[k] != 0 )
+				addToRows(k, vals, c, 1, rl, ru);
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) {
+		double val0 = op.executeScalar(0);
+		//sparse-safe ops only apply to the dictionary
+		if( val0 == 0 )
+			return create(applyScalarOp(op));
+		//otherwise, convert to DDC with explicit zero tuple
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		if( numVals + 1 <= ColGroupDDC.MAX_VALUES_2B ) {
+			double[] values = Arrays.copyOf(applyScalarOp(op), _values.length + numCols);
+			Arrays.fill(values, _values.length, values.length, val0);
+			return new ColGroupDDC(_colIndexes, _numRows, values, getTupleReferences(numVals));
+		}
+		MatrixBlock tmp = new MatrixBlock(_numRows, numCols, false);
+		tmp.allocateDenseBlock();
+		double[] col = new double[_numRows];
+		for( int j=0; j<numCols; j++ ) {
+			Arrays.fill(col, 0);
+			decompressColumn(j, col);
+			for( int i=0; i<_numRows; i++ )
+				tmp.getDenseBlock().set(i, j, col[i]);
+		}
+		tmp.recomputeNonZeros();
+		ColGroupUncompressed ret = new ColGroupUncompressed(_colIndexes, _numRows, tmp);
+		return ret.scalarOperation(op);
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeInt(_ptr.length);
+		for( int i=0; i<_ptr.length; i++ )
+			out.writeInt(_ptr[i]);
+		out.writeInt(_data.length);
+		for( int i=0; i<_data.length; i++ )
+			out.writeInt(_data[i]);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		_ptr = new int[in.readInt()];
+		for( int i=0; i<_ptr.length; i++ )
+			_ptr[i] = in.readInt();
+		_data = new int[in.readInt()];
+		for( int i=0; i<_data.length; i++ )
+			_data[i] = in.readInt();
+		_counts = computeCounts();
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return super.getExactSizeOnDisk() + 8
+			+ 4L * _ptr.length + 4L * _data.length;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return super.estimateInMemorySize() + 3 * 16
+			+ 4L * _ptr.length + 4L * _data.length + 4L * _counts.length;
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.data.DenseBlockLowPrecision;
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.functionobjects.Multiply;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Lossy column group that stores all cells in a low-precision dense block
+ * (FP16, BF16, or INT8 with a symmetric scale factor). In contrast to all
+ * other column groups, this group is only created by explicit quantization,
+ * and matrix multiplications over it accumulate in FP32.
+ */
+public class ColGroupQuantized extends ColGroup
+{
+	private static final long serialVersionUID = 6164271306787553562L;
+
+	//low-precision cells of size numRows x numCols
+	private DenseBlockLowPrecision _data;
+
+	//scale factor of the encoded values (1 for FP16, BF16)
+	private double _scale;
+
+	protected ColGroupQuantized() {
+		super();
+	}
+
+	/**
+	 * Creates a quantized column group from the given values.
+	 *
+	 * @param colIndexes column indexes
+	 * @param values uncompressed values of size numRows x numCols
+	 * @param vt low-precision value type (FP16, BF16, INT8)
+	 */
+	public ColGroupQuantized(int[] colIndexes, MatrixBlock values, ValueType vt) {
+		super(colIndexes, values.getNumRows());
+		if( !vt.isLowPrecision() )
+			throw new DMLRuntimeException("Unsupported quantization value type: "+vt.name());
+		final int numCols = getNumCols();
+		_scale = 1;
+		if( vt == ValueType.INT8 ) { //symmetric per-group scale
+			double maxAbs = Math.max(Math.abs(values.max()), Math.abs(values.min()));
+			_scale = (maxAbs > 0) ? maxAbs / Byte.MAX_VALUE : 1;
+		}
+		_data = (DenseBlockLowPrecision) DenseBlockFactory
+			.createDenseBlock(vt, new int[]{_numRows, numCols});
+		if( values.isEmptyBlock(false) )
+			return;
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ ) {
+				double v = values.quickGetValue(i, j) / _scale;
+				_data.set(i, j, (vt == ValueType.INT8) ? Math.rint(v) : v);
+			}
+	}
+
+	private ColGroupQuantized(int[] colIndexes, int numRows, DenseBlockLowPrecision data, double scale) {
+		super(colIndexes, numRows);
+		_data = data;
+		_scale = scale;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.QUANTIZED;
+	}
+
+	public ValueType getValueType() {
+		return _data.getValueType();
+	}
+
+	public DenseBlockLowPrecision getData() {
+		return _data;
+	}
+
+	public double getScale() {
+		return _scale;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		int colpos = getColPos(c);
+		return (colpos < 0) ? 0 : _data.get(r, colpos) * _scale;
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) {
+		final int numCols = getNumCols();
+		float[] row = new float[numCols];
+		DenseBlock c = target.getDenseBlock();
+		for( int i=rl; i<ru; i++ ) {
+			_data.getFloats(_data.pos(i), row, 0, numCols);
+			double[] cvals = c.values(i);
+			int cix = c.pos(i);
+			for( int j=0; j<numCols; j++ )
+				cvals[cix+_colIndexes[j]] = row[j] * _scale;
+		}
+	}
+
+	@Override
+	public void decompressColumn(int colpos, double[] c) {
+		for( int i=0; i<_numRows; i++ )
+			c[i] = _data.get(i, colpos) * _scale;
+	}
+
+	@Override
+	public void rightMultByMatrix(double[] b, double[] c, int n, int rl, int ru) {
+		//FP32 accumulation per output row
+		final int numCols = getNumCols();
+		float[] row = new float[numCols];
+		float[] acc = new float[n];
+		for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+			_data.getFloats(_data.pos(i), row, 0, numCols);
+			Arrays.fill(acc, 0);
+			for( int j=0; j<numCols; j++ ) {
+				float aval = row[j];
+				if( aval == 0 ) continue;
+				for( int l=0, bix=_colIndexes[j]*n; l<n; l++ )
+					acc[l] += aval * (float)b[bix+l];
+			}
+			for( int l=0; l<n; l++ )
+				c[cix+l] += acc[l] * _scale;
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		//FP32 accumulation per output column
+		final int numCols = getNumCols();
+		float[] row = new float[numCols];
+		float[] acc = new float[numCols];
+		for( int i=0; i<_numRows; i++ ) {
+			float aval = (float)a[i];
+			if( aval == 0 ) continue;
+			_data.getFloats(_data.pos(i), row, 0, numCols);
+			for( int j=0; j<numCols; j++ )
+				acc[j] += aval * row[j];
+		}
+		for( int j=0; j<numCols; j++ )
+			c[_colIndexes[j]] += acc[j] * _scale;
+	}
+
+	@Override
+	public void computeSum(KahanObject kbuff) {
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ )
+				kplus.execute2(kbuff, _data.get(i, j) * _scale);
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		final int numCols = getNumCols();
+		for( int i=rl; i<ru; i++ )
+			for( int j=0; j<numCols; j++ )
+				c[i] += _data.get(i, j) * _scale;
+	}
+
+	@Override
+	public void computeColSums(double[] c) {
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ )
+				c[_colIndexes[j]] += _data.get(i, j) * _scale;
+	}
+
+	@Override
+	public double computeMxx(Builtin fn) {
+		double ret = (fn.getBuiltinCode()==Builtin.BuiltinCode.MAX) ?
+			Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ )
+				ret = fn.execute(ret, _data.get(i, j) * _scale);
+		return ret;
+	}
+
+	@Override
+	public void computeColMxx(double[] c, Builtin fn) {
+		final int numCols = getNumCols();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ )
+				c[_colIndexes[j]] = fn.execute(c[_colIndexes[j]], _data.get(i, j) * _scale);
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) {
+		//multiplications with positive scalars only change the INT8 scale
+		//(w/o additional rounding errors), all other operations re-quantize
+		if( getValueType() == ValueType.INT8 && op.fn instanceof Multiply
+			&& op.getConstant() > 0 )
+			return new ColGroupQuantized(_colIndexes, _numRows, _data, _scale * op.getConstant());
+		final int numCols = getNumCols();
+		MatrixBlock tmp = new MatrixBlock(_numRows, numCols, false);
+		tmp.allocateDenseBlock();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<numCols; j++ )
+				tmp.quickSetValue(i, j, op.executeScalar(_data.get(i, j) * _scale));
+		tmp.recomputeNonZeros();
+		return new ColGroupQuantized(_colIndexes, tmp, getValueType());
+	}
+
+	@Override
+	public long countNonZeros() {
+		return _data.countNonZeros();
+	}
+
+	private int getBytesPerCell() {
+		return (getValueType() == ValueType.INT8) ? 1 : 2;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeByte(getValueType().ordinal());
+		out.writeDouble(_scale);
+		final int len = _numRows * getNumCols();
+		boolean int8 = (getBytesPerCell() == 1);
+		for( int i=0; i<len; i++ ) {
+			if( int8 )
+				out.writeByte(_data.getBits(i));
+			else
+				out.writeShort(_data.getBits(i));
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		ValueType vt = ValueType.values()[in.readByte()];
+		_scale = in.readDouble();
+		_data = (DenseBlockLowPrecision) DenseBlockFactory
+			.createDenseBlock(vt, new int[]{_numRows, getNumCols()});
+		final int len = _numRows * getNumCols();
+		boolean int8 = (getBytesPerCell() == 1);
+		for( int i=0; i<len; i++ )
+			_data.setBits(i, int8 ? in.readByte() : in.readShort());
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return getHeaderSizeOnDisk() + 1 + 8
+			+ (long) _numRows * getNumCols() * getBytesPerCell();
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return getHeaderSizeInMemory() + 8 + 64 + 16
+			+ (long) _numRows * getNumCols() * getBytesPerCell();
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import org.tugraz.sysds.runtime.data.DenseBlock;
+
+/**
+ * Column group with run length encoding (RLE), which stores a sorted list
+ * of (start, length) runs per distinct non-zero value tuple. This encoding
+ * is beneficial for columns with long runs, e.g., sorted or clustered data.
+ */
+public class ColGroupRLE extends ColGroupOffset
+{
+	private static final long serialVersionUID = -1921542316947836610L;
+
+	protected ColGroupRLE() {
+		super();
+	}
+
+	/**
+	 * Creates an RLE column group from the given run lists.
+	 *
+	 * @param colIndexes column indexes
+	 * @param numRows number of rows
+	 * @param values non-zero value tuples
+	 * @param ptr pointers into the runs per tuple
+	 * @param runs sorted (start, length) pairs per tuple
+	 */
+	public ColGroupRLE(int[] colIndexes, int numRows, double[] values, int[] ptr, int[] runs) {
+		super(colIndexes, numRows, values, ptr, runs);
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.RLE;
+	}
+
+	@Override
+	protected ColGroupOffset create(double[] values) {
+		return new ColGroupRLE(_colIndexes, _numRows, values, _ptr, _data);
+	}
+
+	@Override
+	protected int[] computeCounts() {
+		int[] ret = new int[_ptr.length-1];
+		for( int k=0; k<ret.length; k++ )
+			for( int i=_ptr[k]; i<_ptr[k+1]; i+=2 )
+				ret[k] += _data[i+1];
+		return ret;
+	}
+
+	@Override
+	protected int getTupleIndex(int r) {
+		for( int k=0; k<_ptr.length-1; k++ ) {
+			int i = skipTo(k, r);
+			if( i < _ptr[k+1] && _data[i] <= r )
+				return k;
+		}
+		return -1;
+	}
+
+	@Override
+	protected void setTupleReferences(int k, int[] refs) {
+		for( int i=_ptr[k]; i<_ptr[k+1]; i+=2 )
+			for( int r=_data[i]; r<_data[i]+_data[i+1]; r++ )
+				refs[r] = k;
+	}
+
+	@Override
+	protected void decompressTuple(int k, DenseBlock c, int rl, int ru) {
+		int valOff = k * getNumCols();
+		for( int i=skipTo(k, rl); i<_ptr[k+1] && _data[i]<ru; i+=2 ) {
+			int start = Math.max(_data[i], rl);
+			int end = Math.min(_data[i]+_data[i+1], ru);
+			for( int r=start; r<end; r++ )
+				setTuple(c, r, valOff);
+		}
+	}
+
+	@Override
+	protected double sumRows(int k, double[] a) {
+		double ret = 0;
+		for( int i=_ptr[k]; i<_ptr[k+1]; i+=2 ) {
+			int end = _data[i] + _data[i+1];
+			for( int r=_data[i]; r<end; r++ )
+				ret += a[r];
+		}
+		return ret;
+	}
+
+	@Override
+	protected void addToRows(int k, double[] vals, double[] c, int n, int rl, int ru) {
+		int vix = k * n;
+		for( int i=skipTo(k, rl); i<_ptr[k+1] && _data[i]<ru; i+=2 ) {
+			int start = Math.max(_data[i], rl);
+			int end = Math.min(_data[i]+_data[i+1], ru);
+			if( n == 1 ) {
+				double val = vals[k];
+				for( int r=start; r<end; r++ )
+					c[r] += val;
+			}
+			else {
+				for( int r=start, cix=start*n; r<end; r++, cix+=n )
+					for( int l=0; l<n; l++ )
+						c[cix+l] += vals[vix+l];
+			}
+		}
+	}
+
+	/**
+	 * Finds the position of the first run of tuple k that ends after
+	 * the given row, via binary search over the sorted run starts.
+	 *
+	 * @param k tuple index
+	 * @param rl row index
+	 * @return position in the run list
+	 */
+	private int skipTo(int k, int rl) {
+		int lo = 0, hi = (_ptr[k+1] - _ptr[k]) / 2;
+		while( lo < hi ) {
+			int mid = (lo + hi) >>> 1;
+			int ix = _ptr[k] + 2*mid;
+			if( _data[ix] + _data[ix+1] <= rl )
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return _ptr[k] + 2*lo;
+	}
+
+	/**
+	 * Estimates the in-memory size of an RLE group for planning.
+	 *
+	 * @param numCols number of columns
+	 * @param numVals number of distinct non-zero tuples
+	 * @param numRuns number of runs
+	 * @return estimated size in bytes
+	 */
+	public static long estimateInMemorySize(int numCols, int numVals, long numRuns) {
+		return 96 + 8L * numVals * numCols + 8L * (numVals+1) + 8L * numRuns;
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Column group of uncompressed columns, which are stored as a regular
+ * matrix block of size numRows x numCols. All columns that do not benefit
+ * from compression are collected in a single group of this type.
+ */
+public class ColGroupUncompressed extends ColGroup
+{
+	private static final long serialVersionUID = 4870546053280378891L;
+
+	private MatrixBlock _data;
+
+	protected ColGroupUncompressed() {
+		super();
+	}
+
+	public ColGroupUncompressed(int[] colIndexes, int numRows, MatrixBlock data) {
+		super(colIndexes, numRows);
+		_data = data;
+	}
+
+	/**
+	 * Creates an uncompressed column group by extracting the given
+	 * columns from a matrix block.
+	 *
+	 * @param colIndexes sorted column indexes
+	 * @param in input matrix block
+	 */
+	public ColGroupUncompressed(int[] colIndexes, MatrixBlock in) {
+		super(colIndexes, in.getNumRows());
+		_data = new MatrixBlock(_numRows, colIndexes.length, false);
+		_data.allocateDenseBlock();
+		DenseBlock c = _data.getDenseBlock();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<colIndexes.length; j++ )
+				c.set(i, j, in.quickGetValue(i, colIndexes[j]));
+		_data.recomputeNonZeros();
+		_data.examSparsity();
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.UNCOMPRESSED;
+	}
+
+	public MatrixBlock getData() {
+		return _data;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		int colpos = getColPos(c);
+		return (colpos < 0) ? 0 : _data.quickGetValue(r, colpos);
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int rl, int ru) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		DenseBlock c = target.getDenseBlock();
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int k=apos; k<apos+alen; k++ )
+					c.set(i, _colIndexes[aix[k]], avals[k]);
+			}
+		}
+		else {
+			DenseBlock a = _data.getDenseBlock();
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
+				for( int j=0; j<_colIndexes.length; j++ )
+					cvals[cix+_colIndexes[j]] = avals[aix+j];
+			}
+		}
+	}
+
+	@Override
+	public void decompressColumn(int colpos, double[] c) {
+		for( int i=0; i<_numRows; i++ )
+			c[i] = _data.quickGetValue(i, colpos);
+	}
+
+	@Override
+	public void rightMultByMatrix(double[] b, double[] c, int n, int rl, int ru) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock a = _data.getSparseBlock();
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int k=apos; k<apos+alen; k++ ) {
+					int bix = _colIndexes[aix[k]] * n;
+					for( int l=0; l<n; l++ )
+						c[cix+l] += avals[k] * b[bix+l];
+				}
+			}
+		}
+		else {
+			DenseBlock a = _data.getDenseBlock();
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<_colIndexes.length; j++ ) {
+					double aval = avals[aix+j];
+					if( aval == 0 ) continue;
+					int bix = _colIndexes[j] * n;
+					for( int l=0; l<n; l++ )
+						c[cix+l] += aval * b[bix+l];
+				}
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByRowVector(double[] a, double[] c) {
+		if( _data.isEmptyBlock(false) )
+			return;
+		if( _data.isInSparseFormat() ) {
+			SparseBlock b = _data.getSparseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( b.isEmpty(i) || a[i] == 0 ) continue;
+				int bpos = b.pos(i);
+				int blen = b.size(i);
+				int[] bix = b.indexes(i);
+				double[] bvals = b.values(i);
+				for( int k=bpos; k<bpos+blen; k++ )
+					c[_colIndexes[bix[k]]] += a[i] * bvals[k];
+			}
+		}
+		else {
+			DenseBlock b = _data.getDenseBlock();
+			for( int i=0; i<_numRows; i++ ) {
+				if( a[i] == 0 ) continue;
+				double[] bvals = b.values(i);
+				int bix = b.pos(i);
+				for( int j=0; j<_colIndexes.length; j++ )
+					c[_colIndexes[j]] += a[i] * bvals[bix+j];
+			}
+		}
+	}
+
+	@Override
+	public void computeSum(KahanObject kbuff) {
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<_colIndexes.length; j++ )
+				kplus.execute2(kbuff, _data.quickGetValue(i, j));
+	}
+
+	@Override
+	public void computeRowSums(double[] c, int rl, int ru) {
+		for( int i=rl; i<ru; i++ )
+			for( int j=0; j<_colIndexes.length; j++ )
+				c[i] += _data.quickGetValue(i, j);
+	}
+
+	@Override
+	public void computeColSums(double[] c) {
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<_colIndexes.length; j++ )
+				c[_colIndexes[j]] += _data.quickGetValue(i, j);
+	}
+
+	@Override
+	public double computeMxx(Builtin fn) {
+		double ret = (fn.getBuiltinCode()==Builtin.BuiltinCode.MAX) ?
+			Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<_colIndexes.length; j++ )
+				ret = fn.execute(ret, _data.quickGetValue(i, j));
+		return ret;
+	}
+
+	@Override
+	public void computeColMxx(double[] c, Builtin fn) {
+		for( int i=0; i<_numRows; i++ )
+			for( int j=0; j<_colIndexes.length; j++ )
+				c[_colIndexes[j]] = fn.execute(c[_colIndexes[j]], _data.quickGetValue(i, j));
+	}
+
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op) {
+		MatrixBlock ret = (MatrixBlock) _data.scalarOperations(op, new MatrixBlock());
+		return new ColGroupUncompressed(_colIndexes, _numRows, ret);
+	}
+
+	@Override
+	public long countNonZeros() {
+		return _data.getNonZeros();
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		_data.write(out);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		_data = new MatrixBlock();
+		_data.readFields(in);
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return getHeaderSizeOnDisk() + _data.getExactSizeOnDisk();
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return getHeaderSizeInMemory() + _data.getInMemorySize();
+	}
+}
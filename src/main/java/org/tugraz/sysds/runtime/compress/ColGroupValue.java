@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class for value-based column groups, which store a dictionary of
+ * distinct value tuples (row-major, numCols values per tuple) and encode
+ * the rows as references to these tuples. Most aggregates and scalar
+ * operations can thus be computed over the dictionary only.
+ */
+public abstract class ColGroupValue extends ColGroup
+{
+	private static final long serialVersionUID = -8193547329125946723L;
+
+	//distinct value tuples, row-major of size numValues x numCols
+	protected double[] _values;
+
+	protected ColGroupValue() {
+		super();
+	}
+
+	protected ColGroupValue(int[] colIndexes, int numRows, double[] values) {
+		super(colIndexes, numRows);
+		_values = values;
+	}
+
+	public int getNumValues() {
+		return _values.length / _colIndexes.length;
+	}
+
+	public double[] getValues() {
+		return _values;
+	}
+
+	/**
+	 * Get the number of rows per value tuple.
+	 *
+	 * @return counts of length numValues
+	 */
+	public abstract int[] getCounts();
+
+	/**
+	 * Indicates if some rows of this group are not encoded and thus 0.
+	 *
+	 * @return true if the group contains implicit zero rows
+	 */
+	public abstract boolean hasImplicitZeros();
+
+	/**
+	 * Pre-aggregates the dot products of all value tuples with the
+	 * respective rows of a dense row-major input b.
+	 *
+	 * @param b dense input of size ncol x n
+	 * @param n number of columns of b
+	 * @return dense pre-aggregates of size numValues x n
+	 */
+	protected double[] preaggValues(double[] b, int n) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals * n];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ ) {
+				double aval = _values[valOff+j];
+				if( aval == 0 ) continue;
+				int bix = _colIndexes[j] * n;
+				for( int l=0; l<n; l++ )
+					ret[k*n+l] += aval * b[bix+l];
+			}
+		return ret;
+	}
+
+	/**
+	 * Post-scaling of value tuples by pre-aggregated weights, i.e.,
+	 * c[colIndexes] += sum_k weights[k] * values[k,].
+	 *
+	 * @param weights weights of length numValues
+	 * @param c dense output row vector of length ncol
+	 */
+	protected void postScaling(double[] weights, double[] c) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			double w = weights[k];
+			if( w == 0 ) continue;
+			for( int j=0; j<numCols; j++ )
+				c[_colIndexes[j]] += w * _values[valOff+j];
+		}
+	}
+
+	/**
+	 * Sum of each value tuple, of length numValues.
+	 *
+	 * @return tuple sums
+	 */
+	protected double[] sumAllValues() {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ )
+				ret[k] += _values[valOff+j];
+		return ret;
+	}
+
+	protected double[] applyScalarOp(ScalarOperator op) {
+		double[] ret = new double[_values.length];
+		for( int i=0; i<_values.length; i++ )
+			ret[i] = op.executeScalar(_values[i]);
+		return ret;
+	}
+
+	@Override
+	public void computeSum(KahanObject kbuff) {
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ )
+				kplus.execute3(kbuff, _values[valOff+j], counts[k]);
+	}
+
+	@Override
+	public void computeColSums(double[] c) {
+		int[] counts = getCounts();
+		double[] weights = new double[counts.length];
+		for( int k=0; k<counts.length; k++ )
+			weights[k] = counts[k];
+		postScaling(weights, c);
+	}
+
+	@Override
+	public double computeMxx(Builtin fn) {
+		double ret = hasImplicitZeros() ? 0 :
+			(fn.getBuiltinCode()==Builtin.BuiltinCode.MAX ?
+			Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+		for( int i=0; i<_values.length; i++ )
+			ret = fn.execute(ret, _values[i]);
+		return ret;
+	}
+
+	@Override
+	public void computeColMxx(double[] c, Builtin fn) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		boolean zeros = hasImplicitZeros();
+		for( int j=0; j<numCols; j++ ) {
+			int cix = _colIndexes[j];
+			if( zeros )
+				c[cix] = fn.execute(c[cix], 0);
+			for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+				c[cix] = fn.execute(c[cix], _values[valOff+j]);
+		}
+	}
+
+	@Override
+	public long countNonZeros() {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		long nnz = 0;
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			int lnnz = 0;
+			for( int j=0; j<numCols; j++ )
+				lnnz += (_values[valOff+j] != 0) ? 1 : 0;
+			nnz += (long) lnnz * counts[k];
+		}
+		return nnz;
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeInt(_values.length);
+		for( int i=0; i<_values.length; i++ )
+			out.writeDouble(_values[i]);
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		super.readFields(in);
+		_values = new double[in.readInt()];
+		for( int i=0; i<_values.length; i++ )
+			_values[i] = in.readDouble();
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		return getHeaderSizeOnDisk() + 4 + 8L * _values.length;
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return getHeaderSizeInMemory() + 16 + 8L * _values.length;
+	}
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.tugraz.sysds.lops.MMTSJ.MMTSJType;
+import org.tugraz.sysds.lops.MapMultChain.ChainType;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.ColGroup.CompressionType;
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.Builtin.BuiltinCode;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.functionobjects.ReduceAll;
+import org.tugraz.sysds.runtime.functionobjects.ReduceCol;
+import org.tugraz.sysds.runtime.functionobjects.ReduceRow;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
+import org.tugraz.sysds.runtime.matrix.data.MatrixValue;
+import org.tugraz.sysds.runtime.matrix.operators.AggregateBinaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Compressed matrix block, which represents a matrix as a list of column
+ * groups in different encodings (see ColGroup). Matrix-vector and
+ * vector-matrix multiplications, transpose-self and chain matrix
+ * multiplications, common aggregates and scalar operations are executed
+ * directly over the compressed representation. All other operations need
+ * to work on the decompressed block, which is obtained via decompress.
+ *
+ * NOTE: Since the inherited dense and sparse blocks are never allocated,
+ * compressed blocks must only be handed to compression-aware operations;
+ * matrix objects transparently decompress on regular acquire read.
+ */
+public class CompressedMatrixBlock extends MatrixBlock
+{
+	private static final long serialVersionUID = 7319972089143154057L;
+
+	//max number of columns of the right-hand-side or rows of the left-hand-side
+	//of matrix multiplications, which are executed over compressed data
+	public static final int MAX_MULT_VECTORS = 32;
+
+	private List<ColGroup> _colGroups;
+
+	//soft-reference cache of the decompressed block
+	private transient SoftReference<MatrixBlock> _decompressed = null;
+
+	public CompressedMatrixBlock() {
+		this(0, 0);
+	}
+
+	public CompressedMatrixBlock(int rl, int cl) {
+		super(rl, cl, true);
+		_colGroups = new ArrayList<>();
+	}
+
+	public CompressedMatrixBlock(int rl, int cl, List<ColGroup> colGroups) {
+		super(rl, cl, true);
+		_colGroups = colGroups;
+		nonZeros = computeNonZeros();
+	}
+
+	public List<ColGroup> getColGroups() {
+		return _colGroups;
+	}
+
+	/**
+	 * Indicates if all column groups are encoded, i.e., there is no
+	 * column group of uncompressed columns.
+	 *
+	 * @return true if fully compressed
+	 */
+	public boolean isFullyCompressed() {
+		for( ColGroup grp : _colGroups )
+			if( grp.getCompType() == CompressionType.UNCOMPRESSED )
+				return false;
+		return true;
+	}
+
+	/**
+	 * Indicates if this block is a quantized matrix, i.e., a single
+	 * lossy column group of low-precision values.
+	 *
+	 * @return true if quantized
+	 */
+	public boolean isQuantized() {
+		return _colGroups.size() == 1
+			&& _colGroups.get(0).getCompType() == CompressionType.QUANTIZED;
+	}
+
+	////////
+	// Decompression
+
+	public MatrixBlock decompress() {
+		return decompress(1);
+	}
+
+	/**
+	 * Decompress the column groups into a new regular matrix block.
+	 *
+	 * @param k degree of parallelism
+	 * @return decompressed matrix block
+	 */
+	public MatrixBlock decompress(int k) {
+		MatrixBlock ret = new MatrixBlock(rlen, clen, false, nonZeros);
+		ret.allocateDenseBlock();
+		if( k <= 1 || rlen < 2*k ) {
+			for( ColGroup grp : _colGroups )
+				grp.decompressToBlock(ret, 0, rlen);
+		}
+		else {
+			ArrayList<Callable<Object>> tasks = new ArrayList<>();
+			ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(rlen, k, false);
+			for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ ) {
+				final int rl = lb, ru = lb+blklens.get(i);
+				tasks.add(() -> {
+					for( ColGroup grp : _colGroups )
+						grp.decompressToBlock(ret, rl, ru);
+					return null;
+				});
+			}
+			execute(tasks, k);
+		}
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	/**
+	 * Get the decompressed block, which is cached via a soft reference
+	 * for repeated use by operations without compressed kernels.
+	 *
+	 * @return decompressed matrix block
+	 */
+	public synchronized MatrixBlock getDecompressed() {
+		MatrixBlock ret = (_decompressed != null) ? _decompressed.get() : null;
+		if( ret == null ) {
+			ret = decompress(Math.max(Runtime.getRuntime().availableProcessors(), 1));
+			_decompressed = new SoftReference<>(ret);
+		}
+		return ret;
+	}
+
+	////////
+	// Meta data and cache block implementation
+
+	@Override
+	public boolean isEmptyBlock(boolean safe) {
+		return (safe ? computeNonZeros() : nonZeros) == 0;
+	}
+
+	@Override
+	public long recomputeNonZeros() {
+		return nonZeros = computeNonZeros();
+	}
+
+	private long computeNonZeros() {
+		long nnz = 0;
+		for( ColGroup grp : _colGroups )
+			nnz += grp.countNonZeros();
+		return nnz;
+	}
+
+	@Override
+	public double quickGetValue(int r, int c) {
+		for( ColGroup grp : _colGroups )
+			if( grp.getColPos(c) >= 0 )
+				return grp.get(r, c);
+		return 0;
+	}
+
+	@Override
+	public double getValue(int r, int c) {
+		return quickGetValue(r, c);
+	}
+
+	@Override
+	public void examSparsity() {
+		//do nothing
+	}
+
+	@Override
+	public void examSparsity(boolean allowCSR) {
+		//do nothing
+	}
+
+	@Override
+	public long getInMemorySize() {
+		long size = 80 + 16 + 8L * _colGroups.size();
+		for( ColGroup grp : _colGroups )
+			size += grp.estimateInMemorySize();
+		return size;
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		long size = HEADER_SIZE + 8 + 4;
+		for( ColGroup grp : _colGroups )
+			size += 1 + grp.getExactSizeOnDisk();
+		return size;
+	}
+
+	@Override
+	public long getExactSerializedSize() {
+		return getExactSizeOnDisk();
+	}
+
+	@Override
+	public boolean isShallowSerialize() {
+		return true;
+	}
+
+	@Override
+	public boolean isShallowSerialize(boolean inclConvert) {
+		return true;
+	}
+
+	@Override
+	public void toShallowSerializeBlock() {
+		//do nothing
+	}
+
+	@Override
+	public void compactEmptyBlock() {
+		//do nothing
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(rlen);
+		out.writeInt(clen);
+		out.writeByte(BlockType.COMPRESSED_BLOCK.ordinal());
+		out.writeLong(nonZeros);
+		out.writeInt(_colGroups.size());
+		for( ColGroup grp : _colGroups ) {
+			out.writeByte(grp.getCompType().ordinal());
+			grp.write(out);
+		}
+	}
+
+	@Override
+	public void readFields(DataInput in) throws IOException {
+		rlen = in.readInt();
+		clen = in.readInt();
+		byte bformat = in.readByte();
+		if( bformat != BlockType.COMPRESSED_BLOCK.ordinal() )
+			throw new IOException("Invalid format for compressed block: '"+bformat+"'.");
+		readCompressedBlock(in);
+	}
+
+	/**
+	 * Reads the column groups of a serialized compressed block, whose
+	 * header (rlen, clen, block type) has already been consumed.
+	 *
+	 * @param in data input
+	 * @throws IOException if IOException occurs
+	 */
+	public void readCompressedBlock(DataInput in) throws IOException {
+		nonZeros = in.readLong();
+		int ncolGroups = in.readInt();
+		_colGroups = new ArrayList<>(ncolGroups);
+		for( int i=0; i<ncolGroups; i++ ) {
+			ColGroup grp = createColGroup(CompressionType.values()[in.readByte()]);
+			grp.readFields(in);
+			_colGroups.add(grp);
+		}
+		_decompressed = null;
+	}
+
+	private static ColGroup createColGroup(CompressionType type) {
+		switch( type ) {
+			case DDC: return new ColGroupDDC();
+			case OLE: return new ColGroupOLE();
+			case RLE: return new ColGroupRLE();
+			case UNCOMPRESSED: return new ColGroupUncompressed();
+			case QUANTIZED: return new ColGroupQuantized();
+			default:
+				throw new DMLRuntimeException("Unsupported column group type: "+type);
+		}
+	}
+
+	////////
+	// Compressed operations
+
+	@Override
+	public MatrixBlock aggregateBinaryOperations(MatrixIndexes m1Index, MatrixBlock m1, MatrixIndexes m2Index, MatrixBlock m2,
+		MatrixBlock ret, AggregateBinaryOperator op) {
+		return aggregateBinaryOperations(m1, m2, ret, op);
+	}
+
+	@Override
+	public MatrixBlock aggregateBinaryOperations(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, AggregateBinaryOperator op) {
+		if( m1.getNumColumns() != m2.getNumRows() )
+			throw new RuntimeException("Dimensions do not match for matrix multiplication ("
+				+m1.getNumColumns()+"!="+m2.getNumRows()+").");
+		int k = op.getNumThreads();
+
+		//mixed-precision matrix multiplication with quantized matrices
+		if( isQuantized() && (m1 == this || m2 == this) ) {
+			ColGroupQuantized grp = (ColGroupQuantized) _colGroups.get(0);
+			MatrixBlock other = (m1 == this) ? m2 : m1;
+			if( other instanceof CompressedMatrixBlock )
+				other = ((CompressedMatrixBlock)other).getDecompressed();
+			if( ret == null )
+				ret = new MatrixBlock(m1.getNumRows(), m2.getNumColumns(), false);
+			else
+				ret.reset(m1.getNumRows(), m2.getNumColumns(), false);
+			if( m1 == this )
+				LibMatrixMult.matrixMultLowPrecision(grp.getData(), grp.getScale(), other, ret, k);
+			else
+				LibMatrixMult.matrixMultLowPrecision(other, grp.getData(), grp.getScale(), ret, k);
+			return ret;
+		}
+
+		//right matrix multiplication with vector or skinny matrix
+		if( m1 == this && !(m2 instanceof CompressedMatrixBlock) && m2.getNumColumns() <= MAX_MULT_VECTORS ) {
+			int n = m2.getNumColumns();
+			ret = prepareOutput(ret, rlen, n);
+			if( !isEmptyBlock(false) && !m2.isEmptyBlock(false) )
+				rightMultByMatrix(DataConverter.convertToDoubleVector(m2, false), ret.getDenseBlockValues(), n, k);
+			return finalizeOutput(ret);
+		}
+		//left matrix multiplication with row vector or short-wide matrix
+		if( m2 == this && !(m1 instanceof CompressedMatrixBlock) && m1.getNumRows() <= MAX_MULT_VECTORS ) {
+			int m = m1.getNumRows();
+			ret = prepareOutput(ret, m, clen);
+			if( !isEmptyBlock(false) && !m1.isEmptyBlock(false) )
+				leftMultByMatrix(DataConverter.convertToDoubleVector(m1, false), ret.getDenseBlockValues(), m, k);
+			return finalizeOutput(ret);
+		}
+
+		//default: matrix multiplication over decompressed inputs
+		MatrixBlock dm1 = (m1 instanceof CompressedMatrixBlock) ?
+			((CompressedMatrixBlock)m1).getDecompressed() : m1;
+		MatrixBlock dm2 = (m2 instanceof CompressedMatrixBlock) ?
+			((CompressedMatrixBlock)m2).getDecompressed() : m2;
+		return dm1.aggregateBinaryOperations(dm1, dm2, ret, op);
+	}
+
+	@Override
+	public MatrixBlock transposeSelfMatrixMultOperations(MatrixBlock out, MMTSJType tstype, int k) {
+		if( tstype != MMTSJType.LEFT )
+			return getDecompressed().transposeSelfMatrixMultOperations(out, tstype, k);
+
+		//t(X) %*% X as left multiplications with all columns of X
+		out = prepareOutput(out, clen, clen);
+		if( isEmptyBlock(false) )
+			return finalizeOutput(out);
+		final double[] c = out.getDenseBlockValues();
+		ArrayList<Callable<Object>> tasks = new ArrayList<>();
+		for( ColGroup grp : _colGroups ) {
+			tasks.add(() -> {
+				double[] col = new double[rlen];
+				for( int j=0; j<grp.getNumCols(); j++ ) {
+					Arrays.fill(col, 0);
+					grp.decompressColumn(j, col);
+					double[] row = new double[clen];
+					for( ColGroup grp2 : _colGroups )
+						grp2.leftMultByRowVector(col, row);
+					System.arraycopy(row, 0, c, grp.getColIndex(j)*clen, clen);
+				}
+				return null;
+			});
+		}
+		execute(tasks, k);
+		return finalizeOutput(out);
+	}
+
+	@Override
+	public MatrixBlock chainMatrixMultOperations(MatrixBlock v, MatrixBlock w, MatrixBlock out, ChainType ctype, int k) {
+		if( !(ctype == ChainType.XtXv || ctype == ChainType.XtwXv || ctype == ChainType.XtXvy) )
+			throw new DMLRuntimeException("Invalid mmchain type '"+ctype.toString()+"'.");
+		if( clen != v.getNumRows() )
+			throw new DMLRuntimeException("Dimensions mismatch on mmchain operation ("+clen+" != "+v.getNumRows()+")");
+
+		//t(X) %*% (w * (X %*% v)) or t(X) %*% ((X %*% v) - y)
+		out = prepareOutput(out, clen, 1);
+		if( isEmptyBlock(false) )
+			return finalizeOutput(out);
+		double[] tmp = new double[rlen];
+		if( !v.isEmptyBlock(false) )
+			rightMultByMatrix(DataConverter.convertToDoubleVector(v, false), tmp, 1, k);
+		if( ctype != ChainType.XtXv ) {
+			double[] wvals = DataConverter.convertToDoubleVector(w, false);
+			for( int i=0; i<rlen; i++ )
+				tmp[i] = (ctype == ChainType.XtwXv) ? tmp[i] * wvals[i] : tmp[i] - wvals[i];
+		}
+		leftMultByMatrix(tmp, out.getDenseBlockValues(), 1, k);
+		return finalizeOutput(out);
+	}
+
+	@Override
+	public MatrixValue aggregateUnaryOperations(AggregateUnaryOperator op, MatrixValue result,
+		int blockingFactorRow, int blockingFactorCol, MatrixIndexes indexesIn, boolean inCP) {
+		if( !inCP || !isCompressedAggregate(op) )
+			return getDecompressed().aggregateUnaryOperations(op,
+				result, blockingFactorRow, blockingFactorCol, indexesIn, inCP);
+
+		//prepare output (w/o correction rows/columns)
+		boolean rowAgg = op.indexFn instanceof ReduceCol;
+		boolean colAgg = op.indexFn instanceof ReduceRow;
+		MatrixBlock ret = prepareOutput((MatrixBlock)result,
+			colAgg ? 1 : rlen, rowAgg ? 1 : clen);
+		double[] c = ret.getDenseBlockValues();
+
+		if( op.aggOp.increOp.fn instanceof KahanPlus ) {
+			if( rowAgg ) {
+				for( ColGroup grp : _colGroups )
+					grp.computeRowSums(c, 0, rlen);
+			}
+			else if( colAgg ) {
+				for( ColGroup grp : _colGroups )
+					grp.computeColSums(c);
+			}
+			else {
+				KahanObject kbuff = new KahanObject(0, 0);
+				for( ColGroup grp : _colGroups )
+					grp.computeSum(kbuff);
+				c[0] = kbuff._sum;
+			}
+		}
+		else {
+			Builtin fn = (Builtin) op.aggOp.increOp.fn;
+			boolean max = fn.getBuiltinCode() == BuiltinCode.MAX;
+			if( colAgg ) {
+				Arrays.fill(c, max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+				for( ColGroup grp : _colGroups )
+					grp.computeColMxx(c, fn);
+			}
+			else {
+				c[0] = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+				for( ColGroup grp : _colGroups )
+					c[0] = fn.execute(c[0], grp.computeMxx(fn));
+			}
+		}
+		return finalizeOutput(ret);
+	}
+
+	private static boolean isCompressedAggregate(AggregateUnaryOperator op) {
+		boolean sum = op.aggOp.increOp.fn.getClass() == KahanPlus.class
+			&& (op.indexFn instanceof ReduceAll || op.indexFn instanceof ReduceCol
+			|| op.indexFn instanceof ReduceRow);
+		boolean mxx = op.aggOp.increOp.fn instanceof Builtin
+			&& (((Builtin)op.aggOp.increOp.fn).getBuiltinCode() == BuiltinCode.MIN
+			|| ((Builtin)op.aggOp.increOp.fn).getBuiltinCode() == BuiltinCode.MAX)
+			&& (op.indexFn instanceof ReduceAll || op.indexFn instanceof ReduceRow);
+		return sum || mxx;
+	}
+
+	@Override
+	public MatrixValue scalarOperations(ScalarOperator op, MatrixValue result) {
+		List<ColGroup> colGroups = new ArrayList<>(_colGroups.size());
+		for( ColGroup grp : _colGroups )
+			colGroups.add(grp.scalarOperation(op));
+		return new CompressedMatrixBlock(rlen, clen, colGroups);
+	}
+
+	private void rightMultByMatrix(double[] b, double[] c, int n, int k) {
+		if( k <= 1 || rlen < 2*k ) {
+			for( ColGroup grp : _colGroups )
+				grp.rightMultByMatrix(b, c, n, 0, rlen);
+			return;
+		}
+		//row-partitioned, i.e., disjoint output rows per task
+		ArrayList<Callable<Object>> tasks = new ArrayList<>();
+		ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(rlen, k, false);
+		for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ ) {
+			final int rl = lb, ru = lb+blklens.get(i);
+			tasks.add(() -> {
+				for( ColGroup grp : _colGroups )
+					grp.rightMultByMatrix(b, c, n, rl, ru);
+				return null;
+			});
+		}
+		execute(tasks, k);
+	}
+
+	private void leftMultByMatrix(double[] a, double[] c, int m, int k) {
+		//column-group-partitioned, i.e., disjoint output columns per task
+		ArrayList<Callable<Object>> tasks = new ArrayList<>();
+		for( ColGroup grp : _colGroups ) {
+			tasks.add(() -> {
+				double[] arow = (m == 1) ? a : new double[rlen];
+				double[] crow = (m == 1) ? c : new double[clen];
+				for( int i=0; i<m; i++ ) {
+					if( m > 1 ) {
+						System.arraycopy(a, i*rlen, arow, 0, rlen);
+						Arrays.fill(crow, 0);
+					}
+					grp.leftMultByRowVector(arow, crow);
+					if( m > 1 )
+						for( int j : grp.getColIndices() )
+							c[i*clen+j] = crow[j];
+				}
+				return null;
+			});
+		}
+		execute(tasks, k);
+	}
+
+	private static void execute(List<Callable<Object>> tasks, int k) {
+		try {
+			if( k <= 1 || tasks.size() <= 1 ) {
+				for( Callable<Object> task : tasks )
+					task.call();
+				return;
+			}
+			ExecutorService pool = CommonThreadPool.get(k);
+			List<Future<Object>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			for( Future<Object> task : taskret )
+				task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	private static MatrixBlock prepareOutput(MatrixBlock ret, int rl, int cl) {
+		if( ret == null )
+			ret = new MatrixBlock(rl, cl, false);
+		else
+			ret.reset(rl, cl, false);
+		ret.allocateDenseBlock();
+		return ret;
+	}
+
+	private static MatrixBlock finalizeOutput(MatrixBlock ret) {
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("CompressedMatrixBlock: rlen="+rlen+", clen="+clen+", nnz="+nonZeros+"\n");
+		for( ColGroup grp : _colGroups )
+			sb.append(grp.toString()+"\n");
+		return sb.toString();
+	}
+}
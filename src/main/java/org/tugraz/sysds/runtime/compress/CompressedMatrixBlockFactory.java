@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.ColGroup.CompressionType;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Factory for compressed matrix blocks. The compression planning works
+ * column-wise: for each column, we extract exact statistics (distinct
+ * values, non-zeros, runs) from the transposed input, and select the
+ * encoding with minimal in-memory size among DDC, OLE, RLE, and
+ * uncompressed. All uncompressed columns are merged into a single group.
+ */
+public class CompressedMatrixBlockFactory
+{
+	private static final Log LOG = LogFactory.getLog(CompressedMatrixBlockFactory.class.getName());
+
+	//min number of rows for compression (smaller inputs are returned as is)
+	public static final int MIN_NUM_ROWS = 1000;
+
+	//column encodings to consider during compression planning
+	public static boolean ALLOW_DDC_ENCODING = true;
+	public static boolean ALLOW_OLE_ENCODING = true;
+	public static boolean ALLOW_RLE_ENCODING = true;
+
+	public static MatrixBlock compress(MatrixBlock mb) {
+		return compress(mb, 1);
+	}
+
+	public static MatrixBlock compress(MatrixBlock mb, int k) {
+		return compress(mb, k, false);
+	}
+
+	/**
+	 * Compresses the given matrix block. If compression does not reduce
+	 * the in-memory size, the uncompressed input block is returned.
+	 *
+	 * @param mb input matrix block
+	 * @param k degree of parallelism
+	 * @param force compress inputs of any size
+	 * @return compressed matrix block, or the input block
+	 */
+	public static MatrixBlock compress(MatrixBlock mb, int k, boolean force) {
+		if( mb instanceof CompressedMatrixBlock )
+			return mb;
+		final int rlen = mb.getNumRows();
+		final int clen = mb.getNumColumns();
+		if( mb.isEmptyBlock(false) || (!force && rlen < MIN_NUM_ROWS) )
+			return mb;
+
+		//transpose input for column-wise access
+		final MatrixBlock tmb = LibMatrixReorg.transpose(mb,
+			new MatrixBlock(clen, rlen, mb.isInSparseFormat()), k);
+
+		//column-wise compression planning and encoding
+		final ColGroup[] groups = new ColGroup[clen];
+		if( k <= 1 || clen == 1 ) {
+			double[] col = new double[rlen];
+			for( int j=0; j<clen; j++ )
+				groups[j] = compressColumn(tmb, j, col);
+		}
+		else {
+			try {
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<Callable<Object>> tasks = new ArrayList<>();
+				int blklen = (int)Math.ceil((double)clen / k);
+				for( int i=0; i<k && i*blklen<clen; i++ ) {
+					final int cl = i*blklen, cu = Math.min((i+1)*blklen, clen);
+					tasks.add(() -> {
+						double[] col = new double[rlen];
+						for( int j=cl; j<cu; j++ )
+							groups[j] = compressColumn(tmb, j, col);
+						return null;
+					});
+				}
+				List<Future<Object>> taskret = pool.invokeAll(tasks);
+				pool.shutdown();
+				for( Future<Object> task : taskret )
+					task.get();
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+
+		//collect compressed column groups and merge uncompressed columns
+		List<ColGroup> colGroups = new ArrayList<>();
+		int[] ucols = new int[clen];
+		int numUncompressed = 0;
+		for( int j=0; j<clen; j++ ) {
+			if( groups[j] != null )
+				colGroups.add(groups[j]);
+			else
+				ucols[numUncompressed++] = j;
+		}
+		if( numUncompressed == clen )
+			return mb;
+		if( numUncompressed > 0 ) {
+			int[] colIndexes = new int[numUncompressed];
+			System.arraycopy(ucols, 0, colIndexes, 0, numUncompressed);
+			colGroups.add(new ColGroupUncompressed(colIndexes, mb));
+		}
+
+		CompressedMatrixBlock ret = new CompressedMatrixBlock(rlen, clen, colGroups);
+		if( LOG.isDebugEnabled() )
+			LOG.debug("Compressed "+rlen+"x"+clen+" block: "+mb.getInMemorySize()
+				+" -> "+ret.getInMemorySize()+" bytes, "+colGroups.size()+" column groups.");
+		return (ret.getInMemorySize() < mb.getInMemorySize()) ? ret : mb;
+	}
+
+	/**
+	 * Quantizes the given matrix block into a lossy compressed block with
+	 * a single low-precision column group. In contrast to compress, the
+	 * result is always a compressed block, independent of its size.
+	 *
+	 * @param mb input matrix block
+	 * @param vt low-precision value type (FP16, BF16, INT8)
+	 * @return quantized compressed matrix block
+	 */
+	public static CompressedMatrixBlock quantize(MatrixBlock mb, ValueType vt) {
+		if( mb instanceof CompressedMatrixBlock )
+			mb = ((CompressedMatrixBlock)mb).getDecompressed();
+		final int clen = mb.getNumColumns();
+		int[] colIndexes = new int[clen];
+		for( int j=0; j<clen; j++ )
+			colIndexes[j] = j;
+		List<ColGroup> colGroups = new ArrayList<>();
+		colGroups.add(new ColGroupQuantized(colIndexes, mb, vt));
+		return new CompressedMatrixBlock(mb.getNumRows(), clen, colGroups);
+	}
+
+	/**
+	 * Compresses a single column (i.e., row of the transposed input) with
+	 * the encoding of minimal estimated size.
+	 *
+	 * @param tmb transposed input
+	 * @param c column index
+	 * @param col reusable buffer of length nrow
+	 * @return column group, or null if uncompressed storage is smaller
+	 */
+	private static ColGroup compressColumn(MatrixBlock tmb, int c, double[] col) {
+		final int rlen = tmb.getNumColumns();
+		extractColumn(tmb, c, col);
+
+		//exact column statistics: distinct values, counts, runs
+		HashMap<Double, Integer> ids = new HashMap<>();
+		ArrayList<Double> values = new ArrayList<>();
+		int[] refs = new int[rlen];
+		int[] counts = new int[16];
+		int[] runs = new int[16];
+		long nnz = 0, numRuns = 0;
+		for( int i=0; i<rlen; i++ ) {
+			if( col[i] == 0 ) {
+				refs[i] = -1;
+				continue;
+			}
+			Integer id = ids.get(col[i]);
+			if( id == null ) {
+				id = values.size();
+				ids.put(col[i], id);
+				values.add(col[i]);
+				if( id >= counts.length ) {
+					counts = Arrays.copyOf(counts, 2*counts.length);
+					runs = Arrays.copyOf(runs, 2*runs.length);
+				}
+			}
+			refs[i] = id;
+			counts[id]++;
+			nnz++;
+			if( i == 0 || refs[i-1] != id ) {
+				runs[id]++;
+				numRuns++;
+			}
+		}
+		final int numVals = values.size();
+		boolean zeros = nnz < rlen;
+
+		//size estimates and selection of the encoding
+		long sizeUC = MatrixBlock.estimateSizeInMemory(rlen, 1, (double)nnz/rlen);
+		long sizeDDC = ALLOW_DDC_ENCODING ?
+			ColGroupDDC.estimateInMemorySize(rlen, 1, numVals + (zeros?1:0)) : Long.MAX_VALUE;
+		long sizeOLE = ALLOW_OLE_ENCODING ?
+			ColGroupOLE.estimateInMemorySize(1, numVals, nnz) : Long.MAX_VALUE;
+		long sizeRLE = ALLOW_RLE_ENCODING ?
+			ColGroupRLE.estimateInMemorySize(1, numVals, numRuns) : Long.MAX_VALUE;
+		long minSize = Math.min(Math.min(sizeDDC, sizeOLE), sizeRLE);
+		if( minSize >= sizeUC )
+			return null;
+
+		int[] colIndexes = new int[]{c};
+		double[] dict = new double[numVals + (sizeDDC==minSize && zeros ? 1 : 0)];
+		for( int k=0; k<numVals; k++ )
+			dict[k] = values.get(k);
+		CompressionType type = (sizeDDC==minSize) ? CompressionType.DDC :
+			(sizeOLE==minSize) ? CompressionType.OLE : CompressionType.RLE;
+
+		switch( type ) {
+			case DDC: {
+				for( int i=0; i<rlen; i++ )
+					refs[i] = (refs[i] < 0) ? numVals : refs[i];
+				return new ColGroupDDC(colIndexes, rlen, dict, refs);
+			}
+			case OLE: {
+				int[] ptr = new int[numVals+1];
+				for( int k=0; k<numVals; k++ )
+					ptr[k+1] = ptr[k] + counts[k];
+				int[] pos = Arrays.copyOf(ptr, numVals);
+				int[] offsets = new int[(int)nnz];
+				for( int i=0; i<rlen; i++ )
+					if( refs[i] >= 0 )
+						offsets[pos[refs[i]]++] = i;
+				return new ColGroupOLE(colIndexes, rlen, dict, ptr, offsets);
+			}
+			default: {
+				int[] ptr = new int[numVals+1];
+				for( int k=0; k<numVals; k++ )
+					ptr[k+1] = ptr[k] + 2*runs[k];
+				int[] pos = Arrays.copyOf(ptr, numVals);
+				int[] data = new int[(int)(2*numRuns)];
+				for( int i=0; i<rlen; i++ ) {
+					int id = refs[i];
+					if( id < 0 ) continue;
+					if( i == 0 || refs[i-1] != id ) {
+						data[pos[id]] = i;
+						data[pos[id]+1] = 1;
+						pos[id] += 2;
+					}
+					else {
+						data[pos[id]-1]++;
+					}
+				}
+				return new ColGroupRLE(colIndexes, rlen, dict, ptr, data);
+			}
+		}
+	}
+
+	private static void extractColumn(MatrixBlock tmb, int c, double[] col) {
+		Arrays.fill(col, 0);
+		if( tmb.isEmptyBlock(false) )
+			return;
+		if( tmb.isInSparseFormat() ) {
+			SparseBlock a = tmb.getSparseBlock();
+			if( !a.isEmpty(c) )
+				a.scatter(c, col, 0);
+		}
+		else {
+			DenseBlock a = tmb.getDenseBlock();
+			System.arraycopy(a.values(c), a.pos(c), col, 0, col.length);
+		}
+	}
+}
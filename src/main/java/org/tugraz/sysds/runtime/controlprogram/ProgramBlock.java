@@ -35,11 +35,15 @@ import org.tugraz.sysds.parser.StatementBlock;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.DMLScriptException;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.tugraz.sysds.runtime.instructions.Instruction;
 import org.tugraz.sysds.runtime.instructions.cp.BooleanObject;
+import org.tugraz.sysds.runtime.instructions.cp.CPOperand;
+import org.tugraz.sysds.runtime.instructions.cp.ComputationCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.Data;
 import org.tugraz.sysds.runtime.instructions.cp.DoubleObject;
 import org.tugraz.sysds.runtime.instructions.cp.IntObject;
@@ -153,6 +157,11 @@ public class ProgramBlock implements ParseInfo
 			throw new DMLRuntimeException("Unable to recompile program block.", ex);
 		}
 
+		//pass upcoming reuse to the buffer pool (cost-based eviction)
+		if( CacheableData.CACHING_BUFFER_POLICY == RPolicy.COST && _sb != null && _sb.liveOut() != null )
+			CacheableData.setReuseHints(ec.getVariables(),
+				_sb.variablesRead().getVariableNames(), _sb.liveOut().getVariableNames());
+		
 		//actual instruction execution
 		executeInstructions(tmp, ec);
 	}
@@ -201,10 +210,30 @@ public class ProgramBlock implements ParseInfo
 		for (int i = 0; i < inst.size(); i++) {
 			//indexed access required due to dynamic add
 			Instruction currInst = inst.get(i);
+			//prefetch evicted inputs of upcoming instructions
+			if( CacheableData.CACHING_PREFETCH > 0 )
+				prefetchInputs(inst, i+1, ec);
 			//execute instruction
 			executeSingleInstruction(currInst, ec);
 		}
 	}
+	
+	private static void prefetchInputs(ArrayList<Instruction> inst, int pos, ExecutionContext ec) {
+		//probe the inputs of the next N instructions, where inputs already
+		//in memory, buffered, or prefetched are skipped by the buffer pool
+		int end = Math.min(pos + CacheableData.CACHING_PREFETCH, inst.size());
+		for( int i=pos; i<end; i++ ) {
+			if( !(inst.get(i) instanceof ComputationCPInstruction) )
+				continue;
+			for( CPOperand in : ((ComputationCPInstruction)inst.get(i)).getInputs() ) {
+				if( in == null || in.isLiteral() )
+					continue;
+				Data dat = ec.getVariables().get(in.getName());
+				if( dat instanceof CacheableData )
+					((CacheableData<?>)dat).prefetch();
+			}
+		}
+	}
 
 	protected ScalarObject executePredicateInstructions(ArrayList<Instruction> inst, ValueType retType, ExecutionContext ec) {
 		//execute all instructions (indexed access required due to debug mode)
@@ -25,6 +25,9 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.util.LocalFileUtils;
@@ -39,10 +42,17 @@ public class ByteBuffer
 	private volatile boolean _serialized;	
 	private volatile boolean _shallow;
 	private volatile boolean _matrix;
-	private final long _size;
+	private volatile boolean _offheap;
+	private volatile boolean _compressed;
+	private long _size;
+	private volatile long _stamp; //logical clock for eviction order
+	private volatile boolean _freed;
 	
 	protected byte[]     _bdata = null; //sparse matrix
 	protected CacheBlock _cdata = null; //dense matrix/frame
+	protected DenseBlockOffHeapFP64 _odata = null; //dense matrix (off-heap)
+	private int _rlen, _clen;
+	private long _nnz;
 	
 	public ByteBuffer( long size ) {
 		_size = size;
@@ -51,13 +61,34 @@ public class ByteBuffer
 
 	public void serializeBlock( CacheBlock cb ) 
 		throws IOException
+	{	
+		serializeBlock(cb, false);
+	}
+	
+	/**
+	 * Serializes the given cache block into this buffer. If compression is
+	 * requested, deep-serialized blocks are compressed and the buffer size
+	 * is set to the compressed size (only valid before the buffer is shared).
+	 * 
+	 * @param cb cache block
+	 * @param compress if true, compress deep-serialized blocks
+	 * @throws IOException if IOException occurs
+	 */
+	public void serializeBlock( CacheBlock cb, boolean compress ) 
+		throws IOException
 	{	
 		_shallow = cb.isShallowSerialize(true);
 		_matrix = (cb instanceof MatrixBlock);
 		
 		try
 		{
-			if( !_shallow ) //SPARSE/DENSE -> SPARSE
+			if( !_shallow && compress ) //SPARSE/DENSE -> COMPRESSED
+			{
+				_bdata = CacheBlockCompressor.compress(cb);
+				_compressed = true;
+				_size = _bdata.length;
+			}
+			else if( !_shallow ) //SPARSE/DENSE -> SPARSE
 			{
 				//deep serialize (for compression)
 				if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -67,6 +98,19 @@ public class ByteBuffer
 				DataOutput dout = new CacheDataOutput(_bdata);
 				cb.write(dout);
 			}
+			else if( isOffHeapCandidate(cb) ) //DENSE -> DENSE OFF-HEAP
+			{
+				//copy dense values into off-heap buffer, which releases
+				//the on-heap matrix block (and thus reduces GC pressure)
+				MatrixBlock mb = (MatrixBlock) cb;
+				_rlen = mb.getNumRows();
+				_clen = mb.getNumColumns();
+				_nnz = mb.getNonZeros();
+				_odata = (DenseBlockOffHeapFP64) DenseBlockFactory
+					.createOffHeapDenseBlock(_rlen, _clen);
+				_odata.set(mb.getDenseBlock());
+				_offheap = true;
+			}
 			else //SPARSE/DENSE -> DENSE
 			{
 				//convert to shallow serialize block if necessary
@@ -89,12 +133,23 @@ public class ByteBuffer
 	{
 		CacheBlock ret = null;
 		
-		if( !_shallow ) { //sparse matrix / string frame
+		if( _compressed ) { //compressed sparse matrix / string frame
+			ret = CacheBlockCompressor.readCacheBlock(
+				new ByteArrayInputStream(_bdata), _matrix);
+		}
+		else if( !_shallow ) { //sparse matrix / string frame
 			DataInput din = _matrix ? new CacheDataInput(_bdata) :
 				new DataInputStream(new ByteArrayInputStream(_bdata));
 			ret = _matrix ? new MatrixBlock() : new FrameBlock();
 			ret.readFields(din);
 		}
+		else if( _offheap ) { //dense matrix (off-heap)
+			MatrixBlock mb = new MatrixBlock(_rlen, _clen, false);
+			mb.allocateDenseBlock();
+			_odata.copyTo(mb.getDenseBlock());
+			mb.setNonZeros(_nnz);
+			ret = mb;
+		}
 		else { //dense matrix/frame
 			ret = _cdata;
 		}
@@ -109,9 +164,13 @@ public class ByteBuffer
 			//write out byte serialized array
 			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
 		}
+		else if( _offheap ) {
+			//direct write of off-heap buffers (no on-heap byte array)
+			LocalFileUtils.writeOffHeapDenseBlockToLocal(fname, _rlen, _clen, _odata);
+		}
 		else {
-			//serialize cache block to output stream
-			LocalFileUtils.writeCacheBlockToLocal(fname, _cdata);
+			//serialize cache block to output stream (optionally compressed)
+			CacheBlockCompressor.writeCacheBlockToLocal(fname, _cdata);
 		}
 	}
 	
@@ -124,22 +183,42 @@ public class ByteBuffer
 		return _size;
 	}
 
+	public long getStamp() {
+		return _stamp;
+	}
+	
+	public void setStamp(long stamp) {
+		_stamp = stamp;
+	}
+	
 	public boolean isShallow() {
 		return _shallow;
 	}
 	
 	public void freeMemory()
 	{
+		_freed = true;
+		
 		//clear strong references to buffer/matrix
 		if( !_shallow ) {
-			if( CacheableData.CACHING_BUFFER_PAGECACHE )
+			if( CacheableData.CACHING_BUFFER_PAGECACHE && !_compressed )
 				PageCache.putPage(_bdata);
 			_bdata = null;
 		}
+		else if( _offheap ) {
+			//deterministic release of native memory
+			if( _odata != null )
+				_odata.free();
+			_odata = null;
+		}
 		else {
 			_cdata = null;
 		}
 	}
+	
+	public boolean isFreed() {
+		return _freed;
+	}
 
 	public void checkSerialized()
 	{
@@ -153,6 +232,23 @@ public class ByteBuffer
 		}
 	}
 	
+	public boolean isCompressed() {
+		return _compressed;
+	}
+	
+	public boolean isOffHeap() {
+		return _offheap;
+	}
+	
+	protected static boolean isOffHeapCandidate(CacheBlock cb) {
+		if( !CacheableData.CACHING_BUFFER_OFFHEAP || !(cb instanceof MatrixBlock) )
+			return false;
+		MatrixBlock mb = (MatrixBlock) cb;
+		DenseBlock db = mb.getDenseBlock();
+		return !mb.isInSparseFormat() && db != null && mb.getNonZeros() > 0
+			&& DenseBlockFactory.isValidOffHeapDenseBlock(mb.getNumRows(), mb.getNumColumns());
+	}
+	
 	/**
 	 * Determines if byte buffer can hold the given size given this specific cache block.
 	 * This call is consistent with 'serializeBlock' and allows for internal optimization
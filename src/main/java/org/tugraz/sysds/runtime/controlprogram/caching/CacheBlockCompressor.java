@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.controlprogram.caching;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import net.jpountz.lz4.LZ4Factory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.tugraz.sysds.api.DMLScript;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
+import org.tugraz.sysds.runtime.util.FastBufferedDataOutputStream;
+import org.tugraz.sysds.runtime.util.LocalFileUtils;
+
+/**
+ * Fast block compression (LZ4) of evicted cache blocks, used for both spill
+ * files and the serialized in-memory form of buffer pool entries. Compressed
+ * data starts with a negative magic number, which distinguishes it from raw
+ * matrix and frame blocks (starting with the non-negative number of rows),
+ * followed by an LZ4 block stream. Incompressible blocks (e.g., dense random
+ * data) are detected by compressing a small sample and written uncompressed.
+ */
+public class CacheBlockCompressor
+{
+	private static final Log LOG = LogFactory.getLog(CacheBlockCompressor.class.getName());
+	
+	//header of compressed cache blocks
+	public static final int MAGIC = 0xCAC4E1F4;
+	
+	//maximum ratio of compressed to raw sample size for compression
+	public static final double MAX_COMPRESSION_RATIO = 0.8;
+	
+	//block size of lz4 stream and size of compression samples
+	private static final int BLOCK_SIZE = 64 * 1024;
+	
+	//lz4 factory (null if the library is unavailable)
+	private static final LZ4Factory _factory = createFactory();
+	
+	public static boolean isAvailable() {
+		return _factory != null;
+	}
+	
+	/**
+	 * Decides if the given cache block should be compressed, i.e., if the
+	 * compression is enabled and a sample of leading rows is compressible.
+	 * 
+	 * @param cb cache block
+	 * @return true if the block should be compressed
+	 */
+	public static boolean isCompressible(CacheBlock cb) {
+		if( !CacheableData.CACHING_BUFFER_COMPRESSION || !isAvailable()
+			|| cb instanceof CompressedMatrixBlock || cb.getNumRows() == 0 )
+			return false;
+		
+		try {
+			//serialize and compress a sample of leading rows
+			long size = Math.max(cb.getExactSerializedSize(), 1);
+			int rows = (int) Math.max(1, Math.min(cb.getNumRows(),
+				(long)BLOCK_SIZE * cb.getNumRows() / size));
+			CacheBlock sample = (rows < cb.getNumRows()) ?
+				cb.slice(0, rows-1, 0, cb.getNumColumns()-1, null) : cb;
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			sample.write(new DataOutputStream(bos));
+			byte[] raw = bos.toByteArray();
+			byte[] comp = new byte[_factory.fastCompressor().maxCompressedLength(raw.length)];
+			int clen = _factory.fastCompressor().compress(raw, 0, raw.length, comp, 0);
+			boolean ret = clen < MAX_COMPRESSION_RATIO * raw.length;
+			if( !ret && DMLScript.STATISTICS )
+				CacheStatistics.incrementCompressionSkipped();
+			return ret;
+		}
+		catch(Exception ex) {
+			LOG.warn("Failed to sample cache block for compression.", ex);
+			return false;
+		}
+	}
+	
+	/**
+	 * Serializes the given cache block into a compressed byte array,
+	 * including the magic number.
+	 * 
+	 * @param cb cache block
+	 * @return compressed byte array
+	 * @throws IOException if IOException occurs
+	 */
+	public static byte[] compress(CacheBlock cb) throws IOException {
+		long t0 = System.nanoTime();
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(BLOCK_SIZE);
+		try( DataOutputStream dos = new DataOutputStream(getOutputStream(bos)) ) {
+			cb.write(dos);
+		}
+		byte[] ret = bos.toByteArray();
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementCompression(cb.getExactSerializedSize(),
+				ret.length, System.nanoTime()-t0);
+		return ret;
+	}
+	
+	/**
+	 * Wraps the given output stream into a compressed output stream,
+	 * after writing the magic number.
+	 * 
+	 * @param os output stream
+	 * @return compressed output stream
+	 * @throws IOException if IOException occurs
+	 */
+	public static OutputStream getOutputStream(OutputStream os) throws IOException {
+		DataOutputStream dos = new DataOutputStream(os);
+		dos.writeInt(MAGIC);
+		dos.flush();
+		return new LZ4BlockOutputStream(os, BLOCK_SIZE, _factory.fastCompressor());
+	}
+	
+	/**
+	 * Wraps the given input stream into a decompressing input stream,
+	 * after consuming the magic number.
+	 * 
+	 * @param is input stream
+	 * @return decompressing input stream
+	 * @throws IOException if IOException occurs
+	 */
+	public static InputStream getInputStream(InputStream is) throws IOException {
+		if( new DataInputStream(is).readInt() != MAGIC )
+			throw new IOException("Invalid header of compressed cache block.");
+		return new LZ4BlockInputStream(is, _factory.fastDecompressor());
+	}
+	
+	/**
+	 * Indicates if the given file is a compressed cache block.
+	 * 
+	 * @param fname file name
+	 * @return true if compressed
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean isCompressed(String fname) throws IOException {
+		try( DataInputStream in = new DataInputStream(new FileInputStream(fname)) ) {
+			return in.available() >= 4 && in.readInt() == MAGIC;
+		}
+	}
+	
+	/**
+	 * Indicates if the given byte array is a compressed cache block.
+	 * 
+	 * @param data serialized cache block
+	 * @return true if compressed
+	 */
+	public static boolean isCompressed(byte[] data) {
+		return data.length >= 4 && ((data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16
+			| (data[2] & 0xFF) << 8 | (data[3] & 0xFF)) == MAGIC;
+	}
+	
+	/**
+	 * Reads a compressed cache block from the given stream.
+	 * 
+	 * @param is input stream (including magic number)
+	 * @param matrix if true, read matrix. if false, read frame.
+	 * @return cache block
+	 * @throws IOException if IOException occurs
+	 */
+	public static CacheBlock readCacheBlock(InputStream is, boolean matrix) throws IOException {
+		long t0 = System.nanoTime();
+		BufferedInputStream in = new BufferedInputStream(getInputStream(is), LocalFileUtils.BUFFER_SIZE);
+		CacheBlock ret = LocalFileUtils.readCacheBlockFromStream(in, matrix);
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementDecompressionTime(System.nanoTime()-t0);
+		return ret;
+	}
+	
+	/**
+	 * Writes a cache block to local file system, compressed if enabled
+	 * and compressible or uncompressed otherwise.
+	 * 
+	 * @param fname file name to write
+	 * @param cb cache block
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeCacheBlockToLocal(String fname, CacheBlock cb) throws IOException {
+		if( !isCompressible(cb) ) {
+			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+			return;
+		}
+		long t0 = System.nanoTime();
+		try( FileOutputStream fos = new FileOutputStream(fname);
+			FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+				getOutputStream(fos), LocalFileUtils.BUFFER_SIZE) ) {
+			cb.write(out);
+		}
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementCompression(cb.getExactSerializedSize(),
+				new File(fname).length(), System.nanoTime()-t0);
+	}
+	
+	private static LZ4Factory createFactory() {
+		try {
+			return LZ4Factory.fastestInstance();
+		}
+		catch(Throwable ex) {
+			LOG.warn("LZ4 compression of cache blocks unavailable: "+ex.getMessage());
+			return null;
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.tugraz.sysds.runtime.controlprogram.caching;
 
 import java.util.ArrayList;
 
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
@@ -37,12 +38,15 @@ public class CacheBlockFactory
 		switch( code ) {
 			case 0: return new MatrixBlock();
 			case 1: return new FrameBlock();
+			case 2: return new CompressedMatrixBlock();
 		}
 		throw new RuntimeException("Unsupported cache block type: "+code);
 	}
 
 	public static int getCode(CacheBlock block) {
-		if( block instanceof MatrixBlock )
+		if( block instanceof CompressedMatrixBlock )
+			return 2;
+		else if( block instanceof MatrixBlock )
 			return 0;
 		else if( block instanceof FrameBlock )
 			return 1;
@@ -54,6 +58,7 @@ public class CacheBlockFactory
 		switch( code ) {
 			case 0: return new ArrayList<Pair<MatrixIndexes,MatrixBlock>>();
 			case 1: return new ArrayList<Pair<Long,FrameBlock>>();
+			case 2: return new ArrayList<Pair<MatrixIndexes,MatrixBlock>>();
 		}
 		throw new RuntimeException("Unsupported cache block type: "+code);
 	}
@@ -47,6 +47,8 @@ public class CacheStatistics
 		CACHE_TIME_ACQM, //acquire read
 		CACHE_TIME_RLS, //release
 		CACHE_TIME_EXP, //export 
+		CACHE_LOCK_WAITS, //contended buffer pool locks
+		CACHE_EVICT_ASYNC, //asynchronous evictions
 	}
 	
 	//hit statistics (for acquire read)
@@ -66,6 +68,26 @@ public class CacheStatistics
 	private static final LongAdder _ctimeRelease    = new LongAdder(); //in nano sec
 	private static final LongAdder _ctimeExport     = new LongAdder(); //in nano sec
 
+	//contention statistics buffer pool
+	private static final LongAdder _numLockWaits    = new LongAdder();
+	private static final LongAdder _ctimeLockWait   = new LongAdder(); //in nano sec
+	private static final LongAdder _numEvictAsync   = new LongAdder();
+	private static final LongAdder _numEvictSync    = new LongAdder();
+	private static final LongAdder _numHitsPending  = new LongAdder();
+	
+	//compression statistics evicted blocks
+	private static final LongAdder _numCompressed   = new LongAdder();
+	private static final LongAdder _numCompSkipped  = new LongAdder();
+	private static final LongAdder _sizeCompRaw     = new LongAdder(); //in bytes
+	private static final LongAdder _sizeCompOut     = new LongAdder(); //in bytes
+	private static final LongAdder _ctimeCompress   = new LongAdder(); //in nano sec
+	private static final LongAdder _ctimeDecompress = new LongAdder(); //in nano sec
+	
+	//prefetch statistics evicted blocks
+	private static final LongAdder _numPrefetches   = new LongAdder();
+	private static final LongAdder _numPrefetchHits = new LongAdder();
+	private static final LongAdder _numPrefetchMiss = new LongAdder();
+	
 	public static void reset() {
 		_numHitsMem.reset();
 		_numHitsFSBuff.reset();
@@ -80,6 +102,23 @@ public class CacheStatistics
 		_ctimeAcquireM.reset();
 		_ctimeRelease.reset();
 		_ctimeExport.reset();
+		
+		_numLockWaits.reset();
+		_ctimeLockWait.reset();
+		_numEvictAsync.reset();
+		_numEvictSync.reset();
+		_numHitsPending.reset();
+		
+		_numCompressed.reset();
+		_numCompSkipped.reset();
+		_sizeCompRaw.reset();
+		_sizeCompOut.reset();
+		_ctimeCompress.reset();
+		_ctimeDecompress.reset();
+		
+		_numPrefetches.reset();
+		_numPrefetchHits.reset();
+		_numPrefetchMiss.reset();
 	}
 
 	public static void incrementMemHits() {
@@ -198,6 +237,95 @@ public class CacheStatistics
 		return _ctimeExport.longValue();
 	}
 	
+	public static void incrementLockContention(long delta) {
+		_numLockWaits.increment();
+		_ctimeLockWait.add(delta);
+	}
+	
+	public static long getLockWaits() {
+		return _numLockWaits.longValue();
+	}
+	
+	public static long getLockWaitTime() {
+		return _ctimeLockWait.longValue();
+	}
+	
+	public static void incrementAsyncEvictions() {
+		_numEvictAsync.increment();
+	}
+	
+	public static long getAsyncEvictions() {
+		return _numEvictAsync.longValue();
+	}
+	
+	public static void incrementSyncEvictions() {
+		_numEvictSync.increment();
+	}
+	
+	public static long getSyncEvictions() {
+		return _numEvictSync.longValue();
+	}
+	
+	public static void incrementPendingEvictHits() {
+		_numHitsPending.increment();
+	}
+	
+	public static long getPendingEvictHits() {
+		return _numHitsPending.longValue();
+	}
+	
+	public static void incrementPrefetches() {
+		_numPrefetches.increment();
+	}
+	
+	public static long getPrefetches() {
+		return _numPrefetches.longValue();
+	}
+	
+	public static void incrementPrefetchHits() {
+		_numPrefetchHits.increment();
+	}
+	
+	public static long getPrefetchHits() {
+		return _numPrefetchHits.longValue();
+	}
+	
+	public static void incrementPrefetchMisses() {
+		_numPrefetchMiss.increment();
+	}
+	
+	public static long getPrefetchMisses() {
+		return _numPrefetchMiss.longValue();
+	}
+	
+	public static void incrementCompression(long rawSize, long compSize, long delta) {
+		_numCompressed.increment();
+		_sizeCompRaw.add(rawSize);
+		_sizeCompOut.add(compSize);
+		_ctimeCompress.add(delta);
+	}
+	
+	public static long getCompressed() {
+		return _numCompressed.longValue();
+	}
+	
+	public static double getCompressionRatio() {
+		long out = _sizeCompOut.longValue();
+		return (out > 0) ? (double)_sizeCompRaw.longValue() / out : 1;
+	}
+	
+	public static void incrementCompressionSkipped() {
+		_numCompSkipped.increment();
+	}
+	
+	public static long getCompressionSkipped() {
+		return _numCompSkipped.longValue();
+	}
+	
+	public static void incrementDecompressionTime(long delta) {
+		_ctimeDecompress.add(delta);
+	}
+	
 	public static String displayHits() {	
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsMem.longValue());
@@ -234,4 +362,50 @@ public class CacheStatistics
 		
 		return sb.toString();
 	}
+	
+	public static String displayContention() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numLockWaits.longValue());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeLockWait.longValue())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
+	public static String displayEvictions() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numEvictAsync.longValue());
+		sb.append("/");
+		sb.append(_numEvictSync.longValue());
+		sb.append("/");
+		sb.append(_numHitsPending.longValue());
+		
+		return sb.toString();
+	}
+	
+	public static String displayPrefetch() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numPrefetches.longValue());
+		sb.append("/");
+		sb.append(_numPrefetchHits.longValue());
+		sb.append("/");
+		sb.append(_numPrefetchMiss.longValue());
+		
+		return sb.toString();
+	}
+	
+	public static String displayCompression() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numCompressed.longValue());
+		sb.append("/");
+		sb.append(_numCompSkipped.longValue());
+		sb.append("/");
+		sb.append(String.format("%.2f", getCompressionRatio()));
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeCompress.longValue())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeDecompress.longValue())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
 }
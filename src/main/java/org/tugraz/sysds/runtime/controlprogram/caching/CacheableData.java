@@ -23,7 +23,10 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.mutable.MutableBoolean;
@@ -37,6 +40,7 @@ import org.tugraz.sysds.hops.OptimizerUtils;
 import org.tugraz.sysds.common.Types.DataType;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.controlprogram.LocalVariableMap;
 import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.tugraz.sysds.runtime.controlprogram.parfor.util.IDSequence;
@@ -46,6 +50,7 @@ import org.tugraz.sysds.runtime.instructions.gpu.context.GPUObject;
 import org.tugraz.sysds.runtime.instructions.spark.data.BroadcastObject;
 import org.tugraz.sysds.runtime.instructions.spark.data.RDDObject;
 import org.tugraz.sysds.runtime.io.FileFormatProperties;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesParquet;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.matrix.data.InputInfo;
 import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
@@ -78,8 +83,11 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	public static final long    CACHING_THRESHOLD = (long)Math.max(4*1024, //obj not s.t. caching
 		1e-5 * InfrastructureAnalyzer.getLocalMaxMemory());       //if below threshold [in bytes]
 	public static double CACHING_BUFFER_SIZE = 0.15; 
-	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
+	public static RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
 	public static final boolean CACHING_BUFFER_PAGECACHE = false; 
+	public static boolean CACHING_BUFFER_OFFHEAP = false; //dense matrices off-heap in buffer pool
+	public static boolean CACHING_BUFFER_COMPRESSION = false; //lz4 compression of evicted blocks
+	public static int     CACHING_PREFETCH = 0; //num upcoming instructions w/ prefetched inputs
 	public static final boolean CACHING_WRITE_CACHE_ON_READ = false;	
 	public static final String  CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	public static final String  CACHING_EVICTION_FILEEXTENSION = ".dat";
@@ -400,6 +408,23 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		return ret;
 	}
 	
+	/**
+	 * Asynchronously restores the evicted cache block from local disk,
+	 * in order to overlap the read with the execution of preceding
+	 * instructions. A subsequent acquire read consumes the prefetched
+	 * block. Blocks in memory, in the buffer pool, or not yet cached
+	 * are not prefetched.
+	 * 
+	 * @return true if a prefetch was issued
+	 */
+	public synchronized boolean prefetch() {
+		if( !isCachingActive() || _data != null || !isCached(false)
+			|| (_cache != null && _cache.get() != null) )
+			return false;
+		return LazyWriteBuffer.prefetchBlock(
+			getCacheFilePathAndName(), this instanceof MatrixObject);
+	}
+	
 	private synchronized T acquireReadIntern() {
 		if ( !isAvailableToRead() )
 			throw new DMLRuntimeException("MatrixObject not available to read.");
@@ -567,8 +592,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 			&& isCached(true) //not empty and not read/modify
 			&& !isBelowCachingThreshold() ) //min size for caching
 		{
+			boolean offheap = false;
 			if( write || _requiresLocalWrite ) {
 				String filePath = getCacheFilePathAndName();
+				offheap = ByteBuffer.isOffHeapCandidate(_data);
 				try {
 					LazyWriteBuffer.writeBlock(filePath, _data);
 				}
@@ -578,8 +605,12 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 				_requiresLocalWrite = false;
 			}
 			
-			//create cache
-			createCache();
+			//create cache, except for blocks moved off-heap, where the soft
+			//reference would keep the on-heap copy reachable until GC
+			if( offheap )
+				clearCache();
+			else
+				createCache();
 			_data = null;
 		}
 	}
@@ -944,6 +975,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 				OutputInfo oi2 = OutputInfo.stringToOutputInfo( outputFormat );
 				if( oi1 != oi2 )
 					ret = false;
+				//column-projected parquet inputs cannot be copied as is
+				if( _formatProps instanceof FileFormatPropertiesParquet
+					&& ((FileFormatPropertiesParquet)_formatProps).hasProjection() )
+					ret = false;
 			}
 			catch(Exception ex) {
 				ret = false;
@@ -1252,6 +1287,38 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		_activeFlag = true; //turn on caching
 	}
 	
+	/**
+	 * Passes the upcoming reuse of live variables as hints to the buffer pool,
+	 * where blocks of variables read by the current program block are reused,
+	 * and blocks of variables neither read nor live-out are dead.
+	 * 
+	 * @param vars current symbol table
+	 * @param read variables read by the current program block
+	 * @param liveOut live-out variables of the current program block
+	 */
+	public static void setReuseHints(LocalVariableMap vars, Set<String> read, Set<String> liveOut) {
+		if( !isCachingActive() )
+			return;
+		Set<String> reused = new HashSet<>();
+		Set<String> dead = new HashSet<>();
+		Set<String> live = new HashSet<>();
+		for( Entry<String, Data> e : vars.entrySet() ) {
+			if( !(e.getValue() instanceof CacheableData) )
+				continue;
+			String fname = ((CacheableData<?>)e.getValue()).getCacheFilePathAndName();
+			if( read.contains(e.getKey()) )
+				reused.add(fname);
+			else if( liveOut.contains(e.getKey()) )
+				live.add(fname);
+			else
+				dead.add(fname);
+		}
+		//blocks shared by multiple variables are dead only if all are dead
+		dead.removeAll(reused);
+		dead.removeAll(live);
+		LazyWriteBuffer.setReuseHints(reused, dead);
+	}
+	
 	public static boolean isCachingActive() {
 		return _activeFlag;
 	}
@@ -19,37 +19,110 @@
 
 package org.tugraz.sysds.runtime.controlprogram.caching;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.tugraz.sysds.api.DMLScript;
 import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.tugraz.sysds.runtime.util.LocalFileUtils;
 
+/**
+ * Buffer pool of serialized cache blocks with FIFO or LRU eviction to local disk.
+ * 
+ * The buffer pool is organized in independent queue segments (stripes), selected
+ * by the hash of the file name, each guarded by its own lock. A global logical clock
+ * stamps entries on insert (and access for LRU), which keeps every segment sorted and
+ * allows selecting the globally oldest entry by probing the segment heads. The cost-based
+ * policy instead selects the entry with minimum score over all segments. Evicted
+ * entries are handed over to a pending map and written asynchronously; until the
+ * write completed, reads are still served from the in-memory buffer. Pending bytes
+ * count against the buffer limit, i.e., writers complete pending evictions themselves
+ * while buffered and pending bytes exceed the limit. Failed asynchronous writes
+ * keep their pending buffer and are rethrown by the next buffer pool call. Blocks already
+ * written to local disk can be prefetched asynchronously ahead of their next read, where
+ * prefetched bytes count against the same limit and are dropped first if writes need room.
+ */
 public class LazyWriteBuffer 
 {
 	public enum RPolicy {
 		FIFO, //first-in, first-out eviction
-		LRU   //least recently used eviction
+		LRU,  //least recently used eviction
+		COST  //cost-based eviction (size, restore cost, frequency, reuse hints)
 	}
 	
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
+	//maximum number of queue segments (lock stripes)
+	private static final int MAX_SEGMENTS = 64;
+	
+	//estimated time of local write and read in nano sec per byte (150/200 MB/s)
+	private static final double IO_NS_PER_BYTE = 1e9/(150*1024*1024) + 1e9/(200*1024*1024);
+	
+	//score multiplier for blocks with reuse hint of the current program block
+	private static final double REUSE_BOOST = 4;
+	
+	//maximum number of threads for asynchronous eviction and prefetch
+	private static final int MAX_IO_THREADS = 4;
+	
 	//global size limit in bytes
 	private static final long _limit;
 	
-	//current size in bytes
-	private static long _size;
+	//current size in bytes (excluding pending evictions)
+	private static final AtomicLong _size = new AtomicLong(0);
 	
-	//eviction queue of <filename,buffer> pairs (implemented via linked hash map
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
-	private static EvictionQueue _mQueue;
+	//size of evicted but not yet written buffers in bytes, which
+	//counts against the limit once the eviction writes are issued
+	private static final AtomicLong _pendingSize = new AtomicLong(0);
+	
+	//logical clock for global eviction order across segments
+	private static final AtomicLong _clock = new AtomicLong(0);
+	
+	//eviction queue segments of <filename,buffer> pairs
+	private static QueueSegment[] _mQueue;
+	
+	//evicted buffers with pending asynchronous write
+	private static ConcurrentHashMap<String, ByteBuffer> _pending;
 	
 	//file cleaner for synchronous or asynchronous delete of evicted files
 	private static FileCleaner _fClean;
 	
+	//thread pool for asynchronous eviction
+	private static ExecutorService _evictPool;
+	
+	//first failure of asynchronous evictions, not yet rethrown
+	private static final AtomicReference<IOException> _evictError = new AtomicReference<>();
+	
+	//prefetched blocks (pending or completed reads) and their total file size,
+	//which counts against the limit together with buffered and pending bytes
+	private static ConcurrentHashMap<String, PrefetchTask> _prefetch;
+	private static final AtomicLong _prefetchSize = new AtomicLong(0);
+	
+	//thread pool for asynchronous prefetch
+	private static ExecutorService _prefetchPool;
+	
+	//access statistics and reuse hints for cost-based eviction
+	private static final ConcurrentHashMap<String, BlockStats> _stats = new ConcurrentHashMap<>();
+	private static final AtomicLong _epoch = new AtomicLong(0);
+	private static final DoubleAccumulator _inflation = new DoubleAccumulator(Math::max, 0);
+	
 	static {
 		//obtain the logical buffer size in bytes
 		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
@@ -59,58 +132,68 @@ public class LazyWriteBuffer
 	public static int writeBlock(String fname, CacheBlock cb)
 		throws IOException
 	{
+		//rethrow failures of asynchronous evictions
+		checkEvictionError();
+		
 		//obtain basic meta data of cache block
 		long lSize = getCacheBlockSize(cb);
 		boolean requiresWrite = (lSize > _limit        //global buffer limit
 			|| !ByteBuffer.isValidCapacity(lSize, cb)); //local buffer limit
 		int numEvicted = 0;
 		
+		//drop stale buffer, pending eviction, and prefetch of the same file
+		removeEntry(fname);
+		removePrefetch(fname);
+		
 		//handle caching/eviction if it fits in writebuffer
 		if( !requiresWrite ) 
 		{
 			//create byte buffer handle (no block allocation yet)
 			ByteBuffer bbuff = new ByteBuffer( lSize );
 			
-			//modify buffer pool
-			synchronized( _mQueue )
-			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize > _limit && !_mQueue.isEmpty() )
-				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-					String ftmp = entry.getKey();
-					ByteBuffer tmp = entry.getValue();
-					
-					if( tmp != null ) {
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size -= tmp.getSize();
-						numEvicted++;
-					}
-				}
-				
-				//put placeholder into buffer pool (reserve mem)
-				_mQueue.addLast(fname, bbuff);
-				_size += lSize;
+			//compress deep-serialized blocks before reserving memory (actual size)
+			boolean compress = !cb.isShallowSerialize(true)
+				&& CacheBlockCompressor.isCompressible(cb);
+			if( compress ) {
+				serializeBlock(fname, bbuff, cb, true);
+				lSize = bbuff.getSize();
+			}
+			
+			//reserve memory and evict matrices to make room (by default FIFO),
+			//where the actual writes happen asynchronously outside all locks
+			_size.addAndGet(lSize);
+			cancelPrefetches(); //speculative reads first
+			while( _size.get() > _limit ) {
+				Entry<String, ByteBuffer> entry = pollVictim();
+				if( entry == null )
+					break;
+				_size.addAndGet(-entry.getValue().getSize());
+				evictAsync(entry.getKey(), entry.getValue());
+				numEvicted++;
 			}
 			
+			//put placeholder into buffer pool
+			getSegment(fname).addLast(fname, bbuff);
+			
 			//serialize matrix (outside synchronized critical path)
-			bbuff.serializeBlock(cb);
+			if( !compress )
+				serializeBlock(fname, bbuff, cb, false);
+			
+			//back pressure: bound buffered and pending bytes by the limit
+			//(the serialization above overlaps with the eviction writes)
+			int numSync = awaitPendingEvictions();
 			
 			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSBuffWrites();
 				CacheStatistics.incrementFSWrites(numEvicted);
+				for( int i=0; i<numSync; i++ )
+					CacheStatistics.incrementSyncEvictions();
 			}
 		}
 		else
 		{
 			//write directly to local FS (bypass buffer if too large)
-			LocalFileUtils.writeCacheBlockToLocal(fname, cb);
+			CacheBlockCompressor.writeCacheBlockToLocal(fname, cb);
 			if( DMLScript.STATISTICS ) {
 				CacheStatistics.incrementFSWrites();
 			}
@@ -122,21 +205,11 @@ public class LazyWriteBuffer
 	
 	public static void deleteBlock(String fname)
 	{
-		boolean requiresDelete = true;
-		
-		synchronized( _mQueue )
-		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
-			if( ldata != null ) {
-				_size -= ldata.getSize();
-				requiresDelete = false;
-				ldata.freeMemory(); //cleanup
-			}
-		}
+		_stats.remove(fname);
+		removePrefetch(fname);
 		
 		//delete from FS if required
-		if( requiresDelete )
+		if( !removeEntry(fname) )
 			_fClean.deleteFile(fname);
 	}
 	
@@ -144,57 +217,129 @@ public class LazyWriteBuffer
 		throws IOException
 	{
 		CacheBlock cb = null;
-		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
-		{
-			ldata = _mQueue.get(fname);
-			
-			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU
-				&& ldata != null )
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
-			}
-		}
+		//rethrow failures of asynchronous evictions
+		checkEvictionError();
+		
+		//probe write buffer (and modify eviction order accordingly to access)
+		ByteBuffer ldata = getSegment(fname).get(fname,
+			CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU);
+		
+		//maintain access statistics
+		BlockStats stats = _stats.get(fname);
+		if( stats != null )
+			stats.access();
 		
 		//deserialize or read from FS if required
-		if( ldata != null )
-		{
-			cb = ldata.deserializeBlock();
+		if( ldata != null ) {
+			long t0 = System.nanoTime();
+			cb = deserialize(ldata);
+			if( stats != null && cb != null )
+				stats.setDeserializationTime(System.nanoTime()-t0);
+		}
+		else if( (ldata = _pending.get(fname)) != null ) {
+			//probe buffers with pending eviction
+			cb = deserialize(ldata);
+			if( cb != null && DMLScript.STATISTICS )
+				CacheStatistics.incrementPendingEvictHits();
+		}
+		
+		if( cb != null ) {
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
-		else
-		{
-			cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
+		else {
+			//consume prefetched block (waits for a running read),
+			//otherwise read synchronously from local FS
+			cb = getPrefetched(fname);
+			if( cb == null )
+				cb = LocalFileUtils.readCacheBlockFromLocal(fname, matrix);
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSHits();
 		}
 		
 		return cb;
 	}
-
+	
+	/**
+	 * Asynchronously reads the given block from local disk into memory,
+	 * which is consumed by the next {@link #readBlock(String, boolean)}.
+	 * Blocks still held by the buffer pool or already prefetched are
+	 * skipped, and prefetches are only issued if the prefetched but not
+	 * yet consumed blocks fit, together with the buffered and pending
+	 * blocks, into the buffer pool limit.
+	 * 
+	 * @param fname file name
+	 * @param matrix true if matrix, false if frame
+	 * @return true if a prefetch was issued
+	 */
+	public static boolean prefetchBlock(String fname, boolean matrix) {
+		if( _prefetchPool == null || _prefetch.containsKey(fname)
+			|| getSegment(fname).get(fname, false) != null || _pending.containsKey(fname) )
+			return false;
+		
+		//reserve memory for the prefetched block (file size as estimate)
+		long size = new File(fname).length();
+		if( size <= 0 || _prefetchSize.addAndGet(size) + _size.get() + _pendingSize.get() > _limit ) {
+			_prefetchSize.addAndGet(-size);
+			return false;
+		}
+		PrefetchTask task = new PrefetchTask(fname, matrix, size);
+		if( _prefetch.putIfAbsent(fname, task) != null ) {
+			_prefetchSize.addAndGet(-size);
+			return false;
+		}
+		_prefetchPool.execute(task);
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetches();
+		return true;
+	}
+	
+	public static boolean isPrefetched(String fname) {
+		return _prefetch != null && _prefetch.containsKey(fname);
+	}
+	
 	public static void init() {
-		_mQueue = new EvictionQueue();
+		int numSegments = Math.min(MAX_SEGMENTS, Integer.highestOneBit(
+			Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1)) * 2);
+		_mQueue = new QueueSegment[numSegments];
+		for( int i=0; i<numSegments; i++ )
+			_mQueue[i] = new QueueSegment();
+		_pending = new ConcurrentHashMap<>();
 		_fClean = new FileCleaner();
-		_size = 0;
+		int numIOThreads = Math.max(Math.min(MAX_IO_THREADS, InfrastructureAnalyzer.getLocalParallelism()), 1);
+		_evictPool = createDaemonPool("evict", numIOThreads);
+		_prefetch = new ConcurrentHashMap<>();
+		_prefetchPool = (CacheableData.CACHING_PREFETCH > 0) ?
+			createDaemonPool("prefetch", numIOThreads) : null;
+		_prefetchSize.set(0);
+		_size.set(0);
+		_pendingSize.set(0);
+		_evictError.set(null);
+		_stats.clear();
+		_inflation.reset();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
-
+	
 	public static void cleanup() {
 		if( _mQueue != null )
-			_mQueue.clear();
+			for( QueueSegment seg : _mQueue )
+				seg.clear();
+		if( _pending != null )
+			_pending.clear(); //skip pending writes
+		if( _evictPool != null )
+			_evictPool.shutdown();
+		if( _prefetch != null )
+			_prefetch.clear(); //skip pending prefetches
+		if( _prefetchPool != null )
+			_prefetchPool.shutdownNow();
 		if( _fClean != null )
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.clear();
 	}
-
+	
 	public static long getWriteBufferLimit() {
 		//return constant limit because InfrastructureAnalyzer.getLocalMaxMemory() is
 		//dynamically adjusted in a parfor context, which wouldn't reflect the actual size
@@ -202,13 +347,15 @@ public class LazyWriteBuffer
 	}
 	
 	public static long getWriteBufferSize() {
-		synchronized( _mQueue ) {
-			return _size; }
+		return _size.get();
 	}
 	
 	public static long getWriteBufferFree() {
-		synchronized( _mQueue ) {
-			return _limit - _size; }
+		return _limit - _size.get();
+	}
+	
+	public static long getPendingEvictionSize() {
+		return _pendingSize.get();
 	}
 	
 	public static long getCacheBlockSize(CacheBlock cb) {
@@ -226,27 +373,23 @@ public class LazyWriteBuffer
 	{
 		System.out.println("WRITE BUFFER STATUS ("+position+") --");
 		
-		synchronized( _mQueue ) {
-			//print buffer meta data
-			System.out.println("\tWB: Buffer Meta Data: " +
-				"limit="+_limit+", " +
-				"size[bytes]="+_size+", " +
-				"size[elements]="+_mQueue.size()+"/"+_mQueue.size());
-			
-			//print current buffer entries
-			int count = _mQueue.size();
-			for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() ) {
-				String fname = entry.getKey();
-				ByteBuffer bbuff = entry.getValue();
-				System.out.println("\tWB: buffer element ("+count+"): "
-					+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
-				count--;
-			}
-		}
+		//print buffer meta data
+		int size = 0;
+		for( QueueSegment seg : _mQueue )
+			size += seg.size();
+		System.out.println("\tWB: Buffer Meta Data: " +
+			"limit="+_limit+", " +
+			"size[bytes]="+_size.get()+", " +
+			"size[elements]="+size+", " +
+			"pending[bytes]="+_pendingSize.get());
+		
+		//print current buffer entries (per segment)
+		for( QueueSegment seg : _mQueue )
+			seg.printStatus();
 	}
 	
 	/**
-	 * Evicts all buffer pool entries.
+	 * Evicts all buffer pool entries and waits for pending evictions.
 	 * NOTE: use only for debugging or testing.
 	 * 
 	 * @throws IOException if IOException occurs
@@ -255,27 +398,485 @@ public class LazyWriteBuffer
 		throws IOException 
 	{
 		//evict all matrices and frames
-		while( !_mQueue.isEmpty() )
-		{
-			//remove first entry from eviction queue
-			Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
-			ByteBuffer tmp = entry.getValue();
-			
-			if( tmp != null ) {
-				//wait for pending serialization
-				tmp.checkSerialized();
-				
-				//evict matrix
-				tmp.evictBuffer(entry.getKey());
-				tmp.freeMemory();
-			}
+		Entry<String, ByteBuffer> entry = null;
+		while( (entry = pollVictim()) != null ) {
+			_size.addAndGet(-entry.getValue().getSize());
+			evictBuffer(entry.getKey(), entry.getValue());
+		}
+		
+		//complete pending evictions (idempotent)
+		for( Entry<String, ByteBuffer> e : _pending.entrySet() )
+			evictBuffer(e.getKey(), e.getValue());
+	}
+	
+	/**
+	 * Sets hints on the upcoming reuse of buffered blocks, which are
+	 * only used by the cost-based eviction policy. Blocks read by the
+	 * current program block get a decaying score boost, while dead
+	 * blocks (not read and not live-out) are evicted first.
+	 * 
+	 * @param reused file names of blocks read in the current program block
+	 * @param dead file names of blocks without further use
+	 */
+	public static void setReuseHints(Collection<String> reused, Collection<String> dead) {
+		long epoch = _epoch.incrementAndGet();
+		for( String fname : reused ) {
+			BlockStats stats = _stats.get(fname);
+			if( stats != null )
+				stats.setReuseHint(epoch);
 		}
+		for( String fname : dead ) {
+			BlockStats stats = _stats.get(fname);
+			if( stats != null )
+				stats.setDead();
+		}
+	}
+	
+	/**
+	 * Obtains the eviction score of a buffered block, where blocks with
+	 * smaller scores are evicted first.
+	 * 
+	 * @param fname file name
+	 * @param bbuff byte buffer
+	 * @return eviction score
+	 */
+	public static double getEvictionScore(String fname, ByteBuffer bbuff) {
+		if( CacheableData.CACHING_BUFFER_POLICY != RPolicy.COST )
+			return bbuff.getStamp();
+		BlockStats stats = _stats.get(fname);
+		return (stats != null) ? stats.getScore(bbuff.getSize()) : 0;
 	}
 	
 	public static ExecutorService getUtilThreadPool() {
 		return _fClean != null ? _fClean._pool : null;
 	}
 	
+	private static void serializeBlock(String fname, ByteBuffer bbuff, CacheBlock cb, boolean compress)
+		throws IOException
+	{
+		long t0 = System.nanoTime();
+		bbuff.serializeBlock(cb, compress);
+		if( CacheableData.CACHING_BUFFER_POLICY == RPolicy.COST )
+			_stats.computeIfAbsent(fname, k -> new BlockStats())
+				.setSerializationTime(System.nanoTime()-t0);
+	}
+	
+	private static CacheBlock deserialize(ByteBuffer bbuff) throws IOException {
+		//mutually exclusive with the running write, which frees
+		//the buffer afterwards (null if already freed)
+		synchronized( bbuff ) {
+			if( bbuff.isFreed() )
+				return null;
+			bbuff.checkSerialized();
+			return bbuff.deserializeBlock();
+		}
+	}
+	
+	private static QueueSegment getSegment(String fname) {
+		//spread hash bits to avoid collisions of similar file names
+		int h = fname.hashCode();
+		h ^= (h >>> 16);
+		return _mQueue[h & (_mQueue.length-1)];
+	}
+	
+	/**
+	 * Removes the buffer or pending eviction of the given file, and
+	 * waits for a running write of this file to complete.
+	 * 
+	 * @param fname file name
+	 * @return true if an in-memory buffer was removed
+	 */
+	private static boolean removeEntry(String fname) {
+		ByteBuffer ldata = getSegment(fname).remove(fname);
+		if( ldata != null ) {
+			_size.addAndGet(-ldata.getSize());
+			synchronized( ldata ) {
+				ldata.freeMemory(); //cleanup
+			}
+			return true;
+		}
+		ldata = _pending.remove(fname);
+		if( ldata != null ) {
+			//a running write deletes its file once it observes the removal
+			synchronized( ldata ) {
+				_pendingSize.addAndGet(-ldata.getSize());
+				ldata.freeMemory();
+			}
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Removes the prefetch of the given file, which invalidates a running
+	 * read whose result is then discarded.
+	 * 
+	 * @param fname file name
+	 */
+	private static void removePrefetch(String fname) {
+		PrefetchTask task = (_prefetch != null) ? _prefetch.remove(fname) : null;
+		if( task != null ) {
+			task.cancel(false);
+			_prefetchSize.addAndGet(-task._size);
+		}
+	}
+	
+	/**
+	 * Cancels unconsumed prefetches as long as the prefetched, buffered, 
+	 * and pending bytes exceed the buffer limit, which prioritizes writes
+	 * over speculative reads.
+	 */
+	private static void cancelPrefetches() {
+		if( _prefetchPool == null )
+			return;
+		Iterator<String> iter = _prefetch.keySet().iterator();
+		while( _prefetchSize.get() > 0 && iter.hasNext()
+			&& _size.get() + _pendingSize.get() + _prefetchSize.get() > _limit )
+			removePrefetch(iter.next());
+	}
+	
+	/**
+	 * Consumes the prefetch of the given file if existing, and waits for
+	 * its read to complete. Failed prefetches fall back to a synchronous
+	 * read by the caller.
+	 * 
+	 * @param fname file name
+	 * @return cache block, or null if not prefetched or failed
+	 * @throws IOException if interrupted while waiting
+	 */
+	private static CacheBlock getPrefetched(String fname) throws IOException {
+		if( _prefetchPool == null )
+			return null;
+		PrefetchTask task = _prefetch.remove(fname);
+		CacheBlock cb = null;
+		if( task != null ) {
+			_prefetchSize.addAndGet(-task._size);
+			try {
+				cb = task.get();
+			}
+			catch(InterruptedException ex) {
+				throw new IOException(ex);
+			}
+			catch(ExecutionException ex) {
+				LOG.warn("Prefetch of "+fname+" failed, falling back to synchronous read.", ex);
+			}
+		}
+		if( DMLScript.STATISTICS ) {
+			if( cb != null )
+				CacheStatistics.incrementPrefetchHits();
+			else
+				CacheStatistics.incrementPrefetchMisses();
+		}
+		return cb;
+	}
+	
+	/**
+	 * Moves the entry with minimum eviction score over all segments to the
+	 * pending evictions. For FIFO and LRU, the score is the clock stamp and
+	 * every segment is ordered by stamp, which preserves the semantics of a
+	 * single queue by probing the segment heads.
+	 * 
+	 * @return victim entry, or null if the buffer pool is empty
+	 */
+	private static Entry<String, ByteBuffer> pollVictim() {
+		while( true ) {
+			QueueSegment minSeg = null;
+			Entry<String, ByteBuffer> minEntry = null;
+			double minScore = Double.MAX_VALUE;
+			for( QueueSegment seg : _mQueue ) {
+				Entry<String, ByteBuffer> entry = seg.peekVictim();
+				if( entry == null )
+					continue;
+				double score = getEvictionScore(entry.getKey(), entry.getValue());
+				if( minSeg == null || score < minScore ) {
+					minScore = score;
+					minEntry = entry;
+					minSeg = seg;
+				}
+			}
+			if( minSeg == null )
+				return null;
+			//retry on concurrent modifications of the selected victim
+			if( minSeg.removeVictim(minEntry.getKey(), minEntry.getValue()) ) {
+				//age remaining blocks (greedy-dual inflation)
+				if( CacheableData.CACHING_BUFFER_POLICY == RPolicy.COST )
+					_inflation.accumulate(minScore);
+				return minEntry;
+			}
+		}
+	}
+	
+	private static void evictAsync(String fname, ByteBuffer bbuff) {
+		_evictPool.execute(() -> {
+			try {
+				evictBuffer(fname, bbuff);
+			}
+			catch(IOException | RuntimeException ex) {
+				//record the first failure for the next buffer pool call,
+				//where the buffer remains pending and thus readable
+				LOG.error("Asynchronous eviction of "+fname+" failed.", ex);
+				_evictError.compareAndSet(null,
+					new IOException("Asynchronous eviction of "+fname+" failed.", ex));
+			}
+		});
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementAsyncEvictions();
+	}
+	
+	/**
+	 * Completes pending evictions by the caller (or waits for running
+	 * writes of the same buffers) as long as the buffered and pending 
+	 * bytes exceed the buffer limit.
+	 * 
+	 * @return number of evictions written by the caller
+	 * @throws IOException if IOException occurs
+	 */
+	private static int awaitPendingEvictions() throws IOException {
+		checkEvictionError();
+		int numSync = 0;
+		Iterator<Entry<String, ByteBuffer>> iter = _pending.entrySet().iterator();
+		while( _size.get() + _pendingSize.get() > _limit && iter.hasNext() ) {
+			Entry<String, ByteBuffer> e = iter.next();
+			numSync += evictBuffer(e.getKey(), e.getValue()) ? 1 : 0;
+		}
+		return numSync;
+	}
+	
+	private static void checkEvictionError() throws IOException {
+		IOException ex = _evictError.getAndSet(null);
+		if( ex != null )
+			throw ex;
+	}
+	
+	private static boolean evictBuffer(String fname, ByteBuffer bbuff) throws IOException {
+		synchronized( bbuff ) {
+			//skip already deleted, replaced, or written buffers
+			if( _pending.get(fname) != bbuff )
+				return false;
+			
+			//wait for pending serialization and evict matrix
+			bbuff.checkSerialized();
+			bbuff.evictBuffer(fname);
+			
+			//release buffer, or delete the file if removed meanwhile
+			if( _pending.remove(fname, bbuff) ) {
+				_pendingSize.addAndGet(-bbuff.getSize());
+				bbuff.freeMemory();
+			}
+			else
+				LocalFileUtils.deleteFileIfExists(fname, true);
+			return true;
+		}
+	}
+	
+	private static ExecutorService createDaemonPool(String name, int numThreads) {
+		//daemon threads do not block the JVM shutdown if cleanup is skipped
+		BasicThreadFactory factory = new BasicThreadFactory.Builder()
+			.namingPattern("bufferpool-"+name+"-%d").daemon(true).build();
+		return Executors.newFixedThreadPool(numThreads, factory);
+	}
+	
+	/**
+	 * Segment of the eviction queue, guarded by its own lock. Entries are
+	 * kept in a LinkedHashMap for (1) queue semantics and (2) constant time
+	 * get/insert/delete operations, in ascending order of their clock stamps.
+	 */
+	private static class QueueSegment
+	{
+		private final ReentrantLock _lock = new ReentrantLock();
+		private final EvictionQueue _queue = new EvictionQueue();
+		
+		public void addLast(String fname, ByteBuffer bbuff) {
+			lock();
+			try {
+				bbuff.setStamp(_clock.incrementAndGet());
+				_queue.addLast(fname, bbuff);
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public ByteBuffer get(String fname, boolean reinsert) {
+			lock();
+			try {
+				ByteBuffer ldata = _queue.get(fname);
+				if( reinsert && ldata != null ) {
+					//reinsert entry at end of eviction queue
+					_queue.remove(fname);
+					ldata.setStamp(_clock.incrementAndGet());
+					_queue.addLast(fname, ldata);
+				}
+				return ldata;
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public ByteBuffer remove(String fname) {
+			lock();
+			try {
+				return _queue.remove(fname);
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public Entry<String, ByteBuffer> peekVictim() {
+			lock();
+			try {
+				if( _queue.isEmpty() )
+					return null;
+				Iterator<Entry<String, ByteBuffer>> iter = _queue.entrySet().iterator();
+				Entry<String, ByteBuffer> ret = iter.next();
+				if( CacheableData.CACHING_BUFFER_POLICY != RPolicy.COST )
+					return ret; //queue head
+				double minScore = getEvictionScore(ret.getKey(), ret.getValue());
+				while( iter.hasNext() ) {
+					Entry<String, ByteBuffer> entry = iter.next();
+					double score = getEvictionScore(entry.getKey(), entry.getValue());
+					if( score < minScore ) {
+						minScore = score;
+						ret = entry;
+					}
+				}
+				return ret;
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public boolean removeVictim(String fname, ByteBuffer bbuff) {
+			lock();
+			try {
+				if( _queue.get(fname) != bbuff )
+					return false;
+				//register as pending before the entry becomes invisible to readers
+				_queue.remove(fname);
+				_pendingSize.addAndGet(bbuff.getSize());
+				_pending.put(fname, bbuff);
+				return true;
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public int size() {
+			lock();
+			try {
+				return _queue.size();
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public void clear() {
+			lock();
+			try {
+				_queue.clear();
+			}
+			finally {
+				_lock.unlock();
+			}
+		}
+		
+		public void printStatus() {
+			List<String> lines = new ArrayList<>();
+			lock();
+			try {
+				int count = _queue.size();
+				for( Entry<String, ByteBuffer> entry : _queue.entrySet() ) {
+					ByteBuffer bbuff = entry.getValue();
+					lines.add("\tWB: buffer element ("+(count--)+"): "
+						+entry.getKey()+", "+bbuff.getSize()+", "+bbuff.isShallow());
+				}
+			}
+			finally {
+				_lock.unlock();
+			}
+			lines.forEach(System.out::println);
+		}
+		
+		private void lock() {
+			//fast path w/o contention, otherwise record the wait time
+			if( _lock.tryLock() )
+				return;
+			long t0 = System.nanoTime();
+			_lock.lock();
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementLockContention(System.nanoTime()-t0);
+		}
+	}
+	
+	/**
+	 * Asynchronous read of an evicted cache block from local disk.
+	 */
+	private static class PrefetchTask extends FutureTask<CacheBlock>
+	{
+		private final long _size;
+		
+		public PrefetchTask(String fname, boolean matrix, long size) {
+			super(() -> LocalFileUtils.readCacheBlockFromLocal(fname, matrix));
+			_size = size;
+		}
+	}
+	
+	/**
+	 * Access statistics of a cache block for cost-based eviction, which
+	 * follows the greedy-dual-size-frequency scheme: the score is the
+	 * expected restore cost per byte times access frequency and reuse
+	 * hint, plus an inflation value that ages blocks not accessed since.
+	 */
+	private static class BlockStats
+	{
+		private int _freq = 0;
+		private double _base = 0; //inflation at last access
+		private long _serTime = 0; //in nano sec
+		private long _deserTime = 0; //in nano sec
+		private long _hint = -1; //epoch of last reuse hint
+		private boolean _dead = false;
+		
+		public BlockStats() {
+			access();
+		}
+		
+		public synchronized void access() {
+			_freq++;
+			_base = _inflation.get();
+		}
+		
+		public synchronized void setSerializationTime(long time) {
+			_serTime = time;
+		}
+		
+		public synchronized void setDeserializationTime(long time) {
+			_deserTime = time;
+		}
+		
+		public synchronized void setReuseHint(long epoch) {
+			_hint = epoch;
+			_dead = false;
+		}
+		
+		public synchronized void setDead() {
+			_dead = true;
+		}
+		
+		public synchronized double getScore(long size) {
+			if( _dead )
+				return -1;
+			double reuse = (_hint < 0) ? 1 :
+				1 + REUSE_BOOST / (1 + _epoch.get() - _hint);
+			double cost = _serTime + _deserTime + IO_NS_PER_BYTE * size;
+			return _base + _freq * reuse * cost / Math.max(size, 1);
+		}
+	}
+	
 	/**
 	 * Extended LinkedHashMap with convenience methods for adding and removing
 	 * last/first entries.
@@ -306,8 +907,8 @@ public class LazyWriteBuffer
 	/**
 	 * File delete service for abstraction of synchronous and asynchronous
 	 * file cleanup on rmvar/cpvar. The threadpool for asynchronous cleanup
-	 * may increase the number of threads temporarily to the number of concurrent
-	 * delete tasks (which is bounded to the parfor degree of parallelism).
+	 * is bounded to the local parallelism, where additional delete tasks 
+	 * are queued.
 	 */
 	private static class FileCleaner
 	{
@@ -316,7 +917,8 @@ public class LazyWriteBuffer
 		public FileCleaner() {
 			//create new threadpool for async cleanup
 			if( CacheableData.CACHING_ASYNC_FILECLEANUP )
-				_pool = Executors.newCachedThreadPool();
+				_pool = createDaemonPool("cleaner", 
+					Math.max(InfrastructureAnalyzer.getLocalParallelism(), 1));
 		}
 		
 		public void deleteFile(String fname) {
@@ -31,6 +31,7 @@ import org.tugraz.sysds.lops.Lop;
 import org.tugraz.sysds.common.Types.DataType;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.controlprogram.ParForProgramBlock.PDataPartitionFormat;
 import org.tugraz.sysds.runtime.controlprogram.context.SparkExecutionContext;
 import org.tugraz.sysds.runtime.instructions.spark.data.RDDObject;
@@ -186,6 +187,33 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		return OptimizerUtils.getSparsity(getMatrixCharacteristics());
 	}
 	
+	/**
+	 * Acquires a read lock and returns the matrix block, where compressed
+	 * blocks are transparently decompressed for compression-unaware operations.
+	 *
+	 * @return matrix block
+	 */
+	@Override
+	public MatrixBlock acquireRead() {
+		MatrixBlock ret = super.acquireRead();
+		return (ret instanceof CompressedMatrixBlock) ?
+			((CompressedMatrixBlock)ret).getDecompressed() : ret;
+	}
+	
+	/**
+	 * Acquires a read lock and returns the matrix block as is, i.e.,
+	 * potentially compressed, for compression-aware operations.
+	 *
+	 * @return matrix block
+	 */
+	public MatrixBlock acquireReadCompressed() {
+		return super.acquireRead();
+	}
+	
+	public boolean isCompressed() {
+		return _data instanceof CompressedMatrixBlock;
+	}
+	
 	// *********************************************
 	// ***                                       ***
 	// ***       HIGH-LEVEL PUBLIC METHODS       ***
@@ -528,6 +556,10 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 
 		if (_data != null)
 		{
+			// Decompress compressed blocks, which are written in regular binary format
+			MatrixBlock data = (_data instanceof CompressedMatrixBlock) ?
+				((CompressedMatrixBlock)_data).getDecompressed() : _data;
+			
 			// Get the dimension information from the metadata stored within MatrixObject
 			MatrixCharacteristics mc = iimd.getMatrixCharacteristics ();
 			// Write the matrix to HDFS in requested format
@@ -539,11 +571,11 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			if ( oinfo == OutputInfo.BinaryBlockOutputInfo && DMLScript.getGlobalExecMode() == ExecMode.SINGLE_NODE &&
 				(mc.getRowsPerBlock() != ConfigurationManager.getBlocksize() || mc.getColsPerBlock() != ConfigurationManager.getBlocksize()) ) 
 			{
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(),
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, new MatrixCharacteristics(mc.getRows(), mc.getCols(),
 					ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mc.getNonZeros()), rep, fprop, _diag);
 			}
 			else {
-				DataConverter.writeMatrixToHDFS(_data, fname, oinfo, mc, rep, fprop, _diag);
+				DataConverter.writeMatrixToHDFS(data, fname, oinfo, mc, rep, fprop, _diag);
 			}
 
 			if( LOG.isTraceEnabled() )
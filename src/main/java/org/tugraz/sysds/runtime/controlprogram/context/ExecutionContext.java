@@ -266,6 +266,19 @@ public class ExecutionContext {
 		return mo.acquireRead();
 	}
 	
+	/**
+	 * Pins a matrix variable into memory and returns the internal matrix block,
+	 * which might be compressed (see CompressedMatrixBlock). Hence, this method
+	 * should only be used by compression-aware instructions.
+	 *
+	 * @param varName variable name
+	 * @return matrix block, potentially compressed
+	 */
+	public MatrixBlock getMatrixInputCompressed(String varName) {
+		MatrixObject mo = getMatrixObject(varName);
+		return mo.acquireReadCompressed();
+	}
+	
 	public void setMetaData(String varName, long nrows, long ncols) {
 		MatrixObject mo = getMatrixObject(varName);
 		if(mo.getNumRows() == nrows && mo.getNumColumns() == ncols) 
@@ -33,6 +33,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.spark.SparkConf;
@@ -71,6 +72,7 @@ import org.tugraz.sysds.runtime.instructions.spark.functions.CopyTextInputFuncti
 import org.tugraz.sysds.runtime.instructions.spark.functions.CreateSparseBlockFunction;
 import org.tugraz.sysds.runtime.instructions.spark.utils.RDDAggregateUtils;
 import org.tugraz.sysds.runtime.instructions.spark.utils.SparkUtils;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.instructions.spark.utils.FrameRDDConverterUtils.LongFrameToLongWritableFrameFunction;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
@@ -1032,7 +1034,16 @@ public class SparkExecutionContext extends ExecutionContext
 		lrdd = lrdd.mapValues(new ComputeBinaryBlockNnzFunction(aNnz));
 
 		//save file is an action which also triggers nnz maintenance
-		lrdd.saveAsHadoopFile(path,
+		//(binary block files are block-compressed if codec configured)
+		Class<? extends CompressionCodec> codec = (oinfo == OutputInfo.BinaryBlockOutputInfo) ?
+			BlockCompressionCodec.getCodecClass(BlockCompressionCodec.getBinaryBlockCodec()) : null;
+		if( codec != null )
+			lrdd.saveAsHadoopFile(path,
+				oinfo.outputKeyClass,
+				oinfo.outputValueClass,
+				oinfo.outputFormatClass, codec);
+		else
+			lrdd.saveAsHadoopFile(path,
 				oinfo.outputKeyClass,
 				oinfo.outputValueClass,
 				oinfo.outputFormatClass);
@@ -47,6 +47,7 @@ import org.tugraz.sysds.hops.ParameterizedBuiltinOp;
 import org.tugraz.sysds.hops.ReorgOp;
 import org.tugraz.sysds.hops.UnaryOp;
 import org.tugraz.sysds.hops.AggBinaryOp.MMultMethod;
+import org.tugraz.sysds.hops.FunctionOp.FunctionType;
 import org.tugraz.sysds.hops.Hop.ParamBuiltinOp;
 import org.tugraz.sysds.hops.Hop.ReOrgOp;
 import org.tugraz.sysds.hops.recompile.Recompiler;
@@ -54,6 +55,7 @@ import org.tugraz.sysds.hops.rewrite.HopRewriteUtils;
 import org.tugraz.sysds.hops.rewrite.ProgramRewriteStatus;
 import org.tugraz.sysds.hops.rewrite.ProgramRewriter;
 import org.tugraz.sysds.hops.rewrite.RewriteInjectSparkLoopCheckpointing;
+import org.tugraz.sysds.lops.FunctionCallCP;
 import org.tugraz.sysds.lops.LopProperties;
 import org.tugraz.sysds.parser.DMLProgram;
 import org.tugraz.sysds.parser.FunctionStatementBlock;
@@ -1245,6 +1247,15 @@ public class OptimizerRuleBased extends Optimizer
 		return Math.max(k1, k2);
 	}
 
+	private static boolean isMultiThreadedBuiltinCall(OptNode n) {
+		if( n.getNodeType() != NodeType.FUNCCALL || !n.isLeaf() )
+			return false;
+		Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(n.getID());
+		return h instanceof FunctionOp
+			&& ((FunctionOp)h).getFunctionType() == FunctionType.MULTIRETURN_BUILTIN
+			&& FunctionCallCP.isMultiThreadedBuiltin(((FunctionOp)h).getFunctionName());
+	}
+	
 	protected void rAssignRemainingParallelism(OptNode n, int parforK, int opsK) 
 	{
 		ArrayList<OptNode> childs = n.getChilds();
@@ -1274,7 +1285,7 @@ public class OptimizerRuleBased extends Optimizer
 					int remainOpsK = getRemainingParallelismOps(opsK, tmpK);
 					rAssignRemainingParallelism(c, remainParforK, remainOpsK);
 				}
-				else if( c.getNodeType() == NodeType.HOP )
+				else if( c.getNodeType() == NodeType.HOP || isMultiThreadedBuiltinCall(c) )
 				{
 					//set degree of parallelism for multi-threaded leaf nodes
 					Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(c.getID());
@@ -1286,9 +1297,12 @@ public class OptimizerRuleBased extends Optimizer
 						&& !( h instanceof UnaryOp //only unaryop-cumulativeagg
 							 && !((UnaryOp)h).isCumulativeUnaryOperation()
 							 && !((UnaryOp)h).isExpensiveUnaryOperation())
-						&& !( h instanceof ReorgOp //only reorgop-transpose
-							 && ((ReorgOp)h).getOp() != ReOrgOp.TRANS )
-						&& !( h instanceof BinaryOp && h.getDataType().isScalar() ) )
+						&& !( h instanceof ReorgOp //only reorgop-transpose/sort/rev/reshape
+							 && !HopRewriteUtils.isValidOp(((ReorgOp)h).getOp(),
+								ReOrgOp.TRANS, ReOrgOp.SORT, ReOrgOp.REV, ReOrgOp.RESHAPE) )
+						&& !( h instanceof BinaryOp && h.getDataType().isScalar() )
+						&& !( h instanceof FunctionOp //only multi-threaded builtin decompositions
+							 && !FunctionCallCP.isMultiThreadedBuiltin(((FunctionOp)h).getFunctionName()) ) )
 					{
 						MultiThreadedHop mhop = (MultiThreadedHop) h;
 						mhop.setMaxNumThreads(opsK); //set max constraint in hop
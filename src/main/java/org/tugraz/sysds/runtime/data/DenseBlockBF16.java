@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.data;
+
+import java.util.Arrays;
+
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+public class DenseBlockBF16 extends DenseBlockLowPrecision
+{
+	private static final long serialVersionUID = 4735103285167823041L;
+	
+	//bfloat16 bits (upper half of FP32) per cell
+	private short[] _data;
+
+	public DenseBlockBF16(int[] dims) {
+		super(dims);
+		reset(_rlen, _odims, 0);
+	}
+	
+	public DenseBlockBF16(int[] dims, short[] data) {
+		super(dims);
+		_data = data;
+	}
+	
+	@Override
+	public ValueType getValueType() {
+		return ValueType.BF16;
+	}
+	
+	@Override
+	public long capacity() {
+		return (_data!=null) ? _data.length : -1;
+	}
+	
+	@Override
+	public void getFloats(int pos, float[] c, int cix, int len) {
+		for(int i=0; i<len; i++)
+			c[cix+i] = UtilFunctions.fromBF16(_data[pos+i]);
+	}
+	
+	@Override
+	public int getBits(int ix) {
+		return _data[ix] & 0xffff;
+	}
+	
+	@Override
+	public void setBits(int ix, int bits) {
+		_data[ix] = (short) bits;
+	}
+	
+	@Override
+	protected double getCell(int ix) {
+		return UtilFunctions.fromBF16(_data[ix]);
+	}
+	
+	@Override
+	protected void setCell(int ix, double v) {
+		_data[ix] = UtilFunctions.toBF16((float)v);
+	}
+	
+	@Override
+	protected void fill(int fromIx, int toIx, double v) {
+		Arrays.fill(_data, fromIx, toIx, UtilFunctions.toBF16((float)v));
+	}
+	
+	@Override
+	protected void allocate(int len) {
+		_data = new short[len];
+	}
+	
+	@Override
+	protected int computeNnz(int ix, int len) {
+		return UtilFunctions.computeNnz(_data, ix, len);
+	}
+}
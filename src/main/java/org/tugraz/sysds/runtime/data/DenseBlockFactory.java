@@ -22,7 +22,6 @@
 
 package org.tugraz.sysds.runtime.data;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
@@ -38,7 +37,7 @@ public abstract class DenseBlockFactory
 	}
 	
 	public static DenseBlock createDenseBlock(ValueType vt, int[] dims) {
-		DenseBlock.Type type = (UtilFunctions.prod(dims) < Integer.MAX_VALUE) ?
+		DenseBlock.Type type = (UtilFunctions.prod(dims) <= DenseBlockLDRB.MAX_ALLOC) ?
 			DenseBlock.Type.DRB : DenseBlock.Type.LDRB;
 		return createDenseBlock(vt, type, dims);
 	}
@@ -59,6 +58,15 @@ public abstract class DenseBlockFactory
 		return createDenseBlock(data, new int[]{rlen, clen});
 	}
 	
+	public static DenseBlock createOffHeapDenseBlock(int rlen, int clen) {
+		return new DenseBlockOffHeapFP64(new int[]{rlen, clen});
+	}
+	
+	public static boolean isValidOffHeapDenseBlock(long rlen, long clen) {
+		//every row needs to fit into a single off-heap buffer
+		return clen <= DenseBlockOffHeapFP64.MAX_CELLS;
+	}
+	
 	public static DenseBlock createDenseBlock(ValueType vt, DenseBlock.Type type, int[] dims) {
 		switch( type ) {
 			case DRB:
@@ -68,11 +76,22 @@ public abstract class DenseBlockFactory
 					case INT32: return new DenseBlockInt32(dims);
 					case INT64: return new DenseBlockInt64(dims);
 					case BOOLEAN: return new DenseBlockBool(dims);
+					case FP16: return new DenseBlockFP16(dims);
+					case BF16: return new DenseBlockBF16(dims);
+					case INT8: return new DenseBlockInt8(dims);
+					default:
+						throw new DMLRuntimeException("Unsupported dense block value type: "+vt.name());
+				}
+			case LDRB:
+				switch(vt) {
+					case FP32: return new DenseBlockLFP32(dims);
+					case FP64: return new DenseBlockLFP64(dims);
+					case INT32: return new DenseBlockLInt32(dims);
+					case INT64: return new DenseBlockLInt64(dims);
+					case BOOLEAN: return new DenseBlockLBool(dims);
 					default:
 						throw new DMLRuntimeException("Unsupported dense block value type: "+vt.name());
 				}
-			case LDRB: throw new NotImplementedException();
-				//TODO single call to LDRB with value type
 			default:
 				throw new DMLRuntimeException("Unexpected dense block type: "+type.name());
 		}
@@ -84,6 +103,6 @@ public abstract class DenseBlockFactory
 
 	public static DenseBlock.Type getDenseBlockType(DenseBlock dblock) {
 		return (dblock instanceof DenseBlockDRB) ? DenseBlock.Type.DRB :
-			(dblock instanceof DenseBlockDRB) ? DenseBlock.Type.LDRB : null; //TODO
+			(dblock instanceof DenseBlockLDRB) ? DenseBlock.Type.LDRB : null;
 	}
 }
@@ -0,0 +1,121 @@
+/*
+ * Modifications Copyright 2018 Graz University of Technology
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.data;
+
+import java.util.BitSet;
+
+import org.tugraz.sysds.common.Warnings;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+public class DenseBlockLBool extends DenseBlockLDRB
+{
+	private static final long serialVersionUID = -8410245913316371542L;
+
+	private BitSet[] _blocks;
+
+	public DenseBlockLBool(int[] dims) {
+		super(dims);
+		reset(_rlen, _odims, 0);
+	}
+
+	public DenseBlockLBool(int[] dims, int blen) {
+		super(dims, blen);
+		reset(_rlen, _odims, 0);
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	protected void allocateBlocks(int numBlocks) {
+		_blocks = new BitSet[numBlocks];
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		_blocks[bix] = new BitSet(length);
+	}
+
+	@Override
+	protected int numAllocBlocks() {
+		return (_blocks != null) ? _blocks.length : 0;
+	}
+
+	@Override
+	protected int capacity(int bix) {
+		return (_blocks[bix] != null) ? _blocks[bix].size() : -1;
+	}
+
+	@Override
+	protected void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		_blocks[bix].set(fromIndex, toIndex, v != 0);
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		return UtilFunctions.computeNnz(_blocks[bix], start, length);
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		_blocks[bix].set(ix, v != 0);
+	}
+
+	@Override
+	protected double getInternal(int bix, int ix) {
+		return _blocks[bix].get(ix) ? 1 : 0;
+	}
+
+	@Override
+	public double[] values(int r) {
+		double[] ret = getReuseRow(false);
+		BitSet a = _blocks[index(r)];
+		int ix = pos(r);
+		int ncol = _odims[0];
+		for(int j=0; j<ncol; j++)
+			ret[j] = a.get(ix+j) ? 1 : 0;
+		return ret;
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		int len = size(bix);
+		Warnings.warnFullFP64Conversion(len);
+		return DataConverter.toDouble(_blocks[bix], len);
+	}
+
+	@Override
+	public void incr(int r, int c) {
+		Warnings.warnInvaldBooleanIncrement(1);
+		_blocks[index(r)].set(pos(r, c));
+	}
+
+	@Override
+	public void incr(int r, int c, double delta) {
+		Warnings.warnInvaldBooleanIncrement(delta);
+		_blocks[index(r)].set(pos(r, c));
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ * Modifications Copyright 2018 Graz University of Technology
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.data;
+
+/**
+ * Large dense row block (LDRB), which partitions the rows of a dense
+ * block into multiple row blocks of at most MAX_ALLOC cells each. This
+ * allows for dense blocks with more than Integer.MAX_VALUE cells, while
+ * every row is still guaranteed to reside in a single underlying block.
+ *
+ */
+public abstract class DenseBlockLDRB extends DenseBlock
+{
+	private static final long serialVersionUID = -4370203046580640396L;
+
+	//max array length supported by common JVMs
+	public static final int MAX_ALLOC = Integer.MAX_VALUE - 1024;
+
+	protected int _blen;  //number of rows per block
+	private int _fblen;   //fixed number of rows per block, if set
+
+	protected DenseBlockLDRB(int[] dims) {
+		this(dims, -1);
+	}
+
+	protected DenseBlockLDRB(int[] dims, int blen) {
+		super(dims);
+		_fblen = blen;
+		_blen = (blen > 0) ? blen : computeBlockSize(_odims[0], getMaxBlockCells());
+	}
+
+	/**
+	 * Get the maximum number of cells per block, which
+	 * can be overwritten for non-array blocks.
+	 *
+	 * @return max number of cells per block
+	 */
+	protected int getMaxBlockCells() {
+		return MAX_ALLOC;
+	}
+
+	/**
+	 * Allocates the given number of blocks as empty array
+	 * of blocks, without allocating the individual blocks.
+	 *
+	 * @param numBlocks number of blocks
+	 */
+	protected abstract void allocateBlocks(int numBlocks);
+
+	/**
+	 * Allocates a single block of the given length, which
+	 * replaces an existing block at the given block index.
+	 *
+	 * @param bix block index
+	 * @param length block length
+	 */
+	protected abstract void allocateBlock(int bix, int length);
+
+	/**
+	 * Fills the given range of a block with the given value.
+	 *
+	 * @param bix block index
+	 * @param fromIndex start position (inclusive)
+	 * @param toIndex end position (exclusive)
+	 * @param v value
+	 */
+	protected abstract void fillBlock(int bix, int fromIndex, int toIndex, double v);
+
+	/**
+	 * Get the capacity of an allocated block.
+	 *
+	 * @param bix block index
+	 * @return capacity, -1 if not allocated
+	 */
+	protected abstract int capacity(int bix);
+
+	/**
+	 * Compute the number of non-zeros in the given range of a block.
+	 *
+	 * @param bix block index
+	 * @param start start position
+	 * @param length number of cells
+	 * @return number of non-zeros
+	 */
+	protected abstract long computeNnz(int bix, int start, int length);
+
+	protected abstract void setInternal(int bix, int ix, double v);
+
+	protected abstract double getInternal(int bix, int ix);
+
+	@Override
+	public void reset(int rlen, int[] odims, double v) {
+		int blen = (_fblen > 0) ? _fblen : computeBlockSize(odims[0], getMaxBlockCells());
+		int nblks = (rlen + blen - 1) / blen;
+		boolean realloc = (blen != _blen || nblks > numAllocBlocks());
+		if( !realloc ) {
+			for( int bi=0; bi<nblks && !realloc; bi++ )
+				realloc |= capacity(bi) < Math.min(blen, rlen-bi*blen) * odims[0];
+		}
+		_rlen = rlen;
+		_odims = odims;
+		_blen = blen;
+		if( realloc ) {
+			allocateBlocks(nblks);
+			for( int bi=0; bi<nblks; bi++ ) {
+				int len = blockSize(bi) * odims[0];
+				allocateBlock(bi, len);
+				if( v != 0 )
+					fillBlock(bi, 0, len, v);
+			}
+		}
+		else {
+			for( int bi=0; bi<nblks; bi++ )
+				fillBlock(bi, 0, blockSize(bi) * odims[0], v);
+		}
+	}
+
+	/**
+	 * Get the number of physically allocated blocks, which can
+	 * exceed the number of logical blocks after a reset.
+	 *
+	 * @return number of allocated blocks
+	 */
+	protected abstract int numAllocBlocks();
+
+	@Override
+	public int numBlocks() {
+		return (_rlen + _blen - 1) / _blen;
+	}
+
+	@Override
+	public int blockSize() {
+		return _blen;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return Math.min(_blen, _rlen - bix * _blen);
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return _rlen <= _blen;
+	}
+
+	@Override
+	public boolean isContiguous(int rl, int ru) {
+		return index(rl) == index(ru);
+	}
+
+	@Override
+	public int size(int bix) {
+		return blockSize(bix) * _odims[0];
+	}
+
+	@Override
+	public long capacity() {
+		long ret = 0;
+		int nblks = numAllocBlocks();
+		for( int bi=0; bi<nblks; bi++ ) {
+			int cap = capacity(bi);
+			if( cap < 0 ) return -1;
+			ret += cap;
+		}
+		return (nblks > 0) ? ret : -1;
+	}
+
+	@Override
+	public long countNonZeros() {
+		long nnz = 0;
+		for( int bi=0; bi<numBlocks(); bi++ )
+			nnz += computeNnz(bi, 0, size(bi));
+		return nnz;
+	}
+
+	@Override
+	public int countNonZeros(int r) {
+		return (int) computeNnz(index(r), pos(r), _odims[0]);
+	}
+
+	@Override
+	public long countNonZeros(int rl, int ru, int ol, int ou) {
+		long nnz = 0;
+		if( ol == 0 && ou == _odims[0] ) { //specific case: all cols
+			for( int bi=index(rl); bi<=index(ru-1); bi++ ) {
+				int lpos = (bi==index(rl)) ? pos(rl) : 0;
+				int upos = (bi==index(ru-1)) ? pos(ru-1)+_odims[0] : size(bi);
+				nnz += computeNnz(bi, lpos, upos-lpos);
+			}
+		}
+		else {
+			for( int i=rl; i<ru; i++ )
+				nnz += computeNnz(index(i), pos(i)+ol, ou-ol);
+		}
+		return nnz;
+	}
+
+	@Override
+	public int index(int r) {
+		return r / _blen;
+	}
+
+	@Override
+	public int pos(int r) {
+		return (r % _blen) * _odims[0];
+	}
+
+	@Override
+	public int pos(int r, int c) {
+		return (r % _blen) * _odims[0] + c;
+	}
+
+	@Override
+	public int pos(int[] ix) {
+		int pos = pos(ix[0]) + ix[ix.length-1];
+		for(int i=1; i<ix.length-1; i++)
+			pos += ix[i] * _odims[i];
+		return pos;
+	}
+
+	@Override
+	public void incr(int r, int c) {
+		incr(r, c, 1);
+	}
+
+	@Override
+	public void incr(int r, int c, double delta) {
+		int bix = index(r), ix = pos(r, c);
+		setInternal(bix, ix, getInternal(bix, ix) + delta);
+	}
+
+	@Override
+	public DenseBlock set(double v) {
+		for( int bi=0; bi<numBlocks(); bi++ )
+			fillBlock(bi, 0, size(bi), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int rl, int ru, int ol, int ou, double v) {
+		boolean allCols = (ol == 0 && ou == _odims[0]);
+		for( int i=rl; i<ru; i++ ) {
+			int bix = index(i);
+			if( allCols && pos(i)==0 && i+blockSize(bix)<=ru ) {
+				fillBlock(bix, 0, size(bix), v); //entire block
+				i += blockSize(bix) - 1;
+			}
+			else {
+				fillBlock(bix, pos(i)+ol, pos(i)+ou, v);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, int c, double v) {
+		setInternal(index(r), pos(r, c), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		int bix = index(r), ix = pos(r);
+		for( int j=0; j<_odims[0]; j++ )
+			setInternal(bix, ix+j, v[j]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		//cell-wise copy to handle different block sizes and value types
+		for( int i=0; i<_rlen; i++ ) {
+			int bix = index(i), cix = pos(i);
+			for( int j=0; j<_odims[0]; j++ )
+				setInternal(bix, cix+j, db.get(i, j));
+		}
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int rl, int ru, int ol, int ou, DenseBlock db) {
+		int len = ou - ol;
+		for( int i=rl; i<ru; i++ ) {
+			int bix = index(i), cix = pos(i)+ol;
+			for( int j=0; j<len; j++ )
+				setInternal(bix, cix+j, db.get(i-rl, j));
+		}
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, double v) {
+		setInternal(index(ix[0]), pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return getInternal(index(r), pos(r, c));
+	}
+
+	@Override
+	public double get(int[] ix) {
+		return getInternal(index(ix[0]), pos(ix));
+	}
+
+	/**
+	 * Computes the default number of rows per block such that
+	 * each block is below the max array size of common JVMs.
+	 *
+	 * @param ncol number of columns (cumprod of other dims)
+	 * @return number of rows per block
+	 */
+	public static int computeBlockSize(int ncol) {
+		return computeBlockSize(ncol, MAX_ALLOC);
+	}
+
+	/**
+	 * Computes the number of rows per block such that
+	 * each block has at most the given number of cells.
+	 *
+	 * @param ncol number of columns (cumprod of other dims)
+	 * @param maxCells max number of cells per block
+	 * @return number of rows per block
+	 */
+	public static int computeBlockSize(int ncol, int maxCells) {
+		return Math.max(maxCells / Math.max(ncol, 1), 1);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Modifications Copyright 2018 Graz University of Technology
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.data;
+
+import java.util.Arrays;
+
+import org.tugraz.sysds.common.Warnings;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+public class DenseBlockLInt64 extends DenseBlockLDRB
+{
+	private static final long serialVersionUID = -3027409356720315717L;
+
+	private long[][] _blocks;
+
+	public DenseBlockLInt64(int[] dims) {
+		super(dims);
+		reset(_rlen, _odims, 0);
+	}
+
+	public DenseBlockLInt64(int[] dims, int blen) {
+		super(dims, blen);
+		reset(_rlen, _odims, 0);
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	protected void allocateBlocks(int numBlocks) {
+		_blocks = new long[numBlocks][];
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		_blocks[bix] = new long[length];
+	}
+
+	@Override
+	protected int numAllocBlocks() {
+		return (_blocks != null) ? _blocks.length : 0;
+	}
+
+	@Override
+	protected int capacity(int bix) {
+		return (_blocks[bix] != null) ? _blocks[bix].length : -1;
+	}
+
+	@Override
+	protected void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		Arrays.fill(_blocks[bix], fromIndex, toIndex, UtilFunctions.toLong(v));
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		return UtilFunctions.computeNnz(_blocks[bix], start, length);
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		_blocks[bix][ix] = UtilFunctions.toLong(v);
+	}
+
+	@Override
+	protected double getInternal(int bix, int ix) {
+		return _blocks[bix][ix];
+	}
+
+	@Override
+	public double[] values(int r) {
+		double[] ret = getReuseRow(false);
+		long[] a = _blocks[index(r)];
+		int ix = pos(r);
+		int ncol = _odims[0];
+		for(int j=0; j<ncol; j++)
+			ret[j] = a[ix+j];
+		return ret;
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		Warnings.warnFullFP64Conversion(_blocks[bix].length);
+		return DataConverter.toDouble(_blocks[bix]);
+	}
+}
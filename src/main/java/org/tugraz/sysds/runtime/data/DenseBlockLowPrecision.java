@@ -0,0 +1,213 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.data;
+
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.common.Warnings;
+
+/**
+ * Base class for low-precision dense blocks (FP16, BF16, INT8), which
+ * store cells in 8 or 16 bits but expose the common double API. Kernels
+ * that exploit the reduced memory bandwidth decode contiguous ranges into
+ * float buffers via {@link #getFloats(int, float[], int, int)} and
+ * accumulate in FP32.
+ */
+public abstract class DenseBlockLowPrecision extends DenseBlockDRB
+{
+	private static final long serialVersionUID = -2380427397251718436L;
+
+	protected DenseBlockLowPrecision(int[] dims) {
+		super(dims);
+	}
+	
+	public abstract ValueType getValueType();
+	
+	/**
+	 * Decodes len cells starting at the given position into the float
+	 * output c, starting at position cix.
+	 * 
+	 * @param pos cell position (see pos(r), pos(r,c))
+	 * @param c float output buffer
+	 * @param cix output offset
+	 * @param len number of cells
+	 */
+	public abstract void getFloats(int pos, float[] c, int cix, int len);
+	
+	/**
+	 * Get the raw encoding of the given cell, e.g., for serialization.
+	 * 
+	 * @param ix cell position
+	 * @return raw bits (8 or 16 bits)
+	 */
+	public abstract int getBits(int ix);
+	
+	public abstract void setBits(int ix, int bits);
+	
+	protected abstract double getCell(int ix);
+	
+	protected abstract void setCell(int ix, double v);
+	
+	protected abstract void fill(int fromIx, int toIx, double v);
+	
+	protected abstract void allocate(int len);
+	
+	protected abstract int computeNnz(int ix, int len);
+	
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+	
+	@Override
+	public void reset(int rlen, int[] odims, double v) {
+		int len = rlen * odims[0];
+		if( len > capacity() ) {
+			allocate(len);
+			if( v != 0 )
+				fill(0, len, v);
+		}
+		else {
+			fill(0, len, v);
+		}
+		_rlen = rlen;
+		_odims = odims;
+	}
+	
+	@Override
+	public long countNonZeros() {
+		return computeNnz(0, _rlen*_odims[0]);
+	}
+	
+	@Override
+	public int countNonZeros(int r) {
+		return computeNnz(r*_odims[0], _odims[0]);
+	}
+
+	@Override
+	public long countNonZeros(int rl, int ru, int ol, int ou) {
+		long nnz = 0;
+		if( ol == 0 && ou == _odims[0] ) { //specific case: all cols
+			nnz += computeNnz(rl*_odims[0], (ru-rl)*_odims[0]);
+		}
+		else {
+			for( int i=rl, ix=rl*_odims[0]; i<ru; i++, ix+=_odims[0] )
+				nnz += computeNnz(ix+ol, ou-ol);
+		}
+		return nnz;
+	}
+	
+	@Override
+	public double[] values(int r) {
+		double[] ret = getReuseRow(false);
+		int ix = pos(r);
+		int ncol = _odims[0];
+		for(int j=0; j<ncol; j++)
+			ret[j] = getCell(ix+j);
+		return ret;
+	}
+	
+	@Override
+	public double[] valuesAt(int bix) {
+		int len = _rlen*_odims[0];
+		Warnings.warnFullFP64Conversion(len);
+		double[] ret = new double[len];
+		for(int i=0; i<len; i++)
+			ret[i] = getCell(i);
+		return ret;
+	}
+	
+	@Override
+	public int index(int r) {
+		return 0;
+	}
+	
+	@Override
+	public void incr(int r, int c) {
+		incr(r, c, 1);
+	}
+	
+	@Override
+	public void incr(int r, int c, double delta) {
+		int ix = pos(r, c);
+		setCell(ix, getCell(ix) + delta);
+	}
+	
+	@Override
+	public DenseBlock set(double v) {
+		fill(0, _rlen*_odims[0], v);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(int rl, int ru, int ol, int ou, double v) {
+		if( ol==0 && ou == _odims[0] )
+			fill(rl*_odims[0], ru*_odims[0], v);
+		else
+			for(int i=rl, ix=rl*_odims[0]; i<ru; i++, ix+=_odims[0])
+				fill(ix+ol, ix+ou, v);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(int r, int c, double v) {
+		setCell(pos(r, c), v);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		double[] a = db.valuesAt(0);
+		int len = _rlen*_odims[0];
+		for(int i=0; i<len; i++)
+			setCell(i, a[i]);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(int rl, int ru, int ol, int ou, DenseBlock db) {
+		double[] a = db.valuesAt(0);
+		int len = ou - ol;
+		for(int i=rl, ix1=0, ix2=rl*_odims[0]+ol; i<ru; i++, ix1+=len, ix2+=_odims[0])
+			for(int j=0; j<len; j++)
+				setCell(ix2+j, a[ix1+j]);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		int ix = pos(r);
+		for(int j=0; j<_odims[0]; j++)
+			setCell(ix+j, v[j]);
+		return this;
+	}
+	
+	@Override
+	public DenseBlock set(int[] ix, double v) {
+		setCell(pos(ix), v);
+		return this;
+	}
+	
+	@Override
+	public double get(int r, int c) {
+		return getCell(pos(r, c));
+	}
+	
+	@Override
+	public double get(int[] ix) {
+		return getCell(pos(ix));
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * Modifications Copyright 2018 Graz University of Technology
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.data;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+import org.tugraz.sysds.common.Warnings;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * Dense block of FP64 values, stored off-heap in multiple direct byte buffers
+ * (one per row block, in big-endian byte order). Similar to large dense row
+ * blocks, this chunking allows for blocks larger than a single byte buffer,
+ * while every row still resides in a single buffer.
+ *
+ * This block is the representation of dense matrices in the buffer pool's
+ * write buffer, not an operand of matrix kernels. Buffering a matrix copies
+ * its values once from the on-heap block into the off-heap buffers (which
+ * allows releasing the on-heap block), and restoring it copies the values
+ * once back into a new on-heap block. Since the concatenated buffer content
+ * is byte-equivalent to the serialized dense matrix block format, eviction
+ * writes the buffers directly to the file channel, without an intermediate
+ * on-heap byte array.
+ *
+ * NOTE: the array accessors are read-only: values(r) returns an on-heap copy
+ * of row r (starting at index 0, in a reused array of length clen), and
+ * valuesAt(bix) returns an on-heap copy of the entire row block (a new
+ * array of size(bix) cells). Writes to these arrays are not reflected in
+ * the block, i.e., updates need to go through the set methods. The native
+ * memory is released deterministically via free(), after which the block
+ * must not be accessed.
+ */
+public class DenseBlockOffHeapFP64 extends DenseBlockLDRB
+{
+	private static final long serialVersionUID = -4029416573451268339L;
+
+	//max number of cells per off-heap buffer (byte-addressed)
+	public static final int MAX_CELLS = Integer.MAX_VALUE / 8;
+
+	private transient ByteBuffer[] _buffs;
+	private transient DoubleBuffer[] _data;
+
+	public DenseBlockOffHeapFP64(int[] dims) {
+		super(dims);
+		reset(_rlen, _odims, 0);
+	}
+
+	public DenseBlockOffHeapFP64(int[] dims, int blen) {
+		super(dims, blen);
+		reset(_rlen, _odims, 0);
+	}
+
+	/**
+	 * Creates a dense block over the given buffers without copying, e.g., over
+	 * memory-mapped file regions, where values are paged in on first access.
+	 *
+	 * @param dims dimensions
+	 * @param buffs byte buffers, one per row block of computeOffHeapBlockSize(ncol)
+	 *   rows, each of at least size(bix)*8 bytes, big-endian
+	 */
+	public DenseBlockOffHeapFP64(int[] dims, ByteBuffer[] buffs) {
+		super(dims);
+		if( buffs.length != numBlocks() )
+			throw new DMLRuntimeException("Invalid number of off-heap buffers: "+buffs.length+" != "+numBlocks()+".");
+		_buffs = buffs;
+		_data = new DoubleBuffer[buffs.length];
+		for( int bi=0; bi<buffs.length; bi++ ) {
+			if( buffs[bi].capacity() < (long)size(bi) * 8 )
+				throw new DMLRuntimeException("Invalid off-heap buffer of size "
+					+buffs[bi].capacity()+" for "+size(bi)+" cells.");
+			_data[bi] = buffs[bi].asDoubleBuffer();
+		}
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	protected int getMaxBlockCells() {
+		return MAX_CELLS;
+	}
+
+	@Override
+	protected void allocateBlocks(int numBlocks) {
+		free(); //release existing buffers
+		_buffs = new ByteBuffer[numBlocks];
+		_data = new DoubleBuffer[numBlocks];
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		if( length > MAX_CELLS )
+			throw new DMLRuntimeException("Off-heap dense block exceeds max size: "+length+" > "+MAX_CELLS);
+		cleanDirectBuffer(_buffs[bix]);
+		//direct buffers are guaranteed to be 0-initialized
+		_buffs[bix] = ByteBuffer.allocateDirect(length * 8);
+		_data[bix] = _buffs[bix].asDoubleBuffer();
+	}
+
+	@Override
+	protected int numAllocBlocks() {
+		return (_data != null) ? _data.length : 0;
+	}
+
+	@Override
+	protected int capacity(int bix) {
+		return (_data[bix] != null) ? _data[bix].capacity() : -1;
+	}
+
+	@Override
+	protected void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		DoubleBuffer data = _data[bix];
+		for( int i=fromIndex; i<toIndex; i++ )
+			data.put(i, v);
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		DoubleBuffer data = _data[bix];
+		long lnnz = 0;
+		for( int i=start; i<start+length; i++ )
+			lnnz += (data.get(i) != 0) ? 1 : 0;
+		return lnnz;
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		_data[bix].put(ix, v);
+	}
+
+	@Override
+	protected double getInternal(int bix, int ix) {
+		return _data[bix].get(ix);
+	}
+
+	/**
+	 * Get a read-only on-heap copy of the given row, starting at index 0.
+	 * The returned array is reused across calls.
+	 *
+	 * @param r row index
+	 * @return copy of row values
+	 */
+	@Override
+	public double[] values(int r) {
+		double[] ret = getReuseRow(false);
+		get(index(r), pos(r), ret, 0, _odims[0]);
+		return ret;
+	}
+
+	/**
+	 * Get a read-only on-heap copy of the given row block, which
+	 * allocates and fills a new array of size(bix) cells.
+	 *
+	 * @param bix block index
+	 * @return copy of row block values
+	 */
+	@Override
+	public double[] valuesAt(int bix) {
+		int len = size(bix);
+		Warnings.warnFullFP64Conversion(len);
+		double[] ret = new double[len];
+		get(bix, 0, ret, 0, len);
+		return ret;
+	}
+
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		put(index(r), pos(r), v, 0, _odims[0]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		//row-wise bulk copy (handles single and large dense blocks)
+		for( int i=0; i<_rlen; i++ )
+			put(index(i), pos(i), db.values(i), db.pos(i), _odims[0]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int rl, int ru, int ol, int ou, DenseBlock db) {
+		int len = ou - ol;
+		for( int i=rl; i<ru; i++ )
+			put(index(i), pos(i)+ol, db.values(i-rl), db.pos(i-rl), len);
+		return this;
+	}
+
+	/**
+	 * Bulk copy of all values into the given on-heap array,
+	 * which is of at least size rlen*clen.
+	 *
+	 * @param c output array
+	 */
+	public void copyTo(double[] c) {
+		for( int bi=0, cix=0; bi<numBlocks(); cix+=size(bi), bi++ )
+			get(bi, 0, c, cix, size(bi));
+	}
+
+	/**
+	 * Bulk copy of all values into the given on-heap dense
+	 * block of equal dimensions, which might span multiple blocks.
+	 *
+	 * @param c output dense block
+	 */
+	public void copyTo(DenseBlock c) {
+		if( c.isContiguous() ) {
+			copyTo(c.valuesAt(0));
+			return;
+		}
+		for( int i=0; i<_rlen; i++ )
+			get(index(i), pos(i), c.values(i), c.pos(i), _odims[0]);
+	}
+
+	/**
+	 * Get read-only views of the used regions of the underlying
+	 * off-heap buffers (in big-endian byte order, one per row block),
+	 * e.g., for writes to file channels without on-heap copies. The views are only
+	 * valid until the block is freed.
+	 *
+	 * @return byte buffer views
+	 */
+	public ByteBuffer[] getBuffers() {
+		ByteBuffer[] ret = new ByteBuffer[numBlocks()];
+		for( int bi=0; bi<ret.length; bi++ ) {
+			ret[bi] = _buffs[bi].asReadOnlyBuffer();
+			ret[bi].position(0);
+			ret[bi].limit(size(bi) * 8);
+		}
+		return ret;
+	}
+
+	/**
+	 * Releases the native memory of all off-heap buffers without
+	 * waiting for garbage collection. Subsequent accesses to this
+	 * block or previously obtained buffer views are invalid.
+	 */
+	public void free() {
+		if( _buffs != null )
+			for( ByteBuffer buff : _buffs )
+				cleanDirectBuffer(buff);
+		_buffs = null;
+		_data = null;
+	}
+
+	/**
+	 * Computes the number of rows per off-heap buffer, which is
+	 * consistent with the row blocks of this dense block.
+	 *
+	 * @param ncol number of columns (cumprod of other dims)
+	 * @return number of rows per buffer
+	 */
+	public static int computeOffHeapBlockSize(int ncol) {
+		return computeBlockSize(ncol, MAX_CELLS);
+	}
+
+	private void get(int bix, int pos, double[] c, int cix, int len) {
+		DoubleBuffer tmp = _data[bix].duplicate();
+		tmp.position(pos);
+		tmp.get(c, cix, len);
+	}
+
+	private void put(int bix, int pos, double[] a, int aix, int len) {
+		DoubleBuffer tmp = _data[bix].duplicate();
+		tmp.position(pos);
+		tmp.put(a, aix, len);
+	}
+
+	private static void cleanDirectBuffer(ByteBuffer buff) {
+		if( buff == null || !buff.isDirect() )
+			return;
+		try {
+			//JDK 8: sun.nio.ch.DirectBuffer.cleaner().clean()
+			Method mcleaner = buff.getClass().getMethod("cleaner");
+			mcleaner.setAccessible(true);
+			Object cleaner = mcleaner.invoke(buff);
+			if( cleaner != null )
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+		}
+		catch(Throwable ex) {
+			try {
+				//JDK 9+: sun.misc.Unsafe.invokeCleaner(buff)
+				Class<?> clazz = Class.forName("sun.misc.Unsafe");
+				Field funsafe = clazz.getDeclaredField("theUnsafe");
+				funsafe.setAccessible(true);
+				clazz.getMethod("invokeCleaner", ByteBuffer.class)
+					.invoke(funsafe.get(null), buff);
+			}
+			catch(Throwable ex2) {
+				//ignore: memory is released on garbage collection
+			}
+		}
+	}
+
+	private void writeObject(ObjectOutputStream os) throws IOException {
+		os.defaultWriteObject();
+		for( int bi=0; bi<numBlocks(); bi++ ) {
+			DoubleBuffer data = _data[bi];
+			for( int i=0; i<size(bi); i++ )
+				os.writeDouble(data.get(i));
+		}
+	}
+
+	private void readObject(ObjectInputStream is) throws IOException, ClassNotFoundException {
+		is.defaultReadObject();
+		allocateBlocks(numBlocks());
+		for( int bi=0; bi<numBlocks(); bi++ ) {
+			allocateBlock(bi, size(bi));
+			DoubleBuffer data = _data[bi];
+			for( int i=0; i<size(bi); i++ )
+				data.put(i, is.readDouble());
+		}
+	}
+}
@@ -51,6 +51,7 @@ public abstract class SparseBlock implements Serializable
 		MCSR,
 		CSR,
 		COO,
+		BCSR,
 	}
 	
 	
@@ -511,9 +512,107 @@ public abstract class SparseBlock implements Serializable
 		return new SparseBlockIterator(rl, Math.min(ru,numRows()));
 	}
 	
+	////////////////////////
+	//cursors and bulk accessors
+	
+	/**
+	 * Get a reusable cursor over the non-zeros of the entire sparse block.
+	 * 
+	 * @return sparse block cursor
+	 */
+	public SparseBlockCursor getCursor() {
+		return getCursor(0, numRows());
+	}
+	
+	/**
+	 * Get a reusable cursor over the non-zeros of the subblock [rl, ru),
+	 * which can be reset to other row ranges without allocation.
+	 * 
+	 * @param rl   inclusive lower row index starting at 0
+	 * @param ru   exclusive upper row index starting at 0
+	 * @return sparse block cursor
+	 */
+	public SparseBlockCursor getCursor(int rl, int ru) {
+		//default generic cursor, override if necessary
+		return new SparseBlockGenericCursor().reset(rl, ru);
+	}
+	
+	/**
+	 * Scatters the non-zeros of row r into the dense target array, 
+	 * i.e., c[cix+j] = a[r,j] for all non-zeros a[r,j]. Zeros of 
+	 * the target array are not cleared.
+	 * 
+	 * @param r    row index starting at 0
+	 * @param c    dense target array
+	 * @param cix  target offset of column 0
+	 */
+	public void scatter(int r, double[] c, int cix) {
+		//default generic scatter, override if necessary
+		if( isEmpty(r) ) return;
+		int apos = pos(r);
+		int alen = size(r);
+		int[] aix = indexes(r);
+		double[] avals = values(r);
+		for( int k=apos; k<apos+alen; k++ )
+			c[cix+aix[k]] = avals[k];
+	}
+	
 	@Override 
 	public abstract String toString();
 	
+	/**
+	 * Default sparse block cursor implemented against the sparse block
+	 * api in an implementation-agnostic manner.
+	 */
+	private class SparseBlockGenericCursor extends SparseBlockCursor
+	{
+		private int _ru = 0; //row upper
+		private int _row = -1; //current row
+		private int _pos = 0; //current position
+		private int _end = 0; //end position of current row
+		private int[] _aix = null;
+		private double[] _avals = null;
+		
+		@Override
+		public SparseBlockCursor reset(int rl, int ru) {
+			_ru = Math.min(ru, numRows());
+			_row = rl - 1;
+			_pos = _end = 0;
+			return this;
+		}
+		
+		@Override
+		public boolean next() {
+			if( ++_pos < _end )
+				return true;
+			while( ++_row < _ru ) {
+				if( isEmpty(_row) ) continue;
+				_pos = pos(_row);
+				_end = _pos + size(_row);
+				_aix = indexes(_row);
+				_avals = values(_row);
+				return true;
+			}
+			_row = _ru;
+			return false;
+		}
+		
+		@Override
+		public int getRow() {
+			return _row;
+		}
+		
+		@Override
+		public int getCol() {
+			return _aix[_pos];
+		}
+		
+		@Override
+		public double getValue() {
+			return _avals[_pos];
+		}
+	}
+	
 	/**
 	 * Default sparse block iterator implemented against the sparse block
 	 * api in an implementation-agnostic manner.
@@ -0,0 +1,999 @@
+/*
+ * Modifications Copyright 2018 Graz University of Technology
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.data;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.tugraz.sysds.runtime.matrix.data.IJV;
+
+/**
+ * SparseBlock implementation that realizes a 'block compressed sparse row'
+ * representation for matrices with structured sparsity (e.g., FEM stiffness
+ * matrices or graphs with dense blocks), where non-zeros are grouped into
+ * blen x blen tiles. The tiles of a block row are described by tile
+ * pointers (size: rlen/blen+1) and tile column indexes (size: #tiles), while
+ * the tile cells are stored in row-major order within each block row. Hence,
+ * the cells of a row are contiguous and ordered by column index (same as
+ * in CSR), and tile kernels operate on contiguous column ranges.
+ *
+ * Tiles may be partially filled, where zeros within tiles are stored
+ * explicitly and the number of non-zeros is tracked per row (via separate
+ * row pointers over the non-zeros). Tiles are selected if they cover all
+ * non-zeros with a fill ratio of at least MIN_TILE_FILL, for which the
+ * tiles are not larger than CSR. Only the last tile column might be
+ * narrower if the number of columns is not a multiple of blen.
+ *
+ * If all tiles are fully dense, the row-wise sparse block API works
+ * directly on the tiles, where column indexes per non-zero are materialized
+ * lazily on first access. With explicit zeros, the row-wise API (values,
+ * indexes, pos, and position lookups) converts the block into an untiled
+ * CSR block in order to preserve the invariant of sparse blocks to not
+ * expose zeros. Iterators, cursors, scatter, size, get, and serialization
+ * derive column indexes from the tiles and skip explicit zeros. Any update
+ * that does not preserve the tile structure and non-zeros (e.g., inserts
+ * outside existing tiles or deletes) converts the block into an untiled
+ * representation that delegates to a CSR block.
+ *
+ */
+public class SparseBlockBCSR extends SparseBlock
+{
+	private static final long serialVersionUID = -3514278307423283659L;
+
+	//candidate tile sizes, in order of preference
+	public static final int[] TILE_SIZES = new int[]{8, 4, 3, 2};
+
+	//min ratio of non-zeros to tile cells, for which tiles (8B
+	//per cell) require at most the size of CSR (12B per non-zero)
+	public static final double MIN_TILE_FILL = 2d/3;
+
+	private int _blen = -1;             //tile size (rows and columns)
+	private int _clen = -1;             //number of columns
+	private int[] _ptr = null;          //row pointer array over tile cells (size: rlen+1)
+	private int[] _nnz = null;          //row pointer array over non-zeros (size: rlen+1)
+	private int[] _tptr = null;         //tile pointer array (size: rlen/blen+1)
+	private int[] _tcol = null;         //tile column block indexes (size: #tiles)
+	private double[] _values = null;    //tile cell array, incl zeros (size: #cells)
+	private volatile int[] _indexes = null; //column index array (lazily materialized)
+	private volatile SparseBlockCSR _csr = null; //delegate if untiled
+
+	public SparseBlockBCSR(int rlen) {
+		this(rlen, TILE_SIZES[0]);
+	}
+
+	public SparseBlockBCSR(int rlen, int blen) {
+		_blen = blen;
+		_ptr = new int[rlen+1];
+		_nnz = _ptr;
+		_tptr = new int[(rlen+blen-1)/blen+1];
+		_tcol = new int[0];
+		_values = new double[0];
+		_indexes = new int[0];
+	}
+
+	/**
+	 * Copy constructor sparse block abstraction, which determines the
+	 * number of columns and the tile size from the given sparse block.
+	 * If the non-zeros cannot be represented in sufficiently filled
+	 * tiles, the resulting block is untiled.
+	 *
+	 * @param sblock sparse block to copy
+	 */
+	public SparseBlockBCSR(SparseBlock sblock) {
+		this(sblock, getMaxColumnIndex(sblock)+1);
+	}
+
+	/**
+	 * Copy constructor sparse block abstraction, which determines the
+	 * tile size from the given sparse block.
+	 *
+	 * @param sblock sparse block to copy
+	 * @param clen number of columns
+	 */
+	public SparseBlockBCSR(SparseBlock sblock, int clen) {
+		this(sblock, clen, computeTileSize(sblock, sblock.numRows(), clen));
+	}
+
+	/**
+	 * Copy constructor sparse block abstraction with given tile size,
+	 * where a tile size of -1 creates an untiled sparse block.
+	 *
+	 * @param sblock sparse block to copy
+	 * @param clen number of columns
+	 * @param blen tile size, -1 if no valid tiling exists
+	 */
+	public SparseBlockBCSR(SparseBlock sblock, int clen, int blen) {
+		if( blen <= 0 ) {
+			_csr = new SparseBlockCSR(sblock);
+			return;
+		}
+
+		long size = sblock.size();
+		if( size > Integer.MAX_VALUE )
+			throw new RuntimeException("SparseBlockBCSR supports nnz<=Integer.MAX_VALUE but got "+size);
+		int rlen = sblock.numRows();
+		int nbr = (rlen+blen-1)/blen;
+		int nbc = (clen+blen-1)/blen;
+
+		_blen = blen;
+		_clen = clen;
+		_tptr = new int[nbr+1];
+
+		//collect distinct tile columns per block row
+		int[] stamp = new int[nbc];
+		Arrays.fill(stamp, -1);
+		for( int bi=0; bi<nbr; bi++ ) {
+			int ntiles = 0;
+			for( int i=bi*blen; i<Math.min((bi+1)*blen, rlen); i++ )
+				ntiles += markTileColumns(sblock, i, blen, stamp, bi, null, 0);
+			_tptr[bi+1] = _tptr[bi] + ntiles;
+		}
+		_tcol = new int[_tptr[nbr]];
+		Arrays.fill(stamp, -1);
+		for( int bi=0; bi<nbr; bi++ ) {
+			for( int i=bi*blen, t=_tptr[bi]; i<Math.min((bi+1)*blen, rlen); i++ )
+				t += markTileColumns(sblock, i, blen, stamp, bi, _tcol, t);
+			Arrays.sort(_tcol, _tptr[bi], _tptr[bi+1]);
+		}
+
+		//compute row pointers over tile cells and non-zeros
+		_ptr = new int[rlen+1];
+		_nnz = new int[rlen+1];
+		for( int i=0; i<rlen; i++ ) {
+			int bi = i / blen;
+			long width = 0;
+			for( int t=_tptr[bi]; t<_tptr[bi+1]; t++ )
+				width += tileWidth(t);
+			if( _ptr[i] + width > Integer.MAX_VALUE )
+				throw new RuntimeException("SparseBlockBCSR supports #cells<=Integer.MAX_VALUE.");
+			_ptr[i+1] = _ptr[i] + (int)width;
+			_nnz[i+1] = _nnz[i] + sblock.size(i);
+		}
+
+		//scatter non-zeros into tile cells
+		_values = new double[_ptr[rlen]];
+		int[] toff = new int[nbc]; //offsets of tile columns within rows
+		for( int bi=0; bi<nbr; bi++ ) {
+			for( int t=_tptr[bi]; t<_tptr[bi+1]; t++ )
+				toff[_tcol[t]] = (t-_tptr[bi]) * blen;
+			for( int i=bi*blen; i<Math.min((bi+1)*blen, rlen); i++ ) {
+				if( sblock.isEmpty(i) ) continue;
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				int[] aix = sblock.indexes(i);
+				double[] avals = sblock.values(i);
+				for( int k=apos; k<apos+alen; k++ )
+					_values[_ptr[i] + toff[aix[k]/blen] + aix[k]%blen] = avals[k];
+			}
+		}
+
+		//share row pointers for fully dense tiles
+		if( _ptr[rlen] == _nnz[rlen] )
+			_nnz = _ptr;
+	}
+
+	/**
+	 * Get the estimated in-memory size of the sparse block in BCSR
+	 * with the given dimensions and tile size w/o accounting for
+	 * lazily materialized column indexes, assuming fully dense tiles.
+	 *
+	 * @param nrows number of rows
+	 * @param ncols number of columns
+	 * @param sparsity sparsity ratio
+	 * @param blen tile size
+	 * @return memory estimate
+	 */
+	public static long estimateMemory(long nrows, long ncols, double sparsity, int blen) {
+		double lnnz = Math.max(INIT_CAPACITY, Math.ceil(sparsity*nrows*ncols));
+		double ltiles = Math.ceil(lnnz / ((long)blen*blen));
+
+		//32B overhead per array, int arr in nrows/ntiles, double arr in nnz
+		double size = 16 + 8 + 5*8;          //object + int fields + references
+		size += 24 + (nrows+1) * 4d;         //ptr array (row pointers)
+		size += 24 + (nrows/blen+2) * 4d;    //tptr array (tile pointers)
+		size += 24 + ltiles * 4d;            //tcol array (tile column indexes)
+		size += 24 + lnnz * 8d;              //values array (non-zero values)
+
+		//robustness for long overflows
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+
+	public static long estimateMemory(long nrows, long ncols, double sparsity) {
+		return estimateMemory(nrows, ncols, sparsity, TILE_SIZES[0]);
+	}
+
+	/**
+	 * Determines the largest candidate tile size, for which all non-zeros
+	 * of the given sparse block are covered by tiles with a fill ratio of
+	 * at least MIN_TILE_FILL.
+	 *
+	 * @param sblock sparse block
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @return tile size, or -1 if no valid tiling exists
+	 */
+	public static int computeTileSize(SparseBlock sblock, int rlen, int clen) {
+		if( sblock == null || sblock.size() == 0
+			|| sblock.size() > Integer.MAX_VALUE )
+			return -1;
+		for( int blen : TILE_SIZES )
+			if( blen < rlen && blen < clen && isValidTiling(sblock, rlen, clen, blen) )
+				return blen;
+		return -1;
+	}
+
+	/**
+	 * Indicates if all non-zeros of the given sparse block are covered
+	 * by tiles of the given tile size with a fill ratio (non-zeros per
+	 * tile cell) of at least MIN_TILE_FILL.
+	 *
+	 * @param sblock sparse block
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @param blen tile size
+	 * @return true if a valid tiling exists
+	 */
+	public static boolean isValidTiling(SparseBlock sblock, int rlen, int clen, int blen) {
+		//count tile cells per block row, w/ early abort
+		long maxCells = (long) Math.min(sblock.size() / MIN_TILE_FILL, Integer.MAX_VALUE);
+		int[] stamp = new int[(clen+blen-1)/blen];
+		Arrays.fill(stamp, -1);
+		long cells = 0;
+		for( int bi=0; bi*blen<rlen; bi++ ) {
+			int rl = bi*blen, ru = Math.min(rl+blen, rlen);
+			long width = 0;
+			for( int i=rl; i<ru; i++ ) {
+				if( sblock.isEmpty(i) ) continue;
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				int[] aix = sblock.indexes(i);
+				for( int k=apos; k<apos+alen; k++ ) {
+					int tc = aix[k] / blen;
+					if( stamp[tc] != bi ) {
+						stamp[tc] = bi;
+						width += Math.min(blen, clen - tc*blen);
+					}
+				}
+			}
+			cells += width * (ru-rl);
+			if( cells > maxCells )
+				return false;
+		}
+		return true;
+	}
+
+	private static int markTileColumns(SparseBlock sblock, int r, int blen, int[] stamp, int bi, int[] tcol, int t) {
+		if( sblock.isEmpty(r) )
+			return 0;
+		int apos = sblock.pos(r);
+		int alen = sblock.size(r);
+		int[] aix = sblock.indexes(r);
+		int cnt = 0;
+		for( int k=apos; k<apos+alen; k++ ) {
+			int tc = aix[k] / blen;
+			if( stamp[tc] != bi ) {
+				stamp[tc] = bi;
+				if( tcol != null )
+					tcol[t+cnt] = tc;
+				cnt++;
+			}
+		}
+		return cnt;
+	}
+
+	private static int getMaxColumnIndex(SparseBlock sblock) {
+		int ret = -1;
+		for( int i=0; i<sblock.numRows(); i++ )
+			if( !sblock.isEmpty(i) )
+				ret = Math.max(ret, sblock.indexes(i)[sblock.pos(i)+sblock.size(i)-1]);
+		return ret;
+	}
+
+	/**
+	 * Indicates if the non-zeros are stored in tiles, which
+	 * is the case until the first structural update.
+	 *
+	 * @return true if tiled
+	 */
+	public boolean isTiled() {
+		return _csr == null;
+	}
+
+	/**
+	 * Indicates if all tiles are fully dense, i.e., if there
+	 * are no explicitly stored zeros.
+	 *
+	 * @return true if tiled without explicit zeros
+	 */
+	public boolean isFullTiles() {
+		return isTiled() && _ptr[_ptr.length-1] == _nnz[_nnz.length-1];
+	}
+
+	/**
+	 * Indicates if the given sparse block is a tiled BCSR block,
+	 * which enables the use of specialized tile kernels.
+	 *
+	 * @param sblock sparse block
+	 * @return true if tiled BCSR block
+	 */
+	public static boolean isTiledSparseBlock(SparseBlock sblock) {
+		return sblock instanceof SparseBlockBCSR
+			&& ((SparseBlockBCSR)sblock).isTiled();
+	}
+
+	/**
+	 * Get the tile size, i.e., number of rows and columns per tile.
+	 *
+	 * @return tile size, -1 if untiled
+	 */
+	public int getTileSize() {
+		return isTiled() ? _blen : -1;
+	}
+
+	/**
+	 * Get raw access to the underlying array of tile pointers per block row.
+	 *
+	 * @return array of tile pointers
+	 */
+	public int[] tilePointers() {
+		return _tptr;
+	}
+
+	/**
+	 * Get raw access to the underlying array of tile column block indexes,
+	 * where the first column of tile t is tileColumns()[t]*blen.
+	 *
+	 * @return array of tile column block indexes
+	 */
+	public int[] tileColumns() {
+		return _tcol;
+	}
+
+	/**
+	 * Get raw access to the underlying array of tile cells (including
+	 * explicitly stored zeros), where the cells of row r start at
+	 * tilePos(r) and tile t occupies blen cells per row.
+	 *
+	 * @return array of tile cells
+	 */
+	public double[] tileValues() {
+		return _values;
+	}
+
+	/**
+	 * Get the position of the first tile cell of the given row.
+	 *
+	 * @param r row index
+	 * @return position in the array of tile cells
+	 */
+	public int tilePos(int r) {
+		return _ptr[r];
+	}
+
+	/**
+	 * Get the number of columns of the given tile.
+	 *
+	 * @param t tile index
+	 * @return tile width
+	 */
+	public int tileWidth(int t) {
+		return Math.min(_blen, _clen - _tcol[t]*_blen);
+	}
+
+	/**
+	 * Writes all rows in the serialized sparse row format (per row: the
+	 * number of non-zeros, followed by column index and value pairs), where
+	 * column indexes are derived from the tiles, i.e., without materializing
+	 * the column index array.
+	 *
+	 * @param out data output
+	 * @param rlen number of rows to write (rows beyond numRows are empty)
+	 * @throws IOException if IOException occurs
+	 */
+	public void writeSparseRows(DataOutput out, int rlen) throws IOException {
+		if( !isTiled() )
+			throw new RuntimeException("Tile-wise serialization requires a tiled block.");
+		int r = 0;
+		for( ; r<Math.min(rlen, numRows()); r++ ) {
+			out.writeInt(size(r));
+			int bi = r / _blen;
+			for( int t=_tptr[bi], pos=_ptr[r]; t<_tptr[bi+1]; t++, pos+=_blen ) {
+				int cix = _tcol[t]*_blen;
+				for( int j=0; j<tileWidth(t); j++ )
+					if( _values[pos+j] != 0 ) {
+						out.writeInt(cix+j);
+						out.writeDouble(_values[pos+j]);
+					}
+			}
+		}
+		for( ; r<rlen; r++ )
+			out.writeInt(0);
+	}
+
+	///////////////////
+	//SparseBlock implementation
+
+	@Override
+	public void allocate(int r) {
+		if( !isTiled() )
+			_csr.allocate(r);
+	}
+
+	@Override
+	public void allocate(int r, int nnz) {
+		if( !isTiled() )
+			_csr.allocate(r, nnz);
+	}
+
+	@Override
+	public void allocate(int r, int ennz, int maxnnz) {
+		if( !isTiled() )
+			_csr.allocate(r, ennz, maxnnz);
+	}
+
+	@Override
+	public void compact(int r) {
+		if( !isTiled() )
+			_csr.compact(r);
+	}
+
+	@Override
+	public int numRows() {
+		return isTiled() ? _ptr.length-1 : _csr.numRows();
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return false;
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return true;
+	}
+
+	@Override
+	public boolean isAllocated(int r) {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		if( !isTiled() )
+			_csr.reset();
+		else if( _ptr[_ptr.length-1] > 0 ) {
+			Arrays.fill(_ptr, 0);
+			Arrays.fill(_tptr, 0);
+			_nnz = _ptr;
+			_tcol = new int[0];
+			_values = new double[0];
+			_indexes = new int[0];
+		}
+	}
+
+	@Override
+	public void reset(int ennz, int maxnnz) {
+		if( !isTiled() )
+			_csr.reset(ennz, maxnnz);
+		else
+			reset();
+	}
+
+	@Override
+	public void reset(int r, int ennz, int maxnnz) {
+		if( isTiled() && isEmpty(r) )
+			return;
+		untile(true);
+		_csr.reset(r, ennz, maxnnz);
+	}
+
+	@Override
+	public long size() {
+		return isTiled() ? _nnz[_nnz.length-1] : _csr.size();
+	}
+
+	@Override
+	public int size(int r) {
+		return isTiled() ? _nnz[r+1] - _nnz[r] : _csr.size(r);
+	}
+
+	@Override
+	public long size(int rl, int ru) {
+		return isTiled() ? _nnz[ru] - _nnz[rl] : _csr.size(rl, ru);
+	}
+
+	@Override
+	public long size(int rl, int ru, int cl, int cu) {
+		if( !isTiled() )
+			return _csr.size(rl, ru, cl, cu);
+		long nnz = 0;
+		for( int i=rl; i<ru; i++ ) {
+			int bi = i / _blen;
+			for( int t=_tptr[bi], pos=_ptr[i]; t<_tptr[bi+1]; t++, pos+=_blen ) {
+				int cix = _tcol[t]*_blen;
+				int start = Math.max(cl, cix), end = Math.min(cu, cix+tileWidth(t));
+				for( int j=start; j<end; j++ )
+					nnz += (_values[pos+j-cix] != 0) ? 1 : 0;
+			}
+		}
+		return nnz;
+	}
+
+	@Override
+	public boolean isEmpty(int r) {
+		return isTiled() ? (_nnz[r+1] - _nnz[r] == 0) : _csr.isEmpty(r);
+	}
+
+	@Override
+	public boolean checkValidity(int rlen, int clen, long nnz, boolean strict) {
+		if( !isTiled() )
+			return _csr.checkValidity(rlen, clen, nnz, strict);
+
+		//1. correct meta data
+		if( rlen < 0 || clen < 0 || _clen > clen )
+			throw new RuntimeException("Invalid block dimensions: "+rlen+" "+clen);
+		if( size() != nnz )
+			throw new RuntimeException("Incorrect number of non-zeros: "+size()+" vs "+nnz);
+
+		//2. complete tiles with consistent row and tile pointers
+		for( int bi=0; bi<_tptr.length-1; bi++ ) {
+			int rix = bi*_blen;
+			int rlen2 = Math.min(_blen, rlen-rix);
+			int tlen = 0;
+			for( int t=_tptr[bi]; t<_tptr[bi+1]; t++ ) {
+				if( t>_tptr[bi] && _tcol[t-1] >= _tcol[t] )
+					throw new RuntimeException("Wrong tile ordering in block row "+bi);
+				tlen += tileWidth(t);
+			}
+			for( int i=rix; i<rix+rlen2; i++ )
+				if( _ptr[i+1] - _ptr[i] != tlen )
+					throw new RuntimeException("Incomplete tiles in row "+i+": "+(_ptr[i+1]-_ptr[i])+" vs "+tlen);
+		}
+
+		//3. consistent non-zeros per row (zeros only as tile cells)
+		for( int i=0; i<rlen; i++ ) {
+			int lnnz = 0;
+			for( int k=_ptr[i]; k<_ptr[i+1]; k++ )
+				lnnz += (_values[k] != 0) ? 1 : 0;
+			if( lnnz != size(i) )
+				throw new RuntimeException("Incorrect number of non-zeros in row "+i+": "+lnnz+" vs "+size(i));
+		}
+
+		return true;
+	}
+
+	@Override
+	public int[] indexes(int r) {
+		return isTiledRowAccess() ? getIndexes() : _csr.indexes(r);
+	}
+
+	@Override
+	public double[] values(int r) {
+		return isTiledRowAccess() ? _values : _csr.values(r);
+	}
+
+	@Override
+	public int pos(int r) {
+		return isTiledRowAccess() ? _ptr[r] : _csr.pos(r);
+	}
+
+	@Override
+	public boolean set(int r, int c, double v) {
+		//in-place update of existing non-zero tile cells
+		if( isTiled() ) {
+			int ix = posTileCell(r, c);
+			boolean nz = ix >= 0 && _values[ix] != 0;
+			if( nz && v != 0 ) {
+				_values[ix] = v;
+				return false;
+			}
+			else if( !nz && v == 0 )
+				return false; //no-op zero on zero
+		}
+		untile(true);
+		return _csr.set(r, c, v);
+	}
+
+	@Override
+	public void set(int r, SparseRow row, boolean deep) {
+		untile(true);
+		_csr.set(r, row, deep);
+	}
+
+	@Override
+	public boolean add(int r, int c, double v) {
+		//early abort on zero
+		if( v==0 ) return false;
+
+		//in-place update of existing non-zero tile cells
+		if( isTiled() ) {
+			int ix = posTileCell(r, c);
+			if( ix >= 0 && _values[ix] != 0 && _values[ix] + v != 0 ) {
+				_values[ix] += v;
+				return false;
+			}
+		}
+		untile(true);
+		return _csr.add(r, c, v);
+	}
+
+	@Override
+	public void append(int r, int c, double v) {
+		//early abort on zero
+		if( v==0 ) return;
+		untile(true);
+		_csr.append(r, c, v);
+	}
+
+	@Override
+	public void setIndexRange(int r, int cl, int cu, double[] v, int vix, int vlen) {
+		untile(true);
+		_csr.setIndexRange(r, cl, cu, v, vix, vlen);
+	}
+
+	@Override
+	public void setIndexRange(int r, int cl, int cu, double[] v, int[] vix, int vpos, int vlen) {
+		untile(true);
+		_csr.setIndexRange(r, cl, cu, v, vix, vpos, vlen);
+	}
+
+	@Override
+	public void deleteIndexRange(int r, int cl, int cu) {
+		if( isTiled() && size(r, r+1, cl, cu) == 0 )
+			return;
+		untile(true);
+		_csr.deleteIndexRange(r, cl, cu);
+	}
+
+	@Override
+	public void sort() {
+		//tiles always sorted
+		if( !isTiled() )
+			_csr.sort();
+	}
+
+	@Override
+	public void sort(int r) {
+		//tiles always sorted
+		if( !isTiled() )
+			_csr.sort(r);
+	}
+
+	@Override
+	public double get(int r, int c) {
+		if( !isTiled() )
+			return _csr.get(r, c);
+		int ix = posTileCell(r, c);
+		return (ix >= 0) ? _values[ix] : 0;
+	}
+
+	@Override
+	public SparseRow get(int r) {
+		if( !isTiled() )
+			return _csr.get(r);
+		if( isEmpty(r) )
+			return new SparseRowScalar();
+		SparseRowVector row = new SparseRowVector(size(r));
+		int bi = r / _blen;
+		for( int t=_tptr[bi], pos=_ptr[r]; t<_tptr[bi+1]; t++, pos+=_blen ) {
+			int cix = _tcol[t]*_blen;
+			for( int j=0; j<tileWidth(t); j++ )
+				row.append(cix+j, _values[pos+j]); //skips zeros
+		}
+		return row;
+	}
+
+	@Override
+	public int posFIndexLTE(int r, int c) {
+		if( !isTiledRowAccess() )
+			return _csr.posFIndexLTE(r, c);
+		int pos = pos(r);
+		int len = size(r);
+		int index = Arrays.binarySearch(getIndexes(), pos, pos+len, c);
+		if( index >= 0 )
+			return index-pos;
+		index = Math.abs(index+1);
+		return (index-1 >= pos) ? index-1-pos : -1;
+	}
+
+	@Override
+	public int posFIndexGTE(int r, int c) {
+		if( !isTiledRowAccess() )
+			return _csr.posFIndexGTE(r, c);
+		int pos = pos(r);
+		int len = size(r);
+		int index = Arrays.binarySearch(getIndexes(), pos, pos+len, c);
+		if( index >= 0 )
+			return index-pos;
+		index = Math.abs(index+1);
+		return (index < pos+len) ? index-pos : -1;
+	}
+
+	@Override
+	public int posFIndexGT(int r, int c) {
+		if( !isTiledRowAccess() )
+			return _csr.posFIndexGT(r, c);
+		int pos = pos(r);
+		int len = size(r);
+		int index = Arrays.binarySearch(getIndexes(), pos, pos+len, c);
+		if( index >= 0 )
+			return (index+1 < pos+len) ? index+1-pos : -1;
+		index = Math.abs(index+1);
+		return (index < pos+len) ? index-pos : -1;
+	}
+
+	@Override
+	public Iterator<IJV> getIterator() {
+		return getIterator(0, numRows());
+	}
+
+	@Override
+	public Iterator<IJV> getIterator(int ru) {
+		return getIterator(0, ru);
+	}
+
+	@Override
+	public Iterator<IJV> getIterator(int rl, int ru) {
+		if( !isTiled() )
+			return _csr.getIterator(rl, ru);
+		return new TiledIterator(rl, Math.min(ru, numRows()));
+	}
+
+	@Override
+	public SparseBlockCursor getCursor(int rl, int ru) {
+		if( !isTiled() )
+			return _csr.getCursor(rl, ru);
+		return new TiledCursor().reset(rl, ru);
+	}
+
+	@Override
+	public void scatter(int r, double[] c, int cix) {
+		if( !isTiled() ) {
+			_csr.scatter(r, c, cix);
+			return;
+		}
+		int bi = r / _blen;
+		boolean full = isFullTiles();
+		for( int t=_tptr[bi], pos=_ptr[r]; t<_tptr[bi+1]; t++, pos+=_blen ) {
+			int cix2 = cix+_tcol[t]*_blen;
+			if( full )
+				System.arraycopy(_values, pos, c, cix2, tileWidth(t));
+			else
+				for( int j=0; j<tileWidth(t); j++ )
+					if( _values[pos+j] != 0 )
+						c[cix2+j] = _values[pos+j];
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SparseBlockBCSR: rlen=");
+		sb.append(numRows());
+		sb.append(", nnz=");
+		sb.append(size());
+		sb.append(", blen=");
+		sb.append(getTileSize());
+		sb.append("\n");
+		for( int i=0; i<numRows(); i++ ) {
+			sb.append("row +");
+			sb.append(i);
+			sb.append(": ");
+			//append row (w/o converting partially filled tiles)
+			SparseRow row = get(i);
+			int[] aix = row.indexes();
+			double[] avals = row.values();
+			for(int j=0; j<row.size(); j++) {
+				sb.append(aix[j]);
+				sb.append(": ");
+				sb.append(avals[j]);
+				sb.append("\t");
+			}
+			sb.append("\n");
+		}
+
+		return sb.toString();
+	}
+
+	///////////////////////////
+	// private helper methods
+
+	private boolean isTiledRowAccess() {
+		//row-wise access to explicit zeros converts to CSR
+		if( isTiled() && !isFullTiles() )
+			untile(false);
+		return isTiled();
+	}
+
+	private int[] getIndexes() {
+		int[] ret = _indexes;
+		if( ret == null ) {
+			synchronized( this ) {
+				if( (ret = _indexes) == null )
+					_indexes = ret = materializeIndexes();
+			}
+		}
+		return ret;
+	}
+
+	private int[] materializeIndexes() {
+		//note: only called for fully dense tiles
+		int[] ret = new int[_values.length];
+		for( int i=0; i<_ptr.length-1; i++ ) {
+			int bi = i / _blen;
+			for( int t=_tptr[bi], pos=_ptr[i]; t<_tptr[bi+1]; t++ ) {
+				int cix = _tcol[t]*_blen;
+				for( int j=0; j<tileWidth(t); j++ )
+					ret[pos++] = cix + j;
+			}
+		}
+		return ret;
+	}
+
+	private int posTileCell(int r, int c) {
+		int bi = r / _blen;
+		int t = Arrays.binarySearch(_tcol, _tptr[bi], _tptr[bi+1], c / _blen);
+		return (t >= 0) ? _ptr[r] + (t-_tptr[bi])*_blen + c%_blen : -1;
+	}
+
+	/**
+	 * Cursor over the non-zeros of a tiled block, which derives the column
+	 * indexes from the tile columns instead of materialized column indexes.
+	 * Since the cells of a tile row are contiguous, the columns are derived
+	 * incrementally, while explicitly stored zeros are skipped.
+	 */
+	private class TiledCursor extends SparseBlockCursor
+	{
+		private int _ru = 0;   //row upper
+		private int _row = -1; //current row
+		private int _pos = 0;  //current position
+		private int _end = 0;  //end position of current row
+		private int _tix = 0;  //current tile
+		private int _col = 0;  //current column
+		private int _tend = 0; //end column of current tile
+
+		@Override
+		public SparseBlockCursor reset(int rl, int ru) {
+			_ru = Math.min(ru, numRows());
+			_row = rl - 1;
+			_pos = _end = 0;
+			return this;
+		}
+
+		@Override
+		public boolean next() {
+			while( nextCell() )
+				if( _values[_pos] != 0 )
+					return true;
+			return false;
+		}
+
+		@Override
+		public int getRow() {
+			return _row;
+		}
+
+		@Override
+		public int getCol() {
+			return _col;
+		}
+
+		@Override
+		public double getValue() {
+			return _values[_pos];
+		}
+
+		private boolean nextCell() {
+			if( ++_pos < _end ) {
+				if( ++_col == _tend )
+					setTile(_tix + 1);
+				return true;
+			}
+			while( ++_row < _ru ) {
+				if( _ptr[_row+1] == _ptr[_row] ) continue;
+				_pos = _ptr[_row];
+				_end = _ptr[_row+1];
+				setTile(_tptr[_row/_blen]);
+				return true;
+			}
+			_row = _ru;
+			return false;
+		}
+
+		private void setTile(int t) {
+			_tix = t;
+			_col = _tcol[t] * _blen;
+			_tend = _col + tileWidth(t);
+		}
+	}
+
+	/**
+	 * IJV iterator over the non-zeros of a tiled block, implemented
+	 * via a tiled cursor with one cell of lookahead.
+	 */
+	private class TiledIterator implements Iterator<IJV>
+	{
+		private final TiledCursor _cursor;
+		private final IJV _retijv = new IJV(); //reuse output tuple
+		private boolean _hasNext;
+
+		protected TiledIterator(int rl, int ru) {
+			_cursor = new TiledCursor();
+			_cursor.reset(rl, ru);
+			_hasNext = _cursor.next();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return _hasNext;
+		}
+
+		@Override
+		public IJV next() {
+			_retijv.set(_cursor.getRow(), _cursor.getCol(), _cursor.getValue());
+			_hasNext = _cursor.next();
+			return _retijv;
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("TiledIterator is unsupported!");
+		}
+	}
+
+	private synchronized void untile(boolean release) {
+		if( isTiled() ) {
+			int nnz = (int) size();
+			if( isFullTiles() ) //shallow CSR over tile arrays
+				_csr = new SparseBlockCSR(_ptr, getIndexes(), _values, nnz);
+			else { //compact CSR w/o explicit zeros
+				int[] indexes = new int[nnz];
+				double[] values = new double[nnz];
+				for( int i=0, pos=0; i<_ptr.length-1; i++ ) {
+					int bi = i / _blen;
+					for( int t=_tptr[bi], tpos=_ptr[i]; t<_tptr[bi+1]; t++, tpos+=_blen ) {
+						int cix = _tcol[t]*_blen;
+						for( int j=0; j<tileWidth(t); j++ )
+							if( _values[tpos+j] != 0 ) {
+								indexes[pos] = cix + j;
+								values[pos++] = _values[tpos+j];
+							}
+					}
+				}
+				_csr = new SparseBlockCSR(_nnz.clone(), indexes, values, nnz);
+			}
+		}
+		//release tile arrays on updates (on reads, concurrent
+		//tile-wise readers might still access the tile arrays)
+		if( release ) {
+			_ptr = null;
+			_nnz = null;
+			_tptr = null;
+			_tcol = null;
+			_values = null;
+			_indexes = null;
+		}
+	}
+}
@@ -596,6 +596,17 @@ public class SparseBlockCOO extends SparseBlock
 		return new SparseBlockCOOIterator(pos(rl), pos(ru));
 	}
 
+	@Override
+	public SparseBlockCursor getCursor(int rl, int ru) {
+		return new SparseBlockCOOCursor().reset(rl, ru);
+	}
+	
+	@Override
+	public void scatter(int r, double[] c, int cix) {
+		for( int k=pos(r); k<_size && _rindexes[k]==r; k++ )
+			c[cix+_cindexes[k]] = _values[k];
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -727,6 +738,47 @@ public class SparseBlockCOO extends SparseBlock
 		}		
 	}
 	
+	/**
+	 * Custom sparse block COO cursor implemented against the flat
+	 * SparseBlockCOO arrays in order to avoid unnecessary binary 
+	 * search for row locations and lengths.
+	 */
+	private class SparseBlockCOOCursor extends SparseBlockCursor
+	{
+		private int _pos = -1; //current nnz position
+		private int _end = 0; //upper nnz position (exclusive)
+		
+		@Override
+		public SparseBlockCursor reset(int rl, int ru) {
+			_pos = pos(rl) - 1;
+			_end = (ru >= _rlen) ? _size : pos(ru);
+			return this;
+		}
+		
+		@Override
+		public boolean next() {
+			if( ++_pos < _end )
+				return true;
+			_pos = _end;
+			return false;
+		}
+		
+		@Override
+		public int getRow() {
+			return _rindexes[_pos];
+		}
+		
+		@Override
+		public int getCol() {
+			return _cindexes[_pos];
+		}
+		
+		@Override
+		public double getValue() {
+			return _values[_pos];
+		}
+	}
+	
 	/**
 	 * Get raw access to underlying array of row indices
 	 * For use in GPU code
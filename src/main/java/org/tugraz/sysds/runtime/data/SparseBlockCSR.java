@@ -851,6 +851,19 @@ public class SparseBlockCSR extends SparseBlock
 		return (index < pos+len) ? index : -1;
 	}
 	
+	@Override
+	public SparseBlockCursor getCursor(int rl, int ru) {
+		return new SparseBlockCSRCursor().reset(rl, ru);
+	}
+	
+	@Override
+	public void scatter(int r, double[] c, int cix) {
+		final int[] aix = _indexes;
+		final double[] avals = _values;
+		for( int k=_ptr[r]; k<_ptr[r+1]; k++ )
+			c[cix+aix[k]] = avals[k];
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -929,6 +942,53 @@ public class SparseBlockCSR extends SparseBlock
 		return true;
 	}
 
+	/**
+	 * Custom sparse block CSR cursor implemented against the flat
+	 * SparseBlockCSR arrays, where row boundaries are derived from 
+	 * the row pointers instead of per-row accessor calls.
+	 */
+	private class SparseBlockCSRCursor extends SparseBlockCursor
+	{
+		private int _row = 0; //current row
+		private int _pos = -1; //current nnz position
+		private int _end = 0; //upper nnz position (exclusive)
+		
+		@Override
+		public SparseBlockCursor reset(int rl, int ru) {
+			ru = Math.min(ru, numRows());
+			_row = rl;
+			_pos = _ptr[Math.min(rl, ru)] - 1;
+			_end = _ptr[ru];
+			return this;
+		}
+		
+		@Override
+		public boolean next() {
+			if( ++_pos >= _end ) {
+				_pos = _end;
+				return false;
+			}
+			while( _pos >= _ptr[_row+1] )
+				_row++;
+			return true;
+		}
+		
+		@Override
+		public int getRow() {
+			return _row;
+		}
+		
+		@Override
+		public int getCol() {
+			return _indexes[_pos];
+		}
+		
+		@Override
+		public double getValue() {
+			return _values[_pos];
+		}
+	}
+	
 	///////////////////////////
 	// private helper methods
 	
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.data;
+
+/**
+ * Reusable cursor over the non-zero cells of a sparse block in row-major
+ * order. In contrast to IJV iterators, a cursor exposes the row, column,
+ * and value of the current cell via primitive accessors, and can be reset
+ * to other row ranges of the same sparse block without allocation. 
+ * Typical usage:
+ * <pre>
+ * SparseBlockCursor cur = sblock.getCursor(rl, ru);
+ * while( cur.next() )
+ *   consume(cur.getRow(), cur.getCol(), cur.getValue());
+ * </pre>
+ * Note that cursors are not safe under concurrent updates of the 
+ * underlying sparse block.
+ */
+public abstract class SparseBlockCursor 
+{
+	/**
+	 * Resets the cursor to the position before the first non-zero
+	 * cell of the row range [rl, ru).
+	 * 
+	 * @param rl inclusive lower row index starting at 0
+	 * @param ru exclusive upper row index starting at 0
+	 * @return this cursor
+	 */
+	public abstract SparseBlockCursor reset(int rl, int ru);
+	
+	/**
+	 * Advances the cursor to the next non-zero cell.
+	 * 
+	 * @return true if the cursor points to a valid cell, false at the end
+	 */
+	public abstract boolean next();
+	
+	/**
+	 * Get the row index of the current cell.
+	 * 
+	 * @return row index starting at 0
+	 */
+	public abstract int getRow();
+	
+	/**
+	 * Get the column index of the current cell.
+	 * 
+	 * @return column index starting at 0
+	 */
+	public abstract int getCol();
+	
+	/**
+	 * Get the value of the current cell.
+	 * 
+	 * @return value
+	 */
+	public abstract double getValue();
+}
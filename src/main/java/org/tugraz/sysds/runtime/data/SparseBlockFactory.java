@@ -36,6 +36,7 @@ public abstract class SparseBlockFactory
 			case MCSR: return new SparseBlockMCSR(rlen, -1);
 			case CSR: return new SparseBlockCSR(rlen);
 			case COO: return new SparseBlockCOO(rlen);
+			case BCSR: return new SparseBlockBCSR(rlen);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -63,6 +64,7 @@ public abstract class SparseBlockFactory
 			case MCSR: return new SparseBlockMCSR(sblock);
 			case CSR: return new SparseBlockCSR(sblock);
 			case COO: return new SparseBlockCOO(sblock);
+			case BCSR: return new SparseBlockBCSR(sblock);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -75,7 +77,8 @@ public abstract class SparseBlockFactory
 	public static SparseBlock.Type getSparseBlockType(SparseBlock sblock) {
 		return (sblock instanceof SparseBlockMCSR) ? SparseBlock.Type.MCSR :
 			(sblock instanceof SparseBlockCSR) ? SparseBlock.Type.CSR : 
-			(sblock instanceof SparseBlockCOO) ? SparseBlock.Type.COO : null;
+			(sblock instanceof SparseBlockCOO) ? SparseBlock.Type.COO :
+			(sblock instanceof SparseBlockBCSR) ? SparseBlock.Type.BCSR : null;
 	}
 
 	public static long estimateSizeSparseInMemory(SparseBlock.Type type, long nrows, long ncols, double sparsity) {
@@ -83,6 +86,7 @@ public abstract class SparseBlockFactory
 			case MCSR: return SparseBlockMCSR.estimateMemory(nrows, ncols, sparsity);
 			case CSR: return SparseBlockCSR.estimateMemory(nrows, ncols, sparsity);
 			case COO: return SparseBlockCOO.estimateMemory(nrows, ncols, sparsity);
+			case BCSR: return SparseBlockBCSR.estimateMemory(nrows, ncols, sparsity);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
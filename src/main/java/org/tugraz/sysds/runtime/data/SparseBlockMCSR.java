@@ -403,6 +403,22 @@ public class SparseBlockMCSR extends SparseBlock
 		return ((SparseRowVector)_rows[r]).searchIndexesFirstGT(c);
 	}
 	
+	@Override
+	public SparseBlockCursor getCursor(int rl, int ru) {
+		return new SparseBlockMCSRCursor().reset(rl, ru);
+	}
+	
+	@Override
+	public void scatter(int r, double[] c, int cix) {
+		SparseRow row = _rows[r];
+		if( row == null ) return;
+		final int alen = row.size();
+		final int[] aix = row.indexes();
+		final double[] avals = row.values();
+		for( int k=0; k<alen; k++ )
+			c[cix+aix[k]] = avals[k];
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -422,6 +438,60 @@ public class SparseBlockMCSR extends SparseBlock
 		return sb.toString();
 	}
 	
+	/**
+	 * Custom sparse block MCSR cursor implemented against the sparse 
+	 * rows in order to avoid repeated per-row accessor calls.
+	 */
+	private class SparseBlockMCSRCursor extends SparseBlockCursor
+	{
+		private int _ru = 0; //row upper
+		private int _row = -1; //current row
+		private int _pos = 0; //current position
+		private int _end = 0; //size of current row
+		private int[] _aix = null;
+		private double[] _avals = null;
+		
+		@Override
+		public SparseBlockCursor reset(int rl, int ru) {
+			_ru = Math.min(ru, _rows.length);
+			_row = rl - 1;
+			_pos = _end = 0;
+			return this;
+		}
+		
+		@Override
+		public boolean next() {
+			if( ++_pos < _end )
+				return true;
+			while( ++_row < _ru ) {
+				SparseRow row = _rows[_row];
+				if( row == null || row.isEmpty() ) continue;
+				_pos = 0;
+				_end = row.size();
+				_aix = row.indexes();
+				_avals = row.values();
+				return true;
+			}
+			_row = _ru;
+			return false;
+		}
+		
+		@Override
+		public int getRow() {
+			return _row;
+		}
+		
+		@Override
+		public int getCol() {
+			return _aix[_pos];
+		}
+		
+		@Override
+		public double getValue() {
+			return _avals[_pos];
+		}
+	}
+	
 	/**
 	 * Helper function for MCSR -&gt; {COO, CSR}
 	 * @return the underlying array of {@link SparseRow}
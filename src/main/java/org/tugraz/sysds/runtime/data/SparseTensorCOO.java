@@ -0,0 +1,364 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * N-dimensional sparse tensor in coordinate format (COO) with sorted
+ * linearized keys, i.e., every non-zero cell is stored as its row-major
+ * linear index over all dimensions and its value. In contrast to sparse
+ * blocks, which interpret dimension 0 as rows and all remaining dimensions
+ * as columns, this representation is independent of the number of
+ * dimensions, supports random access via binary search, and maps slices
+ * along the leading dimensions to contiguous key ranges. The nnz is
+ * limited to Integer.MAX_VALUE, and the number of cells to Long.MAX_VALUE.
+ */
+public class SparseTensorCOO implements Serializable
+{
+	private static final long serialVersionUID = -2316383733960164407L;
+
+	private int[] _dims = null;      //tensor dimensions
+	private long[] _strides = null;  //row-major strides per dimension
+	private long[] _keys = null;     //sorted linearized indexes (size: >=nnz)
+	private double[] _values = null; //value array (size: >=nnz)
+	private int _size = 0;           //actual number of nnz
+
+	public SparseTensorCOO(int[] dims) {
+		this(dims, SparseBlock.INIT_CAPACITY);
+	}
+
+	public SparseTensorCOO(int[] dims, int capacity) {
+		setDims(dims);
+		_keys = new long[capacity];
+		_values = new double[capacity];
+		_size = 0;
+	}
+
+	/**
+	 * Copy constructor of sparse tensors.
+	 *
+	 * @param that sparse tensor to copy
+	 */
+	public SparseTensorCOO(SparseTensorCOO that) {
+		_dims = that._dims.clone();
+		_strides = that._strides.clone();
+		_keys = Arrays.copyOf(that._keys, that._size);
+		_values = Arrays.copyOf(that._values, that._size);
+		_size = that._size;
+	}
+
+	/**
+	 * Resets the sparse tensor to the given dimensions and clears all
+	 * non-zeros, while reusing the allocated arrays if possible.
+	 *
+	 * @param dims number and size of dimensions
+	 * @param estnnz estimated number of non-zeros, -1 if unknown
+	 */
+	public void reset(int[] dims, long estnnz) {
+		setDims(dims);
+		if( estnnz > _keys.length ) {
+			int cap = (int) Math.min(estnnz, Integer.MAX_VALUE);
+			_keys = new long[cap];
+			_values = new double[cap];
+		}
+		_size = 0;
+	}
+
+	private void setDims(int[] dims) {
+		_dims = dims.clone();
+		_strides = new long[dims.length];
+		long stride = 1;
+		for( int i=dims.length-1; i>=0; i-- ) {
+			_strides[i] = stride;
+			try {
+				stride = Math.multiplyExact(stride, Math.max(dims[i], 1));
+			}
+			catch(ArithmeticException ex) {
+				throw new DMLRuntimeException("SparseTensorCOO supports up to Long.MAX_VALUE "
+					+ "cells but got dims "+Arrays.toString(dims)+".");
+			}
+		}
+	}
+
+	////////
+	// Basic meta data
+
+	public int[] getDims() {
+		return _dims;
+	}
+
+	public int numDims() {
+		return _dims.length;
+	}
+
+	/**
+	 * Get the number of non-zero values.
+	 *
+	 * @return number of non-zeros
+	 */
+	public int size() {
+		return _size;
+	}
+
+	public boolean isEmpty() {
+		return _size == 0;
+	}
+
+	public long capacity() {
+		return _values.length;
+	}
+
+	/**
+	 * Get the sorted linearized indexes of all non-zeros, where only the
+	 * first size() entries are valid.
+	 *
+	 * @return key array
+	 */
+	public long[] keys() {
+		return _keys;
+	}
+
+	/**
+	 * Get the values of all non-zeros aligned with keys(), where only
+	 * the first size() entries are valid.
+	 *
+	 * @return value array
+	 */
+	public double[] values() {
+		return _values;
+	}
+
+	/**
+	 * Computes the row-major linear index of the given cell.
+	 *
+	 * @param ix cell index, one entry per dimension
+	 * @return linearized index
+	 */
+	public long linearize(int[] ix) {
+		long key = 0;
+		for( int i=0; i<_dims.length; i++ )
+			key += ix[i] * _strides[i];
+		return key;
+	}
+
+	/**
+	 * Computes the cell index of the given row-major linear index.
+	 *
+	 * @param key linearized index
+	 * @param ix output cell index, one entry per dimension
+	 */
+	public void delinearize(long key, int[] ix) {
+		for( int i=0; i<_dims.length; i++ ) {
+			ix[i] = (int) (key / _strides[i]);
+			key -= ix[i] * _strides[i];
+		}
+	}
+
+	/**
+	 * Get the position of the first non-zero with a key greater than
+	 * or equal to the given key.
+	 *
+	 * @param key linearized index
+	 * @return position in [0, size()]
+	 */
+	public int posFIndexGTE(long key) {
+		int pos = Arrays.binarySearch(_keys, 0, _size, key);
+		return (pos >= 0) ? pos : -pos-1;
+	}
+
+	////////
+	// Basic access and modification
+
+	public double get(int[] ix) {
+		return get(linearize(ix));
+	}
+
+	public double get(long key) {
+		int pos = Arrays.binarySearch(_keys, 0, _size, key);
+		return (pos >= 0) ? _values[pos] : 0;
+	}
+
+	/**
+	 * Sets the value of the given cell, and removes zeros.
+	 *
+	 * @param ix cell index, one entry per dimension
+	 * @param v value
+	 * @return true if the number of non-zeros changed
+	 */
+	public boolean set(int[] ix, double v) {
+		return set(linearize(ix), v);
+	}
+
+	/**
+	 * Sets the value of the given linearized cell, and removes zeros.
+	 *
+	 * @param key linearized index
+	 * @param v value
+	 * @return true if the number of non-zeros changed
+	 */
+	public boolean set(long key, double v) {
+		//fast path for appends in key order
+		if( _size == 0 || key > _keys[_size-1] ) {
+			if( v == 0 )
+				return false;
+			appendNoCheck(key, v);
+			return true;
+		}
+		int pos = Arrays.binarySearch(_keys, 0, _size, key);
+		if( pos >= 0 ) { //existing non-zero
+			if( v != 0 ) {
+				_values[pos] = v;
+				return false;
+			}
+			//delete and shift remaining entries
+			System.arraycopy(_keys, pos+1, _keys, pos, _size-pos-1);
+			System.arraycopy(_values, pos+1, _values, pos, _size-pos-1);
+			_size--;
+			return true;
+		}
+		else if( v != 0 ) { //insert and shift remaining entries
+			pos = -pos-1;
+			if( _size >= _values.length )
+				resize();
+			System.arraycopy(_keys, pos, _keys, pos+1, _size-pos);
+			System.arraycopy(_values, pos, _values, pos+1, _size-pos);
+			_keys[pos] = key;
+			_values[pos] = v;
+			_size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Appends a non-zero value, which is efficient for construction
+	 * in key order, but falls back to a regular set otherwise.
+	 *
+	 * @param key linearized index
+	 * @param v value
+	 */
+	public void append(long key, double v) {
+		if( v == 0 )
+			return;
+		if( _size > 0 && key <= _keys[_size-1] )
+			set(key, v);
+		else
+			appendNoCheck(key, v);
+	}
+
+	private void appendNoCheck(long key, double v) {
+		if( _size >= _values.length )
+			resize();
+		_keys[_size] = key;
+		_values[_size] = v;
+		_size++;
+	}
+
+	/**
+	 * Removes all explicitly stored zeros, for example, after in-place
+	 * operations over the value array.
+	 */
+	public void compact() {
+		int pos = 0;
+		for( int i=0; i<_size; i++ )
+			if( _values[i] != 0 ) {
+				_keys[pos] = _keys[i];
+				_values[pos] = _values[i];
+				pos++;
+			}
+		_size = pos;
+	}
+
+	/**
+	 * Extracts the slice of all cells within the given lower and upper
+	 * bounds (inclusive) per dimension. The candidate non-zeros are
+	 * restricted to the contiguous key range of the bounding cells.
+	 *
+	 * @param lower lower bounds per dimension, inclusive
+	 * @param upper upper bounds per dimension, inclusive
+	 * @return sparse tensor of dims upper-lower+1
+	 */
+	public SparseTensorCOO slice(int[] lower, int[] upper) {
+		int[] odims = new int[_dims.length];
+		for( int i=0; i<_dims.length; i++ )
+			odims[i] = upper[i] - lower[i] + 1;
+		SparseTensorCOO ret = new SparseTensorCOO(odims);
+		int[] ix = new int[_dims.length];
+		int[] oix = new int[_dims.length];
+		int pu = posFIndexGTE(linearize(upper) + 1);
+		for( int p=posFIndexGTE(linearize(lower)); p<pu; p++ ) {
+			delinearize(_keys[p], ix);
+			boolean inside = true;
+			for( int i=0; i<_dims.length && inside; i++ ) {
+				inside = (ix[i] >= lower[i] && ix[i] <= upper[i]);
+				oix[i] = ix[i] - lower[i];
+			}
+			if( inside ) //appends in key order
+				ret.appendNoCheck(ret.linearize(oix), _values[p]);
+		}
+		return ret;
+	}
+
+	private void resize() {
+		//compute new size
+		double tmpCap = Math.ceil(Math.max(_values.length, 1) * SparseBlock.RESIZE_FACTOR1);
+		int newCap = (int)Math.min(tmpCap, Integer.MAX_VALUE);
+		_keys = Arrays.copyOf(_keys, newCap);
+		_values = Arrays.copyOf(_values, newCap);
+	}
+
+	////////
+	// Size estimation
+
+	/**
+	 * Estimates the in-memory size of a sparse tensor in COO format.
+	 *
+	 * @param numDims number of dimensions
+	 * @param nnz number of non-zeros
+	 * @return estimated size in bytes
+	 */
+	public static long estimateSizeInMemory(int numDims, long nnz) {
+		//object, 4 arrays, size, dims and strides, keys and values
+		double size = 16 + 4 * 8 + 4;
+		size += 16 + 4 * numDims + 16 + 8 * numDims;
+		size += 2 * 16 + Math.max(nnz, SparseBlock.INIT_CAPACITY) * (8d + 8d);
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SparseTensorCOO: dims=");
+		sb.append(Arrays.toString(_dims));
+		sb.append(", nnz=");
+		sb.append(_size);
+		sb.append("\n");
+		int[] ix = new int[_dims.length];
+		for( int i=0; i<_size; i++ ) {
+			delinearize(_keys[i], ix);
+			sb.append(Arrays.toString(ix));
+			sb.append(": ");
+			sb.append(_values[i]);
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+}
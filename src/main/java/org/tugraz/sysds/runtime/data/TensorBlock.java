@@ -17,9 +17,14 @@
 package org.tugraz.sysds.runtime.data;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.matrix.operators.BinaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
 
 public class TensorBlock implements Serializable
@@ -29,7 +34,6 @@ public class TensorBlock implements Serializable
 	public static final double SPARSITY_TURN_POINT = 0.4;
 	public static final ValueType DEFAULT_VTYPE = ValueType.FP64;
 	public static final int[] DEFAULT_DIMS = new int[]{0, 0};
-	public static final SparseBlock.Type DEFAULT_SPARSEBLOCK = SparseBlock.Type.MCSR;
 	
 	//constant value type of tensor block
 	protected final ValueType _vt;
@@ -39,9 +43,9 @@ public class TensorBlock implements Serializable
 	protected boolean _sparse = true;
 	protected long _nnz = 0;
 	
-	//matrix data (sparse or dense)
+	//tensor data (sparse or dense)
 	protected DenseBlock _denseBlock = null;
-	protected SparseBlock _sparseBlock = null;
+	protected SparseTensorCOO _sparseBlock = null;
 	
 	public TensorBlock() {
 		this(DEFAULT_VTYPE, DEFAULT_DIMS.clone(), true, -1);
@@ -71,7 +75,7 @@ public class TensorBlock implements Serializable
 	}
 	
 	public TensorBlock(int[] dims, ValueType vt, double val) {
-		_vt = DEFAULT_VTYPE;
+		_vt = vt;
 		_dims = dims;
 		reset(dims, false, (val==0) ? 0 : getLength(), val);
 	}
@@ -117,29 +121,29 @@ public class TensorBlock implements Serializable
 				throw new DMLRuntimeException("Invalid "+i+"th dimensions: "+dims[i]);
 		
 		//reset basic meta data
+		//(non-zero initialization values always require dense blocks)
 		_dims = dims;
-		_sparse = sp;
+		_sparse = sp && (val == 0);
 		_nnz = (val == 0) ? 0 : getLength();
 		
 		//reset sparse/dense blocks
 		if( _sparse )
-			resetSparse();
+			resetSparse(estnnz);
 		else
 			resetDense(val);
 	}
 	
-	private void resetSparse() {
+	private void resetSparse(long estnnz) {
 		if(_sparseBlock == null)
 			return;
-		//TODO simplify estimated non-zeros
-		_sparseBlock.reset(-1, getDim(2));
+		_sparseBlock.reset(_dims, estnnz);
 	}
 	
 	private void resetDense(double val) {
 		//handle to dense block allocation and
 		//reset dense block to given value
 		if( _denseBlock != null )
-			_denseBlock.reset(getDim(0), getDim(1), val);
+			_denseBlock.reset(_dims, val);
 		else if( val != 0 ) {
 			allocateDenseBlock(false);
 			_denseBlock.set(val);
@@ -168,9 +172,9 @@ public class TensorBlock implements Serializable
 		long limit = getLength();
 		boolean reset = (_denseBlock == null || _denseBlock.capacity() < limit);
 		if( _denseBlock == null )
-			_denseBlock = DenseBlockFactory.createDenseBlock(getDim(0), getDim(1));
+			_denseBlock = DenseBlockFactory.createDenseBlock(_vt, _dims);
 		else if( _denseBlock.capacity() < limit )
-			_denseBlock.reset(getDim(0), getDim(1));
+			_denseBlock.reset(_dims);
 		
 		//clear nnz if necessary
 		if( clearNNZ )
@@ -185,16 +189,16 @@ public class TensorBlock implements Serializable
 	}
 
 	public boolean allocateSparseBlock(boolean clearNNZ) {
-		//allocate block if non-existing or too small (guaranteed to be 0-initialized)
-		//but do not replace existing block even if not in default type
-		boolean reset = _sparseBlock == null || _sparseBlock.numRows()<getDim(0);
-		if( reset ) {
-			_sparseBlock = SparseBlockFactory
-				.createSparseBlock(DEFAULT_SPARSEBLOCK, getDim(0));
-		}
+		//allocate block if non-existing (guaranteed to be 0-initialized)
+		boolean reset = (_sparseBlock == null);
+		if( reset )
+			_sparseBlock = new SparseTensorCOO(_dims);
+		else if( !Arrays.equals(_sparseBlock.getDims(), _dims) )
+			_sparseBlock.reset(_dims, -1);
 		//clear nnz if necessary
 		if( clearNNZ )
 			_nnz = 0;
+		_sparse = true;
 		
 		return reset;
 	}
@@ -257,7 +261,7 @@ public class TensorBlock implements Serializable
 		if( _nnz==0 ) {
 			//prevent under-estimation
 			if(safe)
-				//TODO recomputeNonZeros();
+				recomputeNonZeros();
 			ret = (_nnz==0);
 		}
 		return ret;
@@ -267,38 +271,413 @@ public class TensorBlock implements Serializable
 		return _denseBlock;
 	}
 	
-	public SparseBlock getSparseBlock() {
+	public SparseTensorCOO getSparseBlock() {
 		return _sparseBlock;
 	}
 	
+	public long recomputeNonZeros() {
+		if( _sparse && _sparseBlock != null )
+			_nnz = _sparseBlock.size();
+		else if( !_sparse && _denseBlock != null )
+			_nnz = _denseBlock.countNonZeros();
+		else
+			_nnz = 0;
+		return _nnz;
+	}
+	
 	////////
 	// Basic modification
 	
 	public double get(int[] ix) {
-		return -1; //TODO get
+		if( _sparse )
+			return (_sparseBlock != null) ? _sparseBlock.get(ix) : 0;
+		return (_denseBlock != null) ? _denseBlock.get(ix) : 0;
 	}
 	
 	public void set(int[] ix, double v) {
-		//TODO set
+		if( _sparse ) {
+			if( _sparseBlock == null ) {
+				if( v == 0 ) return;
+				allocateSparseBlock(false);
+			}
+			long size = _sparseBlock.size();
+			_sparseBlock.set(ix, castToValueType(v));
+			_nnz += _sparseBlock.size() - size;
+		}
+		else {
+			if( _denseBlock == null ) {
+				if( v == 0 ) return;
+				allocateDenseBlock(false);
+			}
+			boolean old = (_denseBlock.get(ix) != 0);
+			_denseBlock.set(ix, v);
+			_nnz += (_denseBlock.get(ix) != 0 ? 1 : 0) - (old ? 1 : 0);
+		}
+	}
+	
+	/**
+	 * Casts the given value to the value type of this tensor, which
+	 * ensures consistent values in sparse and dense tensors.
+	 * 
+	 * @param v value
+	 * @return value of the tensor's value type
+	 */
+	private double castToValueType(double v) {
+		switch( _vt ) {
+			case FP32: return (float) v;
+			case INT32: return UtilFunctions.toInt(v);
+			case INT64: return UtilFunctions.toLong(v);
+			case BOOLEAN: return (v != 0) ? 1 : 0;
+			case FP16: return UtilFunctions.fromFP16(UtilFunctions.toFP16((float)v));
+			case BF16: return UtilFunctions.fromBF16(UtilFunctions.toBF16((float)v));
+			case INT8: return UtilFunctions.toInt8(v);
+			default: return v;
+		}
 	}
 	
 	private void copy(TensorBlock that) {
 		_dims = that._dims.clone();
 		_sparse = that._sparse;
-		allocateBlock();
 		_nnz = that._nnz;
-		
-		
-		// TODO Auto-generated method stub copy
+		if( _sparse && that._sparseBlock != null )
+			_sparseBlock = new SparseTensorCOO(that._sparseBlock);
+		else if( !_sparse && that._denseBlock != null ) {
+			allocateDenseBlock(false);
+			_denseBlock.set(that._denseBlock);
+		}
+	}
+	
+	////////
+	// Format conversion
+	
+	/**
+	 * Evaluates if this tensor block should be in sparse format, and
+	 * converts it accordingly.
+	 */
+	public void examSparsity() {
+		boolean sparseDst = evalSparseFormatInMemory(_vt, _dims, _nnz);
+		if( _sparse && !sparseDst )
+			sparseToDense();
+		else if( !_sparse && sparseDst )
+			denseToSparse();
+	}
+	
+	public void sparseToDense() {
+		if( !_sparse )
+			return;
+		SparseTensorCOO a = _sparseBlock;
+		_sparseBlock = null;
+		allocateDenseBlock(false);
+		if( a == null || a.isEmpty() )
+			return;
+		long[] keys = a.keys();
+		double[] vals = a.values();
+		long rowlen = getLength() / Math.max(getDim(0), 1);
+		for( int i=0; i<a.size(); i++ )
+			_denseBlock.set((int)(keys[i] / rowlen), (int)(keys[i] % rowlen), vals[i]);
+	}
+	
+	public void denseToSparse() {
+		if( _sparse )
+			return;
+		DenseBlock a = _denseBlock;
+		_denseBlock = null;
+		_sparseBlock = null;
+		allocateSparseBlock(false);
+		if( a == null || _nnz == 0 )
+			return;
+		_sparseBlock.reset(_dims, _nnz);
+		final int rlen = getDim(0);
+		final int rowlen = (int)(getLength() / Math.max(rlen, 1));
+		for( int i=0; i<rlen; i++ )
+			for( int j=0; j<rowlen; j++ )
+				_sparseBlock.append((long)i * rowlen + j, a.get(i, j));
+	}
+	
+	////////
+	// Operations
+	
+	/**
+	 * Elementwise scalar operation, which is applied to the non-zeros
+	 * only, if the tensor is sparse and op(0)=0.
+	 * 
+	 * @param op scalar operator
+	 * @return output tensor of the same value type and dims
+	 */
+	public TensorBlock scalarOperations(ScalarOperator op) {
+		boolean sparseSafe = (op.executeScalar(0) == 0);
+		TensorBlock ret = new TensorBlock(_vt, _dims.clone(), _sparse && sparseSafe);
+		if( _sparse && sparseSafe ) {
+			if( isEmpty(false) )
+				return ret;
+			//sparse-safe: operation over non-zero values
+			ret.allocateSparseBlock();
+			ret._sparseBlock.reset(_dims, _nnz);
+			long[] keys = _sparseBlock.keys();
+			double[] vals = _sparseBlock.values();
+			for( int i=0; i<_sparseBlock.size(); i++ )
+				ret._sparseBlock.append(keys[i], ret.castToValueType(op.executeScalar(vals[i])));
+		}
+		else {
+			//sparse-unsafe: operation over all cells
+			ret.allocateDenseBlock();
+			final int rlen = getDim(0);
+			final int rowlen = (int)(getLength() / Math.max(rlen, 1));
+			DenseBlock c = ret._denseBlock;
+			if( _sparse ) {
+				c.set(op.executeScalar(0));
+				if( !isEmpty(false) ) {
+					long[] keys = _sparseBlock.keys();
+					double[] vals = _sparseBlock.values();
+					for( int i=0; i<_sparseBlock.size(); i++ )
+						c.set((int)(keys[i] / rowlen), (int)(keys[i] % rowlen), op.executeScalar(vals[i]));
+				}
+			}
+			else {
+				for( int i=0; i<rlen; i++ )
+					for( int j=0; j<rowlen; j++ )
+						c.set(i, j, op.executeScalar(get(i, j)));
+			}
+		}
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+	
+	/**
+	 * Elementwise binary operation of two tensors with equal dims. If
+	 * both inputs are sparse and op(0,0)=0, the operation is computed
+	 * via a merge of the sorted non-zeros.
+	 * 
+	 * @param op binary operator
+	 * @param that right-hand-side tensor
+	 * @return output tensor of dims of the inputs
+	 */
+	public TensorBlock binaryOperations(BinaryOperator op, TensorBlock that) {
+		if( !Arrays.equals(_dims, that._dims) )
+			throw new DMLRuntimeException("Dimensions mismatch for tensor binary operation: "
+				+ Arrays.toString(_dims) + " vs " + Arrays.toString(that._dims));
+		ValueType vt = (_vt == that._vt) ? _vt : ValueType.FP64;
+		boolean sparseSafe = (op.fn.execute(0, 0) == 0);
+		boolean sparse = _sparse && that._sparse && sparseSafe;
+		TensorBlock ret = new TensorBlock(vt, _dims.clone(), sparse);
+		if( sparse ) {
+			if( isEmpty(false) && that.isEmpty(false) )
+				return ret;
+			//sparse-safe: merge of sorted non-zeros
+			ret.allocateSparseBlock();
+			ret._sparseBlock.reset(_dims, _nnz + that._nnz);
+			SparseTensorCOO a = isEmpty(false) ? new SparseTensorCOO(_dims) : _sparseBlock;
+			SparseTensorCOO b = that.isEmpty(false) ? new SparseTensorCOO(_dims) : that._sparseBlock;
+			long[] akeys = a.keys(), bkeys = b.keys();
+			double[] avals = a.values(), bvals = b.values();
+			int apos = 0, bpos = 0;
+			final int alen = a.size(), blen = b.size();
+			while( apos < alen || bpos < blen ) {
+				long akey = (apos < alen) ? akeys[apos] : Long.MAX_VALUE;
+				long bkey = (bpos < blen) ? bkeys[bpos] : Long.MAX_VALUE;
+				long key = Math.min(akey, bkey);
+				double aval = (akey == key) ? avals[apos++] : 0;
+				double bval = (bkey == key) ? bvals[bpos++] : 0;
+				ret._sparseBlock.append(key, ret.castToValueType(op.fn.execute(aval, bval)));
+			}
+		}
+		else {
+			//sparse-unsafe: operation over all cells
+			ret.allocateDenseBlock();
+			final int rlen = getDim(0);
+			final int rowlen = (int)(getLength() / Math.max(rlen, 1));
+			DenseBlock c = ret._denseBlock;
+			for( int i=0; i<rlen; i++ )
+				for( int j=0; j<rowlen; j++ )
+					c.set(i, j, op.fn.execute(get(i, j), that.get(i, j)));
+		}
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+	
+	/**
+	 * Get the value of the given cell in row-column view, i.e., the row
+	 * refers to dimension 0 and the column to the linearized remaining
+	 * dimensions. For sparse tensors, this requires a binary search.
+	 * 
+	 * @param r row index
+	 * @param c linearized column index
+	 * @return value
+	 */
+	private double get(int r, int c) {
+		if( _sparse ) {
+			if( _sparseBlock == null )
+				return 0;
+			long rowlen = getLength() / Math.max(getDim(0), 1);
+			return _sparseBlock.get(r * rowlen + c);
+		}
+		return (_denseBlock != null) ? _denseBlock.get(r, c) : 0;
+	}
+	
+	public double sum() {
+		if( isEmpty(false) )
+			return 0;
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		if( _sparse ) {
+			double[] vals = _sparseBlock.values();
+			for( int i=0; i<_sparseBlock.size(); i++ )
+				kplus.execute2(kbuff, vals[i]);
+		}
+		else {
+			final int rlen = getDim(0);
+			final int rowlen = (int)(getLength() / Math.max(rlen, 1));
+			for( int i=0; i<rlen; i++ )
+				for( int j=0; j<rowlen; j++ )
+					kplus.execute2(kbuff, _denseBlock.get(i, j));
+		}
+		return kbuff._sum;
+	}
+	
+	public double min() {
+		return minmax(true);
+	}
+	
+	public double max() {
+		return minmax(false);
+	}
+	
+	private double minmax(boolean min) {
+		//implicit zeros of sparse or partially empty tensors
+		double ret = (_nnz < getLength()) ? 0 :
+			(min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+		if( isEmpty(false) )
+			return ret;
+		if( _sparse ) {
+			double[] vals = _sparseBlock.values();
+			for( int i=0; i<_sparseBlock.size(); i++ )
+				ret = min ? Math.min(ret, vals[i]) : Math.max(ret, vals[i]);
+		}
+		else {
+			final int rlen = getDim(0);
+			final int rowlen = (int)(getLength() / Math.max(rlen, 1));
+			for( int i=0; i<rlen; i++ )
+				for( int j=0; j<rowlen; j++ ) {
+					double v = _denseBlock.get(i, j);
+					ret = min ? Math.min(ret, v) : Math.max(ret, v);
+				}
+		}
+		return ret;
+	}
+	
+	/**
+	 * Extracts the slice of all cells within the given lower and upper
+	 * bounds (inclusive) per dimension. Sparse tensors are sliced via
+	 * their contiguous key range, without materialization of zeros.
+	 * 
+	 * @param lower lower bounds per dimension, inclusive
+	 * @param upper upper bounds per dimension, inclusive
+	 * @return output tensor of dims upper-lower+1
+	 */
+	public TensorBlock slice(int[] lower, int[] upper) {
+		if( lower.length != _dims.length || upper.length != _dims.length )
+			throw new DMLRuntimeException("Invalid number of slice dimensions: "+lower.length);
+		int[] odims = new int[_dims.length];
+		for( int i=0; i<_dims.length; i++ ) {
+			if( lower[i] < 0 || upper[i] >= _dims[i] || lower[i] > upper[i] )
+				throw new DMLRuntimeException("Invalid slice bounds for dimension "+i+": ["
+					+lower[i]+","+upper[i]+"] of "+_dims[i]+".");
+			odims[i] = upper[i] - lower[i] + 1;
+		}
+		TensorBlock ret = new TensorBlock(_vt, odims, _sparse);
+		if( isEmpty(false) )
+			return ret;
+		if( _sparse ) {
+			ret._sparseBlock = _sparseBlock.slice(lower, upper);
+			ret._nnz = ret._sparseBlock.size();
+		}
+		else {
+			ret.allocateDenseBlock();
+			int[] ix = lower.clone();
+			int[] oix = new int[odims.length];
+			long len = ret.getLength();
+			for( long k=0; k<len; k++ ) {
+				ret._denseBlock.set(oix, _denseBlock.get(ix));
+				//increment cell index, starting from the last dimension
+				for( int i=odims.length-1; i>=0; i-- ) {
+					if( ++oix[i] < odims[i] ) {
+						ix[i]++;
+						break;
+					}
+					oix[i] = 0;
+					ix[i] = lower[i];
+				}
+			}
+			ret.recomputeNonZeros();
+		}
+		ret.examSparsity();
+		return ret;
 	}
 	
 	////////
 	// Size estimation and format decisions
 	
+	/**
+	 * Evaluates if a tensor block with the given characteristics should
+	 * be in sparse format in memory.
+	 * 
+	 * @param vt value type
+	 * @param dims number and size of dimensions
+	 * @param estnnz estimated number of non-zeros
+	 * @return true if sparse
+	 */
+	public static boolean evalSparseFormatInMemory(ValueType vt, int[] dims, long estnnz) {
+		//evaluate sparsity threshold
+		long len = UtilFunctions.prod(dims);
+		double lsparsity = (len == 0) ? 0 : (double)estnnz / len;
+		boolean lsparse = (lsparsity < SPARSITY_TURN_POINT);
+		
+		//compare size of sparse and dense representation in order to
+		//prevent that the sparse size exceed the dense size
+		double sizeSparse = estimateSizeSparseInMemory(dims, estnnz);
+		double sizeDense = estimateSizeDenseInMemory(vt, dims);
+		return lsparse && (sizeSparse < sizeDense);
+	}
+	
+	public static long estimateSizeDenseInMemory(ValueType vt, int[] dims) {
+		// basic variables and references sizes
+		double size = 44 + 16 + 4 * dims.length;
+		
+		// core dense block (typed array)
+		double len = UtilFunctions.prod(dims);
+		switch( vt ) {
+			case BOOLEAN: size += len / 8; break;
+			case INT8: size += len; break;
+			case FP16:
+			case BF16: size += 2 * len; break;
+			case FP32:
+			case INT32: size += 4 * len; break;
+			default: size += 8 * len;
+		}
+		
+		// robustness for long overflows
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
 	
-	private boolean evalSparseFormatInMemory(int[] dims, long estnnz) {
-		// TODO Auto-generated method stub
-		return false;
+	public static long estimateSizeSparseInMemory(int[] dims, long estnnz) {
+		// basic variables and references sizes
+		double size = 44 + 16 + 4 * dims.length;
+		
+		// core sparse tensor (sorted keys and values)
+		size += SparseTensorCOO.estimateSizeInMemory(dims.length, Math.max(estnnz, 0));
+		
+		// robustness for long overflows
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+	
+	public long getInMemorySize() {
+		return _sparse ? estimateSizeSparseInMemory(_dims, _nnz) :
+			estimateSizeDenseInMemory(_vt, _dims);
 	}
 	
+	private boolean evalSparseFormatInMemory(int[] dims, long estnnz) {
+		return evalSparseFormatInMemory(_vt, dims, (estnnz < 0) ? UtilFunctions.prod(dims) : estnnz);
+	}
 }
@@ -37,6 +37,7 @@ import org.tugraz.sysds.runtime.instructions.cp.BinaryCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.BuiltinNaryCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.CPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.CentralMomentCPInstruction;
+import org.tugraz.sysds.runtime.instructions.cp.CompressionCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.CovarianceCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.CtableCPInstruction;
 import org.tugraz.sysds.runtime.instructions.cp.DataGenCPInstruction;
@@ -198,6 +199,8 @@ public class CPInstructionParser extends InstructionParser
 		String2CPInstructionType.put( "uppertri",       CPType.ParameterizedBuiltin);
 		String2CPInstructionType.put( "rexpand",        CPType.ParameterizedBuiltin);
 		String2CPInstructionType.put( "toString",       CPType.ParameterizedBuiltin);
+		String2CPInstructionType.put( "quantize",       CPType.ParameterizedBuiltin);
+		String2CPInstructionType.put( "dequantize",     CPType.ParameterizedBuiltin);
 		String2CPInstructionType.put( "transformapply", CPType.ParameterizedBuiltin);
 		String2CPInstructionType.put( "transformdecode",CPType.ParameterizedBuiltin);
 		String2CPInstructionType.put( "transformcolmap",CPType.ParameterizedBuiltin);
@@ -421,6 +424,9 @@ public class CPInstructionParser extends InstructionParser
 			case SpoofFused:
 				return SpoofCPInstruction.parseInstruction(str);
 			
+			case Compression:
+				return CompressionCPInstruction.parseInstruction(str);
+			
 			default: 
 				throw new DMLRuntimeException("Invalid CP Instruction Type: " + cptype );
 		}
@@ -22,6 +22,7 @@ package org.tugraz.sysds.runtime.instructions.cp;
 import org.tugraz.sysds.common.Types.DataType;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.tugraz.sysds.runtime.functionobjects.Multiply;
 import org.tugraz.sysds.runtime.functionobjects.Plus;
@@ -63,12 +64,14 @@ public class AggregateBinaryCPInstruction extends BinaryCPInstruction {
 	@Override
 	public void processInstruction(ExecutionContext ec) {
 		//get inputs
-		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName(), getExtendedOpcode());
-		MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName(), getExtendedOpcode());
+		MatrixBlock matBlock1 = ec.getMatrixInputCompressed(input1.getName());
+		MatrixBlock matBlock2 = ec.getMatrixInputCompressed(input2.getName());
 		
-		//compute matrix multiplication
+		//compute matrix multiplication (dispatch to compressed right-hand-side)
 		AggregateBinaryOperator ab_op = (AggregateBinaryOperator) _optr;
-		MatrixBlock ret = matBlock1.aggregateBinaryOperations(matBlock1, matBlock2, new MatrixBlock(), ab_op);
+		MatrixBlock ret = (matBlock2 instanceof CompressedMatrixBlock) ?
+			matBlock2.aggregateBinaryOperations(matBlock1, matBlock2, new MatrixBlock(), ab_op) :
+			matBlock1.aggregateBinaryOperations(matBlock1, matBlock2, new MatrixBlock(), ab_op);
 		
 		//release inputs/outputs
 		ec.releaseMatrixInput(input1.getName(), getExtendedOpcode());
@@ -19,20 +19,35 @@
 
 package org.tugraz.sysds.runtime.instructions.cp;
 
+import java.io.IOException;
+import java.util.ArrayList;
+
 import org.tugraz.sysds.api.DMLScript;
 import org.tugraz.sysds.common.Types.ExecMode;
 import org.tugraz.sysds.common.Types.DataType;
+import org.tugraz.sysds.hops.OptimizerUtils;
+import org.tugraz.sysds.lops.PartialAggregate.CorrectionLocationType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData.CacheStatus;
+import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.ReduceCol;
+import org.tugraz.sysds.runtime.functionobjects.ReduceDiag;
 import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.tugraz.sysds.runtime.io.ReaderTextCSVStream;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
+import org.tugraz.sysds.runtime.matrix.data.OperationsOnMatrixValues;
+import org.tugraz.sysds.runtime.matrix.operators.AggregateOperator;
 import org.tugraz.sysds.runtime.matrix.operators.AggregateUnaryOperator;
 import org.tugraz.sysds.runtime.matrix.operators.Operator;
 import org.tugraz.sysds.runtime.matrix.operators.SimpleOperator;
 import org.tugraz.sysds.runtime.meta.MatrixCharacteristics;
+import org.tugraz.sysds.runtime.meta.MetaDataFormat;
 
 public class AggregateUnaryCPInstruction extends UnaryCPInstruction
 {
@@ -46,6 +61,9 @@ public class AggregateUnaryCPInstruction extends UnaryCPInstruction
 	
 	private final AUType _type;
 	
+	//streaming aggregation of csv inputs (single aggregate consumer)
+	private boolean _streaming = false;
+	
 	private AggregateUnaryCPInstruction(Operator op, CPOperand in, CPOperand out, AUType type, String opcode, String istr) {
 		this(op, in, null, null, out, type, opcode, istr);
 	}
@@ -70,7 +88,10 @@ public class AggregateUnaryCPInstruction extends UnaryCPInstruction
 		else { //DEFAULT BEHAVIOR
 			AggregateUnaryOperator aggun = InstructionUtils
 				.parseBasicAggregateUnaryOperator(opcode, Integer.parseInt(parts[3]));
-			return new AggregateUnaryCPInstruction(aggun, in1, out, AUType.DEFAULT, opcode, str);
+			AggregateUnaryCPInstruction inst = new AggregateUnaryCPInstruction(
+				aggun, in1, out, AUType.DEFAULT, opcode, str);
+			inst._streaming = parts.length > 4 && Boolean.parseBoolean(parts[4]);
+			return inst;
 		}
 	}
 	
@@ -132,13 +153,20 @@ public class AggregateUnaryCPInstruction extends UnaryCPInstruction
 			ec.setScalarOutput(output_name, new BooleanObject(rval));
 		}
 		else { //DEFAULT
-			MatrixBlock matBlock = ec.getMatrixInput(input1.getName());
 			AggregateUnaryOperator au_op = (AggregateUnaryOperator) _optr;
+			MatrixBlock resultBlock = null;
 			
-			MatrixBlock resultBlock = (MatrixBlock) matBlock.aggregateUnaryOperations(au_op, new MatrixBlock(),
-				matBlock.getNumRows(), matBlock.getNumColumns(), new MatrixIndexes(1, 1), true);
+			if( isStreamingInput(ec, au_op) ) {
+				//streaming aggregation over row batches w/o materialized input
+				resultBlock = processStreamingAggregate(ec.getMatrixObject(input1.getName()), au_op);
+			}
+			else {
+				MatrixBlock matBlock = ec.getMatrixInputCompressed(input1.getName());
+				resultBlock = (MatrixBlock) matBlock.aggregateUnaryOperations(au_op, new MatrixBlock(),
+					matBlock.getNumRows(), matBlock.getNumColumns(), new MatrixIndexes(1, 1), true);
+				ec.releaseMatrixInput(input1.getName());
+			}
 			
-			ec.releaseMatrixInput(input1.getName());
 			if(output.getDataType() == DataType.SCALAR){
 				DoubleObject ret = new DoubleObject(resultBlock.getValue(0, 0));
 				ec.setScalarOutput(output_name, ret);
@@ -149,6 +177,77 @@ public class AggregateUnaryCPInstruction extends UnaryCPInstruction
 		}
 	}
 	
+	private boolean isStreamingInput(ExecutionContext ec, AggregateUnaryOperator op) {
+		if( !_streaming || op.indexFn instanceof ReduceDiag )
+			return false;
+		
+		//stream only csv files that are neither read nor modified, and
+		//of unknown size or exceeding the local memory budget
+		MatrixObject mo = ec.getMatrixObject(input1.getName());
+		MatrixCharacteristics mc = mo.getMatrixCharacteristics();
+		return mo.getStatus() == CacheStatus.EMPTY && !mo.isDirty() && mo.getRDDHandle() == null
+			&& mo.getMetaData() instanceof MetaDataFormat
+			&& ((MetaDataFormat)mo.getMetaData()).getInputInfo() == InputInfo.CSVInputInfo
+			&& (!mc.dimsKnown() || OptimizerUtils.estimateSizeExactSparsity(mc) > OptimizerUtils.getLocalMemBudget());
+	}
+	
+	private MatrixBlock processStreamingAggregate(MatrixObject mo, AggregateUnaryOperator op) {
+		MatrixCharacteristics mc = mo.getMatrixCharacteristics();
+		FileFormatPropertiesCSV props = (mo.getFileFormatProperties() instanceof FileFormatPropertiesCSV) ?
+			(FileFormatPropertiesCSV) mo.getFileFormatProperties() : new FileFormatPropertiesCSV();
+		
+		//aggregate operator for partial aggregates (incl corrections)
+		String opcode = getOpcode();
+		CorrectionLocationType corrLoc = InstructionUtils.deriveAggregateOperatorCorrectionLocation(opcode);
+		AggregateOperator aop = InstructionUtils.parseAggregateOperator(
+			InstructionUtils.deriveAggregateOperatorOpcode(opcode),
+			String.valueOf(corrLoc != CorrectionLocationType.NONE), corrLoc.toString());
+		boolean rowAgg = op.indexFn instanceof ReduceCol;
+		
+		MatrixBlock agg = null, batch = null;
+		ArrayList<MatrixBlock> rowAggs = new ArrayList<>();
+		try( ReaderTextCSVStream reader = new ReaderTextCSVStream(mo.getFileName(), props, mc.getCols(),
+			mc.dimsKnown() && mc.nnzKnown() ? OptimizerUtils.getSparsity(mc) : 1) )
+		{
+			while( (batch = reader.next(batch)) != null ) {
+				if( rowAgg ) {
+					//row aggregates of independent row batches
+					rowAggs.add((MatrixBlock) batch.aggregateUnaryOperations(op, new MatrixBlock(),
+						batch.getNumRows(), batch.getNumColumns(), new MatrixIndexes(1, 1), true));
+				}
+				else {
+					//partial full/column aggregates w/ embedded corrections
+					MatrixBlock partial = (MatrixBlock) batch.aggregateUnaryOperations(op, new MatrixBlock(),
+						batch.getNumRows(), batch.getNumColumns(), new MatrixIndexes(1, 1));
+					if( agg == null )
+						agg = partial;
+					else
+						OperationsOnMatrixValues.incrementalAggregation(agg, null, partial, aop, true);
+				}
+			}
+			
+			//maintain meta data of unknown csv input
+			if( !mc.dimsKnown() )
+				mc.setDimension(reader.getNumRows(), reader.getNumColumns());
+			if( !mc.nnzKnown() )
+				mc.setNonZeros(reader.getNonZeros());
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException("Failed streaming aggregation of csv file '"+mo.getFileName()+"'.", ex);
+		}
+		
+		if( agg == null && rowAggs.isEmpty() )
+			throw new DMLRuntimeException("Empty csv file '"+mo.getFileName()+"' in streaming aggregation.");
+		if( rowAgg ) {
+			return (rowAggs.size() == 1) ? rowAggs.get(0) : rowAggs.get(0).append(
+				rowAggs.subList(1, rowAggs.size()).toArray(new MatrixBlock[0]), new MatrixBlock(), false);
+		}
+		
+		//drop correction after aggregation
+		agg.dropLastRowsOrColumns(aop.correctionLocation);
+		return agg;
+	}
+	
 	private static long getSizeMetaData(AUType type, MatrixCharacteristics mc) {
 		switch( type ) {
 			case NROW: return mc.getRows();
@@ -37,7 +37,7 @@ public class BinaryMatrixScalarCPInstruction extends BinaryCPInstruction {
 		CPOperand mat = ( input1.getDataType() == DataType.MATRIX ) ? input1 : input2;
 		CPOperand scalar = ( input1.getDataType() == DataType.MATRIX ) ? input2 : input1;
 		
-		MatrixBlock inBlock = ec.getMatrixInput(mat.getName(), getExtendedOpcode());
+		MatrixBlock inBlock = ec.getMatrixInputCompressed(mat.getName());
 		ScalarObject constant = (ScalarObject) ec.getScalarInput(scalar);
 
 		ScalarOperator sc_op = (ScalarOperator) _optr;
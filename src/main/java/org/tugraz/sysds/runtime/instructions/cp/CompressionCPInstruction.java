@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.instructions.cp;
+
+import org.tugraz.sysds.lops.Compression;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.Operator;
+
+public class CompressionCPInstruction extends UnaryCPInstruction {
+	private final int _numThreads;
+
+	private CompressionCPInstruction(Operator op, CPOperand in, CPOperand out, int k, String opcode, String istr) {
+		super(CPType.Compression, op, in, out, opcode, istr);
+		_numThreads = k;
+	}
+
+	public static CompressionCPInstruction parseInstruction(String str) {
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		InstructionUtils.checkNumFields(parts, 3);
+		
+		String opcode = parts[0];
+		if( !opcode.equals(Compression.OPCODE) )
+			throw new DMLRuntimeException("Unknown opcode while parsing a CompressionCPInstruction: " + str);
+		CPOperand in1 = new CPOperand(parts[1]);
+		CPOperand out = new CPOperand(parts[2]);
+		int k = Integer.parseInt(parts[3]);
+		return new CompressionCPInstruction(null, in1, out, k, opcode, str);
+	}
+
+	@Override
+	public void processInstruction(ExecutionContext ec) {
+		//get matrix block input (potentially already compressed)
+		MatrixBlock in = ec.getMatrixInputCompressed(input1.getName());
+		
+		//compress the matrix block, or pass through if not beneficial
+		MatrixBlock out = CompressedMatrixBlockFactory.compress(in, _numThreads);
+		
+		//set output and release input
+		ec.releaseMatrixInput(input1.getName());
+		ec.setMatrixOutput(output.getName(), out);
+	}
+}
@@ -52,6 +52,10 @@ public abstract class ComputationCPInstruction extends CPInstruction {
 	public String getOutputVariableName() {
 		return output.getName();
 	}
+	
+	public CPOperand[] getInputs() {
+		return new CPOperand[]{input1, input2, input3};
+	}
 
 	protected boolean checkGuardedRepresentationChange( MatrixBlock in1, MatrixBlock out ) {
 		return checkGuardedRepresentationChange(in1, null, out);
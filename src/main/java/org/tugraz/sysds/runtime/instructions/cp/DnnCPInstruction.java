@@ -25,10 +25,12 @@ import org.apache.commons.logging.LogFactory;
 import org.tugraz.sysds.api.DMLScript;
 import org.tugraz.sysds.hops.OptimizerUtils;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.tugraz.sysds.runtime.instructions.InstructionUtils;
 import org.tugraz.sysds.runtime.matrix.data.DnnParameters;
 import org.tugraz.sysds.runtime.matrix.data.LibMatrixDNN;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixDNNConv2d;
 import org.tugraz.sysds.runtime.matrix.data.LibMatrixNative;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.LibMatrixDNN.PoolingType;
@@ -402,6 +404,15 @@ public class DnnCPInstruction extends UnaryCPInstruction {
 	
 	// Assumption: enableNative && NativeHelper.isNativeLibraryLoaded() is true
 	// This increases the number of native calls. For example:the cases where filter is sparse but input is dense
+	private MatrixBlock getFilterInput(ExecutionContext ec, String varName) {
+		//quantized filters are kept in low precision for mixed-precision conv2d,
+		//all other compressed filters are decompressed
+		MatrixBlock filter = ec.getMatrixInputCompressed(varName);
+		if( filter instanceof CompressedMatrixBlock && !LibMatrixDNNConv2d.isQuantizedFilter(filter) )
+			filter = ((CompressedMatrixBlock)filter).getDecompressed();
+		return filter;
+	}
+	
 	private static boolean isFilterSparse(MatrixBlock filter) {
 		long numElems = filter.getNumRows()*filter.getNumColumns();
 		// if filter is less than 10 MB in dense format (which handles almost all the cases).
@@ -491,7 +502,7 @@ public class DnnCPInstruction extends UnaryCPInstruction {
 		}
 		else if (instOpcode.equalsIgnoreCase("conv2d")) {
 			resetNumThreads(params, C*R*S, P*Q, matBlock.getNonZeros() / (matBlock.getNumRows()*matBlock.getNumColumns()));
-			MatrixBlock filter = ec.getMatrixInput(_in2.getName(), getExtendedOpcode());
+			MatrixBlock filter = getFilterInput(ec, _in2.getName());
 			if(filter.isEmpty() || matBlock.isEmpty()) {
 				outputBlock = new MatrixBlock(N, K*P*Q, true);
 			}
@@ -499,7 +510,8 @@ public class DnnCPInstruction extends UnaryCPInstruction {
 				boolean sparse = matBlock.isUltraSparse(false) && params.bias == null
 					&& matBlock.getInMemorySize() < MatrixBlock.estimateSizeDenseInMemory(N, K*P*Q);
 				outputBlock = new MatrixBlock(N, K*P*Q, sparse).allocateBlock();
-				if(params.enableNative && !isFilterSparse(filter) && !matBlock.isInSparseFormat())
+				if(params.enableNative && !LibMatrixDNNConv2d.isQuantizedFilter(filter)
+					&& !isFilterSparse(filter) && !matBlock.isInSparseFormat())
 					LibMatrixNative.conv2d(matBlock, filter, outputBlock, params);
 				else
 					LibMatrixDNN.conv2d(matBlock, filter, outputBlock, params);
@@ -508,7 +520,7 @@ public class DnnCPInstruction extends UnaryCPInstruction {
 		}
 		else if (instOpcode.equalsIgnoreCase("conv2d_bias_add")) {
 			resetNumThreads(params, C*R*S, P*Q, matBlock.getNonZeros() / (matBlock.getNumRows()*matBlock.getNumColumns()));
-			MatrixBlock filter = ec.getMatrixInput(_in3.getName(), getExtendedOpcode());
+			MatrixBlock filter = getFilterInput(ec, _in3.getName());
 			MatrixBlock bias = ec.getMatrixInput(_in2.getName(), getExtendedOpcode());
 			if(bias.getNumRows() != params.K || bias.getNumColumns() != 1) {
 				throw new DMLRuntimeException("Incorrect shape of bias matrix: [" + bias.getNumRows() + " " + bias.getNumColumns() + "]. "
@@ -533,7 +545,8 @@ public class DnnCPInstruction extends UnaryCPInstruction {
 					// Handle situation where both input and filter are non empty, but bias is empty
 					params.bias = bias;
 				}
-				if(params.enableNative && !isFilterSparse(filter) && !matBlock.isInSparseFormat())
+				if(params.enableNative && !LibMatrixDNNConv2d.isQuantizedFilter(filter)
+					&& !isFilterSparse(filter) && !matBlock.isInSparseFormat())
 					LibMatrixNative.conv2d(matBlock, filter, outputBlock, params);
 				else
 					LibMatrixDNN.conv2d(matBlock, filter, outputBlock, params);
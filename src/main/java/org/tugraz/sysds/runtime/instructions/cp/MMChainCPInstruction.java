@@ -68,7 +68,7 @@ public class MMChainCPInstruction extends UnaryCPInstruction {
 	@Override
 	public void processInstruction(ExecutionContext ec) {
 		//get inputs
-		MatrixBlock X = ec.getMatrixInput(input1.getName(), getExtendedOpcode());
+		MatrixBlock X = ec.getMatrixInputCompressed(input1.getName());
 		MatrixBlock v = ec.getMatrixInput(input2.getName(), getExtendedOpcode());
 		MatrixBlock w = (_type==ChainType.XtwXv || _type==ChainType.XtXvy) ? 
 			ec.getMatrixInput(input3.getName(), getExtendedOpcode()) : null;
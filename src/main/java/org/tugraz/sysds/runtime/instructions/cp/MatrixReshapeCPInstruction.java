@@ -32,28 +32,31 @@ public class MatrixReshapeCPInstruction extends UnaryCPInstruction {
 	private final CPOperand _opRows;
 	private final CPOperand _opCols;
 	private final CPOperand _opByRow;
+	private final int _numThreads;
 
 	private MatrixReshapeCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand in4,
-			CPOperand out, String opcode, String istr) {
+			CPOperand out, int k, String opcode, String istr) {
 		super(CPType.MatrixReshape, op, in1, out, opcode, istr);
 		_opRows = in2;
 		_opCols = in3;
 		_opByRow = in4;
+		_numThreads = k;
 	}
 
 	public static MatrixReshapeCPInstruction parseInstruction ( String str ) {
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
-		InstructionUtils.checkNumFields( parts, 5 );
+		InstructionUtils.checkNumFields( parts, 5, 6 );
 		String opcode = parts[0];
 		CPOperand in1 = new CPOperand(parts[1]);
 		CPOperand in2 = new CPOperand(parts[2]);
 		CPOperand in3 = new CPOperand(parts[3]);
 		CPOperand in4 = new CPOperand(parts[4]);
 		CPOperand out = new CPOperand(parts[5]);
+		int k = (parts.length > 6) ? Integer.parseInt(parts[6]) : 1;
 		if(!opcode.equalsIgnoreCase("rshape"))
 			throw new DMLRuntimeException("Unknown opcode while parsing an MatrixReshapeInstruction: " + str);
 		else
-			return new MatrixReshapeCPInstruction(new Operator(true), in1, in2, in3, in4, out, opcode, str);
+			return new MatrixReshapeCPInstruction(new Operator(true), in1, in2, in3, in4, out, k, opcode, str);
 	}
 	
 	@Override
@@ -66,7 +69,7 @@ public class MatrixReshapeCPInstruction extends UnaryCPInstruction {
 
 		//execute operations 
 		MatrixBlock out = new MatrixBlock();
-		out = LibMatrixReorg.reshape(in, out, rows, cols, byRow.getBooleanValue());
+		out = LibMatrixReorg.reshape(in, out, rows, cols, byRow.getBooleanValue(), _numThreads);
 		
 		//set output and release inputs
 		ec.setMatrixOutput(output.getName(), out, getExtendedOpcode());
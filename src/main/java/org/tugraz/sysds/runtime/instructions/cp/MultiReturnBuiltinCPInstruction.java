@@ -33,11 +33,13 @@ import org.tugraz.sysds.runtime.matrix.operators.Operator;
 public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 
 	protected ArrayList<CPOperand> _outputs;
+	private final int _numThreads;
 
 	private MultiReturnBuiltinCPInstruction(Operator op, CPOperand input1, ArrayList<CPOperand> outputs, String opcode,
-			String istr) {
+			String istr, int numThreads) {
 		super(CPType.MultiReturnBuiltin, op, input1, null, outputs.get(0), opcode, istr);
 		_outputs = outputs;
+		_numThreads = numThreads;
 	}
 	
 	public CPOperand getOutput(int i) {
@@ -56,7 +58,7 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 			outputs.add ( new CPOperand(parts[2], ValueType.FP64, DataType.MATRIX) );
 			outputs.add ( new CPOperand(parts[3], ValueType.FP64, DataType.MATRIX) );
 			
-			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str);
+			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str, parseNumThreads(parts, 2));
 		}
 		else if ( opcode.equalsIgnoreCase("lu") ) {
 			CPOperand in1 = new CPOperand(parts[1]);
@@ -66,7 +68,7 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 			outputs.add ( new CPOperand(parts[3], ValueType.FP64, DataType.MATRIX) );
 			outputs.add ( new CPOperand(parts[4], ValueType.FP64, DataType.MATRIX) );
 			
-			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str);
+			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str, parseNumThreads(parts, 3));
 			
 		}
 		else if ( opcode.equalsIgnoreCase("eigen") ) {
@@ -75,7 +77,7 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 			outputs.add ( new CPOperand(parts[2], ValueType.FP64, DataType.MATRIX) );
 			outputs.add ( new CPOperand(parts[3], ValueType.FP64, DataType.MATRIX) );
 			
-			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str);
+			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str, parseNumThreads(parts, 2));
 			
 		}
 		else if ( opcode.equalsIgnoreCase("svd") ) {
@@ -86,7 +88,7 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 			outputs.add ( new CPOperand(parts[3], ValueType.FP64, DataType.MATRIX) );
 			outputs.add ( new CPOperand(parts[4], ValueType.FP64, DataType.MATRIX) );
 			
-			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str);
+			return new MultiReturnBuiltinCPInstruction(null, in1, outputs, opcode, str, 1);
 
 		}
 		else {
@@ -94,6 +96,12 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 		}
 
 	}
+	
+	private static int parseNumThreads(String[] parts, int numOutputs) {
+		//optional degree of parallelism after opcode, input, and outputs
+		return (parts.length == numOutputs + 3) ?
+			Integer.parseInt(parts[parts.length-1]) : 1;
+	}
 
 	@Override 
 	public void processInstruction(ExecutionContext ec) {
@@ -101,7 +109,7 @@ public class MultiReturnBuiltinCPInstruction extends ComputationCPInstruction {
 			throw new DMLRuntimeException("Invalid opcode in MultiReturnBuiltin instruction: " + getOpcode());
 		
 		MatrixBlock in = ec.getMatrixInput(input1.getName());
-		MatrixBlock[] out = LibCommonsMath.multiReturnOperations(in, getOpcode());
+		MatrixBlock[] out = LibCommonsMath.multiReturnOperations(in, getOpcode(), _numThreads);
 		ec.releaseMatrixInput(input1.getName(), getExtendedOpcode());
 		for(int i=0; i < _outputs.size(); i++) {
 			ec.setMatrixOutput(_outputs.get(i).getName(), out[i], getExtendedOpcode());
@@ -26,10 +26,13 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.lops.Lop;
 import org.tugraz.sysds.parser.ParameterizedBuiltinFunctionExpression;
 import org.tugraz.sysds.parser.Statement;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlockFactory;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
 import org.tugraz.sysds.runtime.controlprogram.caching.FrameObject;
@@ -138,7 +141,9 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 				|| opcode.equals("transformcolmap")
 				|| opcode.equals("transformmeta")
 				|| opcode.equals("toString")
-				|| opcode.equals("nvlist")) {
+				|| opcode.equals("nvlist")
+				|| opcode.equals("quantize")
+				|| opcode.equals("dequantize")) {
 			return new ParameterizedBuiltinCPInstruction(null, paramsMap, out, opcode, str);
 		} else if ("paramserv".equals(opcode)) {
 			return new ParamservBuiltinCPInstruction(null, paramsMap, out, opcode, str);
@@ -227,6 +232,20 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 			ec.setMatrixOutput(output.getName(), ret, getExtendedOpcode());
 			ec.releaseMatrixInput(params.get("target"), getExtendedOpcode());
 		}
+		else if ( opcode.equals("quantize") ) {
+			MatrixBlock target = ec.getMatrixInput(params.get("target"), getExtendedOpcode());
+			ValueType vt = ValueType.valueOf(params.get("type").toUpperCase());
+			MatrixBlock ret = CompressedMatrixBlockFactory.quantize(target, vt);
+			ec.releaseMatrixInput(params.get("target"), getExtendedOpcode());
+			ec.setMatrixOutput(output.getName(), ret, getExtendedOpcode());
+		}
+		else if ( opcode.equals("dequantize") ) {
+			MatrixBlock target = ec.getMatrixInputCompressed(params.get("target"));
+			MatrixBlock ret = (target instanceof CompressedMatrixBlock) ?
+				((CompressedMatrixBlock)target).decompress() : target;
+			ec.releaseMatrixInput(params.get("target"), getExtendedOpcode());
+			ec.setMatrixOutput(output.getName(), ret, getExtendedOpcode());
+		}
 		else if ( opcode.equalsIgnoreCase("rexpand") ) {
 			// acquire locks
 			MatrixBlock target = ec.getMatrixInput(params.get("target"), getExtendedOpcode());
@@ -43,6 +43,11 @@ public class SpoofCPInstruction extends ComputationCPInstruction {
 		_in = in;
 	}
 
+	@Override
+	public CPOperand[] getInputs() {
+		return _in;
+	}
+	
 	public Class<?> getOperatorClass() {
 		return _class;
 	}
@@ -62,7 +62,8 @@ public abstract class UnaryCPInstruction extends ComputationCPInstruction {
 			out.split(parts[2]);
 			func = Builtin.getBuiltinFnObject(opcode);
 			
-			if( Arrays.asList(new String[]{"ucumk+","ucum*","ucumk+*","ucummin","ucummax","exp","log","sigmoid"}).contains(opcode) )
+			if( Arrays.asList(new String[]{"ucumk+","ucum*","ucumk+*","ucummin","ucummax",
+				"exp","log","sigmoid","inverse","cholesky"}).contains(opcode) )
 				return new UnaryMatrixCPInstruction(new UnaryOperator(func,
 					Integer.parseInt(parts[3]),Boolean.parseBoolean(parts[4])), in, out, opcode, str);
 			else
@@ -45,6 +45,7 @@ import org.tugraz.sysds.runtime.instructions.Instruction;
 import org.tugraz.sysds.runtime.instructions.InstructionUtils;
 import org.tugraz.sysds.runtime.io.FileFormatProperties;
 import org.tugraz.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesParquet;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.io.WriterMatrixMarket;
 import org.tugraz.sysds.runtime.io.WriterTextCSV;
@@ -328,6 +329,11 @@ public class VariableCPInstruction extends CPInstruction {
 				if ( parts.length < 15+extSchema || parts.length > 17+extSchema )
 					throw new DMLRuntimeException("Invalid number of operands in createvar instruction: " + str);
 			}
+			else if ( fmt.equalsIgnoreCase("parquet") ) {
+				// Createvar instructions for parquet reads include the projected column range
+				if ( parts.length != 6 && parts.length != 12+extSchema && parts.length != 14+extSchema )
+					throw new DMLRuntimeException("Invalid number of operands in createvar instruction: " + str);
+			}
 			else {
 				if ( parts.length != 6 && parts.length != 12+extSchema )
 					throw new DMLRuntimeException("Invalid number of operands in createvar instruction: " + str);
@@ -379,6 +385,11 @@ public class VariableCPInstruction extends CPInstruction {
 				}
 				return new VariableCPInstruction(VariableOperationCode.CreateVariable, in1, in2, in3, iimd, updateType, fmtProperties, schema, opcode, str);
 			}
+			else if ( fmt.equalsIgnoreCase("parquet") && parts.length == 14+extSchema ) {
+				FileFormatProperties fmtProperties = new FileFormatPropertiesParquet(
+					Long.parseLong(parts[12]), Long.parseLong(parts[13]));
+				return new VariableCPInstruction(VariableOperationCode.CreateVariable, in1, in2, in3, iimd, updateType, fmtProperties, schema, opcode, str);
+			}
 			else {
 				return new VariableCPInstruction(VariableOperationCode.CreateVariable, in1, in2, in3, iimd, updateType, schema, opcode, str);
 			}
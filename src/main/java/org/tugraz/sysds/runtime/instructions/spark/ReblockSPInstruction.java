@@ -95,8 +95,9 @@ public class ReblockSPInstruction extends UnarySPInstruction {
 			throw new DMLRuntimeException("Error: Metadata not found");
 		InputInfo iinfo = iimd.getInputInfo();
 
-		//check for in-memory reblock (w/ lazy spark context, potential for latency reduction)
-		if( Recompiler.checkCPReblock(sec, input1.getName()) ) {
+		//check for in-memory reblock (w/ lazy spark context, potential for latency reduction),
+		//where parquet inputs are always read via the local multi-threaded readers
+		if( Recompiler.checkCPReblock(sec, input1.getName()) || iinfo == InputInfo.ParquetInputInfo ) {
 			if( input1.getDataType() == DataType.MATRIX )
 				Recompiler.executeInMemoryMatrixReblock(sec, input1.getName(), output.getName());
 			else if( input1.getDataType() == DataType.FRAME )
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.SequenceFileOutputFormat;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
@@ -39,6 +40,7 @@ import org.tugraz.sysds.runtime.instructions.spark.functions.ComputeBinaryBlockN
 import org.tugraz.sysds.runtime.instructions.spark.utils.FrameRDDConverterUtils;
 import org.tugraz.sysds.runtime.instructions.spark.utils.RDDConverterUtils;
 import org.tugraz.sysds.runtime.instructions.spark.utils.FrameRDDConverterUtils.LongFrameToLongWritableFrameFunction;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec;
 import org.tugraz.sysds.runtime.io.FileFormatProperties;
 import org.tugraz.sysds.runtime.io.FileFormatPropertiesCSV;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
@@ -213,8 +215,13 @@ public class WriteSPInstruction extends SPInstruction {
 				in1 = in1.mapValues(new ComputeBinaryBlockNnzFunction(aNnz));
 			}
 			
-			//save binary block rdd on hdfs
-			in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class);
+			//save binary block rdd on hdfs (block-compressed if codec configured)
+			Class<? extends CompressionCodec> codec = BlockCompressionCodec
+				.getCodecClass(BlockCompressionCodec.getBinaryBlockCodec());
+			if( codec != null )
+				in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class, codec);
+			else
+				in1.saveAsHadoopFile(fname, MatrixIndexes.class, MatrixBlock.class, SequenceFileOutputFormat.class);
 			
 			if( !mc.nnzKnown() )
 				mc.setNonZeros((long)aNnz.value().longValue());
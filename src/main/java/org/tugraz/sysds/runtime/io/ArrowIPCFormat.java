@@ -0,0 +1,760 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
+
+/**
+ * Encoding and decoding of the Apache Arrow IPC stream and file formats 
+ * (metadata version V5, little-endian) for frames. Every message consists
+ * of a continuation marker, the int32 metadata length, the flatbuffer-encoded
+ * message (schema or record batch), and the message body of 8-byte aligned
+ * buffers. The file format wraps the stream in ARROW1 magic bytes and appends
+ * a footer with the schema and the locations of all record batches.
+ * 
+ * Since the Arrow Java library is not a dependency, the flatbuffer tables
+ * of the Arrow schema (Message.fbs, Schema.fbs, File.fbs) are encoded and 
+ * decoded here directly. Supported are Utf8, Bool, Int (widened to INT64) and 
+ * FloatingPoint (SINGLE and DOUBLE, widened to FP64) fields without 
+ * dictionaries and body compression.
+ */
+public class ArrowIPCFormat 
+{
+	public static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+	public static final int CONTINUATION = 0xFFFFFFFF;
+	
+	//metadata version and union type ids of the Arrow flatbuffer schema
+	private static final int METADATA_V4 = 3;
+	private static final int METADATA_V5 = 4;
+	protected static final int HEADER_SCHEMA = 1;
+	protected static final int HEADER_DICTIONARY_BATCH = 2;
+	protected static final int HEADER_RECORD_BATCH = 3;
+	private static final int TYPE_INT = 2;
+	private static final int TYPE_FLOAT = 3;
+	private static final int TYPE_UTF8 = 5;
+	private static final int TYPE_BOOL = 6;
+	private static final int PRECISION_SINGLE = 1;
+	private static final int PRECISION_DOUBLE = 2;
+	
+	private static final int BUFF_SIZE = 64 * 1024;
+	
+	////////////////////////////////////
+	// metadata encoding
+	
+	public static byte[] createSchemaMessage(ValueType[] schema, String[] names) {
+		return createMessage(HEADER_SCHEMA, createSchema(schema, names), 0);
+	}
+	
+	/**
+	 * Creates the flatbuffer-encoded record batch message.
+	 * 
+	 * @param length number of rows
+	 * @param nodes pairs of length and null count per field
+	 * @param buffers pairs of body offset and length per buffer
+	 * @param bodyLength length of the message body in bytes
+	 * @return flatbuffer-encoded message
+	 */
+	public static byte[] createRecordBatchMessage(long length, long[] nodes, long[] buffers, long bodyLength) {
+		FbTable batch = new FbTable()
+			.add(0, 8, length)
+			.add(1, new FbStructVector(toBytes(nodes), nodes.length/2))
+			.add(2, new FbStructVector(toBytes(buffers), buffers.length/2));
+		return createMessage(HEADER_RECORD_BATCH, batch, bodyLength);
+	}
+	
+	/**
+	 * Creates the flatbuffer-encoded footer of the file format.
+	 * 
+	 * @param schema value types
+	 * @param names column names
+	 * @param blocks triples of file offset, metadata length and body length per record batch
+	 * @return flatbuffer-encoded footer
+	 */
+	public static byte[] createFooter(ValueType[] schema, String[] names, List<long[]> blocks) {
+		ByteBuffer bb = ByteBuffer.allocate(24 * blocks.size()).order(ByteOrder.LITTLE_ENDIAN);
+		for( long[] block : blocks )
+			bb.putLong(block[0]).putInt((int)block[1]).putInt(0).putLong(block[2]);
+		FbTable footer = new FbTable()
+			.add(0, 2, METADATA_V5)
+			.add(1, createSchema(schema, names))
+			.add(2, new FbStructVector(new byte[0], 0))
+			.add(3, new FbStructVector(bb.array(), blocks.size()));
+		return new FbBuilder().finish(footer);
+	}
+	
+	private static byte[] createMessage(int headerType, FbTable header, long bodyLength) {
+		FbTable msg = new FbTable()
+			.add(0, 2, METADATA_V5)
+			.add(1, 1, headerType)
+			.add(2, header)
+			.add(3, 8, bodyLength);
+		return new FbBuilder().finish(msg);
+	}
+	
+	private static FbTable createSchema(ValueType[] schema, String[] names) {
+		FbObject[] fields = new FbObject[schema.length];
+		for( int j=0; j<schema.length; j++ ) {
+			FbTable type = new FbTable();
+			int typeId = -1;
+			switch( schema[j] ) {
+				case STRING:  typeId = TYPE_UTF8; break;
+				case BOOLEAN: typeId = TYPE_BOOL; break;
+				case INT64:   typeId = TYPE_INT; type.add(0, 4, 64).add(1, 1, 1); break;
+				case FP64:    typeId = TYPE_FLOAT; type.add(0, 2, PRECISION_DOUBLE); break;
+				default: throw new DMLRuntimeException("Unsupported value type: "+schema[j]);
+			}
+			fields[j] = new FbTable()
+				.add(0, new FbString(names[j]))
+				.add(1, 1, 1) //nullable
+				.add(2, 1, typeId)
+				.add(3, type)
+				.add(5, new FbTableVector(new FbObject[0]));
+		}
+		return new FbTable()
+			.add(0, 2, 0) //little endian
+			.add(1, new FbTableVector(fields));
+	}
+	
+	////////////////////////////////////
+	// metadata decoding
+	
+	/**
+	 * Reads the next message of a stream, positioned at the start of
+	 * a message, including its body.
+	 * 
+	 * @param in input stream
+	 * @return message, or null at the end of the stream
+	 * @throws IOException if IOException occurs
+	 */
+	public static ArrowMessage readMessage(DataInputStream in) throws IOException {
+		int len = readIntLE(in, true);
+		if( len == CONTINUATION )
+			len = readIntLE(in, true);
+		if( len == 0 || len == -1 )
+			return null; //end of stream (or eof)
+		if( len < 0 )
+			throw new IOException("Invalid Arrow message length: "+len);
+		byte[] meta = new byte[len];
+		in.readFully(meta);
+		FbReader fb = new FbReader(meta);
+		int msg = fb.root();
+		int version = fb.getShort(msg, 0, 0);
+		if( version < METADATA_V4 )
+			throw new IOException("Unsupported Arrow metadata version: V"+(version+1));
+		long bodyLength = fb.getLong(msg, 3, 0);
+		if( bodyLength < 0 || bodyLength > Integer.MAX_VALUE )
+			throw new IOException("Unsupported Arrow message body length: "+bodyLength);
+		byte[] body = new byte[(int)bodyLength];
+		in.readFully(body);
+		return new ArrowMessage(fb, fb.getByte(msg, 1, 0), fb.getRef(msg, 2), body);
+	}
+	
+	/**
+	 * Parses the footer of the file format.
+	 * 
+	 * @param footer flatbuffer-encoded footer
+	 * @return footer with the schema and record batch locations
+	 * @throws IOException if IOException occurs
+	 */
+	public static ArrowFooter parseFooter(byte[] footer) throws IOException {
+		FbReader fb = new FbReader(footer);
+		int tab = fb.root();
+		ArrowField[] fields = parseSchema(fb, fb.getRef(tab, 1));
+		int vec = fb.getRef(tab, 3);
+		int n = (vec < 0) ? 0 : fb.getVectorLength(vec);
+		long[][] blocks = new long[n][];
+		for( int i=0; i<n; i++ ) {
+			int pos = vec + 4 + 24 * i;
+			blocks[i] = new long[]{fb._bb.getLong(pos), fb._bb.getInt(pos+8), fb._bb.getLong(pos+16)};
+		}
+		return new ArrowFooter(fields, blocks);
+	}
+	
+	public static ArrowField[] parseSchema(ArrowMessage msg) throws IOException {
+		if( msg == null || msg.headerType != HEADER_SCHEMA )
+			throw new IOException("Invalid Arrow stream: expected schema message.");
+		return parseSchema(msg.fb, msg.header);
+	}
+	
+	private static ArrowField[] parseSchema(FbReader fb, int schema) throws IOException {
+		if( schema < 0 )
+			throw new IOException("Invalid Arrow schema: missing schema.");
+		if( fb.getShort(schema, 0, 0) != 0 )
+			throw new IOException("Unsupported Arrow schema: big-endian buffers.");
+		int vec = fb.getRef(schema, 1);
+		int n = (vec < 0) ? 0 : fb.getVectorLength(vec);
+		ArrowField[] ret = new ArrowField[n];
+		for( int j=0; j<n; j++ ) {
+			int field = fb.getVectorTable(vec, j);
+			int name = fb.getRef(field, 0);
+			String fname = (name < 0) ? null : fb.getString(name);
+			if( fb.getRef(field, 4) >= 0 )
+				throw new IOException("Unsupported Arrow field '"+fname+"': dictionary encoding.");
+			int typeId = fb.getByte(field, 2, 0);
+			int type = fb.getRef(field, 3);
+			if( type < 0 )
+				throw new IOException("Invalid Arrow field '"+fname+"': missing type.");
+			switch( typeId ) {
+				case TYPE_UTF8: ret[j] = new ArrowField(fname, ValueType.STRING, 0, false); break;
+				case TYPE_BOOL: ret[j] = new ArrowField(fname, ValueType.BOOLEAN, 1, false); break;
+				case TYPE_INT: 
+					int width = fb.getInt(type, 0, 0);
+					if( width != 8 && width != 16 && width != 32 && width != 64 )
+						throw new IOException("Unsupported Arrow field '"+fname+"': int"+width+".");
+					ret[j] = new ArrowField(fname, ValueType.INT64, width, fb.getByte(type, 1, 0)!=0);
+					break;
+				case TYPE_FLOAT:
+					int precision = fb.getShort(type, 0, 0);
+					if( precision != PRECISION_SINGLE && precision != PRECISION_DOUBLE )
+						throw new IOException("Unsupported Arrow field '"+fname+"': half precision.");
+					ret[j] = new ArrowField(fname, ValueType.FP64, (precision==PRECISION_SINGLE)?32:64, true);
+					break;
+				default:
+					throw new IOException("Unsupported Arrow field '"+fname+"': type id "+typeId+".");
+			}
+		}
+		return ret;
+	}
+	
+	/**
+	 * Decodes the columns of a record batch message into frame columns.
+	 * Fixed-width buffers are copied (and widened) into Java arrays.
+	 * 
+	 * @param msg record batch message
+	 * @param fields schema
+	 * @return columns of the record batch
+	 * @throws IOException if IOException occurs
+	 */
+	public static FrameArrowColumn[] parseRecordBatch(ArrowMessage msg, ArrowField[] fields) throws IOException {
+		if( msg.headerType == HEADER_DICTIONARY_BATCH )
+			throw new IOException("Unsupported Arrow message: dictionary batch.");
+		if( msg.headerType != HEADER_RECORD_BATCH )
+			throw new IOException("Invalid Arrow message: expected record batch, but found header type "+msg.headerType+".");
+		FbReader fb = msg.fb;
+		if( fb.getRef(msg.header, 3) >= 0 )
+			throw new IOException("Unsupported Arrow record batch: body compression.");
+		int nodes = fb.getRef(msg.header, 1);
+		int buffers = fb.getRef(msg.header, 2);
+		if( nodes < 0 || buffers < 0 || fb.getVectorLength(nodes) != fields.length )
+			throw new IOException("Invalid Arrow record batch: mismatching field nodes.");
+		ByteBuffer body = ByteBuffer.wrap(msg.body).order(ByteOrder.LITTLE_ENDIAN);
+		FrameArrowColumn[] ret = new FrameArrowColumn[fields.length];
+		for( int j=0, b=0; j<fields.length; j++ ) {
+			ArrowField f = fields[j];
+			long length = fb._bb.getLong(nodes + 4 + 16 * j);
+			if( length > Integer.MAX_VALUE )
+				throw new IOException("Unsupported Arrow record batch length: "+length);
+			int len = (int) length;
+			long nulls = fb._bb.getLong(nodes + 4 + 16 * j + 8);
+			ByteBuffer valid = getBuffer(fb, buffers, b++, body);
+			byte[] validity = (nulls > 0 && valid.remaining() > 0) ? toByteArray(valid,
+				FrameArrowColumn.getBitmapSize(len)) : null;
+			ByteBuffer data = getBuffer(fb, buffers, b++, body);
+			if( f.vt == ValueType.STRING && len > 0 && data.remaining() < 4L*(len+1) )
+				throw new IOException("Invalid Arrow buffer of "+data.remaining()+" bytes for "+(len+1)+" offsets.");
+			switch( f.vt ) {
+				case STRING: {
+					int[] offsets = new int[len+1];
+					if( len > 0 ) //offsets of empty columns might be omitted
+						data.asIntBuffer().get(offsets);
+					ByteBuffer chars = getBuffer(fb, buffers, b++, body);
+					ret[j] = FrameArrowColumn.createStringColumn(len, 
+						validity, offsets, toByteArray(chars, chars.remaining()));
+					break;
+				}
+				case BOOLEAN:
+					ret[j] = FrameArrowColumn.createBooleanColumn(len, 
+						validity, toByteArray(data, FrameArrowColumn.getBitmapSize(len)));
+					break;
+				case INT64:
+					ret[j] = FrameArrowColumn.createLongColumn(len, validity, toLongArray(data, len, f));
+					break;
+				case FP64:
+					ret[j] = FrameArrowColumn.createDoubleColumn(len, validity, toDoubleArray(data, len, f));
+					break;
+				default:
+					throw new IOException("Unsupported value type: "+f.vt);
+			}
+		}
+		return ret;
+	}
+	
+	private static ByteBuffer getBuffer(FbReader fb, int buffers, int b, ByteBuffer body) throws IOException {
+		if( b >= fb.getVectorLength(buffers) )
+			throw new IOException("Invalid Arrow record batch: missing buffers.");
+		long off = fb._bb.getLong(buffers + 4 + 16 * b);
+		long len = fb._bb.getLong(buffers + 4 + 16 * b + 8);
+		if( off < 0 || len < 0 || off + len > body.capacity() )
+			throw new IOException("Invalid Arrow record batch: buffer ["+off+","+(off+len)+") out of body bounds.");
+		ByteBuffer tmp = body.duplicate();
+		tmp.position((int)off);
+		tmp.limit((int)(off+len));
+		return tmp.slice().order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	private static byte[] toByteArray(ByteBuffer buff, int len) throws IOException {
+		if( buff.remaining() < len )
+			throw new IOException("Invalid Arrow buffer of "+buff.remaining()+" bytes, expected "+len+".");
+		byte[] ret = new byte[len];
+		buff.get(ret);
+		return ret;
+	}
+	
+	private static long[] toLongArray(ByteBuffer buff, int len, ArrowField f) throws IOException {
+		if( buff.remaining() < (long)len * f.width / 8 )
+			throw new IOException("Invalid Arrow buffer of "+buff.remaining()+" bytes for "+len+" int"+f.width+" values.");
+		long[] ret = new long[len];
+		switch( f.width ) {
+			case 64: buff.asLongBuffer().get(ret); break;
+			case 32: for(int i=0; i<len; i++) ret[i] = f.signed ? buff.getInt(4*i) : buff.getInt(4*i) & 0xFFFFFFFFL; break;
+			case 16: for(int i=0; i<len; i++) ret[i] = f.signed ? buff.getShort(2*i) : buff.getShort(2*i) & 0xFFFF; break;
+			case 8:  for(int i=0; i<len; i++) ret[i] = f.signed ? buff.get(i) : buff.get(i) & 0xFF; break;
+		}
+		return ret;
+	}
+	
+	private static double[] toDoubleArray(ByteBuffer buff, int len, ArrowField f) throws IOException {
+		if( buff.remaining() < (long)len * f.width / 8 )
+			throw new IOException("Invalid Arrow buffer of "+buff.remaining()+" bytes for "+len+" fp"+f.width+" values.");
+		double[] ret = new double[len];
+		if( f.width == 64 )
+			buff.asDoubleBuffer().get(ret);
+		else
+			for( int i=0; i<len; i++ )
+				ret[i] = buff.getFloat(4*i);
+		return ret;
+	}
+	
+	////////////////////////////////////
+	// message framing and body encoding
+	
+	/**
+	 * Writes the encapsulated message metadata, i.e., the continuation
+	 * marker, the padded metadata length, and the padded metadata.
+	 * 
+	 * @param os output stream
+	 * @param meta flatbuffer-encoded message
+	 * @return number of written bytes, including the prefix
+	 * @throws IOException if IOException occurs
+	 */
+	public static int writeMessage(OutputStream os, byte[] meta) throws IOException {
+		int len = (int) align8(meta.length);
+		writeIntLE(os, CONTINUATION);
+		writeIntLE(os, len);
+		os.write(meta);
+		writePadding(os, len - meta.length);
+		return 8 + len;
+	}
+	
+	public static void writeEndOfStream(OutputStream os) throws IOException {
+		writeIntLE(os, CONTINUATION);
+		writeIntLE(os, 0);
+	}
+	
+	public static void writeIntLE(OutputStream os, int val) throws IOException {
+		os.write(val);
+		os.write(val >>> 8);
+		os.write(val >>> 16);
+		os.write(val >>> 24);
+	}
+	
+	public static int readIntLE(DataInputStream in) throws IOException {
+		return readIntLE(in, false);
+	}
+	
+	private static int readIntLE(DataInputStream in, boolean eofAsEnd) throws IOException {
+		try {
+			return Integer.reverseBytes(in.readInt());
+		}
+		catch(EOFException ex) {
+			if( eofAsEnd )
+				return 0;
+			throw ex;
+		}
+	}
+	
+	public static void writePadding(OutputStream os, long len) throws IOException {
+		for( long i=0; i<len; i++ )
+			os.write(0);
+	}
+	
+	public static long align8(long len) {
+		return (len + 7) & ~7L;
+	}
+	
+	/**
+	 * Writes the given int values as little-endian int32 buffer, 
+	 * shifted by the given base (for rebasing string offsets).
+	 * 
+	 * @param os output stream
+	 * @param buff reusable little-endian byte buffer
+	 * @param data int values
+	 * @param off offset in data
+	 * @param len number of values
+	 * @param base value subtracted from all values
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeInts(OutputStream os, ByteBuffer buff, int[] data, int off, int len, int base) throws IOException {
+		for( int i=0; i<len; i+=buff.capacity()/4 ) {
+			int n = Math.min(len-i, buff.capacity()/4);
+			buff.clear();
+			for( int k=0; k<n; k++ )
+				buff.putInt(data[off+i+k] - base);
+			os.write(buff.array(), 0, 4*n);
+		}
+	}
+	
+	public static void writeLongs(OutputStream os, ByteBuffer buff, long[] data, int off, int len) throws IOException {
+		for( int i=0; i<len; i+=buff.capacity()/8 ) {
+			int n = Math.min(len-i, buff.capacity()/8);
+			buff.clear();
+			buff.asLongBuffer().put(data, off+i, n);
+			os.write(buff.array(), 0, 8*n);
+		}
+	}
+	
+	public static void writeDoubles(OutputStream os, ByteBuffer buff, double[] data, int off, int len) throws IOException {
+		for( int i=0; i<len; i+=buff.capacity()/8 ) {
+			int n = Math.min(len-i, buff.capacity()/8);
+			buff.clear();
+			buff.asDoubleBuffer().put(data, off+i, n);
+			os.write(buff.array(), 0, 8*n);
+		}
+	}
+	
+	public static ByteBuffer createWriteBuffer() {
+		return ByteBuffer.allocate(BUFF_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	private static byte[] toBytes(long[] vals) {
+		ByteBuffer bb = ByteBuffer.allocate(8 * vals.length).order(ByteOrder.LITTLE_ENDIAN);
+		bb.asLongBuffer().put(vals);
+		return bb.array();
+	}
+	
+	////////////////////////////////////
+	// helper classes
+	
+	public static class ArrowField {
+		public final String name;
+		public final ValueType vt;
+		public final int width;
+		public final boolean signed;
+		
+		public ArrowField(String name, ValueType vt, int width, boolean signed) {
+			this.name = name;
+			this.vt = vt;
+			this.width = width;
+			this.signed = signed;
+		}
+	}
+	
+	public static class ArrowMessage {
+		private final FbReader fb;
+		public final int headerType;
+		private final int header;
+		public final byte[] body;
+		
+		private ArrowMessage(FbReader fb, int headerType, int header, byte[] body) {
+			this.fb = fb;
+			this.headerType = headerType;
+			this.header = header;
+			this.body = body;
+		}
+	}
+	
+	public static class ArrowFooter {
+		public final ArrowField[] fields;
+		public final long[][] blocks;
+		
+		private ArrowFooter(ArrowField[] fields, long[][] blocks) {
+			this.fields = fields;
+			this.blocks = blocks;
+		}
+	}
+	
+	/**
+	 * Output stream that keeps track of the number of written bytes,
+	 * which are the file offsets of record batches in the file format.
+	 */
+	public static class PositionOutputStream extends FilterOutputStream {
+		private long _pos = 0;
+		
+		public PositionOutputStream(OutputStream out) {
+			super(out);
+		}
+		
+		public long getPosition() {
+			return _pos;
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			_pos++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			_pos += len;
+		}
+	}
+	
+	/**
+	 * Minimal flatbuffer builder that writes tables front to back, i.e., 
+	 * every vtable directly before its table and all referenced objects 
+	 * after the table, which keeps all uoffsets positive as required.
+	 */
+	private static class FbBuilder {
+		private ByteBuffer _bb = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+		
+		public FbBuilder() {
+			_bb.putInt(0); //root offset
+		}
+		
+		public byte[] finish(FbObject root) {
+			int pos = root.write(this);
+			_bb.putInt(0, pos);
+			return Arrays.copyOf(_bb.array(), _bb.position());
+		}
+		
+		public int position() {
+			return _bb.position();
+		}
+		
+		public ByteBuffer ensure(int len) {
+			if( _bb.remaining() < len ) {
+				ByteBuffer tmp = ByteBuffer.allocate(Math.max(2*_bb.capacity(), _bb.position()+len))
+					.order(ByteOrder.LITTLE_ENDIAN);
+				_bb.flip();
+				tmp.put(_bb);
+				_bb = tmp;
+			}
+			return _bb;
+		}
+		
+		public void pad(int align) {
+			while( _bb.position() % align != 0 )
+				ensure(1).put((byte)0);
+		}
+		
+		public void put(int pos, int size, long val) {
+			switch( size ) {
+				case 1: _bb.put(pos, (byte)val); break;
+				case 2: _bb.putShort(pos, (short)val); break;
+				case 4: _bb.putInt(pos, (int)val); break;
+				case 8: _bb.putLong(pos, val); break;
+			}
+		}
+	}
+	
+	private static abstract class FbObject {
+		//writes the object and returns its position
+		public abstract int write(FbBuilder b);
+	}
+	
+	private static class FbTable extends FbObject {
+		private final List<Object> _fields = new ArrayList<>();
+		private final List<Integer> _sizes = new ArrayList<>();
+		
+		public FbTable add(int id, int size, long val) {
+			return set(id, size, val);
+		}
+		
+		public FbTable add(int id, FbObject ref) {
+			return set(id, 4, ref);
+		}
+		
+		private FbTable set(int id, int size, Object val) {
+			while( _fields.size() <= id ) {
+				_fields.add(null);
+				_sizes.add(0);
+			}
+			_fields.set(id, val);
+			_sizes.set(id, size);
+			return this;
+		}
+		
+		@Override
+		public int write(FbBuilder b) {
+			//inline layout: soffset to vtable, fields by decreasing size
+			int n = _fields.size();
+			int[] offs = new int[n];
+			int len = 4;
+			for( int size=8; size>=1; size/=2 )
+				for( int id=0; id<n; id++ )
+					if( _fields.get(id) != null && _sizes.get(id) == size ) {
+						len = (len + size - 1) / size * size;
+						offs[id] = len;
+						len += size;
+					}
+			//vtable directly before the 8-byte aligned table
+			b.pad(2);
+			int vt = b.position();
+			ByteBuffer bb = b.ensure(4 + 2*n);
+			bb.putShort((short)(4 + 2*n)).putShort((short)len);
+			for( int id=0; id<n; id++ )
+				bb.putShort((short)offs[id]);
+			b.pad(8);
+			int tab = b.position();
+			b.ensure(len).put(new byte[len]);
+			b.put(tab, 4, tab - vt);
+			for( int id=0; id<n; id++ )
+				if( _fields.get(id) instanceof Long )
+					b.put(tab + offs[id], _sizes.get(id), (Long)_fields.get(id));
+			//referenced objects after the table
+			for( int id=0; id<n; id++ )
+				if( _fields.get(id) instanceof FbObject ) {
+					int pos = ((FbObject)_fields.get(id)).write(b);
+					b.put(tab + offs[id], 4, pos - (tab + offs[id]));
+				}
+			return tab;
+		}
+	}
+	
+	private static class FbTableVector extends FbObject {
+		private final FbObject[] _elems;
+		
+		public FbTableVector(FbObject[] elems) {
+			_elems = elems;
+		}
+		
+		@Override
+		public int write(FbBuilder b) {
+			b.pad(4);
+			int pos = b.position();
+			b.ensure(4 + 4*_elems.length).putInt(_elems.length).put(new byte[4*_elems.length]);
+			for( int i=0; i<_elems.length; i++ ) {
+				int epos = _elems[i].write(b);
+				b.put(pos + 4 + 4*i, 4, epos - (pos + 4 + 4*i));
+			}
+			return pos;
+		}
+	}
+	
+	private static class FbStructVector extends FbObject {
+		private final byte[] _data;
+		private final int _len;
+		
+		public FbStructVector(byte[] data, int len) {
+			_data = data;
+			_len = len;
+		}
+		
+		@Override
+		public int write(FbBuilder b) {
+			//structs of longs are 8-byte aligned after the length
+			b.pad(4);
+			if( b.position() % 8 == 0 )
+				b.ensure(4).putInt(0);
+			int pos = b.position();
+			b.ensure(4 + _data.length).putInt(_len).put(_data);
+			return pos;
+		}
+	}
+	
+	private static class FbString extends FbObject {
+		private final byte[] _data;
+		
+		public FbString(String str) {
+			_data = str.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		@Override
+		public int write(FbBuilder b) {
+			b.pad(4);
+			int pos = b.position();
+			b.ensure(5 + _data.length).putInt(_data.length).put(_data).put((byte)0);
+			return pos;
+		}
+	}
+	
+	/**
+	 * Minimal flatbuffer reader for tables, vectors, and strings.
+	 */
+	private static class FbReader {
+		private final ByteBuffer _bb;
+		
+		public FbReader(byte[] data) {
+			_bb = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		
+		public int root() {
+			return _bb.getInt(0);
+		}
+		
+		private int field(int tab, int id) {
+			int vt = tab - _bb.getInt(tab);
+			int off = 4 + 2 * id;
+			return (off < (_bb.getShort(vt) & 0xFFFF)) ? _bb.getShort(vt + off) & 0xFFFF : 0;
+		}
+		
+		public long getLong(int tab, int id, long def) {
+			int off = field(tab, id);
+			return (off != 0) ? _bb.getLong(tab + off) : def;
+		}
+		
+		public int getInt(int tab, int id, int def) {
+			int off = field(tab, id);
+			return (off != 0) ? _bb.getInt(tab + off) : def;
+		}
+		
+		public int getShort(int tab, int id, int def) {
+			int off = field(tab, id);
+			return (off != 0) ? _bb.getShort(tab + off) : def;
+		}
+		
+		public int getByte(int tab, int id, int def) {
+			int off = field(tab, id);
+			return (off != 0) ? _bb.get(tab + off) & 0xFF : def;
+		}
+		
+		public int getRef(int tab, int id) {
+			int off = field(tab, id);
+			return (off != 0) ? tab + off + _bb.getInt(tab + off) : -1;
+		}
+		
+		public int getVectorLength(int vec) {
+			return _bb.getInt(vec);
+		}
+		
+		public int getVectorTable(int vec, int i) {
+			int pos = vec + 4 + 4 * i;
+			return pos + _bb.getInt(pos);
+		}
+		
+		public String getString(int str) {
+			return new String(_bb.array(), str + 4, _bb.getInt(str), StandardCharsets.UTF_8);
+		}
+	}
+}
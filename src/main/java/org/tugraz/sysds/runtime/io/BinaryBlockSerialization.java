@@ -26,6 +26,7 @@ import java.io.OutputStream;
 import org.apache.hadoop.io.serializer.Deserializer;
 import org.apache.hadoop.io.serializer.Serialization;
 import org.apache.hadoop.io.serializer.Serializer;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.util.FastBufferedDataInputStream;
 import org.tugraz.sysds.runtime.util.FastBufferedDataOutputStream;
@@ -39,6 +40,9 @@ import org.tugraz.sysds.runtime.util.FastBufferedDataOutputStream;
 @SuppressWarnings("rawtypes")
 public class BinaryBlockSerialization implements Serialization
 {
+	//write sparse blocks with delta-encoded column indexes
+	public static boolean DELTA_SPARSE_INDEXES = false;
+	
 	@Override
 	public boolean accept(Class arg0) 
 	{
@@ -117,7 +121,10 @@ public class BinaryBlockSerialization implements Serialization
 		public void serialize(MatrixBlock mb) 
 			throws IOException 
 		{
-			mb.write( _out );
+			if( DELTA_SPARSE_INDEXES && !(mb instanceof CompressedMatrixBlock) )
+				mb.writeDeltaSparse( _out );
+			else
+				mb.write( _out );
 			
 			//flush for guaranteed write (currently required)
 			_out.flush();
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionInputStream;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.DefaultCodec;
+
+/**
+ * Base class of pure-java block compression codecs for binary block sequence
+ * files. Unlike the hadoop lz4 and snappy codecs, these codecs do not require
+ * the native hadoop library. The compressed stream is a sequence of chunks
+ * [raw length, compressed length, compressed bytes], where each chunk is
+ * compressed independently. Since the codec class is recorded in the sequence
+ * file header, readers detect the codec automatically.
+ */
+public abstract class BlockCompressionCodec implements CompressionCodec
+{
+	private static final Log LOG = LogFactory.getLog(BlockCompressionCodec.class.getName());
+	
+	public enum CodecType {
+		NONE, DEFLATE, LZ4, SNAPPY
+	}
+	
+	//configured codec of binary block matrix writes
+	public static CodecType BINARYBLOCK_CODEC = CodecType.NONE;
+	
+	//raw size of independently compressed chunks
+	private static final int CHUNK_SIZE = 64 * 1024;
+	
+	/**
+	 * Obtains the configured codec of binary block matrix writes,
+	 * where unavailable codecs fall back to uncompressed files.
+	 * 
+	 * @return codec type
+	 */
+	public static CodecType getBinaryBlockCodec() {
+		CodecType type = BINARYBLOCK_CODEC;
+		if( type != CodecType.NONE && !isAvailable(type) ) {
+			LOG.warn("Binary block codec "+type.name().toLowerCase()
+				+ " unavailable, falling back to uncompressed binary block files.");
+			type = BINARYBLOCK_CODEC = CodecType.NONE;
+		}
+		return type;
+	}
+	
+	/**
+	 * Obtains the hadoop codec class of the given codec type.
+	 * 
+	 * @param type codec type
+	 * @return codec class, or null for uncompressed files
+	 */
+	public static Class<? extends CompressionCodec> getCodecClass(CodecType type) {
+		switch( type ) {
+			case DEFLATE: return DefaultCodec.class;
+			case LZ4:     return LZ4BlockCodec.class;
+			case SNAPPY:  return SnappyBlockCodec.class;
+			default:      return null;
+		}
+	}
+	
+	public static boolean isAvailable(CodecType type) {
+		switch( type ) {
+			case LZ4:    return LZ4BlockCodec.isAvailable();
+			case SNAPPY: return SnappyBlockCodec.isAvailable();
+			default:     return true;
+		}
+	}
+	
+	/**
+	 * Compresses the given raw bytes into the output buffer.
+	 * 
+	 * @param src raw bytes
+	 * @param len number of raw bytes
+	 * @param dst output buffer of at least max compressed length
+	 * @return number of compressed bytes
+	 * @throws IOException if IOException occurs
+	 */
+	protected abstract int compress(byte[] src, int len, byte[] dst) throws IOException;
+	
+	/**
+	 * Decompresses the given compressed bytes into the output buffer.
+	 * 
+	 * @param src compressed bytes
+	 * @param len number of compressed bytes
+	 * @param dst output buffer
+	 * @param rawLen number of raw bytes
+	 * @throws IOException if IOException occurs
+	 */
+	protected abstract void decompress(byte[] src, int len, byte[] dst, int rawLen) throws IOException;
+	
+	protected abstract int maxCompressedLength(int len);
+	
+	@Override
+	public CompressionOutputStream createOutputStream(OutputStream out) throws IOException {
+		return new BlockCompressionOutputStream(out);
+	}
+
+	@Override
+	public CompressionOutputStream createOutputStream(OutputStream out, Compressor compressor) throws IOException {
+		return new BlockCompressionOutputStream(out);
+	}
+
+	@Override
+	public Class<? extends Compressor> getCompressorType() {
+		return null; //no pooled compressors
+	}
+
+	@Override
+	public Compressor createCompressor() {
+		return null;
+	}
+
+	@Override
+	public CompressionInputStream createInputStream(InputStream in) throws IOException {
+		return new BlockCompressionInputStream(in);
+	}
+
+	@Override
+	public CompressionInputStream createInputStream(InputStream in, Decompressor decompressor) throws IOException {
+		return new BlockCompressionInputStream(in);
+	}
+
+	@Override
+	public Class<? extends Decompressor> getDecompressorType() {
+		return null; //no pooled decompressors
+	}
+
+	@Override
+	public Decompressor createDecompressor() {
+		return null;
+	}
+	
+	private static void writeInt(OutputStream out, int val) throws IOException {
+		out.write(val >>> 24);
+		out.write(val >>> 16);
+		out.write(val >>> 8);
+		out.write(val);
+	}
+	
+	private static int readInt(InputStream in) throws IOException {
+		int b1 = in.read();
+		if( b1 < 0 )
+			return -1; //end of stream
+		int b2 = in.read(), b3 = in.read(), b4 = in.read();
+		if( (b2 | b3 | b4) < 0 )
+			throw new IOException("Truncated compressed chunk header.");
+		return (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+	}
+	
+	private static void readFully(InputStream in, byte[] b, int len) throws IOException {
+		for( int n = 0; n < len; ) {
+			int count = in.read(b, n, len - n);
+			if( count < 0 )
+				throw new IOException("Truncated compressed chunk.");
+			n += count;
+		}
+	}
+	
+	private class BlockCompressionOutputStream extends CompressionOutputStream
+	{
+		private final byte[] _buff = new byte[CHUNK_SIZE];
+		private final byte[] _cbuff = new byte[maxCompressedLength(CHUNK_SIZE)];
+		private int _pos = 0;
+		
+		protected BlockCompressionOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if( _pos == _buff.length )
+				writeChunk();
+			_buff[_pos++] = (byte) b;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while( len > 0 ) {
+				if( _pos == _buff.length )
+					writeChunk();
+				int n = Math.min(len, _buff.length - _pos);
+				System.arraycopy(b, off, _buff, _pos, n);
+				_pos += n; off += n; len -= n;
+			}
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if( _pos > 0 )
+				writeChunk();
+		}
+
+		@Override
+		public void resetState() throws IOException {
+			_pos = 0;
+		}
+		
+		private void writeChunk() throws IOException {
+			int clen = compress(_buff, _pos, _cbuff);
+			writeInt(out, _pos);
+			writeInt(out, clen);
+			out.write(_cbuff, 0, clen);
+			_pos = 0;
+		}
+	}
+	
+	private class BlockCompressionInputStream extends CompressionInputStream
+	{
+		private byte[] _buff = new byte[CHUNK_SIZE];
+		private byte[] _cbuff = new byte[maxCompressedLength(CHUNK_SIZE)];
+		private int _pos = 0;
+		private int _len = 0;
+		
+		protected BlockCompressionInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			if( _pos == _len && !readChunk() )
+				return -1;
+			return _buff[_pos++] & 0xFF;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if( len == 0 )
+				return 0;
+			if( _pos == _len && !readChunk() )
+				return -1;
+			int n = Math.min(len, _len - _pos);
+			System.arraycopy(_buff, _pos, b, off, n);
+			_pos += n;
+			return n;
+		}
+
+		@Override
+		public void resetState() throws IOException {
+			_pos = _len = 0;
+		}
+		
+		private boolean readChunk() throws IOException {
+			int rawLen = readInt(in);
+			if( rawLen < 0 )
+				return false;
+			int clen = readInt(in);
+			if( rawLen > _buff.length )
+				_buff = new byte[rawLen];
+			if( clen > _cbuff.length )
+				_cbuff = new byte[clen];
+			readFully(in, _cbuff, clen);
+			decompress(_cbuff, clen, _buff, rawLen);
+			_pos = 0;
+			_len = rawLen;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.Text;
+import org.tugraz.sysds.parser.DataExpression;
+
+/**
+ * Byte-level tokenizer and number parser for lines of delimited text files,
+ * which operates directly on the bytes of a hadoop text record and thus avoids
+ * the creation of a line string and token strings per cell. The tokenization
+ * follows the quote handling of {@link IOUtilFunctions#splitCSV(String, String)},
+ * where tokens are trimmed of leading and trailing whitespace. Numbers are parsed
+ * via exact fast paths for decimal representations of up to 19 significant digits
+ * (Clinger's and Eisel-Lemire's algorithm), with fallback to
+ * {@link Double#parseDouble(String)} for all other inputs.
+ * 
+ * NOTE: A parser instance is stateful and thus, not thread-safe.
+ */
+public class CSVLineParser 
+{
+	private static final byte QUOTE = (byte) '"';
+	
+	//max number of significant digits of the fast paths (< 2^53, < 2^64)
+	private static final int MAX_CLINGER_DIGITS = 15;
+	private static final int MAX_DIGITS = 19;
+	private static final double[] POW10 = new double[] {1e0, 1e1, 1e2, 1e3,
+		1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+		1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	
+	//128-bit truncated mantissas of 10^e for e in [MIN_EXP10, MAX_EXP10]
+	private static final int MIN_EXP10 = -348;
+	private static final int MAX_EXP10 = 347;
+	private static final long[] POW10_HI = new long[MAX_EXP10-MIN_EXP10+1];
+	private static final long[] POW10_LO = new long[MAX_EXP10-MIN_EXP10+1];
+	
+	static {
+		BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		for( int e=MIN_EXP10; e<=MAX_EXP10; e++ ) {
+			BigInteger v;
+			if( e >= 0 )
+				v = BigInteger.TEN.pow(e);
+			else {
+				BigInteger d = BigInteger.TEN.pow(-e);
+				v = BigInteger.ONE.shiftLeft(d.bitLength() + 128).divide(d);
+			}
+			int shift = v.bitLength() - 128;
+			v = (shift >= 0) ? v.shiftRight(shift) : v.shiftLeft(-shift);
+			POW10_HI[e-MIN_EXP10] = v.shiftRight(64).longValue();
+			POW10_LO[e-MIN_EXP10] = v.and(mask).longValue();
+		}
+	}
+	
+	private final byte[] _delim;
+	private final byte[][] _naStrings;
+	
+	//current line (trimmed range) and token positions
+	private byte[] _buff;
+	private int _beg;
+	private int _end;
+	private int _pos;
+	private int _tbeg;
+	private int _tend;
+	
+	public CSVLineParser(String delim) {
+		this(delim, (String[]) null);
+	}
+	
+	/**
+	 * Creates a parser for the given delimiter and NA strings as
+	 * passed via the read parameters (separated by the NA string separator).
+	 * 
+	 * @param delim delimiter
+	 * @param naStrings NA strings, or null if none
+	 */
+	public CSVLineParser(String delim, String naStrings) {
+		this(delim, (naStrings != null) ? 
+			naStrings.split(DataExpression.DELIM_NA_STRING_SEP) : null);
+	}
+	
+	public CSVLineParser(String delim, String[] naStrings) {
+		_delim = delim.getBytes(StandardCharsets.UTF_8);
+		if( _delim.length == 0 )
+			throw new IllegalArgumentException("Empty delimiter.");
+		_naStrings = (naStrings != null) ? new byte[naStrings.length][] : null;
+		for( int i=0; naStrings!=null && i<naStrings.length; i++ )
+			_naStrings[i] = naStrings[i].getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Resets the parser to the given text record, without copying
+	 * the underlying byte array.
+	 * 
+	 * @param line text record
+	 * @return length of the trimmed line in bytes
+	 */
+	public int reset(Text line) {
+		return reset(line.getBytes(), 0, line.getLength());
+	}
+	
+	public int reset(byte[] buff, int off, int len) {
+		_buff = buff;
+		_beg = off;
+		_end = off + len;
+		while( _beg < _end && isWhitespace(buff[_beg]) )
+			_beg++;
+		while( _end > _beg && isWhitespace(buff[_end-1]) )
+			_end--;
+		_pos = _beg;
+		_tbeg = _tend = _beg;
+		return _end - _beg;
+	}
+	
+	/**
+	 * Advances to the next token of the current line, including empty
+	 * tokens between consecutive delimiters and at the end of the line.
+	 * 
+	 * @return true if a token exists, false if the line is exhausted
+	 */
+	public boolean next() {
+		if( _pos > _end )
+			return false;
+		final byte[] b = _buff;
+		final int from = _pos;
+		int to;
+		if( from == _end ) //empty token at end of line
+			to = from;
+		else if( b[from] == QUOTE && indexOf(b, QUOTE, from+1, _end) >= 0 ) {
+			to = indexOf(b, QUOTE, from+1, _end);
+			//handle escaped inner quotes, e.g. "aa""a"
+			while( to >= 0 && to+1 < _end && b[to+1] == QUOTE )
+				to = indexOf(b, QUOTE, to+2, _end);
+			to = (to >= 0) ? to + 1 : _end;
+			//handle remaining non-quoted characters "aa"a
+			if( to < _end && !matchesDelim(b, to) )
+				to = indexOfDelim(b, to+1);
+		}
+		else if( matchesDelim(b, from) )
+			to = from; //empty token
+		else //default: unquoted non-empty
+			to = indexOfDelim(b, from+1);
+		to = (to >= 0) ? to : _end;
+		
+		//trim token and advance position
+		int tbeg = from, tend = to;
+		while( tbeg < tend && isWhitespace(b[tbeg]) )
+			tbeg++;
+		while( tend > tbeg && isWhitespace(b[tend-1]) )
+			tend--;
+		_tbeg = tbeg;
+		_tend = tend;
+		_pos = (to < _end) ? to + _delim.length : _end + 1;
+		return true;
+	}
+	
+	public int getLength() {
+		return _tend - _tbeg;
+	}
+	
+	public boolean isEmpty() {
+		return _tbeg == _tend;
+	}
+	
+	public boolean isQuoted() {
+		return _tend - _tbeg >= 2 && _buff[_tbeg] == QUOTE && _buff[_tend-1] == QUOTE;
+	}
+	
+	/**
+	 * Indicates if the current token, after removing enclosing quotes,
+	 * matches one of the NA strings.
+	 * 
+	 * @return true if the token is an NA string
+	 */
+	public boolean isNA() {
+		if( _naStrings == null )
+			return false;
+		int off = isQuoted() ? 1 : 0;
+		int beg = _tbeg + off, len = _tend - _tbeg - 2 * off;
+		for( byte[] na : _naStrings ) {
+			if( na.length != len )
+				continue;
+			int i = 0;
+			while( i < len && na[i] == _buff[beg+i] )
+				i++;
+			if( i == len )
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Get the current token as string, including enclosing quotes
+	 * and escaped inner quotes (as produced by splitCSV and trim).
+	 * 
+	 * @return token string
+	 */
+	public String getString() {
+		return new String(_buff, _tbeg, _tend - _tbeg, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Get the trimmed current line as string, e.g., for error messages.
+	 * 
+	 * @return line string
+	 */
+	public String getLine() {
+		return new String(_buff, _beg, _end - _beg, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Parses the current token, after removing enclosing quotes, 
+	 * as double value.
+	 * 
+	 * @return double value
+	 * @throws NumberFormatException if the token is not a valid number
+	 */
+	public double getDouble() {
+		int off = isQuoted() ? 1 : 0;
+		return parseDouble(_buff, _tbeg + off, _tend - off);
+	}
+	
+	/**
+	 * Parses the current token, after removing enclosing quotes,
+	 * as long value.
+	 * 
+	 * @return long value
+	 * @throws NumberFormatException if the token is not a valid long
+	 */
+	public long getLong() {
+		int off = isQuoted() ? 1 : 0;
+		int pos = _tbeg + off, end = _tend - off;
+		boolean neg = (pos < end && _buff[pos] == '-');
+		if( pos < end && (neg || _buff[pos] == '+') )
+			pos++;
+		//fast path for up to 18 digits (no overflow)
+		if( pos < end && end - pos <= 18 ) {
+			long val = 0;
+			for( ; pos < end; pos++ ) {
+				int d = _buff[pos] - '0';
+				if( d < 0 || d > 9 )
+					break;
+				val = val * 10 + d;
+			}
+			if( pos == end )
+				return neg ? -val : val;
+		}
+		return Long.parseLong(new String(_buff, _tbeg + off,
+			_tend - _tbeg - 2 * off, StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Parses a double value from the given byte range. Decimal numbers
+	 * with up to 15 significant digits and a decimal exponent of at most
+	 * 22 are exactly representable by a single multiplication or division
+	 * of doubles, and numbers with up to 19 significant digits are handled
+	 * via a 128-bit approximation of the power of ten. All other inputs
+	 * (e.g., NaN, Infinity, hex, or ambiguous rounding) fall back to
+	 * Double.parseDouble, which makes the result identical in all cases.
+	 * 
+	 * @param b byte array
+	 * @param beg begin position, inclusive
+	 * @param end end position, exclusive
+	 * @return double value
+	 * @throws NumberFormatException if the input is not a valid number
+	 */
+	public static double parseDouble(byte[] b, int beg, int end) {
+		int pos = beg;
+		boolean neg = false;
+		if( pos < end && (b[pos] == '-' || b[pos] == '+') )
+			neg = (b[pos++] == '-');
+		
+		//parse mantissa digits and decimal point
+		long mant = 0;
+		int ndigits = 0, nfrac = 0, nsig = 0;
+		boolean dot = false;
+		for( ; pos < end; pos++ ) {
+			int d = b[pos] - '0';
+			if( d >= 0 && d <= 9 ) {
+				ndigits++;
+				if( nsig > 0 || d != 0 )
+					nsig++;
+				mant = mant * 10 + d;
+				if( dot ) nfrac++;
+				if( nsig > MAX_DIGITS )
+					return parseDoubleFallback(b, beg, end);
+			}
+			else if( b[pos] == '.' && !dot )
+				dot = true;
+			else
+				break;
+		}
+		if( ndigits == 0 )
+			return parseDoubleFallback(b, beg, end);
+		
+		//parse optional exponent
+		int exp = 0;
+		if( pos < end && (b[pos] == 'e' || b[pos] == 'E') ) {
+			pos++;
+			boolean eneg = false;
+			if( pos < end && (b[pos] == '-' || b[pos] == '+') )
+				eneg = (b[pos++] == '-');
+			int epos = pos;
+			for( ; pos < end && pos - epos < 4; pos++ ) {
+				int d = b[pos] - '0';
+				if( d < 0 || d > 9 )
+					break;
+				exp = exp * 10 + d;
+			}
+			if( pos == epos )
+				return parseDoubleFallback(b, beg, end);
+			exp = eneg ? -exp : exp;
+		}
+		if( pos != end )
+			return parseDoubleFallback(b, beg, end);
+		
+		//exact fast path via a single correctly rounded operation
+		exp -= nfrac;
+		double val;
+		if( mant == 0 )
+			val = 0;
+		else if( nsig <= MAX_CLINGER_DIGITS && exp >= 0 && exp < POW10.length )
+			val = mant * POW10[exp];
+		else if( nsig <= MAX_CLINGER_DIGITS && exp < 0 && -exp < POW10.length )
+			val = mant / POW10[-exp];
+		else if( Double.isNaN(val = parseDoubleEiselLemire(mant, exp)) )
+			return parseDoubleFallback(b, beg, end);
+		return neg ? -val : val;
+	}
+	
+	/**
+	 * Computes the correctly rounded double of w * 10^q for an unsigned 
+	 * mantissa w (of up to 19 digits) via the Eisel-Lemire algorithm.
+	 * 
+	 * @param w unsigned non-zero decimal mantissa
+	 * @param q decimal exponent
+	 * @return double value, or NaN if the result cannot be decided
+	 *   (e.g., halfway cases, subnormals, or overflow)
+	 */
+	private static double parseDoubleEiselLemire(long w, int q) {
+		if( q < MIN_EXP10 || q > MAX_EXP10 )
+			return Double.NaN;
+		//normalize mantissa and multiply with 128-bit power of ten
+		int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		long exp2 = ((217706L * q) >> 16) + 64 + 1023 - lz;
+		long phi = POW10_HI[q-MIN_EXP10];
+		long xhi = mulHigh(w, phi);
+		long xlo = w * phi;
+		//wider approximation if lower bits are inconclusive
+		if( (xhi & 0x1FF) == 0x1FF && Long.compareUnsigned(xlo + w, w) < 0 ) {
+			long plo = POW10_LO[q-MIN_EXP10];
+			long yhi = mulHigh(w, plo);
+			long ylo = w * plo;
+			long mhi = xhi, mlo = xlo + yhi;
+			if( Long.compareUnsigned(mlo, xlo) < 0 )
+				mhi++;
+			if( (mhi & 0x1FF) == 0x1FF && mlo + 1 == 0 && Long.compareUnsigned(ylo + w, w) < 0 )
+				return Double.NaN;
+			xhi = mhi;
+			xlo = mlo;
+		}
+		//shift to 54 bits and round to 53 bits
+		long msb = xhi >>> 63;
+		long mant = xhi >>> (msb + 9);
+		exp2 -= 1 ^ msb;
+		if( xlo == 0 && (xhi & 0x1FF) == 0 && (mant & 3) == 1 )
+			return Double.NaN; //halfway ambiguity
+		mant += mant & 1;
+		mant >>>= 1;
+		if( (mant >>> 53) > 0 ) {
+			mant >>>= 1;
+			exp2++;
+		}
+		if( exp2 - 1 < 0 || exp2 - 1 >= 0x7FF - 1 )
+			return Double.NaN; //subnormal, inf
+		return Double.longBitsToDouble((exp2 << 52) | (mant & 0x000FFFFFFFFFFFFFL));
+	}
+	
+	private static long mulHigh(long x, long y) {
+		//high 64 bits of the unsigned 128-bit product
+		long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+		long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+		long p00 = x0 * y0, p01 = x0 * y1;
+		long p10 = x1 * y0, p11 = x1 * y1;
+		long mid = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+		return p11 + (p01 >>> 32) + (p10 >>> 32) + (mid >>> 32);
+	}
+	
+	private static double parseDoubleFallback(byte[] b, int beg, int end) {
+		return IOUtilFunctions.parseDoubleParallel(
+			new String(b, beg, end - beg, StandardCharsets.UTF_8));
+	}
+	
+	private boolean matchesDelim(byte[] b, int pos) {
+		final byte[] delim = _delim;
+		if( pos + delim.length > _end )
+			return false;
+		for( int i=0; i<delim.length; i++ )
+			if( b[pos+i] != delim[i] )
+				return false;
+		return true;
+	}
+	
+	private int indexOfDelim(byte[] b, int from) {
+		final byte d0 = _delim[0];
+		final int last = _end - _delim.length;
+		for( int pos = from; pos <= last; pos++ )
+			if( b[pos] == d0 && (_delim.length == 1 || matchesDelim(b, pos)) )
+				return pos;
+		return -1;
+	}
+	
+	private static int indexOf(byte[] b, byte val, int from, int to) {
+		for( int pos = from; pos < to; pos++ )
+			if( b[pos] == val )
+				return pos;
+		return -1;
+	}
+	
+	private static boolean isWhitespace(byte b) {
+		//consistent with String.trim, non-ASCII bytes are negative
+		return b >= 0 && b <= ' ';
+	}
+}
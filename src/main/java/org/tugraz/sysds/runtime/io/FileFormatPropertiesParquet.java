@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.Serializable;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * Properties of columnar (parquet) reads, currently the optional projection
+ * to a contiguous range of columns that is pushed down from the compiler
+ * into the reader (i.e., other column chunks are never read from disk).
+ * Since parquet is a provided dependency, readers and writers are only
+ * created if the parquet library is available on the classpath.
+ */
+public class FileFormatPropertiesParquet extends FileFormatProperties implements Serializable
+{
+	private static final long serialVersionUID = 3596322640154322546L;
+	
+	//probed once, true if parquet-hadoop is on the classpath
+	private static final boolean _available = probeAvailable();
+	
+	//projected column range [cl,cu], 1-based, -1 if no projection
+	private final long _cl;
+	private final long _cu;
+	
+	public FileFormatPropertiesParquet() {
+		this(-1, -1);
+	}
+	
+	public FileFormatPropertiesParquet(long cl, long cu) {
+		_cl = cl;
+		_cu = cu;
+	}
+	
+	public boolean hasProjection() {
+		return _cl > 0 && _cu >= _cl;
+	}
+	
+	public long getColumnLower() {
+		return _cl;
+	}
+	
+	public long getColumnUpper() {
+		return _cu;
+	}
+	
+	public static boolean isAvailable() {
+		return _available;
+	}
+	
+	/**
+	 * Checks that the parquet library is available, and raises an
+	 * exception with instructions on how to add it otherwise.
+	 * 
+	 * @throws DMLRuntimeException if parquet is unavailable
+	 */
+	public static void checkAvailable() {
+		if( !_available )
+			throw new DMLRuntimeException("Parquet read/write requires the parquet-hadoop library "
+				+ "(and its dependencies), which is not on the classpath. Add the parquet jars, "
+				+ "e.g., from lib/ of the binary distribution or the Spark jars, to the classpath.");
+	}
+	
+	private static boolean probeAvailable() {
+		try {
+			Class.forName("org.apache.parquet.hadoop.ParquetFileReader");
+			return true;
+		}
+		catch(ClassNotFoundException | LinkageError ex) {
+			return false;
+		}
+	}
+}
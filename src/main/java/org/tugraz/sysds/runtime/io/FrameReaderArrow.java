@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.ArrowIPCFormat.ArrowField;
+import org.tugraz.sysds.runtime.io.ArrowIPCFormat.ArrowFooter;
+import org.tugraz.sysds.runtime.io.ArrowIPCFormat.ArrowMessage;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+
+/**
+ * Reader for frames in the Apache Arrow IPC formats, i.e., single files in
+ * the Arrow file format and input streams in the Arrow stream format, where
+ * the schema and column names are obtained from the Arrow schema (strings 
+ * for Utf8 fields, INT64 for integer fields, FP64 for floating point fields,
+ * and booleans). The columns of a single record batch are imported without 
+ * further copies via {@link FrameBlock#appendColumn(FrameArrowColumn)}, while
+ * the columns of multiple record batches are concatenated once.
+ */
+public class FrameReaderArrow extends FrameReader
+{
+	@Override
+	public final FrameBlock readFrameFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		long flen = fs.getFileStatus(path).getLen();
+		int mlen = ArrowIPCFormat.MAGIC.length;
+		if( flen < 2 * mlen + 6 )
+			throw new IOException("Invalid Arrow file "+fname+" of "+flen+" bytes.");
+		
+		FSDataInputStream in = fs.open(path);
+		try {
+			//read footer from the end of the file
+			byte[] magic = new byte[mlen];
+			in.readFully(magic);
+			checkMagic(magic, fname);
+			in.seek(flen - mlen - 4);
+			int footerLen = ArrowIPCFormat.readIntLE(in);
+			in.readFully(magic);
+			checkMagic(magic, fname);
+			if( footerLen <= 0 || footerLen > flen - 2 * mlen - 6 )
+				throw new IOException("Invalid Arrow file "+fname+": footer length "+footerLen+".");
+			byte[] footer = new byte[footerLen];
+			in.seek(flen - mlen - 4 - footerLen);
+			in.readFully(footer);
+			ArrowFooter meta = ArrowIPCFormat.parseFooter(footer);
+			
+			//read record batches at the block offsets of the footer
+			List<FrameArrowColumn[]> batches = new ArrayList<>();
+			for( long[] block : meta.blocks ) {
+				in.seek(block[0]);
+				ArrowMessage msg = ArrowIPCFormat.readMessage(in);
+				if( msg == null )
+					throw new IOException("Invalid Arrow file "+fname+": missing record batch at offset "+block[0]+".");
+				batches.add(ArrowIPCFormat.parseRecordBatch(msg, meta.fields));
+			}
+			return createFrameBlock(meta.fields, batches, rlen, clen);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+
+	@Override
+	public FrameBlock readFrameFromInputStream(InputStream is, ValueType[] schema, String[] names, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//read schema and all record batches until the end of the stream
+		DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+		ArrowField[] fields = ArrowIPCFormat.parseSchema(ArrowIPCFormat.readMessage(in));
+		List<FrameArrowColumn[]> batches = new ArrayList<>();
+		for( ArrowMessage msg = ArrowIPCFormat.readMessage(in); msg != null; msg = ArrowIPCFormat.readMessage(in) )
+			batches.add(ArrowIPCFormat.parseRecordBatch(msg, fields));
+		return createFrameBlock(fields, batches, rlen, clen);
+	}
+	
+	private static void checkMagic(byte[] magic, String fname) throws IOException {
+		if( !Arrays.equals(magic, ArrowIPCFormat.MAGIC) )
+			throw new IOException("Invalid Arrow file "+fname+": missing ARROW1 magic bytes.");
+	}
+	
+	private static FrameBlock createFrameBlock(ArrowField[] fields, List<FrameArrowColumn[]> batches, long rlen, long clen) 
+		throws IOException
+	{
+		long nrow = 0;
+		for( FrameArrowColumn[] batch : batches )
+			nrow += (batch.length > 0) ? batch[0].getLength() : 0;
+		if( (rlen >= 0 && rlen != nrow) || (clen >= 0 && clen != fields.length) )
+			throw new IOException("Arrow dimensions mismatch with metadata: "
+				+nrow+"x"+fields.length+" vs "+rlen+"x"+clen+".");
+		if( nrow > Integer.MAX_VALUE )
+			throw new IOException("Arrow frame with "+nrow+" rows exceeds the maximum frame block size.");
+		
+		//wrap or concatenate the columns of all record batches
+		FrameBlock ret = new FrameBlock();
+		String[] names = new String[fields.length];
+		for( int j=0; j<fields.length; j++ ) {
+			FrameArrowColumn[] cols = new FrameArrowColumn[batches.size()];
+			for( int k=0; k<batches.size(); k++ )
+				cols[k] = batches.get(k)[j];
+			ret.appendColumn(concatColumns(fields[j].vt, cols, (int)nrow));
+			names[j] = (fields[j].name != null) ? fields[j].name : "C"+(j+1);
+		}
+		ret.setColumnNames(names);
+		return ret;
+	}
+	
+	private static FrameArrowColumn concatColumns(ValueType vt, FrameArrowColumn[] cols, int len) 
+		throws IOException
+	{
+		if( cols.length == 1 )
+			return cols[0];
+		
+		//concatenate validity bitmaps, if necessary
+		byte[] validity = null;
+		for( FrameArrowColumn col : cols )
+			if( col.getNullCount() > 0 && validity == null )
+				validity = new byte[FrameArrowColumn.getBitmapSize(len)];
+		
+		//concatenate value buffers
+		int[] offsets = (vt == ValueType.STRING) ? new int[len+1] : null;
+		long nbytes = 0;
+		if( vt == ValueType.STRING ) {
+			for( FrameArrowColumn col : cols )
+				nbytes += col.getOffsetBuffer()[col.getLength()] - col.getOffsetBuffer()[0];
+			if( nbytes > Integer.MAX_VALUE )
+				throw new IOException("Arrow string column with "+nbytes+" bytes exceeds the maximum buffer size.");
+		}
+		byte[] bytes = (vt == ValueType.STRING) ? new byte[(int)nbytes] :
+			(vt == ValueType.BOOLEAN) ? new byte[FrameArrowColumn.getBitmapSize(len)] : null;
+		long[] longs = (vt == ValueType.INT64) ? new long[len] : null;
+		double[] doubles = (vt == ValueType.FP64) ? new double[len] : null;
+		int pos = 0, bpos = 0;
+		for( FrameArrowColumn col : cols ) {
+			int clen = col.getLength();
+			for( int i=0; i<clen && validity != null; i++ )
+				if( col.isValid(i) )
+					setBit(validity, pos+i);
+			switch( vt ) {
+				case STRING:
+					int[] coffsets = col.getOffsetBuffer();
+					for( int i=0; i<clen; i++ )
+						offsets[pos+i] = bpos + coffsets[i] - coffsets[0];
+					System.arraycopy(col.getByteBuffer(), coffsets[0], bytes, bpos, coffsets[clen]-coffsets[0]);
+					bpos += coffsets[clen] - coffsets[0];
+					break;
+				case BOOLEAN:
+					for( int i=0; i<clen; i++ )
+						if( col.getBoolean(i) )
+							setBit(bytes, pos+i);
+					break;
+				case INT64: System.arraycopy(col.getLongBuffer(), 0, longs, pos, clen); break;
+				case FP64:  System.arraycopy(col.getDoubleBuffer(), 0, doubles, pos, clen); break;
+				default: throw new IOException("Unsupported value type: "+vt);
+			}
+			pos += clen;
+		}
+		
+		switch( vt ) {
+			case STRING:
+				offsets[len] = bpos;
+				return FrameArrowColumn.createStringColumn(len, validity, offsets, bytes);
+			case BOOLEAN: return FrameArrowColumn.createBooleanColumn(len, validity, bytes);
+			case INT64:   return FrameArrowColumn.createLongColumn(len, validity, longs);
+			default:      return FrameArrowColumn.createDoubleColumn(len, validity, doubles);
+		}
+	}
+	
+	private static void setBit(byte[] bits, int i) {
+		bits[i >>> 3] |= (1 << (i & 7));
+	}
+}
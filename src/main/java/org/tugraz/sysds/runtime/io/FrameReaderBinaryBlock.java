@@ -58,6 +58,7 @@ public class FrameReaderBinaryBlock extends FrameReader
 	
 		//core read (sequential/parallel)
 		readBinaryBlockFrameFromHDFS(path, job, fs, ret, rlen, clen);
+		ret.dictionaryEncodeColumns();
 		
 		return ret;
 	}
@@ -81,9 +82,6 @@ public class FrameReaderBinaryBlock extends FrameReader
 	protected static void readBinaryBlockFrameFromSequenceFile( Path path, JobConf job, FileSystem fs, FrameBlock dest )
 		throws IOException, DMLRuntimeException
 	{
-		int rlen = dest.getNumRows();
-		int clen = dest.getNumColumns();
-		
 		//directly read from sequence files (individual partfiles)
 		SequenceFile.Reader reader = new SequenceFile.Reader(fs,path,job);
 		LongWritable key = new LongWritable(-1L);
@@ -91,30 +89,37 @@ public class FrameReaderBinaryBlock extends FrameReader
 		
 		try
 		{
-			while( reader.next(key, value) ) {	
-				int row_offset = (int)(key.get()-1);
-				int rows = value.getNumRows();
-				int cols = value.getNumColumns();
-				
-				if(rows == 0 || cols == 0)	//Empty block, ignore it.
-					continue;
-				
-				//bound check per block
-				if( row_offset + rows < 0 || row_offset + rows > rlen ) {
-					throw new IOException("Frame block ["+(row_offset+1)+":"+(row_offset+rows)+","+":"+"] " +
-							              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
-				}
-		
-				//copy block into target frame, incl meta on first
-				dest.copy( row_offset, row_offset+rows-1, 0, cols-1, value);
-				if( row_offset==0 )
-					dest.setColumnMetadata(value.getColumnMetadata());
-			}
+			while( reader.next(key, value) )
+				copyFrameBlock(key.get(), value, dest);
 		}
 		finally {
 			IOUtilFunctions.closeSilently(reader);
 		}
-	}	
+	}
+	
+	protected static void copyFrameBlock( long key, FrameBlock value, FrameBlock dest )
+		throws IOException
+	{
+		int rlen = dest.getNumRows();
+		int clen = dest.getNumColumns();
+		int row_offset = (int)(key-1);
+		int rows = value.getNumRows();
+		int cols = value.getNumColumns();
+		
+		if(rows == 0 || cols == 0)	//Empty block, ignore it.
+			return;
+		
+		//bound check per block
+		if( row_offset + rows < 0 || row_offset + rows > rlen ) {
+			throw new IOException("Frame block ["+(row_offset+1)+":"+(row_offset+rows)+","+":"+"] " +
+					              "out of overall frame range [1:"+rlen+",1:"+clen+"].");
+		}
+
+		//copy block into target frame, incl meta on first
+		dest.copy( row_offset, row_offset+rows-1, 0, cols-1, value);
+		if( row_offset==0 )
+			dest.setColumnMetadata(value.getColumnMetadata());
+	}
 	
 	/**
 	 * Specific functionality of FrameReaderBinaryBlock, mostly used for testing.
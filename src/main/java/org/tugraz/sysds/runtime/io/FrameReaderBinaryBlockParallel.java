@@ -21,13 +21,19 @@ package org.tugraz.sysds.runtime.io;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.mapred.JobConf;
 import org.tugraz.sysds.hops.OptimizerUtils;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
@@ -38,9 +44,17 @@ import org.tugraz.sysds.runtime.util.CommonThreadPool;
 /**
  * Multi-threaded frame binary block reader.
  * 
+ * The read is pipelined: read tasks (one per file) only read raw serialized
+ * blocks, while the deserialization and copy into the output frame is done
+ * by decode tasks on the same thread pool, which overlaps decoding with I/O 
+ * even for single-file inputs. The number of raw blocks in flight is bounded;
+ * beyond this bound, the read task decodes its blocks itself.
  */
 public class FrameReaderBinaryBlockParallel extends FrameReaderBinaryBlock
 {
+	//maximum number of raw blocks in flight per thread
+	private static final int MAX_INFLIGHT_BLOCKS = 4;
+	
 	@Override
 	protected void readBinaryBlockFrameFromHDFS( Path path, JobConf job, FileSystem fs, FrameBlock dest, long rlen, long clen )
 		throws IOException, DMLRuntimeException
@@ -51,40 +65,115 @@ public class FrameReaderBinaryBlockParallel extends FrameReaderBinaryBlock
 		{
 			//create read tasks for all files
 			ExecutorService pool = CommonThreadPool.get(numThreads);
+			ConcurrentLinkedQueue<Future<Object>> decodes = new ConcurrentLinkedQueue<>();
+			AtomicInteger inflight = new AtomicInteger(0);
 			ArrayList<ReadFileTask> tasks = new ArrayList<>();
 			for( Path lpath : IOUtilFunctions.getSequenceFilePaths(fs, path) )
-				tasks.add(new ReadFileTask(lpath, job, fs, dest));
+				tasks.add(new ReadFileTask(lpath, job, fs, dest, pool, 
+					decodes, inflight, MAX_INFLIGHT_BLOCKS * numThreads));
 
-			//wait until all tasks have been executed
+			//wait until all read tasks have been executed
 			List<Future<Object>> rt = pool.invokeAll(tasks);
-			pool.shutdown();
 			
-			//check for exceptions
+			//check for exceptions, and wait for all decode tasks
 			for( Future<Object> task : rt )
 				task.get();
+			for( Future<Object> task : decodes )
+				task.get();
+			pool.shutdown();
 		} 
 		catch (Exception e) {
 			throw new IOException("Failed parallel read of binary block input.", e);
 		}
 	}
 
-	private class ReadFileTask implements Callable<Object> 
+	private static class ReadFileTask implements Callable<Object> 
 	{
-		private Path _path = null;
-		private JobConf _job = null;
-		private FileSystem _fs = null;
-		private FrameBlock _dest = null;
+		private final Path _path;
+		private final JobConf _job;
+		private final FileSystem _fs;
+		private final FrameBlock _dest;
+		private final ExecutorService _pool;
+		private final ConcurrentLinkedQueue<Future<Object>> _decodes;
+		private final AtomicInteger _inflight;
+		private final int _maxInflight;
 		
-		public ReadFileTask(Path path, JobConf job, FileSystem fs, FrameBlock dest) {
+		public ReadFileTask(Path path, JobConf job, FileSystem fs, FrameBlock dest, ExecutorService pool,
+			ConcurrentLinkedQueue<Future<Object>> decodes, AtomicInteger inflight, int maxInflight)
+		{
 			_path = path;
 			_fs = fs;
 			_job = job;
 			_dest = dest;
+			_pool = pool;
+			_decodes = decodes;
+			_inflight = inflight;
+			_maxInflight = maxInflight;
 		}
 
+		@Override
+		@SuppressWarnings("deprecation")
+		public Object call() throws Exception {
+			SequenceFile.Reader reader = new SequenceFile.Reader(_fs, _path, _job);
+			try {
+				//fall back to deserializing read for record-compressed files
+				if( reader.isCompressed() && !reader.isBlockCompressed() ) {
+					IOUtilFunctions.closeSilently(reader);
+					readBinaryBlockFrameFromSequenceFile(_path, _job, _fs, _dest);
+					return null;
+				}
+				
+				//read raw blocks and hand them over to decode tasks
+				DataOutputBuffer key = new DataOutputBuffer();
+				DataOutputBuffer value = new DataOutputBuffer();
+				SequenceFile.ValueBytes vbytes = reader.createValueBytes();
+				while( reader.nextRaw(key, vbytes) >= 0 ) {
+					vbytes.writeUncompressedBytes(value);
+					DecodeBlockTask task = new DecodeBlockTask(
+						IOUtilFunctions.baToLong(key.getData(), 0), //long writable
+						Arrays.copyOf(value.getData(), value.getLength()), _dest, _inflight);
+					if( _inflight.incrementAndGet() <= _maxInflight )
+						_decodes.add(_pool.submit(task));
+					else
+						task.call(); //decode in read task
+					key.reset();
+					value.reset();
+				}
+			}
+			finally {
+				IOUtilFunctions.closeSilently(reader);
+			}
+			return null;
+		}
+	}
+	
+	private static class DecodeBlockTask implements Callable<Object> 
+	{
+		private final long _key;
+		private final byte[] _data;
+		private final FrameBlock _dest;
+		private final AtomicInteger _inflight;
+		
+		public DecodeBlockTask(long key, byte[] data, FrameBlock dest, AtomicInteger inflight) {
+			_key = key;
+			_data = data;
+			_dest = dest;
+			_inflight = inflight;
+		}
+		
 		@Override
 		public Object call() throws Exception {
-			readBinaryBlockFrameFromSequenceFile(_path, _job, _fs, _dest);
+			try {
+				//deserialize block and copy into output frame
+				DataInputBuffer in = new DataInputBuffer();
+				in.reset(_data, _data.length);
+				FrameBlock value = new FrameBlock();
+				value.readFields(in);
+				copyFrameBlock(_key, value, _dest);
+			}
+			finally {
+				_inflight.decrementAndGet();
+			}
 			return null;
 		}
 	}
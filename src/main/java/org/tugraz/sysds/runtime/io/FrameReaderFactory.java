@@ -56,6 +56,15 @@ public class FrameReaderFactory
 			else
 				reader = new FrameReaderBinaryBlock();
 		}
+		else if( iinfo == InputInfo.ParquetInputInfo ) {
+			FileFormatPropertiesParquet.checkAvailable();
+			FileFormatPropertiesParquet fprops = (props instanceof FileFormatPropertiesParquet) ?
+				(FileFormatPropertiesParquet)props : new FileFormatPropertiesParquet();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) )
+				reader = new FrameReaderParquetParallel( fprops );
+			else
+				reader = new FrameReaderParquet( fprops );
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame reader for unknown input info: "
 				+ InputInfo.inputInfoToString(iinfo));
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.ReaderParquet.RowGroup;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+
+/**
+ * Reader for columnar parquet files into frames, where the schema and column
+ * names are obtained from the file itself (strings for binary columns, INT64
+ * for integer columns, FP64 for floating point columns, and booleans). Only
+ * the column chunks of an optionally projected column range are read.
+ */
+public class FrameReaderParquet extends FrameReader
+{
+	protected final FileFormatPropertiesParquet _props;
+	
+	public FrameReaderParquet(FileFormatPropertiesParquet props) {
+		_props = (props != null) ? props : new FileFormatPropertiesParquet();
+	}
+	
+	@Override
+	public final FrameBlock readFrameFromHDFS(String fname, ValueType[] schema, String[] names, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		//collect row groups of all files and the projected columns
+		List<RowGroup> groups = ReaderParquet.getRowGroups(fs, path, job);
+		List<ColumnDescriptor> cols = ReaderParquet.getProjectedColumns(groups, _props);
+		long nrow = ReaderParquet.getNumRows(groups);
+		if( (rlen >= 0 && rlen != nrow) || (clen >= 0 && clen != cols.size()) )
+			throw new IOException("Parquet file dimensions mismatch with metadata: "
+				+nrow+"x"+cols.size()+" vs "+rlen+"x"+clen+".");
+		
+		//allocate output frame block w/ schema of the file
+		ValueType[] lschema = new ValueType[cols.size()];
+		String[] lnames = new String[cols.size()];
+		for( int j=0; j<cols.size(); j++ ) {
+			lschema[j] = getValueType(cols.get(j).getType());
+			lnames[j] = cols.get(j).getPath()[0];
+		}
+		FrameBlock ret = createOutputFrameBlock(lschema, lnames, nrow);
+		
+		//core read (sequential/parallel)
+		readParquetFrameFromHDFS(groups, job, cols, ret);
+		
+		return ret;
+	}
+
+	@Override
+	public FrameBlock readFrameFromInputStream(InputStream is, ValueType[] schema, String[] names, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		throw new DMLRuntimeException("Not implemented yet.");
+	}
+	
+	protected void readParquetFrameFromHDFS(List<RowGroup> groups, Configuration conf, List<ColumnDescriptor> cols, FrameBlock dest) 
+		throws IOException
+	{
+		//sequential read of all row groups
+		for( RowGroup rg : groups )
+			readRowGroup(rg, conf, cols, dest);
+	}
+	
+	/**
+	 * Reads the projected columns of a single row group into the rows
+	 * [rowOffset, rowOffset+rowCount) of the given output frame block,
+	 * which is thread-safe for disjoint row groups.
+	 * 
+	 * @param rg row group
+	 * @param conf hadoop configuration
+	 * @param cols projected column descriptors
+	 * @param dest output frame block
+	 * @throws IOException if IOException occurs
+	 */
+	protected static void readRowGroup(RowGroup rg, Configuration conf, List<ColumnDescriptor> cols, FrameBlock dest) 
+		throws IOException
+	{
+		ParquetFileReader reader = new ParquetFileReader(conf, rg.meta,
+			rg.path, Collections.singletonList(rg.block), cols);
+		try {
+			ColumnReadStoreImpl store = ReaderParquet.createColumnReadStore(reader, rg);
+			int rl = (int) rg.rowOffset;
+			int ru = rl + (int) rg.block.getRowCount();
+			for( int j=0; j<cols.size(); j++ ) {
+				ColumnDescriptor desc = cols.get(j);
+				ColumnReader cr = store.getColumnReader(desc);
+				PrimitiveTypeName type = desc.getType();
+				int maxDef = desc.getMaxDefinitionLevel();
+				for( int i=rl; i<ru; i++ ) {
+					//note: nulls remain as allocated defaults
+					if( cr.getCurrentDefinitionLevel() == maxDef )
+						dest.set(i, j, getObject(cr, type));
+					cr.consume();
+				}
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
+	}
+	
+	private static Object getObject(ColumnReader cr, PrimitiveTypeName type) {
+		switch( type ) {
+			case DOUBLE:  return cr.getDouble();
+			case FLOAT:   return (double) cr.getFloat();
+			case INT32:   return (long) cr.getInteger();
+			case INT64:   return cr.getLong();
+			case BOOLEAN: return cr.getBoolean();
+			case BINARY:  return cr.getBinary().toStringUsingUTF8();
+			default:
+				throw new DMLRuntimeException("Unsupported parquet column type: "+type);
+		}
+	}
+	
+	private static ValueType getValueType(PrimitiveTypeName type) {
+		switch( type ) {
+			case DOUBLE:
+			case FLOAT:   return ValueType.FP64;
+			case INT32:
+			case INT64:   return ValueType.INT64;
+			case BOOLEAN: return ValueType.BOOLEAN;
+			case BINARY:  return ValueType.STRING;
+			default:
+				throw new DMLRuntimeException("Unsupported parquet column type: "+type);
+		}
+	}
+}
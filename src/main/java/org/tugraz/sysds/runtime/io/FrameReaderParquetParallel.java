@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.tugraz.sysds.hops.OptimizerUtils;
+import org.tugraz.sysds.runtime.io.ReaderParquet.RowGroup;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Multi-threaded frame parquet reader, which reads the row groups
+ * of all part files independently and in parallel.
+ */
+public class FrameReaderParquetParallel extends FrameReaderParquet
+{
+	public FrameReaderParquetParallel(FileFormatPropertiesParquet props) {
+		super(props);
+	}
+	
+	@Override
+	protected void readParquetFrameFromHDFS(List<RowGroup> groups, Configuration conf, List<ColumnDescriptor> cols, FrameBlock dest) 
+		throws IOException
+	{
+		//fall back to sequential read if single row group
+		int numThreads = Math.min(OptimizerUtils.getParallelBinaryReadParallelism(), groups.size());
+		if( numThreads <= 1 ) {
+			super.readParquetFrameFromHDFS(groups, conf, cols, dest);
+			return;
+		}
+		
+		try 
+		{
+			//create and execute read tasks for all row groups
+			ExecutorService pool = CommonThreadPool.get(numThreads);
+			ArrayList<ReadRowGroupTask> tasks = new ArrayList<>();
+			for( RowGroup rg : groups )
+				tasks.add(new ReadRowGroupTask(rg, conf, cols, dest));
+			List<Future<Object>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//check for exceptions
+			for( Future<Object> task : rt )
+				task.get();
+		} 
+		catch (Exception e) {
+			throw new IOException("Failed parallel read of parquet input.", e);
+		}
+	}
+	
+	private static class ReadRowGroupTask implements Callable<Object> 
+	{
+		private final RowGroup _rg;
+		private final Configuration _conf;
+		private final List<ColumnDescriptor> _cols;
+		private final FrameBlock _dest;
+		
+		public ReadRowGroupTask(RowGroup rg, Configuration conf, List<ColumnDescriptor> cols, FrameBlock dest) {
+			_rg = rg;
+			_conf = conf;
+			_cols = cols;
+			_dest = dest;
+		}
+
+		@Override
+		public Object call() throws Exception {
+			readRowGroup(_rg, _conf, _cols, _dest);
+			return null;
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.tugraz.sysds.runtime.io;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -48,6 +49,9 @@ import org.apache.hadoop.mapred.InputFormat;
  */
 public class FrameReaderTextCSV extends FrameReader
 {
+	private static final int MVPREFIX_LEN = TfUtils.TXMTD_MVPREFIX.getBytes(StandardCharsets.UTF_8).length;
+	private static final int NDPREFIX_LEN = TfUtils.TXMTD_NDPREFIX.getBytes(StandardCharsets.UTF_8).length;
+	
 	protected FileFormatPropertiesCSV _props = null;
 	
 	public FrameReaderTextCSV(FileFormatPropertiesCSV props) {
@@ -82,6 +86,7 @@ public class FrameReaderTextCSV extends FrameReader
 	
 		//core read (sequential/parallel) 
 		readCSVFrameFromHDFS(path, job, fs, ret, lschema, lnames, rlen, clen);
+		ret.dictionaryEncodeColumns();
 		
 		return ret;
 	}
@@ -100,6 +105,7 @@ public class FrameReaderTextCSV extends FrameReader
 		InputStreamInputFormat informat = new InputStreamInputFormat(is);
 		InputSplit split = informat.getSplits(null, 1)[0];
 		readCSVFrameFromInputSplit(split, informat, null, ret, schema, names, rlen, clen, 0, true);
+		ret.dictionaryEncodeColumns();
 		
 		return ret;
 	}
@@ -126,6 +132,7 @@ public class FrameReaderTextCSV extends FrameReader
 		double dfillValue = _props.getFillValue();
 		String sfillValue = String.valueOf(_props.getFillValue());
 		String delim = _props.getDelim();
+		CSVLineParser parser = new CSVLineParser(delim, _props.getNAStrings());
 		
 		//create record reader
 		RecordReader<LongWritable, Text> reader = informat.getRecordReader(split, job, Reporter.NULL);
@@ -146,12 +153,12 @@ public class FrameReaderTextCSV extends FrameReader
 		{
 			while( reader.next(key, value) ) //foreach line
 			{
-				String cellStr = value.toString().trim();
 				emptyValuesFound = false; col = 0;
-				String[] parts = IOUtilFunctions.splitCSV(cellStr, delim);
+				parser.reset(value);
 				
 				//parse frame meta data (missing values / num distinct)
-				if( parts[0].equals(TfUtils.TXMTD_MVPREFIX) || parts[0].equals(TfUtils.TXMTD_NDPREFIX) ) {
+				if( parser.next() && isMetaDataToken(parser) ) {
+					String[] parts = IOUtilFunctions.splitCSV(parser.getLine(), delim);
 					if( parts[0].equals(TfUtils.TXMTD_MVPREFIX) )
 						for( int j=0; j<dest.getNumColumns(); j++ )
 							dest.getColumnMetadata(j).setMvValue(parts[j+1]);
@@ -161,23 +168,25 @@ public class FrameReaderTextCSV extends FrameReader
 					continue;
 				}
 				
-				for( String part : parts ) //foreach cell
-				{
-					part = part.trim();
-					if ( part.isEmpty() ) {
-						if( isFill && dfillValue!=0 )
+				do { //foreach cell (parsed from bytes)
+					if ( parser.isEmpty() ) {
+						if( isFill && dfillValue!=0 && col < clen )
 							dest.set(row, col, UtilFunctions.stringToObject(schema[col], sfillValue));
 						emptyValuesFound = true;
 					}
-					else {
-						dest.set(row, col, UtilFunctions.stringToObject(schema[col], part));
+					else if( col < clen ) {
+						dest.set(row, col, parseCell(parser, schema[col]));
 					}
 					col++;
 				}
+				while( parser.next() );
 				
 				//sanity checks for empty values and number of columns
-				IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, isFill, emptyValuesFound);
-				IOUtilFunctions.checkAndRaiseErrorCSVNumColumns("", cellStr, parts, clen);
+				if( emptyValuesFound || col != clen ) {
+					String cellStr = parser.getLine();
+					IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, isFill, emptyValuesFound);
+					IOUtilFunctions.checkAndRaiseErrorCSVNumColumns("", cellStr, col, clen);
+				}
 				row++;
 			}
 		}
@@ -188,6 +197,28 @@ public class FrameReaderTextCSV extends FrameReader
 		return row;
 	}
 
+	private static boolean isMetaDataToken(CSVLineParser parser) {
+		//cheap length check (in bytes) before string creation
+		int len = parser.getLength();
+		if( len != MVPREFIX_LEN && len != NDPREFIX_LEN )
+			return false;
+		String token = parser.getString();
+		return token.equals(TfUtils.TXMTD_MVPREFIX) 
+			|| token.equals(TfUtils.TXMTD_NDPREFIX);
+	}
+	
+	private static Object parseCell(CSVLineParser parser, ValueType vt) {
+		//NA strings in non-string columns are treated as missing values,
+		//while string columns retain them for subsequent transformations
+		if( vt != ValueType.STRING && parser.isNA() )
+			return null;
+		switch( vt ) {
+			case FP64:  return parser.getDouble();
+			case INT64: return parser.getLong();
+			default:    return UtilFunctions.stringToObject(vt, parser.getString());
+		}
+	}
+	
 	protected Pair<Integer,Integer> computeCSVSize( Path path, JobConf job, FileSystem fs) 
 		throws IOException 
 	{	
@@ -66,6 +66,7 @@ public class FrameReaderTextCell extends FrameReader
 	
 		//core read (sequential/parallel)
 		readTextCellFrameFromHDFS(path, job, fs, ret, lschema, lnames, rlen, clen);
+		ret.dictionaryEncodeColumns();
 		
 		return ret;
 	}
@@ -81,6 +82,7 @@ public class FrameReaderTextCell extends FrameReader
 	
 		//core read 
 		readRawTextCellFrameFromInputStream(is, ret, lschema, lnames, rlen, clen);
+		ret.dictionaryEncodeColumns();
 		
 		return ret;
 	}
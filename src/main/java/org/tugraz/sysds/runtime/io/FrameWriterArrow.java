@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.ArrowIPCFormat.PositionOutputStream;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+
+/**
+ * Writer for frames in the Apache Arrow IPC formats, where a frame is written
+ * as a single file in the Arrow file format (or to an output stream in the
+ * Arrow stream format), with one nullable field per frame column (Utf8, 
+ * int64, double, bool) named by the frame column names, and record batches 
+ * of a configurable number of rows. The buffers are obtained from
+ * {@link FrameBlock#getArrowColumn(int)} and written without re-encoding.
+ */
+public class FrameWriterArrow extends FrameWriter
+{
+	//multiple of 8 for byte-aligned validity and boolean bitmaps
+	public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+	
+	protected final int _batchSize;
+	
+	public FrameWriterArrow() {
+		this(DEFAULT_BATCH_SIZE);
+	}
+	
+	public FrameWriterArrow(int batchSize) {
+		if( batchSize <= 0 || batchSize % 8 != 0 )
+			throw new DMLRuntimeException("Invalid Arrow batch size "+batchSize+" (positive multiple of 8 required).");
+		_batchSize = batchSize;
+	}
+	
+	@Override
+	public final void writeFrameToHDFS(FrameBlock src, String fname, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//validity check frame dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen )
+			throw new IOException("Frame dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS( fname );
+		
+		//core write of all rows to a single file
+		PositionOutputStream os = new PositionOutputStream(
+			new BufferedOutputStream(fs.create(path, true)));
+		try {
+			os.write(ArrowIPCFormat.MAGIC);
+			ArrowIPCFormat.writePadding(os, 2);
+			List<long[]> blocks = writeArrowStream(src, os);
+			byte[] footer = ArrowIPCFormat.createFooter(src.getSchema(), src.getColumnNames(), blocks);
+			os.write(footer);
+			ArrowIPCFormat.writeIntLE(os, footer.length);
+			os.write(ArrowIPCFormat.MAGIC);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(os);
+		}
+		
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+	
+	/**
+	 * Writes the given frame in the Arrow stream format, i.e., the schema,
+	 * all record batches, and the end-of-stream marker. The output stream 
+	 * is flushed but not closed.
+	 * 
+	 * @param src frame block
+	 * @param os output stream
+	 * @throws IOException if IOException occurs
+	 */
+	public void writeFrameToOutputStream(FrameBlock src, OutputStream os) 
+		throws IOException
+	{
+		OutputStream bos = new BufferedOutputStream(os);
+		writeArrowStream(src, new PositionOutputStream(bos));
+		bos.flush();
+	}
+	
+	private List<long[]> writeArrowStream(FrameBlock src, PositionOutputStream os) 
+		throws IOException
+	{
+		ArrowIPCFormat.writeMessage(os, ArrowIPCFormat
+			.createSchemaMessage(src.getSchema(), src.getColumnNames()));
+		
+		//export columns once, and write record batches of row ranges
+		int clen = src.getNumColumns();
+		FrameArrowColumn[] cols = new FrameArrowColumn[clen];
+		for( int j=0; j<clen; j++ )
+			cols[j] = src.getArrowColumn(j);
+		ByteBuffer buff = ArrowIPCFormat.createWriteBuffer();
+		List<long[]> blocks = new ArrayList<>();
+		for( int rl=0; rl<src.getNumRows(); rl+=_batchSize ) {
+			int ru = Math.min(rl+_batchSize, src.getNumRows());
+			long pos = os.getPosition();
+			long[] lens = writeRecordBatch(cols, rl, ru, os, buff);
+			blocks.add(new long[]{pos, lens[0], lens[1]});
+		}
+		ArrowIPCFormat.writeEndOfStream(os);
+		return blocks;
+	}
+	
+	private static long[] writeRecordBatch(FrameArrowColumn[] cols, int rl, int ru, OutputStream os, ByteBuffer buff) 
+		throws IOException
+	{
+		//compute field nodes and buffer layout of the body
+		int len = ru - rl;
+		int bitmapLen = FrameArrowColumn.getBitmapSize(len);
+		long[] nodes = new long[2 * cols.length];
+		List<Long> buffers = new ArrayList<>();
+		long off = 0;
+		for( int j=0; j<cols.length; j++ ) {
+			FrameArrowColumn col = cols[j];
+			nodes[2*j] = len;
+			nodes[2*j+1] = getNullCount(col, rl, ru);
+			off = addBuffer(buffers, off, nodes[2*j+1] > 0 ? bitmapLen : 0);
+			switch( col.getValueType() ) {
+				case STRING:
+					int[] offsets = col.getOffsetBuffer();
+					off = addBuffer(buffers, off, 4L * (len + 1));
+					off = addBuffer(buffers, off, offsets[ru] - offsets[rl]);
+					break;
+				case BOOLEAN: off = addBuffer(buffers, off, bitmapLen); break;
+				case INT64:
+				case FP64:    off = addBuffer(buffers, off, 8L * len); break;
+				default: throw new DMLRuntimeException("Unsupported value type: "+col.getValueType());
+			}
+		}
+		long[] lbuffers = new long[buffers.size()];
+		for( int i=0; i<lbuffers.length; i++ )
+			lbuffers[i] = buffers.get(i);
+		
+		//write metadata and body, where bitmaps are sliced at byte boundaries
+		int metaLen = ArrowIPCFormat.writeMessage(os, 
+			ArrowIPCFormat.createRecordBatchMessage(len, nodes, lbuffers, off));
+		for( int j=0; j<cols.length; j++ ) {
+			FrameArrowColumn col = cols[j];
+			if( nodes[2*j+1] > 0 )
+				writeBytes(os, col.getValidityBuffer(), rl/8, bitmapLen);
+			switch( col.getValueType() ) {
+				case STRING:
+					int[] offsets = col.getOffsetBuffer();
+					ArrowIPCFormat.writeInts(os, buff, offsets, rl, len+1, offsets[rl]);
+					ArrowIPCFormat.writePadding(os, ArrowIPCFormat.align8(4L*(len+1)) - 4L*(len+1));
+					writeBytes(os, col.getByteBuffer(), offsets[rl], offsets[ru]-offsets[rl]);
+					break;
+				case BOOLEAN:
+					writeBytes(os, col.getByteBuffer(), rl/8, bitmapLen);
+					break;
+				case INT64:
+					ArrowIPCFormat.writeLongs(os, buff, col.getLongBuffer(), rl, len);
+					break;
+				case FP64:
+					ArrowIPCFormat.writeDoubles(os, buff, col.getDoubleBuffer(), rl, len);
+					break;
+				default:
+			}
+		}
+		return new long[]{metaLen, off};
+	}
+	
+	private static long addBuffer(List<Long> buffers, long off, long len) {
+		buffers.add(off);
+		buffers.add(len);
+		return off + ArrowIPCFormat.align8(len);
+	}
+	
+	private static void writeBytes(OutputStream os, byte[] data, int off, int len) 
+		throws IOException
+	{
+		os.write(data, off, len);
+		ArrowIPCFormat.writePadding(os, ArrowIPCFormat.align8(len) - len);
+	}
+	
+	private static long getNullCount(FrameArrowColumn col, int rl, int ru) {
+		if( col.getNullCount() == 0 )
+			return 0;
+		long ret = 0;
+		for( int i=rl; i<ru; i++ )
+			ret += col.isValid(i) ? 0 : 1;
+		return ret;
+	}
+}
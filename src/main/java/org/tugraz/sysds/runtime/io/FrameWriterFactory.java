@@ -54,6 +54,10 @@ public class FrameWriterFactory
 			else
 				writer = new FrameWriterBinaryBlock();
 		}
+		else if( oinfo == OutputInfo.ParquetOutputInfo ) {
+			FileFormatPropertiesParquet.checkAvailable();
+			writer = new FrameWriterParquet();
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create frame writer for unknown output info: "
 		                                   + OutputInfo.outputInfoToString(oinfo));
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.WriterParquet.RowWriteSupport;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+
+/**
+ * Writer for columnar parquet files, where a frame is written as a single file
+ * with one optional column per frame column, typed according to the frame schema
+ * (UTF8 strings, int64, double, boolean) and named by the frame column names.
+ * Nulls are written as missing values. Encodings as in {@link WriterParquet}.
+ */
+public class FrameWriterParquet extends FrameWriter
+{
+	@Override
+	public final void writeFrameToHDFS(FrameBlock src, String fname, long rlen, long clen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//validity check frame dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen )
+			throw new IOException("Frame dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		if( clen == 0 )
+			throw new IOException("Write of frames with zero columns not supported ("+rlen+"x"+clen+").");
+		
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS( fname );
+		
+		//core write of all rows to a single file
+		WriterParquet.writeParquetFile(path, job, new FrameWriteSupport(src), src.getNumRows());
+		
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+	
+	private static class FrameWriteSupport extends RowWriteSupport
+	{
+		private final FrameBlock _src;
+		private final ValueType[] _schema;
+		private final String[] _names;
+		
+		public FrameWriteSupport(FrameBlock src) {
+			super(createFrameSchema(src.getSchema(), src.getColumnNames()));
+			_src = src;
+			_schema = src.getSchema();
+			_names = src.getColumnNames();
+		}
+		
+		@Override
+		protected void writeRow(int row) {
+			for( int j=0; j<_names.length; j++ ) {
+				Object val = _src.get(row, j);
+				if( val == null )
+					continue; //missing value
+				_rc.startField(_names[j], j);
+				switch( _schema[j] ) {
+					case STRING:  _rc.addBinary(Binary.fromString(val.toString())); break;
+					case INT64:   _rc.addLong((Long)val); break;
+					case FP64:    _rc.addDouble((Double)val); break;
+					case BOOLEAN: _rc.addBoolean((Boolean)val); break;
+					default: throw new DMLRuntimeException("Unsupported value type: "+_schema[j]);
+				}
+				_rc.endField(_names[j], j);
+			}
+		}
+	}
+	
+	private static MessageType createFrameSchema(ValueType[] schema, String[] names) {
+		List<Type> fields = new ArrayList<>();
+		for( int j=0; j<schema.length; j++ ) {
+			switch( schema[j] ) {
+				case STRING:
+					fields.add(Types.optional(PrimitiveTypeName.BINARY).as(OriginalType.UTF8).named(names[j])); break;
+				case INT64:
+					fields.add(Types.optional(PrimitiveTypeName.INT64).named(names[j])); break;
+				case FP64:
+					fields.add(Types.optional(PrimitiveTypeName.DOUBLE).named(names[j])); break;
+				case BOOLEAN:
+					fields.add(Types.optional(PrimitiveTypeName.BOOLEAN).named(names[j])); break;
+				default:
+					throw new DMLRuntimeException("Unsupported value type: "+schema[j]);
+			}
+		}
+		return new MessageType("frame", fields);
+	}
+}
@@ -159,8 +159,12 @@ public class IOUtilFunctions
 	public static void checkAndRaiseErrorCSVNumColumns(String fname, String line, String[] parts, long ncol) 
 		throws IOException
 	{
-		int realncol = parts.length;
-		
+		checkAndRaiseErrorCSVNumColumns(fname, line, parts.length, ncol);
+	}
+	
+	public static void checkAndRaiseErrorCSVNumColumns(String fname, String line, int realncol, long ncol) 
+		throws IOException
+	{
 		if( realncol != ncol ) {
 			throw new IOException("Invalid number of columns (" + realncol + ", expected=" + ncol + ") "
 					+ "found in delimited file (" + fname + ") for line: " + line);
@@ -626,6 +630,47 @@ public class IOUtilFunctions
 		ba[ off+7 ] = (byte)((val >>>  0) & 0xFF);
 	}
 	
+	public static int utfToBa( String value, byte[] ba, int off ) {
+		//encode in modified UTF-8 as used by DataOutput, w/o length
+		for( int i=0; i<value.length(); i++ ) {
+			char c = value.charAt(i);
+			if( c>=0x0001 && c<=0x007F ) //1 byte range
+				ba[off++] = (byte) c;
+			else if( c>=0x0800 ) { //3 byte range
+				ba[off++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+				ba[off++] = (byte) (0x80 | ((c >>  6) & 0x3F));
+				ba[off++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+			}
+			else { //2 byte range and null
+				ba[off++] = (byte) (0xC0 | ((c >>  6) & 0x1F));
+				ba[off++] = (byte) (0x80 | ((c >>  0) & 0x3F));
+			}
+		}
+		return off;
+	}
+	
+	public static String baToUtf( byte[] ba, final int off, final int len, char[] cbuff ) {
+		//decode modified UTF-8 as written by utfToBa into reused char buffer
+		int clen = 0;
+		for( int i=off; i<off+len; ) {
+			int c = ba[i] & 0xFF;
+			if( c < 0x80 ) { //1 byte range
+				cbuff[clen++] = (char) c;
+				i += 1;
+			}
+			else if( (c & 0xE0) == 0xC0 ) { //2 byte range
+				cbuff[clen++] = (char) (((c & 0x1F) << 6) | (ba[i+1] & 0x3F));
+				i += 2;
+			}
+			else { //3 byte range
+				cbuff[clen++] = (char) (((c & 0x0F) << 12) 
+					| ((ba[i+1] & 0x3F) << 6) | (ba[i+2] & 0x3F));
+				i += 3;
+			}
+		}
+		return new String(cbuff, 0, clen);
+	}
+	
 	public static byte[] getBytes(ByteBuffer buff) {
 		int len = buff.limit();
 		if( buff.hasArray() )
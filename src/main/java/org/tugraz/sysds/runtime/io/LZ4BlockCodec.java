@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Pure-java LZ4 block compression codec for binary block sequence files.
+ */
+public class LZ4BlockCodec extends BlockCompressionCodec
+{
+	//lz4 factory (null if the library is unavailable)
+	private static final LZ4Factory _factory = createFactory();
+	
+	private final LZ4Compressor _compressor;
+	private final LZ4FastDecompressor _decompressor;
+	
+	public LZ4BlockCodec() {
+		if( _factory == null )
+			throw new RuntimeException("LZ4 compression library unavailable.");
+		_compressor = _factory.fastCompressor();
+		_decompressor = _factory.fastDecompressor();
+	}
+	
+	public static boolean isAvailable() {
+		return _factory != null;
+	}
+	
+	@Override
+	protected int compress(byte[] src, int len, byte[] dst) throws IOException {
+		return _compressor.compress(src, 0, len, dst, 0);
+	}
+
+	@Override
+	protected void decompress(byte[] src, int len, byte[] dst, int rawLen) throws IOException {
+		if( _decompressor.decompress(src, 0, dst, 0, rawLen) != len )
+			throw new IOException("Corrupted lz4 compressed chunk.");
+	}
+
+	@Override
+	protected int maxCompressedLength(int len) {
+		return _compressor.maxCompressedLength(len);
+	}
+
+	@Override
+	public String getDefaultExtension() {
+		return ".lz4";
+	}
+	
+	private static LZ4Factory createFactory() {
+		try {
+			return LZ4Factory.fastestInstance();
+		}
+		catch(Throwable ex) {
+			return null;
+		}
+	}
+}
@@ -55,6 +55,13 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderBinaryBlock( false );
 		}
+		else if( iinfo == InputInfo.ParquetInputInfo ) {
+			FileFormatPropertiesParquet.checkAvailable();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) && MatrixBlock.DEFAULT_SPARSEBLOCK == SparseBlock.Type.MCSR )
+				reader = new ReaderParquetParallel(new FileFormatPropertiesParquet());
+			else
+				reader = new ReaderParquet(new FileFormatPropertiesParquet());
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -92,6 +99,15 @@ public class MatrixReaderFactory
 			else
 				reader = new ReaderBinaryBlock( props.localFS );
 		}
+		else if( iinfo == InputInfo.ParquetInputInfo ) {
+			FileFormatPropertiesParquet.checkAvailable();
+			FileFormatPropertiesParquet fprops = (props.formatProperties instanceof FileFormatPropertiesParquet) ?
+				(FileFormatPropertiesParquet)props.formatProperties : new FileFormatPropertiesParquet();
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_READ_BINARYFORMATS) && MatrixBlock.DEFAULT_SPARSEBLOCK == SparseBlock.Type.MCSR )
+				reader = new ReaderParquetParallel( fprops );
+			else
+				reader = new ReaderParquet( fprops );
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix reader for unknown input info: "
 		                                   + InputInfo.inputInfoToString(iinfo));
@@ -32,6 +32,9 @@ import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
  */
 public abstract class MatrixWriter 
 {
+	//number of buffered characters per write of text cells
+	protected static final int SPARSE_WRITE_BATCH = 8192;
+	
 	public void writeMatrixToHDFS( MatrixBlock src, String fname, long rlen, long clen, int brlen, int bclen, long nnz )
 		throws IOException
 	{
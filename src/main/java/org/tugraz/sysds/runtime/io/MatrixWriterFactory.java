@@ -22,6 +22,7 @@ package org.tugraz.sysds.runtime.io;
 import org.tugraz.sysds.conf.ConfigurationManager;
 import org.tugraz.sysds.conf.CompilerConfig.ConfigType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
 import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
 
 public class MatrixWriterFactory 
@@ -62,11 +63,20 @@ public class MatrixWriterFactory
 			writer = new WriterBinaryCell();
 		}
 		else if( oinfo == OutputInfo.BinaryBlockOutputInfo ) {
-			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS) )
+			//note: memory-mapped files are uncompressed, hence configured codecs
+			//take precedence and use compressed sequence files instead
+			if( ConfigurationManager.getCompilerConfigFlag(ConfigType.MMAP_CP_BINARYFORMATS)
+				&& BlockCompressionCodec.getBinaryBlockCodec() == CodecType.NONE )
+				writer = new WriterBinaryBlockMapped(replication);
+			else if( ConfigurationManager.getCompilerConfigFlag(ConfigType.PARALLEL_CP_WRITE_BINARYFORMATS) )
 				writer = new WriterBinaryBlockParallel(replication);
 			else
 				writer = new WriterBinaryBlock(replication);
 		}
+		else if( oinfo == OutputInfo.ParquetOutputInfo ) {
+			FileFormatPropertiesParquet.checkAvailable();
+			writer = new WriterParquet();
+		}
 		else {
 			throw new DMLRuntimeException("Failed to create matrix writer for unknown output info: "
 		                                   + OutputInfo.outputInfoToString(oinfo));
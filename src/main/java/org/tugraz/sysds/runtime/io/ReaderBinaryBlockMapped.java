@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.FastBufferedDataInputStream;
+
+/**
+ * Binary block reader for single-file matrices written by {@link WriterBinaryBlockMapped}.
+ * Dense matrices are memory-mapped instead of deserialized block by block, which shares
+ * the OS page cache across processes reading the same file. Matrix blocks returned to
+ * general operations are obtained by a bulk copy of the mapped regions into an on-heap
+ * dense block, because off-heap dense blocks are only a storage format of the buffer 
+ * pool and not supported by operations. Read-only consumers that access the values 
+ * via the dense block API can instead wrap the mapped regions as an off-heap dense 
+ * block without any copy (lazy page-in on first access), see 
+ * {@link #readMappedDenseBlockFromLocal(File)}. Sparse matrices are deserialized as usual.
+ * 
+ * Binary block readers delegate to this reader for such files automatically.
+ */
+public class ReaderBinaryBlockMapped extends MatrixReader
+{
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		if( !isMappedFile(fs, path) )
+			throw new IOException("File "+path+" is not a memory-mapped binary block file.");
+		
+		//core read (w/o allocation of output)
+		return readMappedMatrixFromLocal(fs, path, rlen, clen);
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromInputStream(InputStream is, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		throw new DMLRuntimeException("Not implemented yet.");
+	}
+	
+	/**
+	 * Probes if the given path is a single local file with the
+	 * header of a memory-mapped binary block matrix.
+	 * 
+	 * @param fs file system
+	 * @param path file path
+	 * @return true if memory-mapped binary block file
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean isMappedFile(FileSystem fs, Path path)
+		throws IOException
+	{
+		if( !(fs instanceof LocalFileSystem) || !fs.isFile(path) )
+			return false;
+		File file = ((LocalFileSystem)fs).pathToFile(path);
+		if( file.length() < WriterBinaryBlockMapped.HEADER_SIZE )
+			return false;
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			return in.readInt() == WriterBinaryBlockMapped.MAGIC;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(in);
+		}
+	}
+	
+	public static MatrixBlock readMappedMatrixFromLocal(FileSystem fs, Path path, long rlen, long clen)
+		throws IOException
+	{
+		return readMappedMatrixFromLocal(((LocalFileSystem)fs).pathToFile(path), rlen, clen);
+	}
+	
+	public static MatrixBlock readMappedMatrixFromLocal(File file, long rlen, long clen)
+		throws IOException
+	{
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			Header header = readHeader(channel, file, rlen, clen);
+			
+			if( header.dense ) {
+				//bulk copy of mapped regions (each below 2GB) into on-heap dense 
+				//row blocks, which also supports large dense blocks beyond 2GB
+				MatrixBlock ret = new MatrixBlock(header.rlen, header.clen, false);
+				ret.allocateDenseBlock();
+				DenseBlock db = ret.getDenseBlock();
+				long off = WriterBinaryBlockMapped.HEADER_SIZE;
+				for( int bi=0; bi<db.numBlocks(); bi++ ) {
+					double[] vals = db.valuesAt(bi);
+					int len = db.size(bi);
+					for( int i=0; i<len; i+=WriterBinaryBlockMapped.MAX_MAP_CELLS ) {
+						int n = Math.min(len-i, WriterBinaryBlockMapped.MAX_MAP_CELLS);
+						channel.map(MapMode.READ_ONLY, off, 8L*n).asDoubleBuffer().get(vals, i, n);
+						off += 8L*n;
+					}
+				}
+				ret.setNonZeros(header.nnz);
+				return ret;
+			}
+			
+			//deserialize sparse or empty matrix block
+			MatrixBlock ret = new MatrixBlock();
+			ret.readFields(new FastBufferedDataInputStream(Channels.newInputStream(channel)));
+			return ret;
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Wraps the dense values of the given file as an off-heap dense block directly
+	 * over the memory-mapped file region, without any copy. Values are paged in
+	 * lazily on first access. Writable files are mapped copy-on-write, i.e., updates
+	 * are never written through, while read-only files are mapped read-only.
+	 * 
+	 * @param file local file
+	 * @return off-heap dense block
+	 * @throws IOException if IOException occurs or the file is not dense
+	 */
+	public static DenseBlockOffHeapFP64 readMappedDenseBlockFromLocal(File file)
+		throws IOException
+	{
+		//copy-on-write mapping requires a writable channel
+		boolean writable = file.canWrite();
+		FileChannel channel = null;
+		try {
+			channel = writable ?
+				FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE) :
+				FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			Header header = readHeader(channel, file, -1, -1);
+			if( !header.dense )
+				throw new IOException("Memory-mapped binary block file "+file+" is not dense.");
+			
+			//map one region per off-heap row block (each below 2GB), where
+			//mapped regions remain valid after close of the channel
+			int blen = DenseBlockOffHeapFP64.computeOffHeapBlockSize(header.clen);
+			ByteBuffer[] buffs = new ByteBuffer[(header.rlen + blen - 1) / blen];
+			for( int bi=0; bi<buffs.length; bi++ ) {
+				long off = WriterBinaryBlockMapped.HEADER_SIZE + (long)bi * blen * header.clen * 8;
+				long len = (long)Math.min(blen, header.rlen - bi * blen) * header.clen * 8;
+				buffs[bi] = channel.map(writable ? MapMode.PRIVATE : MapMode.READ_ONLY, off, len);
+			}
+			return new DenseBlockOffHeapFP64(new int[]{header.rlen, header.clen}, buffs);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	private static Header readHeader(FileChannel channel, File file, long rlen, long clen)
+		throws IOException
+	{
+		ByteBuffer buff = ByteBuffer.allocate(WriterBinaryBlockMapped.HEADER_SIZE);
+		while( buff.hasRemaining() && channel.read(buff) >= 0 );
+		buff.flip();
+		if( buff.remaining() < WriterBinaryBlockMapped.HEADER_SIZE
+			|| buff.getInt() != WriterBinaryBlockMapped.MAGIC
+			|| buff.getInt() != WriterBinaryBlockMapped.VERSION )
+			throw new IOException("Invalid header of memory-mapped binary block file "+file+".");
+		Header ret = new Header(buff.getInt(), buff.getInt(), buff.getLong(), buff.get()==1);
+		if( (rlen > 0 && rlen != ret.rlen) || (clen > 0 && clen != ret.clen) )
+			throw new IOException("Mismatching dimensions of memory-mapped binary block file "
+				+file+": ["+ret.rlen+"x"+ret.clen+"] vs ["+rlen+"x"+clen+"].");
+		return ret;
+	}
+	
+	private static class Header {
+		private final int rlen;
+		private final int clen;
+		private final long nnz;
+		private final boolean dense;
+		
+		public Header(int rlen, int clen, long nnz, boolean dense) {
+			this.rlen = rlen;
+			this.clen = clen;
+			this.nnz = nnz;
+			this.dense = dense;
+		}
+	}
+}
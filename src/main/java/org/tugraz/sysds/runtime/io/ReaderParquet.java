@@ -0,0 +1,311 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Reader for columnar parquet files (a single file or a directory of part files)
+ * with flat schemas of primitive columns. Values are read column chunk by column
+ * chunk of each row group, and only the column chunks of an optionally projected
+ * column range are fetched from disk. Missing values (nulls) are read as NaN.
+ */
+public class ReaderParquet extends MatrixReader
+{
+	protected final FileFormatPropertiesParquet _props;
+	
+	public ReaderParquet(FileFormatPropertiesParquet props) {
+		_props = (props != null) ? props : new FileFormatPropertiesParquet();
+	}
+	
+	@Override
+	public MatrixBlock readMatrixFromHDFS(String fname, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//check existence and non-empty file
+		checkValidInputFile(fs, path);
+		
+		//collect row groups of all files and the projected columns
+		List<RowGroup> groups = getRowGroups(fs, path, job);
+		List<ColumnDescriptor> cols = getProjectedColumns(groups, _props);
+		long nrow = getNumRows(groups);
+		if( (rlen >= 0 && rlen != nrow) || (clen >= 0 && clen != cols.size()) )
+			throw new IOException("Parquet file dimensions mismatch with metadata: "
+				+nrow+"x"+cols.size()+" vs "+rlen+"x"+clen+".");
+		
+		//allocate output matrix block
+		MatrixBlock ret = createOutputMatrixBlock(nrow, cols.size(), brlen, bclen, estnnz, true, true);
+		
+		//core read (sequential/parallel)
+		long lnnz = readParquetMatrixFromHDFS(groups, job, cols, ret);
+		
+		//finally check if change of sparse/dense block representation required
+		ret.setNonZeros(lnnz);
+		ret.examSparsity();
+		
+		return ret;
+	}
+
+	@Override
+	public MatrixBlock readMatrixFromInputStream(InputStream is, long rlen, long clen, int brlen, int bclen, long estnnz) 
+		throws IOException, DMLRuntimeException 
+	{
+		throw new DMLRuntimeException("Not implemented yet.");
+	}
+	
+	protected long readParquetMatrixFromHDFS(List<RowGroup> groups, Configuration conf, List<ColumnDescriptor> cols, MatrixBlock dest) 
+		throws IOException
+	{
+		//sequential read of all row groups
+		long lnnz = 0;
+		for( RowGroup rg : groups )
+			lnnz += readRowGroup(rg, conf, cols, dest);
+		return lnnz;
+	}
+	
+	/**
+	 * Reads the projected columns of a single row group into the rows
+	 * [rowOffset, rowOffset+rowCount) of the given output matrix block,
+	 * which is thread-safe for disjoint row groups and MCSR sparse blocks.
+	 * 
+	 * @param rg row group
+	 * @param conf hadoop configuration
+	 * @param cols projected column descriptors
+	 * @param dest output matrix block
+	 * @return number of non-zeros
+	 * @throws IOException if IOException occurs
+	 */
+	protected static long readRowGroup(RowGroup rg, Configuration conf, List<ColumnDescriptor> cols, MatrixBlock dest) 
+		throws IOException
+	{
+		ParquetFileReader reader = new ParquetFileReader(conf, rg.meta,
+			rg.path, Collections.singletonList(rg.block), cols);
+		long lnnz = 0;
+		try {
+			ColumnReadStoreImpl store = createColumnReadStore(reader, rg);
+			int rl = (int) rg.rowOffset;
+			int ru = rl + (int) rg.block.getRowCount();
+			for( int j=0; j<cols.size(); j++ ) {
+				ColumnDescriptor desc = cols.get(j);
+				ColumnReader cr = store.getColumnReader(desc);
+				PrimitiveTypeName type = desc.getType();
+				int maxDef = desc.getMaxDefinitionLevel();
+				if( dest.isInSparseFormat() ) {
+					SparseBlock a = dest.getSparseBlock();
+					for( int i=rl; i<ru; i++ ) {
+						double v = (cr.getCurrentDefinitionLevel() == maxDef) ?
+							getDouble(cr, type) : Double.NaN;
+						if( v != 0 ) {
+							//note: columns in ascending order, i.e., sorted rows
+							a.append(i, j, v);
+							lnnz++;
+						}
+						cr.consume();
+					}
+				}
+				else {
+					DenseBlock a = dest.getDenseBlock();
+					for( int i=rl; i<ru; i++ ) {
+						double v = (cr.getCurrentDefinitionLevel() == maxDef) ?
+							getDouble(cr, type) : Double.NaN;
+						a.set(i, j, v);
+						lnnz += (v != 0) ? 1 : 0;
+						cr.consume();
+					}
+				}
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(reader);
+		}
+		return lnnz;
+	}
+	
+	protected static ColumnReadStoreImpl createColumnReadStore(ParquetFileReader reader, RowGroup rg) 
+		throws IOException
+	{
+		PageReadStore pages = reader.readNextRowGroup();
+		if( pages == null || pages.getRowCount() != rg.block.getRowCount() )
+			throw new IOException("Failed to read row group of "+rg.path+" at row "+rg.rowOffset+".");
+		return new ColumnReadStoreImpl(pages, new NoopGroupConverter(),
+			rg.meta.getSchema(), rg.meta.getCreatedBy());
+	}
+	
+	private static double getDouble(ColumnReader cr, PrimitiveTypeName type) {
+		switch( type ) {
+			case DOUBLE:  return cr.getDouble();
+			case FLOAT:   return cr.getFloat();
+			case INT32:   return cr.getInteger();
+			case INT64:   return cr.getLong();
+			case BOOLEAN: return cr.getBoolean() ? 1 : 0;
+			case BINARY:  return UtilFunctions.parseToDouble(cr.getBinary().toStringUsingUTF8());
+			default:
+				throw new DMLRuntimeException("Unsupported parquet column type: "+type);
+		}
+	}
+	
+	/**
+	 * Obtains the row groups of all (non-hidden) files of the given path,
+	 * ordered by file name, with their global row offsets. Files without
+	 * row groups are skipped, but inputs without any rows are rejected.
+	 * 
+	 * @param fs file system
+	 * @param path file or directory path
+	 * @param conf hadoop configuration
+	 * @return list of row groups
+	 * @throws IOException if IOException occurs
+	 */
+	public static List<RowGroup> getRowGroups(FileSystem fs, Path path, Configuration conf) 
+		throws IOException 
+	{
+		Path[] files = IOUtilFunctions.getSequenceFilePaths(fs, path);
+		Arrays.sort(files);
+		List<RowGroup> ret = new ArrayList<>();
+		MessageType schema = null;
+		long off = 0;
+		for( Path file : files ) {
+			if( !IOUtilFunctions.hiddenFileFilter.accept(file) )
+				continue;
+			ParquetMetadata footer = ParquetFileReader.readFooter(
+				conf, file, ParquetMetadataConverter.NO_FILTER);
+			FileMetaData meta = footer.getFileMetaData();
+			//check for flat and consistent schemas
+			for( ColumnDescriptor c : meta.getSchema().getColumns() )
+				if( c.getPath().length != 1 || c.getMaxRepetitionLevel() > 0 )
+					throw new IOException("Unsupported nested parquet schema: "+meta.getSchema());
+			if( schema != null && !schema.equals(meta.getSchema()) )
+				throw new IOException("Inconsistent parquet schemas: "+schema+" vs "+meta.getSchema());
+			schema = meta.getSchema();
+			for( BlockMetaData block : footer.getBlocks() ) {
+				ret.add(new RowGroup(file, meta, block, off));
+				off += block.getRowCount();
+			}
+		}
+		if( ret.isEmpty() )
+			throw new EOFException("Empty parquet input "+path+".");
+		return ret;
+	}
+	
+	public static long getNumRows(List<RowGroup> groups) {
+		RowGroup last = groups.get(groups.size()-1);
+		return last.rowOffset + last.block.getRowCount();
+	}
+	
+	public static List<ColumnDescriptor> getProjectedColumns(List<RowGroup> groups, FileFormatPropertiesParquet props) 
+		throws IOException
+	{
+		List<ColumnDescriptor> cols = groups.get(0).meta.getSchema().getColumns();
+		if( props != null && props.hasProjection() ) {
+			if( props.getColumnUpper() > cols.size() )
+				throw new IOException("Column projection ["+props.getColumnLower()+":"
+					+props.getColumnUpper()+"] out of range [1:"+cols.size()+"].");
+			cols = cols.subList((int)props.getColumnLower()-1, (int)props.getColumnUpper());
+		}
+		return cols;
+	}
+	
+	/**
+	 * Reads the number of rows and columns of a parquet file or
+	 * directory of part files from the file footers only.
+	 * 
+	 * @param fname file name
+	 * @return array of number of rows and columns
+	 * @throws IOException if IOException occurs
+	 */
+	public static long[] readDimensions(String fname) 
+		throws IOException
+	{
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path(fname);
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		List<RowGroup> groups = getRowGroups(fs, path, job);
+		return new long[]{getNumRows(groups),
+			getProjectedColumns(groups, null).size()};
+	}
+	
+	/**
+	 * Row group of a parquet file with its global row offset.
+	 */
+	public static class RowGroup
+	{
+		public final Path path;
+		public final FileMetaData meta;
+		public final BlockMetaData block;
+		public final long rowOffset;
+		
+		public RowGroup(Path path, FileMetaData meta, BlockMetaData block, long rowOffset) {
+			this.path = path;
+			this.meta = meta;
+			this.block = block;
+			this.rowOffset = rowOffset;
+		}
+	}
+	
+	/**
+	 * Converter that satisfies the column read store, which requires a
+	 * converter per column even though values are read via column readers.
+	 */
+	private static class NoopGroupConverter extends GroupConverter
+	{
+		@Override
+		public Converter getConverter(int fieldIndex) {
+			return new PrimitiveConverter() {};
+		}
+		
+		@Override
+		public void start() {}
+		
+		@Override
+		public void end() {}
+	}
+}
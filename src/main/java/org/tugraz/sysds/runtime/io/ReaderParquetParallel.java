@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.tugraz.sysds.hops.OptimizerUtils;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Multi-threaded parquet reader, which reads the row groups of all part files
+ * independently and in parallel (without predicates, i.e., all row groups).
+ * Since row groups cover disjoint row ranges, the output is written without
+ * synchronization, which requires MCSR sparse blocks.
+ */
+public class ReaderParquetParallel extends ReaderParquet
+{
+	private final int _numThreads;
+	
+	public ReaderParquetParallel(FileFormatPropertiesParquet props) {
+		super(props);
+		_numThreads = OptimizerUtils.getParallelBinaryReadParallelism();
+	}
+	
+	@Override
+	protected long readParquetMatrixFromHDFS(List<RowGroup> groups, Configuration conf, List<ColumnDescriptor> cols, MatrixBlock dest) 
+		throws IOException
+	{
+		//fall back to sequential read if single row group
+		int numThreads = Math.min(_numThreads, groups.size());
+		if( numThreads <= 1 )
+			return super.readParquetMatrixFromHDFS(groups, conf, cols, dest);
+		
+		try 
+		{
+			//create and execute read tasks for all row groups
+			ExecutorService pool = CommonThreadPool.get(numThreads);
+			ArrayList<ReadRowGroupTask> tasks = new ArrayList<>();
+			for( RowGroup rg : groups )
+				tasks.add(new ReadRowGroupTask(rg, conf, cols, dest));
+			List<Future<Long>> rt = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//check for exceptions and aggregate nnz
+			long lnnz = 0;
+			for( Future<Long> task : rt )
+				lnnz += task.get();
+			return lnnz;
+		} 
+		catch (Exception e) {
+			throw new IOException("Failed parallel read of parquet input.", e);
+		}
+	}
+	
+	private static class ReadRowGroupTask implements Callable<Long> 
+	{
+		private final RowGroup _rg;
+		private final Configuration _conf;
+		private final List<ColumnDescriptor> _cols;
+		private final MatrixBlock _dest;
+		
+		public ReadRowGroupTask(RowGroup rg, Configuration conf, List<ColumnDescriptor> cols, MatrixBlock dest) {
+			_rg = rg;
+			_conf = conf;
+			_cols = cols;
+			_dest = dest;
+		}
+
+		@Override
+		public Long call() throws Exception {
+			return readRowGroup(_rg, _conf, _cols, _dest);
+		}
+	}
+}
@@ -96,7 +96,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 		// Second Read Pass (read, parse strings, append to matrix block)
 		readCSVMatrixFromHDFS(splits, path, job, ret, rlen, clen, brlen, bclen,
 				_props.hasHeader(), _props.getDelim(), _props.isFill(),
-				_props.getFillValue());
+				_props.getFillValue(), _props.getNAStrings());
 		
 		//post-processing (representation-specific, change of sparse/dense block representation)
 		// - no sorting required for CSV because it is read in sorted order per row
@@ -122,7 +122,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 	
 	private void readCSVMatrixFromHDFS(InputSplit[] splits, Path path, JobConf job, 
 			MatrixBlock dest, long rlen, long clen, int brlen, int bclen, 
-			boolean hasHeader, String delim, boolean fill, double fillValue) 
+			boolean hasHeader, String delim, boolean fill, double fillValue, String naStrings) 
 		throws IOException 
 	{
 		FileInputFormat.addInputPath(job, path);
@@ -138,7 +138,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 			int splitCount = 0;
 			for (InputSplit split : splits) {
 				tasks.add( new CSVReadTask(split, _offsets, informat, job, dest, 
-					rlen, clen, hasHeader, delim, fill, fillValue, splitCount++) );
+					rlen, clen, hasHeader, delim, fill, fillValue, naStrings, splitCount++) );
 			}
 			pool.invokeAll(tasks);
 			pool.shutdown();
@@ -336,6 +336,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 		private boolean _fill = false;
 		private double _fillValue = 0;
 		private String _delim = null;
+		private String _naStrings = null;
 		private int _splitCount = 0;
 		
 		private boolean _rc = true;
@@ -345,7 +346,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 		public CSVReadTask(InputSplit split, SplitOffsetInfos offsets,
 				TextInputFormat informat, JobConf job, MatrixBlock dest,
 				long rlen, long clen, boolean hasHeader, String delim,
-				boolean fill, double fillValue, int splitCount) 
+				boolean fill, double fillValue, String naStrings, int splitCount) 
 		{
 			_split = split;
 			_splitoffsets = offsets; // new SplitOffsetInfos(offsets);
@@ -360,6 +361,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 			_fill = fill;
 			_fillValue = fillValue;
 			_delim = delim;
+			_naStrings = naStrings;
 			_rc = true;
 			_splitCount = splitCount;
 		}
@@ -398,70 +400,44 @@ public class ReaderTextCSVParallel extends MatrixReader
 
 				boolean noFillEmpty = false;
 				row = _splitoffsets.getOffsetPerSplit(_splitCount);
+				CSVLineParser parser = new CSVLineParser(_delim, _naStrings);
+				DenseBlock a = _sparse ? null : _dest.getDenseBlock();
 
 				try {
-					if (_sparse) // SPARSE<-value
+					while (reader.next(key, value)) // foreach line
 					{
-						while (reader.next(key, value)) // foreach line
+						// parse cells directly from the bytes of the line
+						parser.reset(value);
+						col = 0;
+						while (parser.next()) // foreach cell
 						{
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-
-							for (String part : parts) // foreach cell
-							{
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-
-								if( cellValue != 0 ) {
-									_dest.appendValue(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
+							if (parser.isEmpty()) {
+								noFillEmpty |= !_fill;
+								cellValue = _fillValue;
+							}
+							else {
+								cellValue = parser.isNA() ? 
+									Double.NaN : parser.getDouble();
 							}
-
-							// sanity checks (number of columns, fill values)
-							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
 							
-							row++;
-						}
-					} 
-					else // DENSE<-value
-					{
-						DenseBlock a = _dest.getDenseBlock();
-						while (reader.next(key, value)) { // foreach line
-							String cellStr = value.toString().trim();
-							String[] parts = IOUtilFunctions.split(cellStr, _delim);
-							col = 0;
-							for (String part : parts) { // foreach cell
-								part = part.trim();
-								if (part.isEmpty()) {
-									noFillEmpty |= !_fill;
-									cellValue = _fillValue;
-								} 
-								else {
-									cellValue = IOUtilFunctions.parseDoubleParallel(part);
-								}
-								if( cellValue != 0 ) {
+							if( cellValue != 0 && col < _clen ) {
+								if (_sparse) // SPARSE<-value
+									_dest.appendValue(row, col, cellValue);
+								else // DENSE<-value
 									a.set(row, col, cellValue);
-									lnnz++;
-								}
-								col++;
+								lnnz++;
 							}
+							col++;
+						}
 
-							// sanity checks (number of columns, fill values)
+						// sanity checks (number of columns, fill values)
+						if (noFillEmpty || col != _clen) {
+							String cellStr = parser.getLine();
 							IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, _fill, noFillEmpty);
-							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, parts, _clen);
-							
-							row++;
+							IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_split.toString(), cellStr, col, _clen);
 						}
+						
+						row++;
 					}
 
 					// sanity checks (number of rows)
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.LineReader;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Streaming reader for matrices in text CSV format, which reads the files
+ * of a matrix sequentially and returns consecutive row batches as matrix
+ * blocks. In contrast to {@link ReaderTextCSV}, the full matrix is never
+ * materialized, which allows aggregating CSV files that exceed the available
+ * memory. If unknown, the number of columns is determined from the first line,
+ * while the number of rows and non-zeros are only known after the last batch.
+ * 
+ * NOTE: A reader instance is stateful and thus, not thread-safe.
+ */
+public class ReaderTextCSVStream implements Closeable
+{
+	//target size of row batches in bytes (if dense)
+	public static long BATCH_SIZE = 16L * 1024 * 1024;
+	
+	private final FileFormatPropertiesCSV _props;
+	private final FileSystem _fs;
+	private final List<Path> _files;
+	private final String _fname;
+	private final CSVLineParser _parser;
+	private final Text _line = new Text();
+	
+	private int _fileNo = -1;
+	private LineReader _reader = null;
+	private boolean _pending = false; //first line read for ncol
+	private final long _clen;
+	private final int _batchSize;
+	private long _rows = 0;
+	private long _nnz = 0;
+	private double _sparsity;
+	
+	/**
+	 * Creates a streaming reader for the given CSV file or directory.
+	 * 
+	 * @param fname file name
+	 * @param props csv file format properties
+	 * @param clen number of columns, or -1 if unknown
+	 * @param sparsity estimated sparsity of the first batch
+	 * @throws IOException if IOException occurs
+	 */
+	public ReaderTextCSVStream(String fname, FileFormatPropertiesCSV props, long clen, double sparsity) 
+		throws IOException
+	{
+		_props = props;
+		_fname = fname;
+		_parser = new CSVLineParser(props.getDelim(), props.getNAStrings());
+		_sparsity = sparsity;
+		
+		//prepare file paths in alphanumeric order
+		Path path = new Path(fname);
+		_fs = IOUtilFunctions.getFileSystem(path, ConfigurationManager.getCachedJobConf());
+		MatrixReader.checkValidInputFile(_fs, path);
+		_files = new ArrayList<>();
+		if( _fs.isDirectory(path) ) {
+			for( FileStatus stat : _fs.listStatus(path, IOUtilFunctions.hiddenFileFilter) )
+				_files.add(stat.getPath());
+			_files.sort(Path::compareTo); //typed, Path is a raw Comparable
+		}
+		else
+			_files.add(path);
+		
+		//determine number of columns from first line if required
+		if( clen < 0 ) {
+			int ncol = 0;
+			if( _pending = readLine() ) {
+				_parser.reset(_line);
+				while( _parser.next() )
+					ncol++;
+			}
+			clen = ncol;
+		}
+		_clen = clen;
+		_batchSize = (int) Math.max(1, Math.min(Integer.MAX_VALUE, BATCH_SIZE / (8 * Math.max(clen, 1))));
+	}
+	
+	public long getNumColumns() {
+		return _clen;
+	}
+	
+	/**
+	 * Obtains the number of rows read so far.
+	 * 
+	 * @return number of rows
+	 */
+	public long getNumRows() {
+		return _rows;
+	}
+	
+	/**
+	 * Obtains the number of non-zeros read so far.
+	 * 
+	 * @return number of non-zeros
+	 */
+	public long getNonZeros() {
+		return _nnz;
+	}
+	
+	public int getBatchSize() {
+		return _batchSize;
+	}
+	
+	/**
+	 * Reads the next batch of rows into a matrix block.
+	 * 
+	 * @param reuse matrix block for reuse, or null
+	 * @return matrix block of at most batch size rows, or null if all rows were read
+	 * @throws IOException if IOException occurs
+	 */
+	public MatrixBlock next(MatrixBlock reuse) 
+		throws IOException 
+	{
+		if( !_pending && !readLine() )
+			return null;
+		
+		//allocate output block according to the sparsity of previous batches
+		boolean sparse = MatrixBlock.evalSparseFormatInMemory(
+			_batchSize, _clen, (long)(_sparsity * _batchSize * _clen));
+		MatrixBlock ret = (reuse != null) ? reuse : new MatrixBlock();
+		ret.reset(_batchSize, (int)_clen, sparse);
+		if( !sparse )
+			ret.allocateDenseBlock();
+		DenseBlock a = sparse ? null : ret.getDenseBlock();
+		
+		//read rows until batch size or end of input
+		int row = 0;
+		long lnnz = 0;
+		boolean fill = _props.isFill();
+		double fillValue = _props.getFillValue();
+		do {
+			_pending = false;
+			_parser.reset(_line);
+			boolean noFillEmpty = false;
+			int col = 0;
+			while( _parser.next() ) { //foreach cell
+				double cellValue = 0;
+				if( _parser.isEmpty() ) {
+					noFillEmpty |= !fill;
+					cellValue = fillValue;
+				}
+				else {
+					cellValue = _parser.isNA() ?
+						Double.NaN : _parser.getDouble();
+				}
+				if( cellValue != 0 && col < _clen ) {
+					if( sparse )
+						ret.appendValue(row, col, cellValue);
+					else
+						a.set(row, col, cellValue);
+					lnnz++;
+				}
+				col++;
+			}
+			
+			//sanity checks (number of columns, fill values)
+			if( noFillEmpty || col != _clen ) {
+				String cellStr = _parser.getLine();
+				IOUtilFunctions.checkAndRaiseErrorCSVEmptyField(cellStr, fill, noFillEmpty);
+				IOUtilFunctions.checkAndRaiseErrorCSVNumColumns(_fname, cellStr, col, _clen);
+			}
+			row++;
+		}
+		while( row < _batchSize && readLine() );
+		
+		//maintain meta data and shrink last batch
+		ret.setNonZeros(lnnz);
+		if( row < _batchSize )
+			ret = ret.slice(0, row-1);
+		_rows += row;
+		_nnz += lnnz;
+		_sparsity = (double) _nnz / _rows / Math.max(_clen, 1);
+		return ret;
+	}
+	
+	@Override
+	public void close() {
+		IOUtilFunctions.closeSilently(_reader);
+		_reader = null;
+		_fileNo = _files.size();
+	}
+	
+	private boolean readLine() throws IOException {
+		while( true ) {
+			//open next file on demand, incl skip of header
+			if( _reader == null ) {
+				if( ++_fileNo >= _files.size() )
+					return false;
+				_reader = new LineReader(_fs.open(_files.get(_fileNo)));
+				if( _fileNo == 0 && _props.hasHeader() )
+					_reader.readLine(_line);
+			}
+			if( _reader.readLine(_line) > 0 )
+				return true;
+			IOUtilFunctions.closeSilently(_reader);
+			_reader = null;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy block compression codec for binary block sequence files, backed
+ * by snappy-java (with bundled native libraries) instead of the native
+ * hadoop library.
+ */
+public class SnappyBlockCodec extends BlockCompressionCodec
+{
+	private static final boolean _available = checkAvailability();
+	
+	public static boolean isAvailable() {
+		return _available;
+	}
+	
+	@Override
+	protected int compress(byte[] src, int len, byte[] dst) throws IOException {
+		return Snappy.compress(src, 0, len, dst, 0);
+	}
+
+	@Override
+	protected void decompress(byte[] src, int len, byte[] dst, int rawLen) throws IOException {
+		if( Snappy.uncompress(src, 0, len, dst, 0) != rawLen )
+			throw new IOException("Corrupted snappy compressed chunk.");
+	}
+
+	@Override
+	protected int maxCompressedLength(int len) {
+		return Snappy.maxCompressedLength(len);
+	}
+
+	@Override
+	public String getDefaultExtension() {
+		return ".snappy";
+	}
+	
+	private static boolean checkAvailability() {
+		try {
+			//probe native library loading
+			return Snappy.maxCompressedLength(1) > 0;
+		}
+		catch(Throwable ex) {
+			return false;
+		}
+	}
+}
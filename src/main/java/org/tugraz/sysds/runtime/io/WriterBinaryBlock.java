@@ -20,13 +20,20 @@
 package org.tugraz.sysds.runtime.io;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.SequenceFile.CompressionType;
+import org.apache.hadoop.io.SequenceFile.Writer;
+import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.tugraz.sysds.conf.ConfigurationManager;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
 import org.tugraz.sysds.runtime.matrix.mapred.MRConfigurationNames;
@@ -36,9 +43,11 @@ import org.tugraz.sysds.runtime.util.HDFSTool;
 public class WriterBinaryBlock extends MatrixWriter
 {
 	protected int _replication = -1;
+	protected CodecType _codec = CodecType.NONE;
 	
 	public WriterBinaryBlock( int replication ) {
 		_replication  = replication;
+		_codec = BlockCompressionCodec.getBinaryBlockCodec();
 	}
 
 	@Override
@@ -67,7 +76,6 @@ public class WriterBinaryBlock extends MatrixWriter
 	}
 
 	@Override
-	@SuppressWarnings("deprecation")
 	public final void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen) 
 		throws IOException, DMLRuntimeException 
 	{
@@ -76,8 +84,7 @@ public class WriterBinaryBlock extends MatrixWriter
 		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
 		SequenceFile.Writer writer = null;
 		try {
-			writer = new SequenceFile.Writer(fs, job, path,
-				MatrixIndexes.class, MatrixBlock.class);
+			writer = createSequenceFileWriter(path, job, fs);
 			MatrixIndexes index = new MatrixIndexes(1, 1);
 			MatrixBlock block = new MatrixBlock(
 				(int)Math.max(Math.min(rlen, brlen),1),
@@ -98,7 +105,6 @@ public class WriterBinaryBlock extends MatrixWriter
 		writeBinaryBlockMatrixToSequenceFile(path, job, fs, src, brlen, bclen, 0, (int)rlen);
 	}
 
-	@SuppressWarnings("deprecation")
 	protected final void writeBinaryBlockMatrixToSequenceFile( Path path, JobConf job, FileSystem fs, MatrixBlock src, int brlen, int bclen, int rl, int ru ) 
 		throws IOException
 	{
@@ -106,19 +112,8 @@ public class WriterBinaryBlock extends MatrixWriter
 		int rlen = src.getNumRows();
 		int clen = src.getNumColumns();
 		
-		// 1) create sequence file writer, with right replication factor 
-		// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
-		SequenceFile.Writer writer = null;
-		if( _replication > 0 ) //if replication specified (otherwise default)
-		{
-			//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class, job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096),
-					                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
-		}
-		else	
-		{
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
-		}
+		// 1) create sequence file writer, with right replication factor and codec
+		SequenceFile.Writer writer = createSequenceFileWriter(path, job, fs);
 		
 		try
 		{
@@ -174,25 +169,13 @@ public class WriterBinaryBlock extends MatrixWriter
 		}
 	}
 
-	@SuppressWarnings("deprecation")
 	protected final void writeDiagBinaryBlockMatrixToHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock src, long rlen, long clen, int brlen, int bclen ) 
 		throws IOException, DMLRuntimeException
 	{
 		boolean sparse = src.isInSparseFormat();
 		
-		// 1) create sequence file writer, with right replication factor 
-		// (config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
-		SequenceFile.Writer writer = null;
-		if( _replication > 0 ) //if replication specified (otherwise default)
-		{
-			//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class, job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096),
-					                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
-		}
-		else	
-		{
-			writer = new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
-		}
+		// 1) create sequence file writer, with right replication factor and codec
+		SequenceFile.Writer writer = createSequenceFileWriter(path, job, fs);
 		
 		try
 		{
@@ -258,4 +241,34 @@ public class WriterBinaryBlock extends MatrixWriter
 			IOUtilFunctions.closeSilently(writer);
 		}
 	}
+
+	@SuppressWarnings("deprecation")
+	protected final SequenceFile.Writer createSequenceFileWriter( Path path, JobConf job, FileSystem fs ) 
+		throws IOException
+	{
+		Class<? extends CompressionCodec> codec = BlockCompressionCodec.getCodecClass(_codec);
+		
+		//uncompressed sequence file, with right replication factor 
+		//(config via MRConfigurationNames.DFS_REPLICATION not possible since sequence file internally calls fs.getDefaultReplication())
+		if( codec == null ) {
+			if( _replication > 0 ) //if replication specified (otherwise default)
+			{
+				//copy of SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class), except for replication
+				return new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class, job.getInt(MRConfigurationNames.IO_FILE_BUFFER_SIZE, 4096),
+						                         (short)_replication, fs.getDefaultBlockSize(), null, new SequenceFile.Metadata());	
+			}
+			return new SequenceFile.Writer(fs, job, path, MatrixIndexes.class, MatrixBlock.class);
+		}
+		
+		//block-compressed sequence file, where the codec is recorded in 
+		//the file header and thus automatically detected by all readers
+		List<Writer.Option> opts = new ArrayList<>();
+		opts.add(Writer.file(path));
+		opts.add(Writer.keyClass(MatrixIndexes.class));
+		opts.add(Writer.valueClass(MatrixBlock.class));
+		opts.add(Writer.compression(CompressionType.BLOCK, ReflectionUtils.newInstance(codec, job)));
+		if( _replication > 0 )
+			opts.add(Writer.replication((short)_replication));
+		return SequenceFile.createWriter(job, opts.toArray(new Writer.Option[0]));
+	}
 }
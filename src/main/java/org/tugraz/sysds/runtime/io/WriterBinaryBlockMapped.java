@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.FastBufferedDataOutputStream;
+
+/**
+ * Binary block writer for matrices on the local file system, which writes
+ * a single file that can be memory-mapped by {@link ReaderBinaryBlockMapped}.
+ * The file consists of a fixed-size header (magic number, version, rlen, clen,
+ * nnz, dense flag) and either the dense values in row-major order (big-endian
+ * doubles, 8-byte aligned) or the serialized sparse matrix block. Dense values
+ * are written and read through multiple mapped regions of at most 
+ * {@link #MAX_MAP_CELLS} cells, which supports matrices beyond 2GB. Matrices
+ * on other file systems are written as sequence files.
+ */
+public class WriterBinaryBlockMapped extends WriterBinaryBlock
+{
+	public static final int MAGIC = 0x53444D4D; //"SDMM"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 32;
+	
+	//maximum number of cells per mapped region (below 2GB)
+	public static int MAX_MAP_CELLS = DenseBlockOffHeapFP64.MAX_CELLS;
+	
+	public WriterBinaryBlockMapped( int replication ) {
+		super(replication);
+	}
+	
+	@Override
+	protected void writeBinaryBlockMatrixToHDFS( Path path, JobConf job, FileSystem fs, MatrixBlock src, long rlen, long clen, int brlen, int bclen )
+		throws IOException, DMLRuntimeException
+	{
+		//fall back to sequence files for non-local matrices
+		if( !(fs instanceof LocalFileSystem) ) {
+			super.writeBinaryBlockMatrixToHDFS(path, job, fs, src, rlen, clen, brlen, bclen);
+			return;
+		}
+		
+		//create parent directories similar to sequence file writers
+		if( path.getParent() != null )
+			fs.mkdirs(path.getParent());
+		writeMappedMatrixToLocal(((LocalFileSystem)fs).pathToFile(path), src);
+	}
+	
+	public static void writeMappedMatrixToLocal(File file, MatrixBlock src)
+		throws IOException
+	{
+		int rlen = src.getNumRows();
+		int clen = src.getNumColumns();
+		boolean dense = !src.isInSparseFormat() && !src.isEmptyBlock(false);
+		
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			
+			//write header (zero-padded to data alignment)
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putInt(rlen).putInt(clen)
+				.putLong(src.getNonZeros()).put((byte)(dense ? 1 : 0)).clear();
+			while( header.hasRemaining() )
+				channel.write(header);
+			
+			if( dense ) {
+				//row-block-wise bulk copy into mapped output regions
+				DenseBlock db = src.getDenseBlock();
+				long off = HEADER_SIZE;
+				if( db instanceof DenseBlockOffHeapFP64 )
+					for( ByteBuffer buff : ((DenseBlockOffHeapFP64)db).getBuffers() ) {
+						channel.map(MapMode.READ_WRITE, off, buff.capacity()).put(buff);
+						off += buff.capacity();
+					}
+				else
+					for( int bi=0; bi<db.numBlocks(); bi++ ) {
+						double[] vals = db.valuesAt(bi);
+						int len = db.size(bi);
+						for( int i=0; i<len; i+=MAX_MAP_CELLS ) {
+							int n = Math.min(len-i, MAX_MAP_CELLS);
+							channel.map(MapMode.READ_WRITE, off, 8L*n).asDoubleBuffer().put(vals, i, n);
+							off += 8L*n;
+						}
+					}
+			}
+			else {
+				//serialized sparse or empty matrix block
+				FastBufferedDataOutputStream out = new FastBufferedDataOutputStream(
+					Channels.newOutputStream(channel));
+				src.write(out);
+				out.flush();
+			}
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+
+/**
+ * Writer for columnar parquet files, where a matrix is written as a single file
+ * with one required double column per matrix column (named as frame columns C1,
+ * C2, ...). The row groups written by this writer are the units of parallel
+ * reads. Every column chunk is dictionary-encoded with automatic per-column
+ * fallback to plain encoding if the dictionary grows too large, which compresses
+ * low-cardinality and sparse columns well, and pages are snappy-compressed.
+ */
+public class WriterParquet extends MatrixWriter
+{
+	//row group size in bytes (uncompressed), i.e., the granularity of parallel reads
+	public static int ROW_GROUP_SIZE = ParquetWriter.DEFAULT_BLOCK_SIZE;
+	public static final int PAGE_SIZE = ParquetWriter.DEFAULT_PAGE_SIZE;
+	public static final CompressionCodecName CODEC = CompressionCodecName.SNAPPY;
+	
+	@Override
+	public final void writeMatrixToHDFS(MatrixBlock src, String fname, long rlen, long clen, int brlen, int bclen, long nnz, boolean diag) 
+		throws IOException, DMLRuntimeException 
+	{
+		//validity check matrix dimensions
+		if( src.getNumRows() != rlen || src.getNumColumns() != clen )
+			throw new IOException("Matrix dimensions mismatch with metadata: "+src.getNumRows()+"x"+src.getNumColumns()+" vs "+rlen+"x"+clen+".");
+		if( rlen == 0 || clen == 0 )
+			throw new IOException("Write of matrices with zero rows or columns not supported ("+rlen+"x"+clen+").");
+		
+		//prepare file access
+		JobConf job = new JobConf(ConfigurationManager.getCachedJobConf());
+		Path path = new Path( fname );
+		FileSystem fs = IOUtilFunctions.getFileSystem(path, job);
+		
+		//if the file already exists on HDFS, remove it.
+		HDFSTool.deleteFileIfExistOnHDFS( fname );
+		
+		//core write of all rows to a single file
+		writeParquetFile(path, job, new MatrixWriteSupport(src), src.getNumRows());
+		
+		IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+	}
+
+	@Override
+	public final void writeEmptyMatrixToHDFS(String fname, long rlen, long clen, int brlen, int bclen) 
+		throws IOException, DMLRuntimeException 
+	{
+		//note: dense columns of zeros are dictionary/rle-encoded (i.e., tiny)
+		MatrixBlock src = new MatrixBlock((int)Math.max(rlen, 1), (int)Math.max(clen, 1), true);
+		writeMatrixToHDFS(src, fname, src.getNumRows(), src.getNumColumns(), brlen, bclen, 0, false);
+	}
+	
+	/**
+	 * Writes the rows [0, nrow) via the given write support into a single parquet file.
+	 * 
+	 * @param path file path
+	 * @param conf hadoop configuration
+	 * @param ws write support of a matrix or frame
+	 * @param nrow number of rows
+	 * @throws IOException if IOException occurs
+	 */
+	protected static void writeParquetFile(Path path, Configuration conf, WriteSupport<Integer> ws, int nrow) 
+		throws IOException
+	{
+		ParquetWriter<Integer> writer = new ParquetWriter<>(path, ParquetFileWriter.Mode.OVERWRITE,
+			ws, CODEC, ROW_GROUP_SIZE, PAGE_SIZE, PAGE_SIZE, true, false, WriterVersion.PARQUET_1_0, conf);
+		try {
+			for( int i=0; i<nrow; i++ )
+				writer.write(i);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(writer);
+		}
+	}
+	
+	/**
+	 * Base write support, which consumes row indexes of the given
+	 * input and writes the corresponding rows as parquet records.
+	 */
+	protected static abstract class RowWriteSupport extends WriteSupport<Integer>
+	{
+		private final MessageType _schema;
+		protected RecordConsumer _rc;
+		
+		protected RowWriteSupport(MessageType schema) {
+			_schema = schema;
+		}
+		
+		@Override
+		public WriteContext init(Configuration conf) {
+			return new WriteContext(_schema, Collections.<String,String>emptyMap());
+		}
+		
+		@Override
+		public void prepareForWrite(RecordConsumer rc) {
+			_rc = rc;
+		}
+		
+		@Override
+		public void write(Integer row) {
+			_rc.startMessage();
+			writeRow(row);
+			_rc.endMessage();
+		}
+		
+		protected abstract void writeRow(int row);
+	}
+	
+	private static class MatrixWriteSupport extends RowWriteSupport
+	{
+		private final MatrixBlock _src;
+		private final String[] _names;
+		private final double[] _buff;
+		
+		public MatrixWriteSupport(MatrixBlock src) {
+			super(createMatrixSchema(src.getNumColumns()));
+			_src = src;
+			_names = FrameBlock.createColNames(src.getNumColumns());
+			_buff = new double[src.getNumColumns()];
+		}
+		
+		@Override
+		protected void writeRow(int row) {
+			//obtain dense row (dense block row, or expanded sparse row)
+			double[] vals = _buff;
+			int pos = 0;
+			if( !_src.isInSparseFormat() && !_src.isEmptyBlock(false) ) {
+				DenseBlock a = _src.getDenseBlock();
+				vals = a.values(row);
+				pos = a.pos(row);
+			}
+			else {
+				Arrays.fill(_buff, 0);
+				SparseBlock a = _src.getSparseBlock();
+				if( a != null && !a.isEmpty(row) ) {
+					int apos = a.pos(row);
+					int alen = a.size(row);
+					int[] aix = a.indexes(row);
+					double[] avals = a.values(row);
+					for( int k=apos; k<apos+alen; k++ )
+						_buff[aix[k]] = avals[k];
+				}
+			}
+			
+			//write all columns as required fields
+			for( int j=0; j<_names.length; j++ ) {
+				_rc.startField(_names[j], j);
+				_rc.addDouble(vals[pos+j]);
+				_rc.endField(_names[j], j);
+			}
+		}
+	}
+	
+	private static MessageType createMatrixSchema(int ncol) {
+		List<Type> fields = new ArrayList<>();
+		for( String name : FrameBlock.createColNames(ncol) )
+			fields.add(Types.required(PrimitiveTypeName.DOUBLE).named(name));
+		return new MessageType("matrix", fields);
+	}
+}
@@ -22,7 +22,6 @@ package org.tugraz.sysds.runtime.io;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.util.Iterator;
 
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
@@ -30,7 +29,8 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.JobConf;
 import org.tugraz.sysds.conf.ConfigurationManager;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
-import org.tugraz.sysds.runtime.matrix.data.IJV;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockCursor;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.util.HDFSTool;
 
@@ -92,20 +92,24 @@ public class WriterTextCell extends MatrixWriter
 			
 			if( sparse ) //SPARSE
 			{
-				Iterator<IJV> iter = src.getSparseBlockIterator(rl, ru);
-				while( iter.hasNext() )
+				SparseBlock a = src.getSparseBlock();
+				SparseBlockCursor cur = (a != null) ? a.getCursor(rl, ru) : null;
+				while( cur != null && cur.next() )
 				{
-					IJV cell = iter.next();
-
-					sb.append(cell.getI()+1);
+					sb.append(cur.getRow()+1);
 					sb.append(' ');
-					sb.append(cell.getJ()+1);
+					sb.append(cur.getCol()+1);
 					sb.append(' ');
-					sb.append(cell.getV());
+					sb.append(cur.getValue());
 					sb.append('\n');
-					br.write( sb.toString() ); //same as append
-					sb.setLength(0); 
+					//write in batches to avoid a string per cell
+					if( sb.length() >= SPARSE_WRITE_BATCH ) {
+						br.write( sb.toString() );
+						sb.setLength(0);
+					}
 				}
+				br.write( sb.toString() );
+				sb.setLength(0);
 			}
 			else //DENSE
 			{
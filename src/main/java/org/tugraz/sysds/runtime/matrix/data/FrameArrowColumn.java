@@ -0,0 +1,322 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.matrix.data;
+
+import java.nio.charset.StandardCharsets;
+
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * Frame column in the Apache Arrow columnar memory layout, used for 
+ * zero-copy interchange of frames with other systems. A column consists of
+ * an optional validity bitmap (bit i of byte i/8 in LSB order, 1 = valid),
+ * and the value buffers of the given value type:
+ * <ul>
+ *   <li>STRING: int32 offsets of length n+1 and UTF-8 encoded data</li>
+ *   <li>FP64: 64-bit floating point values</li>
+ *   <li>INT64: 64-bit signed integer values</li>
+ *   <li>BOOLEAN: bit-packed values in LSB order</li>
+ * </ul>
+ * All buffers are wrapped but not copied, and must not be modified after
+ * handing them to a frame block. Similarly, columns exported from a frame 
+ * block may share their buffers with the frame, and are thus read-only.
+ * The Arrow IPC stream and file formats are supported by
+ * {@link org.tugraz.sysds.runtime.io.FrameReaderArrow} and
+ * {@link org.tugraz.sysds.runtime.io.FrameWriterArrow}.
+ */
+public class FrameArrowColumn
+{
+	private final ValueType _vt;
+	private final int _length;
+	private final byte[] _validity;
+	private final int _nullCount;
+	
+	//value buffers, depending on value type
+	private final int[] _offsets;
+	private final byte[] _bytes;
+	private final long[] _longs;
+	private final double[] _doubles;
+	
+	private FrameArrowColumn(ValueType vt, int length, byte[] validity, 
+		int[] offsets, byte[] bytes, long[] longs, double[] doubles)
+	{
+		if( validity != null && validity.length < getBitmapSize(length) )
+			throw new DMLRuntimeException("Invalid validity bitmap of size "
+				+validity.length+" for "+length+" values.");
+		_vt = vt;
+		_length = length;
+		_validity = validity;
+		_nullCount = (validity != null) ? length - countBits(validity, length) : 0;
+		_offsets = offsets;
+		_bytes = bytes;
+		_longs = longs;
+		_doubles = doubles;
+	}
+	
+	/**
+	 * Creates a STRING column from Arrow buffers.
+	 * 
+	 * @param length number of values
+	 * @param validity validity bitmap, or null if all values are valid
+	 * @param offsets int32 offsets into the data buffer, of length length+1
+	 * @param data UTF-8 encoded string data
+	 * @return column
+	 */
+	public static FrameArrowColumn createStringColumn(int length, byte[] validity, int[] offsets, byte[] data) {
+		if( offsets.length < length+1 || offsets[length] > data.length )
+			throw new DMLRuntimeException("Invalid offsets buffer for "+length+" values.");
+		return new FrameArrowColumn(ValueType.STRING, length, validity, offsets, data, null, null);
+	}
+	
+	/**
+	 * Creates a FP64 column from Arrow buffers.
+	 * 
+	 * @param length number of values
+	 * @param validity validity bitmap, or null if all values are valid
+	 * @param data values, where values of null slots are undefined
+	 * @return column
+	 */
+	public static FrameArrowColumn createDoubleColumn(int length, byte[] validity, double[] data) {
+		return new FrameArrowColumn(ValueType.FP64, length, validity, null, null, null, data);
+	}
+	
+	/**
+	 * Creates a INT64 column from Arrow buffers.
+	 * 
+	 * @param length number of values
+	 * @param validity validity bitmap, or null if all values are valid
+	 * @param data values, where values of null slots are undefined
+	 * @return column
+	 */
+	public static FrameArrowColumn createLongColumn(int length, byte[] validity, long[] data) {
+		return new FrameArrowColumn(ValueType.INT64, length, validity, null, null, data, null);
+	}
+	
+	/**
+	 * Creates a BOOLEAN column from Arrow buffers.
+	 * 
+	 * @param length number of values
+	 * @param validity validity bitmap, or null if all values are valid
+	 * @param data bit-packed values in LSB order
+	 * @return column
+	 */
+	public static FrameArrowColumn createBooleanColumn(int length, byte[] validity, byte[] data) {
+		if( data.length < getBitmapSize(length) )
+			throw new DMLRuntimeException("Invalid boolean buffer for "+length+" values.");
+		return new FrameArrowColumn(ValueType.BOOLEAN, length, validity, null, data, null, null);
+	}
+	
+	/**
+	 * Encodes the given strings into a STRING column, where null
+	 * strings are represented as invalid slots.
+	 * 
+	 * @param data array of strings
+	 * @param length number of values
+	 * @return column
+	 */
+	public static FrameArrowColumn create(String[] data, int length) {
+		int[] offsets = new int[length+1];
+		byte[] validity = null;
+		byte[][] tmp = new byte[length][];
+		for( int i=0; i<length; i++ ) {
+			if( data[i] != null )
+				tmp[i] = data[i].getBytes(StandardCharsets.UTF_8);
+			else {
+				if( validity == null )
+					validity = createBitmap(length, true);
+				setBit(validity, i, false);
+			}
+			offsets[i+1] = offsets[i] + ((tmp[i]!=null) ? tmp[i].length : 0);
+		}
+		byte[] bytes = new byte[offsets[length]];
+		for( int i=0; i<length; i++ )
+			if( tmp[i] != null )
+				System.arraycopy(tmp[i], 0, bytes, offsets[i], tmp[i].length);
+		return createStringColumn(length, validity, offsets, bytes);
+	}
+	
+	/**
+	 * Encodes the given booleans into a bit-packed BOOLEAN column.
+	 * 
+	 * @param data array of booleans
+	 * @param length number of values
+	 * @return column
+	 */
+	public static FrameArrowColumn create(boolean[] data, int length) {
+		byte[] bits = new byte[getBitmapSize(length)];
+		for( int i=0; i<length; i++ )
+			if( data[i] )
+				setBit(bits, i, true);
+		return createBooleanColumn(length, null, bits);
+	}
+	
+	public ValueType getValueType() {
+		return _vt;
+	}
+	
+	public int getLength() {
+		return _length;
+	}
+	
+	public int getNullCount() {
+		return _nullCount;
+	}
+	
+	public boolean isValid(int i) {
+		return _validity == null || getBit(_validity, i);
+	}
+	
+	public byte[] getValidityBuffer() {
+		return _validity;
+	}
+	
+	public int[] getOffsetBuffer() {
+		return _offsets;
+	}
+	
+	/**
+	 * Get the byte data buffer, which is the UTF-8 data of 
+	 * STRING columns and the bit-packed values of BOOLEAN columns.
+	 * 
+	 * @return data buffer
+	 */
+	public byte[] getByteBuffer() {
+		return _bytes;
+	}
+	
+	public long[] getLongBuffer() {
+		return _longs;
+	}
+	
+	public double[] getDoubleBuffer() {
+		return _doubles;
+	}
+	
+	public String getString(int i) {
+		if( !isValid(i) )
+			return null;
+		int off = _offsets[i];
+		return new String(_bytes, off, _offsets[i+1]-off, StandardCharsets.UTF_8);
+	}
+	
+	public boolean getBoolean(int i) {
+		return isValid(i) && getBit(_bytes, i);
+	}
+	
+	/**
+	 * Decodes the column into an array of strings.
+	 * 
+	 * @return array of strings of length n
+	 */
+	public String[] toStringArray() {
+		String[] ret = new String[_length];
+		for( int i=0; i<_length; i++ )
+			ret[i] = getString(i);
+		return ret;
+	}
+	
+	/**
+	 * Unpacks the column into an array of booleans,
+	 * where null slots are represented as false.
+	 * 
+	 * @return array of booleans of length n
+	 */
+	public boolean[] toBooleanArray() {
+		boolean[] ret = new boolean[_length];
+		for( int i=0; i<_length; i++ )
+			ret[i] = getBoolean(i);
+		return ret;
+	}
+	
+	/**
+	 * Get the values of a INT64 column, where null slots are represented
+	 * as 0. The value buffer is returned as is if there are no nulls.
+	 * 
+	 * @return array of longs of length n
+	 */
+	public long[] toLongArray() {
+		if( _nullCount == 0 )
+			return _longs;
+		long[] ret = new long[_length];
+		for( int i=0; i<_length; i++ )
+			ret[i] = isValid(i) ? _longs[i] : 0;
+		return ret;
+	}
+	
+	/**
+	 * Get the values of a FP64 column, where null slots are represented
+	 * as 0. The value buffer is returned as is if there are no nulls.
+	 * 
+	 * @return array of doubles of length n
+	 */
+	public double[] toDoubleArray() {
+		if( _nullCount == 0 )
+			return _doubles;
+		double[] ret = new double[_length];
+		for( int i=0; i<_length; i++ )
+			ret[i] = isValid(i) ? _doubles[i] : 0;
+		return ret;
+	}
+	
+	public long getInMemorySize() {
+		long size = 16 + 4 + 4 + 5 * 8;
+		if( _validity != null )
+			size += 16 + _validity.length;
+		if( _offsets != null )
+			size += 16 + 4L * _offsets.length;
+		if( _bytes != null )
+			size += 16 + _bytes.length;
+		if( _longs != null )
+			size += 16 + 8L * _longs.length;
+		if( _doubles != null )
+			size += 16 + 8L * _doubles.length;
+		return size;
+	}
+	
+	public static int getBitmapSize(int length) {
+		return (length + 7) >>> 3;
+	}
+	
+	private static byte[] createBitmap(int length, boolean value) {
+		byte[] ret = new byte[getBitmapSize(length)];
+		if( value )
+			for( int i=0; i<length; i++ )
+				setBit(ret, i, true);
+		return ret;
+	}
+	
+	private static boolean getBit(byte[] bits, int i) {
+		return (bits[i >>> 3] & (1 << (i & 7))) != 0;
+	}
+	
+	private static void setBit(byte[] bits, int i, boolean value) {
+		if( value )
+			bits[i >>> 3] |= (1 << (i & 7));
+		else
+			bits[i >>> 3] &= ~(1 << (i & 7));
+	}
+	
+	private static int countBits(byte[] bits, int length) {
+		int cnt = 0;
+		for( int k=0; k<(length>>>3); k++ )
+			cnt += Integer.bitCount(bits[k] & 0xFF);
+		for( int i=length & ~7; i<length; i++ )
+			cnt += getBit(bits, i) ? 1 : 0;
+		return cnt;
+	}
+}
@@ -42,6 +42,7 @@ import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.transform.encode.EncoderRecode;
 import org.tugraz.sysds.runtime.util.IndexRange;
+import org.tugraz.sysds.runtime.util.StringLongHashMap;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
 
 @SuppressWarnings({"rawtypes","unchecked"}) //allow generic native arrays
@@ -53,6 +54,15 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 
 	//internal configuration
 	private static final boolean REUSE_RECODE_MAPS = true;
+	private static final boolean DICT_ENCODE_STRINGS = true;
+	private static final double DICT_MAX_DISTINCT_RATIO = 0.5;
+	
+	//flag of dictionary-encoded columns in the serialized value type
+	private static final int DICT_SER_FLAG = 0x80;
+	//flag of string columns serialized as length-prefixed utf-8 arena
+	private static final int ARENA_SER_FLAG = 0x40;
+	//buffer size for bulk serialization of column data
+	private static final int SER_BUFFER_SIZE = 8192;
 	
 	/** The number of rows of the FrameBlock */
 	private int _numRows = -1;
@@ -296,8 +306,9 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	}
 
 	public boolean isColNamesDefault() {
-		boolean ret = (_colnames != null);
-		for( int j=0; j<getNumColumns() && ret; j++ )
+		//note: names are materialized on demand, so null is default
+		boolean ret = true;
+		for( int j=0; j<getNumColumns() && ret && _colnames != null; j++ )
 			ret &= isColNameDefault(j);
 		return ret;	
 	}
@@ -478,9 +489,79 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_numRows = cols[0].length;
 	}
 
+	/**
+	 * Append a column in the Arrow columnar layout as the last column of 
+	 * the data frame. Numeric buffers without nulls are wrapped but not 
+	 * copied, and string buffers are wrapped and decoded on access, which
+	 * allows zero-copy import of frames from Arrow-based systems. Nulls 
+	 * of numeric and boolean columns are represented as 0 and false.
+	 * 
+	 * @param col column in the Arrow columnar layout
+	 */
+	public void appendColumn(FrameArrowColumn col) {
+		int len = col.getLength();
+		ensureColumnCompatibility(len);
+		String[] colnames = getColumnNames(); //before schema modification
+		Array arr = null;
+		switch( col.getValueType() ) {
+			case STRING:  arr = new ArrowStringArray(col); break;
+			case BOOLEAN: arr = new BooleanArray(col.toBooleanArray()); break;
+			case INT64:   arr = new LongArray(col.toLongArray()); break;
+			case FP64:    arr = new DoubleArray(col.toDoubleArray()); break;
+			default: throw new DMLRuntimeException("Unsupported value type: "+col.getValueType());
+		}
+		arr._size = len; //value buffers might be larger than the column
+		_schema = (ValueType[]) ArrayUtils.add(_schema, col.getValueType());
+		_colnames = (String[]) ArrayUtils.add(colnames, createColName(_schema.length));
+		_colmeta = (ColumnMetadata[]) ArrayUtils.add(_colmeta, new ColumnMetadata(0));
+		_coldata = (_coldata==null) ? new Array[]{arr} :
+			(Array[]) ArrayUtils.add(_coldata, arr);
+		_numRows = len;
+	}
+	
+	/**
+	 * Get a column in the Arrow columnar layout. Numeric columns and 
+	 * unmodified string columns imported from Arrow buffers are exported 
+	 * without copying the data, all other columns are encoded. Since the
+	 * exported buffers may be shared with this frame block, they must be 
+	 * treated as read-only; updates require a copy of the buffers.
+	 * 
+	 * @param c column index, 0-based
+	 * @return column in the Arrow columnar layout
+	 */
+	public FrameArrowColumn getArrowColumn(int c) {
+		Array arr = _coldata[c];
+		switch(_schema[c]) {
+			case STRING:
+				if( arr instanceof ArrowStringArray && ((ArrowStringArray)arr)._col != null 
+					&& ((ArrowStringArray)arr)._col.getLength() == _numRows )
+					return ((ArrowStringArray)arr)._col;
+				return FrameArrowColumn.create((arr instanceof DictStringArray) ?
+					((DictStringArray)arr).decode() : (arr instanceof ArrowStringArray) ?
+					((ArrowStringArray)arr).decode() : ((StringArray)arr)._data, _numRows);
+			case BOOLEAN: return FrameArrowColumn.create(((BooleanArray)arr)._data, _numRows);
+			case INT64:   return FrameArrowColumn.createLongColumn(_numRows, null, ((LongArray)arr)._data);
+			case FP64:    return FrameArrowColumn.createDoubleColumn(_numRows, null, ((DoubleArray)arr)._data);
+			default: throw new DMLRuntimeException("Unsupported value type: "+_schema[c]);
+		}
+	}
+	
+	/**
+	 * Get the backing array of the given column, where updates of the array
+	 * are reflected in the frame. Dictionary-encoded and Arrow-backed string
+	 * columns are materialized into plain string arrays on first access.
+	 * 
+	 * @param c column index
+	 * @return backing array of the column
+	 */
 	public Object getColumnData(int c) {
 		switch(_schema[c]) {
-			case STRING:  return ((StringArray)_coldata[c])._data; 
+			case STRING:
+				if( _coldata[c] instanceof DictStringArray )
+					_coldata[c] = new StringArray(((DictStringArray)_coldata[c]).decode());
+				else if( _coldata[c] instanceof ArrowStringArray )
+					return ((ArrowStringArray)_coldata[c]).materialize();
+				return ((StringArray)_coldata[c])._data;
 			case BOOLEAN: return ((BooleanArray)_coldata[c])._data;
 			case INT64:     return ((LongArray)_coldata[c])._data;
 			case FP64:  return ((DoubleArray)_coldata[c])._data;
@@ -498,6 +579,57 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_coldata[c] = column; 
 	}
 	
+	/**
+	 * Dictionary-encodes all string columns whose number of distinct values 
+	 * is small compared to the number of rows. Such columns store an int code 
+	 * per cell and the distinct strings only once, which avoids a string
+	 * object per cell for categorical columns.
+	 */
+	public void dictionaryEncodeColumns() {
+		if( !DICT_ENCODE_STRINGS || _coldata == null )
+			return;
+		int maxDistinct = (int)(DICT_MAX_DISTINCT_RATIO * _numRows);
+		for( int j=0; j<_coldata.length; j++ )
+			if( _schema[j] == ValueType.STRING && _coldata[j] instanceof StringArray ) {
+				DictStringArray tmp = DictStringArray.encode(
+					(StringArray)_coldata[j], _numRows, maxDistinct);
+				if( tmp != null )
+					_coldata[j] = tmp;
+			}
+	}
+	
+	/**
+	 * Indicates if the given column is a dictionary-encoded string column.
+	 * 
+	 * @param c column index, 0-based
+	 * @return true if dictionary-encoded
+	 */
+	public boolean isColumnDictionaryEncoded(int c) {
+		return _coldata != null && _coldata[c] instanceof DictStringArray;
+	}
+	
+	/**
+	 * Get the dictionary of a dictionary-encoded string column, where 
+	 * code k refers to the dictionary entry k-1.
+	 * 
+	 * @param c column index, 0-based
+	 * @return dictionary of distinct strings, potentially over-allocated
+	 */
+	public String[] getColumnDictionary(int c) {
+		return ((DictStringArray)_coldata[c])._dict;
+	}
+	
+	/**
+	 * Get the codes of a dictionary-encoded string column, where code 0
+	 * represents null and code k the dictionary entry k-1.
+	 * 
+	 * @param c column index, 0-based
+	 * @return codes of all rows, potentially over-allocated
+	 */
+	public int[] getColumnCodes(int c) {
+		return ((DictStringArray)_coldata[c])._codes;
+	}
+	
 	/**
 	 * Get a row iterator over the frame where all fields are encoded
 	 * as strings independent of their value types.  
@@ -617,14 +749,20 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		out.writeBoolean(isDefaultMeta);
 		//write columns (value type, data)
 		for( int j=0; j<getNumColumns(); j++ ) {
-			out.writeByte(_schema[j].ordinal());
+			long arena = getUTFArenaSize(j);
+			out.writeByte(_schema[j].ordinal() 
+				| (isColumnDictionaryEncoded(j) ? DICT_SER_FLAG : 0)
+				| (arena >= 0 ? ARENA_SER_FLAG : 0));
 			if( !isDefaultMeta ) {
 				out.writeUTF(getColumnName(j));
 				out.writeLong(_colmeta[j].getNumDistinct());
 				out.writeUTF( (_colmeta[j].getMvValue()!=null) ? 
 						_colmeta[j].getMvValue() : "" );
 			}
-			_coldata[j].write(out);
+			if( arena >= 0 )
+				writeUTFArena(out, _coldata[j], (int)arena);
+			else
+				_coldata[j].write(out);
 		}
 	}
 
@@ -645,19 +783,26 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 				_coldata : new Array[numCols];
 		//read columns (value type, meta, data)
 		for( int j=0; j<numCols; j++ ) {
-			ValueType vt = ValueType.values()[in.readByte()];
+			int tmp = in.readByte() & 0xFF;
+			ValueType vt = ValueType.values()[tmp & ~(DICT_SER_FLAG|ARENA_SER_FLAG)];
+			boolean dict = (tmp & DICT_SER_FLAG) != 0;
+			boolean arena = (tmp & ARENA_SER_FLAG) != 0;
 			String name = isDefaultMeta ? createColName(j) : in.readUTF();
 			long ndistinct = isDefaultMeta ? 0 : in.readLong();
 			String mvvalue = isDefaultMeta ? null : in.readUTF();
 			Array arr = null;
 			switch( vt ) {
-				case STRING:  arr = new StringArray(new String[_numRows]); break;
+				case STRING:  arr = dict ? new DictStringArray(new int[_numRows]) : 
+					new StringArray(new String[_numRows]); break;
 				case BOOLEAN: arr = new BooleanArray(new boolean[_numRows]); break;
 				case INT64:     arr = new LongArray(new long[_numRows]); break;
 				case FP64:  arr = new DoubleArray(new double[_numRows]); break;
 				default: throw new IOException("Unsupported value type: "+vt);
 			}
-			arr.readFields(in);
+			if( arena )
+				readUTFArena(in, ((StringArray)arr)._data, _numRows);
+			else
+				arr.readFields(in);
 			_schema[j] = vt;
 			_colnames[j] = name;
 			_colmeta[j] = new ColumnMetadata(ndistinct, 
@@ -666,6 +811,139 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		}
 	}
 
+	/**
+	 * Obtains the size of the serialized utf-8 arena of a string column, 
+	 * which is used for all non-dictionary-encoded string columns whose
+	 * encoded strings fit into a single arena.
+	 * 
+	 * @param c column index
+	 * @return number of arena bytes, or -1 if not applicable
+	 */
+	private long getUTFArenaSize(int c) {
+		if( _schema[c] != ValueType.STRING || isColumnDictionaryEncoded(c) )
+			return -1;
+		Array arr = _coldata[c];
+		long size = 0;
+		for( int i=0; i<arr._size; i++ ) {
+			String tmp = (String)arr.get(i);
+			size += (tmp != null) ? IOUtilFunctions.getUTFSize(tmp) - 2 : 0;
+		}
+		return (size <= Integer.MAX_VALUE) ? size : -1;
+	}
+	
+	private static void writeUTFArena(DataOutput out, Array arr, int arena) throws IOException {
+		//write arena size and string lengths (0 for null)
+		out.writeInt(arena);
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		int pos = 0;
+		for( int i=0; i<arr._size; i++ ) {
+			if( pos + 4 > buff.length ) {
+				out.write(buff, 0, pos);
+				pos = 0;
+			}
+			String tmp = (String)arr.get(i);
+			IOUtilFunctions.intToBa((tmp != null) ? 
+				IOUtilFunctions.getUTFSize(tmp) - 2 : 0, buff, pos);
+			pos += 4;
+		}
+		//write arena of concatenated strings in modified utf-8
+		for( int i=0; i<arr._size; i++ ) {
+			String tmp = (String)arr.get(i);
+			if( tmp == null )
+				continue;
+			int len = IOUtilFunctions.getUTFSize(tmp) - 2;
+			if( pos + len > buff.length ) {
+				out.write(buff, 0, pos);
+				pos = 0;
+				if( len > buff.length )
+					buff = new byte[len];
+			}
+			pos = IOUtilFunctions.utfToBa(tmp, buff, pos);
+		}
+		out.write(buff, 0, pos);
+	}
+	
+	private static void readUTFArena(DataInput in, String[] data, int len) throws IOException {
+		//read arena size, string lengths, and arena
+		byte[] arena = new byte[in.readInt()];
+		byte[] lens = new byte[4 * len];
+		in.readFully(lens);
+		in.readFully(arena);
+		//decode strings (empty strings as null)
+		int maxlen = 0;
+		for( int i=0; i<len; i++ )
+			maxlen = Math.max(maxlen, IOUtilFunctions.baToInt(lens, 4*i));
+		char[] cbuff = new char[maxlen];
+		for( int i=0, off=0; i<len; i++ ) {
+			int slen = IOUtilFunctions.baToInt(lens, 4*i);
+			data[i] = (slen > 0) ? IOUtilFunctions.baToUtf(arena, off, slen, cbuff) : null;
+			off += slen;
+		}
+	}
+	
+	private static void writeLongs(DataOutput out, long[] data, int len) throws IOException {
+		//bulk write of 8KB chunks in the format of writeLong
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE/8 ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE/8);
+			for( int j=0; j<blen; j++ )
+				IOUtilFunctions.longToBa(data[i+j], buff, 8*j);
+			out.write(buff, 0, 8*blen);
+		}
+	}
+	
+	private static void readLongs(DataInput in, long[] data, int len) throws IOException {
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE/8 ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE/8);
+			in.readFully(buff, 0, 8*blen);
+			for( int j=0; j<blen; j++ )
+				data[i+j] = IOUtilFunctions.baToLong(buff, 8*j);
+		}
+	}
+	
+	private static void writeDoubles(DataOutput out, double[] data, int len) throws IOException {
+		//bulk write of 8KB chunks in the format of writeDouble
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE/8 ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE/8);
+			for( int j=0; j<blen; j++ )
+				IOUtilFunctions.longToBa(Double.doubleToRawLongBits(data[i+j]), buff, 8*j);
+			out.write(buff, 0, 8*blen);
+		}
+	}
+	
+	private static void readDoubles(DataInput in, double[] data, int len) throws IOException {
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE/8 ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE/8);
+			in.readFully(buff, 0, 8*blen);
+			for( int j=0; j<blen; j++ )
+				data[i+j] = Double.longBitsToDouble(IOUtilFunctions.baToLong(buff, 8*j));
+		}
+	}
+	
+	private static void writeBooleans(DataOutput out, boolean[] data, int len) throws IOException {
+		//bulk write of 8KB chunks in the format of writeBoolean
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE);
+			for( int j=0; j<blen; j++ )
+				buff[j] = (byte) (data[i+j] ? 1 : 0);
+			out.write(buff, 0, blen);
+		}
+	}
+	
+	private static void readBooleans(DataInput in, boolean[] data, int len) throws IOException {
+		byte[] buff = new byte[SER_BUFFER_SIZE];
+		for( int i=0; i<len; i+=SER_BUFFER_SIZE ) {
+			int blen = Math.min(len-i, SER_BUFFER_SIZE);
+			in.readFully(buff, 0, blen);
+			for( int j=0; j<blen; j++ )
+				data[i+j] = (buff[j] != 0);
+		}
+	}
+
 	@Override
 	public void writeExternal(ObjectOutput out) throws IOException {
 		//redirect serialization to writable impl
@@ -710,6 +988,14 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 				case INT64:
 				case FP64: size += 8*_numRows; break;
 				case STRING: 
+					if( _coldata[j] instanceof DictStringArray ) {
+						size += ((DictStringArray)_coldata[j]).getInMemorySize();
+						break;
+					}
+					if( _coldata[j] instanceof ArrowStringArray ) {
+						size += ((ArrowStringArray)_coldata[j]).getInMemorySize();
+						break;
+					}
 					StringArray arr = (StringArray)_coldata[j];
 					for( int i=0; i<_numRows; i++ )
 						size += getInMemoryStringSize(arr.get(i));
@@ -741,9 +1027,18 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 				case INT64:
 				case FP64: size += 8*_numRows; break;
 				case STRING: 
-					StringArray arr = (StringArray)_coldata[j];
+					if( _coldata[j] instanceof DictStringArray ) {
+						size += ((DictStringArray)_coldata[j]).getExactSerializedSize();
+						break;
+					}
+					long arena = getUTFArenaSize(j);
+					if( arena >= 0 ) { //arena size, lengths, arena
+						size += 4 + 4L * _coldata[j]._size + arena;
+						break;
+					}
+					Array arr = _coldata[j];
 					for( int i=0; i<_numRows; i++ )
-						size += IOUtilFunctions.getUTFSize(arr.get(i));
+						size += IOUtilFunctions.getUTFSize((String)arr.get(i));
 					break;
 				default: //not applicable	
 			}
@@ -1025,8 +1320,13 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		
 		//copy values
 		for( int j=cl; j<=cu; j++ ) {
+			//special case: dictionary-encoded or arrow full column copy
+			if( (src._coldata[j-cl] instanceof DictStringArray || src._coldata[j-cl] 
+				instanceof ArrowStringArray) && _schema[j] == ValueType.STRING
+				&& rl == 0 && ru == _numRows-1 && src.getNumRows() == _numRows )
+				_coldata[j] = src._coldata[j-cl].clone();
 			//special case: column memcopy 
-			if( _schema[j].equals(src._schema[j-cl]) )
+			else if( _schema[j].equals(src._schema[j-cl]) )
 				_coldata[j].set(rl, ru, src._coldata[j-cl]);
 			//general case w/ schema transformation
 			else 
@@ -1049,16 +1349,16 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * @param col	is the column # from frame data which contains Recode map generated earlier.
 	 * @return map of token and code for every element in the input column of a frame containing Recode map
 	 */
-	public HashMap<String,Long> getRecodeMap(int col) {
+	public StringLongHashMap getRecodeMap(int col) {
 		//probe cache for existing map
 		if( REUSE_RECODE_MAPS ) {
-			SoftReference<HashMap<String,Long>> tmp = _coldata[col]._rcdMapCache;
-			HashMap<String,Long> map = (tmp!=null) ? tmp.get() : null;
+			SoftReference<StringLongHashMap> tmp = _coldata[col]._rcdMapCache;
+			StringLongHashMap map = (tmp!=null) ? tmp.get() : null;
 			if( map != null ) return map;
 		}
 		
 		//construct recode map
-		HashMap<String,Long> map = new HashMap<>();
+		StringLongHashMap map = new StringLongHashMap(getNumRows());
 		Array ldata = _coldata[col]; 
 		for( int i=0; i<getNumRows(); i++ ) {
 			Object val = ldata.get(i);
@@ -1272,7 +1572,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * in order to avoid unnecessary dependencies.
 	 */
 	private abstract static class Array<T> implements Writable {
-		protected SoftReference<HashMap<String,Long>> _rcdMapCache = null;
+		protected SoftReference<StringLongHashMap> _rcdMapCache = null;
 		
 		protected int _size = 0;
 		protected int newSize() {
@@ -1312,14 +1612,20 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		}
 		@Override
 		public void set(int rl, int ru, Array value, int rlSrc) {
+			if( !(value instanceof StringArray) ) {
+				for( int i=rl; i<ru+1; i++ )
+					_data[i] = (String)value.get(rlSrc+i-rl);
+				return;
+			}
 			System.arraycopy(((StringArray)value)._data, rlSrc, _data, rl, ru-rl+1);
 		}
 		@Override
 		public void setNz(int rl, int ru, Array value) {
-			String[] data2 = ((StringArray)value)._data;
-			for( int i=rl; i<ru+1; i++ )
-				if( data2[i]!=null )
-					_data[i] = data2[i];
+			for( int i=rl; i<ru+1; i++ ) {
+				String tmp = (String)value.get(i);
+				if( tmp!=null )
+					_data[i] = tmp;
+			}
 		}
 		@Override
 		public void append(String value) {
@@ -1354,6 +1660,294 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		}
 	}
 
+	/**
+	 * Dictionary-encoded string array, which stores an int code per cell and
+	 * the distinct strings in a dictionary. Code 0 represents null and code k
+	 * the dictionary entry k-1. The reverse map from strings to codes is only
+	 * created on demand for updates. Consistent with plain string arrays, 
+	 * empty strings are read as null after serialization, where the empty
+	 * dictionary entry becomes a null entry.
+	 */
+	private static class DictStringArray extends Array<String> {
+		private int[] _codes = null;
+		private String[] _dict = null;
+		private int _ndict = 0;
+		private StringLongHashMap _map = null;
+		
+		public DictStringArray(int[] codes) {
+			this(codes, new String[4], 0);
+		}
+		public DictStringArray(int[] codes, String[] dict, int ndict) {
+			_codes = codes;
+			_dict = dict;
+			_ndict = ndict;
+			_size = _codes.length;
+		}
+		@Override
+		public String get(int index) {
+			int code = _codes[index];
+			return (code != 0) ? _dict[code-1] : null;
+		}
+		@Override
+		public void set(int index, String value) {
+			_codes[index] = getCode(value);
+		}
+		@Override
+		public void set(int rl, int ru, Array value) {
+			set(rl, ru, value, 0);
+		}
+		@Override
+		public void set(int rl, int ru, Array value, int rlSrc) {
+			//fast-path for shared dictionaries
+			if( value instanceof DictStringArray && ((DictStringArray)value)._dict == _dict )
+				System.arraycopy(((DictStringArray)value)._codes, rlSrc, _codes, rl, ru-rl+1);
+			else
+				for( int i=rl; i<ru+1; i++ )
+					_codes[i] = getCode((String)value.get(rlSrc+i-rl));
+		}
+		@Override
+		public void setNz(int rl, int ru, Array value) {
+			for( int i=rl; i<ru+1; i++ ) {
+				String tmp = (String)value.get(i);
+				if( tmp!=null )
+					_codes[i] = getCode(tmp);
+			}
+		}
+		@Override
+		public void append(String value) {
+			if( _codes.length <= _size )
+				_codes = Arrays.copyOf(_codes, newSize());
+			_codes[_size++] = getCode(value);
+		}
+		private int getCode(String value) {
+			if( value == null )
+				return 0;
+			//create reverse map on demand
+			if( _map == null ) {
+				_map = new StringLongHashMap(_ndict);
+				for( int k=0; k<_ndict; k++ )
+					if( _dict[k] != null ) //deserialized empty string
+						_map.put(_dict[k], k+1);
+			}
+			//probe and append to dictionary if necessary
+			long code = _map.get(value, -1);
+			if( code < 0 ) {
+				if( _dict.length <= _ndict )
+					_dict = Arrays.copyOf(_dict, Math.max(_ndict*2, 4));
+				_dict[_ndict++] = value;
+				_map.put(value, code = _ndict);
+			}
+			return (int) code;
+		}
+		public String[] decode() {
+			String[] ret = new String[_size];
+			for( int i=0; i<_size; i++ )
+				ret[i] = get(i);
+			return ret;
+		}
+		public void write(DataOutput out) throws IOException {
+			//write dictionary (w/o writeUTF length limit) and codes of minimal width
+			out.writeInt(_ndict);
+			byte[] buff = new byte[SER_BUFFER_SIZE];
+			for( int k=0; k<_ndict; k++ ) {
+				int len = IOUtilFunctions.getUTFSize(_dict[k]) - 2;
+				if( len > buff.length )
+					buff = new byte[len];
+				if( _dict[k] != null )
+					IOUtilFunctions.utfToBa(_dict[k], buff, 0);
+				out.writeInt(len);
+				out.write(buff, 0, len);
+			}
+			if( _ndict < 256 )
+				for( int i=0; i<_size; i++ )
+					out.writeByte(_codes[i]);
+			else if( _ndict < 65536 )
+				for( int i=0; i<_size; i++ )
+					out.writeChar(_codes[i]);
+			else
+				for( int i=0; i<_size; i++ )
+					out.writeInt(_codes[i]);
+		}
+		public void readFields(DataInput in) throws IOException {
+			_size = _codes.length;
+			_ndict = in.readInt();
+			_dict = new String[Math.max(_ndict, 4)];
+			_map = null;
+			byte[] buff = new byte[SER_BUFFER_SIZE];
+			char[] cbuff = new char[SER_BUFFER_SIZE];
+			for( int k=0; k<_ndict; k++ ) {
+				int len = in.readInt();
+				if( len > buff.length ) {
+					buff = new byte[len];
+					cbuff = new char[len];
+				}
+				in.readFully(buff, 0, len);
+				//empty strings as null (consistent w/ string arrays)
+				_dict[k] = (len > 0) ? IOUtilFunctions.baToUtf(buff, 0, len, cbuff) : null;
+			}
+			if( _ndict < 256 )
+				for( int i=0; i<_size; i++ )
+					_codes[i] = in.readUnsignedByte();
+			else if( _ndict < 65536 )
+				for( int i=0; i<_size; i++ )
+					_codes[i] = in.readChar();
+			else
+				for( int i=0; i<_size; i++ )
+					_codes[i] = in.readInt();
+		}
+		public long getInMemorySize() {
+			long size = 4L * _codes.length + 32 + 8L * _dict.length;
+			for( int k=0; k<_ndict; k++ )
+				size += getInMemoryStringSize(_dict[k]);
+			return size;
+		}
+		public long getExactSerializedSize() {
+			long size = 4 + (long)_size * ((_ndict < 256) ? 1 : (_ndict < 65536) ? 2 : 4);
+			for( int k=0; k<_ndict; k++ ) //int length and utf-8 w/o length
+				size += IOUtilFunctions.getUTFSize(_dict[k]) + 2;
+			return size;
+		}
+		@Override
+		public Array clone() {
+			return new DictStringArray(Arrays.copyOf(_codes, _size), 
+				Arrays.copyOf(_dict, _dict.length), _ndict);
+		}
+		@Override
+		public Array slice(int rl, int ru) {
+			return new DictStringArray(Arrays.copyOfRange(_codes, rl, ru+1),
+				Arrays.copyOf(_dict, _dict.length), _ndict);
+		}
+		@Override
+		public void reset(int size) {
+			if( _codes.length < size )
+				_codes = new int[size];
+			_size = size;
+		}
+		
+		/**
+		 * Creates a dictionary-encoded copy of the given string array if the
+		 * number of distinct strings does not exceed the given maximum.
+		 * 
+		 * @param arr string array
+		 * @param nrow number of rows
+		 * @param maxDistinct maximum number of distinct strings
+		 * @return dictionary-encoded array, or null if too many distinct strings
+		 */
+		public static DictStringArray encode(StringArray arr, int nrow, int maxDistinct) {
+			DictStringArray ret = new DictStringArray(new int[nrow]);
+			for( int i=0; i<nrow; i++ ) {
+				ret._codes[i] = ret.getCode(arr._data[i]);
+				if( ret._ndict > maxDistinct )
+					return null;
+			}
+			ret._map = null; //free reverse map
+			return ret;
+		}
+	}
+
+	/**
+	 * String array over buffers in the Arrow columnar layout (validity bitmap,
+	 * offsets and UTF-8 data), which are shared but never modified. Cells are
+	 * decoded on access, and the first update materializes the array into 
+	 * plain strings. The serialized format is equivalent to string arrays.
+	 */
+	private static class ArrowStringArray extends Array<String> {
+		private FrameArrowColumn _col = null;
+		private String[] _data = null;
+		
+		public ArrowStringArray(FrameArrowColumn col) {
+			_col = col;
+			_size = col.getLength();
+		}
+		@Override
+		public String get(int index) {
+			return (_data != null) ? _data[index] : _col.getString(index);
+		}
+		@Override
+		public void set(int index, String value) {
+			materialize();
+			_data[index] = value;
+		}
+		@Override
+		public void set(int rl, int ru, Array value) {
+			set(rl, ru, value, 0);
+		}
+		@Override
+		public void set(int rl, int ru, Array value, int rlSrc) {
+			materialize();
+			for( int i=rl; i<ru+1; i++ )
+				_data[i] = (String)value.get(rlSrc+i-rl);
+		}
+		@Override
+		public void setNz(int rl, int ru, Array value) {
+			materialize();
+			for( int i=rl; i<ru+1; i++ ) {
+				String tmp = (String)value.get(i);
+				if( tmp!=null )
+					_data[i] = tmp;
+			}
+		}
+		@Override
+		public void append(String value) {
+			materialize();
+			if( _data.length <= _size )
+				_data = Arrays.copyOf(_data, newSize());
+			_data[_size++] = value;
+		}
+		private String[] materialize() {
+			if( _data == null ) {
+				_data = _col.toStringArray();
+				_col = null;
+			}
+			return _data;
+		}
+		public String[] decode() {
+			return (_data != null) ? 
+				Arrays.copyOf(_data, _size) : _col.toStringArray();
+		}
+		public void write(DataOutput out) throws IOException {
+			for( int i=0; i<_size; i++ ) {
+				String tmp = get(i);
+				out.writeUTF((tmp!=null)?tmp:"");
+			}
+		}
+		public void readFields(DataInput in) throws IOException {
+			_data = new String[_size];
+			_col = null;
+			for( int i=0; i<_size; i++ ) {
+				String tmp = in.readUTF();
+				_data[i] = (!tmp.isEmpty()) ? tmp : null;
+			}
+		}
+		public long getInMemorySize() {
+			if( _data == null )
+				return _col.getInMemorySize();
+			long size = 0;
+			for( int i=0; i<_size; i++ )
+				size += getInMemoryStringSize(_data[i]);
+			return size;
+		}
+		@Override
+		public Array clone() {
+			//arrow buffers are immutable and hence shared
+			return (_data != null) ? new StringArray(Arrays.copyOf(_data, _size)) :
+				new ArrowStringArray(_col);
+		}
+		@Override
+		public Array slice(int rl, int ru) {
+			String[] tmp = new String[ru-rl+1];
+			for( int i=rl; i<ru+1; i++ )
+				tmp[i-rl] = get(i);
+			return new StringArray(tmp);
+		}
+		@Override
+		public void reset(int size) {
+			_data = new String[size];
+			_col = null;
+			_size = size;
+		}
+	}
+
 	private static class BooleanArray extends Array<Boolean> {
 		private boolean[] _data = null;
 		
@@ -1395,13 +1989,11 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			_data[_size++] = (value!=null) ? value : false;
 		}
 		public void write(DataOutput out) throws IOException {
-			for( int i=0; i<_size; i++ )
-				out.writeBoolean(_data[i]);
+			writeBooleans(out, _data, _size);
 		}
 		public void readFields(DataInput in) throws IOException {
 			_size = _data.length;
-			for( int i=0; i<_size; i++ )
-				_data[i] = in.readBoolean();
+			readBooleans(in, _data, _size);
 		}
 		@Override
 		public Array clone() {
@@ -1460,13 +2052,11 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			_data[_size++] = (value!=null) ? value : 0L;
 		}
 		public void write(DataOutput out) throws IOException {
-			for( int i=0; i<_size; i++ )
-				out.writeLong(_data[i]);
+			writeLongs(out, _data, _size);
 		}
 		public void readFields(DataInput in) throws IOException {
 			_size = _data.length;
-			for( int i=0; i<_size; i++ )
-				_data[i] = in.readLong();
+			readLongs(in, _data, _size);
 		}
 		@Override
 		public Array clone() {
@@ -1525,13 +2115,11 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			_data[_size++] = (value!=null) ? value : 0d;
 		}
 		public void write(DataOutput out) throws IOException {
-			for( int i=0; i<_size; i++ )
-				out.writeDouble(_data[i]);
+			writeDoubles(out, _data, _size);
 		}
 		public void readFields(DataInput in) throws IOException {
 			_size = _data.length;
-			for( int i=0; i<_size; i++ )
-				_data[i] = in.readDouble();
+			readDoubles(in, _data, _size);
 		}
 		@Override
 		public Array clone() {
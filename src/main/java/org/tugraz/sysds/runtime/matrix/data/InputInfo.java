@@ -24,11 +24,13 @@ package org.tugraz.sysds.runtime.matrix.data;
 import java.io.Serializable;
 
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapred.InputFormat;
 import org.apache.hadoop.mapred.SequenceFileInputFormat;
 import org.apache.hadoop.mapred.TextInputFormat;
+import org.apache.parquet.hadoop.mapred.DeprecatedParquetInputFormat;
 import org.tugraz.sysds.parser.DataExpression;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.meta.MetaData;
@@ -74,6 +76,9 @@ public class InputInfo implements Serializable
 	public static final InputInfo CSVInputInfo=new InputInfo(TextInputFormat.class, 
 			 LongWritable.class, Text.class);
 	
+	public static final InputInfo ParquetInputInfo=new InputInfo(DeprecatedParquetInputFormat.class, 
+			 NullWritable.class, NullWritable.class);
+	
 	public static OutputInfo getMatchingOutputInfo(InputInfo ii) {
 		if ( ii == InputInfo.BinaryBlockInputInfo )
 			return OutputInfo.BinaryBlockOutputInfo;
@@ -85,6 +90,8 @@ public class InputInfo implements Serializable
 			return OutputInfo.TextCellOutputInfo;
 		else if ( ii == InputInfo.CSVInputInfo)
 			return OutputInfo.CSVOutputInfo;
+		else if ( ii == InputInfo.ParquetInputInfo)
+			return OutputInfo.ParquetOutputInfo;
 		else 
 			throw new DMLRuntimeException("Unrecognized output info: " + ii);
 	}
@@ -104,6 +111,8 @@ public class InputInfo implements Serializable
 		}
 		else if ( str.equalsIgnoreCase("csv"))
 			return CSVInputInfo;
+		else if ( str.equalsIgnoreCase("parquet"))
+			return ParquetInputInfo;
 		return null;
 	}
 
@@ -116,6 +125,8 @@ public class InputInfo implements Serializable
 			return InputInfo.CSVInputInfo; 
 		else if( DataExpression.FORMAT_TYPE_VALUE_BINARY.equals(str) )
 			return InputInfo.BinaryBlockInputInfo; 		
+		else if( DataExpression.FORMAT_TYPE_VALUE_PARQUET.equals(str) )
+			return InputInfo.ParquetInputInfo;
 		return null;
 	}
 	
@@ -130,6 +141,8 @@ public class InputInfo implements Serializable
 			return "matrixmarket";
 		else if ( ii == CSVInputInfo )
 			return "csv";
+		else if ( ii == ParquetInputInfo )
+			return "parquet";
 		else
 			throw new DMLRuntimeException("Unrecognized inputInfo: " + ii);
 	}
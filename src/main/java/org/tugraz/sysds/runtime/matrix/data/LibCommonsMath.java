@@ -20,11 +20,7 @@
 package org.tugraz.sysds.runtime.matrix.data;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
-import org.apache.commons.math3.linear.CholeskyDecomposition;
-import org.apache.commons.math3.linear.DecompositionSolver;
 import org.apache.commons.math3.linear.EigenDecomposition;
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.QRDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
@@ -36,6 +32,10 @@ import org.tugraz.sysds.runtime.util.DataConverter;
  * 
  * This library currently supports following operations:
  * matrix inverse, matrix decompositions (QR, LU, Eigen), solve 
+ * 
+ * Note that inverse, cholesky, solve, qr, lu, and eigen (for symmetric
+ * inputs) are delegated to the multi-threaded {@link LibMatrixLinAlg},
+ * while svd and eigen of non-symmetric inputs still use commons-math.
  */
 public class LibCommonsMath 
 {	
@@ -56,110 +56,47 @@ public class LibCommonsMath
 	}
 		
 	public static MatrixBlock unaryOperations(MatrixBlock inj, String opcode) {
-		Array2DRowRealMatrix matrixInput = DataConverter.convertToArray2DRowRealMatrix(inj);
+		return unaryOperations(inj, opcode, 1);
+	}
+	
+	public static MatrixBlock unaryOperations(MatrixBlock inj, String opcode, int k) {
 		if(opcode.equals("inverse"))
-			return computeMatrixInverse(matrixInput);
+			return LibMatrixLinAlg.inverse(inj, k);
 		else if (opcode.equals("cholesky"))
-			return computeCholesky(matrixInput);
+			return LibMatrixLinAlg.cholesky(inj, k);
 		return null;
 	}
 	
 	public static MatrixBlock[] multiReturnOperations(MatrixBlock in, String opcode) {
+		return multiReturnOperations(in, opcode, 1);
+	}
+	
+	public static MatrixBlock[] multiReturnOperations(MatrixBlock in, String opcode, int k) {
 		if(opcode.equals("qr"))
-			return computeQR(in);
+			return LibMatrixLinAlg.qr(in, k);
 		else if (opcode.equals("lu"))
-			return computeLU(in);
+			return LibMatrixLinAlg.lu(in, k);
 		else if (opcode.equals("eigen"))
-			return computeEigen(in);
+			return LibMatrixLinAlg.isSymmetric(in) ?
+				LibMatrixLinAlg.eigen(in, k) : computeEigen(in);
 		else if ( opcode.equals("svd"))
 			return computeSvd(in);
 		return null;
 	}
 	
 	public static MatrixBlock matrixMatrixOperations(MatrixBlock in1, MatrixBlock in2, String opcode) {
-		if(opcode.equals("solve")) {
-			if (in1.getNumRows() != in1.getNumColumns())
-				throw new DMLRuntimeException("The A matrix, in solve(A,b) should have squared dimensions.");
-			return computeSolve(in1, in2);
-		}
-		return null;
-	}
-	
-	/**
-	 * Function to solve a given system of equations.
-	 * 
-	 * @param in1 matrix object 1
-	 * @param in2 matrix object 2
-	 * @return matrix block
-	 */
-	private static MatrixBlock computeSolve(MatrixBlock in1, MatrixBlock in2) {
-		Array2DRowRealMatrix matrixInput = DataConverter.convertToArray2DRowRealMatrix(in1);
-		Array2DRowRealMatrix vectorInput = DataConverter.convertToArray2DRowRealMatrix(in2);
-		
-		/*LUDecompositionImpl ludecompose = new LUDecompositionImpl(matrixInput);
-		DecompositionSolver lusolver = ludecompose.getSolver();
-		RealMatrix solutionMatrix = lusolver.solve(vectorInput);*/
-		
-		// Setup a solver based on QR Decomposition
-		QRDecomposition qrdecompose = new QRDecomposition(matrixInput);
-		DecompositionSolver solver = qrdecompose.getSolver();
-		// Invoke solve
-		RealMatrix solutionMatrix = solver.solve(vectorInput);
-		
-		return DataConverter.convertToMatrixBlock(solutionMatrix.getData());
-	}
-	
-	/**
-	 * Function to perform QR decomposition on a given matrix.
-	 * 
-	 * @param in matrix object
-	 * @return array of matrix blocks
-	 */
-	private static MatrixBlock[] computeQR(MatrixBlock in) {
-		Array2DRowRealMatrix matrixInput = DataConverter.convertToArray2DRowRealMatrix(in);
-		
-		// Perform QR decomposition
-		QRDecomposition qrdecompose = new QRDecomposition(matrixInput);
-		RealMatrix H = qrdecompose.getH();
-		RealMatrix R = qrdecompose.getR();
-		
-		// Read the results into native format
-		MatrixBlock mbH = DataConverter.convertToMatrixBlock(H.getData());
-		MatrixBlock mbR = DataConverter.convertToMatrixBlock(R.getData());
-
-		return new MatrixBlock[] { mbH, mbR };
+		return matrixMatrixOperations(in1, in2, opcode, 1);
 	}
 	
-	/**
-	 * Function to perform LU decomposition on a given matrix.
-	 * 
-	 * @param in matrix object
-	 * @return array of matrix blocks
-	 */
-	private static MatrixBlock[] computeLU(MatrixBlock in) {
-		if ( in.getNumRows() != in.getNumColumns() ) {
-			throw new DMLRuntimeException("LU Decomposition can only be done on a square matrix. Input matrix is rectangular (rows=" + in.getNumRows() + ", cols="+ in.getNumColumns() +")");
-		}
-		
-		Array2DRowRealMatrix matrixInput = DataConverter.convertToArray2DRowRealMatrix(in);
-		
-		// Perform LUP decomposition
-		LUDecomposition ludecompose = new LUDecomposition(matrixInput);
-		RealMatrix P = ludecompose.getP();
-		RealMatrix L = ludecompose.getL();
-		RealMatrix U = ludecompose.getU();
-		
-		// Read the results into native format
-		MatrixBlock mbP = DataConverter.convertToMatrixBlock(P.getData());
-		MatrixBlock mbL = DataConverter.convertToMatrixBlock(L.getData());
-		MatrixBlock mbU = DataConverter.convertToMatrixBlock(U.getData());
-
-		return new MatrixBlock[] { mbP, mbL, mbU };
+	public static MatrixBlock matrixMatrixOperations(MatrixBlock in1, MatrixBlock in2, String opcode, int k) {
+		if(opcode.equals("solve"))
+			return LibMatrixLinAlg.solve(in1, in2, k);
+		return null;
 	}
 	
 	/**
 	 * Function to perform Eigen decomposition on a given matrix.
-	 * Input must be a symmetric matrix.
+	 * Used for non-symmetric inputs (with real eigen values).
 	 * 
 	 * @param in matrix object
 	 * @return array of matrix blocks
@@ -229,37 +166,4 @@ public class LibCommonsMath
 
 		return new MatrixBlock[] { U, Sigma, V };
 	}
-	
-	/**
-	 * Function to compute matrix inverse via matrix decomposition.
-	 * 
-	 * @param in commons-math3 Array2DRowRealMatrix
-	 * @return matrix block
-	 */
-	private static MatrixBlock computeMatrixInverse(Array2DRowRealMatrix in) {
-		if ( !in.isSquare() )
-			throw new DMLRuntimeException("Input to inv() must be square matrix -- given: a " + in.getRowDimension() + "x" + in.getColumnDimension() + " matrix.");
-		
-		QRDecomposition qrdecompose = new QRDecomposition(in);
-		DecompositionSolver solver = qrdecompose.getSolver();
-		RealMatrix inverseMatrix = solver.getInverse();
-
-		return DataConverter.convertToMatrixBlock(inverseMatrix.getData());
-	}
-
-	/**
-	 * Function to compute Cholesky decomposition of the given input matrix. 
-	 * The input must be a real symmetric positive-definite matrix.
-	 * 
-	 * @param in commons-math3 Array2DRowRealMatrix
-	 * @return matrix block
-	 */
-	private static MatrixBlock computeCholesky(Array2DRowRealMatrix in) {
-		if ( !in.isSquare() )
-			throw new DMLRuntimeException("Input to cholesky() must be square matrix -- given: a " + in.getRowDimension() + "x" + in.getColumnDimension() + " matrix.");
-		CholeskyDecomposition cholesky = new CholeskyDecomposition(in, 1e-14,
-			CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
-		RealMatrix rmL = cholesky.getL();
-		return DataConverter.convertToMatrixBlock(rmL.getData());
-	}
 }
@@ -36,6 +36,7 @@ import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyze
 import org.tugraz.sysds.runtime.data.DenseBlock;
 import org.tugraz.sysds.runtime.data.DenseBlockFactory;
 import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockBCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockFactory;
 import org.tugraz.sysds.runtime.functionobjects.Builtin;
@@ -1650,7 +1651,7 @@ public class LibMatrixAgg
 		final int biu = a.index(ru-1);
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
 			sum(a.valuesAt(bi), lpos, len, kbuff, kplus);
 		}
 		c.set(kbuff);
@@ -1712,7 +1713,7 @@ public class LibMatrixAgg
 		final int biu = a.index(ru-1);
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
 			sum(a.valuesAt(bi), lpos, len, kbuff, kplusSq);
 		}
 		c.set(kbuff);
@@ -1893,7 +1894,7 @@ public class LibMatrixAgg
 		final int biu = a.index(ru-1);
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
 			tmp = builtin(a.valuesAt(bi), lpos, tmp, len, builtin);
 		}
 		c.set(0, 0, tmp);
@@ -1995,8 +1996,8 @@ public class LibMatrixAgg
 		int tlen = 0;
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
-			mean(a.valuesAt(bi), lpos, len, 0, kbuff, kmean);
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
+			mean(a.valuesAt(bi), lpos, len, tlen, kbuff, kmean);
 			tlen += len;
 		}
 		c.set(0, 0, kbuff._sum);
@@ -2062,7 +2063,7 @@ public class LibMatrixAgg
 		final int biu = a.index(ru-1);
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
 			var(a.valuesAt(bi), lpos, len, cbuff, cm);
 		}
 		// store results: { var | mean, count, m2 correction, mean correction }
@@ -2138,7 +2139,7 @@ public class LibMatrixAgg
 		double tmp = 1;
 		for(int bi=bil; bi<=biu; bi++) {
 			int lpos = (bi==bil) ? a.pos(rl) : 0;
-			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n;
+			int len = (bi==biu) ? a.pos(ru-1)-lpos+n : a.blockSize(bi)*n-lpos;
 			tmp *= product( a.valuesAt(bi), lpos, len );
 		}
 		c.set(0, 0, tmp);
@@ -2234,7 +2235,20 @@ public class LibMatrixAgg
 	private static void s_uackp( SparseBlock a, DenseBlock c, int n, KahanObject kbuff, KahanPlus kplus, int rl, int ru ) 
 	{
 		//compute column aggregates
-		if( a.isContiguous() ) {
+		if( SparseBlockBCSR.isTiledSparseBlock(a) ) {
+			//tile-wise aggregation over contiguous column ranges
+			SparseBlockBCSR ta = (SparseBlockBCSR) a;
+			int blen = ta.getTileSize();
+			int[] tptr = ta.tilePointers();
+			int[] tcol = ta.tileColumns();
+			double[] avals = ta.tileValues(); //incl explicit zeros
+			for( int i=rl; i<ru; i++ ) {
+				int bi = i / blen;
+				for( int t=tptr[bi], apos=ta.tilePos(i); t<tptr[bi+1]; t++, apos+=blen )
+					sumAgg( avals, c, apos, tcol[t]*blen, ta.tileWidth(t), kbuff, kplus );
+			}
+		}
+		else if( a.isContiguous() ) {
 			sumAgg( a.values(rl), c, a.indexes(rl), a.pos(rl), (int)a.size(rl, ru), n, kbuff, kplus );
 		}
 		else {
@@ -2966,6 +2980,20 @@ public class LibMatrixAgg
 		}
 	}
 	
+	private static void sumAgg(double[] a, DenseBlock c, int ai, final int ci, final int len, KahanObject kbuff, KahanFunction kplus) {
+		//note: output might span multiple physical blocks
+		double[] sum = c.values(0);
+		double[] corr = c.values(1);
+		int pos0 = c.pos(0)+ci, pos1 = c.pos(1)+ci;
+		for (int i=0; i<len; i++) {
+			kbuff._sum = sum[pos0+i];
+			kbuff._correction = corr[pos1+i];
+			kplus.execute2(kbuff, a[ai+i]);
+			sum[pos0+i] = kbuff._sum;
+			corr[pos1+i] = kbuff._correction;
+		}
+	}
+	
 	private static void sumAgg(double[] a, DenseBlock c, int[] aix, int ai, final int len, final int n, KahanObject kbuff, KahanFunction kplus) {
 		//note: output might span multiple physical blocks
 		double[] sum = c.values(0);
@@ -19,7 +19,11 @@
 
 package org.tugraz.sysds.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.data.DenseBlock;
@@ -48,6 +52,7 @@ import org.tugraz.sysds.runtime.functionobjects.ValueFunction;
 import org.tugraz.sysds.runtime.functionobjects.Builtin.BuiltinCode;
 import org.tugraz.sysds.runtime.matrix.operators.BinaryOperator;
 import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
 import org.tugraz.sysds.runtime.util.DataConverter;
 import org.tugraz.sysds.runtime.util.SortUtils;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
@@ -61,7 +66,9 @@ import org.tugraz.sysds.runtime.util.UtilFunctions;
  */
 public class LibMatrixBincell 
 {
-
+	//internal configuration parameters
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024; //Min number of cells/nnz for multi-threading
+	
 	public enum BinaryAccessType {
 		MATRIX_MATRIX,
 		MATRIX_COL_VECTOR,
@@ -86,17 +93,33 @@ public class LibMatrixBincell
 	 * @param op scalar operator
 	 */
 	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) {
+		bincellOp(m1, ret, op, 1);
+	}
+	
+	/**
+	 * matrix-scalar, scalar-matrix binary operations, multi-threaded
+	 * over row partitions if the input is sufficiently large.
+	 * 
+	 * @param m1 input matrix
+	 * @param ret result matrix
+	 * @param op scalar operator
+	 * @param k degree of parallelism
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) {
 		//check internal assumptions 
 		if(   (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
 			||(!op.sparseSafe && ret.isInSparseFormat()) ) {
 			throw new DMLRuntimeException("Wrong output representation for safe="+op.sparseSafe+": "+m1.isInSparseFormat()+", "+ret.isInSparseFormat());
 		}
 		
+		//fall back to sequential version if necessary
+		k = satisfiesMultiThreadingConstraints(m1, ret, k) ? k : 1;
+		
 		//execute binary cell operations
 		if(op.sparseSafe)
-			safeBinaryScalar(m1, ret, op);
+			safeBinaryScalar(m1, ret, op, k);
 		else
-			unsafeBinaryScalar(m1, ret, op);
+			unsafeBinaryScalar(m1, ret, op, k);
 		
 		//ensure empty results sparse representation 
 		//(no additional memory requirements)
@@ -113,9 +136,26 @@ public class LibMatrixBincell
 	 * @param op binary operator
 	 */
 	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
+		bincellOp(m1, m2, ret, op, 1);
+	}
+	
+	/**
+	 * matrix-matrix binary operations, MM, MV, multi-threaded
+	 * over row partitions if the inputs are sufficiently large.
+	 * 
+	 * @param m1 input matrix 1
+	 * @param m2 input matrix 2
+	 * @param ret result matrix
+	 * @param op binary operator
+	 * @param k degree of parallelism
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
+		//fall back to sequential version if necessary
+		k = satisfiesMultiThreadingConstraints(m1, ret, k) ? k : 1;
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
-			safeBinary(m1, m2, ret, op);
+			safeBinary(m1, m2, ret, op, k);
 		else
 			unsafeBinary(m1, m2, ret, op);
 		
@@ -133,9 +173,24 @@ public class LibMatrixBincell
 	 * @param op binary operator
 	 */
 	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) {
+		bincellOpInPlace(m1ret, m2, op, 1);
+	}
+	
+	/**
+	 * NOTE: operations in place always require m1 and m2 to be of equal dimensions
+	 * 
+	 * @param m1ret result matrix
+	 * @param m2 matrix block
+	 * @param op binary operator
+	 * @param k degree of parallelism
+	 */
+	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) {
+		//fall back to sequential version if necessary
+		k = satisfiesMultiThreadingConstraints(m1ret, m1ret, k) ? k : 1;
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
-			safeBinaryInPlace(m1ret, m2, op);
+			safeBinaryInPlace(m1ret, m2, op, k);
 		else
 			unsafeBinaryInPlace(m1ret, m2, op);
 		
@@ -189,11 +244,18 @@ public class LibMatrixBincell
 		return (op.fn instanceof Divide && rhs.getNonZeros()==(long)rhs.getNumRows()*rhs.getNumColumns());
 	}
 	
+	public static boolean satisfiesMultiThreadingConstraints(MatrixBlock m1, MatrixBlock ret, int k) {
+		//sparse-sparse operations are bound by the number of non-zeros, all others by the output size
+		long size = (m1.sparse && ret.sparse) ? m1.nonZeros : (long)m1.rlen * ret.clen;
+		return k > 1 && ret.isThreadSafe() && m1.rlen > k
+			&& size >= PAR_NUMCELL_THRESHOLD;
+	}
+	
 	//////////////////////////////////////////////////////
 	// private sparse-safe/sparse-unsafe implementations
 	///////////////////////////////////
 
-	private static void safeBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
+	private static void safeBinary(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
 		boolean skipEmpty = (op.fn instanceof Multiply 
 			|| isSparseSafeDivide(op, m2) );
 		boolean copyLeftRightEmpty = (op.fn instanceof Plus || op.fn instanceof Minus 
@@ -213,12 +275,14 @@ public class LibMatrixBincell
 		{
 			//note: m2 vector and hence always dense
 			if( !m1.sparse && !m2.sparse && !ret.sparse ) //DENSE all
-				safeBinaryMVDense(m1, m2, ret, op);
+				safeBinaryMVDense(m1, m2, ret, op, k);
 			else if( m1.sparse ) //SPARSE m1
-				safeBinaryMVSparse(m1, m2, ret, op);
+				safeBinaryMVSparse(m1, m2, ret, op, k);
 			else if( !m1.sparse && !m2.sparse && ret.sparse && op.fn instanceof Multiply
 				&& atype == BinaryAccessType.MATRIX_COL_VECTOR
-				&& (long)m1.rlen * m2.clen < Integer.MAX_VALUE )
+				&& (long)m1.rlen * m1.clen < Integer.MAX_VALUE
+				&& (m1.denseBlock == null || m1.denseBlock.isContiguous())
+				&& (m2.denseBlock == null || m2.denseBlock.isContiguous()) )
 				safeBinaryMVDenseSparseMult(m1, m2, ret, op);
 			else //generic combinations
 				safeBinaryMVGeneric(m1, m2, ret, op);
@@ -238,17 +302,17 @@ public class LibMatrixBincell
 				ret.copyShallow(m2);
 			}
 			else if(m1.sparse && m2.sparse) {
-				safeBinaryMMSparseSparse(m1, m2, ret, op);
+				safeBinaryMMSparseSparse(m1, m2, ret, op, k);
 			}
 			else if( !ret.sparse && (m1.sparse || m2.sparse) &&
 				(op.fn instanceof Plus || op.fn instanceof Minus ||
 				op.fn instanceof PlusMultiply || op.fn instanceof MinusMultiply ||
 				(op.fn instanceof Multiply && !m2.sparse ))) {
-				safeBinaryMMSparseDenseDense(m1, m2, ret, op);
+				safeBinaryMMSparseDenseDense(m1, m2, ret, op, k);
 			}
 			else if( !ret.sparse && !m1.sparse && !m2.sparse 
 				&& m1.denseBlock!=null && m2.denseBlock!=null ) {
-				safeBinaryMMDenseDenseDense(m1, m2, ret, op);
+				safeBinaryMMDenseDenseDense(m1, m2, ret, op, k);
 			}
 			else if( skipEmpty && (m1.sparse || m2.sparse) ) {
 				safeBinaryMMSparseDenseSkip(m1, m2, ret, op);
@@ -259,9 +323,8 @@ public class LibMatrixBincell
 		}
 	}
 
-	private static void safeBinaryMVDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
-		boolean isMultiply = (op.fn instanceof Multiply);
-		boolean skipEmpty = (isMultiply);
+	private static void safeBinaryMVDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
+		boolean skipEmpty = (op.fn instanceof Multiply);
 		BinaryAccessType atype = getBinaryAccessType(m1, m2);
 		int rlen = m1.rlen;
 		int clen = m1.clen;
@@ -271,105 +334,128 @@ public class LibMatrixBincell
 			return; // skip entire empty block
 		
 		ret.allocateDenseBlock();
+		DenseBlock da = m1.getDenseBlock();
+		DenseBlock dc = ret.getDenseBlock();
+		double[] b = (atype == BinaryAccessType.MATRIX_ROW_VECTOR) ?
+			m2.getDenseBlockValues() : null; // row always in single block
+		
+		if( atype == BinaryAccessType.MATRIX_ROW_VECTOR && da==null && b==null ) { //both empty
+			double v = op.fn.execute( 0, 0 );
+			dc.set(v);
+			ret.nonZeros = (v != 0) ? (long)rlen*clen : 0;
+		}
+		else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR && da==null ) //left empty
+		{
+			//compute first row
+			long nnz = 0;
+			double[] c = dc.valuesAt(0);
+			for( int j=0; j<clen; j++ ) {
+				c[j] = op.fn.execute( 0, b[j] );
+				nnz += (c[j] != 0) ? rlen : 0;
+			}
+			//copy first to all other rows
+			for( int i=1; i<rlen; i++ )
+				dc.set(i, c);
+			ret.nonZeros = nnz;
+		}
+		else { //default case (incl right empty) 
+			executeRowPartitions(ret, rlen, k,
+				(c, rl, ru) -> safeBinaryMVDense(m1, m2, c, op, rl, ru));
+		}
+	}
+	
+	private static void safeBinaryMVDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) {
+		boolean isMultiply = (op.fn instanceof Multiply);
+		boolean skipEmpty = (isMultiply);
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		int clen = m1.clen;
+		
 		DenseBlock da = m1.getDenseBlock();
 		DenseBlock dc = ret.getDenseBlock();
 		long nnz = 0;
 		
 		if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
 		{
-			double[] b = m2.getDenseBlockValues(); // always single block
-			
-			for( int bi=0; bi<dc.numBlocks(); bi++ ) {
-				double[] a = da.valuesAt(bi);
-				double[] c = dc.valuesAt(bi);
-				int len = dc.blockSize(bi);
-				int off = bi * dc.blockSize();
-				for( int i=0, ix=0; i<len; i++, ix+=clen )
-				{
-					//replicate vector value
-					double v2 = (b==null) ? 0 : b[off+i];
-					if( skipEmpty && v2 == 0 ) //skip empty rows
-						continue;
-						
-					if( isMultiply && v2 == 1 ) { //ROW COPY
-						//a guaranteed to be non-null (see early abort)
-						System.arraycopy(a, ix, c, ix, clen);
-						nnz += m1.recomputeNonZeros(i, i, 0, clen-1);
-					}
-					else { //GENERAL CASE
-						if( a != null )
-							for( int j=0; j<clen; j++ ) {
-								c[ix+j] = op.fn.execute( a[ix+j], v2 );	
-								nnz += (c[ix+j] != 0) ? 1 : 0;
-							}
-						else {
-							double val = op.fn.execute( 0, v2 );
-							Arrays.fill(c, ix, ix+clen, val);
-							nnz += (val != 0) ? clen : 0;
+			//column vector might span multiple blocks
+			DenseBlock db = m2.getDenseBlock();
+			for( int i=rl; i<ru; i++ )
+			{
+				double[] a = (da != null) ? da.values(i) : null;
+				double[] c = dc.values(i);
+				int aix = (da != null) ? da.pos(i) : 0;
+				int ix = dc.pos(i);
+				
+				//replicate vector value
+				double v2 = (db==null) ? 0 : db.get(i, 0);
+				if( skipEmpty && v2 == 0 ) //skip empty rows
+					continue;
+					
+				if( isMultiply && v2 == 1 ) { //ROW COPY
+					//a guaranteed to be non-null (see early abort)
+					System.arraycopy(a, aix, c, ix, clen);
+					nnz += m1.recomputeNonZeros(i, i, 0, clen-1);
+				}
+				else { //GENERAL CASE
+					if( a != null )
+						for( int j=0; j<clen; j++ ) {
+							c[ix+j] = op.fn.execute( a[aix+j], v2 );	
+							nnz += (c[ix+j] != 0) ? 1 : 0;
 						}
+					else {
+						double val = op.fn.execute( 0, v2 );
+						Arrays.fill(c, ix, ix+clen, val);
+						nnz += (val != 0) ? clen : 0;
 					}
 				}
 			}
 		}
 		else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR )
 		{
-			double[] b = m2.getDenseBlockValues(); // always single block
-			
-			if( da==null && b==null ) { //both empty
-				double v = op.fn.execute( 0, 0 );
-				dc.set(v);
-				nnz += (v != 0) ? (long)rlen*clen : 0;
-			}
-			else if( da==null ) //left empty
-			{
-				//compute first row
-				double[] c = dc.valuesAt(0);
+			//note: left empty handled by caller
+			double[] b = m2.getDenseBlockValues(); // row always in single block
+			for( int i=rl; i<ru; i++ ) {
+				double[] a = da.values(i);
+				double[] c = dc.values(i);
+				int aix = da.pos(i), ix = dc.pos(i);
 				for( int j=0; j<clen; j++ ) {
-					c[j] = op.fn.execute( 0, b[j] );
-					nnz += (c[j] != 0) ? rlen : 0;
-				}
-				//copy first to all other rows
-				for( int i=1; i<rlen; i++ )
-					dc.set(i, c);
-			}
-			else //default case (incl right empty) 
-			{
-				for( int bi=0; bi<dc.numBlocks(); bi++ ) {
-					double[] a = da.valuesAt(bi);
-					double[] c = dc.valuesAt(bi);
-					int len = dc.blockSize(bi);
-					for( int i=0, ix=0; i<len; i++, ix+=clen )
-						for( int j=0; j<clen; j++ ) {
-							c[ix+j] = op.fn.execute( a[ix+j], ((b!=null) ? b[j] : 0) );	
-							nnz += (c[ix+j] != 0) ? 1 : 0;
-						}
+					c[ix+j] = op.fn.execute( a[aix+j], ((b!=null) ? b[j] : 0) );	
+					nnz += (c[ix+j] != 0) ? 1 : 0;
 				}
 			}
 		}
 		
-		ret.nonZeros = nnz;
+		ret.nonZeros += nnz;
 	}
 
-	private static void safeBinaryMVSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
-		boolean isMultiply = (op.fn instanceof Multiply);
-		boolean skipEmpty = (isMultiply);
-		
-		int rlen = m1.rlen;
-		int clen = m1.clen;
-		SparseBlock a = m1.sparseBlock;
-		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+	private static void safeBinaryMVSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
+		boolean skipEmpty = (op.fn instanceof Multiply);
 		
 		//early abort on skip and empty
 		if( skipEmpty && (m1.isEmptyBlock(false) || m2.isEmptyBlock(false) ) )
 			return; // skip entire empty block
 		
 		//allocate once in order to prevent repeated reallocation
+		//(and concurrent allocation for multi-threaded operations)
 		if( ret.sparse )
 			ret.allocateSparseRowsBlock();
+		else if( k > 1 )
+			ret.allocateDenseBlock();
+		
+		executeRowPartitions(ret, m1.rlen, k,
+			(c, rl, ru) -> safeBinaryMVSparse(m1, m2, c, op, rl, ru));
+	}
+	
+	private static void safeBinaryMVSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) {
+		boolean isMultiply = (op.fn instanceof Multiply);
+		boolean skipEmpty = (isMultiply);
+		
+		int clen = m1.clen;
+		SparseBlock a = m1.sparseBlock;
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
 		
 		if( atype == BinaryAccessType.MATRIX_COL_VECTOR )
 		{
-			for( int i=0; i<rlen; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
 				double v2 = m2.quickGetValue(i, 0);
 				
@@ -417,7 +503,7 @@ public class LibMatrixBincell
 		}
 		else if( atype == BinaryAccessType.MATRIX_ROW_VECTOR )
 		{
-			for( int i=0; i<rlen; i++ )
+			for( int i=rl; i<ru; i++ )
 			{
 				if( skipEmpty && (a==null || a.isEmpty(i)) )
 					continue; //skip empty rows
@@ -600,11 +686,19 @@ public class LibMatrixBincell
 		//no need to recomputeNonZeros since maintained in append value
 	}
 	
-	private static void safeBinaryMMSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
-		final int rlen = m1.rlen;
+	private static void safeBinaryMMSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
+		//allocate once in order to prevent repeated reallocation
+		//(and concurrent allocation for multi-threaded operations)
 		if(ret.sparse)
 			ret.allocateSparseRowsBlock();
+		else if( k > 1 )
+			ret.allocateDenseBlock();
 		
+		executeRowPartitions(ret, m1.rlen, k,
+			(c, rl, ru) -> safeBinaryMMSparseSparse(m1, m2, c, op, rl, ru));
+	}
+	
+	private static void safeBinaryMMSparseSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) {
 		//both sparse blocks existing
 		if(m1.sparseBlock!=null && m2.sparseBlock!=null)
 		{
@@ -614,7 +708,7 @@ public class LibMatrixBincell
 			if( ret.sparse && lsblock.isAligned(rsblock) )
 			{
 				SparseBlock c = ret.sparseBlock;
-				for(int r=0; r<rlen; r++) 
+				for(int r=rl; r<ru; r++) 
 					if( !lsblock.isEmpty(r) ) {
 						int alen = lsblock.size(r);
 						int apos = lsblock.pos(r);
@@ -631,7 +725,7 @@ public class LibMatrixBincell
 			}
 			else //general case
 			{
-				for(int r=0; r<rlen; r++) {
+				for(int r=rl; r<ru; r++) {
 					if( !lsblock.isEmpty(r) && !rsblock.isEmpty(r) ) {
 						mergeForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), lsblock.pos(r), lsblock.size(r),
 							rsblock.values(r), rsblock.indexes(r), rsblock.pos(r), rsblock.size(r), r, ret);
@@ -652,7 +746,7 @@ public class LibMatrixBincell
 		else if( m2.sparseBlock!=null )
 		{
 			SparseBlock rsblock = m2.sparseBlock;
-			for(int r=0; r<Math.min(rlen, rsblock.numRows()); r++) {
+			for(int r=rl; r<Math.min(ru, rsblock.numRows()); r++) {
 				if( rsblock.isEmpty(r) ) continue;
 				appendRightForSparseBinary(op, rsblock.values(r), rsblock.indexes(r), 
 					rsblock.pos(r), rsblock.size(r), 0, r, ret);
@@ -662,7 +756,7 @@ public class LibMatrixBincell
 		else
 		{
 			SparseBlock lsblock = m1.sparseBlock;
-			for(int r=0; r<rlen; r++) {
+			for(int r=rl; r<ru; r++) {
 				if( lsblock.isEmpty(r) ) continue;
 				appendLeftForSparseBinary(op, lsblock.values(r), lsblock.indexes(r), 
 					lsblock.pos(r), lsblock.size(r), 0, r, ret);
@@ -670,108 +764,102 @@ public class LibMatrixBincell
 		}
 	}
 	
-	private static void safeBinaryMMSparseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
+	private static void safeBinaryMMSparseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
 		//specific case in order to prevent binary search on sparse inputs (see quickget and quickset)
 		ret.allocateDenseBlock();
+		executeRowPartitions(ret, ret.rlen, k,
+			(c, rl, ru) -> safeBinaryMMSparseDenseDense(m1, m2, c, op, rl, ru));
+	}
+	
+	private static void safeBinaryMMSparseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) {
 		final int n = ret.clen;
 		DenseBlock dc = ret.getDenseBlock();
+		SparseBlock a = m1.sparse ? m1.sparseBlock : null;
+		DenseBlock da = !m1.sparse && !m1.isEmptyBlock(false) ? m1.getDenseBlock() : null;
+		SparseBlock b = m2.sparse ? m2.sparseBlock : null;
+		DenseBlock db = !m2.sparse && !m2.isEmptyBlock(false) ? m2.getDenseBlock() : null;
 		
-		//1) process left input: assignment
-		
-		if( m1.sparse && m1.sparseBlock != null ) //SPARSE left
-		{
-			SparseBlock a = m1.sparseBlock;
-			for( int bi=0; bi<dc.numBlocks(); bi++ ) {
-				double[] c = dc.valuesAt(bi);
-				int blen = dc.blockSize(bi);
-				int off = bi * dc.blockSize();
-				for( int i=0, ix=0; i<blen; i++, ix+=n ) {
-					int ai = off + i;
-					if( a.isEmpty(ai) ) continue;
-					int apos = a.pos(ai);
-					int alen = a.size(ai);
-					int[] aix = a.indexes(ai);
-					double[] avals = a.values(ai);
-					for(int k = apos; k < apos+alen; k++) 
-						c[ix+aix[k]] = avals[k];
-				}
-			}
-		}
-		else if( !m1.sparse ) //DENSE left
-		{
-			if( !m1.isEmptyBlock(false) ) 
-				dc.set(m1.getDenseBlock());
-			else
-				dc.set(0);
-		}
-		
-		//2) process right input: op.fn (+,-,*), * only if dense
 		long lnnz = 0;
-		if( m2.sparse && m2.sparseBlock!=null ) //SPARSE right
-		{
-			SparseBlock a = m2.sparseBlock;
-			for( int bi=0; bi<dc.numBlocks(); bi++ ) {
-				double[] c = dc.valuesAt(bi);
-				int blen = dc.blockSize(bi);
-				int off = bi * dc.blockSize();
-				for( int i=0, ix=0; i<blen; i++, ix+=n ) {
-					int ai = off + i;
-					if( !a.isEmpty(ai) ) {
-						int apos = a.pos(ai);
-						int alen = a.size(ai);
-						int[] aix = a.indexes(ai);
-						double[] avals = a.values(ai);
-						for(int k = apos; k < apos+alen; k++) 
-							c[ix+aix[k]] = op.fn.execute(c[ix+aix[k]], avals[k]);
-					}
-					//exploit temporal locality of rows
-					lnnz += ret.recomputeNonZeros(ai, ai, 0, n-1);
-				}
+		for( int i=rl; i<ru; i++ ) {
+			double[] c = dc.values(i);
+			int ix = dc.pos(i);
+			
+			//1) process left input: assignment
+			if( a != null ) { //SPARSE left
+				if( !a.isEmpty(i) )
+					a.scatter(i, c, ix);
 			}
-		}
-		else if( !m2.sparse ) //DENSE right
-		{
-			if( !m2.isEmptyBlock(false) ) {
-				for( int bi=0; bi<dc.numBlocks(); bi++ ) {
-					double[] a = m2.getDenseBlock().valuesAt(bi);
-					double[] c = dc.valuesAt(bi);
-					int len = dc.size(bi);
-					for( int i=0; i<len; i++ ) {
-						c[i] = op.fn.execute(c[i], a[i]);
-						lnnz += (c[i]!=0) ? 1 : 0;
-					}
+			else if( da != null ) //DENSE left
+				System.arraycopy(da.values(i), da.pos(i), c, ix, n);
+			else if( !m1.sparse ) //DENSE left empty
+				Arrays.fill(c, ix, ix+n, 0);
+			
+			//2) process right input: op.fn (+,-,*), * only if dense
+			if( b != null ) { //SPARSE right
+				if( !b.isEmpty(i) ) {
+					int bpos = b.pos(i);
+					int blen = b.size(i);
+					int[] bix = b.indexes(i);
+					double[] bvals = b.values(i);
+					for(int j = bpos; j < bpos+blen; j++) 
+						c[ix+bix[j]] = op.fn.execute(c[ix+bix[j]], bvals[j]);
 				}
 			}
-			else if(op.fn instanceof Multiply)
-				ret.denseBlock.set(0);
-			else
-				lnnz = m1.nonZeros;
+			else if( db != null ) { //DENSE right
+				double[] bvals = db.values(i);
+				int bix = db.pos(i);
+				for( int j=0; j<n; j++ )
+					c[ix+j] = op.fn.execute(c[ix+j], bvals[bix+j]);
+			}
+			else if( !m2.sparse && op.fn instanceof Multiply ) //DENSE right empty
+				Arrays.fill(c, ix, ix+n, 0);
+			
+			//3) recompute nnz, exploiting temporal locality of rows
+			lnnz += UtilFunctions.countNonZeros(c, ix, n);
 		}
-		
-		//3) recompute nnz
-		ret.setNonZeros(lnnz);
+		ret.nonZeros += lnnz;
 	}
 	
-	private static void safeBinaryMMDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
+	private static void safeBinaryMMDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) {
 		ret.allocateDenseBlock();
+		executeRowPartitions(ret, ret.rlen, k,
+			(c, rl, ru) -> safeBinaryMMDenseDenseDense(m1, m2, c, op, rl, ru));
+	}
+	
+	private static void safeBinaryMMDenseDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int rl, int ru) {
 		DenseBlock da = m1.getDenseBlock();
 		DenseBlock db = m2.getDenseBlock();
 		DenseBlock dc = ret.getDenseBlock();
 		ValueFunction fn = op.fn;
+		final int clen = ret.clen;
 		
 		//compute dense-dense binary, maintain nnz on-the-fly
 		long lnnz = 0;
-		for( int bi=0; bi<da.numBlocks(); bi++ ) {
+		if( !isAligned(da, db) || !isAligned(da, dc) ) {
+			//row-wise for different physical block layouts
+			for( int i=rl; i<ru; i++ ) {
+				double[] a = da.values(i), b = db.values(i), c = dc.values(i);
+				int aix = da.pos(i), bix = db.pos(i), cix = dc.pos(i);
+				for( int j=0; j<clen; j++ ) {
+					c[cix+j] = fn.execute(a[aix+j], b[bix+j]);
+					lnnz += (c[cix+j]!=0)? 1 : 0;
+				}
+			}
+			ret.nonZeros += lnnz;
+			return;
+		}
+		for( int bi=da.index(rl); bi<=da.index(ru-1); bi++ ) {
 			double[] a = da.valuesAt(bi);
 			double[] b = db.valuesAt(bi);
 			double[] c = dc.valuesAt(bi);
-			int len = da.size(bi);
-			for( int i=0; i<len; i++ ) {
+			int start = (bi == da.index(rl)) ? da.pos(rl) : 0;
+			int end = (bi == da.index(ru-1)) ? da.pos(ru-1) + clen : da.size(bi);
+			for( int i=start; i<end; i++ ) {
 				c[i] = fn.execute(a[i], b[i]);
 				lnnz += (c[i]!=0)? 1 : 0;
 			}
 		}
-		ret.setNonZeros(lnnz);
+		ret.nonZeros += lnnz;
 	}
 	
 	private static void safeBinaryMMSparseDenseSkip(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) {
@@ -843,7 +931,8 @@ public class LibMatrixBincell
 		long lnnz = 0;
 		for( int bi=0; bi<dc.numBlocks(); bi++ ) {
 			double[] c = dc.valuesAt(bi);
-			for( int r=bi*dc.blockSize(), off=0; r<rlen; r++, off+=clen ) {
+			int rmax = Math.min(rlen, (bi+1)*dc.blockSize());
+			for( int r=bi*dc.blockSize(), off=0; r<rmax; r++, off+=clen ) {
 				double value = m1.quickGetValue(r, 0);
 				int ixPos1 = Arrays.binarySearch(b, value);
 				int ixPos2 = ixPos1;
@@ -918,18 +1007,19 @@ public class LibMatrixBincell
 		}
 		else // MATRIX - MATRIX
 		{
-			//dense non-empty vectors (always single block)
+			//dense non-empty vectors (might span multiple blocks)
 			if( m1.clen==1 && !m1.sparse && !m1.isEmptyBlock(false)
 				&& !m2.sparse && !m2.isEmptyBlock(false)  )
 			{
 				ret.allocateDenseBlock();
-				double[] a = m1.getDenseBlockValues();
-				double[] b = m2.getDenseBlockValues();
-				double[] c = ret.getDenseBlockValues();
+				DenseBlock a = m1.getDenseBlock();
+				DenseBlock b = m2.getDenseBlock();
+				DenseBlock c = ret.getDenseBlock();
 				int lnnz = 0;
 				for( int i=0; i<rlen; i++ ) {
-					c[i] = op.fn.execute( a[i], b[i] );
-					lnnz += (c[i] != 0) ? 1 : 0;
+					double v = op.fn.execute( a.get(i, 0), b.get(i, 0) );
+					c.set(i, 0, v);
+					lnnz += (v != 0) ? 1 : 0;
 				}
 				ret.nonZeros = lnnz;
 			}
@@ -947,7 +1037,7 @@ public class LibMatrixBincell
 		}
 	}
 
-	private static void safeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) {
+	private static void safeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) {
 		//early abort possible since sparsesafe
 		if( m1.isEmptyBlock(false) ) {
 			return;
@@ -957,56 +1047,60 @@ public class LibMatrixBincell
 		if( m1.sparse != ret.sparse )
 			throw new DMLRuntimeException("Unsupported safe binary scalar operations over different input/output representation: "+m1.sparse+" "+ret.sparse);
 		
+		if( m1.sparse ) //SPARSE <- SPARSE
+		{
+			//allocate sparse row structure
+			ret.allocateSparseRowsBlock();
+			int rlen = Math.min(m1.rlen, m1.sparseBlock.numRows());
+			executeRowPartitions(ret, rlen, k,
+				(c, rl, ru) -> safeBinaryScalarSparse(m1, c, op, rl, ru));
+		}
+		else { //DENSE <- DENSE
+			denseBinaryScalar(m1, ret, op, k);
+		}
+	}
+	
+	private static void safeBinaryScalarSparse(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru) {
 		boolean copyOnes = (op.fn instanceof NotEquals && op.getConstant()==0);
 		boolean allocExact = (op.fn instanceof Multiply || op.fn instanceof Multiply2 
 			|| op.fn instanceof Power2 || Builtin.isBuiltinCode(op.fn, BuiltinCode.MAX)
 			|| Builtin.isBuiltinCode(op.fn, BuiltinCode.MIN));
+		SparseBlock a = m1.sparseBlock;
+		SparseBlock c = ret.sparseBlock;
 		
-		if( m1.sparse ) //SPARSE <- SPARSE
-		{
-			//allocate sparse row structure
-			ret.allocateSparseRowsBlock();
-			SparseBlock a = m1.sparseBlock;
-			SparseBlock c = ret.sparseBlock;
-			int rlen = Math.min(m1.rlen, a.numRows());
+		long nnz = 0;
+		for(int r=rl; r<ru; r++) {
+			if( a.isEmpty(r) ) continue;
 			
-			long nnz = 0;
-			for(int r=0; r<rlen; r++) {
-				if( a.isEmpty(r) ) continue;
+			int apos = a.pos(r);
+			int alen = a.size(r);
+			int[] aix = a.indexes(r);
+			double[] avals = a.values(r);
+			
+			if( copyOnes ) { //SPECIAL CASE: e.g., (X != 0) 
+				//create sparse row without repeated resizing
+				SparseRowVector crow = new SparseRowVector(alen);
+				crow.setSize(alen);
 				
-				int apos = a.pos(r);
-				int alen = a.size(r);
-				int[] aix = a.indexes(r);
-				double[] avals = a.values(r);
+				//memcopy/memset of indexes/values (sparseblock guarantees absence of 0s) 
+				System.arraycopy(aix, apos, crow.indexes(), 0, alen);
+				Arrays.fill(crow.values(), 0, alen, 1);
+				c.set(r, crow, false);
+				nnz += alen;
+			}
+			else { //GENERAL CASE
+				//create sparse row without repeated resizing for specific ops
+				if( allocExact )
+					c.allocate(r, alen);
 				
-				if( copyOnes ) { //SPECIAL CASE: e.g., (X != 0) 
-					//create sparse row without repeated resizing
-					SparseRowVector crow = new SparseRowVector(alen);
-					crow.setSize(alen);
-					
-					//memcopy/memset of indexes/values (sparseblock guarantees absence of 0s) 
-					System.arraycopy(aix, apos, crow.indexes(), 0, alen);
-					Arrays.fill(crow.values(), 0, alen, 1);
-					c.set(r, crow, false);
-					nnz += alen;
-				}
-				else { //GENERAL CASE
-					//create sparse row without repeated resizing for specific ops
-					if( allocExact )
-						c.allocate(r, alen);
-					
-					for(int j=apos; j<apos+alen; j++) {
-						double val = op.executeScalar(avals[j]);
-						c.append(r, aix[j], val);
-						nnz += (val != 0) ? 1 : 0; 
-					}
+				for(int j=apos; j<apos+alen; j++) {
+					double val = op.executeScalar(avals[j]);
+					c.append(r, aix[j], val);
+					nnz += (val != 0) ? 1 : 0; 
 				}
 			}
-			ret.nonZeros = nnz;
-		}
-		else { //DENSE <- DENSE
-			denseBinaryScalar(m1, ret, op);
 		}
+		ret.nonZeros += nnz;
 	}
 	
 	/**
@@ -1015,8 +1109,9 @@ public class LibMatrixBincell
 	 * @param m1 input matrix
 	 * @param ret result matrix
 	 * @param op scalar operator
+	 * @param k degree of parallelism
 	 */
-	private static void unsafeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) {
+	private static void unsafeBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) {
 		//early abort possible since sparsesafe
 		if( m1.isEmptyBlock(false) ) {
 			//compute 0 op constant once and set into dense output
@@ -1033,66 +1128,86 @@ public class LibMatrixBincell
 		if( m1.sparse ) //SPARSE MATRIX
 		{
 			ret.allocateDenseBlock();
-			
-			SparseBlock a = m1.sparseBlock;
-			DenseBlock dc = ret.getDenseBlock();
-			int m = m1.rlen;
-			int n = m1.clen;
-			
-			//init dense result with unsafe 0-value
-			double val0 = op.executeScalar(0);
-			boolean lsparseSafe = (val0 == 0);
-			if( !lsparseSafe )
-				dc.set(val0);
-			
-			//compute non-zero input values
-			long nnz = lsparseSafe ? 0 : m * n;
-			for(int bi=0; bi<dc.numBlocks(); bi++) {
-				int blen = dc.blockSize(bi);
-				double[] c = dc.valuesAt(bi);
-				for(int i=bi*dc.blockSize(), cix=i*n; i<blen && i<m; i++, cix+=n) {
-					if( a.isEmpty(i) ) continue;
-					int apos = a.pos(i);
-					int alen = a.size(i);
-					int[] aix = a.indexes(i);
-					double[] avals = a.values(i);
-					for(int j=apos; j<apos+alen; j++) {
-						double val = op.executeScalar(avals[j]);
-						c[ cix+aix[j] ] = val;
-						nnz += lsparseSafe ? (val!=0 ? 1 : 0) :
-							(val==0 ? -1 : 0);
-					}
-				}
-			}
-			ret.nonZeros = nnz;
+			executeRowPartitions(ret, m1.rlen, k,
+				(c, rl, ru) -> unsafeBinaryScalarSparse(m1, c, op, rl, ru));
 		}
 		else { //DENSE MATRIX
-			denseBinaryScalar(m1, ret, op);
+			denseBinaryScalar(m1, ret, op, k);
 		}
 	}
+	
+	private static void unsafeBinaryScalarSparse(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru) {
+		SparseBlock a = m1.sparseBlock;
+		DenseBlock dc = ret.getDenseBlock();
+		int n = m1.clen;
+		
+		//init dense result with unsafe 0-value
+		double val0 = op.executeScalar(0);
+		boolean lsparseSafe = (val0 == 0);
+		
+		//compute non-zero input values
+		long nnz = lsparseSafe ? 0 : (long)(ru-rl) * n;
+		for(int i=rl; i<ru; i++) {
+			double[] c = dc.values(i);
+			int cix = dc.pos(i);
+			if( !lsparseSafe )
+				Arrays.fill(c, cix, cix+n, val0);
+			if( a.isEmpty(i) ) continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			for(int j=apos; j<apos+alen; j++) {
+				double val = op.executeScalar(avals[j]);
+				c[ cix+aix[j] ] = val;
+				nnz += lsparseSafe ? (val!=0 ? 1 : 0) :
+					(val==0 ? -1 : 0);
+			}
+		}
+		ret.nonZeros += nnz;
+	}
 
-	private static void denseBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) {
+	private static void denseBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) {
 		//allocate dense block (if necessary), incl clear nnz
 		ret.allocateDenseBlock(true);
-		
+		executeRowPartitions(ret, m1.rlen, k,
+			(c, rl, ru) -> denseBinaryScalar(m1, c, op, rl, ru));
+	}
+	
+	private static void denseBinaryScalar(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru) {
 		DenseBlock da = m1.getDenseBlock();
 		DenseBlock dc = ret.getDenseBlock();
+		final int clen = m1.clen;
 		
 		//compute scalar operation, incl nnz maintenance
 		long nnz = 0;
-		for( int bi=0; bi<da.numBlocks(); bi++) {
+		if( !isAligned(da, dc) ) {
+			//row-wise for different physical block layouts
+			for( int i=rl; i<ru; i++ ) {
+				double[] a = da.values(i), c = dc.values(i);
+				int aix = da.pos(i), cix = dc.pos(i);
+				for( int j=0; j<clen; j++ ) {
+					c[cix+j] = op.executeScalar( a[aix+j] );
+					nnz += (c[cix+j] != 0) ? 1 : 0;
+				}
+			}
+			ret.nonZeros += nnz;
+			return;
+		}
+		for( int bi=da.index(rl); bi<=da.index(ru-1); bi++ ) {
 			double[] a = da.valuesAt(bi);
 			double[] c = dc.valuesAt(bi);
-			int limit = da.size(bi);
-			for( int i=0; i<limit; i++ ) {
+			int start = (bi == da.index(rl)) ? da.pos(rl) : 0;
+			int end = (bi == da.index(ru-1)) ? da.pos(ru-1) + clen : da.size(bi);
+			for( int i=start; i<end; i++ ) {
 				c[i] = op.executeScalar( a[i] );
 				nnz += (c[i] != 0) ? 1 : 0;
 			}
 		}
-		ret.nonZeros = nnz;
+		ret.nonZeros += nnz;
 	}
 
-	private static void safeBinaryInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) {
+	private static void safeBinaryInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) {
 		//early abort on skip and empty 
 		if( (m1ret.isEmpty() && m2.isEmpty() )
 			|| (op.fn instanceof Plus && m2.isEmpty())
@@ -1105,16 +1220,16 @@ public class LibMatrixBincell
 		}
 		
 		if(m1ret.sparse && m2.sparse)
-			safeBinaryInPlaceSparse(m1ret, m2, op);
+			safeBinaryInPlaceSparse(m1ret, m2, op, k);
 		else if(!m1ret.sparse && !m2.sparse)
-			safeBinaryInPlaceDense(m1ret, m2, op);
+			safeBinaryInPlaceDense(m1ret, m2, op, k);
 		else if(m2.sparse && (op.fn instanceof Plus || op.fn instanceof Minus))
 			safeBinaryInPlaceDenseSparseAdd(m1ret, m2, op);
 		else //GENERIC
 			safeBinaryInPlaceGeneric(m1ret, m2, op);
 	}
 	
-	private static void safeBinaryInPlaceSparse(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) {
+	private static void safeBinaryInPlaceSparse(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) {
 		//allocation and preparation (note: for correctness and performance, this 
 		//implementation requires the lhs in MCSR and hence we explicitly convert)
 		if( m1ret.sparseBlock!=null )
@@ -1124,13 +1239,22 @@ public class LibMatrixBincell
 				SparseBlock.Type.MCSR, m1ret.sparseBlock, false);
 		if( m2.sparseBlock!=null )
 			m2.allocateSparseRowsBlock(false);
+		if( m1ret.sparseBlock==null && m2.sparseBlock!=null ) //lhs empty
+			m1ret.sparseBlock = SparseBlockFactory.createSparseBlock(m1ret.rlen);
+		
+		executeRowPartitions(m1ret, m1ret.rlen, k,
+			(c, rl, ru) -> safeBinaryInPlaceSparse(c, m2, op, rl, ru));
+		
+		m1ret.recomputeNonZeros();
+	}
+	
+	private static void safeBinaryInPlaceSparse(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int rl, int ru) {
 		SparseBlock c = m1ret.sparseBlock;
 		SparseBlock b = m2.sparseBlock;
-		final int rlen = m1ret.rlen;
 		final int clen = m1ret.clen;
 		
 		if( c!=null && b!=null ) {
-			for(int r=0; r<rlen; r++) {
+			for(int r=rl; r<ru; r++) {
 				if(c.isEmpty(r) && b.isEmpty(r))
 					continue;
 				if( b.isEmpty(r) ) {
@@ -1151,35 +1275,29 @@ public class LibMatrixBincell
 				}
 			}
 		}
-		else if( c == null ) { //lhs empty
-			m1ret.sparseBlock = SparseBlockFactory.createSparseBlock(rlen);
-			for( int r=0; r<rlen; r++) {
-				if( b.isEmpty(r) ) continue;
-				appendRightForSparseBinary(op, b.values(r),
-					b.indexes(r), b.pos(r), b.size(r), r, m1ret);
-			}
-		}
-		else { //rhs empty
-			for(int r=0; r<rlen; r++) {
+		else if( c != null ) { //rhs empty
+			for(int r=rl; r<ru; r++) {
 				if( c.isEmpty(r) ) continue;
 				zeroRightForSparseBinary(op, r, m1ret);
 			}
 		}
-		
-		m1ret.recomputeNonZeros();
 	}
 
-	private static void safeBinaryInPlaceDense(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) {
+	private static void safeBinaryInPlaceDense(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int k) {
 		//prepare outputs
 		m1ret.allocateDenseBlock();
+		executeRowPartitions(m1ret, m1ret.rlen, k,
+			(c, rl, ru) -> safeBinaryInPlaceDense(c, m2, op, rl, ru));
+	}
+	
+	private static void safeBinaryInPlaceDense(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op, int rl, int ru) {
 		DenseBlock a = m1ret.getDenseBlock();
 		DenseBlock b = m2.getDenseBlock();
-		final int rlen = m1ret.rlen;
 		final int clen = m1ret.clen;
 		
 		long lnnz = 0;
 		if( m2.isEmptyBlock(false) ) {
-			for(int r=0; r<rlen; r++) {
+			for(int r=rl; r<ru; r++) {
 				double[] avals = a.values(r);
 				for(int c=0, ix=a.pos(r); c<clen; c++, ix++) {
 					double tmp = op.fn.execute(avals[ix], 0);
@@ -1188,7 +1306,7 @@ public class LibMatrixBincell
 			}
 		}
 		else if( op.fn instanceof Plus ) {
-			for(int r=0; r<rlen; r++) {
+			for(int r=rl; r<ru; r++) {
 				int aix = a.pos(r), bix = b.pos(r);
 				double[] avals = a.values(r), bvals = b.values(r);
 				LibMatrixMult.vectAdd(bvals, avals, bix, aix, clen);
@@ -1196,16 +1314,16 @@ public class LibMatrixBincell
 			}
 		}
 		else {
-			for(int r=0; r<rlen; r++) {
+			for(int r=rl; r<ru; r++) {
 				double[] avals = a.values(r), bvals = b.values(r);
-				for(int c=0, ix=a.pos(r); c<clen; c++, ix++) {
-					double tmp = op.fn.execute(avals[ix], bvals[ix]);
+				for(int c=0, ix=a.pos(r), bix=b.pos(r); c<clen; c++, ix++, bix++) {
+					double tmp = op.fn.execute(avals[ix], bvals[bix]);
 					lnnz += (avals[ix] = tmp) != 0 ? 1 : 0;
 				}
 			}
 		}
 		
-		m1ret.setNonZeros(lnnz);
+		m1ret.nonZeros += lnnz;
 	}
 	
 	private static void safeBinaryInPlaceDenseSparseAdd(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) {
@@ -1282,6 +1400,59 @@ public class LibMatrixBincell
 		}
 	}
 	
+	/**
+	 * Executes the given kernel over the rows [0, rlen) of the output, either
+	 * sequentially or over balanced row partitions in parallel. Kernels add the
+	 * number of non-zeros of their rows to the given output; for multi-threaded
+	 * execution, every task works on a shallow output view with task-local nnz,
+	 * which are aggregated once all tasks finished.
+	 * 
+	 * @param ret output matrix (with allocated dense or thread-safe sparse block)
+	 * @param rlen number of rows to process
+	 * @param k degree of parallelism
+	 * @param kernel row-range kernel
+	 */
+	private static void executeRowPartitions(MatrixBlock ret, int rlen, int k, RowPartitionKernel kernel) {
+		if( k <= 1 ) {
+			kernel.execute(ret, 0, rlen);
+			return;
+		}
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<Callable<Long>> tasks = new ArrayList<>();
+			ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(rlen, k, false);
+			for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ ) {
+				final int rl = lb, ru = lb + blklens.get(i);
+				tasks.add(() -> {
+					MatrixBlock view = createTaskView(ret);
+					kernel.execute(view, rl, ru);
+					return view.nonZeros;
+				});
+			}
+			long nnz = 0;
+			for( Future<Long> task : pool.invokeAll(tasks) )
+				nnz += task.get();
+			pool.shutdown();
+			ret.nonZeros += nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static MatrixBlock createTaskView(MatrixBlock ret) {
+		//shallow copy of the allocated output block w/ task-local nnz
+		MatrixBlock view = new MatrixBlock().copyShallow(ret);
+		view.estimatedNNzsPerRow = ret.estimatedNNzsPerRow;
+		view.nonZeros = 0;
+		return view;
+	}
+	
+	private interface RowPartitionKernel {
+		public void execute(MatrixBlock ret, int rl, int ru);
+	}
+	
 	private static void mergeForSparseBinary(BinaryOperator op, double[] values1, int[] cols1, int pos1, int size1, 
 			double[] values2, int[] cols2, int pos2, int size2, int resultRow, MatrixBlock result) {
 		int p1 = 0, p2 = 0;
@@ -1360,4 +1531,9 @@ public class LibMatrixBincell
 		if( zero )
 			c.compact(r);
 	}
+	
+	private static boolean isAligned(DenseBlock a, DenseBlock b) {
+		//same physical row blocks (e.g., DRB and multi-block LDRB not aligned)
+		return a.numBlocks() == b.numBlocks() && a.blockSize() == b.blockSize();
+	}
 }
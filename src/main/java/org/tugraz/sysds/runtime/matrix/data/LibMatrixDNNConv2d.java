@@ -25,6 +25,8 @@ import java.util.concurrent.Callable;
 import org.tugraz.sysds.api.DMLScript;
 import org.tugraz.sysds.hops.OptimizerUtils;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.ColGroupQuantized;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.data.SparseBlock;
 import org.tugraz.sysds.runtime.matrix.data.LibMatrixDNNRotate180.Rotate180Worker;
 import org.tugraz.sysds.utils.NativeHelper;
@@ -51,6 +53,14 @@ public class LibMatrixDNNConv2d
 		
 		MatrixBlock in1 = params.input1;
 		boolean isEmptyDenseInput = !in1.isInSparseFormat() && in1.denseBlock == null;
+		
+		//mixed-precision convolution with quantized filters (kept in low precision)
+		if( isQuantizedFilter(params.input2) && !isEmptyDenseInput ) {
+			for(int i = 0; i*taskSize < params.N; i++)
+				ret.add(new LoopedIm2ColConv2dQuantized(i*taskSize, Math.min((i+1)*taskSize, params.N), params));
+			return ret;
+		}
+		
 		boolean isTransPref = in1.sparse && !params.input2.sparse && !params.output.sparse &&
 			MatrixBlock.evalSparseFormatInMemory(in1.clen, in1.rlen, in1.nonZeros);
 		boolean applyNative = isEligibleForConv2dSparse(params)
@@ -152,6 +162,17 @@ public class LibMatrixDNNConv2d
 		return ret;
 	}
 	
+	/**
+	 * Indicates if the given filter is a quantized (low-precision) matrix.
+	 * 
+	 * @param filter filter matrix
+	 * @return true if quantized
+	 */
+	public static boolean isQuantizedFilter(MatrixBlock filter) {
+		return filter instanceof CompressedMatrixBlock
+			&& ((CompressedMatrixBlock)filter).isQuantized();
+	}
+	
 	/**
 	 * Performs convolution via: partialCopy1(filter %*% im2col(input)) = output
 	 */
@@ -322,6 +343,49 @@ public class LibMatrixDNNConv2d
 		}
 	}
 	
+	/**
+	 * This implementation is similar to LoopedIm2ColConv2dAllChan, except for using a
+	 * mixed-precision matrix multiplication of the quantized filter (FP16, BF16, INT8)
+	 * and the im2col output with FP32 accumulation, i.e., without decompressing the filter.
+	 */
+	private static class LoopedIm2ColConv2dQuantized extends LoopedIm2ColConv2dAllChan
+	{
+		public LoopedIm2ColConv2dQuantized(int rl, int ru, DnnParameters params) {
+			super(rl, ru, params);
+		}
+
+		@Override
+		public Long call() throws Exception {
+			final int PQ = _params.P*_params.Q, K = _params.K, CRS = _params.C*_params.R*_params.S;
+			ColGroupQuantized filter = (ColGroupQuantized)
+				((CompressedMatrixBlock)_params.input2).getColGroups().get(0);
+			MatrixBlock outIm2col = new MatrixBlock(CRS, PQ, _params.input1.sparse).allocateBlock();
+			LibMatrixDNNIm2Col.preallocateSparseOutput(_params.input1, outIm2col);
+			MatrixBlock outMM = new MatrixBlock(K, PQ, false);
+			float[] fbuff = null; //FP32 im2col output, reused across images
+			
+			for(int n = _rl; n < _ru; n++)  {
+				LibMatrixDNNIm2Col.im2col(_params.input1, outIm2col, n, _params, false);
+				
+				// quantized filter %*% _im2ColOutBlock => matMultOutBlock
+				// (dense output per image, sparsity is evaluated once on the final output)
+				outIm2col.recomputeNonZeros();
+				fbuff = LibMatrixMult.matrixMultLowPrecision(filter.getData(), filter.getScale(), outIm2col, outMM, fbuff);
+				
+				// Copy the outMM of shape [K x PQ] to a row in params.output 
+				LoopedIm2ColConv2dAllChan.partialCopy1(outMM, _params.output, n, K, PQ);
+				
+				// Add bias to current row if necessary, always dense
+				if(_params.bias != null)
+					addBias(n, _params.output.getDenseBlockValues(),
+						_params.bias.getDenseBlockValues(), K, PQ);
+			}
+			
+			//multi-threaded nnz maintenance of current working set
+			return _params.output.recomputeNonZeros(_rl, _ru-1);
+		}
+	}
+	
 	/**
 	 * This operator is used only if native is enabled, filter is dense and input is sparse
 	 */
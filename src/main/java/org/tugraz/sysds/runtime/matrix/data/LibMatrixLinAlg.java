@@ -0,0 +1,784 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.util.CommonThreadPool;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Library for dense linear algebra (matrix decompositions, solve, and inverse),
+ * operating directly on row-major dense arrays. Cholesky and LU decompositions
+ * are blocked right-looking factorizations, where the panel solves and trailing
+ * matrix updates are multi-threaded over row or column partitions. QR and the
+ * symmetric eigen decomposition use multi-threaded Householder transformations.
+ * If a native BLAS library is loaded, cholesky, lu, solve, and eigen are
+ * dispatched to LAPACK via {@link LibMatrixNative}.
+ * 
+ * Current list of supported operations:
+ *  - cholesky (lower triangular factor)
+ *  - lu (with partial pivoting)
+ *  - qr (householder vectors and upper triangular factor)
+ *  - eigen (symmetric inputs)
+ *  - solve, inverse (via lu decomposition)
+ */
+public class LibMatrixLinAlg 
+{
+	//block size of panel factorizations (cholesky, lu)
+	private static final int BLOCKSIZE = 64;
+	//minimum number of floating point operations per parallel region
+	private static final long PAR_MINFLOP_THRESHOLD = 2L*1024*1024;
+	//symmetry and positivity thresholds (consistent with commons-math)
+	private static final double CHOLESKY_SYMMETRY_THRESHOLD = 1e-14;
+	private static final double CHOLESKY_POSITIVITY_THRESHOLD = 1e-10;
+	//maximum number of implicit QL iterations per eigen value
+	private static final int EIGEN_MAX_ITER = 30;
+	
+	private LibMatrixLinAlg() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Computes the lower triangular cholesky factor L of a symmetric
+	 * positive definite matrix, where A = L %*% t(L).
+	 * 
+	 * @param in input matrix
+	 * @param k number of threads
+	 * @return lower triangular factor
+	 */
+	public static MatrixBlock cholesky(MatrixBlock in, int k) {
+		if( in.rlen != in.clen )
+			throw new DMLRuntimeException("Input to cholesky() must be square matrix -- given: a "
+				+ in.rlen + "x" + in.clen + " matrix.");
+		final int n = in.rlen;
+		
+		//check symmetry before any native or java factorization,
+		//since both only read the lower triangle
+		double[] a = DataConverter.convertToDoubleVector(in);
+		if( !isSymmetric(a, n, CHOLESKY_SYMMETRY_THRESHOLD) )
+			throw new DMLRuntimeException("Input to cholesky() must be a symmetric matrix.");
+		
+		double[] ret = LibMatrixNative.cholesky(in, k);
+		if( ret != null )
+			a = ret;
+		else {
+			ExecutorService pool = createThreadPool(n, k);
+			try {
+				choleskyBlocked(a, n, pool, k);
+			}
+			finally {
+				shutdown(pool);
+			}
+		}
+		
+		//clear upper triangle (unmodified input)
+		for( int i=0; i<n-1; i++ )
+			Arrays.fill(a, i*n+i+1, (i+1)*n, 0);
+		return toMatrixBlock(a, n, n);
+	}
+	
+	/**
+	 * Computes the lu decomposition with partial pivoting P %*% A = L %*% U.
+	 * 
+	 * @param in square input matrix
+	 * @param k number of threads
+	 * @return array of permutation matrix P, unit lower triangular L, and upper triangular U
+	 */
+	public static MatrixBlock[] lu(MatrixBlock in, int k) {
+		if( in.rlen != in.clen )
+			throw new DMLRuntimeException("LU Decomposition can only be done on a square matrix. "
+				+ "Input matrix is rectangular (rows=" + in.rlen + ", cols="+ in.clen +")");
+		final int n = in.rlen;
+		int[] perm = new int[n];
+		double[] a = luDecompose(in, perm, k);
+		
+		//split lu factors and create permutation matrix
+		MatrixBlock P = new MatrixBlock(n, n, n);
+		double[] l = new double[n*n];
+		double[] u = new double[n*n];
+		for( int i=0; i<n; i++ ) {
+			int ix = i*n;
+			P.appendValue(i, perm[i], 1);
+			System.arraycopy(a, ix, l, ix, i);
+			l[ix+i] = 1;
+			System.arraycopy(a, ix+i, u, ix+i, n-i);
+		}
+		return new MatrixBlock[] { P, toMatrixBlock(l, n, n), toMatrixBlock(u, n, n) };
+	}
+	
+	/**
+	 * Computes the QR decomposition via householder reflections, where the
+	 * householder vectors are returned as columns of H (consistent with
+	 * commons-math). The reflections are applied to the remaining columns
+	 * in parallel, which produces exactly the same results as a sequential
+	 * execution.
+	 * 
+	 * @param in input matrix
+	 * @param k number of threads
+	 * @return array of householder vectors H and upper triangular factor R
+	 */
+	public static MatrixBlock[] qr(MatrixBlock in, int k) {
+		final int m = in.rlen;
+		final int n = in.clen;
+		final int p = Math.min(m, n);
+		
+		//transposed (column-major) copy of the input for contiguous column access
+		double[] a = DataConverter.convertToDoubleVector(in, false);
+		final double[] qrt = new double[n*m];
+		for( int i=0; i<m; i++ )
+			for( int j=0, ix=i*n; j<n; j++ )
+				qrt[j*m+i] = a[ix+j];
+		
+		double[] rdiag = new double[p];
+		ExecutorService pool = createThreadPool(Math.max(m, n), k);
+		try {
+			for( int minor=0; minor<p; minor++ ) {
+				final int mx = minor*m;
+				final int mm = minor;
+				double norm2 = 0;
+				for( int r=minor; r<m; r++ )
+					norm2 += qrt[mx+r] * qrt[mx+r];
+				final double alpha = (qrt[mx+minor] > 0) ? -Math.sqrt(norm2) : Math.sqrt(norm2);
+				rdiag[minor] = alpha;
+				if( alpha == 0 )
+					continue;
+				qrt[mx+minor] -= alpha;
+				//apply householder reflection to remaining columns
+				parallelFor(pool, k, minor+1, n, 4L*(n-minor)*(m-minor), (cl, cu) -> {
+					for( int c=cl; c<cu; c++ ) {
+						int cx = c*m;
+						double beta = 0;
+						for( int r=mm; r<m; r++ )
+							beta -= qrt[cx+r] * qrt[mx+r];
+						beta /= alpha * qrt[mx+mm];
+						for( int r=mm; r<m; r++ )
+							qrt[cx+r] -= beta * qrt[mx+r];
+					}
+				});
+			}
+		}
+		finally {
+			shutdown(pool);
+		}
+		
+		//extract householder vectors and upper triangular factor
+		double[] h = new double[m*n];
+		double[] r = new double[m*n];
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<Math.min(i+1, n); j++ )
+				h[i*n+j] = qrt[j*m+i] / -rdiag[j];
+		for( int i=0; i<p; i++ ) {
+			r[i*n+i] = rdiag[i];
+			for( int j=i+1; j<n; j++ )
+				r[i*n+j] = qrt[j*m+i];
+		}
+		return new MatrixBlock[] { toMatrixBlock(h, m, n), toMatrixBlock(r, m, n) };
+	}
+	
+	/**
+	 * Computes the eigen decomposition of a symmetric matrix via householder
+	 * tridiagonalization and the implicit QL algorithm (as in JAMA and EISPACK
+	 * tred2/tql2). The eigen values are returned in ascending order.
+	 * 
+	 * @param in symmetric input matrix
+	 * @param k number of threads
+	 * @return array of eigen values (column vector) and eigen vectors (as columns)
+	 */
+	public static MatrixBlock[] eigen(MatrixBlock in, int k) {
+		if( in.rlen != in.clen )
+			throw new DMLRuntimeException("Eigen Decomposition can only be done on a square matrix. "
+				+ "Input matrix is rectangular (rows=" + in.rlen + ", cols="+ in.clen +")");
+		final int n = in.rlen;
+		
+		//check symmetry before any native or java decomposition,
+		//since both only read one triangle
+		double[] t = DataConverter.convertToDoubleVector(in);
+		if( !isSymmetric(t, n, getSymmetryThreshold(n)) )
+			throw new DMLRuntimeException("Input to eigen() must be a symmetric matrix.");
+		
+		double[] d = new double[n];
+		double[] v = LibMatrixNative.eigen(in, d, k);
+		if( v != null )
+			return new MatrixBlock[] {
+				DataConverter.convertToMatrixBlock(d, true), toMatrixBlock(v, n, n) };
+		
+		//note: we work on the transposed eigen vectors (rows of t), which
+		//gives contiguous access in all inner loops; t is initialized with
+		//the input because of symmetry.
+		double[] e = new double[n];
+		ExecutorService pool = createThreadPool(n, k);
+		try {
+			tridiagonalize(t, d, e, n, pool, k);
+			diagonalize(t, d, e, n, pool, k);
+		}
+		finally {
+			shutdown(pool);
+		}
+		
+		//sort eigen values and vectors in increasing order
+		//(to be compatible w/ LAPACK.DSYEVR())
+		double[] tmp = new double[n];
+		for( int i=0; i<n-1; i++ ) {
+			int pos = i;
+			for( int j=i+1; j<n; j++ )
+				if( d[j] < d[pos] )
+					pos = j;
+			if( pos != i ) {
+				double p = d[pos];
+				d[pos] = d[i];
+				d[i] = p;
+				System.arraycopy(t, i*n, tmp, 0, n);
+				System.arraycopy(t, pos*n, t, i*n, n);
+				System.arraycopy(tmp, 0, t, pos*n, n);
+			}
+		}
+		
+		//transpose eigen vectors into columns
+		MatrixBlock tv = toMatrixBlock(t, n, n);
+		MatrixBlock ev = (k > 1) ?
+			LibMatrixReorg.transpose(tv, new MatrixBlock(n, n, tv.sparse), k) :
+			LibMatrixReorg.transpose(tv, new MatrixBlock(n, n, tv.sparse));
+		return new MatrixBlock[] { DataConverter.convertToMatrixBlock(d, true), ev };
+	}
+	
+	/**
+	 * Solves the system of linear equations A %*% X = B via lu decomposition.
+	 * 
+	 * @param in1 square matrix A
+	 * @param in2 right-hand side B
+	 * @param k number of threads
+	 * @return solution X
+	 */
+	public static MatrixBlock solve(MatrixBlock in1, MatrixBlock in2, int k) {
+		if( in1.rlen != in1.clen )
+			throw new DMLRuntimeException("The A matrix, in solve(A,b) should have squared dimensions.");
+		if( in1.rlen != in2.rlen )
+			throw new DMLRuntimeException("Dimension mismatch in solve(A,b): "
+				+ in1.rlen + "x" + in1.clen + " vs " + in2.rlen + "x" + in2.clen + ".");
+		final int n = in1.rlen;
+		final int m = in2.clen;
+		
+		double[] x = LibMatrixNative.solve(in1, in2, k);
+		if( x == null ) {
+			int[] perm = new int[n];
+			double[] lu = luDecompose(in1, perm, k);
+			checkNonSingular(lu, n, "solve(A,b)");
+			double[] b = DataConverter.convertToDoubleVector(in2, false);
+			x = new double[n*m];
+			for( int i=0; i<n; i++ )
+				System.arraycopy(b, perm[i]*m, x, i*m, m);
+			luSolve(lu, x, n, m, k);
+		}
+		return toMatrixBlock(x, n, m);
+	}
+	
+	/**
+	 * Computes the inverse of a square matrix via lu decomposition.
+	 * 
+	 * @param in square input matrix
+	 * @param k number of threads
+	 * @return inverse matrix
+	 */
+	public static MatrixBlock inverse(MatrixBlock in, int k) {
+		if( in.rlen != in.clen )
+			throw new DMLRuntimeException("Input to inv() must be square matrix -- given: a "
+				+ in.rlen + "x" + in.clen + " matrix.");
+		final int n = in.rlen;
+		int[] perm = new int[n];
+		double[] lu = luDecompose(in, perm, k);
+		checkNonSingular(lu, n, "inv()");
+		
+		//solve for permuted identity matrix
+		double[] x = new double[n*n];
+		for( int i=0; i<n; i++ )
+			x[i*n+perm[i]] = 1;
+		luSolve(lu, x, n, n, k);
+		return toMatrixBlock(x, n, n);
+	}
+	
+	public static boolean isSymmetric(MatrixBlock in) {
+		return in.rlen == in.clen && isSymmetric(
+			DataConverter.convertToDoubleVector(in, false), in.rlen, getSymmetryThreshold(in.rlen));
+	}
+	
+	private static double getSymmetryThreshold(int n) {
+		//relative tolerance consistent with commons-math eigen decomposition
+		return 10d * n * n * Math.ulp(1d) / 2;
+	}
+	
+	private static boolean isSymmetric(double[] a, int n, double eps) {
+		for( int i=0; i<n; i++ )
+			for( int j=i+1; j<n; j++ ) {
+				double aij = a[i*n+j];
+				double aji = a[j*n+i];
+				if( Math.abs(aij - aji) > Math.max(Math.abs(aij), Math.abs(aji)) * eps )
+					return false;
+			}
+		return true;
+	}
+	
+	private static void choleskyBlocked(double[] a, int n, ExecutorService pool, int k) {
+		for( int j0=0; j0<n; j0+=BLOCKSIZE ) {
+			final int bl = j0;
+			final int bu = Math.min(j0+BLOCKSIZE, n);
+			
+			//factorize diagonal block (unblocked)
+			for( int j=bl; j<bu; j++ ) {
+				int jx = j*n;
+				double d = a[jx+j] - LibMatrixMult.dotProduct(a, a, jx+bl, jx+bl, j-bl);
+				if( d <= CHOLESKY_POSITIVITY_THRESHOLD )
+					throw new DMLRuntimeException("Input to cholesky() must be a positive definite matrix.");
+				a[jx+j] = Math.sqrt(d);
+				for( int i=j+1; i<bu; i++ ) {
+					int ix = i*n;
+					a[ix+j] = (a[ix+j] - LibMatrixMult.dotProduct(a, a, ix+bl, jx+bl, j-bl)) / a[jx+j];
+				}
+			}
+			if( bu == n )
+				break;
+			
+			//compute panel below diagonal block: L21 = A21 %*% inv(t(L11))
+			parallelFor(pool, k, bu, n, (long)(n-bu)*(bu-bl)*(bu-bl), (rl, ru) -> {
+				for( int i=rl; i<ru; i++ ) {
+					int ix = i*n;
+					for( int j=bl; j<bu; j++ ) {
+						int jx = j*n;
+						a[ix+j] = (a[ix+j] - LibMatrixMult.dotProduct(a, a, ix+bl, jx+bl, j-bl)) / a[jx+j];
+					}
+				}
+			});
+			
+			//update lower triangle of trailing matrix: A22 = A22 - L21 %*% t(L21)
+			parallelFor(pool, k, bu, n, (long)(n-bu)*(n-bu)*(bu-bl), (rl, ru) -> {
+				for( int i=rl; i<ru; i++ ) {
+					int ix = i*n;
+					for( int j=bu; j<=i; j++ )
+						a[ix+j] -= LibMatrixMult.dotProduct(a, a, ix+bl, j*n+bl, bu-bl);
+				}
+			});
+		}
+	}
+	
+	private static double[] luDecompose(MatrixBlock in, int[] perm, int k) {
+		final int n = in.rlen;
+		double[] a = LibMatrixNative.lu(in, perm, k);
+		if( a == null ) {
+			a = DataConverter.convertToDoubleVector(in);
+			ExecutorService pool = createThreadPool(n, k);
+			try {
+				luBlocked(a, perm, n, pool, k);
+			}
+			finally {
+				shutdown(pool);
+			}
+		}
+		return a;
+	}
+	
+	private static void luBlocked(double[] a, int[] perm, int n, ExecutorService pool, int k) {
+		for( int i=0; i<n; i++ )
+			perm[i] = i;
+		
+		for( int j0=0; j0<n; j0+=BLOCKSIZE ) {
+			final int bl = j0;
+			final int bu = Math.min(j0+BLOCKSIZE, n);
+			
+			//factorize panel with partial pivoting (unblocked), where
+			//row interchanges are applied to entire rows
+			for( int j=bl; j<bu; j++ ) {
+				int pos = j;
+				double max = Math.abs(a[j*n+j]);
+				for( int i=j+1; i<n; i++ )
+					if( Math.abs(a[i*n+j]) > max ) {
+						max = Math.abs(a[i*n+j]);
+						pos = i;
+					}
+				if( pos != j ) {
+					swapRows(a, n, pos, j);
+					int tmp = perm[pos];
+					perm[pos] = perm[j];
+					perm[j] = tmp;
+				}
+				if( max == 0 )
+					continue; //zero column (singular)
+				int jx = j*n;
+				for( int i=j+1; i<n; i++ ) {
+					int ix = i*n;
+					double lij = (a[ix+j] /= a[jx+j]);
+					if( lij != 0 )
+						LibMatrixMult.vectMultiplyAdd(-lij, a, a, jx+j+1, ix+j+1, bu-j-1);
+				}
+			}
+			if( bu == n )
+				break;
+			
+			//compute block row of U: U12 = inv(L11) %*% A12
+			parallelFor(pool, k, bu, n, (long)(n-bu)*(bu-bl)*(bu-bl), (cl, cu) -> {
+				for( int i=bl+1; i<bu; i++ ) {
+					int ix = i*n;
+					for( int j=bl; j<i; j++ )
+						if( a[ix+j] != 0 )
+							LibMatrixMult.vectMultiplyAdd(-a[ix+j], a, a, j*n+cl, ix+cl, cu-cl);
+				}
+			});
+			
+			//update trailing matrix: A22 = A22 - L21 %*% U12
+			parallelFor(pool, k, bu, n, 2L*(n-bu)*(n-bu)*(bu-bl), (rl, ru) -> {
+				for( int i=rl; i<ru; i++ ) {
+					int ix = i*n;
+					for( int j=bl; j<bu; j++ )
+						if( a[ix+j] != 0 )
+							LibMatrixMult.vectMultiplyAdd(-a[ix+j], a, a, j*n+bu, ix+bu, n-bu);
+				}
+			});
+		}
+	}
+	
+	private static void luSolve(double[] lu, double[] b, int n, int m, int k) {
+		ExecutorService pool = createThreadPool(m, k);
+		try {
+			parallelFor(pool, k, 0, m, 2L*n*n*m, (cl, cu) -> {
+				//forward substitution L %*% Y = P %*% B (unit lower triangular)
+				for( int i=1; i<n; i++ ) {
+					int ix = i*n;
+					if( m == 1 )
+						b[i] -= LibMatrixMult.dotProduct(lu, b, ix, 0, i);
+					else
+						for( int j=0; j<i; j++ )
+							if( lu[ix+j] != 0 )
+								LibMatrixMult.vectMultiplyAdd(-lu[ix+j], b, b, j*m+cl, i*m+cl, cu-cl);
+				}
+				//backward substitution U %*% X = Y
+				for( int i=n-1; i>=0; i-- ) {
+					int ix = i*n;
+					if( m == 1 )
+						b[i] = (b[i] - LibMatrixMult.dotProduct(lu, b, ix+i+1, i+1, n-i-1)) / lu[ix+i];
+					else {
+						for( int j=i+1; j<n; j++ )
+							if( lu[ix+j] != 0 )
+								LibMatrixMult.vectMultiplyAdd(-lu[ix+j], b, b, j*m+cl, i*m+cl, cu-cl);
+						for( int j=i*m+cl; j<i*m+cu; j++ )
+							b[j] /= lu[ix+i];
+					}
+				}
+			});
+		}
+		finally {
+			shutdown(pool);
+		}
+	}
+	
+	private static void checkNonSingular(double[] lu, int n, String op) {
+		for( int i=0; i<n; i++ )
+			if( lu[i*n+i] == 0 )
+				throw new DMLRuntimeException("Input to "+op+" is a singular matrix.");
+	}
+	
+	/**
+	 * Householder reduction to tridiagonal form (tred2), with diagonal d,
+	 * subdiagonal e, and the transposed orthogonal transformation in t.
+	 */
+	private static void tridiagonalize(double[] t, double[] d, double[] e, int n, ExecutorService pool, int k) {
+		final double[][] ep = new double[k][];
+		for( int j=0; j<n; j++ )
+			d[j] = t[j*n+n-1];
+		
+		for( int i=n-1; i>0; i-- ) {
+			final int ii = i;
+			double scale = 0;
+			double h = 0;
+			for( int j=0; j<i; j++ )
+				scale += Math.abs(d[j]);
+			
+			if( scale == 0 ) {
+				e[i] = d[i-1];
+				for( int j=0; j<i; j++ ) {
+					d[j] = t[j*n+i-1];
+					t[j*n+i] = 0;
+					t[i*n+j] = 0;
+				}
+			}
+			else {
+				//generate householder vector
+				for( int j=0; j<i; j++ ) {
+					d[j] /= scale;
+					h += d[j] * d[j];
+				}
+				double f = d[i-1];
+				double g = Math.sqrt(h);
+				if( f > 0 )
+					g = -g;
+				e[i] = scale * g;
+				h = h - f * g;
+				d[i-1] = f - g;
+				System.arraycopy(d, 0, t, i*n, i);
+				
+				//symmetric matrix-vector product e = A %*% d over the lower triangle
+				//(with partial results per thread due to the scattered updates of e)
+				Arrays.fill(e, 0, i, 0);
+				if( pool == null || (long)i*i < PAR_MINFLOP_THRESHOLD )
+					tridiagonalizeMatVec(t, d, e, n, i, 0, 1);
+				else {
+					ArrayList<Callable<Object>> tasks = new ArrayList<>();
+					for( int p=0; p<k; p++ ) {
+						final int pix = p;
+						tasks.add(() -> {
+							if( ep[pix] == null )
+								ep[pix] = new double[n];
+							Arrays.fill(ep[pix], 0, ii, 0);
+							tridiagonalizeMatVec(t, d, ep[pix], n, ii, pix, k);
+							return null;
+						});
+					}
+					execute(pool, tasks);
+					for( int p=0; p<k; p++ )
+						for( int j=0; j<i; j++ )
+							e[j] += ep[p][j];
+				}
+				
+				f = 0;
+				for( int j=0; j<i; j++ ) {
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+				double hh = f / (h + h);
+				for( int j=0; j<i; j++ )
+					e[j] -= hh * d[j];
+				
+				//symmetric rank-2 update of the lower triangle
+				parallelFor(pool, k, 0, i, (long)i*i, (rl, ru) -> {
+					for( int j=rl; j<ru; j++ ) {
+						int jx = j*n;
+						double fj = d[j], gj = e[j];
+						for( int c=j; c<ii; c++ )
+							t[jx+c] -= (fj * e[c] + gj * d[c]);
+					}
+				});
+				for( int j=0; j<i; j++ ) {
+					d[j] = t[j*n+i-1];
+					t[j*n+i] = 0;
+				}
+			}
+			d[i] = h;
+		}
+		
+		//accumulate transformations
+		for( int i=0; i<n-1; i++ ) {
+			final int ix1 = (i+1)*n;
+			final int ii = i;
+			t[i*n+n-1] = t[i*n+i];
+			t[i*n+i] = 1;
+			double h = d[i+1];
+			if( h != 0 ) {
+				for( int j=0; j<=i; j++ )
+					d[j] = t[ix1+j] / h;
+				parallelFor(pool, k, 0, i+1, 2L*(i+1)*(i+1), (rl, ru) -> {
+					for( int j=rl; j<ru; j++ ) {
+						double g = LibMatrixMult.dotProduct(t, t, ix1, j*n, ii+1);
+						LibMatrixMult.vectMultiplyAdd(-g, d, t, 0, j*n, ii+1);
+					}
+				});
+			}
+			Arrays.fill(t, ix1, ix1+i+1, 0);
+		}
+		for( int j=0; j<n; j++ ) {
+			d[j] = t[j*n+n-1];
+			t[j*n+n-1] = 0;
+		}
+		t[n*n-1] = 1;
+		e[0] = 0;
+	}
+	
+	private static void tridiagonalizeMatVec(double[] t, double[] d, double[] e, int n, int i, int off, int incr) {
+		for( int j=off; j<i; j+=incr ) {
+			int jx = j*n;
+			double f = d[j];
+			double g = e[j] + t[jx+j] * f;
+			for( int c=j+1; c<i; c++ ) {
+				g += t[jx+c] * d[c];
+				e[c] += t[jx+c] * f;
+			}
+			e[j] = g;
+		}
+	}
+	
+	/**
+	 * Symmetric tridiagonal QL algorithm (tql2), where the rotations of each
+	 * sweep are recorded and then applied to column partitions of t in parallel.
+	 */
+	private static void diagonalize(double[] t, double[] d, double[] e, int n, ExecutorService pool, int k) {
+		for( int i=1; i<n; i++ )
+			e[i-1] = e[i];
+		e[n-1] = 0;
+		
+		final double[] cs = new double[n];
+		final double[] sn = new double[n];
+		double f = 0;
+		double tst1 = 0;
+		double eps = Math.ulp(1d);
+		for( int l=0; l<n; l++ ) {
+			//find small subdiagonal element
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while( m < n-1 && Math.abs(e[m]) > eps*tst1 )
+				m++;
+			
+			//if m == l, d[l] is an eigen value, otherwise iterate
+			if( m > l ) {
+				int iter = 0;
+				do {
+					if( ++iter > EIGEN_MAX_ITER )
+						throw new DMLRuntimeException("Eigen decomposition did not converge "
+							+ "after "+EIGEN_MAX_ITER+" iterations.");
+					//compute implicit shift
+					double g = d[l];
+					double p = (d[l+1] - g) / (2 * e[l]);
+					double r = hypot(p, 1);
+					if( p < 0 )
+						r = -r;
+					d[l] = e[l] / (p + r);
+					d[l+1] = e[l] * (p + r);
+					double dl1 = d[l+1];
+					double h = g - d[l];
+					for( int i=l+2; i<n; i++ )
+						d[i] -= h;
+					f = f + h;
+					
+					//implicit QL transformation
+					p = d[m];
+					double c = 1, c2 = 1, c3 = 1;
+					double el1 = e[l+1];
+					double s = 0, s2 = 0;
+					for( int i=m-1; i>=l; i-- ) {
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = hypot(p, e[i]);
+						e[i+1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i+1] = h + s * (c * g + s * d[i]);
+						cs[i] = c;
+						sn[i] = s;
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+					
+					//accumulate transformations
+					final int ll = l, mm = m;
+					parallelFor(pool, k, 0, n, 6L*(m-l)*n, (cl, cu) -> {
+						for( int i=mm-1; i>=ll; i-- ) {
+							int ix = i*n, ix1 = (i+1)*n;
+							double ci = cs[i], si = sn[i];
+							for( int j=cl; j<cu; j++ ) {
+								double tmp = t[ix1+j];
+								t[ix1+j] = si * t[ix+j] + ci * tmp;
+								t[ix+j] = ci * t[ix+j] - si * tmp;
+							}
+						}
+					});
+				}
+				while( Math.abs(e[l]) > eps*tst1 );
+			}
+			d[l] = d[l] + f;
+			e[l] = 0;
+		}
+	}
+	
+	private static double hypot(double a, double b) {
+		//sqrt(a^2 + b^2) without under/overflow (faster than Math.hypot)
+		double aa = Math.abs(a), ab = Math.abs(b);
+		if( aa > ab ) {
+			double r = b / a;
+			return aa * Math.sqrt(1 + r * r);
+		}
+		else if( b != 0 ) {
+			double r = a / b;
+			return ab * Math.sqrt(1 + r * r);
+		}
+		return 0;
+	}
+	
+	private static void swapRows(double[] a, int n, int r1, int r2) {
+		for( int j=0, ix1=r1*n, ix2=r2*n; j<n; j++ ) {
+			double tmp = a[ix1+j];
+			a[ix1+j] = a[ix2+j];
+			a[ix2+j] = tmp;
+		}
+	}
+	
+	private static MatrixBlock toMatrixBlock(double[] a, int rows, int cols) {
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		ret.denseBlock = DenseBlockFactory.createDenseBlock(a, rows, cols);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+	
+	private static ExecutorService createThreadPool(int n, int k) {
+		//no thread pool for single-threaded or small operations
+		return (k > 1 && (long)n*n*n >= PAR_MINFLOP_THRESHOLD) ?
+			CommonThreadPool.get(k) : null;
+	}
+	
+	private static void shutdown(ExecutorService pool) {
+		if( pool != null )
+			pool.shutdown();
+	}
+	
+	private static void parallelFor(ExecutorService pool, int k, int rl, int ru, long flops, RangeKernel kernel) {
+		if( pool == null || flops < PAR_MINFLOP_THRESHOLD || ru - rl < 2 ) {
+			kernel.execute(rl, ru);
+			return;
+		}
+		//balanced partitions w/ more tasks than threads for triangular workloads
+		ArrayList<Callable<Object>> tasks = new ArrayList<>();
+		List<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(ru-rl, k, false);
+		for( int i=0, lb=rl; i<blklens.size(); lb+=blklens.get(i), i++ ) {
+			final int lrl = lb, lru = lb + blklens.get(i);
+			tasks.add(() -> { kernel.execute(lrl, lru); return null; });
+		}
+		execute(pool, tasks);
+	}
+	
+	private static void execute(ExecutorService pool, List<Callable<Object>> tasks) {
+		try {
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private interface RangeKernel {
+		public void execute(int rl, int ru);
+	}
+}
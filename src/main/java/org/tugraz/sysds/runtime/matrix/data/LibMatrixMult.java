@@ -19,6 +19,7 @@
 
 package org.tugraz.sysds.runtime.matrix.data;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -40,7 +41,9 @@ import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.tugraz.sysds.runtime.data.DenseBlock;
 import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.data.DenseBlockLowPrecision;
 import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockBCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockMCSR;
 import org.tugraz.sysds.runtime.functionobjects.SwapIndex;
@@ -50,6 +53,8 @@ import org.tugraz.sysds.runtime.util.CommonThreadPool;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
 import org.tugraz.sysds.utils.NativeHelper;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
+
 /**
  * MB: Library for matrix multiplications including MM, MV, VV for all
  * combinations of dense, sparse, ultrasparse representations and special
@@ -69,10 +74,39 @@ public class LibMatrixMult
 	public static final int L2_CACHESIZE = 256 * 1024; //256KB (common size)
 	public static final int L3_CACHESIZE = 16 * 1024 * 1024; //16MB (common size)
 	
+	public enum KernelType {
+		AUTO,       //vectorized if supported by the JIT compiler
+		UNROLLED,   //hand-unrolled 8-blocks for instruction-level parallelism
+		VECTORIZED, //simple loops for auto-vectorization (superword)
+	}
+	
+	//kernel set of elementwise vector primitives (see setKernelType)
+	private static boolean VECTORIZED_KERNELS = isVectorizationSupported();
+	
 	private LibMatrixMult() {
 		//prevent instantiation via private constructor
 	}
 	
+	/**
+	 * Sets the kernel set of the elementwise vector primitives vectMultiplyAdd, 
+	 * vectMultiplyWrite, and vectAdd over dense inputs. The vectorized kernels are 
+	 * simple loops that the JIT compiler translates to SIMD instructions, whereas the 
+	 * unrolled kernels only exploit instruction-level parallelism. Both produce identical 
+	 * results as the order of operations per cell is the same. The dot product kernels 
+	 * (incl sparse-dense gather) are shared because their sequential reduction prevents 
+	 * auto-vectorization and multiple accumulators showed no benefit.
+	 * 
+	 * @param type kernel type, where AUTO selects the vectorized kernels if available
+	 */
+	public static void setKernelType(KernelType type) {
+		VECTORIZED_KERNELS = (type == KernelType.AUTO) ?
+			isVectorizationSupported() : (type == KernelType.VECTORIZED);
+	}
+	
+	public static boolean isVectorizedKernels() {
+		return VECTORIZED_KERNELS;
+	}
+	
 	////////////////////////////////
 	// public matrix mult interface
 	////////////////////////////////
@@ -880,6 +914,101 @@ public class LibMatrixMult
 		//                   "("+mV.isInSparseFormat()+","+mV.getNumRows()+","+mV.getNumColumns()+","+mV.getNonZeros()+") in "+time.stop() + ".");
 	}
 	
+	/**
+	 * Performs a multi-threaded mixed-precision matrix multiplication ret = m1 %*% (scale * B)
+	 * of an FP64 left-hand-side and a low-precision (FP16, BF16, INT8) dense right-hand-side
+	 * of shape ncol(m1) x ncol(ret). The right-hand-side is decoded in cache-sized tiles and
+	 * all products are accumulated in FP32, which trades accuracy for reduced memory bandwidth.
+	 * 
+	 * @param m1 first matrix
+	 * @param b second matrix in low-precision format
+	 * @param scale scale factor of b (e.g., INT8 quantization step)
+	 * @param ret result matrix, with output dimensions
+	 * @param k maximum parallelism
+	 */
+	public static void matrixMultLowPrecision(MatrixBlock m1, DenseBlockLowPrecision b, double scale, MatrixBlock ret, int k) {
+		matrixMultLowPrecision(m1, null, b, scale, ret, k);
+	}
+	
+	/**
+	 * Performs a multi-threaded mixed-precision matrix multiplication ret = (scale * A) %*% m2
+	 * of a low-precision (FP16, BF16, INT8) dense left-hand-side of shape nrow(ret) x nrow(m2)
+	 * and an FP64 right-hand-side, with FP32 accumulation.
+	 * 
+	 * @param a first matrix in low-precision format
+	 * @param scale scale factor of a (e.g., INT8 quantization step)
+	 * @param m2 second matrix
+	 * @param ret result matrix, with output dimensions
+	 * @param k maximum parallelism
+	 */
+	public static void matrixMultLowPrecision(DenseBlockLowPrecision a, double scale, MatrixBlock m2, MatrixBlock ret, int k) {
+		matrixMultLowPrecision(null, m2, a, scale, ret, k);
+	}
+	
+	/**
+	 * Single-threaded variant of the mixed-precision matrix multiplication ret = (scale * A) %*% m2
+	 * for repeated calls (e.g., per image in conv2d), which reuses the given FP32 buffer for the
+	 * conversion of a dense m2, and keeps the output in dense format, i.e., the evaluation of
+	 * the output sparsity is left to the caller.
+	 * 
+	 * @param a first matrix in low-precision format
+	 * @param scale scale factor of a (e.g., INT8 quantization step)
+	 * @param m2 second matrix
+	 * @param ret result matrix, with output dimensions
+	 * @param fbuff FP32 buffer for reuse, or null
+	 * @return FP32 buffer for reuse in subsequent calls
+	 */
+	public static float[] matrixMultLowPrecision(DenseBlockLowPrecision a, double scale, MatrixBlock m2, MatrixBlock ret, float[] fbuff) {
+		ret.reset(ret.rlen, ret.clen, false);
+		if( m2.isEmptyBlock(false) || scale == 0 )
+			return fbuff;
+		ret.allocateDenseBlock();
+		float[] fb = !m2.sparse ? UtilFunctions.toFloat(
+			m2.getDenseBlockValues(), m2.rlen*m2.clen, fbuff) : null;
+		ret.nonZeros = matrixMultLowPrecisionLeft(a, scale, m2, fb, ret, 0, ret.rlen);
+		return (fb != null) ? fb : fbuff;
+	}
+	
+	private static void matrixMultLowPrecision(MatrixBlock m1, MatrixBlock m2, DenseBlockLowPrecision lp, double scale, MatrixBlock ret, int k) {
+		//check inputs / outputs
+		MatrixBlock in = (m1 != null) ? m1 : m2;
+		ret.reset(ret.rlen, ret.clen, false);
+		if( in.isEmptyBlock(false) || scale == 0 ) {
+			ret.examSparsity(); //turn empty dense into sparse
+			return;
+		}
+		
+		//pre-processing: output allocation, and FP32 conversion of dense rhs
+		//(shared across threads, but half the size of the FP64 input)
+		ret.allocateDenseBlock();
+		float[] fb = (m2 != null && !m2.sparse) ?
+			UtilFunctions.toFloat(m2.getDenseBlockValues()) : null;
+		
+		//core multi-threaded matrix mult computation
+		//(currently: always parallelization over number of rows)
+		try {
+			k = (ret.rlen < 2*k || !ret.isThreadSafe()) ? 1 : k;
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<MatrixMultLowPrecisionTask> tasks = new ArrayList<>();
+			ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(ret.rlen, k, false);
+			for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ )
+				tasks.add(new MatrixMultLowPrecisionTask(m1, m2, lp, fb, scale, ret, lb, lb+blklens.get(i)));
+			//execute tasks
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz and check for errors
+			ret.nonZeros = 0; //reset after execute
+			for( Future<Long> task : taskret )
+				ret.nonZeros += task.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//post-processing (nnz maintained in parallel)
+		ret.examSparsity();
+	}
+	
 	//////////////////////////////////////////
 	// optimized matrix mult implementation //
 	//////////////////////////////////////////
@@ -895,27 +1024,29 @@ public class LibMatrixMult
 		if( LOW_LEVEL_OPTIMIZATION ) {
 			if( m==1 && n==1 ) {            //DOT PRODUCT
 				double[] avals = a.valuesAt(0);
-				double[] bvals = b.valuesAt(0);
+				double[] bvals = getDenseVector(b);
 				c.set(0, 0, dotProduct(avals, bvals, cd));
 			}
 			else if( n>1 && cd == 1 ) {     //OUTER PRODUCT
-				double[] avals = a.valuesAt(0);
 				double[] bvals = b.valuesAt(0);
 				for( int i=rl; i < ru; i++) {
 					double[] cvals = c.values(i);
 					int cix = c.pos(i);
-					if( avals[i] == 1 )
+					double aval = a.values(i)[a.pos(i)];
+					if( aval == 1 )
 						System.arraycopy(bvals, 0, cvals, cix, n);
-					else if( avals[i] != 0 )
-						vectMultiplyWrite(avals[i], bvals, cvals, 0, cix, n);
+					else if( aval != 0 )
+						vectMultiplyWrite(aval, bvals, cvals, 0, cix, n);
 					else
 						Arrays.fill(cvals, cix, cix+n, 0);
 				}
 			}
 			else if( n==1 && cd == 1 ) {    //VECTOR-SCALAR
-				double[] avals = a.valuesAt(0);
-				double[] cvals = c.valuesAt(0);
-				vectMultiplyWrite(b.get(0,0), avals, cvals, rl, rl, ru-rl);
+				if( a.isContiguous() && c.isContiguous() )
+					vectMultiplyWrite(b.get(0,0), a.valuesAt(0), c.valuesAt(0), rl, rl, ru-rl);
+				else
+					for( int i=rl; i < ru; i++ )
+						c.set(i, 0, b.get(0,0) * a.get(i, 0));
 			}
 			else if( n==1 && cd<=2*1024 ) { //MATRIX-VECTOR (short rhs)
 				matrixMultDenseDenseMVShortRHS(a, b, c, cd, rl, ru);
@@ -955,23 +1086,28 @@ public class LibMatrixMult
 	}
 	
 	private static void matrixMultDenseDenseMVShortRHS(DenseBlock a, DenseBlock b, DenseBlock c, int cd, int rl, int ru) {
-		double[] bvals = b.valuesAt(0);
-		double[] cvals = c.valuesAt(0);
-		for( int i=rl; i < ru; i++ )
-			cvals[i] = dotProduct(a.values(i), bvals, a.pos(i), 0, cd);
+		double[] bvals = getDenseVector(b);
+		if( c.isContiguous() ) {
+			double[] cvals = c.valuesAt(0);
+			for( int i=rl; i < ru; i++ )
+				cvals[i] = dotProduct(a.values(i), bvals, a.pos(i), 0, cd);
+		}
+		else {
+			for( int i=rl; i < ru; i++ )
+				c.set(i, 0, dotProduct(a.values(i), bvals, a.pos(i), 0, cd));
+		}
 	}
 	
 	private static void matrixMultDenseDenseMVTallRHS(DenseBlock a, DenseBlock b, DenseBlock c, int cd, int rl, int ru) {
 		final int blocksizeI = 32;
 		final int blocksizeK = 2*1024; //16KB vector blocks (L1)
-		double[] bvals = b.valuesAt(0);
-		double[] cvals = c.valuesAt(0);
+		double[] bvals = getDenseVector(b);
 		for( int bi=rl; bi<ru; bi+=blocksizeI ) {
 			int bimin = Math.min(bi+blocksizeI, ru);
 			for( int bk=0; bk<cd; bk+=blocksizeK ) {
 				int bkmin = Math.min(bk+blocksizeK, cd);
 				for( int i=bi; i<bimin; i++) 
-					cvals[i] += dotProduct(a.values(i), bvals, a.pos(i,bk), bk, bkmin-bk);
+					c.values(i)[c.pos(i)] += dotProduct(a.values(i), bvals, a.pos(i,bk), bk, bkmin-bk);
 			}
 		}
 	}
@@ -1031,9 +1167,9 @@ public class LibMatrixMult
 								bvals, cvals, bix, bix+n, bix+2*n, bix+3*n, cix, bjlen);
 					}
 					else {
-						for( int k=rl; k<rl+kn; k++ )
+						for( int k=bk; k<bkmin; k++ )
 							if( avals[aix+k] != 0 )
-								vectMultiplyAdd(avals[aix+k], b.values(k), cvals, b.pos(k), cix, n);
+								vectMultiplyAdd(avals[aix+k], b.values(k), cvals, b.pos(k, bj), cix, bjlen);
 					}
 				}
 			}
@@ -1101,8 +1237,8 @@ public class LibMatrixMult
 						}
 						else {
 							for( int k = bk; k<bkmin; k++ ) {
-								if( avals[k] != 0 )
-									vectMultiplyAdd( avals[k], b.values(k),
+								if( avals[aixi+k-bk] != 0 )
+									vectMultiplyAdd( avals[aixi+k-bk], b.values(k),
 										cvals, b.pos(k, bj), cixj, bjlen );
 							}
 						}
@@ -1120,6 +1256,8 @@ public class LibMatrixMult
 		if( LOW_LEVEL_OPTIMIZATION )
 		{
 			SparseBlock b = m2.sparseBlock;
+			SparseBlockBCSR tb = SparseBlockBCSR.isTiledSparseBlock(b) ?
+				(SparseBlockBCSR) b : null; //tiled rhs w/o column indexes
 			
 			if( pm2 && m==1 ) {        //VECTOR-MATRIX
 				//parallelization over rows in rhs matrix
@@ -1127,8 +1265,11 @@ public class LibMatrixMult
 				double[] cvals = c.valuesAt(0); //vector
 				for( int k=rl; k<ru; k++ )
 					if( avals[k] != 0 && !b.isEmpty(k) ) {
-						vectMultiplyAdd(avals[k], b.values(k), cvals,
-							b.indexes(k), b.pos(k), 0, b.size(k));
+						if( tb != null )
+							vectMultiplyAddTiled(avals[k], tb, k, cvals, 0);
+						else
+							vectMultiplyAdd(avals[k], b.values(k), cvals,
+								b.indexes(k), b.pos(k), 0, b.size(k));
 					}
 			}
 			else {                     //MATRIX-MATRIX
@@ -1149,8 +1290,11 @@ public class LibMatrixMult
 								double aval = avals[aix+k];
 								if( aval == 0 || b.isEmpty(k) )
 									continue;
-								vectMultiplyAdd(aval, b.values(k), cvals, 
-									b.indexes(k), b.pos(k), cix, b.size(k));
+								if( tb != null )
+									vectMultiplyAddTiled(aval, tb, k, cvals, cix);
+								else
+									vectMultiplyAdd(aval, b.values(k), cvals, 
+										b.indexes(k), b.pos(k), cix, b.size(k));
 							}
 						}
 					}
@@ -1189,6 +1333,12 @@ public class LibMatrixMult
 				if( !a.isEmpty(0) )
 					c.set(0, 0, dotProduct(a.values(0), b.values(0), a.indexes(0), a.pos(0), 0, a.size(0)));
 			}
+			else if( SparseBlockBCSR.isTiledSparseBlock(a) ) { //TILED (rows or common dim)
+				if( pm2 )
+					matrixMultSparseDenseTiled((SparseBlockBCSR)a, b, c, n, 0, m, rl, ru);
+				else
+					matrixMultSparseDenseTiled((SparseBlockBCSR)a, b, c, n, rl, ru, 0, cd);
+			}
 			else if( n==1 && cd<=2*1024 ) { //MATRIX-VECTOR (short rhs)
 				matrixMultSparseDenseMVShortRHS(a, b, c, cd, rl, ru);
 			}
@@ -1228,6 +1378,51 @@ public class LibMatrixMult
 		}
 	}
 	
+	private static void matrixMultSparseDenseTiled(SparseBlockBCSR a, DenseBlock b, DenseBlock c, int n, int rl, int ru, int kl, int ku) {
+		final int blen = a.getTileSize();
+		int[] tptr = a.tilePointers();
+		int[] tcol = a.tileColumns();
+		double[] avals = a.tileValues(); //incl explicit zeros
+		
+		for( int bi = rl/blen; bi*blen < ru; bi++ ) {
+			int rl2 = Math.max(rl, bi*blen);
+			int ru2 = Math.min(ru, (bi+1)*blen);
+			for( int t=tptr[bi]; t<tptr[bi+1] && tcol[t]*blen<ku; t++ ) {
+				//restrict tile columns to common dimension range [kl,ku)
+				int bk = Math.max(tcol[t] * blen, kl);
+				int bkmin = Math.min(tcol[t] * blen + a.tileWidth(t), ku);
+				if( bk >= bkmin ) continue;
+				int toff = (t-tptr[bi]) * blen + bk - tcol[t] * blen; //offset within rows
+				int tlen = bkmin - bk;
+				if( n == 1 && b.isContiguous() ) { //MATRIX-VECTOR (contiguous dot products)
+					double[] bvals = b.valuesAt(0);
+					double[] cvals = c.valuesAt(0);
+					for( int i=rl2; i<ru2; i++ )
+						cvals[i] += dotProduct(avals, bvals, a.tilePos(i)+toff, bk, tlen);
+				}
+				else { //MATRIX-MATRIX (reuse of rhs rows across tile rows)
+					for( int k=0; k<tlen; k++ ) {
+						double[] bvals = b.values(bk+k);
+						int bix = b.pos(bk+k);
+						for( int i=rl2; i<ru2; i++ )
+							vectMultiplyAdd(avals[a.tilePos(i)+toff+k], bvals, c.values(i), bix, c.pos(i), n);
+					}
+				}
+			}
+		}
+	}
+	
+	private static void vectMultiplyAddTiled(double aval, SparseBlockBCSR b, int k, double[] c, int ci) {
+		//scaled rhs row, where the columns of every tile are contiguous
+		final int blen = b.getTileSize();
+		int[] tptr = b.tilePointers();
+		int[] tcol = b.tileColumns();
+		double[] bvals = b.tileValues(); //incl explicit zeros
+		int bi = k / blen;
+		for( int t=tptr[bi], bpos=b.tilePos(k); t<tptr[bi+1]; t++, bpos+=blen )
+			vectMultiplyAdd(aval, bvals, c, bpos, ci+tcol[t]*blen, b.tileWidth(t));
+	}
+	
 	private static void matrixMultSparseDenseMVShortRHS(SparseBlock a, DenseBlock b, DenseBlock c, int cd, int rl, int ru) {
 		double[] bvals = b.valuesAt(0);
 		double[] cvals = c.valuesAt(0);
@@ -1769,8 +1964,10 @@ public class LibMatrixMult
 			{
 				if( n==1 ) //VECTOR (col)
 				{
-					double[] avals = a.valuesAt(0);
-					c.set(0, 0, dotProduct(avals, avals, m));
+					double val = 0;
+					for( int bi=0; bi<a.numBlocks(); bi++ )
+						val += dotProduct(a.valuesAt(bi), a.valuesAt(bi), a.size(bi));
+					c.set(0, 0, val);
 				}
 				else //MATRIX
 				{
@@ -1828,8 +2025,8 @@ public class LibMatrixMult
 									}
 									else {
 										for( int k = bk; k<bkmin; k++ ) {
-											double[] avals = a.values(bk);
-											int aix = a.pos(bk, i);
+											double[] avals = a.values(k);
+											int aix = a.pos(k, i);
 											if( avals[aix] != 0 )
 												vectMultiplyAdd( avals[aix], a.values(k),
 													cvals, a.pos(k, bj), cixj, bjlen );
@@ -3052,6 +3249,109 @@ public class LibMatrixMult
 		}
 	}
 	
+	private static long matrixMultLowPrecisionRight(MatrixBlock m1, DenseBlockLowPrecision b, double scale, MatrixBlock ret, int rl, int ru) {
+		final int cd = m1.clen;
+		final int n = ret.clen;
+		
+		//FP32 accumulators of row range, and decoded tiles of b that fit into L2
+		final int blocksizeK = Math.max(1, Math.min(cd, L2_CACHESIZE / 4 / n));
+		float[] btile = new float[blocksizeK * n];
+		float[] cacc = new float[(ru-rl) * n];
+		
+		//current positions in sparse rows (monotonically increasing over tiles)
+		SparseBlock a = m1.sparseBlock;
+		int[] apos = null;
+		if( m1.sparse ) {
+			apos = new int[ru-rl];
+			for( int i=rl; i<ru; i++ )
+				apos[i-rl] = a.isEmpty(i) ? 0 : a.pos(i);
+		}
+		DenseBlock da = m1.getDenseBlock();
+		
+		for( int bk=0; bk<cd; bk+=blocksizeK ) {
+			int bkmin = Math.min(cd, bk+blocksizeK);
+			b.getFloats(b.pos(bk), btile, 0, (bkmin-bk)*n);
+			for( int i=rl, cix=0; i<ru; i++, cix+=n ) {
+				if( m1.sparse ) {
+					if( a.isEmpty(i) ) continue;
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					int alen = a.pos(i) + a.size(i);
+					int k = apos[i-rl];
+					for( ; k<alen && aix[k]<bkmin; k++ )
+						vectMultiplyAdd((float)avals[k], btile, cacc, (aix[k]-bk)*n, cix, n);
+					apos[i-rl] = k;
+				}
+				else {
+					double[] avals = da.values(i);
+					int aix = da.pos(i);
+					for( int k=bk; k<bkmin; k++ ) {
+						float aval = (float)avals[aix+k];
+						if( aval != 0 )
+							vectMultiplyAdd(aval, btile, cacc, (k-bk)*n, cix, n);
+					}
+				}
+			}
+		}
+		
+		return writeLowPrecisionResult(cacc, scale, ret, rl, ru);
+	}
+	
+	private static long matrixMultLowPrecisionLeft(DenseBlockLowPrecision a, double scale, MatrixBlock m2, float[] fb, MatrixBlock ret, int rl, int ru) {
+		final int cd = m2.rlen;
+		final int n = m2.clen;
+		
+		//FP32 accumulators of row range, and decoded row blocks of a, 
+		//where each row of b is reused for all rows of the block
+		final int blocksizeI = 16;
+		float[] atile = new float[blocksizeI * cd];
+		float[] cacc = new float[(ru-rl) * n];
+		SparseBlock b = m2.sparseBlock;
+		
+		for( int bi=rl; bi<ru; bi+=blocksizeI ) {
+			int bimin = Math.min(ru, bi+blocksizeI);
+			a.getFloats(a.pos(bi), atile, 0, (bimin-bi)*cd);
+			for( int k=0; k<cd; k++ ) {
+				if( fb == null && b.isEmpty(k) )
+					continue;
+				for( int i=bi, aix=k, cix=(bi-rl)*n; i<bimin; i++, aix+=cd, cix+=n ) {
+					float aval = atile[aix];
+					if( aval == 0 )
+						continue;
+					if( fb != null )
+						vectMultiplyAdd(aval, fb, cacc, k*n, cix, n);
+					else {
+						int bpos = b.pos(k);
+						int blen = b.size(k);
+						int[] bix = b.indexes(k);
+						double[] bvals = b.values(k);
+						for( int j=bpos; j<bpos+blen; j++ )
+							cacc[cix+bix[j]] += aval * (float)bvals[j];
+					}
+				}
+			}
+		}
+		
+		return writeLowPrecisionResult(cacc, scale, ret, rl, ru);
+	}
+	
+	private static long writeLowPrecisionResult(float[] cacc, double scale, MatrixBlock ret, int rl, int ru) {
+		//scale FP32 accumulators into FP64 output rows
+		DenseBlock c = ret.getDenseBlock();
+		final int n = ret.clen;
+		long nnz = 0;
+		for( int i=rl, aix=0; i<ru; i++, aix+=n ) {
+			double[] cvals = c.values(i);
+			int cix = c.pos(i);
+			for( int j=0; j<n; j++ ) {
+				double val = cacc[aix+j] * scale;
+				cvals[cix+j] = val;
+				nnz += (val != 0) ? 1 : 0;
+			}
+		}
+		return nnz;
+	}
+	
 	////////////////////////////////////////////
 	// performance-relevant utility functions //
 	////////////////////////////////////////////
@@ -3153,9 +3453,22 @@ public class LibMatrixMult
 		return val; 
 	}
 
+	private static void vectMultiplyAdd( final float aval, float[] b, float[] c, int bi, int ci, final int len ) {
+		//note: simple loop for auto-vectorization of FP32 operations
+		for( int j = 0; j < len; j++ )
+			c[ci+j] += aval * b[bi+j];
+	}
+	
 	//note: public for use by codegen for consistency
 	public static void vectMultiplyAdd( final double aval, double[] b, double[] c, int bi, int ci, final int len )
 	{
+		//simple loop for auto-vectorization
+		if( VECTORIZED_KERNELS ) {
+			for( int j = 0; j < len; j++ )
+				c[ ci+j ] += aval * b[ bi+j ];
+			return;
+		}
+		
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3311,6 +3624,13 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectMultiplyWrite( final double aval, double[] b, double[] c, int bi, int ci, final int len )
 	{
+		//simple loop for auto-vectorization
+		if( VECTORIZED_KERNELS ) {
+			for( int j = 0; j < len; j++ )
+				c[ ci+j ] = aval * b[ bi+j ];
+			return;
+		}
+		
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3351,6 +3671,13 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectMultiplyWrite( double[] a, double[] b, double[] c, int ai, int bi, int ci, final int len )
 	{
+		//simple loop for auto-vectorization
+		if( VECTORIZED_KERNELS ) {
+			for( int j = 0; j < len; j++ )
+				c[ ci+j ] = a[ ai+j ] * b[ bi+j ];
+			return;
+		}
+		
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3439,6 +3766,13 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectAdd( double[] a, double[] c, int ai, int ci, final int len )
 	{
+		//simple loop for auto-vectorization
+		if( VECTORIZED_KERNELS ) {
+			for( int j = 0; j < len; j++ )
+				c[ ci+j ] += a[ ai+j ];
+			return;
+		}
+		
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3709,6 +4043,10 @@ public class LibMatrixMult
 		if( ret.rlen != ret.clen )
 			throw new RuntimeException("Invalid non-squared input matrix.");
 		
+		//row-wise copy for outputs spanning multiple blocks
+		if( !ret.getDenseBlock().isContiguous() )
+			return copyUpperToLowerTriangle(ret.getDenseBlock(), ret.rlen);
+		
 		final double[] c = ret.getDenseBlockValues();
 		final int n = ret.rlen;
 		long nnz = 0;
@@ -3743,6 +4081,31 @@ public class LibMatrixMult
 		
 		return nnz;
 	}
+	
+	private static long copyUpperToLowerTriangle( DenseBlock c, int n ) {
+		long nnz = 0;
+		for( int i=0; i<n; i++ ) {
+			double[] cvals = c.values(i);
+			int cix = c.pos(i);
+			nnz += (cvals[cix+i] != 0) ? 1 : 0; //for diagonal element
+			for( int j=i+1; j<n; j++ ) {
+				c.values(j)[c.pos(j, i)] = cvals[cix+j];
+				nnz += (cvals[cix+j] != 0) ? 2 : 0;
+			}
+		}
+		return nnz;
+	}
+	
+	private static double[] getDenseVector(DenseBlock a) {
+		//vectors of up to max int cells might still span multiple
+		//physical blocks, in which case we copy into a single array
+		if( a.isContiguous() )
+			return a.valuesAt(0);
+		double[] ret = new double[(int)a.size()];
+		for( int bi=0, off=0; bi<a.numBlocks(); off+=a.size(bi), bi++ )
+			System.arraycopy(a.valuesAt(bi), 0, ret, off, a.size(bi));
+		return ret;
+	}
 
 	public static MatrixBlock prepMatrixMultTransposeSelfInput( MatrixBlock m1, boolean leftTranspose, boolean par ) {
 		MatrixBlock ret = m1;
@@ -3803,6 +4166,20 @@ public class LibMatrixMult
 				&& 8*m1.rlen*m1.clen < 256*1024 ); //lhs fits in L2 cache
 	}
 	
+	private static boolean isVectorizationSupported() {
+		//superword vectorization of the hotspot server compiler
+		try {
+			HotSpotDiagnosticMXBean bean = ManagementFactory
+				.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			return bean != null && Boolean.parseBoolean(
+				bean.getVMOption("UseSuperWord").getValue());
+		}
+		catch(Throwable ex) {
+			//non-hotspot jvm or client compiler w/o superword
+			return false;
+		}
+	}
+	
 	public static boolean satisfiesMultiThreadingConstraints(MatrixBlock m1, int k) {
 		return satisfiesMultiThreadingConstraints(m1, true, false, -1, k);
 	}
@@ -4296,4 +4673,36 @@ public class LibMatrixMult
 			return _ret.recomputeNonZeros(_rl, _ru-1, 0, _ret.getNumColumns()-1);
 		}
 	}
+
+	private static class MatrixMultLowPrecisionTask implements Callable<Long>
+	{
+		private final MatrixBlock _m1;
+		private final MatrixBlock _m2;
+		private final DenseBlockLowPrecision _lp;
+		private final float[] _fb;
+		private final double _scale;
+		private final MatrixBlock _ret;
+		private final int _rl;
+		private final int _ru;
+		
+		protected MatrixMultLowPrecisionTask(MatrixBlock m1, MatrixBlock m2, DenseBlockLowPrecision lp,
+			float[] fb, double scale, MatrixBlock ret, int rl, int ru)
+		{
+			_m1 = m1;
+			_m2 = m2;
+			_lp = lp;
+			_fb = fb;
+			_scale = scale;
+			_ret = ret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() {
+			return (_m1 != null) ?
+				matrixMultLowPrecisionRight(_m1, _lp, _scale, _ret, _rl, _ru) :
+				matrixMultLowPrecisionLeft(_lp, _scale, _m2, _fb, _ret, _rl, _ru);
+		}
+	}
 }
@@ -30,6 +30,7 @@ import org.tugraz.sysds.api.DMLScript;
 import org.tugraz.sysds.conf.ConfigurationManager;
 import org.tugraz.sysds.conf.DMLConfig;
 import org.tugraz.sysds.hops.OptimizerUtils;
+import org.tugraz.sysds.runtime.util.DataConverter;
 import org.tugraz.sysds.utils.NativeHelper;
 import org.tugraz.sysds.utils.Statistics;
 
@@ -46,6 +47,10 @@ public class LibMatrixNative
 	private static ThreadLocal<FloatBuffer> filterBuff = new ThreadLocal<FloatBuffer>();
 	private static ThreadLocal<FloatBuffer> outBuff = new ThreadLocal<FloatBuffer>();
 	
+	// Flag to disable native LAPACK calls if the loaded library was built
+	// without them (e.g., older shipped binaries), in which case we fallback to java
+	private static volatile boolean linAlgAvailable = true;
+	
 	// We could encapsulate heuristics in this function
 	// For now, we only consider matrix-vector operation to be memory bound
 	public static boolean isMatMultMemoryBound(int m1Rlen, int m1Clen, int m2Clen) {
@@ -145,6 +150,132 @@ public class LibMatrixNative
 			LibMatrixMult.matrixMultTransposeSelf(m1, ret, leftTrans);
 	}
 	
+	/**
+	 * Computes the lower triangular cholesky factor via native LAPACK.
+	 * 
+	 * @param in symmetric positive definite input matrix
+	 * @param k number of threads
+	 * @return row-major factor with unchanged upper triangle, or null if native
+	 *   execution is unavailable or failed (fallback to java required)
+	 */
+	public static double[] cholesky(MatrixBlock in, int k) {
+		if( !isSupportedLinAlg(in) )
+			return null;
+		double[] a = DataConverter.convertToDoubleVector(in);
+		try {
+			if( NativeHelper.dcholesky(a, in.rlen, getNumThreads(k)) )
+				return a;
+		}
+		catch(UnsatisfiedLinkError ex) {
+			disableLinAlg("dcholesky", ex);
+			return null;
+		}
+		Statistics.incrementNativeFailuresCounter();
+		return null;
+	}
+	
+	/**
+	 * Computes the lu decomposition with partial pivoting via native LAPACK.
+	 * 
+	 * @param in square input matrix
+	 * @param perm output row permutation, where row i of P %*% A is row perm[i] of A
+	 * @param k number of threads
+	 * @return row-major lu factors (unit lower and upper triangle), or null if native
+	 *   execution is unavailable or failed (fallback to java required)
+	 */
+	public static double[] lu(MatrixBlock in, int[] perm, int k) {
+		if( !isSupportedLinAlg(in) )
+			return null;
+		double[] a = DataConverter.convertToDoubleVector(in);
+		int[] ipiv = new int[in.rlen];
+		try {
+			if( NativeHelper.dlu(a, ipiv, in.rlen, getNumThreads(k)) ) {
+				//convert row interchanges into permutation
+				for( int i=0; i<perm.length; i++ )
+					perm[i] = i;
+				for( int i=0; i<ipiv.length; i++ ) {
+					int tmp = perm[i];
+					perm[i] = perm[ipiv[i]-1];
+					perm[ipiv[i]-1] = tmp;
+				}
+				return a;
+			}
+		}
+		catch(UnsatisfiedLinkError ex) {
+			disableLinAlg("dlu", ex);
+			return null;
+		}
+		Statistics.incrementNativeFailuresCounter();
+		return null;
+	}
+	
+	/**
+	 * Solves the system of linear equations A %*% X = B via native LAPACK.
+	 * 
+	 * @param in1 square matrix A
+	 * @param in2 right-hand side B
+	 * @param k number of threads
+	 * @return row-major solution X, or null if native execution is 
+	 *   unavailable or failed (fallback to java required)
+	 */
+	public static double[] solve(MatrixBlock in1, MatrixBlock in2, int k) {
+		if( !isSupportedLinAlg(in1) || !isSupportedLinAlg(in2) )
+			return null;
+		double[] a = DataConverter.convertToDoubleVector(in1);
+		double[] b = DataConverter.convertToDoubleVector(in2);
+		try {
+			if( NativeHelper.dsolve(a, b, in1.rlen, in2.clen, getNumThreads(k)) )
+				return b;
+		}
+		catch(UnsatisfiedLinkError ex) {
+			disableLinAlg("dsolve", ex);
+			return null;
+		}
+		Statistics.incrementNativeFailuresCounter();
+		return null;
+	}
+	
+	/**
+	 * Computes the eigen decomposition of a symmetric matrix via native LAPACK.
+	 * 
+	 * @param in symmetric input matrix
+	 * @param evals output eigen values in ascending order
+	 * @param k number of threads
+	 * @return row-major eigen vectors (as columns), or null if native 
+	 *   execution is unavailable or failed (fallback to java required)
+	 */
+	public static double[] eigen(MatrixBlock in, double[] evals, int k) {
+		if( !isSupportedLinAlg(in) )
+			return null;
+		double[] a = DataConverter.convertToDoubleVector(in);
+		try {
+			if( NativeHelper.dsymeigen(a, evals, in.rlen, getNumThreads(k)) )
+				return a;
+		}
+		catch(UnsatisfiedLinkError ex) {
+			disableLinAlg("dsymeigen", ex);
+			return null;
+		}
+		Statistics.incrementNativeFailuresCounter();
+		return null;
+	}
+	
+	private static boolean isSupportedLinAlg(MatrixBlock in) {
+		return linAlgAvailable && NativeHelper.isNativeLibraryLoaded()
+			&& (long)in.rlen * in.clen < Integer.MAX_VALUE;
+	}
+	
+	private static void disableLinAlg(String fname, UnsatisfiedLinkError ex) {
+		if( linAlgAvailable )
+			LOG.warn("Native library does not provide "+fname+" ("+ex.getMessage()
+				+ ") - falling back to java operators for linear algebra.");
+		linAlgAvailable = false;
+	}
+	
+	private static int getNumThreads(int k) {
+		return k <= 0 ? NativeHelper.getMaxNumThreads() : k;
+	}
+	
 	/**
 	 * This method performs convolution (i.e. cross-correlation) operation on input
 	 * 
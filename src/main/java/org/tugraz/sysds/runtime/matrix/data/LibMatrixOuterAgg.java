@@ -21,7 +21,7 @@ package org.tugraz.sysds.runtime.matrix.data;
 
 import java.util.Arrays;
 
-import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockCursor;
 import org.tugraz.sysds.runtime.functionobjects.Builtin;
 import org.tugraz.sysds.runtime.functionobjects.Equals;
 import org.tugraz.sysds.runtime.functionobjects.GreaterThan;
@@ -788,17 +788,10 @@ public class LibMatrixOuterAgg
 		if( in.isEmptyBlock(false) )
 			return;
 		
-		SparseBlock sblock = in.getSparseBlock();
-		for( int j = 0; j < sblock.numRows(); j++)
-		if( !sblock.isEmpty(j) ) {
-			int apos = sblock.pos(j);
-			int alen = sblock.size(j);
-			int[] aix = sblock.indexes(j);
-			double [] avals = sblock.values(j);
-			for (int i=apos; i < apos+alen; i++) {
-				int cnt = sumRowSumGtLeColSumLtGe(avals[i], bv, bOp);
-				out.quickSetValue(0, aix[i], cnt);
-			}
+		SparseBlockCursor cur = in.getSparseBlock().getCursor();
+		while( cur.next() ) {
+			int cnt = sumRowSumGtLeColSumLtGe(cur.getValue(), bv, bOp);
+			out.quickSetValue(0, cur.getCol(), cnt);
 		}
 	}
 
@@ -841,17 +834,10 @@ public class LibMatrixOuterAgg
 		if( in.isEmptyBlock(false) )
 			return;
 		
-		SparseBlock sblock = in.getSparseBlock();
-		for (int j = 0; j < sblock.numRows(); j++)
-		if( !sblock.isEmpty(j) ) {
-			int apos = sblock.pos(j);
-			int alen = sblock.size(j);
-			int[] aix = sblock.indexes(j);
-			double [] avals = sblock.values(j);
-			for (int i=apos; i < apos+alen; i++) {
-				int cnt = sumRowSumLtGeColSumGtLe(avals[i], bv, bOp);
-				out.quickSetValue(0, aix[i], cnt);
-			}
+		SparseBlockCursor cur = in.getSparseBlock().getCursor();
+		while( cur.next() ) {
+			int cnt = sumRowSumLtGeColSumGtLe(cur.getValue(), bv, bOp);
+			out.quickSetValue(0, cur.getCol(), cnt);
 		}
 	}
 
@@ -895,17 +881,10 @@ public class LibMatrixOuterAgg
 		if( in.isEmptyBlock(false) )
 			return;
 		
-		SparseBlock sblock = in.getSparseBlock();
-		for (int j = 0; j < sblock.numRows(); j++)
-		if( !sblock.isEmpty(j) ) {
-			int apos = sblock.pos(j);
-			int alen = sblock.size(j);
-			int[] aix = sblock.indexes(j);
-			double [] avals = sblock.values(j);
-			for (int i=apos; i < apos+alen; i++) {
-				int cnt = sumEqNe(avals[i], bv, bOp);
-				out.quickSetValue(0, aix[i], cnt);
-			}
+		SparseBlockCursor cur = in.getSparseBlock().getCursor();
+		while( cur.next() ) {
+			int cnt = sumEqNe(cur.getValue(), bv, bOp);
+			out.quickSetValue(0, cur.getCol(), cnt);
 		}
 	}
 
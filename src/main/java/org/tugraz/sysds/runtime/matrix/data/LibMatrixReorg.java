@@ -26,13 +26,10 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
 
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
@@ -40,6 +37,7 @@ import org.tugraz.sysds.runtime.data.DenseBlock;
 import org.tugraz.sysds.runtime.data.DenseBlockFactory;
 import org.tugraz.sysds.runtime.data.SparseBlock;
 import org.tugraz.sysds.runtime.data.SparseBlockCSR;
+import org.tugraz.sysds.runtime.data.SparseBlockCursor;
 import org.tugraz.sysds.runtime.functionobjects.DiagIndex;
 import org.tugraz.sysds.runtime.functionobjects.RevIndex;
 import org.tugraz.sysds.runtime.functionobjects.SortIndex;
@@ -49,6 +47,7 @@ import org.tugraz.sysds.runtime.matrix.operators.ReorgOperator;
 import org.tugraz.sysds.runtime.meta.MatrixCharacteristics;
 import org.tugraz.sysds.runtime.util.CommonThreadPool;
 import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.LongLongHashMap;
 import org.tugraz.sysds.runtime.util.SortUtils;
 import org.tugraz.sysds.runtime.util.UtilFunctions;
 
@@ -60,6 +59,7 @@ import org.tugraz.sysds.runtime.util.UtilFunctions;
  * Current list of supported operations:
  *  - reshape, 
  *  - r' (transpose), 
+ *  - rev (reverse rows), 
  *  - rdiag (diagV2M/diagM2V), 
  *  - rsort (sorting data/indexes)
  *  - rmempty (remove empty)
@@ -74,7 +74,8 @@ public class LibMatrixReorg
 	//safe due to copy-on-write and safe update-in-place handling)
 	public static final boolean SHALLOW_COPY_REORG = true;
 	
-	//use csr instead of mcsr sparse block for rexpand columns / diag v2m
+	//use csr instead of mcsr sparse block for rexpand columns / diag v2m,
+	//and sparse outputs of transpose, rev, and rowwise reshape
 	public static final boolean SPARSE_OUTPUTS_IN_CSR = true;
 	
 	private enum ReorgType {
@@ -109,12 +110,12 @@ public class LibMatrixReorg
 				else
 					return transpose(in, out);
 			case REV:
-				return rev(in, out);
+				return rev(in, out, op.getNumThreads());
 			case DIAG:
 				return diag(in, out);
 			case SORT:
 				SortIndex ix = (SortIndex) op.fn;
-				return sort(in, out, ix.getCols(), ix.getDecreasing(), ix.getIndexReturn());
+				return sort(in, out, ix.getCols(), ix.getDecreasing(), ix.getIndexReturn(), op.getNumThreads());
 			default:
 				throw new DMLRuntimeException("Unsupported reorg operator: "+op.fn);
 		}
@@ -139,6 +140,12 @@ public class LibMatrixReorg
 		
 		//Timing time = new Timing(true);
 		
+		//direct transpose into csr w/o sparse row allocations
+		if( out.sparse && isCSRTransposeApplicable(in) ) {
+			transposeToCSR(in, out, 1);
+			return out;
+		}
+		
 		//allocate output arrays (if required)
 		if( out.sparse )
 			out.allocateSparseRowsBlock(false);
@@ -162,6 +169,13 @@ public class LibMatrixReorg
 	}
 
 	public static MatrixBlock transpose( MatrixBlock in, MatrixBlock out, int k ) {
+		//multi-threaded transpose into csr (dense/sparse inputs, incl small 
+		//or ultra-sparse inputs where the number of tasks is reduced accordingly)
+		if( k > 1 && out.sparse && !in.isEmptyBlock(false) && isCSRTransposeApplicable(in) ) {
+			transposeToCSR(in, out, isParallel(in, k) ? k : 1);
+			return out;
+		}
+		
 		//redirect small or special cases to sequential execution
 		if( in.isEmptyBlock(false) || (in.rlen * in.clen < PAR_NUMCELL_THRESHOLD) || k == 1
 			|| (SHALLOW_COPY_REORG && !in.sparse && !out.sparse && (in.rlen==1 || in.clen==1) )
@@ -217,6 +231,10 @@ public class LibMatrixReorg
 	}
 
 	public static MatrixBlock rev( MatrixBlock in, MatrixBlock out ) {
+		return rev(in, out, 1);
+	}
+	
+	public static MatrixBlock rev( MatrixBlock in, MatrixBlock out, int k ) {
 		//Timing time = new Timing(true);
 	
 		//sparse-safe operation
@@ -230,9 +248,9 @@ public class LibMatrixReorg
 		}
 		
 		if( in.sparse )
-			reverseSparse( in, out );
+			reverseSparse( in, out, isParallel(in, k) ? k : 1 );
 		else
-			reverseDense( in, out );
+			reverseDense( in, out, isParallel(in, k) ? k : 1 );
 		
 		//System.out.println("rev ("+in.rlen+", "+in.clen+", "+in.sparse+") in "+time.stop()+" ms.");
 
@@ -306,6 +324,10 @@ public class LibMatrixReorg
 	}
 
 	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int[] by, boolean desc, boolean ixret) {
+		return sort(in, out, by, desc, ixret, 1);
+	}
+	
+	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int[] by, boolean desc, boolean ixret, int k) {
 		//meta data gathering and preparation
 		boolean sparse = in.isInSparseFormat();
 		int rlen = in.rlen;
@@ -318,6 +340,9 @@ public class LibMatrixReorg
 			throw new DMLRuntimeException("Sort configuration issue: invalid orderby columns: "
 				+ Arrays.toString(by)+" ("+rlen+"x"+clen+" input).");
 		
+		//multi-threaded sort over row partitions and pairwise merge
+		boolean par = k > 1 && rlen >= PAR_NUMCELL_THRESHOLD && out.isThreadSafe();
+		
 		//step 2: empty block / special case handling
 		if( !ixret ) //SORT DATA
 		{
@@ -327,7 +352,10 @@ public class LibMatrixReorg
 			if( !sparse && clen == 1 ) { //DENSE COLUMN VECTOR
 				//in-place quicksort, unstable (no indexes needed)
 				out.copy( in ); //dense (always single block)
-				Arrays.sort(out.getDenseBlockValues());
+				if( par )
+					sortDataParallel(out.getDenseBlockValues(), k);
+				else
+					Arrays.sort(out.getDenseBlockValues());
 				if( desc )
 					sortReverseDense(out);
 				return out;
@@ -345,57 +373,36 @@ public class LibMatrixReorg
 		}
 		
 		//step 3: index vector sorting
-		
-		//create index vector and extract values
-		int[] vix = new int[rlen];
-		double[] values = new double[rlen];
-		for( int i=0; i<rlen; i++ ) {
-			vix[i] = i;
-			values[i] = in.quickGetValue(i, by[0]-1);
-		}
-		
-		//sort index vector on extracted data (unstable)
-		SortUtils.sortByValue(0, rlen, values, vix);
-		
-		//sort by secondary columns if required (in-place)
-		if( by.length > 1 )
-			sortBySecondary(0, rlen, values, vix, in, by, 1);
-		
-		//flip order if descending requested (note that this needs to happen
-		//before we ensure stable outputs, hence we also flip values)
-		if(desc) {
-			sortReverseDense(vix);
-			sortReverseDense(values);
+		int[] vix = null;
+		if( par )
+			vix = sortIndexesParallel(in, by, desc, k);
+		else {
+			vix = new int[rlen];
+			sortIndexes(in, by, desc, new double[rlen], vix, 0, rlen);
 		}
 		
-		//final pass to ensure stable output
-		sortIndexesStable(0, rlen, values, vix, in, by, 1);
-
 		//step 4: create output matrix (guaranteed non-empty, see step 2)
-		if( !ixret ) {
-			//copy input data in sorted order into result
-			if( !sparse ) { //DENSE
-				out.allocateDenseBlock(false);
-				DenseBlock a = in.getDenseBlock();
-				DenseBlock c = out.getDenseBlock();
-				for( int i=0; i<rlen; i++ )
-					System.arraycopy(a.values(vix[i]), a.pos(vix[i]), c.values(i), c.pos(i), clen);
+		if( !ixret && sparse )
+			out.allocateSparseRowsBlock(false);
+		else
+			out.allocateDenseBlock(false);
+		if( par ) {
+			try {
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<SortCopyTask> tasks = new ArrayList<>();
+				int[] bounds = getBalancedPartitions(rlen, k);
+				for( int i=0; i<bounds.length-1; i++ )
+					tasks.add(new SortCopyTask(in, out, vix, ixret, bounds[i], bounds[i+1]));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				pool.shutdown();
 			}
-			else { //SPARSE
-				out.allocateSparseRowsBlock(false);
-				for( int i=0; i<rlen; i++ )
-					if( !in.sparseBlock.isEmpty(vix[i]) )
-						out.sparseBlock.set(i, in.sparseBlock.get(vix[i]),
-							!SHALLOW_COPY_REORG); //row remains unchanged
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
 			}
 		}
-		else {
-			//copy sorted index vector into result
-			out.allocateDenseBlock(false);
-			DenseBlock c = out.getDenseBlock();
-			for( int i=0; i<rlen; i++ )
-				c.set(i, 0, vix[i]+1);
-		}
+		else
+			sortCopyOutput(in, out, vix, ixret, 0, rlen);
 		
 		return out;
 	}
@@ -416,6 +423,22 @@ public class LibMatrixReorg
 	 * @return output matrix
 	 */
 	public static MatrixBlock reshape( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise ) {
+		return reshape(in, out, rows, cols, rowwise, 1);
+	}
+	
+	/**
+	 * CP reshape operation (single input, single output matrix), where large
+	 * inputs are processed in a multi-threaded manner.
+	 * 
+	 * @param in input matrix
+	 * @param out output matrix
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param rowwise if true, reshape by row
+	 * @param k number of threads
+	 * @return output matrix
+	 */
+	public static MatrixBlock reshape( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int k ) {
 		int rlen = in.rlen;
 		int clen = in.clen;
 		
@@ -442,12 +465,13 @@ public class LibMatrixReorg
 		out.nonZeros = in.nonZeros;
 		
 		//core reshape (sparse or dense)
+		int lk = isParallel(in, k) ? k : 1;
 		if(!in.sparse && !out.sparse)
-			reshapeDense(in, out, rows, cols, rowwise);
+			reshapeDense(in, out, rows, cols, rowwise, lk);
 		else if(in.sparse && out.sparse)
-			reshapeSparse(in, out, rows, cols, rowwise);
+			reshapeSparse(in, out, rows, cols, rowwise, lk);
 		else if(in.sparse)
-			reshapeSparseToDense(in, out, rows, cols, rowwise);
+			reshapeSparseToDense(in, out, rows, cols, rowwise, lk);
 		else
 			reshapeDenseToSparse(in, out, rows, cols, rowwise);
 		
@@ -474,7 +498,7 @@ public class LibMatrixReorg
 		
 		//prepare result blocks (no reuse in order to guarantee mem constraints)
 		Collection<MatrixIndexes> rix = computeAllResultBlockIndexes(ixIn, mcIn, mcOut, mbIn, rowwise, outputEmptyBlocks);
-		Map<MatrixIndexes, MatrixBlock> rblk = createAllResultBlocks(rix, mbIn.nonZeros, mcOut);
+		ReshapeBlocks rblk = new ReshapeBlocks(rix, mbIn.nonZeros, mcOut);
 		
 		//basic algorithm
 		long row_offset = (ixIn.getRowIndex()-1)*mcIn.getRowsPerBlock();
@@ -485,10 +509,7 @@ public class LibMatrixReorg
 			reshapeDense(mbIn, row_offset, col_offset, rblk, mcIn, mcOut, rowwise);
 		
 		//prepare output (sparsity switch, wrapper)
-		return rblk.entrySet().stream()
-			.filter( e -> outputEmptyBlocks || !e.getValue().isEmptyBlock(false))
-			.map(e -> {e.getValue().examSparsity(); return new IndexedMatrixValue(e.getKey(),e.getValue());})
-			.collect(Collectors.toList());
+		return rblk.toList(outputEmptyBlocks);
 	}
 
 	/**
@@ -883,12 +904,7 @@ public class LibMatrixReorg
 		if( m==1 ) //ROW VECTOR TRANSPOSE
 		{
 			//NOTE: called only in sequential execution
-			int alen = a.size(0); //always pos 0
-			int[] aix = a.indexes(0);
-			double[] avals = a.values(0);
-			double[] cvals = c.valuesAt(0);
-			for( int j=0; j<alen; j++ )
-				cvals[aix[j]] = avals[j];
+			a.scatter(0, c.valuesAt(0), 0);
 		}
 		else //MATRIX TRANSPOSE
 		{
@@ -922,6 +938,149 @@ public class LibMatrixReorg
 		}
 	}
 
+	private static boolean isCSRTransposeApplicable(MatrixBlock in) {
+		//note: vector transposes are handled separately
+		return SPARSE_OUTPUTS_IN_CSR && in.rlen > 1 && in.clen > 1
+			&& in.nonZeros < Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * Transposes a dense or sparse input directly into a CSR output block. The
+	 * input rows are partitioned into up to k tasks, which count their non-zeros
+	 * per column, and then scatter the non-zeros into disjoint output positions,
+	 * derived from a prefix sum over columns and partitions. Since the number of
+	 * partitions is limited by nnz/clen, ultra-sparse inputs with few non-zeros
+	 * per column are transposed in a single pass without partial counts.
+	 * 
+	 * @param in input matrix
+	 * @param out output matrix
+	 * @param k number of threads
+	 */
+	private static void transposeToCSR(MatrixBlock in, MatrixBlock out, int k) {
+		final int m = in.rlen;
+		final int n = in.clen;
+		int nk = (int) Math.max(1, Math.min(Math.min(k, m), in.nonZeros/n));
+		int[] bounds = getBalancedPartitions(m, nk);
+		int[][] pos = new int[bounds.length-1][];
+		
+		try {
+			ExecutorService pool = (pos.length > 1) ? CommonThreadPool.get(nk) : null;
+			
+			//count nnz per column and row partition
+			if( pool == null )
+				pos[0] = countNnzPerColumnAll(in, 0, m);
+			else {
+				ArrayList<CountNnzTask> tasks = new ArrayList<>();
+				for( int i=0; i<pos.length; i++ )
+					tasks.add(new CountNnzTask(in, bounds[i], bounds[i+1], true));
+				List<Future<int[]>> rtasks = pool.invokeAll(tasks);
+				for( int i=0; i<pos.length; i++ )
+					pos[i] = rtasks.get(i).get();
+			}
+			
+			//compute row pointers and start positions per column and partition
+			int[] rptr = new int[n+1];
+			long nnz = 0;
+			for( int j=0; j<n; j++ ) {
+				rptr[j] = (int) nnz;
+				for( int i=0; i<pos.length; i++ ) {
+					int cnt = pos[i][j];
+					pos[i][j] = (int) nnz;
+					nnz += cnt;
+				}
+				if( nnz >= Integer.MAX_VALUE )
+					throw new DMLRuntimeException("Transpose output exceeds CSR capacity: "+nnz);
+			}
+			rptr[n] = (int) nnz;
+			
+			//scatter row partitions into disjoint output positions
+			int[] cix = new int[(int)nnz];
+			double[] cvals = new double[(int)nnz];
+			if( pool == null )
+				transposeToCSR(in, 0, m, pos[0], cix, cvals);
+			else {
+				ArrayList<TransposeCSRTask> tasks = new ArrayList<>();
+				for( int i=0; i<pos.length; i++ )
+					tasks.add(new TransposeCSRTask(in, bounds[i], bounds[i+1], pos[i], cix, cvals));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				pool.shutdown();
+			}
+			
+			out.sparseBlock = new SparseBlockCSR(rptr, cix, cvals, (int)nnz);
+			out.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static void transposeToCSR(MatrixBlock in, int rl, int ru, int[] pos, int[] cix, double[] cvals) {
+		final int n = in.clen;
+		
+		if( in.sparse ) {
+			SparseBlock a = in.getSparseBlock();
+			
+			//blocking according to typical L2 cache sizes w/ awareness of sparsity
+			final long xsp = (long)in.rlen*in.clen/Math.max(in.nonZeros, 1);
+			final int blocksizeI = (int) Math.min(Math.max(128, 8*xsp), ru-rl);
+			final int blocksizeJ = (int) Math.min(Math.max(128, 8*xsp), n);
+			
+			//temporary array for block boundaries (for preventing binary search) 
+			int[] ix = new int[blocksizeI];
+			
+			//blocked execution (rows in increasing order per output row)
+			for( int bi=rl; bi<ru; bi+=blocksizeI ) {
+				Arrays.fill(ix, 0);
+				int bimin = Math.min(bi+blocksizeI, ru);
+				for( int bj=0; bj<n; bj+=blocksizeJ ) {
+					int bjmin = Math.min(bj+blocksizeJ, n);
+					for( int i=bi; i<bimin; i++ ) {
+						if( a.isEmpty(i) ) continue;
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						int j = ix[i-bi] + apos; //last block boundary
+						for( ; j<apos+alen && aix[j]<bjmin; j++ ) {
+							int cpos = pos[aix[j]]++;
+							cix[cpos] = i;
+							cvals[cpos] = avals[j];
+						}
+						ix[i-bi] = j - apos; //keep block boundary
+					}
+				}
+			}
+		}
+		else {
+			DenseBlock a = in.getDenseBlock();
+			
+			//blocking according to typical L2 cache sizes 
+			final int blocksizeI = 128;
+			final int blocksizeJ = 128;
+			
+			//blocked execution (rows in increasing order per output row)
+			for( int bi=rl; bi<ru; bi+=blocksizeI ) {
+				int bimin = Math.min(bi+blocksizeI, ru);
+				for( int bj=0; bj<n; bj+=blocksizeJ ) {
+					int bjmin = Math.min(bj+blocksizeJ, n);
+					for( int i=bi; i<bimin; i++ ) {
+						double[] avals = a.values(i);
+						int aix = a.pos(i);
+						for( int j=bj; j<bjmin; j++ ) {
+							double val = avals[aix+j];
+							if( val != 0 ) {
+								int cpos = pos[j]++;
+								cix[cpos] = i;
+								cvals[cpos] = val;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
 	static void transposeRow( double[] a, double[] c, int aix, int cix, int n2, int len ) {
 		final int bn = len%8;
 		//compute rest (not aligned to 8-blocks)
@@ -943,15 +1102,29 @@ public class LibMatrixReorg
 	private static int[] countNnzPerColumn(MatrixBlock in, int rl, int ru) {
 		//initial pass to determine capacity (this helps to prevent
 		//sparse row reallocations and mem inefficiency w/ skew
-		int[] cnt = null;
-		if( in.sparse && in.clen <= 4096 ) { //16KB
+		return (in.sparse && in.clen <= 4096) ? //16KB
+			countNnzPerColumnAll(in, rl, ru) : null;
+	}
+	
+	private static int[] countNnzPerColumnAll(MatrixBlock in, int rl, int ru) {
+		int[] cnt = new int[in.clen];
+		if( in.sparse ) {
 			SparseBlock a = in.sparseBlock;
-			cnt = new int[in.clen];
 			for( int i=rl; i<ru; i++ ) {
 				if( !a.isEmpty(i) )
 					countAgg(cnt, a.indexes(i), a.pos(i), a.size(i));
 			}
 		}
+		else {
+			DenseBlock a = in.getDenseBlock();
+			final int n = in.clen;
+			for( int i=rl; i<ru; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<n; j++ )
+					cnt[j] += (avals[aix+j] != 0) ? 1 : 0;
+			}
+		}
 		return cnt;
 	}
 
@@ -963,49 +1136,94 @@ public class LibMatrixReorg
 		return cnt;
 	}
 
-	private static void reverseDense(MatrixBlock in, MatrixBlock out) {
-		final int m = in.rlen;
-		final int n = in.clen;
-		
+	private static void reverseDense(MatrixBlock in, MatrixBlock out, int k) {
 		//set basic meta data and allocate output
 		out.sparse = false;
 		out.nonZeros = in.nonZeros;
 		out.allocateDenseBlock(false);
 		
 		//copy all rows into target positions
+		if( k <= 1 )
+			reverseDense(in, out, 0, in.rlen);
+		else {
+			int[] bounds = getBalancedPartitions(in.rlen, k);
+			ArrayList<ReverseTask> tasks = new ArrayList<>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new ReverseTask(in, out, null, null, null, bounds[i], bounds[i+1]));
+			executeTasks(tasks, k);
+		}
+	}
+	
+	private static void reverseDense(MatrixBlock in, MatrixBlock out, int rl, int ru) {
+		final int m = in.rlen;
+		final int n = in.clen;
+		
 		if( n == 1 ) { //column vector
 			double[] a = in.getDenseBlockValues();
 			double[] c = out.getDenseBlockValues();
-			for( int i=0; i<m; i++ )
+			for( int i=rl; i<ru; i++ )
 				c[m-1-i] = a[i];
 		}
 		else { //general matrix case
 			DenseBlock a = in.getDenseBlock();
 			DenseBlock c = out.getDenseBlock();
-			for( int i=0; i<m; i++ ) {
+			for( int i=rl; i<ru; i++ ) {
 				final int ri = m - 1 - i;
 				System.arraycopy(a.values(i), a.pos(i), c.values(ri), c.pos(ri), n);
 			}
 		}
 	}
 
-	private static void reverseSparse(MatrixBlock in, MatrixBlock out) {
+	private static void reverseSparse(MatrixBlock in, MatrixBlock out, int k) {
 		final int m = in.rlen;
+		SparseBlock a = in.getSparseBlock();
 		
 		//set basic meta data and allocate output
 		out.sparse = true;
 		out.nonZeros = in.nonZeros;
 		
+		//direct reverse into csr (row pointers over reversed row sizes)
+		long nnz = a.size();
+		if( SPARSE_OUTPUTS_IN_CSR && nnz < Integer.MAX_VALUE ) {
+			int[] rptr = new int[m+1];
+			for( int i=0; i<m; i++ )
+				rptr[i+1] = rptr[i] + a.size(m-1-i);
+			int[] cix = new int[(int)nnz];
+			double[] cvals = new double[(int)nnz];
+			if( k <= 1 )
+				reverseSparseToCSR(a, m, rptr, cix, cvals, 0, m);
+			else {
+				int[] bounds = getBalancedPartitions(m, k);
+				ArrayList<ReverseTask> tasks = new ArrayList<>();
+				for( int i=0; i<bounds.length-1; i++ )
+					tasks.add(new ReverseTask(in, out, rptr, cix, cvals, bounds[i], bounds[i+1]));
+				executeTasks(tasks, k);
+			}
+			out.sparseBlock = new SparseBlockCSR(rptr, cix, cvals, (int)nnz);
+			out.nonZeros = nnz;
+			return;
+		}
+		
 		out.allocateSparseRowsBlock(false);
 		
 		//copy all rows into target positions
-		SparseBlock a = in.getSparseBlock();
 		SparseBlock c = out.getSparseBlock();
 		for( int i=0; i<m; i++ )
 			if( !a.isEmpty(i) )
 				c.set(m-1-i, a.get(i), true);
 	}
 	
+	private static void reverseSparseToCSR(SparseBlock a, int m, int[] rptr, int[] cix, double[] cvals, int rl, int ru) {
+		for( int i=rl; i<ru; i++ ) {
+			if( a.isEmpty(i) ) continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int cpos = rptr[m-1-i];
+			System.arraycopy(a.indexes(i), apos, cix, cpos, alen);
+			System.arraycopy(a.values(i), apos, cvals, cpos, alen);
+		}
+	}
+	
 	/**
 	 * Generic implementation diagV2M
 	 * (in most-likely DENSE, out most likely SPARSE)
@@ -1082,7 +1300,7 @@ public class LibMatrixReorg
 		out.setNonZeros(nnz);
 	}
 
-	private static void reshapeDense( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise ) {
+	private static void reshapeDense( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int k ) {
 		int rlen = in.rlen;
 		int clen = in.clen;
 		
@@ -1112,43 +1330,62 @@ public class LibMatrixReorg
 			c.set(a);
 		}
 		else { //colwise
-			if( rlen==1 || clen==1 ) { //VECTOR->MATRIX
-				//note: cache-friendly on a but not on c
-				double[] avals = a.valuesAt(0);
-				double[] cvals = c.valuesAt(0);
-				for( int j=0, aix=0; j<cols; j++ )
-					for( int i=0, cix=0; i<rows; i++, cix+=cols )
-						cvals[ cix + j ] = avals[ aix++ ];
-			}
-			else if( rows==1 || cols==1 ) //MATRIX->VECTOR
-			{
-				//note: cache-friendly on c but not on a
-				double[] avals = a.valuesAt(0);
-				double[] cvals = c.valuesAt(0);
-				for( int j=0, cix=0; j<clen; j++ )
-					for( int i=0, aix=0; i<rlen; i++, aix+=clen )
-						cvals[ cix++ ] = avals[ aix + j ];
+			//partitioning of the outer loop (output columns, input columns, or output rows)
+			int len = (rlen==1 || clen==1) ? cols : (rows==1 || cols==1) ? clen : rows;
+			if( k <= 1 )
+				reshapeDenseColwise(in, out, rows, cols, 0, len);
+			else {
+				int[] bounds = getBalancedPartitions(len, k);
+				ArrayList<ReshapeTask> tasks = new ArrayList<>();
+				for( int i=0; i<bounds.length-1; i++ )
+					tasks.add(new ReshapeTask(in, out, rows, cols, false, bounds[i], bounds[i+1]));
+				executeTasks(tasks, k);
 			}
-			else //GENERAL CASE: MATRIX->MATRIX
-			{
-				//note: cache-friendly on c but not an a
-				for( int i=0; i<rows; i++ ) {
-					double[] cvals = c.values(i);
-					int cix = c.pos(i);
-					for( int j=0, aix2=i; j<cols; j++, aix2+=rows ) {
-						int ai = aix2%rlen;
-						int aj = aix2/rlen;
-						cvals[cix+j] = a.get(ai,aj);
-					}
+		}
+	}
+	
+	private static void reshapeDenseColwise( MatrixBlock in, MatrixBlock out, int rows, int cols, int rl, int ru ) {
+		int rlen = in.rlen;
+		int clen = in.clen;
+		DenseBlock a = in.getDenseBlock();
+		DenseBlock c = out.getDenseBlock();
+		
+		if( rlen==1 || clen==1 ) { //VECTOR->MATRIX
+			//note: cache-friendly on a but not on c
+			double[] avals = a.valuesAt(0);
+			double[] cvals = c.valuesAt(0);
+			for( int j=rl, aix=rl*rows; j<ru; j++ )
+				for( int i=0, cix=0; i<rows; i++, cix+=cols )
+					cvals[ cix + j ] = avals[ aix++ ];
+		}
+		else if( rows==1 || cols==1 ) //MATRIX->VECTOR
+		{
+			//note: cache-friendly on c but not on a
+			double[] avals = a.valuesAt(0);
+			double[] cvals = c.valuesAt(0);
+			for( int j=rl, cix=rl*rlen; j<ru; j++ )
+				for( int i=0, aix=0; i<rlen; i++, aix+=clen )
+					cvals[ cix++ ] = avals[ aix + j ];
+		}
+		else //GENERAL CASE: MATRIX->MATRIX
+		{
+			//note: cache-friendly on c but not an a
+			for( int i=rl; i<ru; i++ ) {
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
+				for( int j=0, aix2=i; j<cols; j++, aix2+=rows ) {
+					int ai = aix2%rlen;
+					int aj = aix2/rlen;
+					cvals[cix+j] = a.get(ai,aj);
 				}
-				//index conversion c[i,j]<- a[k,l]:
-				// k = (rows*j+i)%rlen
-				// l = (rows*j+i)/rlen
 			}
+			//index conversion c[i,j]<- a[k,l]:
+			// k = (rows*j+i)%rlen
+			// l = (rows*j+i)/rlen
 		}
 	}
 
-	private static void reshapeSparse( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise )
+	private static void reshapeSparse( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int k )
 	{
 		int rlen = in.rlen;
 		int clen = in.clen;
@@ -1207,6 +1444,10 @@ public class LibMatrixReorg
 				out.sparseBlock = new SparseBlockCSR(rptr, indexes,
 					((SparseBlockCSR)a).values(), pos);
 			}
+			else if( SPARSE_OUTPUTS_IN_CSR && a.size() < Integer.MAX_VALUE ) {
+				//GENERAL CASE: MATRIX->MATRIX, directly into CSR
+				reshapeSparseToCSR(in, out, rows, cols, k);
+			}
 			else if( cols%clen==0 ) { //SPECIAL N:1 MATRIX->MATRIX
 				int n = cols/clen;
 				for(int bi=0, ci=0; bi<rlen; bi+=n, ci++) {
@@ -1292,6 +1533,57 @@ public class LibMatrixReorg
 		}
 	}
 
+	private static void reshapeSparseToCSR( MatrixBlock in, MatrixBlock out, int rows, int cols, int k ) {
+		SparseBlock a = in.sparseBlock;
+		int nnz = (int) a.size();
+		
+		//reuse the values of CSR inputs, as rowwise reshape retains their order
+		boolean shallow = SHALLOW_COPY_REORG && a instanceof SparseBlockCSR;
+		int[] rptr = new int[rows+1];
+		int[] cix = new int[nnz];
+		double[] cvals = shallow ? ((SparseBlockCSR)a).values() : new double[nnz];
+		
+		//compute column indexes and row pointers per range of input rows
+		if( k <= 1 )
+			reshapeSparseToCSR(a, in.clen, cols, rptr, cix, cvals, shallow, 0, in.rlen);
+		else {
+			int[] bounds = getBalancedPartitions(in.rlen, k);
+			ArrayList<ReshapeCSRTask> tasks = new ArrayList<>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new ReshapeCSRTask(a, in.clen, cols, rptr, cix, cvals, shallow, bounds[i], bounds[i+1]));
+			executeTasks(tasks, k);
+		}
+		rptr[rows] = nnz;
+		
+		out.sparseBlock = new SparseBlockCSR(rptr, cix, cvals, nnz);
+	}
+	
+	private static void reshapeSparseToCSR( SparseBlock a, int clen, int cols, int[] rptr, int[] cix, double[] cvals, boolean shallow, int rl, int ru ) {
+		//each range owns the output rows starting within its linear cell range
+		int pos = (int) a.size(0, rl);
+		int r = (int) (((long)rl*clen + cols - 1) / cols);
+		int rEnd = (int) (((long)ru*clen + cols - 1) / cols);
+		long lix = (long)rl*clen;
+		for( int i=rl; i<ru; i++, lix+=clen ) {
+			if( a.isEmpty(i) ) continue;
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			for( int j=apos; j<apos+alen; j++, pos++ ) {
+				long lin = lix + aix[j];
+				int ci = (int) (lin / cols);
+				while( r <= ci )
+					rptr[r++] = pos;
+				cix[pos] = (int) (lin - (long)ci*cols);
+				if( !shallow )
+					cvals[pos] = avals[j];
+			}
+		}
+		while( r < rEnd )
+			rptr[r++] = pos;
+	}
+
 	private static void reshapeDenseToSparse( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise )
 	{
 		int rlen = in.rlen;
@@ -1365,10 +1657,7 @@ public class LibMatrixReorg
 		}
 	}
 
-	private static void reshapeSparseToDense( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise ) {
-		int rlen = in.rlen;
-		int clen = in.clen;
-		
+	private static void reshapeSparseToDense( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int k ) {
 		//reshape empty block
 		if( in.sparseBlock == null )
 			return;
@@ -1376,7 +1665,21 @@ public class LibMatrixReorg
 		//allocate block if necessary
 		out.allocateDenseBlock(false);
 		
-		//sparse/dense reshape
+		//sparse/dense reshape, where input row ranges map to disjoint output cells
+		if( k <= 1 || (!rowwise && in.rlen==1) )
+			reshapeSparseToDense(in, out, rows, cols, rowwise, 0, in.rlen);
+		else {
+			int[] bounds = getBalancedPartitions(in.rlen, k);
+			ArrayList<ReshapeTask> tasks = new ArrayList<>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new ReshapeTask(in, out, rows, cols, rowwise, bounds[i], bounds[i+1]));
+			executeTasks(tasks, k);
+		}
+	}
+	
+	private static void reshapeSparseToDense( MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int rl, int ru ) {
+		int rlen = in.rlen;
+		int clen = in.clen;
 		SparseBlock a = in.sparseBlock;
 		DenseBlock c = out.getDenseBlock();
 		
@@ -1387,15 +1690,16 @@ public class LibMatrixReorg
 			
 			//GENERAL CASE: MATRIX->MATRIX
 			//note: cache-friendly on a and c
-			for( int i=0, cix=0; i<rlen; i++, cix+=clen ) {
+			long cix = (long)rl*clen;
+			for( int i=rl; i<ru; i++, cix+=clen ) {
 				if( !a.isEmpty(i) ) {
 					int apos = a.pos(i);
 					int alen = a.size(i);
 					int[] aix = a.indexes(i);
 					double[] avals = a.values(i);
 					for( int j=apos; j<apos+alen; j++ ) {
-						int ci = (cix+aix[j]) / cols;
-						int cj = (cix+aix[j]) % cols;
+						int ci = (int)((cix+aix[j]) / cols);
+						int cj = (int)((cix+aix[j]) % cols);
 						c.set(ci, cj, avals[j]);
 					}
 				}
@@ -1425,7 +1729,7 @@ public class LibMatrixReorg
 			else //GENERAL CASE: MATRIX->MATRIX
 			{
 				//note: cache-friendly on a but not c
-				for( int i=0; i<rlen; i++ ) {
+				for( int i=rl; i<ru; i++ ) {
 					if( a.isEmpty(i) ) continue;
 					int apos = a.pos(i);
 					int alen = a.size(i);
@@ -1541,16 +1845,12 @@ public class LibMatrixReorg
 	
 	private static void createNonZeroIndexes(MatrixCharacteristics mcIn, MatrixCharacteristics mcOut,
 			MatrixBlock in, long row_offset, long col_offset, boolean rowwise, HashSet<MatrixIndexes> ret) {
-		Iterator<IJV> iter = in.getSparseBlockIterator();
-		while( iter.hasNext() ) {
-			IJV cell = iter.next();
+		if( in.getSparseBlock() == null )
+			return;
+		SparseBlockCursor cur = in.getSparseBlock().getCursor(0, in.rlen);
+		while( cur.next() )
 			ret.add(computeResultBlockIndex(new MatrixIndexes(),
-				row_offset+cell.getI(), col_offset+cell.getJ(), mcIn, mcOut, rowwise));
-		}
-	}
-	
-	private static Map<MatrixIndexes, MatrixBlock> createAllResultBlocks(Collection<MatrixIndexes> rix, long nnz, MatrixCharacteristics mcOut) {
-		return rix.stream().collect(Collectors.toMap(ix -> ix, ix -> createResultBlock(ix, nnz, rix.size(), mcOut)));
+				row_offset+cur.getRow(), col_offset+cur.getCol(), mcIn, mcOut, rowwise));
 	}
 	
 	private static MatrixBlock createResultBlock(MatrixIndexes ix, long nnz, int nBlocks, MatrixCharacteristics mcOut) {
@@ -1567,7 +1867,7 @@ public class LibMatrixReorg
 		return new MatrixBlock(lbrlen, lbclen, sparse, estnnz); 
 	}
 
-	private static void reshapeDense( MatrixBlock in, long row_offset, long col_offset, Map<MatrixIndexes,MatrixBlock> rix,
+	private static void reshapeDense( MatrixBlock in, long row_offset, long col_offset, ReshapeBlocks rix,
 			MatrixCharacteristics mcIn, MatrixCharacteristics mcOut, boolean rowwise ) {
 		if( in.isEmptyBlock(false) )
 			return;
@@ -1588,8 +1888,6 @@ public class LibMatrixReorg
 					long aj = col_offset+j;
 					ixtmp = computeResultBlockIndex(ixtmp, ai, aj, mcIn, mcOut, rowwise);
 					MatrixBlock out = rix.get(ixtmp);
-					if( out == null )
-						throw new DMLRuntimeException("Missing result block: "+ixtmp);
 					ixtmp = computeInBlockIndex(ixtmp, ai, aj, mcIn, mcOut, rowwise);
 					out.appendValue((int)ixtmp.getRowIndex(),(int)ixtmp.getColumnIndex(), val);
 				}
@@ -1597,13 +1895,11 @@ public class LibMatrixReorg
 		}
 		
 		//cleanup for sparse blocks
-		if( !rowwise && mcIn.getRows() > 1 ) {
-			rix.values().stream().filter(b -> b.sparse)
-				.forEach(b -> b.sortSparseRows());
-		}
+		if( !rowwise && mcIn.getRows() > 1 )
+			rix.sortSparseRows();
 	}
 
-	private static void reshapeSparse( MatrixBlock in, long row_offset, long col_offset, Map<MatrixIndexes,MatrixBlock> rix, 
+	private static void reshapeSparse( MatrixBlock in, long row_offset, long col_offset, ReshapeBlocks rix, 
 			MatrixCharacteristics mcIn, MatrixCharacteristics mcOut, boolean rowwise ) {
 		if( in.isEmptyBlock(false) )
 			return;
@@ -1623,24 +1919,66 @@ public class LibMatrixReorg
 			for( int j=apos; j<apos+alen; j++ )  {
 				long aj = col_offset+aix[j];
 				ixtmp = computeResultBlockIndex(ixtmp, ai, aj, mcIn, mcOut, rowwise);
-				MatrixBlock out = getAllocatedBlock(rix, ixtmp);
+				MatrixBlock out = rix.get(ixtmp);
 				ixtmp = computeInBlockIndex(ixtmp, ai, aj, mcIn, mcOut, rowwise);
 				out.appendValue((int)ixtmp.getRowIndex(),(int)ixtmp.getColumnIndex(), avals[j]);
 			}
 		}
 		
 		//cleanup for sparse blocks
-		if( !rowwise && mcIn.getRows() > 1 ) {
-			rix.values().stream().filter(b -> b.sparse)
-				.forEach(b -> b.sortSparseRows());
-		}
+		if( !rowwise && mcIn.getRows() > 1 )
+			rix.sortSparseRows();
 	}
 	
-	private static MatrixBlock getAllocatedBlock(Map<MatrixIndexes,MatrixBlock> rix, MatrixIndexes ix) {
-		MatrixBlock out = rix.get(ix);
-		if( out == null )
-			throw new DMLRuntimeException("Missing result block: "+ix);
-		return out;
+	/**
+	 * Result blocks of a blocked reshape. The lookup of the result block per 
+	 * non-zero value probes a primitive hashmap of linearized block indexes, 
+	 * which avoids the hashing and equals calls of matrix indexes objects.
+	 */
+	private static class ReshapeBlocks {
+		private final long _ncblks;
+		private final MatrixIndexes[] _ix;
+		private final MatrixBlock[] _blocks;
+		private final LongLongHashMap _pos;
+		
+		public ReshapeBlocks(Collection<MatrixIndexes> rix, long nnz, MatrixCharacteristics mcOut) {
+			_ncblks = mcOut.getNumColBlocks();
+			_ix = rix.toArray(new MatrixIndexes[0]);
+			_blocks = new MatrixBlock[_ix.length];
+			_pos = new LongLongHashMap(_ix.length);
+			for( int i=0; i<_ix.length; i++ ) {
+				_blocks[i] = createResultBlock(_ix[i], nnz, _ix.length, mcOut);
+				_pos.put(getKey(_ix[i]), i);
+			}
+		}
+		
+		public MatrixBlock get(MatrixIndexes ix) {
+			long pos = _pos.get(getKey(ix), -1);
+			if( pos < 0 )
+				throw new DMLRuntimeException("Missing result block: "+ix);
+			return _blocks[(int)pos];
+		}
+		
+		public void sortSparseRows() {
+			for( MatrixBlock b : _blocks )
+				if( b.sparse )
+					b.sortSparseRows();
+		}
+		
+		public List<IndexedMatrixValue> toList(boolean outputEmptyBlocks) {
+			List<IndexedMatrixValue> ret = new ArrayList<>(_blocks.length);
+			for( int i=0; i<_blocks.length; i++ ) {
+				if( !outputEmptyBlocks && _blocks[i].isEmptyBlock(false) )
+					continue;
+				_blocks[i].examSparsity();
+				ret.add(new IndexedMatrixValue(_ix[i], _blocks[i]));
+			}
+			return ret;
+		}
+		
+		private long getKey(MatrixIndexes ix) {
+			return (ix.getRowIndex()-1) * _ncblks + ix.getColumnIndex()-1;
+		}
 	}
 	
 	/**
@@ -2097,21 +2435,236 @@ public class LibMatrixReorg
 		}
 	}
 
-	private static void sortReverseDense( int[] a ) {
-		int rlen = a.length;
-		for( int i=0; i<rlen/2; i++ ) {
-			int tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+	private static void sortReverseDense( int[] a, int rl, int ru ) {
+		int len = ru - rl;
+		for( int i=0; i<len/2; i++ ) {
+			int tmp = a[rl + i];
+			a[rl + i] = a[ru - i - 1];
+			a[ru - i - 1] = tmp;
 		}
 	}
 
-	private static void sortReverseDense( double[] a ) {
-		int rlen = a.length;
-		for( int i=0; i<rlen/2; i++ ) {
-			double tmp = a[i];
-			a[i] = a[rlen - i -1];
-			a[rlen - i - 1] = tmp;
+	private static void sortReverseDense( double[] a, int rl, int ru ) {
+		int len = ru - rl;
+		for( int i=0; i<len/2; i++ ) {
+			double tmp = a[rl + i];
+			a[rl + i] = a[ru - i - 1];
+			a[ru - i - 1] = tmp;
+		}
+	}
+	
+	/**
+	 * Sorts the row range [rl,ru) of the index vector according to the
+	 * orderby columns. Ties over all orderby columns are resolved by the
+	 * row index, which makes the output independent of the range partitioning.
+	 * 
+	 * @param in input matrix
+	 * @param by orderby columns (1-based)
+	 * @param desc if true, sort in descending order
+	 * @param values temporary array for the values of the first orderby column
+	 * @param vix index vector
+	 * @param rl row lower bound (inclusive)
+	 * @param ru row upper bound (exclusive)
+	 */
+	private static void sortIndexes(MatrixBlock in, int[] by, boolean desc, double[] values, int[] vix, int rl, int ru) {
+		//create index vector and extract values
+		if( !in.sparse && in.clen == 1 ) //dense vector, single column
+			System.arraycopy(in.getDenseBlockValues(), rl, values, rl, ru-rl);
+		else if( !in.sparse ) {
+			DenseBlock a = in.getDenseBlock();
+			for( int i=rl; i<ru; i++ )
+				values[i] = a.get(i, by[0]-1);
+		}
+		else {
+			for( int i=rl; i<ru; i++ )
+				values[i] = in.quickGetValue(i, by[0]-1);
+		}
+		for( int i=rl; i<ru; i++ )
+			vix[i] = i;
+		
+		//sort index vector on extracted data (unstable)
+		SortUtils.sortByValue(rl, ru, values, vix);
+		
+		//sort by secondary columns if required (in-place)
+		if( by.length > 1 )
+			sortBySecondary(rl, ru, values, vix, in, by, 1);
+		
+		//flip order if descending requested (note that this needs to happen
+		//before we ensure stable outputs, hence we also flip values)
+		if( desc ) {
+			sortReverseDense(vix, rl, ru);
+			sortReverseDense(values, rl, ru);
+		}
+		
+		//final pass to ensure stable output
+		sortIndexesStable(rl, ru, values, vix, in, by, 1);
+	}
+	
+	private static int[] sortIndexesParallel(MatrixBlock in, int[] by, boolean desc, int k) {
+		int rlen = in.rlen;
+		int[] vix = new int[rlen];
+		double[] values = new double[rlen];
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			//sort independent row partitions
+			int[] bounds = getBalancedPartitions(rlen, k);
+			ArrayList<SortTask> tasks = new ArrayList<>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new SortTask(in, by, desc, values, vix, bounds[i], bounds[i+1]));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			//merge sorted partitions
+			int[] vix2 = new int[rlen];
+			boolean swap = sortMergeParallel(pool, in, by, desc,
+				values, vix, new double[rlen], vix2, bounds);
+			pool.shutdown();
+			return swap ? vix2 : vix;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static void sortDataParallel(double[] a, int k) {
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			//sort independent partitions
+			int[] bounds = getBalancedPartitions(a.length, k);
+			ArrayList<SortTask> tasks = new ArrayList<>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new SortTask(null, null, false, a, null, bounds[i], bounds[i+1]));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			//merge sorted partitions and copy back if necessary
+			double[] tmp = new double[a.length];
+			if( sortMergeParallel(pool, null, null, false, a, null, tmp, null, bounds) )
+				System.arraycopy(tmp, 0, a, 0, a.length);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static int[] getBalancedPartitions(int len, int k) {
+		ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(len, k, true);
+		int[] bounds = new int[blklens.size()+1];
+		for( int i=0; i<blklens.size(); i++ )
+			bounds[i+1] = bounds[i] + blklens.get(i);
+		return bounds;
+	}
+	
+	private static void executeTasks(List<? extends Callable<Object>> tasks, int k) {
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	private static boolean isParallel(MatrixBlock in, int k) {
+		//multi-threading for large inputs, w/ sparse inputs by number of non-zeros
+		return k > 1 && (in.sparse ? in.nonZeros :
+			(long)in.rlen*in.clen) >= PAR_NUMCELL_THRESHOLD;
+	}
+	
+	/**
+	 * Merges sorted partitions pairwise in log(#partitions) rounds, where all
+	 * merges of a round run in parallel and alternate between the input and
+	 * temporary arrays.
+	 * 
+	 * @return true if the final result resides in the temporary arrays
+	 */
+	private static boolean sortMergeParallel(ExecutorService pool, MatrixBlock in, int[] by, boolean desc,
+		double[] values, int[] vix, double[] values2, int[] vix2, int[] bounds)
+		throws Exception
+	{
+		boolean swap = false;
+		while( bounds.length > 2 ) {
+			int nparts = bounds.length - 1;
+			int[] bounds2 = new int[(nparts+1)/2 + 1];
+			ArrayList<SortMergeTask> tasks = new ArrayList<>();
+			for( int i=0; i<nparts; i+=2 ) {
+				//last partition of odd count is merged with an empty range
+				int rm = bounds[Math.min(i+1, nparts)];
+				int ru = bounds[Math.min(i+2, nparts)];
+				tasks.add(swap ?
+					new SortMergeTask(in, by, desc, values2, vix2, values, vix, bounds[i], rm, ru) :
+					new SortMergeTask(in, by, desc, values, vix, values2, vix2, bounds[i], rm, ru));
+				bounds2[i/2+1] = ru;
+			}
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			bounds = bounds2;
+			swap = !swap;
+		}
+		return swap;
+	}
+	
+	private static void sortMerge(MatrixBlock in, int[] by, boolean desc, double[] values, int[] vix,
+		double[] cvalues, int[] cvix, int rl, int rm, int ru)
+	{
+		int i = rl, j = rm, pos = rl;
+		while( i < rm && j < ru ) {
+			if( compareSortKeys(in, by, desc, values, vix, i, j) <= 0 ) {
+				if( vix != null ) cvix[pos] = vix[i];
+				cvalues[pos++] = values[i++];
+			}
+			else {
+				if( vix != null ) cvix[pos] = vix[j];
+				cvalues[pos++] = values[j++];
+			}
+		}
+		//copy remaining tail of either partition
+		int off = (i < rm) ? i : j;
+		int len = (i < rm) ? rm - i : ru - j;
+		if( vix != null )
+			System.arraycopy(vix, off, cvix, pos, len);
+		System.arraycopy(values, off, cvalues, pos, len);
+	}
+	
+	private static int compareSortKeys(MatrixBlock in, int[] by, boolean desc, double[] values, int[] vix, int i, int j) {
+		//data sort w/o indexes, consistent with Arrays.sort
+		if( vix == null )
+			return Double.compare(values[i], values[j]);
+		//multi-key comparison, secondary columns only on ties
+		double v1 = values[i], v2 = values[j];
+		for( int off=1; v1 == v2 && off < by.length; off++ ) {
+			v1 = in.quickGetValue(vix[i], by[off]-1);
+			v2 = in.quickGetValue(vix[j], by[off]-1);
+		}
+		if( v1 != v2 )
+			return ((v1 < v2) ^ desc) ? -1 : 1;
+		//stable order of rows with equal keys
+		return Integer.compare(vix[i], vix[j]);
+	}
+	
+	private static void sortCopyOutput(MatrixBlock in, MatrixBlock out, int[] vix, boolean ixret, int rl, int ru) {
+		if( !ixret ) {
+			//copy input data in sorted order into result
+			if( !in.sparse ) { //DENSE
+				DenseBlock a = in.getDenseBlock();
+				DenseBlock c = out.getDenseBlock();
+				int clen = in.clen;
+				for( int i=rl; i<ru; i++ )
+					System.arraycopy(a.values(vix[i]), a.pos(vix[i]), c.values(i), c.pos(i), clen);
+			}
+			else { //SPARSE
+				for( int i=rl; i<ru; i++ )
+					if( !in.sparseBlock.isEmpty(vix[i]) )
+						out.sparseBlock.set(i, in.sparseBlock.get(vix[i]),
+							!SHALLOW_COPY_REORG); //row remains unchanged
+			}
+		}
+		else {
+			//copy sorted index vector into result
+			DenseBlock c = out.getDenseBlock();
+			for( int i=rl; i<ru; i++ )
+				c.set(i, 0, vix[i]+1);
 		}
 	}
 	
@@ -2155,6 +2708,8 @@ public class LibMatrixReorg
 					for(int j=i; j<i+len+1; j++)
 						values[j] = in.quickGetValue(vix[j], by[off]-1);
 					sortIndexesStable(i, i+len+1, values, vix, in, by, off+1);
+					//reset values of previous level (for subsequent merge)
+					Arrays.fill(values, i, i+len+1, tmp);
 				}
 				else //unstable sort of run indexes (equal value guaranteed)
 					Arrays.sort(vix, i, i+len+1);
@@ -2298,21 +2853,234 @@ public class LibMatrixReorg
 		}
 	}
 
+	private static class SortTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final int[] _by;
+		private final boolean _desc;
+		private final double[] _values;
+		private final int[] _vix;
+		private final int _rl;
+		private final int _ru;
+
+		protected SortTask(MatrixBlock in, int[] by, boolean desc, double[] values, int[] vix, int rl, int ru) {
+			_in = in;
+			_by = by;
+			_desc = desc;
+			_values = values;
+			_vix = vix;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			if( _vix == null ) //data sort
+				Arrays.sort(_values, _rl, _ru);
+			else
+				sortIndexes(_in, _by, _desc, _values, _vix, _rl, _ru);
+			return null;
+		}
+	}
+	
+	private static class SortMergeTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final int[] _by;
+		private final boolean _desc;
+		private final double[] _values;
+		private final int[] _vix;
+		private final double[] _cvalues;
+		private final int[] _cvix;
+		private final int _rl;
+		private final int _rm;
+		private final int _ru;
+
+		protected SortMergeTask(MatrixBlock in, int[] by, boolean desc, double[] values, int[] vix,
+			double[] cvalues, int[] cvix, int rl, int rm, int ru)
+		{
+			_in = in;
+			_by = by;
+			_desc = desc;
+			_values = values;
+			_vix = vix;
+			_cvalues = cvalues;
+			_cvix = cvix;
+			_rl = rl;
+			_rm = rm;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			sortMerge(_in, _by, _desc, _values, _vix, _cvalues, _cvix, _rl, _rm, _ru);
+			return null;
+		}
+	}
+	
+	private static class SortCopyTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int[] _vix;
+		private final boolean _ixret;
+		private final int _rl;
+		private final int _ru;
+
+		protected SortCopyTask(MatrixBlock in, MatrixBlock out, int[] vix, boolean ixret, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_vix = vix;
+			_ixret = ixret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			sortCopyOutput(_in, _out, _vix, _ixret, _rl, _ru);
+			return null;
+		}
+	}
+
 	private static class CountNnzTask implements Callable<int[]>
 	{
 		private MatrixBlock _in = null;
 		private int _rl = -1;
 		private int _ru = -1;
+		private boolean _all = false;
 
 		protected CountNnzTask(MatrixBlock in, int rl, int ru) {
+			this(in, rl, ru, false);
+		}
+		
+		protected CountNnzTask(MatrixBlock in, int rl, int ru, boolean all) {
 			_in = in;
 			_rl = rl;
 			_ru = ru;
+			_all = all;
 		}
 		
 		@Override
 		public int[] call() {
-			return countNnzPerColumn(_in, _rl, _ru);
+			return _all ? countNnzPerColumnAll(_in, _rl, _ru) :
+				countNnzPerColumn(_in, _rl, _ru);
+		}
+	}
+	
+	private static class TransposeCSRTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final int _rl;
+		private final int _ru;
+		private final int[] _pos;
+		private final int[] _cix;
+		private final double[] _cvals;
+
+		protected TransposeCSRTask(MatrixBlock in, int rl, int ru, int[] pos, int[] cix, double[] cvals) {
+			_in = in;
+			_rl = rl;
+			_ru = ru;
+			_pos = pos;
+			_cix = cix;
+			_cvals = cvals;
+		}
+		
+		@Override
+		public Object call() {
+			transposeToCSR(_in, _rl, _ru, _pos, _cix, _cvals);
+			return null;
+		}
+	}
+	
+	private static class ReverseTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int[] _rptr;
+		private final int[] _cix;
+		private final double[] _cvals;
+		private final int _rl;
+		private final int _ru;
+
+		protected ReverseTask(MatrixBlock in, MatrixBlock out, int[] rptr, int[] cix, double[] cvals, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_rptr = rptr;
+			_cix = cix;
+			_cvals = cvals;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			if( _in.sparse )
+				reverseSparseToCSR(_in.getSparseBlock(), _in.rlen, _rptr, _cix, _cvals, _rl, _ru);
+			else
+				reverseDense(_in, _out, _rl, _ru);
+			return null;
+		}
+	}
+	
+	private static class ReshapeTask implements Callable<Object>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int _rows;
+		private final int _cols;
+		private final boolean _rowwise;
+		private final int _rl;
+		private final int _ru;
+
+		protected ReshapeTask(MatrixBlock in, MatrixBlock out, int rows, int cols, boolean rowwise, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_rows = rows;
+			_cols = cols;
+			_rowwise = rowwise;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			if( _in.sparse )
+				reshapeSparseToDense(_in, _out, _rows, _cols, _rowwise, _rl, _ru);
+			else
+				reshapeDenseColwise(_in, _out, _rows, _cols, _rl, _ru);
+			return null;
+		}
+	}
+	
+	private static class ReshapeCSRTask implements Callable<Object>
+	{
+		private final SparseBlock _a;
+		private final int _clen;
+		private final int _cols;
+		private final int[] _rptr;
+		private final int[] _cix;
+		private final double[] _cvals;
+		private final boolean _shallow;
+		private final int _rl;
+		private final int _ru;
+
+		protected ReshapeCSRTask(SparseBlock a, int clen, int cols, int[] rptr, int[] cix, double[] cvals, boolean shallow, int rl, int ru) {
+			_a = a;
+			_clen = clen;
+			_cols = cols;
+			_rptr = rptr;
+			_cix = cix;
+			_cvals = cvals;
+			_shallow = shallow;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			reshapeSparseToCSR(_a, _clen, _cols, _rptr, _cix, _cvals, _shallow, _rl, _ru);
+			return null;
 		}
 	}
 	
@@ -44,12 +44,15 @@ import org.tugraz.sysds.lops.MMTSJ.MMTSJType;
 import org.tugraz.sysds.lops.MapMultChain.ChainType;
 import org.tugraz.sysds.lops.PartialAggregate.CorrectionLocationType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
 import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.tugraz.sysds.runtime.data.DenseBlock;
 import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.data.DenseBlockLDRB;
 import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockBCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockCOO;
 import org.tugraz.sysds.runtime.data.SparseBlockCSR;
 import org.tugraz.sysds.runtime.data.SparseBlockFactory;
@@ -122,6 +125,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public static final SparseBlock.Type DEFAULT_SPARSEBLOCK = SparseBlock.Type.MCSR;
 	//default sparse block type for update in place: compressed sparse rows, to prevent serialization
 	public static final SparseBlock.Type DEFAULT_INPLACE_SPARSEBLOCK = SparseBlock.Type.CSR;
+	//flag if sparse blocks with all non-zeros in dense tiles should be stored in BCSR
+	//(disabled by default because the tile detection is an additional pass on dense-sparse conversion)
+	public static boolean ALLOW_TILED_SPARSEBLOCK = false;
 	//allowed overhead for shallow serialize in terms of in-memory-size/x <= serialized-size 
 	public static final double MAX_SHALLOW_SERIALIZE_OVERHEAD = 1.3;
 	//flag if MCSR blocks that do not qualify for shallow serialize should be converted to CSR
@@ -134,6 +140,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		ULTRA_SPARSE_BLOCK, //ultra sparse representation, in-mem same as sparse
 		SPARSE_BLOCK, //sparse representation, see sparseRows 
 		DENSE_BLOCK, //dense representation, see denseBlock
+		COMPRESSED_BLOCK, //compressed column groups, see CompressedMatrixBlock
+		DELTA_SPARSE_BLOCK, //sparse representation w/ delta-encoded column indexes (on disk only)
 	}
 	
 	//matrix meta data
@@ -194,6 +202,19 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		sparseBlock = sblock;
 	}
 	
+	/**
+	 * Constructs a dense {@link MatrixBlock} with a given instance of a {@link DenseBlock} 
+	 * @param rl number of rows
+	 * @param cl number of columns
+	 * @param nnz number of non zeroes
+	 * @param dblock dense block
+	 */
+	public MatrixBlock(int rl, int cl, long nnz, DenseBlock dblock) {
+		this(rl, cl, false, nnz);
+		nonZeros = nnz;
+		denseBlock = dblock;
+	}
+	
 	public MatrixBlock(MatrixBlock that, SparseBlock.Type stype, boolean deep) {
 		this(that.rlen, that.clen, that.sparse);
 		
@@ -362,7 +383,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
 		long limit = (long)rlen * clen;
 		boolean reset = (denseBlock == null || denseBlock.capacity() < limit);
-		if( denseBlock == null )
+		if( denseBlock == null || (limit > DenseBlockLDRB.MAX_ALLOC
+			&& !DenseBlockFactory.isDenseBlockType(denseBlock, DenseBlock.Type.LDRB)) )
 			denseBlock = DenseBlockFactory.createDenseBlock(rlen, clen);
 		else if( denseBlock.capacity() < limit )
 			denseBlock.reset(rlen, clen);
@@ -1116,6 +1138,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			}
 			sparseBlock = new SparseBlockCSR(
 				rptr, indexes, values, lnnz);
+			
+			//use block compressed sparse rows for structured sparsity,
+			//if all non-zeros are covered by sufficiently filled tiles
+			int blen = ALLOW_TILED_SPARSEBLOCK ?
+				SparseBlockBCSR.computeTileSize(sparseBlock, m, n) : -1;
+			if( blen > 0 )
+				sparseBlock = new SparseBlockBCSR(sparseBlock, n, blen);
 		}
 		else {
 			//fallback to less-memory efficient MCSR format,
@@ -1159,18 +1188,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		SparseBlock a = sparseBlock;
 		DenseBlock c = getDenseBlock();
 		
-		for( int i=0; i<rlen; i++ ) {
-			if( a.isEmpty(i) ) continue;
-			int apos = a.pos(i);
-			int alen = a.size(i);
-			int[] aix = a.indexes(i);
-			double[] avals = a.values(i);
-			double[] cvals = c.values(i);
-			int cix = c.pos(i);
-			for( int j=apos; j<apos+alen; j++ )
-				if( avals[j] != 0 )
-					cvals[cix+aix[j]] = avals[j];
-		}
+		for( int i=0; i<rlen; i++ )
+			if( !a.isEmpty(i) )
+				a.scatter(i, c.values(i), c.pos(i));
 		
 		//cleanup sparse rows
 		sparseBlock = null;
@@ -1366,17 +1386,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		allocateDenseBlock(false);
 		SparseBlock a = that.getSparseBlock();
 		DenseBlock c = getDenseBlock();
-		for( int i=0; i<Math.min(a.numRows(), rlen); i++ ) {
-			if( a.isEmpty(i) ) continue;
-			int pos = a.pos(i);
-			int len = a.size(i);
-			int[] aix = a.indexes(i);
-			double[] avals = a.values(i);
-			double[] cvals = c.values(i);
-			int cix = c.pos(i);
-			for( int j=pos; j<pos+len; j++ )
-				cvals[cix+aix[j]] = avals[j];
-		}
+		for( int i=0; i<Math.min(a.numRows(), rlen); i++ )
+			if( !a.isEmpty(i) )
+				a.scatter(i, c.values(i), c.pos(i));
 	}
 	
 	private void copyDenseToSparse(MatrixBlock that) {
@@ -1495,15 +1507,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		DenseBlock c = getDenseBlock();
 		for( int i=0; i<src.rlen; i++ ) {
 			if( a.isEmpty(i) ) continue;
-			int apos = a.pos(i);
-			int alen = a.size(i);
-			int[] aix = a.indexes(i);
-			double[] avals = a.values(i);
-			double[] cvals = c.values(rl+i);
-			int cix = c.pos(rl+i, cl);
-			for( int j=apos; j<apos+alen; j++ )
-				cvals[cix+aix[j]] = avals[j];
-			nonZeros += awareDestNZ ? alen : 0;
+			a.scatter(i, c.values(rl+i), c.pos(rl+i, cl));
+			nonZeros += awareDestNZ ? a.size(i) : 0;
 		}
 	}
 
@@ -1826,6 +1831,15 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 					else
 						readSparseToDense(in);
 					break;
+				case DELTA_SPARSE_BLOCK:
+					nonZeros = readNnzInfo( in, false );
+					sparse = evalSparseFormatInMemory(rlen, clen, nonZeros);
+					cleanupBlock(sparse, !sparse); 
+					if( sparse )
+						readDeltaSparseBlock(in);
+					else
+						readDeltaSparseToDense(in);
+					break;
 				case DENSE_BLOCK:
 					sparse = false;
 					cleanupBlock(false, true); //reuse dense
@@ -1838,6 +1852,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 						sparseBlock.reset();
 					nonZeros = 0;
 					break;
+				case COMPRESSED_BLOCK:
+					//read compressed block and decompress into this block
+					CompressedMatrixBlock cmb = new CompressedMatrixBlock(rlen, clen);
+					cmb.readCompressedBlock(in);
+					copy(cmb.decompress());
+					break;
 			}
 		}
 		catch(DMLRuntimeException ex)
@@ -1930,6 +1950,38 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 	}
 
+	private void readDeltaSparseBlock(DataInput in) 
+		throws IOException 
+	{
+		if( !allocateSparseRowsBlock(false) )
+			resetSparse(); //reset if not allocated
+		
+		for(int r=0; r<rlen; r++) {
+			int rnnz = readVarInt(in); //row nnz
+			if( rnnz > 0 ) {
+				sparseBlock.reset(r, rnnz, clen);
+				for(int j=0, c=0; j<rnnz; j++) //col delta/value pairs
+					sparseBlock.append(r, c+=readVarInt(in), in.readDouble());
+			}
+		}
+	}
+
+	private void readDeltaSparseToDense(DataInput in)
+		throws IOException, DMLRuntimeException
+	{
+		if( !allocateDenseBlock(false) ) //allocate block
+			denseBlock.reset(rlen, clen);
+		
+		DenseBlock a = getDenseBlock();
+		for(int r=0; r<rlen; r++) {
+			int nr = readVarInt(in);
+			double[] avals = a.values(r);
+			int cix = a.pos(r);
+			for( int j=0, c=0; j<nr; j++ )
+				avals[cix+(c+=readVarInt(in))] = in.readDouble();
+		}
+	}
+
 	private void readUltraSparseBlock(DataInput in)
 		throws IOException 
 	{
@@ -2017,6 +2069,91 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 	}
 
+	/**
+	 * Serializes this matrix block like {@link #write(DataOutput)}, except
+	 * that blocks in sparse on-disk format are written with delta- and
+	 * variable-length encoded column indexes (instead of 4 byte integers).
+	 * The resulting blocks are read via the default {@link #readFields(DataInput)}.
+	 * 
+	 * @param out data output
+	 * @throws IOException if IOException occurs
+	 */
+	public void writeDeltaSparse(DataOutput out) 
+		throws IOException 
+	{
+		boolean sparseDst = evalSparseFormatOnDisk();
+		if( !sparseDst || isUltraSparseSerialize(sparseDst) || nonZeros==0
+			|| (sparse ? sparseBlock==null : denseBlock==null) ) {
+			write(out); //default serialization
+			return;
+		}
+		
+		//write header and delta-encoded sparse rows
+		out.writeInt(rlen);
+		out.writeInt(clen);
+		out.writeByte( BlockType.DELTA_SPARSE_BLOCK.ordinal() );
+		writeNnzInfo( out, false );
+		
+		if( sparse ) {
+			SparseBlock a = sparseBlock;
+			for( int r=0; r<rlen; r++ ) {
+				if( r >= a.numRows() || a.isEmpty(r) ) {
+					writeVarInt(out, 0);
+					continue;
+				}
+				int apos = a.pos(r);
+				int alen = a.size(r);
+				int[] aix = a.indexes(r);
+				double[] avals = a.values(r);
+				writeVarInt(out, alen);
+				for( int j=apos, c=0; j<apos+alen; j++ ) {
+					writeVarInt(out, aix[j]-c);
+					out.writeDouble(avals[j]);
+					c = aix[j];
+				}
+			}
+		}
+		else {
+			DenseBlock a = getDenseBlock();
+			for( int r=0; r<rlen; r++ ) {
+				double[] avals = a.values(r);
+				int aix = a.pos(r);
+				writeVarInt(out, a.countNonZeros(r));
+				for( int c=0, lc=0; c<clen; c++ ) {
+					double aval = avals[aix+c];
+					if( aval != 0 ) {
+						writeVarInt(out, c-lc);
+						out.writeDouble(aval);
+						lc = c;
+					}
+				}
+			}
+		}
+	}
+
+	private static void writeVarInt(DataOutput out, int val) 
+		throws IOException
+	{
+		//unsigned 7-bit groups, least significant first
+		while( (val & ~0x7F) != 0 ) {
+			out.writeByte((val & 0x7F) | 0x80);
+			val >>>= 7;
+		}
+		out.writeByte(val);
+	}
+
+	private static int readVarInt(DataInput in) 
+		throws IOException
+	{
+		int ret = 0;
+		for( int shift=0; ; shift+=7 ) {
+			byte b = in.readByte();
+			ret |= (b & 0x7F) << shift;
+			if( b >= 0 )
+				return ret;
+		}
+	}
+
 	private static void writeEmptyBlock(DataOutput out) 
 		throws IOException
 	{
@@ -2037,7 +2174,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else { //general case (if fast serialize not supported)
 			for(int i=0; i<a.numBlocks(); i++) {
-				double[] avals = a.values(i);
+				double[] avals = a.valuesAt(i);
 				int limit = a.size(i);
 				for(int j=0; j<limit; j++)
 					out.writeDouble(avals[j]);
@@ -2051,7 +2188,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		out.writeByte( BlockType.SPARSE_BLOCK.ordinal() );
 		writeNnzInfo( out, false );
 		
-		if( out instanceof MatrixBlockDataOutput ) //fast serialize
+		if( SparseBlockBCSR.isTiledSparseBlock(sparseBlock) ) //tile-wise serialize
+			((SparseBlockBCSR)sparseBlock).writeSparseRows(out, rlen);
+		else if( out instanceof MatrixBlockDataOutput ) //fast serialize
 			((MatrixBlockDataOutput)out).writeSparseRows(rlen, sparseBlock);
 		else //general case (if fast serialize not supported)
 		{
@@ -2597,6 +2736,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		boolean sparseDst = evalSparseFormatOnDisk();
 		return !sparse || !sparseDst
 			|| (sparse && sparseBlock instanceof SparseBlockCSR)
+			|| (sparse && sparseBlock instanceof SparseBlockBCSR)
 			|| (sparse && sparseBlock instanceof SparseBlockMCSR
 				&& getInMemorySize() / MAX_SHALLOW_SERIALIZE_OVERHEAD 
 				<= getExactSerializedSize())
@@ -2639,7 +2779,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			ret.reset(rlen, clen, sp, this.nonZeros);
 		
 		//core scalar operations
-		LibMatrixBincell.bincellOp(this, ret, op);
+		LibMatrixBincell.bincellOp(this, ret, op, op.getNumThreads());
 		
 		return ret;
 	}
@@ -2820,7 +2960,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			ret.reset(rows, cols, resultSparse.sparse, resultSparse.estimatedNonZeros);
 		
 		//core binary cell operation
-		LibMatrixBincell.bincellOp( this, that, ret, op );
+		LibMatrixBincell.bincellOp( this, that, ret, op, op.getNumThreads() );
 		
 		return ret;
 	}
@@ -2841,7 +2981,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			sparseToDense();
 		
 		//core binary cell operation
-		LibMatrixBincell.bincellOpInPlace(this, that, op);
+		LibMatrixBincell.bincellOpInPlace(this, that, op, op.getNumThreads());
 	}
 	
 	public MatrixBlock ternaryOperations(TernaryOperator op, MatrixBlock m2, MatrixBlock m3, MatrixBlock ret) {
@@ -30,6 +30,7 @@ import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.mapred.OutputFormat;
 import org.apache.hadoop.mapred.SequenceFileOutputFormat;
 import org.apache.hadoop.mapred.TextOutputFormat;
+import org.apache.parquet.hadoop.mapred.DeprecatedParquetOutputFormat;
 import org.tugraz.sysds.parser.DataExpression;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
 
@@ -61,6 +62,9 @@ public class OutputInfo implements Serializable
 
 	public static final OutputInfo CSVOutputInfo = null;
 	
+	public static final OutputInfo ParquetOutputInfo=new OutputInfo(
+			DeprecatedParquetOutputFormat.class, NullWritable.class, NullWritable.class);
+	
 	public static InputInfo getMatchingInputInfo(OutputInfo oi) {
 		if ( oi == OutputInfo.BinaryBlockOutputInfo )
 			return InputInfo.BinaryBlockInputInfo;
@@ -72,6 +76,8 @@ public class OutputInfo implements Serializable
 			return InputInfo.TextCellInputInfo;
 		else if ( oi == OutputInfo.CSVOutputInfo)
 			return InputInfo.CSVInputInfo;
+		else if ( oi == OutputInfo.ParquetOutputInfo)
+			return InputInfo.ParquetInputInfo;
 		else 
 			throw new DMLRuntimeException("Unrecognized output info: " + oi);
 	}
@@ -87,6 +93,8 @@ public class OutputInfo implements Serializable
 			return BinaryBlockOutputInfo;
 		else if ( str.equalsIgnoreCase("csv") )
 			return CSVOutputInfo;
+		else if ( str.equalsIgnoreCase("parquet") )
+			return ParquetOutputInfo;
 		return null;
 	}
 	
@@ -101,6 +109,8 @@ public class OutputInfo implements Serializable
 			return "binaryblock";
 		else if ( oi == CSVOutputInfo )
 			return "csv";
+		else if ( oi == ParquetOutputInfo )
+			return "parquet";
 		else
 			throw new DMLRuntimeException("Unrecognized outputInfo: " + oi);
 	}
@@ -113,6 +123,8 @@ public class OutputInfo implements Serializable
 			return DataExpression.FORMAT_TYPE_VALUE_MATRIXMARKET;
 		else if( oinfo == OutputInfo.CSVOutputInfo )
 			return DataExpression.FORMAT_TYPE_VALUE_CSV;
+		else if( oinfo == OutputInfo.ParquetOutputInfo )
+			return DataExpression.FORMAT_TYPE_VALUE_PARQUET;
 		else if( oinfo == OutputInfo.BinaryBlockOutputInfo 
 				|| oinfo == OutputInfo.BinaryCellOutputInfo )
 			return DataExpression.FORMAT_TYPE_VALUE_BINARY;
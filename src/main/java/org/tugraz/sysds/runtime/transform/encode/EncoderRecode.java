@@ -22,7 +22,6 @@ package org.tugraz.sysds.runtime.transform.encode;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map.Entry;
 
 import org.apache.wink.json4j.JSONException;
 import org.apache.wink.json4j.JSONObject;
@@ -31,13 +30,15 @@ import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
 import org.tugraz.sysds.runtime.transform.TfUtils;
 import org.tugraz.sysds.runtime.transform.meta.TfMetaUtils;
+import org.tugraz.sysds.runtime.util.StringLongHashMap;
+import org.tugraz.sysds.runtime.util.StringLongHashMap.StringLongEntry;
 
 public class EncoderRecode extends Encoder 
 {
 	private static final long serialVersionUID = 8213163881283341874L;
 	
 	//recode maps and custom map for partial recode maps 
-	private HashMap<Integer, HashMap<String, Long>> _rcdMaps  = new HashMap<>();
+	private HashMap<Integer, StringLongHashMap> _rcdMaps  = new HashMap<>();
 	private HashMap<Integer, HashSet<Object>> _rcdMapsPart = null;
 	
 	public EncoderRecode(JSONObject parsedSpec, String[] colnames, int clen)
@@ -50,7 +51,7 @@ public class EncoderRecode extends Encoder
 		}
 	}
 	
-	public HashMap<Integer, HashMap<String,Long>> getCPRecodeMaps() { 
+	public HashMap<Integer, StringLongHashMap> getCPRecodeMaps() { 
 		return _rcdMaps; 
 	}
 	
@@ -58,13 +59,6 @@ public class EncoderRecode extends Encoder
 		return _rcdMapsPart; 
 	}
 	
-	private long lookupRCDMap(int colID, String key) {
-		if( !_rcdMaps.containsKey(colID) )
-			return -1; //empty recode map
-		Long tmp = _rcdMaps.get(colID).get(key);
-		return (tmp!=null) ? tmp : -1;
-	}
-	
 	@Override
 	public MatrixBlock encode(FrameBlock in, MatrixBlock out) {
 		if( !isApplicable() )
@@ -82,19 +76,37 @@ public class EncoderRecode extends Encoder
 		if( !isApplicable() )
 			return;
 
-		Iterator<String[]> iter = in.getStringRowIterator(_colList);
-		while( iter.hasNext() ) {
-			String[] row = iter.next(); 
-			for( int j=0; j<_colList.length; j++ ) {
-				int colID = _colList[j]; //1-based
-				//allocate column map if necessary
-				if( !_rcdMaps.containsKey(colID) ) 
-					_rcdMaps.put(colID, new HashMap<String,Long>());
-				//probe and build column map
-				HashMap<String,Long> map = _rcdMaps.get(colID);
-				String key = row[j];
-				if( key!=null && !key.isEmpty() && !map.containsKey(key) )
-					map.put(key, Long.valueOf(map.size()+1));
+		//build column maps independently, where codes are assigned
+		//in order of first occurrence of the distinct tokens
+		for( int j=0; j<_colList.length; j++ ) {
+			int colID = _colList[j]; //1-based
+			//allocate column map if necessary
+			if( !_rcdMaps.containsKey(colID) )
+				_rcdMaps.put(colID, new StringLongHashMap());
+			StringLongHashMap map = _rcdMaps.get(colID);
+			
+			//probe and build column map over dictionary codes
+			if( in.isColumnDictionaryEncoded(colID-1) ) {
+				String[] dict = in.getColumnDictionary(colID-1);
+				int[] codes = in.getColumnCodes(colID-1);
+				boolean[] probed = new boolean[dict.length+1];
+				probed[0] = true; //null
+				for( int i=0; i<in.getNumRows(); i++ ) {
+					if( probed[codes[i]] ) continue;
+					String key = dict[codes[i]-1];
+					if( !key.isEmpty() )
+						map.putIfAbsent(key, map.size()+1);
+					probed[codes[i]] = true;
+				}
+			}
+			//probe and build column map (single probe sequence)
+			else {
+				for( int i=0; i<in.getNumRows(); i++ ) {
+					Object okey = in.get(i, colID-1);
+					String key = (okey!=null) ? okey.toString() : null;
+					if( key!=null && !key.isEmpty() )
+						map.putIfAbsent(key, map.size()+1);
+				}
 			}
 		}
 	}
@@ -129,10 +141,27 @@ public class EncoderRecode extends Encoder
 		//apply recode maps column wise
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j];
+			StringLongHashMap map = _rcdMaps.get(colID);
+			
+			//apply recode map once per dictionary entry
+			if( in.isColumnDictionaryEncoded(colID-1) ) {
+				String[] dict = in.getColumnDictionary(colID-1);
+				int[] codes = in.getColumnCodes(colID-1);
+				double[] rcodes = new double[dict.length+1];
+				rcodes[0] = Double.NaN; //null
+				for( int k=0; k<dict.length; k++ ) {
+					long code = (map!=null && dict[k]!=null) ? map.get(dict[k], -1) : -1;
+					rcodes[k+1] = (code >= 0) ? code : Double.NaN;
+				}
+				for( int i=0; i<in.getNumRows(); i++ )
+					out.quickSetValue(i, colID-1, rcodes[codes[i]]);
+				continue;
+			}
+			
 			for( int i=0; i<in.getNumRows(); i++ ) {
 				Object okey = in.get(i, colID-1);
 				String key = (okey!=null) ? okey.toString() : null;
-				long code = lookupRCDMap(colID, key);
+				long code = (map!=null) ? map.get(key, -1) : -1;
 				out.quickSetValue(i, colID-1,
 					(code >= 0) ? code : Double.NaN);
 			}
@@ -160,11 +189,14 @@ public class EncoderRecode extends Encoder
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j]; //1-based
 			int rowID = 0;
-			if( _rcdMaps.containsKey(_colList[j]) )
-				for( Entry<String, Long> e : _rcdMaps.get(colID).entrySet() ) {
+			if( _rcdMaps.containsKey(_colList[j]) ) {
+				Iterator<StringLongEntry> iter = _rcdMaps.get(colID).getIterator();
+				while( iter.hasNext() ) {
+					StringLongEntry e = iter.next();
 					meta.set(rowID++, colID-1, 
 						constructRecodeMapEntry(e.getKey(), e.getValue(), sb)); 
 				}
+			}
 			meta.getColumnMetadata(colID-1).setNumDistinct(
 					_rcdMaps.get(colID).size());
 		}
@@ -197,15 +229,15 @@ public class EncoderRecode extends Encoder
 	 * @param code  is code for token
 	 * @return the concatenation of token and code with delimiter in between
 	 */
-	public static String constructRecodeMapEntry(String token, Long code) {
+	public static String constructRecodeMapEntry(String token, long code) {
 		StringBuilder sb = new StringBuilder(token.length()+16);
 		return constructRecodeMapEntry(token, code, sb);
 	}
 	
-	private static String constructRecodeMapEntry(String token, Long code, StringBuilder sb) {
+	private static String constructRecodeMapEntry(String token, long code, StringBuilder sb) {
 		sb.setLength(0); //reset reused string builder
 		return sb.append(token).append(Lop.DATATYPE_PREFIX)
-			.append(code.longValue()).toString();
+			.append(code).toString();
 	}
 	
 	/**
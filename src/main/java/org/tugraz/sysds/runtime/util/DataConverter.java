@@ -227,11 +227,10 @@ public class DataConverter
 		if( mb.getNonZeros() > 0 )
 		{
 			if( mb.isInSparseFormat() ) {
-				Iterator<IJV> iter = mb.getSparseBlockIterator();
-				while( iter.hasNext() ) {
-					IJV cell = iter.next();
-					ret[cell.getI()][cell.getJ()] = cell.getV();
-				}
+				SparseBlock a = mb.getSparseBlock();
+				for( int i=0; i<rows; i++ )
+					if( !a.isEmpty(i) )
+						a.scatter(i, ret[i], 0);
 			}
 			else {
 				double[] a = mb.getDenseBlockValues();
@@ -361,11 +360,10 @@ public class DataConverter
 		
 		if( !mb.isEmptyBlock(false) ) {
 			if( mb.isInSparseFormat() ) {
-				Iterator<IJV> iter = mb.getSparseBlockIterator();
-				while( iter.hasNext() ) {
-					IJV cell = iter.next();
-					ret[cell.getI()*cols+cell.getJ()] = cell.getV();
-				}
+				SparseBlock a = mb.getSparseBlock();
+				for( int i=0; i<rows; i++ )
+					if( !a.isEmpty(i) )
+						a.scatter(i, ret, i*cols);
 			}
 			else if( deep ) {
 				//memcopy row major representation if at least 1 non-zero
@@ -795,11 +793,10 @@ public class DataConverter
 		int cols = mb.getNumColumns();
 		
 		if( mb.isInSparseFormat() ) {
-			Iterator<IJV> iter = mb.getSparseBlockIterator();
-			while( iter.hasNext() ) {
-				IJV cell = iter.next();
-				dest[destPos+cell.getI()*cols+cell.getJ()] = cell.getV();
-			}
+			SparseBlock a = mb.getSparseBlock();
+			for( int i=0; i<rows; i++ )
+				if( !a.isEmpty(i) )
+					a.scatter(i, dest, destPos+i*cols);
 		}
 		else {
 			//memcopy row major representation if at least 1 non-zero
@@ -47,6 +47,8 @@ import org.tugraz.sysds.parser.DataExpression;
 import org.tugraz.sysds.common.Types.DataType;
 import org.tugraz.sysds.common.Types.ValueType;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
 import org.tugraz.sysds.runtime.io.FileFormatProperties;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.io.MatrixReader;
@@ -417,6 +419,10 @@ public class HDFSTool
 				if (outinfo == OutputInfo.BinaryBlockOutputInfo ) {
 					mtd.put(DataExpression.ROWBLOCKCOUNTPARAM, mc.getRowsPerBlock());
 					mtd.put(DataExpression.COLUMNBLOCKCOUNTPARAM, mc.getColsPerBlock());
+					//block compression codec (informational, auto-detected on read)
+					CodecType codec = BlockCompressionCodec.getBinaryBlockCodec();
+					if( codec != CodecType.NONE )
+						mtd.put(DataExpression.CODECPARAM, codec.name().toLowerCase());
 				}
 				mtd.put(DataExpression.READNNZPARAM, mc.getNonZeros());
 			}
@@ -42,8 +42,11 @@ import org.tugraz.sysds.conf.ConfigurationManager;
 import org.tugraz.sysds.conf.DMLConfig;
 import org.tugraz.sysds.lops.Lop;
 import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
 import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlockCompressor;
 import org.tugraz.sysds.runtime.controlprogram.parfor.util.IDSequence;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
 import org.tugraz.sysds.runtime.io.IOUtilFunctions;
 import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
 import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
@@ -109,7 +112,44 @@ public class LocalFileUtils
 	 * @throws IOException if IOException occurs
 	 */
 	public static CacheBlock readCacheBlockFromLocal(String fname, boolean matrix) throws IOException {
-		return (CacheBlock) readWritableFromLocal(fname, matrix?new MatrixBlock():new FrameBlock());
+		//restore lz4-compressed spill files (via magic number in header)
+		if( CacheBlockCompressor.isCompressed(fname) )
+			return CacheBlockCompressor.readCacheBlock(new FileInputStream(fname), matrix);
+		
+		//restore compressed blocks in compressed form (via block type in header)
+		MatrixBlock mb = !matrix ? null : isCompressedBlock(fname) ?
+			new CompressedMatrixBlock() : new MatrixBlock();
+		return (CacheBlock) readWritableFromLocal(fname, matrix?mb:new FrameBlock());
+	}
+	
+	/** Reads a matrix/frame block from an input stream.
+	 * 
+	 * @param is input stream to read
+	 * @param matrix if true, read matrix. if false, read frame.
+	 * @return cache block (common interface to MatrixBlock and FrameBlock)
+	 * @throws IOException if IOException occurs
+	 */
+	public static CacheBlock readCacheBlockFromStream(InputStream is, boolean matrix) throws IOException {
+		InputStream in = is.markSupported() ? is : new BufferedInputStream(is, BUFFER_SIZE);
+		MatrixBlock mb = !matrix ? null : isCompressedBlock(in) ?
+			new CompressedMatrixBlock() : new MatrixBlock();
+		return (CacheBlock) readWritableFromStream(in, matrix?mb:new FrameBlock());
+	}
+	
+	private static boolean isCompressedBlock(String fname) throws IOException {
+		try( DataInputStream in = new DataInputStream(new FileInputStream(fname)) ) {
+			in.skipBytes(8); //rlen, clen
+			return in.read() == MatrixBlock.BlockType.COMPRESSED_BLOCK.ordinal();
+		}
+	}
+	
+	private static boolean isCompressedBlock(InputStream in) throws IOException {
+		in.mark(9);
+		DataInputStream din = new DataInputStream(in);
+		din.skipBytes(8); //rlen, clen
+		boolean ret = din.read() == MatrixBlock.BlockType.COMPRESSED_BLOCK.ordinal();
+		in.reset();
+		return ret;
 	}
 	
 	/**
@@ -258,6 +298,41 @@ public class LocalFileUtils
 		}
 	}
 
+	/**
+	 * Writes an off-heap dense block to local file system in the serialized
+	 * dense matrix block format. Since the off-heap buffer is already in this
+	 * format (big-endian doubles), only the header is materialized while the
+	 * data is written via the file channel without intermediate on-heap copies. 
+	 * 
+	 * @param fname file name to write
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @param db off-heap dense block
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeOffHeapDenseBlockToLocal(String fname, int rlen, int clen, DenseBlockOffHeapFP64 db)
+		throws IOException
+	{
+		FileChannel channel = null;
+		try {
+			Path path = Paths.get(fname);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, 
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			//header consistent with MatrixBlock.write (int rlen, int clen, byte type)
+			ByteBuffer header = ByteBuffer.allocate(9);
+			header.putInt(rlen).putInt(clen)
+				.put((byte)MatrixBlock.BlockType.DENSE_BLOCK.ordinal()).flip();
+			while( header.hasRemaining() )
+				channel.write(header);
+			for( ByteBuffer data : db.getBuffers() )
+				while( data.hasRemaining() )
+					channel.write(data);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+
 	public static int readBlockSequenceFromLocal(String fname, 
 			Pair<MatrixIndexes,MatrixValue>[] outValues, HashMap<MatrixIndexes, Integer> outMap) 
 		throws IOException
@@ -17,9 +17,14 @@
  * under the License.
  */
 
+
 package org.tugraz.sysds.runtime.util;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
 
 /**
  * This native long long - double hashmap is specifically designed for
@@ -28,20 +33,28 @@ import java.util.Iterator;
  * to be more memory-efficient which is important for large maps in order
  * to keep data in the caches and prevent high-latency random memory access. 
  * 
+ * The map uses open addressing with linear probing over primitive key and
+ * value arrays, i.e., without entry objects per distinct key pair. For int
+ * keys, both keys are packed into a single long key. The key1 (or packed key)
+ * Long.MIN_VALUE is reserved as the marker of empty slots.
  */
 public class LongLongDoubleHashMap
 {
 	private static final int INIT_CAPACITY = 8;
 	private static final int RESIZE_FACTOR = 2;
 	private static final float LOAD_FACTOR = 0.75f;
-
+	private static final long EMPTY = Long.MIN_VALUE;
+	
 	public enum EntryType {
 		LONG, INT
 	}
 	
 	private final EntryType type;
-	private ADoubleEntry[] data = null;
+	private long[] keys1 = null; //key1, or packed keys for INT
+	private long[] keys2 = null; //key2, null for INT
+	private double[] values = null;
 	private int size = -1;
+	private int shift = -1;
 	
 	public LongLongDoubleHashMap() {
 		this(EntryType.LONG);
@@ -49,10 +62,9 @@ public class LongLongDoubleHashMap
 	
 	public LongLongDoubleHashMap(EntryType etype) {
 		type = etype;
-		data = new ADoubleEntry[INIT_CAPACITY];
-		size = 0;
+		allocate(INIT_CAPACITY);
 	}
-
+	
 	public int size() {
 		return size;
 	}
@@ -61,130 +73,124 @@ public class LongLongDoubleHashMap
 		//note: the exact number of non-zeros might be smaller than size
 		//if negative and positive values canceled each other out
 		int ret = 0;
-		for( ADoubleEntry e : data )
-			while( e != null ) {
-				ret += (e.value != 0) ? 1 : 0;
-				e = e.next;
-			}
+		for( int i=0; i<keys1.length; i++ )
+			ret += (keys1[i] != EMPTY && values[i] != 0) ? 1 : 0;
 		return ret;
 	}
-
+	
 	public void addValue(long key1, long key2, double value)
 	{
-		//compute entry index position
-		int ix = getIndex(key1, key2, data.length);
-		
 		//find existing entry and add value
-		for( ADoubleEntry e = data[ix]; e!=null; e = e.next ) {
-			if( e.getKey1()==key1 && e.getKey2()==key2 ) {
-				e.value += value;
-				return; //no need to append or resize
-			}
+		int ix = (type==EntryType.INT) ?
+			findPos(pack(key1, key2)) : findPos(key1, key2);
+		if( keys1[ix] != EMPTY ) {
+			values[ix] += value;
+			return; //no need to append or resize
 		}
 		
-		//add non-existing entry (constant time)
-		ADoubleEntry enew = (type==EntryType.LONG) ? 
-			new LLDoubleEntry(key1, key2, value) :
-			new IIDoubleEntry(key1, key2, value);
-		enew.next = data[ix]; //colliding entries / null
-		data[ix] = enew;
+		//add non-existing entry (constant time), while keeping
+		//at least one empty slot to terminate all probe sequences
+		if( size >= keys1.length - 1 )
+			throw new DMLRuntimeException("LongLongDoubleHashMap exceeded max capacity of "+size+" entries.");
+		if( type==EntryType.INT )
+			keys1[ix] = checkKey(pack(key1, key2));
+		else {
+			keys1[ix] = checkKey(key1);
+			keys2[ix] = key2;
+		}
+		values[ix] = value;
 		size++;
 		
 		//resize if necessary
-		if( size >= LOAD_FACTOR*data.length )
+		if( size >= LOAD_FACTOR*keys1.length )
 			resize();
 	}
 	
+	/**
+	 * Returns an iterator over all entries. Note that the iterator
+	 * reuses a single entry object in order to avoid allocations,
+	 * i.e., entries need to be consumed before calling next again.
+	 * 
+	 * @return iterator over all entries
+	 */
 	public Iterator<ADoubleEntry> getIterator() {
 		return new ADoubleEntryIterator();
 	}
-
+	
 	private void resize() {
-		//check for integer overflow on resize
-		if( data.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+		//check for integer overflow on resize (at max capacity,
+		//inserts continue until the last empty slot is reached)
+		if( keys1.length > Integer.MAX_VALUE/RESIZE_FACTOR )
 			return;
 		
-		//resize data array and copy existing contents
-		ADoubleEntry[] olddata = data;
-		data = new ADoubleEntry[data.length*RESIZE_FACTOR];
-		size = 0;
-		
-		//rehash all entries with reuse of existing entries
-		for( ADoubleEntry e : olddata ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					ADoubleEntry tmp = e;
-					e = e.next; //tmp.next overwritten on append
-					appendEntry(tmp.getKey1(), tmp.getKey2(), tmp);
-				}
-				appendEntry(e.getKey1(), e.getKey2(), e);
-			}
+		//resize data arrays and rehash existing contents
+		long[] oldkeys1 = keys1;
+		long[] oldkeys2 = keys2;
+		double[] oldvalues = values;
+		allocate(keys1.length*RESIZE_FACTOR);
+		for( int i=0; i<oldkeys1.length; i++ ) {
+			if( oldkeys1[i] == EMPTY ) continue;
+			int ix = (type==EntryType.INT) ? findPos(oldkeys1[i]) :
+				findPos(oldkeys1[i], oldkeys2[i]);
+			keys1[ix] = oldkeys1[i];
+			if( keys2 != null )
+				keys2[ix] = oldkeys2[i];
+			values[ix] = oldvalues[i];
+			size++;
 		}
 	}
 	
-	private void appendEntry(long key1, long key2, ADoubleEntry e) {
-		//compute entry index position
-		int ix = getIndex(key1, key2, data.length);
-		
-		//add existing entry (constant time)
-		e.next = data[ix]; //colliding entries / null
-		data[ix] = e;
-		size++;
+	private void allocate(int capacity) {
+		keys1 = new long[capacity];
+		keys2 = (type==EntryType.LONG) ? new long[capacity] : null;
+		values = new double[capacity];
+		Arrays.fill(keys1, EMPTY);
+		size = 0;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
 	}
 	
-	private static int getIndex(long key1, long key2, int length) {
-		int hash = hash(key1, key2);
-		return indexFor(hash, length);
+	private int findPos(long key) {
+		//linear probing over packed keys
+		int mask = keys1.length - 1;
+		int ix = LongLongHashMap.hash(key, shift);
+		while( keys1[ix] != EMPTY && keys1[ix] != key )
+			ix = (ix + 1) & mask;
+		return ix;
 	}
 	
-	private static int hash(long key1, long key2) {
-		int h = UtilFunctions.longHashCode(key1, key2);
-		
-		// This function ensures that hashCodes that differ only by
-		// constant multiples at each bit position have a bounded
-		// number of collisions (approximately 8 at default load factor).
-		h ^= (h >>> 20) ^ (h >>> 12);
-		return h ^ (h >>> 7) ^ (h >>> 4);
+	private int findPos(long key1, long key2) {
+		//linear probing over key pairs
+		int mask = keys1.length - 1;
+		int ix = LongLongHashMap.hash(key1 * 0xC2B2AE3D27D4EB4FL + key2, shift);
+		while( keys1[ix] != EMPTY && (keys1[ix] != key1 || keys2[ix] != key2) )
+			ix = (ix + 1) & mask;
+		return ix;
 	}
-
-	private static int indexFor(int h, int length) {
-		return h & (length-1);
+	
+	private static long pack(long key1, long key2) {
+		return ((long)(int)key1 << 32) | ((int)key2 & 0xFFFFFFFFL);
 	}
-
+	
+	private static long checkKey(long key) {
+		if( key == EMPTY )
+			throw new DMLRuntimeException("Reserved key: "+key);
+		return key;
+	}
+	
 	public static abstract class ADoubleEntry {
 		public double value = Double.MAX_VALUE;
-		public ADoubleEntry next = null;
 		public ADoubleEntry(double val) {
 			value = val;
-			next = null;
 		}
 		public abstract long getKey1();
 		public abstract long getKey2();
 	}
 	
 	private static class LLDoubleEntry extends ADoubleEntry {
-		private final long key1;
-		private final long key2;
-		public LLDoubleEntry(long k1, long k2, double val) {
-			super(val);
-			key1 = k1;
-			key2 = k2;
-		}
-		public long getKey1() {
-			return key1;
-		}
-		public long getKey2() {
-			return key2;
-		}
-	}
-	
-	private static class IIDoubleEntry extends ADoubleEntry {
-		private final int key1;
-		private final int key2;
-		public IIDoubleEntry(long k1, long k2, double val) {
-			super(val);
-			key1 = (int)k1;
-			key2 = (int)k2;
+		private long key1;
+		private long key2;
+		public LLDoubleEntry() {
+			super(0);
 		}
 		public long getKey1() {
 			return key1;
@@ -195,40 +201,41 @@ public class LongLongDoubleHashMap
 	}
 	
 	private class ADoubleEntryIterator implements Iterator<ADoubleEntry> {
-		private ADoubleEntry _curr;
+		private final LLDoubleEntry _entry;
 		private int _currPos;
 		
 		public ADoubleEntryIterator() {
-			_curr = null;
+			_entry = new LLDoubleEntry();
 			_currPos = -1;
 			findNext();
 		}
 		
 		@Override
 		public boolean hasNext() {
-			return (_curr != null);
+			return _currPos < keys1.length;
 		}
-
+	
 		@Override
 		public ADoubleEntry next() {
-			ADoubleEntry ret = _curr;
+			if( !hasNext() )
+				throw new NoSuchElementException();
+			if( type==EntryType.INT ) {
+				_entry.key1 = (int)(keys1[_currPos] >> 32);
+				_entry.key2 = (int)keys1[_currPos];
+			}
+			else {
+				_entry.key1 = keys1[_currPos];
+				_entry.key2 = keys2[_currPos];
+			}
+			_entry.value = values[_currPos];
 			findNext();
-			return ret;
+			return _entry;
 		}
 		
 		private void findNext() {
-			if( _curr != null && _curr.next != null ) {
-				_curr = _curr.next;
-				return;
-			}
 			_currPos++;
-			while( _currPos < data.length  ) {
-				_curr = data[_currPos];
-				if( _curr != null ) 
-					return;
+			while( _currPos < keys1.length && keys1[_currPos] == EMPTY )
 				_currPos++;
-			}
-			_curr = null;
 		}
 	}
 }
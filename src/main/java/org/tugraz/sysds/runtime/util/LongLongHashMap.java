@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.util;
+
+import java.util.Arrays;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * This native long - long hashmap uses open addressing with linear probing
+ * over primitive key and value arrays, i.e., without boxing or entry objects.
+ * In contrast to a default hashmap, lookups thus require no allocation and
+ * touch at most a few consecutive cache lines, which makes it suitable for
+ * hot paths such as result block lookups per non-zero value.
+ * 
+ * The key Long.MIN_VALUE is reserved as the marker of empty slots.
+ */
+public class LongLongHashMap
+{
+	private static final int INIT_CAPACITY = 8;
+	private static final int RESIZE_FACTOR = 2;
+	private static final float LOAD_FACTOR = 0.75f;
+	
+	public static final long EMPTY = Long.MIN_VALUE;
+	
+	private long[] keys = null;
+	private long[] values = null;
+	private int size = -1;
+	private int shift = -1;
+	
+	public LongLongHashMap() {
+		this(INIT_CAPACITY);
+	}
+	
+	public LongLongHashMap(int expectedSize) {
+		allocate(getCapacity(expectedSize));
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean containsKey(long key) {
+		return keys[findPos(key)] != EMPTY;
+	}
+	
+	public long get(long key, long dflt) {
+		int ix = findPos(key);
+		return (keys[ix] != EMPTY) ? values[ix] : dflt;
+	}
+	
+	public void put(long key, long value) {
+		checkKey(key);
+		int ix = findPos(key);
+		if( keys[ix] == EMPTY )
+			checkCapacity();
+		values[ix] = value;
+		if( keys[ix] == EMPTY ) {
+			keys[ix] = key;
+			if( ++size >= LOAD_FACTOR*keys.length )
+				resize();
+		}
+	}
+	
+	/**
+	 * Adds the given value to the existing value of the key, where
+	 * non-existing keys are initialized with the given value.
+	 * 
+	 * @param key key
+	 * @param value value to add
+	 * @return new value of the key
+	 */
+	public long addValue(long key, long value) {
+		checkKey(key);
+		int ix = findPos(key);
+		if( keys[ix] != EMPTY )
+			return values[ix] += value;
+		checkCapacity();
+		keys[ix] = key;
+		values[ix] = value;
+		if( ++size >= LOAD_FACTOR*keys.length )
+			resize();
+		return value;
+	}
+	
+	/**
+	 * Returns a copy of all keys in the order of their hash positions.
+	 * 
+	 * @return array of keys of length size
+	 */
+	public long[] getKeys() {
+		long[] ret = new long[size];
+		for( int i=0, pos=0; i<keys.length; i++ )
+			if( keys[i] != EMPTY )
+				ret[pos++] = keys[i];
+		return ret;
+	}
+	
+	private int findPos(long key) {
+		//linear probing until key or empty slot found, which
+		//always terminates because the map is never full
+		int mask = keys.length - 1;
+		int ix = hash(key, shift);
+		while( keys[ix] != EMPTY && keys[ix] != key )
+			ix = (ix + 1) & mask;
+		return ix;
+	}
+	
+	private void checkCapacity() {
+		//keep at least one empty slot, which terminates all probe sequences
+		if( size >= keys.length - 1 )
+			throw new DMLRuntimeException("LongLongHashMap exceeded max capacity of "+size+" entries.");
+	}
+	
+	private void resize() {
+		//check for integer overflow on resize (at max capacity,
+		//inserts continue until the last empty slot is reached)
+		if( keys.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+			return;
+		
+		//rehash all entries into the enlarged arrays
+		long[] oldkeys = keys;
+		long[] oldvalues = values;
+		allocate(keys.length*RESIZE_FACTOR);
+		for( int i=0; i<oldkeys.length; i++ )
+			if( oldkeys[i] != EMPTY ) {
+				int ix = findPos(oldkeys[i]);
+				keys[ix] = oldkeys[i];
+				values[ix] = oldvalues[i];
+				size++;
+			}
+	}
+	
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+	
+	private static void checkKey(long key) {
+		if( key == EMPTY )
+			throw new DMLRuntimeException("Reserved key: "+key);
+	}
+	
+	/**
+	 * Fibonacci hashing of the key, which scrambles sequential keys
+	 * across the table and thus avoids long probe sequences.
+	 * 
+	 * @param key key
+	 * @param shift 64 - log2(capacity)
+	 * @return hash position in [0, capacity)
+	 */
+	static int hash(long key, int shift) {
+		return (int)((key * 0x9E3779B97F4A7C15L) >>> shift);
+	}
+	
+	static int getCapacity(int expectedSize) {
+		int tmp = (int) Math.min(Integer.MAX_VALUE/2, (long)Math.ceil(expectedSize/LOAD_FACTOR)+1);
+		return UtilFunctions.nextIntPow2(Math.max(tmp, INIT_CAPACITY));
+	}
+}
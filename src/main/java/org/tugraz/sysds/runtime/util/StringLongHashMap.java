@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.runtime.util;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+
+/**
+ * This native string - long hashmap uses open addressing with linear probing
+ * over a string key array and a primitive value array. It is specifically
+ * designed for recode maps of distinct tokens, where a default hashmap would
+ * create a boxed Long value and an entry object per distinct token. The hash
+ * codes of keys are kept in a parallel array in order to avoid string 
+ * comparisons for colliding keys during linear probing.
+ * 
+ * Null keys are not supported, as null marks empty slots.
+ */
+public class StringLongHashMap implements Serializable
+{
+	private static final long serialVersionUID = -3386236212454936219L;
+	
+	private static final int INIT_CAPACITY = 8;
+	private static final int RESIZE_FACTOR = 2;
+	private static final float LOAD_FACTOR = 0.75f;
+	
+	private String[] keys = null;
+	private int[] hashes = null;
+	private long[] values = null;
+	private int size = -1;
+	private int shift = -1;
+	
+	public StringLongHashMap() {
+		this(INIT_CAPACITY);
+	}
+	
+	public StringLongHashMap(int expectedSize) {
+		allocate(LongLongHashMap.getCapacity(expectedSize));
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean containsKey(String key) {
+		return key != null && keys[findPos(key, key.hashCode())] != null;
+	}
+	
+	public long get(String key, long dflt) {
+		if( key == null )
+			return dflt;
+		int ix = findPos(key, key.hashCode());
+		return (keys[ix] != null) ? values[ix] : dflt;
+	}
+	
+	public void put(String key, long value) {
+		int hash = checkKey(key).hashCode();
+		int ix = findPos(key, hash);
+		values[ix] = value;
+		if( keys[ix] == null )
+			insertKey(ix, key, hash);
+	}
+	
+	/**
+	 * Inserts the given key with the given value if the key does not 
+	 * exist yet, which requires only a single probe sequence.
+	 * 
+	 * @param key key
+	 * @param value value
+	 * @return true if the key was inserted
+	 */
+	public boolean putIfAbsent(String key, long value) {
+		int hash = checkKey(key).hashCode();
+		int ix = findPos(key, hash);
+		if( keys[ix] != null )
+			return false;
+		values[ix] = value;
+		insertKey(ix, key, hash);
+		return true;
+	}
+	
+	/**
+	 * Returns an iterator over all entries. Note that the iterator
+	 * reuses a single entry object in order to avoid allocations.
+	 * 
+	 * @return iterator over all entries
+	 */
+	public Iterator<StringLongEntry> getIterator() {
+		return new StringLongEntryIterator();
+	}
+	
+	private void insertKey(int ix, String key, int hash) {
+		//keep at least one empty slot, which terminates all probe sequences
+		if( size >= keys.length - 1 )
+			throw new DMLRuntimeException("StringLongHashMap exceeded max capacity of "+size+" entries.");
+		keys[ix] = key;
+		hashes[ix] = hash;
+		if( ++size >= LOAD_FACTOR*keys.length )
+			resize();
+	}
+	
+	private int findPos(String key, int hash) {
+		//linear probing until key or empty slot found
+		int mask = keys.length - 1;
+		int ix = LongLongHashMap.hash(hash, shift);
+		while( keys[ix] != null && (hashes[ix] != hash || !keys[ix].equals(key)) )
+			ix = (ix + 1) & mask;
+		return ix;
+	}
+	
+	private int findEmptyPos(int hash) {
+		//linear probing for rehashing of distinct keys
+		int mask = keys.length - 1;
+		int ix = LongLongHashMap.hash(hash, shift);
+		while( keys[ix] != null )
+			ix = (ix + 1) & mask;
+		return ix;
+	}
+	
+	private void resize() {
+		//check for integer overflow on resize (at max capacity,
+		//inserts continue until the last empty slot is reached)
+		if( keys.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+			return;
+		
+		//rehash all entries into the enlarged arrays
+		String[] oldkeys = keys;
+		int[] oldhashes = hashes;
+		long[] oldvalues = values;
+		allocate(keys.length*RESIZE_FACTOR);
+		for( int i=0; i<oldkeys.length; i++ )
+			if( oldkeys[i] != null ) {
+				int ix = findEmptyPos(oldhashes[i]);
+				keys[ix] = oldkeys[i];
+				hashes[ix] = oldhashes[i];
+				values[ix] = oldvalues[i];
+				size++;
+			}
+	}
+	
+	private void allocate(int capacity) {
+		keys = new String[capacity];
+		hashes = new int[capacity];
+		values = new long[capacity];
+		size = 0;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+	
+	private static String checkKey(String key) {
+		if( key == null )
+			throw new NullPointerException("Unsupported null key.");
+		return key;
+	}
+	
+	public static class StringLongEntry {
+		private String key;
+		private long value;
+		public String getKey() {
+			return key;
+		}
+		public long getValue() {
+			return value;
+		}
+	}
+	
+	private class StringLongEntryIterator implements Iterator<StringLongEntry> {
+		private final StringLongEntry _entry = new StringLongEntry();
+		private int _currPos;
+		
+		public StringLongEntryIterator() {
+			_currPos = -1;
+			findNext();
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return _currPos < keys.length;
+		}
+		
+		@Override
+		public StringLongEntry next() {
+			if( !hasNext() )
+				throw new NoSuchElementException();
+			_entry.key = keys[_currPos];
+			_entry.value = values[_currPos];
+			findNext();
+			return _entry;
+		}
+		
+		private void findNext() {
+			_currPos++;
+			while( _currPos < keys.length && keys[_currPos] == null )
+				_currPos++;
+		}
+	}
+}
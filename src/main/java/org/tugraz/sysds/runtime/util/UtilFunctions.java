@@ -320,12 +320,96 @@ public class UtilFunctions
 	}
 	
 	public static float[] toFloat(double[] data) {
-		float[] ret = new float[data.length];
-		for( int i=0; i<data.length; i++ )
+		return toFloat(data, data.length, null);
+	}
+	
+	/**
+	 * Converts the first len values into the given float array, 
+	 * which is allocated if null or too small.
+	 * 
+	 * @param data double array
+	 * @param len number of values
+	 * @param ret float array for reuse, or null
+	 * @return float array
+	 */
+	public static float[] toFloat(double[] data, int len, float[] ret) {
+		if( ret == null || ret.length < len )
+			ret = new float[len];
+		for( int i=0; i<len; i++ )
 			ret[i] = (float)data[i];
 		return ret;
 	}
 	
+	/**
+	 * Converts a float into the bits of an IEEE 754 half-precision
+	 * float (FP16), with round-to-nearest-even and overflow to infinity.
+	 * 
+	 * @param val input value
+	 * @return FP16 bits
+	 */
+	public static short toFP16(float val) {
+		int bits = Float.floatToIntBits(val);
+		int sign = (bits >>> 16) & 0x8000;
+		int aval = bits & 0x7fffffff;
+		if( aval >= 0x7f800000 ) //NaN, infinity
+			return (short)(sign | 0x7c00 | ((aval > 0x7f800000) ? 0x200 : 0));
+		if( aval >= 0x47800000 ) //overflow
+			return (short)(sign | 0x7c00);
+		if( aval < 0x38800000 ) { //subnormal or zero
+			if( aval < 0x33000000 )
+				return (short)sign;
+			int mant = (aval & 0x7fffff) | 0x800000;
+			int shift = 126 - (aval >>> 23);
+			int h = mant >> shift;
+			int rem = mant & ((1 << shift) - 1);
+			int half = 1 << (shift - 1);
+			if( rem > half || (rem == half && (h & 1) != 0) )
+				h++;
+			return (short)(sign | h);
+		}
+		int h = (aval - 0x38000000) >> 13;
+		int rem = aval & 0x1fff;
+		if( rem > 0x1000 || (rem == 0x1000 && (h & 1) != 0) )
+			h++;
+		return (short)(sign | h);
+	}
+	
+	public static float fromFP16(short val) {
+		int bits = val & 0xffff;
+		int sign = (bits & 0x8000) << 16;
+		int exp = (bits >>> 10) & 0x1f;
+		int mant = bits & 0x3ff;
+		if( exp == 0 ) { //subnormal or zero
+			float ret = mant * 5.9604645E-8f; //2^-24
+			return (sign != 0) ? -ret : ret;
+		}
+		if( exp == 0x1f ) //NaN, infinity
+			return Float.intBitsToFloat(sign | 0x7f800000 | (mant << 13));
+		return Float.intBitsToFloat(sign | ((exp + 112) << 23) | (mant << 13));
+	}
+	
+	/**
+	 * Converts a float into the bits of a bfloat16 (BF16), i.e., the
+	 * upper 16 bits of an FP32 with round-to-nearest-even.
+	 * 
+	 * @param val input value
+	 * @return BF16 bits
+	 */
+	public static short toBF16(float val) {
+		int bits = Float.floatToIntBits(val);
+		if( Float.isNaN(val) )
+			return (short)((bits >>> 16) | 0x40);
+		return (short)((bits + 0x7fff + ((bits >>> 16) & 1)) >>> 16);
+	}
+	
+	public static float fromBF16(short val) {
+		return Float.intBitsToFloat((val & 0xffff) << 16);
+	}
+	
+	public static byte toInt8(double val) {
+		return (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, toInt(val)));
+	}
+	
 	public static long getSeqLength(double from, double to, double incr) {
 		return getSeqLength(from, to, incr, true);
 	}
@@ -615,6 +699,21 @@ public class UtilFunctions
 		return lnnz;
 	}
 	
+	public static int computeNnz(byte[] a, int ai, int len) {
+		int lnnz = 0;
+		for( int i=ai; i<ai+len; i++ )
+			lnnz += (a[i] != 0) ? 1 : 0;
+		return lnnz;
+	}
+	
+	public static int computeNnz(short[] a, int ai, int len) {
+		//note: FP16/BF16 bits, w/ masked sign to treat -0 as zero
+		int lnnz = 0;
+		for( int i=ai; i<ai+len; i++ )
+			lnnz += ((a[i] & 0x7fff) != 0) ? 1 : 0;
+		return lnnz;
+	}
+	
 	public static int computeNnz(BitSet a, int ai, int len) {
 		int lnnz = 0;
 		for( int i=ai; i<ai+len; i++ )
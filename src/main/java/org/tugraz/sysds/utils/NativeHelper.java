@@ -325,6 +325,16 @@ public class NativeHelper {
 	public static native boolean smmdd(FloatBuffer m1, FloatBuffer m2, FloatBuffer ret, int m1rlen, int m1clen, int m2clen, int numThreads);
 	//transpose-self matrix multiply
 	public static native boolean tsmm(double[] m1, double[] ret, int m1rlen, int m1clen, boolean leftTrans, int numThreads);
+	
+	// LAPACK factorizations and solvers over row-major dense inputs of shape (n, n), all in-place:
+	//lower triangular cholesky factor (upper triangle unchanged)
+	public static native boolean dcholesky(double[] a, int n, int numThreads);
+	//lu decomposition with partial pivoting (1-based row interchanges in ipiv)
+	public static native boolean dlu(double[] a, int[] ipiv, int n, int numThreads);
+	//solve a * x = b, with x overwriting b of shape (n, nrhs)
+	public static native boolean dsolve(double[] a, double[] b, int n, int nrhs, int numThreads);
+	//symmetric eigen decomposition (ascending eigenvalues in w, eigenvectors as columns of a)
+	public static native boolean dsymeigen(double[] a, double[] w, int n, int numThreads);
 
 	// ----------------------------------------------------------------------------------------------------------------
 	// LibMatrixDNN operations:
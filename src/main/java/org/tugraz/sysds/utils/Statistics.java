@@ -967,6 +967,14 @@ public class Statistics
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			if( CacheStatistics.getLockWaits() > 0 || CacheStatistics.getAsyncEvictions() > 0 ) {
+				sb.append("Cache lock waits (num, time):\t" + CacheStatistics.displayContention() + " sec.\n");
+				sb.append("Cache evictions (async, sync, pending hits):\t" + CacheStatistics.displayEvictions() + ".\n");
+			}
+			if( CacheStatistics.getPrefetches() > 0 || CacheStatistics.getPrefetchMisses() > 0 )
+				sb.append("Cache prefetch (num, hits, misses):\t" + CacheStatistics.displayPrefetch() + ".\n");
+			if( CacheStatistics.getCompressed() > 0 || CacheStatistics.getCompressionSkipped() > 0 )
+				sb.append("Cache compression (num, skip, ratio, comp/decomp):\t" + CacheStatistics.displayCompression() + " sec.\n");
 			if (DMLScript.JMLC_MEM_STATISTICS)
 				sb.append("Max size of live objects:\t" + byteCountToDisplaySize(getSizeofPinnedObjects()) + " ("  + getNumPinnedObjects() + " total objects)" + "\n");
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.lops.MMTSJ.MMTSJType;
+import org.tugraz.sysds.lops.MapMultChain.ChainType;
+import org.tugraz.sysds.runtime.compress.ColGroup;
+import org.tugraz.sysds.runtime.compress.ColGroup.CompressionType;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.tugraz.sysds.runtime.functionobjects.Multiply;
+import org.tugraz.sysds.runtime.functionobjects.Plus;
+import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class CompressedMatrixTest extends AutomatedTestBase
+{
+	private final static int rows = 2345;
+	private final static int cols = 5;
+	private final static double eps = 1e-9;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCompressionColGroupTypes() {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		HashSet<CompressionType> types = new HashSet<>();
+		for( ColGroup grp : cmb.getColGroups() )
+			types.add(grp.getCompType());
+		Assert.assertTrue(types.contains(CompressionType.DDC));
+		Assert.assertTrue(types.contains(CompressionType.OLE));
+		Assert.assertTrue(types.contains(CompressionType.RLE));
+		Assert.assertTrue(types.contains(CompressionType.UNCOMPRESSED));
+		Assert.assertTrue(cmb.getInMemorySize() < mb.getInMemorySize());
+		Assert.assertEquals(mb.getNonZeros(), cmb.getNonZeros());
+	}
+	
+	@Test
+	public void testCompressionIncompressible() {
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, 1.0, 7));
+		Assert.assertFalse(CompressedMatrixBlockFactory.compress(mb) instanceof CompressedMatrixBlock);
+	}
+	
+	@Test
+	public void testDecompress() {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		compareResults(mb, cmb.decompress());
+		compareResults(mb, cmb.decompress(4));
+		for( int i=0; i<rows; i+=17 )
+			for( int j=0; j<cols; j++ )
+				Assert.assertEquals(mb.quickGetValue(i, j), cmb.quickGetValue(i, j), 0);
+	}
+	
+	@Test
+	public void testRightMatrixVectorMult() {
+		runMatrixMultTest(false, 1);
+	}
+	
+	@Test
+	public void testRightMatrixMatrixMult() {
+		runMatrixMultTest(false, 7);
+	}
+	
+	@Test
+	public void testLeftVectorMatrixMult() {
+		runMatrixMultTest(true, 1);
+	}
+	
+	@Test
+	public void testLeftMatrixMatrixMult() {
+		runMatrixMultTest(true, 3);
+	}
+	
+	@Test
+	public void testTransposeSelfMatrixMultLeft() {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		compareResults(
+			mb.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT),
+			cmb.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, 4));
+	}
+	
+	@Test
+	public void testMatrixMultChainXtXv() {
+		runMatrixMultChainTest(ChainType.XtXv);
+	}
+	
+	@Test
+	public void testMatrixMultChainXtwXv() {
+		runMatrixMultChainTest(ChainType.XtwXv);
+	}
+	
+	@Test
+	public void testMatrixMultChainXtXvy() {
+		runMatrixMultChainTest(ChainType.XtXvy);
+	}
+	
+	@Test
+	public void testAggregateSum() {
+		runAggregateUnaryTest("uak+");
+	}
+	
+	@Test
+	public void testAggregateRowSums() {
+		runAggregateUnaryTest("uark+");
+	}
+	
+	@Test
+	public void testAggregateColSums() {
+		runAggregateUnaryTest("uack+");
+	}
+	
+	@Test
+	public void testAggregateMin() {
+		runAggregateUnaryTest("uamin");
+	}
+	
+	@Test
+	public void testAggregateColMax() {
+		runAggregateUnaryTest("uacmax");
+	}
+	
+	@Test
+	public void testAggregateMeanFallback() {
+		runAggregateUnaryTest("uamean");
+	}
+	
+	@Test
+	public void testScalarSparseSafe() {
+		runScalarTest(new RightScalarOperator(Multiply.getMultiplyFnObject(), 2.5));
+	}
+	
+	@Test
+	public void testScalarSparseUnsafe() {
+		runScalarTest(new RightScalarOperator(Plus.getPlusFnObject(), 1));
+	}
+	
+	@Test
+	public void testSerialization() throws Exception {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		cmb.write(new DataOutputStream(bos));
+		Assert.assertEquals(cmb.getExactSizeOnDisk(), bos.size());
+		
+		//read as compressed block
+		CompressedMatrixBlock cmb2 = new CompressedMatrixBlock();
+		cmb2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		Assert.assertEquals(cmb.getColGroups().size(), cmb2.getColGroups().size());
+		compareResults(mb, cmb2.decompress());
+		
+		//read as uncompressed block
+		MatrixBlock mb2 = new MatrixBlock();
+		mb2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		Assert.assertFalse(mb2 instanceof CompressedMatrixBlock);
+		compareResults(mb, mb2);
+	}
+	
+	private void runMatrixMultTest(boolean left, int n) {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock v = DataConverter.convertToMatrixBlock(left ?
+			TestUtils.generateTestMatrix(n, rows, -1, 1, 1.0, 3) :
+			TestUtils.generateTestMatrix(cols, n, -1, 1, 1.0, 3));
+		MatrixBlock ret1 = left ?
+			v.aggregateBinaryOperations(v, mb, new MatrixBlock(), InstructionUtils.getMatMultOperator(1)) :
+			mb.aggregateBinaryOperations(mb, v, new MatrixBlock(), InstructionUtils.getMatMultOperator(1));
+		MatrixBlock ret2 = left ?
+			cmb.aggregateBinaryOperations(v, cmb, new MatrixBlock(), InstructionUtils.getMatMultOperator(4)) :
+			cmb.aggregateBinaryOperations(cmb, v, new MatrixBlock(), InstructionUtils.getMatMultOperator(4));
+		compareResults(ret1, ret2);
+	}
+	
+	private void runMatrixMultChainTest(ChainType ctype) {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock v = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(cols, 1, -1, 1, 1.0, 3));
+		MatrixBlock w = (ctype == ChainType.XtXv) ? null : DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, 1, 0, 1, 1.0, 5));
+		compareResults(
+			mb.chainMatrixMultOperations(v, w, new MatrixBlock(), ctype),
+			cmb.chainMatrixMultOperations(v, w, new MatrixBlock(), ctype, 4));
+	}
+	
+	private void runAggregateUnaryTest(String opcode) {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock ret1 = (MatrixBlock) mb.aggregateUnaryOperations(
+			InstructionUtils.parseBasicAggregateUnaryOperator(opcode), new MatrixBlock(), -1, -1, null, true);
+		MatrixBlock ret2 = (MatrixBlock) cmb.aggregateUnaryOperations(
+			InstructionUtils.parseBasicAggregateUnaryOperator(opcode), new MatrixBlock(), -1, -1, null, true);
+		compareResults(ret1, ret2);
+	}
+	
+	private void runScalarTest(ScalarOperator op) {
+		MatrixBlock mb = createInput();
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock ret1 = (MatrixBlock) mb.scalarOperations(op, new MatrixBlock());
+		MatrixBlock ret2 = (MatrixBlock) cmb.scalarOperations(op, new MatrixBlock());
+		Assert.assertTrue(ret2 instanceof CompressedMatrixBlock);
+		compareResults(ret1, ret2);
+		Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+	
+	private static CompressedMatrixBlock compress(MatrixBlock mb) {
+		MatrixBlock ret = CompressedMatrixBlockFactory.compress(mb, 4);
+		Assert.assertTrue(ret instanceof CompressedMatrixBlock);
+		return (CompressedMatrixBlock) ret;
+	}
+	
+	private static void compareResults(MatrixBlock expected, MatrixBlock actual) {
+		if( actual instanceof CompressedMatrixBlock )
+			actual = ((CompressedMatrixBlock) actual).decompress();
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(expected),
+			DataConverter.convertToDoubleMatrix(actual), expected.getNumRows(), expected.getNumColumns(), eps);
+	}
+	
+	private static MatrixBlock createInput() {
+		//col 0: few distinct values (DDC), col 1: sparse few distinct (OLE),
+		//col 2: long runs (RLE), col 3: random values (uncompressed), col 4: DDC
+		double[][] A = TestUtils.generateTestMatrix(rows, cols, -1, 1, 1.0, 11);
+		double[][] S = TestUtils.generateTestMatrix(rows, 1, 0, 1, 0.1, 13);
+		for( int i=0; i<rows; i++ ) {
+			A[i][0] = Math.round(A[i][0] * 4);
+			A[i][1] = (S[i][0] != 0) ? Math.ceil(S[i][0] * 3) : 0;
+			A[i][2] = ((i / 500) % 2 == 0) ? 0 : 7;
+			A[i][4] = 1 + Math.round((A[i][4] + 1) * 2);
+		}
+		MatrixBlock ret = DataConverter.convertToMatrixBlock(A);
+		ret.examSparsity();
+		return ret;
+	}
+}
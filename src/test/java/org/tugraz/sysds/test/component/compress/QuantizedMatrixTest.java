@@ -0,0 +1,222 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.compress.ColGroup.CompressionType;
+import org.tugraz.sysds.runtime.compress.ColGroupQuantized;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlock;
+import org.tugraz.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.matrix.data.DnnParameters;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixDNN;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class QuantizedMatrixTest extends AutomatedTestBase
+{
+	private final static int rows = 345;
+	private final static int cols = 67;
+	private final static double eps = 1e-4;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testConversionFP16() {
+		Assert.assertEquals(0x3c00, UtilFunctions.toFP16(1f));
+		Assert.assertEquals((short)0xc000, UtilFunctions.toFP16(-2f));
+		Assert.assertEquals(0x7bff, UtilFunctions.toFP16(65504f));
+		Assert.assertEquals(0x7c00, UtilFunctions.toFP16(1e6f));
+		Assert.assertEquals(0x0001, UtilFunctions.toFP16((float)Math.pow(2, -24)));
+		Assert.assertTrue(Float.isNaN(UtilFunctions.fromFP16(UtilFunctions.toFP16(Float.NaN))));
+		for( float v : new float[]{0.1f, -3.14159f, 1234.5f, 6.1e-5f, 1e-6f} )
+			Assert.assertEquals(v, UtilFunctions.fromFP16(UtilFunctions.toFP16(v)),
+				Math.max(Math.abs(v) * Math.pow(2, -11), Math.pow(2, -25)));
+	}
+	
+	@Test
+	public void testConversionBF16() {
+		Assert.assertEquals(0x3f80, UtilFunctions.toBF16(1f));
+		Assert.assertEquals((short)0xc000, UtilFunctions.toBF16(-2f));
+		Assert.assertTrue(Float.isNaN(UtilFunctions.fromBF16(UtilFunctions.toBF16(Float.NaN))));
+		for( float v : new float[]{0.1f, -3.14159f, 1234.5f, 1e30f, 1e-30f} )
+			Assert.assertEquals(v, UtilFunctions.fromBF16(UtilFunctions.toBF16(v)),
+				Math.abs(v) * Math.pow(2, -8));
+	}
+	
+	@Test
+	public void testConversionInt8() {
+		Assert.assertEquals(127, UtilFunctions.toInt8(300));
+		Assert.assertEquals(-128, UtilFunctions.toInt8(-300));
+		Assert.assertEquals(-7, UtilFunctions.toInt8(-7));
+	}
+	
+	@Test
+	public void testQuantizeInt8() {
+		runQuantizeTest(ValueType.INT8);
+	}
+	
+	@Test
+	public void testQuantizeFP16() {
+		runQuantizeTest(ValueType.FP16);
+	}
+	
+	@Test
+	public void testQuantizeBF16() {
+		runQuantizeTest(ValueType.BF16);
+	}
+	
+	@Test
+	public void testMatMultRightInt8() {
+		runMatrixMultTest(ValueType.INT8, false);
+	}
+	
+	@Test
+	public void testMatMultRightFP16() {
+		runMatrixMultTest(ValueType.FP16, false);
+	}
+	
+	@Test
+	public void testMatMultRightBF16() {
+		runMatrixMultTest(ValueType.BF16, false);
+	}
+	
+	@Test
+	public void testMatMultLeftInt8() {
+		runMatrixMultTest(ValueType.INT8, true);
+	}
+	
+	@Test
+	public void testMatMultLeftFP16() {
+		runMatrixMultTest(ValueType.FP16, true);
+	}
+	
+	@Test
+	public void testMatMultLeftBF16() {
+		runMatrixMultTest(ValueType.BF16, true);
+	}
+	
+	@Test
+	public void testSerializationInt8() throws Exception {
+		runSerializationTest(ValueType.INT8);
+	}
+	
+	@Test
+	public void testSerializationFP16() throws Exception {
+		runSerializationTest(ValueType.FP16);
+	}
+	
+	@Test
+	public void testConv2dInt8() {
+		runConv2dTest(ValueType.INT8);
+	}
+	
+	@Test
+	public void testConv2dBF16() {
+		runConv2dTest(ValueType.BF16);
+	}
+	
+	private void runQuantizeTest(ValueType vt) {
+		MatrixBlock mb = createInput(rows, cols, 1.0, 7);
+		CompressedMatrixBlock cmb = CompressedMatrixBlockFactory.quantize(mb, vt);
+		Assert.assertTrue(cmb.isQuantized());
+		Assert.assertEquals(CompressionType.QUANTIZED, cmb.getColGroups().get(0).getCompType());
+		Assert.assertTrue(cmb.getInMemorySize() < mb.getInMemorySize());
+		
+		//element-wise error bounds of the respective encoding
+		MatrixBlock dmb = cmb.decompress();
+		double scale = ((ColGroupQuantized)cmb.getColGroups().get(0)).getScale();
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				double v = mb.quickGetValue(i, j);
+				double tol = (vt == ValueType.INT8) ? scale / 2 :
+					Math.abs(v) * Math.pow(2, (vt == ValueType.FP16) ? -11 : -8) + 1e-7;
+				Assert.assertEquals(v, dmb.quickGetValue(i, j), tol);
+			}
+	}
+	
+	private void runMatrixMultTest(ValueType vt, boolean left) {
+		MatrixBlock mb = createInput(rows, cols, 0.7, 7);
+		MatrixBlock v = left ? createInput(23, rows, 0.9, 3) : createInput(cols, 23, 0.1, 3);
+		CompressedMatrixBlock cmb = CompressedMatrixBlockFactory.quantize(mb, vt);
+		MatrixBlock dmb = cmb.decompress();
+		
+		//compare against FP64 matrix multiplication of the dequantized matrix
+		MatrixBlock ret1 = left ?
+			dmb.aggregateBinaryOperations(v, dmb, new MatrixBlock(), InstructionUtils.getMatMultOperator(1)) :
+			dmb.aggregateBinaryOperations(dmb, v, new MatrixBlock(), InstructionUtils.getMatMultOperator(1));
+		MatrixBlock ret2 = left ?
+			cmb.aggregateBinaryOperations(v, cmb, new MatrixBlock(), InstructionUtils.getMatMultOperator(4)) :
+			cmb.aggregateBinaryOperations(cmb, v, new MatrixBlock(), InstructionUtils.getMatMultOperator(4));
+		compareResults(ret1, ret2);
+	}
+	
+	private void runSerializationTest(ValueType vt) throws Exception {
+		MatrixBlock mb = createInput(rows, cols, 0.3, 7);
+		CompressedMatrixBlock cmb = CompressedMatrixBlockFactory.quantize(mb, vt);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		cmb.write(new DataOutputStream(bos));
+		Assert.assertEquals(cmb.getExactSizeOnDisk(), bos.size());
+		CompressedMatrixBlock cmb2 = new CompressedMatrixBlock();
+		cmb2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		Assert.assertTrue(cmb2.isQuantized());
+		Assert.assertEquals(cmb.getNonZeros(), cmb2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(cmb.decompress()),
+			DataConverter.convertToDoubleMatrix(cmb2.decompress()), rows, cols, 0);
+	}
+	
+	private void runConv2dTest(ValueType vt) {
+		int N = 3, C = 2, H = 9, W = 9, K = 4, R = 3, S = 3;
+		MatrixBlock input = createInput(N, C*H*W, 0.8, 7);
+		MatrixBlock filter = createInput(K, C*R*S, 1.0, 3);
+		CompressedMatrixBlock qfilter = CompressedMatrixBlockFactory.quantize(filter, vt);
+		
+		//compare against FP64 convolution with the dequantized filter
+		DnnParameters params1 = new DnnParameters(N, C, H, W, K, R, S, 1, 1, 1, 1, 1);
+		MatrixBlock ret1 = new MatrixBlock(N, K*params1.P*params1.Q, false).allocateBlock();
+		LibMatrixDNN.conv2d(input, qfilter.decompress(), ret1, params1);
+		DnnParameters params2 = new DnnParameters(N, C, H, W, K, R, S, 1, 1, 1, 1, 2);
+		MatrixBlock ret2 = new MatrixBlock(N, K*params2.P*params2.Q, false).allocateBlock();
+		LibMatrixDNN.conv2d(input, qfilter, ret2, params2);
+		compareResults(ret1, ret2);
+	}
+	
+	private static void compareResults(MatrixBlock expected, MatrixBlock actual) {
+		//FP32 accumulation, so relative tolerance w.r.t. the max value
+		double tol = eps * Math.max(1, expected.max());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(expected),
+			DataConverter.convertToDoubleMatrix(actual), expected.getNumRows(), expected.getNumColumns(), tol);
+	}
+	
+	private static MatrixBlock createInput(int rows, int cols, double sparsity, long seed) {
+		return DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity, seed));
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.frame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.matrix.data.FrameArrowColumn;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+public class FrameArrowColumnTest 
+{
+	private final static int rows = 1031;
+	private final static ValueType[] schema = new ValueType[]{
+		ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN};
+	private final static String[] names = new String[]{"s", "d", "l", "b"};
+	
+	@Test
+	public void testArrowBufferLayout() {
+		FrameArrowColumn col = FrameArrowColumn.create(new String[]{"ab", null, "", "äx"}, 4);
+		Assert.assertArrayEquals(new int[]{0, 2, 2, 2, 5}, col.getOffsetBuffer());
+		Assert.assertArrayEquals(new byte[]{0x0D}, col.getValidityBuffer());
+		Assert.assertEquals(1, col.getNullCount());
+		Assert.assertEquals("äx", col.getString(3));
+		Assert.assertNull(col.getString(1));
+		Assert.assertEquals("", col.getString(2));
+		
+		FrameArrowColumn bcol = FrameArrowColumn.create(
+			new boolean[]{true, false, false, true, true, false, false, false, true}, 9);
+		Assert.assertArrayEquals(new byte[]{0x19, 0x01}, bcol.getByteBuffer());
+		Assert.assertNull(bcol.getValidityBuffer());
+	}
+	
+	@Test
+	public void testArrowRoundtrip() {
+		FrameBlock frame = createFrame();
+		FrameBlock frame2 = importFrame(frame);
+		checkEquals(frame, frame2);
+		
+		//zero-copy export of imported and numeric columns
+		for( int j=0; j<3; j++ )
+			Assert.assertSame(frame2.getArrowColumn(j).getValueType(), schema[j]);
+		Assert.assertSame(frame.getColumnData(1), frame2.getArrowColumn(1).getDoubleBuffer());
+		Assert.assertSame(frame2.getArrowColumn(0), frame2.getArrowColumn(0));
+		Assert.assertSame(frame2.getArrowColumn(1).getDoubleBuffer(), frame2.getColumnData(1));
+		checkEquals(frame, importFrame(frame2));
+	}
+	
+	@Test
+	public void testArrowNullImport() {
+		double[] dvals = new double[]{1, 7, 3};
+		long[] lvals = new long[]{4, 7, 6};
+		byte[] validity = new byte[]{0x05};
+		FrameBlock frame = new FrameBlock();
+		frame.appendColumn(FrameArrowColumn.createDoubleColumn(3, validity, dvals));
+		frame.appendColumn(FrameArrowColumn.createLongColumn(3, validity, lvals));
+		frame.appendColumn(FrameArrowColumn.createBooleanColumn(3, validity, new byte[]{0x07}));
+		Assert.assertEquals(0d, frame.get(1, 0));
+		Assert.assertEquals(0L, frame.get(1, 1));
+		Assert.assertEquals(false, frame.get(1, 2));
+		Assert.assertEquals(true, frame.get(2, 2));
+		Assert.assertEquals(7d, dvals[1], 0); //inputs unmodified
+	}
+	
+	@Test
+	public void testArrowUpdates() {
+		FrameBlock frame = createFrame();
+		FrameBlock frame2 = importFrame(frame);
+		FrameArrowColumn col = frame2.getArrowColumn(0);
+		
+		//slice, copy, and left indexing before updates
+		checkEquals(frame.slice(10, 99, 0, 3, null), frame2.slice(10, 99, 0, 3, null));
+		checkEquals(frame, new FrameBlock(frame2));
+		FrameBlock rhs = frame.slice(0, 9, 0, 3, null);
+		checkEquals(frame.leftIndexingOperations(rhs, 100, 109, 0, 3, null),
+			frame2.leftIndexingOperations(rhs, 100, 109, 0, 3, null));
+		
+		//updates materialize the column but keep the shared buffers
+		for( FrameBlock fb : new FrameBlock[]{frame, frame2} ) {
+			fb.set(3, 0, "new");
+			fb.set(5, 0, null);
+			fb.appendRow(new Object[]{"x", 1d, 2L, true});
+		}
+		checkEquals(frame, frame2);
+		Assert.assertEquals("s3", col.getString(3));
+		checkEquals(frame.append(frame, null, false), frame2.append(frame2, null, false));
+	}
+	
+	@Test
+	public void testArrowColumnDataWriteThrough() {
+		FrameBlock frame = createFrame();
+		FrameBlock frame2 = importFrame(frame);
+		FrameArrowColumn col = frame2.getArrowColumn(0);
+		
+		//column data is the backing array of the materialized column
+		String[] data = (String[]) frame2.getColumnData(0);
+		Assert.assertSame(data, frame2.getColumnData(0));
+		data[3] = "new";
+		frame.set(3, 0, "new");
+		checkEquals(frame, frame2);
+		Assert.assertEquals("s3", col.getString(3));
+	}
+	
+	@Test
+	public void testArrowSerialization() throws IOException {
+		FrameBlock frame = createFrame();
+		frame.setColumnNames(names);
+		FrameBlock frame2 = importFrame(frame);
+		frame2.setColumnNames(names);
+		
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		frame2.write(new DataOutputStream(bos));
+		Assert.assertEquals(frame.getExactSerializedSize(), bos.size());
+		Assert.assertEquals(frame2.getExactSerializedSize(), bos.size());
+		
+		FrameBlock frame3 = new FrameBlock();
+		frame3.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		checkEquals(frame, frame3);
+	}
+	
+	private static FrameBlock createFrame() {
+		FrameBlock frame = new FrameBlock(schema, names);
+		Object[] row = new Object[schema.length];
+		for( int i=0; i<rows; i++ ) {
+			row[0] = (i % 5 == 0) ? null : "s" + i;
+			row[1] = (double) i / 3;
+			row[2] = (long) i * 7;
+			row[3] = (i % 3 == 0);
+			frame.appendRow(row);
+		}
+		return frame;
+	}
+	
+	private static FrameBlock importFrame(FrameBlock frame) {
+		FrameBlock ret = new FrameBlock();
+		for( int j=0; j<frame.getNumColumns(); j++ )
+			ret.appendColumn(frame.getArrowColumn(j));
+		return ret;
+	}
+	
+	private static void checkEquals(FrameBlock fb1, FrameBlock fb2) {
+		Assert.assertEquals(fb1.getNumRows(), fb2.getNumRows());
+		Assert.assertEquals(fb1.getNumColumns(), fb2.getNumColumns());
+		for( int i=0; i<fb1.getNumRows(); i++ )
+			for( int j=0; j<fb1.getNumColumns(); j++ ) {
+				String v1 = UtilFunctions.objectToString(fb1.get(i, j));
+				String v2 = UtilFunctions.objectToString(fb2.get(i, j));
+				Assert.assertEquals("Wrong value at ("+i+","+j+")", v1, v2);
+			}
+	}
+}
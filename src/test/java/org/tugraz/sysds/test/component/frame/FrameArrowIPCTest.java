@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.component.frame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.io.FrameReaderArrow;
+import org.tugraz.sysds.runtime.io.FrameWriterArrow;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class FrameArrowIPCTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/frame/io/";
+	
+	private final static int rows = 1593;
+	private final static ValueType[] schema = new ValueType[]{
+		ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN, ValueType.STRING};
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testArrowStream() {
+		runArrowIPCTest(false, FrameWriterArrow.DEFAULT_BATCH_SIZE);
+	}
+	
+	@Test
+	public void testArrowStreamBatches() {
+		runArrowIPCTest(false, 256);
+	}
+	
+	@Test
+	public void testArrowFile() {
+		runArrowIPCTest(true, FrameWriterArrow.DEFAULT_BATCH_SIZE);
+	}
+	
+	@Test
+	public void testArrowFileBatches() {
+		runArrowIPCTest(true, 256);
+	}
+	
+	@Test
+	public void testArrowStreamFraming() throws Exception {
+		FrameBlock fb = createFrame(10);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		new FrameWriterArrow(8).writeFrameToOutputStream(fb, bos);
+		ByteBuffer bb = ByteBuffer.wrap(bos.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+		
+		//schema and two record batches w/ 8-byte aligned metadata and bodies
+		int pos = 0;
+		for( int k=0; k<3; k++ ) {
+			Assert.assertEquals(0xFFFFFFFF, bb.getInt(pos));
+			int metaLen = bb.getInt(pos + 4);
+			Assert.assertEquals(0, (8 + metaLen) % 8);
+			int msg = pos + 8 + bb.getInt(pos + 8);
+			int vt = msg - bb.getInt(msg);
+			long bodyLen = (bb.getShort(vt) > 4 + 2*3) ? bb.getLong(msg + bb.getShort(vt + 4 + 2*3)) : 0;
+			Assert.assertEquals(0, bodyLen % 8);
+			pos += 8 + metaLen + (int)bodyLen;
+		}
+		//end-of-stream marker
+		Assert.assertEquals(pos + 8, bb.capacity());
+		Assert.assertEquals(0xFFFFFFFF, bb.getInt(pos));
+		Assert.assertEquals(0, bb.getInt(pos + 4));
+	}
+	
+	private static void runArrowIPCTest(boolean file, int batchSize)
+	{
+		String fname = SCRIPT_DIR + TEST_DIR + "FA";
+		
+		try
+		{
+			//write and read frame as file or stream
+			FrameBlock fb = createFrame(rows);
+			FrameWriterArrow writer = new FrameWriterArrow(batchSize);
+			FrameBlock fb2 = null;
+			if( file ) {
+				writer.writeFrameToHDFS(fb, fname, rows, schema.length);
+				fb2 = new FrameReaderArrow().readFrameFromHDFS(fname, rows, schema.length);
+			}
+			else {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				writer.writeFrameToOutputStream(fb, bos);
+				fb2 = new FrameReaderArrow().readFrameFromInputStream(
+					new ByteArrayInputStream(bos.toByteArray()), rows, schema.length);
+			}
+			
+			//compare schema, names and values
+			Assert.assertEquals(rows, fb2.getNumRows());
+			Assert.assertEquals(schema.length, fb2.getNumColumns());
+			for( int j=0; j<schema.length; j++ ) {
+				Assert.assertEquals(schema[j], fb2.getSchema()[j]);
+				Assert.assertEquals(fb.getColumnNames()[j], fb2.getColumnNames()[j]);
+				for( int i=0; i<rows; i++ )
+					Assert.assertEquals(fb.get(i, j), fb2.get(i, j));
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+	
+	private static FrameBlock createFrame(int rows) {
+		//data generation w/ nulls in string columns
+		FrameBlock fb = new FrameBlock(schema);
+		Object[] row = new Object[schema.length];
+		for( int i=0; i<rows; i++ ) {
+			row[0] = (i % 7 == 0) ? null : "s" + (i % 13);
+			row[1] = i * 0.5;
+			row[2] = (long) i;
+			row[3] = (i % 3 == 0);
+			row[4] = "r" + i + "ä";
+			fb.appendRow(row);
+		}
+		return fb;
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.frame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.transform.encode.Encoder;
+import org.tugraz.sysds.runtime.transform.encode.EncoderFactory;
+import org.tugraz.sysds.runtime.util.UtilFunctions;
+
+public class FrameDictionaryEncodingTest 
+{
+	private final static int rows = 1731;
+	private final static ValueType[] schema = new ValueType[]{ValueType.STRING, ValueType.FP64, ValueType.STRING};
+	private final static String[] names = new String[]{"cat1", "num", "cat2"};
+	
+	@Test
+	public void testDictionaryEncodeLowDistinct() {
+		FrameBlock frame = createFrame(7);
+		FrameBlock frame2 = new FrameBlock(frame);
+		frame2.dictionaryEncodeColumns();
+		Assert.assertTrue(frame2.isColumnDictionaryEncoded(0));
+		Assert.assertFalse(frame2.isColumnDictionaryEncoded(1));
+		Assert.assertTrue(frame2.isColumnDictionaryEncoded(2));
+		Assert.assertTrue(frame2.getInMemorySize() < frame.getInMemorySize());
+		checkEquals(frame, frame2);
+	}
+	
+	@Test
+	public void testDictionaryEncodeHighDistinct() {
+		FrameBlock frame = createFrame(rows);
+		frame.dictionaryEncodeColumns();
+		Assert.assertFalse(frame.isColumnDictionaryEncoded(0));
+		Assert.assertFalse(frame.isColumnDictionaryEncoded(2));
+	}
+	
+	@Test
+	public void testDictionaryUpdates() {
+		FrameBlock frame = createFrame(7);
+		FrameBlock frame2 = new FrameBlock(frame);
+		frame2.dictionaryEncodeColumns();
+		
+		//set existing, new, and null values
+		for( FrameBlock fb : new FrameBlock[]{frame, frame2} ) {
+			fb.set(3, 0, "a2");
+			fb.set(4, 0, "new");
+			fb.set(5, 2, null);
+			fb.appendRow(new Object[]{"x", 1d, null});
+		}
+		Assert.assertTrue(frame2.isColumnDictionaryEncoded(0));
+		checkEquals(frame, frame2);
+		
+		//slice, copy, and left indexing
+		checkEquals(frame.slice(10, 99, 0, 2, null), frame2.slice(10, 99, 0, 2, null));
+		FrameBlock rhs = frame.slice(0, 9, 0, 2, null);
+		checkEquals(frame.leftIndexingOperations(rhs, 100, 109, 0, 2, null),
+			frame2.leftIndexingOperations(rhs, 100, 109, 0, 2, null));
+		checkEquals(frame, new FrameBlock(frame2));
+		
+		//rbind of dictionary-encoded frames
+		checkEquals(frame.append(frame, null, false), frame2.append(frame2, null, false));
+	}
+	
+	@Test
+	public void testDictionaryColumnDataWriteThrough() {
+		FrameBlock frame = createFrame(7);
+		FrameBlock frame2 = new FrameBlock(frame);
+		frame2.dictionaryEncodeColumns();
+		
+		//column data materializes the plain column and returns the backing array
+		String[] data = (String[]) frame2.getColumnData(0);
+		Assert.assertFalse(frame2.isColumnDictionaryEncoded(0));
+		Assert.assertTrue(frame2.isColumnDictionaryEncoded(2));
+		Assert.assertSame(data, frame2.getColumnData(0));
+		data[3] = "new";
+		frame.set(3, 0, "new");
+		checkEquals(frame, frame2);
+	}
+	
+	@Test
+	public void testDictionarySerialization() throws IOException {
+		FrameBlock frame = createFrame(11);
+		FrameBlock frame2 = new FrameBlock(frame);
+		frame2.dictionaryEncodeColumns();
+		
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		frame2.write(new DataOutputStream(bos));
+		Assert.assertEquals(frame2.getExactSerializedSize(), bos.size());
+		Assert.assertTrue(bos.size() < frame.getExactSerializedSize());
+		
+		FrameBlock frame3 = new FrameBlock();
+		frame3.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		Assert.assertTrue(frame3.isColumnDictionaryEncoded(0));
+		Assert.assertFalse(frame3.isColumnDictionaryEncoded(1));
+		checkEquals(frame, frame3);
+	}
+	
+	@Test
+	public void testDictionaryRecode() {
+		FrameBlock frame = createFrame(13);
+		FrameBlock frame2 = new FrameBlock(frame);
+		frame2.dictionaryEncodeColumns();
+		Assert.assertTrue(frame2.isColumnDictionaryEncoded(0));
+		
+		String spec = "{ids: true, recode: [1, 3]}";
+		Encoder enc1 = EncoderFactory.createEncoder(spec, frame.getColumnNames(), schema, null);
+		Encoder enc2 = EncoderFactory.createEncoder(spec, frame2.getColumnNames(), schema, null);
+		MatrixBlock out1 = enc1.encode(frame, new MatrixBlock(rows, schema.length, false));
+		MatrixBlock out2 = enc2.encode(frame2, new MatrixBlock(rows, schema.length, false));
+		checkEquals(out1, out2);
+		
+		//apply with meta data of the plain frame
+		FrameBlock meta = enc1.getMetaData(new FrameBlock(schema.length, ValueType.STRING));
+		Encoder enc3 = EncoderFactory.createEncoder(spec, frame2.getColumnNames(), schema, meta);
+		MatrixBlock out3 = enc3.apply(frame2, new MatrixBlock(rows, schema.length, false));
+		checkEquals(out1, out3);
+	}
+	
+	private static FrameBlock createFrame(int distinct) {
+		FrameBlock frame = new FrameBlock(schema, names);
+		Object[] row = new Object[schema.length];
+		for( int i=0; i<rows; i++ ) {
+			row[0] = "a" + (i % distinct);
+			row[1] = (double) i;
+			row[2] = (i % 3 == 0) ? null : "b" + ((i * 7) % distinct);
+			frame.appendRow(row);
+		}
+		return frame;
+	}
+	
+	private static void checkEquals(MatrixBlock mb1, MatrixBlock mb2) {
+		for( int i=0; i<mb1.getNumRows(); i++ )
+			for( int j=0; j<mb1.getNumColumns(); j++ )
+				Assert.assertEquals("Wrong value at ("+i+","+j+")", 
+					mb1.quickGetValue(i, j), mb2.quickGetValue(i, j), 0);
+	}
+	
+	private static void checkEquals(FrameBlock fb1, FrameBlock fb2) {
+		Assert.assertEquals(fb1.getNumRows(), fb2.getNumRows());
+		Assert.assertEquals(fb1.getNumColumns(), fb2.getNumColumns());
+		for( int i=0; i<fb1.getNumRows(); i++ )
+			for( int j=0; j<fb1.getNumColumns(); j++ ) {
+				String v1 = UtilFunctions.objectToString(fb1.get(i, j));
+				String v2 = UtilFunctions.objectToString(fb2.get(i, j));
+				Assert.assertEquals("Wrong value at ("+i+","+j+")", v1, v2);
+			}
+	}
+}
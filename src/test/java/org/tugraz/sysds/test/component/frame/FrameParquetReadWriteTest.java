@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.frame;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.conf.CompilerConfig;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesParquet;
+import org.tugraz.sysds.runtime.io.FrameReader;
+import org.tugraz.sysds.runtime.io.FrameReaderFactory;
+import org.tugraz.sysds.runtime.io.FrameWriter;
+import org.tugraz.sysds.runtime.io.FrameWriterFactory;
+import org.tugraz.sysds.runtime.io.WriterParquet;
+import org.tugraz.sysds.runtime.matrix.data.FrameBlock;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class FrameParquetReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/frame/io/";
+	
+	private final static int rows = 1593;
+	private final static ValueType[] schema = new ValueType[]{
+		ValueType.STRING, ValueType.FP64, ValueType.INT64, ValueType.BOOLEAN, ValueType.STRING};
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testFrameParquet() {
+		runFrameParquetTest(false, false);
+	}
+	
+	@Test
+	public void testFrameParquetParallel() {
+		runFrameParquetTest(true, false);
+	}
+	
+	@Test
+	public void testFrameParquetProjection() {
+		runFrameParquetTest(false, true);
+	}
+	
+	@Test
+	public void testFrameParquetProjectionParallel() {
+		runFrameParquetTest(true, true);
+	}
+	
+	private void runFrameParquetTest(boolean parallel, boolean projection)
+	{
+		boolean oldParBin = CompilerConfig.FLAG_PARREADWRITE_BINARY;
+		int oldRowGroupSize = WriterParquet.ROW_GROUP_SIZE;
+		String fname = SCRIPT_DIR + TEST_DIR + "FP";
+		
+		try
+		{
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = parallel;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			WriterParquet.ROW_GROUP_SIZE = 16 * 1024;
+			
+			//data generation w/ nulls in string columns
+			FrameBlock fb = new FrameBlock(schema);
+			Object[] row = new Object[schema.length];
+			for( int i=0; i<rows; i++ ) {
+				row[0] = (i % 7 == 0) ? null : "s" + (i % 13);
+				row[1] = i * 0.5;
+				row[2] = (long) i;
+				row[3] = (i % 2 == 0);
+				row[4] = "r" + i;
+				fb.appendRow(row);
+			}
+			FrameWriter writer = FrameWriterFactory.createFrameWriter(OutputInfo.ParquetOutputInfo);
+			writer.writeFrameToHDFS(fb, fname, rows, schema.length);
+			
+			//read full frame or column range
+			int cl = projection ? 2 : 1, cu = projection ? 4 : schema.length;
+			FrameReader reader = FrameReaderFactory.createFrameReader(InputInfo.ParquetInputInfo,
+				projection ? new FileFormatPropertiesParquet(cl, cu) : null);
+			FrameBlock fb2 = reader.readFrameFromHDFS(fname, rows, cu-cl+1);
+			
+			//compare schema, names and values
+			Assert.assertEquals(rows, fb2.getNumRows());
+			Assert.assertEquals(cu-cl+1, fb2.getNumColumns());
+			for( int j=cl-1; j<cu; j++ ) {
+				Assert.assertEquals(schema[j], fb2.getSchema()[j-cl+1]);
+				Assert.assertEquals(fb.getColumnNames()[j], fb2.getColumnNames()[j-cl+1]);
+				for( int i=0; i<rows; i++ )
+					Assert.assertEquals(fb.get(i, j), fb2.get(i, j-cl+1));
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = oldParBin;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			WriterParquet.ROW_GROUP_SIZE = oldRowGroupSize;
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+}
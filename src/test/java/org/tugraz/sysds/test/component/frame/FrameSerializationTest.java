@@ -25,6 +25,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -69,6 +70,16 @@ public class FrameSerializationTest extends AutomatedTestBase
 	public void testFrameMixedJava()  {
 		runFrameSerializeTest(schemaMixed, SerType.JAVA_SER);
 	}
+	
+	@Test
+	public void testFrameSpecialStringsWritable()  {
+		runFrameSpecialStringsTest(false);
+	}
+	
+	@Test
+	public void testFrameSpecialStringsWritableDict()  {
+		runFrameSpecialStringsTest(true);
+	}
 
 	
 	/**
@@ -121,6 +132,14 @@ public class FrameSerializationTest extends AutomatedTestBase
 				frame = (FrameBlock) ois.readObject();
 			}
 			
+			//check exact serialized size (utf-8 arenas, bulk primitives)
+			if( stype == SerType.WRITABLE_SER ) {
+				long size = frame.getExactSerializedSize();
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				frame.write(new DataOutputStream(bos));
+				Assert.assertEquals(size, bos.size());
+			}
+			
 			//check basic meta data
 			if( frame.getNumRows() != rows )
 				Assert.fail("Wrong number of rows: "+frame.getNumRows()+", expected: "+rows);
@@ -138,4 +157,58 @@ public class FrameSerializationTest extends AutomatedTestBase
 			throw new RuntimeException(ex);
 		}
 	}
+	
+	private void runFrameSpecialStringsTest(boolean dict)
+	{
+		try
+		{
+			//strings w/ null, empty, multi-byte, supplementary and null 
+			//characters, as well as strings beyond the writeUTF limit
+			char[] large = new char[70000];
+			Arrays.fill(large, '\u00e4');
+			String[] vals = new String[]{null, "", "a,b", "\u0000x", "\u00e4\u00f6\u00fc", 
+				"\u20ac", "\uD83D\uDE00", new String(large)};
+			FrameBlock frame = new FrameBlock(schemaMixed);
+			for( int i=0; i<rows; i++ )
+				frame.appendRow(new Object[]{vals[i%vals.length], (double)i, (long)i, i%2==0});
+			if( dict )
+				frame.dictionaryEncodeColumns();
+			Assert.assertEquals(dict, frame.isColumnDictionaryEncoded(0));
+			
+			//serialization and deserialization
+			long size = frame.getExactSerializedSize();
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			frame.write(new DataOutputStream(bos));
+			Assert.assertEquals(size, bos.size());
+			FrameBlock frame2 = new FrameBlock();
+			frame2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+			
+			//check correct values (empty strings are read as null, w/ and w/o dictionary)
+			Assert.assertEquals(rows, frame2.getNumRows());
+			for( int i=0; i<rows; i++ ) {
+				String val = vals[i%vals.length];
+				Assert.assertEquals((val==null || val.isEmpty()) ? null : val, frame2.get(i, 0));
+				Assert.assertEquals((double)i, frame2.get(i, 1));
+				Assert.assertEquals((long)i, frame2.get(i, 2));
+				Assert.assertEquals(i%2==0, frame2.get(i, 3));
+			}
+			
+			//repeated serialization and updates of deserialized frames
+			frame2.set(0, 0, "");
+			frame2.set(1, 0, "a,b");
+			bos = new ByteArrayOutputStream();
+			frame2.write(new DataOutputStream(bos));
+			Assert.assertEquals(frame2.getExactSerializedSize(), bos.size());
+			FrameBlock frame3 = new FrameBlock();
+			frame3.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+			Assert.assertNull(frame3.get(0, 0));
+			Assert.assertEquals("a,b", frame3.get(1, 0));
+			for( int i=2; i<rows; i++ )
+				Assert.assertEquals(frame2.get(i, 0), frame3.get(i, 0));
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.api.DMLScript;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheBlockCompressor;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheStatistics;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.tugraz.sysds.runtime.functionobjects.Builtin;
+import org.tugraz.sysds.runtime.functionobjects.Builtin.BuiltinCode;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.UnaryOperator;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.LocalFileUtils;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class BufferPoolCompressionTest extends AutomatedTestBase
+{
+	private final static int rows = 1593;
+	private final static int cols = 37;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testCompressionDenseRandom() {
+		runCompressionTest(0.9, false, false);
+	}
+	
+	@Test
+	public void testCompressionDenseRounded() {
+		runCompressionTest(0.9, true, true);
+	}
+	
+	@Test
+	public void testCompressionSparseRounded() {
+		runCompressionTest(0.05, true, true);
+	}
+	
+	private void runCompressionTest(double sparsity, boolean round, boolean compressible)
+	{
+		boolean oldFlag = CacheableData.CACHING_BUFFER_COMPRESSION;
+		boolean oldStats = DMLScript.STATISTICS;
+		try
+		{
+			CacheableData.CACHING_BUFFER_COMPRESSION = true;
+			DMLScript.STATISTICS = true;
+			CacheStatistics.reset();
+			CacheableData.initCaching("tmp_buffer_pool_compression_test");
+			String dir = CacheableData.cacheEvictionLocalFilePath;
+			
+			//data generation (random or low-cardinality values)
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, 0, 10, "uniform", 7);
+			if( round )
+				mb = (MatrixBlock) mb.unaryOperations(new UnaryOperator(
+					Builtin.getBuiltinFnObject(BuiltinCode.ROUND)), new MatrixBlock());
+			Assert.assertTrue(CacheBlockCompressor.isAvailable());
+			Assert.assertEquals(compressible, CacheBlockCompressor.isCompressible(mb));
+			
+			//write and read through buffer pool, before and after eviction
+			String fname = dir+"/comp_1";
+			LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb));
+			compare(mb, (MatrixBlock)LazyWriteBuffer.readBlock(fname, true));
+			LazyWriteBuffer.forceEviction();
+			Assert.assertEquals(compressible, CacheBlockCompressor.isCompressed(fname));
+			compare(mb, (MatrixBlock)LazyWriteBuffer.readBlock(fname, true));
+			
+			//direct write and read of spill file
+			String fname2 = dir+"/comp_2";
+			CacheBlockCompressor.writeCacheBlockToLocal(fname2, mb);
+			Assert.assertEquals(compressible, CacheBlockCompressor.isCompressed(fname2));
+			compare(mb, (MatrixBlock)LocalFileUtils.readCacheBlockFromLocal(fname2, true));
+			
+			//compression statistics
+			Assert.assertEquals(compressible, CacheStatistics.getCompressed() > 0);
+			Assert.assertEquals(!compressible, CacheStatistics.getCompressionSkipped() > 0);
+			if( compressible )
+				Assert.assertTrue(CacheStatistics.getCompressionRatio() > 1);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.CACHING_BUFFER_COMPRESSION = oldFlag;
+			DMLScript.STATISTICS = oldStats;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	private static void compare(MatrixBlock mb1, MatrixBlock mb2) {
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1),
+			DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+	}
+}
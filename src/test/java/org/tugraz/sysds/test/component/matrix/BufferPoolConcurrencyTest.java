@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class BufferPoolConcurrencyTest extends AutomatedTestBase
+{
+	private final static int rows = 213;
+	private final static int cols = 47;
+	private final static int iters = 25;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testBufferPoolDenseSingleThread() {
+		runBufferPoolTest(0.9, 1, false);
+	}
+	
+	@Test
+	public void testBufferPoolDenseMultiThread() {
+		runBufferPoolTest(0.9, 16, false);
+	}
+	
+	@Test
+	public void testBufferPoolSparseMultiThread() {
+		runBufferPoolTest(0.05, 16, false);
+	}
+	
+	@Test
+	public void testBufferPoolDenseMultiThreadForce() {
+		runBufferPoolTest(0.9, 16, true);
+	}
+	
+	@Test
+	public void testBufferPoolSparseMultiThreadForce() {
+		runBufferPoolTest(0.05, 16, true);
+	}
+	
+	@Test
+	public void testBufferPoolDenseMultiThreadForceLRU() {
+		runBufferPoolTest(0.9, 16, true, RPolicy.LRU);
+	}
+	
+	@Test
+	public void testBufferPoolSparseMultiThreadForceCost() {
+		runBufferPoolTest(0.05, 16, true, RPolicy.COST);
+	}
+	
+	@Test
+	public void testBufferPoolFailedAsyncEviction() {
+		try
+		{
+			CacheableData.initCaching("tmp_buffer_pool_test");
+			String dir = CacheableData.cacheEvictionLocalFilePath;
+			
+			//block whose eviction fails (target path is a directory)
+			String fname = dir+"/bp_fail";
+			Assert.assertTrue(new File(fname).mkdirs());
+			MatrixBlock mb1 = MatrixBlock.randOperations(rows, cols, 0.9, -1, 1, "uniform", 7);
+			LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb1));
+			
+			//large block that evicts the first block asynchronously
+			long limit = LazyWriteBuffer.getWriteBufferLimit();
+			long size1 = LazyWriteBuffer.getCacheBlockSize(mb1);
+			MatrixBlock mb2 = new MatrixBlock((int)((limit - size1/2) / 8000), 1000, 1d);
+			long size2 = LazyWriteBuffer.getCacheBlockSize(mb2);
+			Assert.assertTrue(size2 <= limit && size1 + size2 > limit);
+			
+			//the failure is rethrown by the write or the next read,
+			//while the failed block remains readable from memory
+			int numFailures = 0;
+			try {
+				LazyWriteBuffer.writeBlock(dir+"/bp_large", mb2);
+			}
+			catch(IOException ex) {
+				numFailures++;
+			}
+			MatrixBlock ret = null;
+			for( int i=0; i<2 && ret == null; i++ ) {
+				try {
+					ret = (MatrixBlock) LazyWriteBuffer.readBlock(fname, true);
+				}
+				catch(IOException ex) {
+					numFailures++;
+				}
+			}
+			Assert.assertTrue(numFailures > 0);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1),
+				DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+			Assert.assertTrue(LazyWriteBuffer.getPendingEvictionSize() > 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	private void runBufferPoolTest(double sparsity, int k, boolean force) {
+		runBufferPoolTest(sparsity, k, force, RPolicy.FIFO);
+	}
+	
+	private void runBufferPoolTest(double sparsity, int k, boolean force, RPolicy policy)
+	{
+		RPolicy oldPolicy = CacheableData.CACHING_BUFFER_POLICY;
+		ExecutorService pool = Executors.newFixedThreadPool(k);
+		try
+		{
+			CacheableData.CACHING_BUFFER_POLICY = policy;
+			CacheableData.initCaching("tmp_buffer_pool_test");
+			String dir = CacheableData.cacheEvictionLocalFilePath;
+			
+			//concurrent write, (forced eviction), read, rewrite, and delete
+			List<Future<?>> tasks = new ArrayList<>();
+			for( int t=0; t<k; t++ ) {
+				final int tid = t;
+				tasks.add(pool.submit(() -> {
+					for( int i=0; i<iters; i++ ) {
+						String fname = dir+"/bp_"+tid+"_"+i;
+						MatrixBlock mb1 = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7+tid*iters+i);
+						MatrixBlock mb2 = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 3+tid*iters+i);
+						LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb1));
+						if( force && i % 3 == tid % 3 )
+							LazyWriteBuffer.forceEviction();
+						TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1), DataConverter.convertToDoubleMatrix(
+							(MatrixBlock)LazyWriteBuffer.readBlock(fname, true)), rows, cols, 0);
+						LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb2));
+						if( force && i % 2 == 0 )
+							LazyWriteBuffer.forceEviction();
+						TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb2), DataConverter.convertToDoubleMatrix(
+							(MatrixBlock)LazyWriteBuffer.readBlock(fname, true)), rows, cols, 0);
+						if( i % 2 == 1 )
+							LazyWriteBuffer.deleteBlock(fname);
+					}
+					return null;
+				}));
+			}
+			for( Future<?> task : tasks )
+				task.get();
+			
+			//all remaining blocks are written after forced eviction
+			LazyWriteBuffer.forceEviction();
+			Assert.assertEquals(0, LazyWriteBuffer.getWriteBufferSize());
+			Assert.assertEquals(0, LazyWriteBuffer.getPendingEvictionSize());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+			CacheableData.CACHING_BUFFER_POLICY = oldPolicy;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+}
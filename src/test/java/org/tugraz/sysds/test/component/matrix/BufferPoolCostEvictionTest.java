@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.controlprogram.caching.ByteBuffer;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class BufferPoolCostEvictionTest extends AutomatedTestBase
+{
+	private final static int rows = 1000;
+	private final static int cols = 10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCostEvictionAccessFrequency() {
+		runCostEvictionTest(0.9, false);
+	}
+	
+	@Test
+	public void testCostEvictionAccessFrequencySparse() {
+		runCostEvictionTest(0.05, false);
+	}
+	
+	@Test
+	public void testCostEvictionReuseHints() {
+		runCostEvictionTest(0.9, true);
+	}
+	
+	@Test
+	public void testCostEvictionReuseHintsSparse() {
+		runCostEvictionTest(0.05, true);
+	}
+	
+	private void runCostEvictionTest(double sparsity, boolean hints)
+	{
+		RPolicy oldPolicy = CacheableData.CACHING_BUFFER_POLICY;
+		try
+		{
+			CacheableData.CACHING_BUFFER_POLICY = RPolicy.COST;
+			CacheableData.initCaching("tmp_buffer_pool_cost_test");
+			String dir = CacheableData.cacheEvictionLocalFilePath;
+			String f1 = dir+"/cost_1", f2 = dir+"/cost_2", f3 = dir+"/cost_3";
+			
+			//three blocks of equal size and restore cost
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			for( String fname : new String[]{f1, f2, f3} )
+				LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb));
+			ByteBuffer bb = new ByteBuffer(LazyWriteBuffer.getCacheBlockSize(mb));
+			
+			//scores depend on measured (de)serialization times,
+			//so we compare the scores of a block before and after
+			double s2a = LazyWriteBuffer.getEvictionScore(f2, bb);
+			if( !hints ) {
+				//frequently accessed blocks have higher scores
+				for( int i=0; i<3; i++ )
+					LazyWriteBuffer.readBlock(f2, true);
+				Assert.assertTrue(LazyWriteBuffer.getEvictionScore(f2, bb) > s2a);
+			}
+			else {
+				//reused blocks have higher, dead blocks lowest scores
+				LazyWriteBuffer.setReuseHints(Arrays.asList(f2), Arrays.asList(f3));
+				double s1 = LazyWriteBuffer.getEvictionScore(f1, bb);
+				double s2 = LazyWriteBuffer.getEvictionScore(f2, bb);
+				double s3 = LazyWriteBuffer.getEvictionScore(f3, bb);
+				Assert.assertTrue(s2 > s2a && s1 > s3);
+				//decaying reuse hints
+				LazyWriteBuffer.setReuseHints(Collections.emptyList(), Collections.emptyList());
+				Assert.assertTrue(LazyWriteBuffer.getEvictionScore(f2, bb) < s2);
+			}
+			
+			//lowest score evicted first, remaining blocks still readable
+			LazyWriteBuffer.forceEviction();
+			for( String fname : new String[]{f1, f2, f3} ) {
+				MatrixBlock mb2 = (MatrixBlock) LazyWriteBuffer.readBlock(fname, true);
+				Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.CACHING_BUFFER_POLICY = oldPolicy;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+}
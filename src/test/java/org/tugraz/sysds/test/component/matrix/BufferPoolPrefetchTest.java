@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.api.DMLScript;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheStatistics;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class BufferPoolPrefetchTest extends AutomatedTestBase
+{
+	private final static int rows = 1021;
+	private final static int cols = 47;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testPrefetchHit() {
+		runPrefetchTest(false, false);
+	}
+	
+	@Test
+	public void testPrefetchRewrite() {
+		runPrefetchTest(true, false);
+	}
+	
+	@Test
+	public void testPrefetchDelete() {
+		runPrefetchTest(false, true);
+	}
+	
+	@Test
+	public void testPrefetchBufferLimit() {
+		int oldPrefetch = CacheableData.CACHING_PREFETCH;
+		try
+		{
+			CacheableData.CACHING_PREFETCH = 1;
+			CacheableData.initCaching("tmp_buffer_pool_prefetch_test");
+			String dir = CacheableData.cacheEvictionLocalFilePath;
+			String fname = dir+"/prefetch_4", fname2 = dir+"/prefetch_large";
+			MatrixBlock mb1 = MatrixBlock.randOperations(rows, cols, 0.7, 0, 1, "uniform", 3);
+			LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb1));
+			LazyWriteBuffer.forceEviction();
+			
+			//large block that fills the buffer pool up to the limit
+			long limit = LazyWriteBuffer.getWriteBufferLimit();
+			long size1 = LazyWriteBuffer.getCacheBlockSize(mb1);
+			MatrixBlock mb2 = new MatrixBlock((int)((limit - size1/2) / 8000), 1000, 1d);
+			Assert.assertTrue(LazyWriteBuffer.getCacheBlockSize(mb2) <= limit);
+			
+			//prefetch skipped if buffered bytes leave no room
+			LazyWriteBuffer.writeBlock(fname2, mb2);
+			Assert.assertFalse(LazyWriteBuffer.prefetchBlock(fname, true));
+			LazyWriteBuffer.deleteBlock(fname2);
+			
+			//prefetch cancelled if a write requires its room
+			Assert.assertTrue(LazyWriteBuffer.prefetchBlock(fname, true));
+			LazyWriteBuffer.writeBlock(fname2, mb2);
+			Assert.assertFalse(LazyWriteBuffer.isPrefetched(fname));
+			Assert.assertTrue(LazyWriteBuffer.getWriteBufferSize() <= limit);
+			LazyWriteBuffer.deleteBlock(fname2);
+			compare(mb1, (MatrixBlock)LazyWriteBuffer.readBlock(fname, true));
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.CACHING_PREFETCH = oldPrefetch;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	private void runPrefetchTest(boolean rewrite, boolean delete)
+	{
+		int oldPrefetch = CacheableData.CACHING_PREFETCH;
+		boolean oldStats = DMLScript.STATISTICS;
+		try
+		{
+			CacheableData.CACHING_PREFETCH = 1;
+			DMLScript.STATISTICS = true;
+			CacheStatistics.reset();
+			CacheableData.initCaching("tmp_buffer_pool_prefetch_test");
+			String fname = CacheableData.cacheEvictionLocalFilePath
+				+"/prefetch_"+(rewrite ? 2 : delete ? 3 : 1); //unique per test (async delete)
+			
+			//write block and evict to local disk
+			MatrixBlock mb1 = MatrixBlock.randOperations(rows, cols, 0.7, 0, 1, "uniform", 3);
+			LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb1));
+			Assert.assertFalse(LazyWriteBuffer.prefetchBlock(fname, true)); //buffered
+			LazyWriteBuffer.forceEviction();
+			
+			//prefetch evicted block (idempotent)
+			Assert.assertTrue(LazyWriteBuffer.prefetchBlock(fname, true));
+			Assert.assertFalse(LazyWriteBuffer.prefetchBlock(fname, true));
+			Assert.assertTrue(LazyWriteBuffer.isPrefetched(fname));
+			
+			if( delete ) {
+				//delete invalidates the prefetch
+				LazyWriteBuffer.deleteBlock(fname);
+				Assert.assertFalse(LazyWriteBuffer.isPrefetched(fname));
+				Assert.assertEquals(0, CacheStatistics.getPrefetchHits());
+				return;
+			}
+			
+			MatrixBlock mb2 = mb1;
+			if( rewrite ) {
+				//rewrite invalidates the stale prefetch
+				mb2 = MatrixBlock.randOperations(rows, cols, 0.7, 0, 1, "uniform", 7);
+				LazyWriteBuffer.writeBlock(fname, new MatrixBlock(mb2));
+				Assert.assertFalse(LazyWriteBuffer.isPrefetched(fname));
+				LazyWriteBuffer.forceEviction();
+			}
+			
+			//read consumes the prefetched block or reads synchronously
+			compare(mb2, (MatrixBlock)LazyWriteBuffer.readBlock(fname, true));
+			Assert.assertFalse(LazyWriteBuffer.isPrefetched(fname));
+			Assert.assertEquals(1, CacheStatistics.getPrefetches());
+			Assert.assertEquals(rewrite ? 0 : 1, CacheStatistics.getPrefetchHits());
+			Assert.assertEquals(rewrite ? 1 : 0, CacheStatistics.getPrefetchMisses());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.CACHING_PREFETCH = oldPrefetch;
+			DMLScript.STATISTICS = oldStats;
+			CacheableData.cleanupCacheDir();
+		}
+	}
+	
+	private static void compare(MatrixBlock mb1, MatrixBlock mb2) {
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1),
+			DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+	}
+}
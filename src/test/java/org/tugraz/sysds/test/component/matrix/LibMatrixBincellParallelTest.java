@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.functionobjects.Minus;
+import org.tugraz.sysds.runtime.functionobjects.Multiply;
+import org.tugraz.sysds.runtime.functionobjects.Plus;
+import org.tugraz.sysds.runtime.functionobjects.ValueFunction;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixBincell;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.BinaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.tugraz.sysds.runtime.matrix.operators.ScalarOperator;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class LibMatrixBincellParallelTest extends AutomatedTestBase
+{
+	private final static int rows = 1200;
+	private final static int cols1 = 1000;
+	private final static int cols2 = 10000;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	private final static int k = 4;
+	private final static double eps = 1e-10;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseDensePlus() {
+		runMatrixMatrixTest(cols1, sparsity1, sparsity1, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testSparseSparseMult() {
+		runMatrixMatrixTest(cols2, sparsity2, sparsity2, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testSparseSparsePlus() {
+		runMatrixMatrixTest(cols2, sparsity2, sparsity2, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testSparseDenseMinus() {
+		runMatrixMatrixTest(cols1, sparsity2, sparsity1, Minus.getMinusFnObject());
+	}
+	
+	@Test
+	public void testDenseColVectorMult() {
+		runMatrixVectorTest(cols1, sparsity1, true, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testDenseRowVectorMinus() {
+		runMatrixVectorTest(cols1, sparsity1, false, Minus.getMinusFnObject());
+	}
+	
+	@Test
+	public void testSparseColVectorPlus() {
+		runMatrixVectorTest(cols1, sparsity2, true, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testSparseRowVectorMult() {
+		runMatrixVectorTest(cols2, sparsity2, false, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testDenseScalarMult() {
+		runMatrixScalarTest(cols1, sparsity1, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testSparseScalarMult() {
+		runMatrixScalarTest(cols2, sparsity2, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testSparseScalarPlus() {
+		runMatrixScalarTest(cols1, sparsity2, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testDenseInPlacePlus() {
+		runInPlaceTest(cols1, sparsity1, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testSparseInPlacePlus() {
+		runInPlaceTest(cols2, sparsity2, Plus.getPlusFnObject());
+	}
+	
+	private static void runMatrixMatrixTest(int cols, double sp1, double sp2, ValueFunction fn) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, sp1, -1, 1, "uniform", 7);
+		MatrixBlock m2 = MatrixBlock.randOperations(rows, cols, sp2, -1, 1, "uniform", 3);
+		Assert.assertTrue(LibMatrixBincell.satisfiesMultiThreadingConstraints(m1,
+			new MatrixBlock(rows, cols, m1.isInSparseFormat() && m2.isInSparseFormat()), k));
+		
+		MatrixBlock ret1 = (MatrixBlock) m1.binaryOperations(new BinaryOperator(fn), m2, new MatrixBlock());
+		MatrixBlock retk = (MatrixBlock) m1.binaryOperations(new BinaryOperator(fn, k), m2, new MatrixBlock());
+		compareResults(ret1, retk);
+	}
+	
+	private static void runMatrixVectorTest(int cols, double sp, boolean colVector, ValueFunction fn) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, sp, -1, 1, "uniform", 7);
+		MatrixBlock m2 = MatrixBlock.randOperations(colVector ? rows : 1,
+			colVector ? 1 : cols, 1.0, -1, 1, "uniform", 3);
+		
+		MatrixBlock ret1 = (MatrixBlock) m1.binaryOperations(new BinaryOperator(fn), m2, new MatrixBlock());
+		MatrixBlock retk = (MatrixBlock) m1.binaryOperations(new BinaryOperator(fn, k), m2, new MatrixBlock());
+		compareResults(ret1, retk);
+	}
+	
+	private static void runMatrixScalarTest(int cols, double sp, ValueFunction fn) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, sp, -1, 1, "uniform", 7);
+		ScalarOperator op = new RightScalarOperator(fn, 7);
+		
+		MatrixBlock ret1 = (MatrixBlock) m1.scalarOperations(op, new MatrixBlock());
+		MatrixBlock retk = (MatrixBlock) m1.scalarOperations(op.setNumThreads(k), new MatrixBlock());
+		Assert.assertEquals(k, op.setNumThreads(k).setConstant(3).getNumThreads());
+		compareResults(ret1, retk);
+	}
+	
+	private static void runInPlaceTest(int cols, double sp, ValueFunction fn) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, sp, -1, 1, "uniform", 7);
+		MatrixBlock m2 = MatrixBlock.randOperations(rows, cols, sp, -1, 1, "uniform", 3);
+		MatrixBlock ret1 = new MatrixBlock(m1);
+		MatrixBlock retk = new MatrixBlock(m1);
+		
+		ret1.binaryOperationsInPlace(new BinaryOperator(fn), m2);
+		retk.binaryOperationsInPlace(new BinaryOperator(fn, k), m2);
+		compareResults(ret1, retk);
+	}
+	
+	private static void compareResults(MatrixBlock expected, MatrixBlock actual) {
+		Assert.assertEquals(expected.isInSparseFormat(), actual.isInSparseFormat());
+		Assert.assertEquals(expected.getNonZeros(), actual.getNonZeros());
+		Assert.assertEquals(actual.getNonZeros(), new MatrixBlock(actual).recomputeNonZeros());
+		for( int i=0; i<expected.getNumRows(); i++ )
+			for( int j=0; j<expected.getNumColumns(); j++ )
+				Assert.assertEquals(expected.quickGetValue(i, j), actual.quickGetValue(i, j), eps);
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.lops.MMTSJ.MMTSJType;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockLFP64;
+import org.tugraz.sysds.runtime.functionobjects.Multiply;
+import org.tugraz.sysds.runtime.functionobjects.Plus;
+import org.tugraz.sysds.runtime.functionobjects.ValueFunction;
+import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.BinaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+/**
+ * Tests for matrix multiplication, aggregation, and cellwise operations over
+ * large dense row blocks (LDRB), where a small number of rows per block is
+ * used to force multiple underlying blocks in inputs and outputs.
+ */
+public class LibMatrixLargeDenseTest extends AutomatedTestBase
+{
+	private final static int rows = 301;
+	private final static int rowsAgg = 5003; //min 1M cells for multi-threading
+	private final static int cols = 207;
+	private final static int cols2 = 153;
+	private final static int blen = 7; //rows per block
+	private final static int k = 4;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testMatrixMultDenseDense() {
+		runMatrixMultTest(rows, cols, cols2, 1);
+	}
+	
+	@Test
+	public void testMatrixMultDenseDenseParallel() {
+		runMatrixMultTest(rows, cols, cols2, k);
+	}
+	
+	@Test
+	public void testMatrixMultDenseVector() {
+		runMatrixMultTest(rows, cols, 1, 1);
+		runMatrixMultTest(rows, cols, 1, k);
+	}
+	
+	@Test
+	public void testMatrixMultVectorDense() {
+		runMatrixMultTest(1, rows, cols, 1);
+		runMatrixMultTest(1, rows, cols, k);
+	}
+	
+	@Test
+	public void testMatrixMultTransposeSelf() {
+		runTransposeSelfTest(MMTSJType.LEFT, 1);
+		runTransposeSelfTest(MMTSJType.LEFT, k);
+		runTransposeSelfTest(MMTSJType.RIGHT, 1);
+		runTransposeSelfTest(MMTSJType.RIGHT, k);
+	}
+	
+	@Test
+	public void testAggregateSum() {
+		runAggregateTest("uak+");
+	}
+	
+	@Test
+	public void testAggregateRowSums() {
+		runAggregateTest("uark+");
+	}
+	
+	@Test
+	public void testAggregateColSums() {
+		runAggregateTest("uack+");
+	}
+	
+	@Test
+	public void testAggregateMax() {
+		runAggregateTest("uamax");
+		runAggregateTest("uarmax");
+		runAggregateTest("uacmax");
+	}
+	
+	@Test
+	public void testAggregateMean() {
+		runAggregateTest("uamean");
+		runAggregateTest("uarmean");
+		runAggregateTest("uacmean");
+	}
+	
+	@Test
+	public void testBinaryMatrixMatrixPlus() {
+		runMatrixMatrixTest(rows, cols, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testBinaryMatrixMatrixMult() {
+		runMatrixMatrixTest(rows, cols, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testBinaryMatrixColVectorPlus() {
+		runMatrixMatrixTest(rows, 1, Plus.getPlusFnObject());
+	}
+	
+	@Test
+	public void testBinaryMatrixRowVectorMult() {
+		runMatrixMatrixTest(1, cols, Multiply.getMultiplyFnObject());
+	}
+	
+	@Test
+	public void testBinaryMatrixScalarMult() {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+		for( int par : new int[]{1, k} ) {
+			RightScalarOperator op = new RightScalarOperator(Multiply.getMultiplyFnObject(), 3, par);
+			MatrixBlock ret1 = (MatrixBlock) m1.scalarOperations(op, new MatrixBlock());
+			MatrixBlock ret2 = (MatrixBlock) toLarge(m1).scalarOperations(op, createLarge(rows, cols));
+			compareResults(ret1, ret2);
+		}
+	}
+	
+	@Test
+	public void testBinaryInPlacePlus() {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock m2 = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock ret1 = new MatrixBlock(m1);
+		MatrixBlock ret2 = toLarge(m1);
+		ret1.binaryOperationsInPlace(new BinaryOperator(Plus.getPlusFnObject()), m2);
+		ret2.binaryOperationsInPlace(new BinaryOperator(Plus.getPlusFnObject()), toLarge(m2));
+		compareResults(ret1, ret2);
+	}
+	
+	private static void runMatrixMultTest(int m, int cd, int n, int par) {
+		MatrixBlock m1 = MatrixBlock.randOperations(m, cd, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock m2 = MatrixBlock.randOperations(cd, n, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = m1.aggregateBinaryOperations(m1, m2,
+			new MatrixBlock(), InstructionUtils.getMatMultOperator(par));
+		MatrixBlock ret2 = m1.aggregateBinaryOperations(toLarge(m1), toLarge(m2),
+			createLarge(m, n), InstructionUtils.getMatMultOperator(par));
+		compareResults(ret1, ret2);
+	}
+	
+	private static void runTransposeSelfTest(MMTSJType type, int par) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 3);
+		int n = type.isLeft() ? cols : rows;
+		MatrixBlock ret1 = m1.transposeSelfMatrixMultOperations(new MatrixBlock(), type, par);
+		MatrixBlock ret2 = toLarge(m1).transposeSelfMatrixMultOperations(createLarge(n, n), type, par);
+		compareResults(ret1, ret2);
+	}
+	
+	private static void runAggregateTest(String opcode) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rowsAgg, cols, 1.0, -1, 1, "uniform", 7);
+		for( int par : new int[]{1, k} ) {
+			MatrixBlock ret1 = (MatrixBlock) m1.aggregateUnaryOperations(
+				InstructionUtils.parseBasicAggregateUnaryOperator(opcode, par), new MatrixBlock(), -1, -1, null, true);
+			MatrixBlock ret2 = (MatrixBlock) toLarge(m1).aggregateUnaryOperations(
+				InstructionUtils.parseBasicAggregateUnaryOperator(opcode, par), new MatrixBlock(), -1, -1, null, true);
+			compareResults(ret1, ret2);
+		}
+	}
+	
+	private static void runMatrixMatrixTest(int rows2, int cols2, ValueFunction fn) {
+		MatrixBlock m1 = MatrixBlock.randOperations(rows, cols, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock m2 = MatrixBlock.randOperations(rows2, cols2, 1.0, -1, 1, "uniform", 3);
+		for( int par : new int[]{1, k} ) {
+			MatrixBlock ret1 = (MatrixBlock) m1.binaryOperations(
+				new BinaryOperator(fn, par), m2, new MatrixBlock());
+			MatrixBlock ret2 = (MatrixBlock) toLarge(m1).binaryOperations(
+				new BinaryOperator(fn, par), toLarge(m2), createLarge(rows, cols));
+			compareResults(ret1, ret2);
+		}
+	}
+	
+	private static MatrixBlock createLarge(int m, int n) {
+		return new MatrixBlock(m, n, 0, new DenseBlockLFP64(new int[]{m, n}, blen));
+	}
+	
+	private static MatrixBlock toLarge(MatrixBlock mb) {
+		DenseBlock db = new DenseBlockLFP64(new int[]{mb.getNumRows(), mb.getNumColumns()}, blen);
+		MatrixBlock ret = new MatrixBlock(mb.getNumRows(), mb.getNumColumns(), mb.getNonZeros(), db);
+		ret.getDenseBlock().set(mb.getDenseBlock());
+		Assert.assertTrue(mb.getNumRows() <= blen || ret.getDenseBlock().numBlocks() > 1);
+		return ret;
+	}
+	
+	private static void compareResults(MatrixBlock ret1, MatrixBlock ret2) {
+		Assert.assertEquals(ret1.getNumRows(), ret2.getNumRows());
+		Assert.assertEquals(ret1.getNumColumns(), ret2.getNumColumns());
+		Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		for( int i=0; i<ret1.getNumRows(); i++ )
+			for( int j=0; j<ret1.getNumColumns(); j++ )
+				Assert.assertEquals(ret1.quickGetValue(i, j), ret2.quickGetValue(i, j), eps);
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixLinAlg;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class LibMatrixLinAlgTest extends AutomatedTestBase
+{
+	private final static int n = 300;
+	private final static int m = 430;
+	private final static int k = 4;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testCholesky() {
+		MatrixBlock A = createSymmetric(n, true, 7);
+		MatrixBlock L1 = LibMatrixLinAlg.cholesky(A, 1);
+		MatrixBlock Lk = LibMatrixLinAlg.cholesky(A, k);
+		CholeskyDecomposition chol = new CholeskyDecomposition(
+			DataConverter.convertToArray2DRowRealMatrix(A), 1e-14, 1e-10);
+		compare(DataConverter.convertToMatrixBlock(chol.getL().getData()), L1, eps);
+		compare(L1, Lk, 0);
+	}
+	
+	@Test(expected = DMLRuntimeException.class)
+	public void testCholeskyNotPositiveDefinite() {
+		LibMatrixLinAlg.cholesky(createSymmetric(n, false, 7), k);
+	}
+	
+	@Test(expected = DMLRuntimeException.class)
+	public void testCholeskyNotSymmetric() {
+		MatrixBlock A = createSymmetric(n, true, 7);
+		A.quickSetValue(0, n-1, A.quickGetValue(0, n-1) + 1);
+		LibMatrixLinAlg.cholesky(A, k);
+	}
+	
+	@Test(expected = DMLRuntimeException.class)
+	public void testEigenNotSymmetric() {
+		LibMatrixLinAlg.eigen(createInput(n, n, 1.0, 3), k);
+	}
+	
+	@Test
+	public void testLU() {
+		MatrixBlock A = createInput(n, n, 1.0, 3);
+		MatrixBlock[] ret1 = LibMatrixLinAlg.lu(A, 1);
+		MatrixBlock[] retk = LibMatrixLinAlg.lu(A, k);
+		//check P %*% A = L %*% U and triangular structure
+		compare(mult(ret1[0], A), mult(ret1[1], ret1[2]), eps);
+		for( int i=0; i<n; i++ ) {
+			Assert.assertEquals(1, ret1[1].quickGetValue(i, i), 0);
+			for( int j=i+1; j<n; j++ ) {
+				Assert.assertEquals(0, ret1[1].quickGetValue(i, j), 0);
+				Assert.assertEquals(0, ret1[2].quickGetValue(j, i), 0);
+			}
+		}
+		for( int i=0; i<3; i++ )
+			compare(ret1[i], retk[i], 0);
+	}
+	
+	@Test
+	public void testQRTall() {
+		runQRTest(m, n);
+	}
+	
+	@Test
+	public void testQRWide() {
+		runQRTest(n, m);
+	}
+	
+	@Test
+	public void testSolve() {
+		MatrixBlock A = createInput(n, n, 1.0, 3);
+		MatrixBlock B = createInput(n, 17, 1.0, 4);
+		MatrixBlock X1 = LibMatrixLinAlg.solve(A, B, 1);
+		MatrixBlock Xk = LibMatrixLinAlg.solve(A, B, k);
+		compare(B, mult(A, X1), eps);
+		compare(X1, Xk, 0);
+	}
+	
+	@Test
+	public void testSolveVector() {
+		MatrixBlock A = createInput(n, n, 0.3, 5);
+		MatrixBlock b = createInput(n, 1, 1.0, 6);
+		compare(b, mult(A, LibMatrixLinAlg.solve(A, b, k)), eps);
+	}
+	
+	@Test(expected = DMLRuntimeException.class)
+	public void testSolveSingular() {
+		MatrixBlock A = createInput(n, n, 1.0, 3);
+		for( int i=0; i<n; i++ ) //empty column
+			A.quickSetValue(i, 7, 0);
+		LibMatrixLinAlg.solve(A, createInput(n, 1, 1.0, 6), k);
+	}
+	
+	@Test
+	public void testInverse() {
+		MatrixBlock A = createInput(n, n, 1.0, 3);
+		MatrixBlock Ainv = LibMatrixLinAlg.inverse(A, k);
+		MatrixBlock I = new MatrixBlock(n, n, false);
+		for( int i=0; i<n; i++ )
+			I.quickSetValue(i, i, 1);
+		compare(I, mult(A, Ainv), eps);
+		compare(LibMatrixLinAlg.inverse(A, 1), Ainv, 0);
+	}
+	
+	@Test
+	public void testEigen() {
+		MatrixBlock A = createSymmetric(n, false, 9);
+		Assert.assertTrue(LibMatrixLinAlg.isSymmetric(A));
+		MatrixBlock[] ret1 = LibMatrixLinAlg.eigen(A, 1);
+		MatrixBlock[] retk = LibMatrixLinAlg.eigen(A, k);
+		
+		//check eigen values against commons-math (in ascending order)
+		EigenDecomposition eig = new EigenDecomposition(DataConverter.convertToArray2DRowRealMatrix(A));
+		double[] evals = eig.getRealEigenvalues().clone();
+		Arrays.sort(evals);
+		compare(DataConverter.convertToMatrixBlock(evals, true), ret1[0], eps);
+		compare(ret1[0], retk[0], eps);
+		
+		//check A %*% V = V %*% diag(evals)
+		for( MatrixBlock[] ret : new MatrixBlock[][]{ret1, retk} ) {
+			MatrixBlock VD = new MatrixBlock(n, n, false);
+			for( int i=0; i<n; i++ )
+				for( int j=0; j<n; j++ )
+					VD.quickSetValue(i, j, ret[1].quickGetValue(i, j) * ret[0].quickGetValue(j, 0));
+			compare(VD, mult(A, ret[1]), eps);
+		}
+	}
+	
+	private static void runQRTest(int rows, int cols) {
+		MatrixBlock A = createInput(rows, cols, 1.0, 11);
+		MatrixBlock[] ret1 = LibMatrixLinAlg.qr(A, 1);
+		MatrixBlock[] retk = LibMatrixLinAlg.qr(A, k);
+		QRDecomposition qr = new QRDecomposition(new Array2DRowRealMatrix(
+			DataConverter.convertToDoubleMatrix(A)));
+		compare(DataConverter.convertToMatrixBlock(qr.getH().getData()), ret1[0], eps);
+		compare(DataConverter.convertToMatrixBlock(qr.getR().getData()), ret1[1], eps);
+		compare(ret1[0], retk[0], 0);
+		compare(ret1[1], retk[1], 0);
+	}
+	
+	private static MatrixBlock createInput(int rows, int cols, double sp, long seed) {
+		return DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sp, seed));
+	}
+	
+	private static MatrixBlock createSymmetric(int n, boolean spd, long seed) {
+		//X + t(X) (indefinite) or t(X) %*% X + n * I (positive definite)
+		MatrixBlock X = createInput(n, n, 1.0, seed);
+		MatrixBlock tX = LibMatrixReorg.transpose(X, new MatrixBlock(n, n, false));
+		MatrixBlock ret = spd ? mult(tX, X) : new MatrixBlock(n, n, false);
+		for( int i=0; i<n; i++ )
+			for( int j=0; j<n; j++ )
+				ret.quickSetValue(i, j, spd ? ret.quickGetValue(i, j) + ((i==j) ? n : 0) :
+					X.quickGetValue(i, j) + X.quickGetValue(j, i));
+		return ret;
+	}
+	
+	private static MatrixBlock mult(MatrixBlock m1, MatrixBlock m2) {
+		MatrixBlock ret = new MatrixBlock(m1.getNumRows(), m2.getNumColumns(), false);
+		LibMatrixMult.matrixMult(m1, m2, ret);
+		return ret;
+	}
+	
+	private static void compare(MatrixBlock expected, MatrixBlock actual, double tol) {
+		Assert.assertEquals(expected.getNumRows(), actual.getNumRows());
+		Assert.assertEquals(expected.getNumColumns(), actual.getNumColumns());
+		for( int i=0; i<expected.getNumRows(); i++ )
+			for( int j=0; j<expected.getNumColumns(); j++ )
+				Assert.assertEquals(expected.quickGetValue(i, j), actual.quickGetValue(i, j), tol);
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult.KernelType;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class LibMatrixMultKernelsTest extends AutomatedTestBase
+{
+	private final static int[] lengths = new int[]{1, 7, 8, 13, 64, 1001};
+	private final static int off = 3;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@After
+	public void resetKernels() {
+		LibMatrixMult.setKernelType(KernelType.AUTO);
+	}
+
+	@Test
+	public void testKernelTypeSelection() {
+		LibMatrixMult.setKernelType(KernelType.UNROLLED);
+		Assert.assertFalse(LibMatrixMult.isVectorizedKernels());
+		LibMatrixMult.setKernelType(KernelType.VECTORIZED);
+		Assert.assertTrue(LibMatrixMult.isVectorizedKernels());
+	}
+	
+	@Test
+	public void testVectMultiplyAdd() {
+		runKernelTest((b, c, len) -> LibMatrixMult.vectMultiplyAdd(0.7, b, c, off, 2*off, len));
+	}
+	
+	@Test
+	public void testVectMultiplyWriteScalar() {
+		runKernelTest((b, c, len) -> LibMatrixMult.vectMultiplyWrite(-1.3, b, c, off, 0, len));
+	}
+	
+	@Test
+	public void testVectMultiplyWriteVector() {
+		runKernelTest((b, c, len) -> LibMatrixMult.vectMultiplyWrite(b, b, c, 0, off, 2*off, len));
+	}
+	
+	@Test
+	public void testVectAdd() {
+		runKernelTest((b, c, len) -> LibMatrixMult.vectAdd(b, c, off, off, len));
+	}
+	
+	@Test
+	public void testMatrixMultDenseDense() {
+		runMatrixMultTest(300, 200, 150, 0.9, 0.9);
+	}
+	
+	@Test
+	public void testMatrixMultSparseDense() {
+		runMatrixMultTest(300, 700, 150, 0.05, 0.9);
+	}
+	
+	@Test
+	public void testMatrixMultDenseVector() {
+		runMatrixMultTest(1000, 300, 1, 0.9, 0.9);
+	}
+	
+	private static void runKernelTest(Kernel kernel) {
+		Random rand = new Random(7);
+		for( int len : lengths ) {
+			double[] b = rand.doubles(len + 2*off).toArray();
+			double[] c = rand.doubles(len + 2*off).toArray();
+			double[] c1 = Arrays.copyOf(c, c.length);
+			double[] c2 = Arrays.copyOf(c, c.length);
+			LibMatrixMult.setKernelType(KernelType.UNROLLED);
+			kernel.apply(b, c1, len);
+			LibMatrixMult.setKernelType(KernelType.VECTORIZED);
+			kernel.apply(b, c2, len);
+			//identical results incl cells outside the vector ranges
+			Assert.assertArrayEquals(c1, c2, 0);
+		}
+	}
+	
+	private static void runMatrixMultTest(int m, int cd, int n, double sp1, double sp2) {
+		MatrixBlock m1 = MatrixBlock.randOperations(m, cd, sp1, -1, 1, "uniform", 3);
+		MatrixBlock m2 = MatrixBlock.randOperations(cd, n, sp2, -1, 1, "uniform", 7);
+		LibMatrixMult.setKernelType(KernelType.UNROLLED);
+		MatrixBlock ret1 = new MatrixBlock(m, n, false);
+		LibMatrixMult.matrixMult(m1, m2, ret1);
+		LibMatrixMult.setKernelType(KernelType.VECTORIZED);
+		MatrixBlock ret2 = new MatrixBlock(m, n, false);
+		LibMatrixMult.matrixMult(m1, m2, ret2);
+		Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<n; j++ )
+				Assert.assertEquals(ret1.quickGetValue(i, j), ret2.quickGetValue(i, j), 0);
+	}
+	
+	private interface Kernel {
+		void apply(double[] b, double[] c, int len);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.functionobjects.SortIndex;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.operators.ReorgOperator;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class LibMatrixReorgSortParallelTest extends AutomatedTestBase
+{
+	private final static int rows = (int) LibMatrixReorg.PAR_NUMCELL_THRESHOLD + 1237;
+	private final static int cols1 = 3;
+	private final static int cols2 = 40;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseVectorDataAsc() {
+		runSortTest(1, sparsity1, new int[]{1}, false, false);
+	}
+	
+	@Test
+	public void testDenseVectorDataDesc() {
+		runSortTest(1, sparsity1, new int[]{1}, true, false);
+	}
+	
+	@Test
+	public void testDenseVectorIndexDesc() {
+		runSortTest(1, sparsity1, new int[]{1}, true, true);
+	}
+	
+	@Test
+	public void testDenseSingleKeyDataAsc() {
+		runSortTest(cols1, sparsity1, new int[]{2}, false, false);
+	}
+	
+	@Test
+	public void testDenseSingleKeyIndexDesc() {
+		runSortTest(cols1, sparsity1, new int[]{2}, true, true);
+	}
+	
+	@Test
+	public void testDenseMultiKeyIndexAsc() {
+		runSortTest(cols1, sparsity1, new int[]{3,1}, false, true);
+	}
+	
+	@Test
+	public void testDenseMultiKeyDataDesc() {
+		runSortTest(cols1, sparsity1, new int[]{1,2,3}, true, false);
+	}
+	
+	@Test
+	public void testSparseSingleKeyDataAsc() {
+		runSortTest(cols2, sparsity2, new int[]{7}, false, false);
+	}
+	
+	@Test
+	public void testSparseMultiKeyIndexDesc() {
+		runSortTest(cols2, sparsity2, new int[]{7,3,11}, true, true);
+	}
+	
+	@Test
+	public void testSparseMultiKeyDataAsc() {
+		runSortTest(cols2, sparsity2, new int[]{7,3}, false, false);
+	}
+	
+	private static void runSortTest(int cols, double sp, int[] by, boolean desc, boolean ixret) {
+		MatrixBlock in = createInput(cols, sp, 7);
+		MatrixBlock ret1 = (MatrixBlock) in.reorgOperations(
+			new ReorgOperator(new SortIndex(by, desc, ixret)), new MatrixBlock(), 0, 0, 0);
+		MatrixBlock retk = (MatrixBlock) in.reorgOperations(
+			new ReorgOperator(new SortIndex(by, desc, ixret), k), new MatrixBlock(), 0, 0, 0);
+		
+		//check sorted order of the first orderby column
+		for( int i=1; i<rows; i++ ) {
+			double v1 = ixret ? in.quickGetValue((int)retk.quickGetValue(i-1, 0)-1, by[0]-1) :
+				retk.quickGetValue(i-1, by[0]-1);
+			double v2 = ixret ? in.quickGetValue((int)retk.quickGetValue(i, 0)-1, by[0]-1) :
+				retk.quickGetValue(i, by[0]-1);
+			Assert.assertTrue(desc ? v1 >= v2 : v1 <= v2);
+		}
+		//check equivalence with single-threaded (stable) sort
+		Assert.assertEquals(ret1.isInSparseFormat(), retk.isInSparseFormat());
+		Assert.assertEquals(ret1.getNonZeros(), retk.getNonZeros());
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<ret1.getNumColumns(); j++ )
+				Assert.assertEquals(ret1.quickGetValue(i, j), retk.quickGetValue(i, j), 0);
+	}
+	
+	private static MatrixBlock createInput(int cols, double sp, long seed) {
+		//small integer domain to create many ties over all orderby columns
+		Random rand = new Random(seed);
+		MatrixBlock ret = new MatrixBlock(rows, cols, sp < MatrixBlock.SPARSITY_TURN_POINT);
+		ret.allocateBlock();
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				if( rand.nextDouble() < sp )
+					ret.appendValue(i, j, rand.nextInt(7) - 3);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockCSR;
+import org.tugraz.sysds.runtime.matrix.data.IJV;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class LibMatrixReorgSparseParallelTest extends AutomatedTestBase
+{
+	private final static int rows = 3000;
+	private final static int cols = 2000;
+	private final static double sparsity1 = 0.2;
+	private final static double sparsity2 = 0.5;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testTransposeSparseToCSR() {
+		runTransposeTest(createInput(rows, cols, sparsity1, true, 7));
+	}
+	
+	@Test
+	public void testTransposeDenseToCSR() {
+		runTransposeTest(createInput(20000, 100, 0.1, false, 3));
+	}
+	
+	@Test
+	public void testTransposeUltraSparseToCSR() {
+		runTransposeTest(createInput(200000, 100000, 6e-5, true, 11));
+	}
+	
+	@Test
+	public void testTransposeSparseCSRToCSR() {
+		runTransposeTest(new MatrixBlock(
+			createInput(rows, cols, sparsity1, true, 13), SparseBlock.Type.CSR, true));
+	}
+	
+	@Test
+	public void testRevDense() {
+		runRevTest(createInput(20000, 100, 0.9, false, 5));
+	}
+	
+	@Test
+	public void testRevSparse() {
+		runRevTest(createInput(rows, cols, sparsity1, true, 9));
+	}
+	
+	@Test
+	public void testReshapeSparseRowwiseNto1() {
+		runReshapeTest(createInput(rows, cols, sparsity1, true, 17), rows/2, cols*2, true);
+	}
+	
+	@Test
+	public void testReshapeSparseRowwiseGeneral() {
+		runReshapeTest(createInput(rows, cols, sparsity1, true, 19), 2500, 2400, true);
+	}
+	
+	@Test
+	public void testReshapeSparseCSRRowwiseGeneral() {
+		runReshapeTest(new MatrixBlock(createInput(rows, cols, sparsity1, true, 23),
+			SparseBlock.Type.CSR, true), 1200, 5000, true);
+	}
+	
+	@Test
+	public void testReshapeDenseColwiseGeneral() {
+		runReshapeTest(createInput(rows, cols, 0.9, false, 29), 4000, 1500, false);
+	}
+	
+	@Test
+	public void testReshapeDenseColwiseVectorToMatrix() {
+		runReshapeTest(createInput(1, rows*cols, 0.9, false, 31), rows, cols, false);
+	}
+	
+	@Test
+	public void testReshapeDenseColwiseMatrixToVector() {
+		runReshapeTest(createInput(rows, cols, 0.9, false, 37), rows*cols, 1, false);
+	}
+	
+	@Test
+	public void testReshapeSparseToDenseRowwise() {
+		runReshapeTest(createInput(rows, cols, sparsity2, true, 41), 4000, 1500, true);
+	}
+	
+	@Test
+	public void testReshapeSparseToDenseColwise() {
+		runReshapeTest(createInput(rows, cols, sparsity2, true, 43), 4000, 1500, false);
+	}
+	
+	private static void runTransposeTest(MatrixBlock in) {
+		int m = in.getNumRows(), n = in.getNumColumns();
+		MatrixBlock ret1 = LibMatrixReorg.transpose(in, new MatrixBlock(n, m, true), 1);
+		MatrixBlock retk = LibMatrixReorg.transpose(in, new MatrixBlock(n, m, true), k);
+		Assert.assertTrue(ret1.getSparseBlock() instanceof SparseBlockCSR);
+		Assert.assertTrue(retk.getSparseBlock() instanceof SparseBlockCSR);
+		checkResult(in, ret1, (i,j) -> new int[]{j, i});
+		checkResult(in, retk, (i,j) -> new int[]{j, i});
+	}
+	
+	private static void runRevTest(MatrixBlock in) {
+		int m = in.getNumRows(), n = in.getNumColumns();
+		MatrixBlock ret1 = LibMatrixReorg.rev(in, new MatrixBlock(m, n, in.isInSparseFormat()), 1);
+		MatrixBlock retk = LibMatrixReorg.rev(in, new MatrixBlock(m, n, in.isInSparseFormat()), k);
+		checkResult(in, ret1, (i,j) -> new int[]{m-i-1, j});
+		checkResult(in, retk, (i,j) -> new int[]{m-i-1, j});
+	}
+	
+	private static void runReshapeTest(MatrixBlock in, int rows, int cols, boolean rowwise) {
+		int m = in.getNumRows(), n = in.getNumColumns();
+		MatrixBlock ret1 = LibMatrixReorg.reshape(in, new MatrixBlock(), rows, cols, rowwise, 1);
+		MatrixBlock retk = LibMatrixReorg.reshape(in, new MatrixBlock(), rows, cols, rowwise, k);
+		Assert.assertEquals(ret1.isInSparseFormat(), retk.isInSparseFormat());
+		CellMap map = rowwise ?
+			(i,j) -> { long ix = (long)i*n+j; return new int[]{(int)(ix/cols), (int)(ix%cols)}; } :
+			(i,j) -> { long ix = (long)j*m+i; return new int[]{(int)(ix%rows), (int)(ix/rows)}; };
+		checkResult(in, ret1, map);
+		checkResult(in, retk, map);
+	}
+	
+	private static void checkResult(MatrixBlock in, MatrixBlock out, CellMap map) {
+		//check meta data and consistent row pointers of the output
+		Assert.assertEquals(in.getNonZeros(), out.getNonZeros());
+		Assert.assertEquals(in.getNonZeros(), out.recomputeNonZeros());
+		if( out.isInSparseFormat() ) {
+			SparseBlock c = out.getSparseBlock();
+			for( int i=0; i<out.getNumRows(); i++ ) {
+				if( c.isEmpty(i) ) continue;
+				int pos = c.pos(i), len = c.size(i);
+				int[] cix = c.indexes(i);
+				for( int j=pos+1; j<pos+len; j++ )
+					Assert.assertTrue(cix[j-1] < cix[j]);
+			}
+		}
+		//check all input non-zeros at their output positions
+		if( in.isInSparseFormat() ) {
+			Iterator<IJV> iter = in.getSparseBlockIterator();
+			while( iter.hasNext() ) {
+				IJV cell = iter.next();
+				int[] ix = map.get(cell.getI(), cell.getJ());
+				Assert.assertEquals(cell.getV(), out.quickGetValue(ix[0], ix[1]), 0);
+			}
+		}
+		else {
+			for( int i=0; i<in.getNumRows(); i++ )
+				for( int j=0; j<in.getNumColumns(); j++ ) {
+					int[] ix = map.get(i, j);
+					Assert.assertEquals(in.quickGetValue(i, j), out.quickGetValue(ix[0], ix[1]), 0);
+				}
+		}
+	}
+	
+	private static MatrixBlock createInput(int rows, int cols, double sp, boolean sparse, long seed) {
+		Random rand = new Random(seed);
+		MatrixBlock ret = new MatrixBlock(rows, cols, sparse);
+		ret.allocateBlock();
+		long nnz = (long) (sp * rows * cols);
+		for( long t=0; t<nnz; t++ )
+			ret.quickSetValue(rand.nextInt(rows), rand.nextInt(cols), rand.nextInt(1000) + 1);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+	
+	private interface CellMap {
+		int[] get(int i, int j);
+	}
+}
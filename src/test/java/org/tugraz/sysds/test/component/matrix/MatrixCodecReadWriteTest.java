@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.DataType;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.conf.CompilerConfig;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.parser.DataExpression;
+import org.tugraz.sysds.runtime.io.BinaryBlockSerialization;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec;
+import org.tugraz.sysds.runtime.io.BlockCompressionCodec.CodecType;
+import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+import org.tugraz.sysds.runtime.io.MatrixReader;
+import org.tugraz.sysds.runtime.io.MatrixReaderFactory;
+import org.tugraz.sysds.runtime.io.MatrixWriter;
+import org.tugraz.sysds.runtime.io.MatrixWriterFactory;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.meta.MatrixCharacteristics;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class MatrixCodecReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/io/codec/";
+	
+	private final static int rows = 1593;
+	private final static int cols = 437;
+	private final static int blen = 200;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testLZ4Dense() {
+		runCodecReadWriteTest(CodecType.LZ4, sparsity1, false, false);
+	}
+	
+	@Test
+	public void testLZ4SparseParallel() {
+		runCodecReadWriteTest(CodecType.LZ4, sparsity2, true, false);
+	}
+	
+	@Test
+	public void testLZ4SparseDelta() {
+		runCodecReadWriteTest(CodecType.LZ4, sparsity2, false, true);
+	}
+	
+	@Test
+	public void testSnappySparse() {
+		runCodecReadWriteTest(CodecType.SNAPPY, sparsity2, false, false);
+	}
+	
+	@Test
+	public void testSnappyDenseParallel() {
+		runCodecReadWriteTest(CodecType.SNAPPY, sparsity1, true, false);
+	}
+	
+	@Test
+	public void testDeflateSparseDeltaParallel() {
+		runCodecReadWriteTest(CodecType.DEFLATE, sparsity2, true, true);
+	}
+	
+	@Test
+	public void testNoneSparseDelta() {
+		runCodecReadWriteTest(CodecType.NONE, sparsity2, false, true);
+	}
+	
+	@Test
+	public void testLZ4Empty() {
+		runCodecReadWriteTest(CodecType.LZ4, 0, false, false);
+	}
+	
+	private void runCodecReadWriteTest(CodecType codec, double sparsity, boolean parallel, boolean delta)
+	{
+		boolean oldParBin = CompilerConfig.FLAG_PARREADWRITE_BINARY;
+		CodecType oldCodec = BlockCompressionCodec.BINARYBLOCK_CODEC;
+		boolean oldDelta = BinaryBlockSerialization.DELTA_SPARSE_INDEXES;
+		String fname = SCRIPT_DIR + TEST_DIR + "X";
+		
+		try
+		{
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = parallel;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			MatrixBlock mb = (sparsity == 0) ? new MatrixBlock(rows, cols, true) :
+				MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			
+			//write uncompressed reference
+			long rawSize = write(mb, fname, CodecType.NONE, false);
+			
+			//write with codec and delta-encoded sparse indexes
+			//(random dense data is incompressible, sparse indexes are not)
+			long size = write(mb, fname, codec, delta);
+			if( sparsity > 0 && sparsity < 0.4 && (codec != CodecType.NONE || delta) )
+				Assert.assertTrue(size < rawSize);
+			
+			//check codec in sequence file header
+			Path path = new Path(fname);
+			FileSystem fs = IOUtilFunctions.getFileSystem(path);
+			for( Path lpath : IOUtilFunctions.getSequenceFilePaths(fs, path) ) {
+				try( SequenceFile.Reader reader = new SequenceFile.Reader(
+					ConfigurationManager.getCachedJobConf(), SequenceFile.Reader.file(lpath)) ) {
+					Class<? extends CompressionCodec> cclass = BlockCompressionCodec.getCodecClass(codec);
+					Assert.assertEquals(cclass != null, reader.isBlockCompressed());
+					if( cclass != null )
+						Assert.assertEquals(cclass, reader.getCompressionCodec().getClass());
+				}
+			}
+			
+			//check codec in metadata
+			String mtd = HDFSTool.metaDataToString(ValueType.FP64, null, DataType.MATRIX,
+				new MatrixCharacteristics(rows, cols, blen, blen, mb.getNonZeros()),
+				OutputInfo.BinaryBlockOutputInfo, null);
+			Assert.assertEquals(codec != CodecType.NONE,
+				mtd.contains("\""+DataExpression.CODECPARAM+"\": \""+codec.name().toLowerCase()+"\""));
+			
+			//read with automatic codec detection
+			MatrixReader reader = MatrixReaderFactory.createMatrixReader(InputInfo.BinaryBlockInputInfo);
+			MatrixBlock mb2 = reader.readMatrixFromHDFS(fname, rows, cols, blen, blen, mb.getNonZeros());
+			Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb),
+				DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = oldParBin;
+			BlockCompressionCodec.BINARYBLOCK_CODEC = oldCodec;
+			BinaryBlockSerialization.DELTA_SPARSE_INDEXES = oldDelta;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+	
+	private static long write(MatrixBlock mb, String fname, CodecType codec, boolean delta) throws Exception {
+		BlockCompressionCodec.BINARYBLOCK_CODEC = codec;
+		BinaryBlockSerialization.DELTA_SPARSE_INDEXES = delta;
+		MatrixWriter writer = MatrixWriterFactory.createMatrixWriter(OutputInfo.BinaryBlockOutputInfo);
+		writer.writeMatrixToHDFS(mb, fname, rows, cols, blen, blen, mb.getNonZeros(), false);
+		return HDFSTool.getFilesizeOnHDFS(new Path(fname));
+	}
+}
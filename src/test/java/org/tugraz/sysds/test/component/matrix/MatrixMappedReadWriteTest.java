@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.conf.CompilerConfig;
+import org.tugraz.sysds.conf.CompilerConfig.ConfigType;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
+import org.tugraz.sysds.runtime.io.MatrixReader;
+import org.tugraz.sysds.runtime.io.MatrixReaderFactory;
+import org.tugraz.sysds.runtime.io.MatrixWriter;
+import org.tugraz.sysds.runtime.io.MatrixWriterFactory;
+import org.tugraz.sysds.runtime.io.ReaderBinaryBlockMapped;
+import org.tugraz.sysds.runtime.io.WriterBinaryBlockMapped;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class MatrixMappedReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/io/mapped/";
+	
+	private final static int rows = 1593;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testMappedDense() {
+		runMappedReadWriteTest(sparsity1, false, false);
+	}
+	
+	@Test
+	public void testMappedDenseParallel() {
+		runMappedReadWriteTest(sparsity1, false, true);
+	}
+	
+	@Test
+	public void testMappedDenseReadOnly() {
+		runMappedReadWriteTest(sparsity1, true, false);
+	}
+	
+	@Test
+	public void testMappedDenseMultiRegion() {
+		runMappedReadWriteTest(sparsity1, false, false, 1000);
+	}
+	
+	@Test
+	public void testMappedSparse() {
+		runMappedReadWriteTest(sparsity2, false, false);
+	}
+	
+	@Test
+	public void testMappedEmpty() {
+		runMappedReadWriteTest(0, false, false);
+	}
+	
+	private void runMappedReadWriteTest(double sparsity, boolean readOnly, boolean parallel) {
+		runMappedReadWriteTest(sparsity, readOnly, parallel, WriterBinaryBlockMapped.MAX_MAP_CELLS);
+	}
+	
+	private void runMappedReadWriteTest(double sparsity, boolean readOnly, boolean parallel, int maxMapCells)
+	{
+		boolean oldParBin = CompilerConfig.FLAG_PARREADWRITE_BINARY;
+		int oldMaxMapCells = WriterBinaryBlockMapped.MAX_MAP_CELLS;
+		String fname = SCRIPT_DIR + TEST_DIR + "X" + (readOnly ? "ro" : "");
+		
+		try
+		{
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = parallel;
+			WriterBinaryBlockMapped.MAX_MAP_CELLS = maxMapCells;
+			CompilerConfig cconf = new CompilerConfig();
+			cconf.set(ConfigType.MMAP_CP_BINARYFORMATS, true);
+			ConfigurationManager.setGlobalConfig(cconf);
+			
+			//data generation and single-file write
+			MatrixBlock mb = (sparsity == 0) ? new MatrixBlock(rows, cols, true) :
+				MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			MatrixWriter writer = MatrixWriterFactory.createMatrixWriter(OutputInfo.BinaryBlockOutputInfo);
+			writer.writeMatrixToHDFS(mb, fname, rows, cols, 1000, 1000, mb.getNonZeros(), false);
+			File file = new File(fname);
+			Assert.assertTrue(file.isFile());
+			if( readOnly )
+				Assert.assertTrue(file.setWritable(false));
+			
+			//read via binary block reader (probes mapped file)
+			MatrixReader reader = MatrixReaderFactory.createMatrixReader(InputInfo.BinaryBlockInputInfo);
+			MatrixBlock mb2 = reader.readMatrixFromHDFS(fname, rows, cols, 1000, 1000, mb.getNonZeros());
+			boolean dense = sparsity > 0.4;
+			Assert.assertEquals(!dense, mb2.isInSparseFormat());
+			Assert.assertEquals(mb.getNonZeros(), mb2.getNonZeros());
+			Assert.assertEquals(mb.sum(), mb2.sum(), 1e-8);
+			compare(mb, mb2);
+			
+			//zero-copy dense block over mapped region (updates not written through)
+			if( dense ) {
+				DenseBlockOffHeapFP64 db = ReaderBinaryBlockMapped.readMappedDenseBlockFromLocal(file);
+				Assert.assertEquals(mb.getValue(7, 3), db.get(7, 3), 0);
+				Assert.assertEquals(mb.getNonZeros(), db.countNonZeros());
+				if( !readOnly ) {
+					db.set(7, 3, 13);
+					Assert.assertEquals(13, db.get(7, 3), 0);
+				}
+				compare(mb, new ReaderBinaryBlockMapped()
+					.readMatrixFromHDFS(fname, rows, cols, 1000, 1000, mb.getNonZeros()));
+			}
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = oldParBin;
+			WriterBinaryBlockMapped.MAX_MAP_CELLS = oldMaxMapCells;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			new File(fname).setWritable(true);
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+	
+	private static void compare(MatrixBlock mb1, MatrixBlock mb2) {
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1),
+			DataConverter.convertToDoubleMatrix(mb2), rows, cols, 0);
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.controlprogram.caching.CacheableData;
+import org.tugraz.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.tugraz.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.meta.MatrixCharacteristics;
+import org.tugraz.sysds.runtime.meta.MetaDataFormat;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class MatrixOffHeapEvictionTest extends AutomatedTestBase
+{
+	private final static int rows = 1593;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.3;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testMatrixEvictionDenseOnHeap() {
+		runMatrixEvictionTest(sparsity1, false, false);
+	}
+	
+	@Test
+	public void testMatrixEvictionDenseOffHeap() {
+		runMatrixEvictionTest(sparsity1, true, false);
+	}
+	
+	@Test
+	public void testMatrixEvictionDense2OffHeap() {
+		runMatrixEvictionTest(sparsity2, true, false);
+	}
+	
+	@Test
+	public void testMatrixEvictionDenseOnHeapForce() {
+		runMatrixEvictionTest(sparsity1, false, true);
+	}
+	
+	@Test
+	public void testMatrixEvictionDenseOffHeapForce() {
+		runMatrixEvictionTest(sparsity1, true, true);
+	}
+	
+	@Test
+	public void testMatrixEvictionDense2OffHeapForce() {
+		runMatrixEvictionTest(sparsity2, true, true);
+	}
+	
+	private void runMatrixEvictionTest(double sparsity, boolean offheap, boolean force)
+	{
+		boolean oldFlag = CacheableData.CACHING_BUFFER_OFFHEAP;
+		try
+		{
+			CacheableData.CACHING_BUFFER_OFFHEAP = offheap;
+			
+			//data generation (dense in-memory representation)
+			double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 765);
+			MatrixBlock mA = DataConverter.convertToMatrixBlock(A);
+			mA.examSparsity();
+			if( mA.isInSparseFormat() )
+				mA.sparseToDense();
+			
+			//setup caching
+			CacheableData.initCaching("tmp_matrix_eviction_test");
+			
+			//create matrix object
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1, -1);
+			MetaDataFormat meta = new MetaDataFormat (mc,
+				OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo);
+			MatrixObject mo = new MatrixObject(ValueType.FP64, "mA", meta);
+			mo.acquireModify(mA);
+			mo.release();
+			
+			//evict matrix and clear in-memory reference
+			if( force )
+				LazyWriteBuffer.forceEviction();
+			Method clearmo = CacheableData.class
+				.getDeclaredMethod("clearCache", new Class[]{});
+			clearmo.setAccessible(true); //make method public
+			clearmo.invoke(mo, new Object[]{});
+			
+			//read matrix through buffer pool (if forced, this is a read from disk
+			//otherwise deserialization from off-heap buffer or simple reference)
+			MatrixBlock mA2 = mo.acquireRead();
+			mo.release();
+			
+			//compare matrices
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mA2), rows, cols, 0);
+			if( mA2.getNonZeros() != mA.getNonZeros() )
+				throw new RuntimeException("Wrong number of non-zeros: "+mA2.getNonZeros()+" vs "+mA.getNonZeros());
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CacheableData.CACHING_BUFFER_OFFHEAP = oldFlag;
+		}
+	}
+}
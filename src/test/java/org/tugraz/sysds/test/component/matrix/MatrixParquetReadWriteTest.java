@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.conf.CompilerConfig;
+import org.tugraz.sysds.conf.ConfigurationManager;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesParquet;
+import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+import org.tugraz.sysds.runtime.io.MatrixReader;
+import org.tugraz.sysds.runtime.io.MatrixReaderFactory;
+import org.tugraz.sysds.runtime.io.MatrixWriter;
+import org.tugraz.sysds.runtime.io.MatrixWriterFactory;
+import org.tugraz.sysds.runtime.io.ReaderParquet;
+import org.tugraz.sysds.runtime.io.ReaderParquetParallel;
+import org.tugraz.sysds.runtime.io.WriterParquet;
+import org.tugraz.sysds.runtime.matrix.data.InputInfo;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class MatrixParquetReadWriteTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/io/parquet/";
+	
+	private final static int rows = 1593;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testParquetDense() {
+		runParquetReadWriteTest(sparsity1, false, false);
+	}
+	
+	@Test
+	public void testParquetDenseParallel() {
+		runParquetReadWriteTest(sparsity1, true, false);
+	}
+	
+	@Test
+	public void testParquetSparse() {
+		runParquetReadWriteTest(sparsity2, false, false);
+	}
+	
+	@Test
+	public void testParquetSparseParallel() {
+		runParquetReadWriteTest(sparsity2, true, false);
+	}
+	
+	@Test
+	public void testParquetDenseProjection() {
+		runParquetReadWriteTest(sparsity1, false, true);
+	}
+	
+	@Test
+	public void testParquetSparseProjectionParallel() {
+		runParquetReadWriteTest(sparsity2, true, true);
+	}
+	
+	@Test
+	public void testParquetEmpty() {
+		runParquetReadWriteTest(0, false, false);
+	}
+	
+	private void runParquetReadWriteTest(double sparsity, boolean parallel, boolean projection)
+	{
+		boolean oldParBin = CompilerConfig.FLAG_PARREADWRITE_BINARY;
+		int oldRowGroupSize = WriterParquet.ROW_GROUP_SIZE;
+		String fname = SCRIPT_DIR + TEST_DIR + "X";
+		
+		try
+		{
+			//small row groups to obtain multiple row groups per file
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = parallel;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			WriterParquet.ROW_GROUP_SIZE = 64 * 1024;
+			
+			//data generation and write
+			MatrixBlock mb = (sparsity == 0) ? new MatrixBlock(rows, cols, true) :
+				MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			MatrixWriter writer = MatrixWriterFactory.createMatrixWriter(OutputInfo.ParquetOutputInfo);
+			writer.writeMatrixToHDFS(mb, fname, rows, cols, -1, -1, mb.getNonZeros(), false);
+			long[] dims = ReaderParquet.readDimensions(fname);
+			Assert.assertEquals(rows, dims[0]);
+			Assert.assertEquals(cols, dims[1]);
+			if( sparsity > 0 ) {
+				Path path = new Path(fname);
+				Assert.assertTrue(ReaderParquet.getRowGroups(IOUtilFunctions.getFileSystem(path),
+					path, ConfigurationManager.getCachedJobConf()).size() > 1);
+			}
+			
+			//read full matrix or column range
+			int cl = projection ? 5 : 1, cu = projection ? 11 : cols;
+			MatrixReader reader = projection ?
+				(parallel ? new ReaderParquetParallel(new FileFormatPropertiesParquet(cl, cu)) :
+				new ReaderParquet(new FileFormatPropertiesParquet(cl, cu))) :
+				MatrixReaderFactory.createMatrixReader(InputInfo.ParquetInputInfo);
+			MatrixBlock mb2 = reader.readMatrixFromHDFS(fname, rows, cu-cl+1, -1, -1, -1);
+			MatrixBlock ref = projection ? mb.slice(0, rows-1, cl-1, cu-1, new MatrixBlock()) : mb;
+			Assert.assertEquals(ref.getNonZeros(), mb2.getNonZeros());
+			Assert.assertEquals(MatrixBlock.evalSparseFormatInMemory(
+				rows, cu-cl+1, ref.getNonZeros()), mb2.isInSparseFormat());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ref),
+				DataConverter.convertToDoubleMatrix(mb2), rows, cu-cl+1, 0);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			CompilerConfig.FLAG_PARREADWRITE_BINARY = oldParBin;
+			ConfigurationManager.setGlobalConfig(new CompilerConfig());
+			WriterParquet.ROW_GROUP_SIZE = oldRowGroupSize;
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.matrix;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.functionobjects.KahanPlus;
+import org.tugraz.sysds.runtime.instructions.cp.KahanObject;
+import org.tugraz.sysds.runtime.io.FileFormatPropertiesCSV;
+import org.tugraz.sysds.runtime.io.MatrixWriter;
+import org.tugraz.sysds.runtime.io.MatrixWriterFactory;
+import org.tugraz.sysds.runtime.io.ReaderTextCSVStream;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.OutputInfo;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.runtime.util.HDFSTool;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+public class MatrixStreamingCSVReadTest extends AutomatedTestBase
+{
+	private final static String TEST_DIR = "functions/io/csvstream/";
+	
+	private final static int rows = 1593;
+	private final static int cols = 37;
+	private final static double sparsity1 = 0.9;
+	private final static double sparsity2 = 0.05;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testDenseKnownCols() {
+		runStreamingCSVReadTest(sparsity1, false, true);
+	}
+	
+	@Test
+	public void testDenseUnknownColsHeader() {
+		runStreamingCSVReadTest(sparsity1, true, false);
+	}
+	
+	@Test
+	public void testSparseKnownColsHeader() {
+		runStreamingCSVReadTest(sparsity2, true, true);
+	}
+	
+	@Test
+	public void testSparseUnknownCols() {
+		runStreamingCSVReadTest(sparsity2, false, false);
+	}
+	
+	private void runStreamingCSVReadTest(double sparsity, boolean header, boolean knownCols)
+	{
+		long oldBatchSize = ReaderTextCSVStream.BATCH_SIZE;
+		String fname = SCRIPT_DIR + TEST_DIR + "X";
+		
+		try
+		{
+			//small batches of 100 rows to enforce multiple batches
+			ReaderTextCSVStream.BATCH_SIZE = 100 * 8 * cols;
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+			FileFormatPropertiesCSV props = new FileFormatPropertiesCSV(header, ",", false);
+			MatrixWriter writer = MatrixWriterFactory.createMatrixWriter(OutputInfo.CSVOutputInfo, 1, props);
+			writer.writeMatrixToHDFS(mb, fname, rows, cols, -1, -1, mb.getNonZeros(), false);
+			
+			//read batches and compute incremental sum
+			ArrayList<MatrixBlock> batches = new ArrayList<>();
+			KahanObject kbuff = new KahanObject(0, 0);
+			try( ReaderTextCSVStream reader = new ReaderTextCSVStream(fname, props, knownCols ? cols : -1, sparsity) ) {
+				Assert.assertEquals(cols, reader.getNumColumns());
+				Assert.assertEquals(100, reader.getBatchSize());
+				MatrixBlock batch = null;
+				while( (batch = reader.next(batch)) != null ) {
+					Assert.assertTrue(batch.getNumRows() <= reader.getBatchSize());
+					KahanPlus.getKahanPlusFnObject().execute2(kbuff, batch.sum());
+					batches.add(new MatrixBlock(batch)); //deep copy, batch is reused
+				}
+				Assert.assertEquals(rows, reader.getNumRows());
+				Assert.assertEquals(mb.getNonZeros(), reader.getNonZeros());
+			}
+			
+			//compare with input
+			Assert.assertEquals((rows+99)/100, batches.size());
+			Assert.assertEquals(mb.sum(), kbuff._sum, 1e-8);
+			MatrixBlock mb2 = batches.get(0).append(batches.subList(1, batches.size())
+				.toArray(new MatrixBlock[0]), new MatrixBlock(), false);
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb),
+				DataConverter.convertToDoubleMatrix(mb2), rows, cols, 1e-14);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+		finally {
+			ReaderTextCSVStream.BATCH_SIZE = oldBatchSize;
+			try {
+				HDFSTool.deleteFileIfExistOnHDFS(fname);
+			}
+			catch(Exception ex) {
+				throw new RuntimeException(ex);
+			}
+		}
+	}
+}
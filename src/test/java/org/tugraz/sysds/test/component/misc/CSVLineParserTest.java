@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.component.misc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.io.CSVLineParser;
+import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+
+public class CSVLineParserTest 
+{
+	@Test
+	public void testTokenizeSimple() {
+		checkTokens("1,2,3", ",");
+	}
+	
+	@Test
+	public void testTokenizeEmptyFields() {
+		checkTokens(",1,,3,", ",");
+		checkTokens("", ",");
+	}
+	
+	@Test
+	public void testTokenizeWhitespace() {
+		checkTokens("  1 ,\t2 , 3  ", ",");
+	}
+	
+	@Test
+	public void testTokenizeQuoted() {
+		checkTokens("\"a,b\",c,\"d\"\"e\",\"f\"gh", ",");
+		checkTokens("\"a,b\",\"\",\"unterminated", ",");
+	}
+	
+	@Test
+	public void testTokenizeMultiCharDelim() {
+		checkTokens("1::2::::3::", "::");
+	}
+	
+	@Test
+	public void testTokenizeNonAscii() {
+		checkTokens("äöü;€;x", ";");
+	}
+	
+	@Test
+	public void testParseDoubleSpecialValues() {
+		String[] vals = new String[] {"0", "-0", "+7", "1.", ".5", "-.5e-3", "1e22", "1E-22",
+			"123456789012345", "1234567890123456789", "0.000000000000000000001234", "4.9e-324",
+			"1.7976931348623157e308", "1e400", "NaN", "-Infinity", "0x1p3", "3.5d", "007.250"};
+		for( String val : vals )
+			checkDouble(val);
+	}
+	
+	@Test
+	public void testParseDoubleRandom() {
+		Random rand = new Random(7);
+		for( int i=0; i<100000; i++ ) {
+			double val = (rand.nextDouble() - 0.5) * Math.pow(10, rand.nextInt(40) - 20);
+			checkDouble(Double.toString(val));
+			checkDouble(String.format("%.6f", val));
+			checkDouble(String.valueOf(rand.nextInt()));
+		}
+	}
+	
+	@Test
+	public void testParseDoubleRandomFullRange() {
+		Random rand = new Random(3);
+		for( int i=0; i<200000; i++ ) {
+			double val = Double.longBitsToDouble(rand.nextLong());
+			checkDouble(Double.toString(val));
+			//random mantissas of up to 20 digits and exponents
+			long mant = rand.nextLong() >>> rand.nextInt(64);
+			checkDouble(Long.toUnsignedString(mant) + "e" + (rand.nextInt(700) - 350));
+			checkDouble(Long.toUnsignedString(mant) + "." + rand.nextInt(1000));
+		}
+	}
+	
+	@Test(expected = NumberFormatException.class)
+	public void testParseDoubleInvalid() {
+		parse("1.2.3", ",").getDouble();
+	}
+	
+	@Test
+	public void testParseQuotedNumbers() {
+		CSVLineParser parser = parse("\"1.5\", \"7\" ", ",");
+		Assert.assertEquals(1.5, parser.getDouble(), 0);
+		Assert.assertTrue(parser.next());
+		Assert.assertEquals(7, parser.getLong());
+		Assert.assertFalse(parser.next());
+	}
+	
+	@Test
+	public void testParseLong() {
+		String[] vals = new String[] {"0", "-17", "+3", "123456789012345678", 
+			String.valueOf(Long.MAX_VALUE), String.valueOf(Long.MIN_VALUE)};
+		for( String val : vals )
+			Assert.assertEquals(Long.parseLong(val), parse(val, ",").getLong());
+	}
+	
+	@Test
+	public void testNAStrings() {
+		CSVLineParser parser = new CSVLineParser(",", "NA·?");
+		parser.reset(new Text("NA,?,\"NA\",NAN,1"));
+		boolean[] expected = new boolean[] {true, true, true, false, false};
+		for( int i=0; i<expected.length; i++ ) {
+			Assert.assertTrue(parser.next());
+			Assert.assertEquals(expected[i], parser.isNA());
+		}
+		Assert.assertFalse(parser.next());
+	}
+	
+	private static CSVLineParser parse(String line, String delim) {
+		CSVLineParser parser = new CSVLineParser(delim);
+		parser.reset(new Text(line));
+		Assert.assertTrue(parser.next());
+		return parser;
+	}
+	
+	private static void checkTokens(String line, String delim) {
+		//compare against string-based split (incl offset into larger buffer)
+		String[] expected = IOUtilFunctions.splitCSV(line.trim(), delim);
+		byte[] tmp = line.getBytes(StandardCharsets.UTF_8);
+		byte[] buff = new byte[tmp.length + 6];
+		System.arraycopy(tmp, 0, buff, 3, tmp.length);
+		CSVLineParser parser = new CSVLineParser(delim);
+		parser.reset(buff, 3, tmp.length);
+		ArrayList<String> tokens = new ArrayList<>();
+		while( parser.next() )
+			tokens.add(parser.getString());
+		Assert.assertEquals(expected.length, tokens.size());
+		for( int i=0; i<expected.length; i++ )
+			Assert.assertEquals(expected[i].trim(), tokens.get(i));
+		Assert.assertEquals(line.trim(), parser.getLine());
+	}
+	
+	private static void checkDouble(String val) {
+		double expected = Double.parseDouble(val);
+		double actual = parse(val, ",").getDouble();
+		Assert.assertEquals("Wrong value for "+val, 
+			Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.misc;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.DMLRuntimeException;
+import org.tugraz.sysds.runtime.util.LongLongDoubleHashMap;
+import org.tugraz.sysds.runtime.util.LongLongDoubleHashMap.ADoubleEntry;
+import org.tugraz.sysds.runtime.util.LongLongDoubleHashMap.EntryType;
+import org.tugraz.sysds.runtime.util.LongLongHashMap;
+import org.tugraz.sysds.runtime.util.StringLongHashMap;
+import org.tugraz.sysds.runtime.util.StringLongHashMap.StringLongEntry;
+
+public class PrimitiveHashMapTest 
+{
+	private static final int N = 10000;
+	private static final int SEED = 7;
+	
+	@Test
+	public void testLongLongSequential() {
+		runLongLongTest(false);
+	}
+	
+	@Test
+	public void testLongLongRandom() {
+		runLongLongTest(true);
+	}
+	
+	@Test
+	public void testStringLongSequential() {
+		runStringLongTest(false);
+	}
+	
+	@Test
+	public void testStringLongRandom() {
+		runStringLongTest(true);
+	}
+	
+	@Test
+	public void testLongLongDoubleLong() {
+		runLongLongDoubleTest(EntryType.LONG, false);
+	}
+	
+	@Test
+	public void testLongLongDoubleInt() {
+		runLongLongDoubleTest(EntryType.INT, false);
+	}
+	
+	@Test
+	public void testLongLongDoubleLongNegative() {
+		runLongLongDoubleTest(EntryType.LONG, true);
+	}
+	
+	@Test
+	public void testLongLongDoubleIntNegative() {
+		runLongLongDoubleTest(EntryType.INT, true);
+	}
+	
+	@Test
+	public void testStringLongMissingKeys() {
+		StringLongHashMap map = new StringLongHashMap();
+		map.put("a", 1);
+		Assert.assertEquals(-1, map.get(null, -1));
+		Assert.assertEquals(-1, map.get("b", -1));
+		Assert.assertFalse(map.containsKey(null));
+		Assert.assertFalse(map.putIfAbsent("a", 7));
+		Assert.assertEquals(1, map.get("a", -1));
+		map.put("a", 3);
+		Assert.assertEquals(3, map.get("a", -1));
+		Assert.assertEquals(1, map.size());
+	}
+	
+	@Test(expected = DMLRuntimeException.class)
+	public void testLongLongReservedKey() {
+		new LongLongHashMap().put(LongLongHashMap.EMPTY, 1);
+	}
+	
+	private static void runLongLongTest(boolean random) {
+		Random rand = new Random(SEED);
+		LongLongHashMap map = new LongLongHashMap();
+		HashMap<Long, Long> ref = new HashMap<>();
+		for( int i=0; i<N; i++ ) {
+			long key = random ? rand.nextLong() : i % (N/4);
+			map.addValue(key, i);
+			ref.merge(key, (long)i, Long::sum);
+		}
+		Assert.assertEquals(ref.size(), map.size());
+		Assert.assertEquals(ref.size(), map.getKeys().length);
+		for( Entry<Long, Long> e : ref.entrySet() ) {
+			Assert.assertTrue(map.containsKey(e.getKey()));
+			Assert.assertEquals(e.getValue().longValue(), map.get(e.getKey(), -1));
+		}
+		for( long key : map.getKeys() )
+			Assert.assertTrue(ref.containsKey(key));
+		Assert.assertEquals(-7, map.get(random ? N+1 : N, -7));
+	}
+	
+	private static void runStringLongTest(boolean random) {
+		Random rand = new Random(SEED);
+		StringLongHashMap map = new StringLongHashMap();
+		HashMap<String, Long> ref = new HashMap<>();
+		for( int i=0; i<N; i++ ) {
+			String key = "Token" + (random ? rand.nextInt(N) : i % (N/4));
+			map.putIfAbsent(key, map.size()+1);
+			ref.putIfAbsent(key, (long)ref.size()+1);
+		}
+		Assert.assertEquals(ref.size(), map.size());
+		for( Entry<String, Long> e : ref.entrySet() )
+			Assert.assertEquals(e.getValue().longValue(), map.get(e.getKey(), -1));
+		int count = 0;
+		Iterator<StringLongEntry> iter = map.getIterator();
+		while( iter.hasNext() ) {
+			StringLongEntry e = iter.next();
+			Assert.assertEquals(ref.get(e.getKey()).longValue(), e.getValue());
+			count++;
+		}
+		Assert.assertEquals(ref.size(), count);
+	}
+	
+	private static void runLongLongDoubleTest(EntryType type, boolean negative) {
+		Random rand = new Random(SEED);
+		LongLongDoubleHashMap map = new LongLongDoubleHashMap(type);
+		HashMap<String, Double> ref = new HashMap<>();
+		for( int i=0; i<N; i++ ) {
+			long key1 = rand.nextInt(100) * (negative ? -1 : 1);
+			long key2 = rand.nextInt(50) + 1;
+			map.addValue(key1, key2, i+1);
+			ref.merge(key1+","+key2, (double)i+1, Double::sum);
+		}
+		Assert.assertEquals(ref.size(), map.size());
+		Assert.assertEquals(ref.size(), map.getNonZeros());
+		int count = 0;
+		Iterator<ADoubleEntry> iter = map.getIterator();
+		while( iter.hasNext() ) {
+			ADoubleEntry e = iter.next();
+			Double val = ref.get(e.getKey1()+","+e.getKey2());
+			Assert.assertNotNull(val);
+			Assert.assertEquals(val, e.value, 0);
+			count++;
+		}
+		Assert.assertEquals(ref.size(), count);
+	}
+}
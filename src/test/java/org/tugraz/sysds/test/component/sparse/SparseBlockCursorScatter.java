@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.sparse;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockCursor;
+import org.tugraz.sysds.runtime.data.SparseBlockFactory;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+/**
+ * This is a sparse matrix block component test for the reusable sparse 
+ * block cursors and the scatter of sparse rows into dense arrays, over
+ * full and partial row ranges, as well as different sparsity values.
+ */
+public class SparseBlockCursorScatter extends AutomatedTestBase 
+{
+	private final static int rows = 662;
+	private final static int cols = 444;
+	private final static int rlPartial = 134;
+	private final static int ruPartial = 517;
+	private final static double sparsity1 = 0.01;
+	private final static double sparsity2 = 0.1;
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+	
+	@Test
+	public void testSparseBlockMCSR1() {
+		runSparseBlockCursorTest(SparseBlock.Type.MCSR, sparsity1);
+	}
+	
+	@Test
+	public void testSparseBlockMCSR2() {
+		runSparseBlockCursorTest(SparseBlock.Type.MCSR, sparsity2);
+	}
+	
+	@Test
+	public void testSparseBlockCSR1() {
+		runSparseBlockCursorTest(SparseBlock.Type.CSR, sparsity1);
+	}
+	
+	@Test
+	public void testSparseBlockCSR2() {
+		runSparseBlockCursorTest(SparseBlock.Type.CSR, sparsity2);
+	}
+	
+	@Test
+	public void testSparseBlockCOO1() {
+		runSparseBlockCursorTest(SparseBlock.Type.COO, sparsity1);
+	}
+	
+	@Test
+	public void testSparseBlockCOO2() {
+		runSparseBlockCursorTest(SparseBlock.Type.COO, sparsity2);
+	}
+	
+	@Test
+	public void testSparseBlockBCSR1() {
+		runSparseBlockCursorTest(SparseBlock.Type.BCSR, sparsity1);
+	}
+	
+	@Test
+	public void testSparseBlockBCSR2() {
+		runSparseBlockCursorTest(SparseBlock.Type.BCSR, sparsity2);
+	}
+	
+	private void runSparseBlockCursorTest(SparseBlock.Type btype, double sparsity) {
+		//data generation, incl empty rows
+		double[][] A = getRandomMatrix(rows, cols, -10, 10, sparsity, 7654321);
+		for( int i=0; i<rows; i+=7 )
+			A[i] = new double[cols];
+		MatrixBlock mbtmp = DataConverter.convertToMatrixBlock(A);
+		SparseBlock sblock = SparseBlockFactory.copySparseBlock(btype, mbtmp.getSparseBlock(), true);
+		
+		//check full and partial cursors, incl reset for reuse
+		SparseBlockCursor cur = sblock.getCursor();
+		checkCursor(A, cur, 0, rows);
+		checkCursor(A, cur.reset(rlPartial, ruPartial), rlPartial, ruPartial);
+		checkCursor(A, cur.reset(rlPartial, rlPartial), rlPartial, rlPartial);
+		checkCursor(A, sblock.getCursor(ruPartial, rows), ruPartial, rows);
+		Assert.assertFalse(cur.next());
+		
+		//check scatter into dense rows with offset
+		double[] c = new double[cols + 3];
+		for( int i=0; i<rows; i++ ) {
+			Arrays.fill(c, 0);
+			sblock.scatter(i, c, 3);
+			for( int j=0; j<cols; j++ )
+				Assert.assertEquals("Wrong value at ("+i+","+j+")", A[i][j], c[3+j], 0);
+		}
+	}
+	
+	private static void checkCursor(double[][] A, SparseBlockCursor cur, int rl, int ru) {
+		int nnz = 0, lastRow = -1, lastCol = -1;
+		for( int i=rl; i<ru; i++ )
+			for( int j=0; j<cols; j++ )
+				nnz += (A[i][j]!=0) ? 1 : 0;
+		int count = 0;
+		while( cur.next() ) {
+			int i = cur.getRow(), j = cur.getCol();
+			Assert.assertTrue("Row out of range: "+i, i>=rl && i<ru);
+			Assert.assertTrue("Wrong order: ("+i+","+j+")", i>lastRow || (i==lastRow && j>lastCol));
+			Assert.assertEquals("Wrong value at ("+i+","+j+")", A[i][j], cur.getValue(), 0);
+			lastRow = i; lastCol = j;
+			count++;
+		}
+		Assert.assertEquals(nnz, count);
+	}
+}
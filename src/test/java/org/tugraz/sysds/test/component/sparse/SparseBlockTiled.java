@@ -0,0 +1,477 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.sparse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tugraz.sysds.runtime.data.SparseBlock;
+import org.tugraz.sysds.runtime.data.SparseBlockBCSR;
+import org.tugraz.sysds.runtime.data.SparseBlockCursor;
+import org.tugraz.sysds.runtime.data.SparseBlockFactory;
+import org.tugraz.sysds.runtime.instructions.InstructionUtils;
+import org.tugraz.sysds.runtime.matrix.data.IJV;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
+import org.tugraz.sysds.runtime.util.DataConverter;
+import org.tugraz.sysds.test.AutomatedTestBase;
+import org.tugraz.sysds.test.TestUtils;
+
+/**
+ * This is a sparse matrix block component test for the block compressed
+ * sparse row format (BCSR), which is selected for inputs with structured
+ * sparsity, i.e., all non-zeros in fully dense or partially filled tiles.
+ * We test the selection, the row-wise sparse block API, tile-wise access
+ * without column indexes, tile kernels, and updates.
+ */
+public class SparseBlockTiled extends AutomatedTestBase
+{
+	private final static int rows = 100;
+	private final static int cols = 90;
+	private final static double eps = 1e-10;
+	private final static double partial = 0.8;
+
+	private static boolean _oldFlag;
+
+	@BeforeClass
+	public static void enableTiledSparseBlocks() {
+		_oldFlag = MatrixBlock.ALLOW_TILED_SPARSEBLOCK;
+		MatrixBlock.ALLOW_TILED_SPARSEBLOCK = true;
+	}
+
+	@AfterClass
+	public static void resetTiledSparseBlocks() {
+		MatrixBlock.ALLOW_TILED_SPARSEBLOCK = _oldFlag;
+	}
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testSparseBlockBCSRSelection8() {
+		runSparseBlockSelectionTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRSelection3() {
+		runSparseBlockSelectionTest(3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialSelection8() {
+		runSparseBlockSelectionTest(8, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialSelection3() {
+		runSparseBlockSelectionTest(3, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRSparseTiles() {
+		//tiles w/ fill ratio below the threshold are rejected
+		double[][] A = getTiledMatrix(8, 0.5);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		Assert.assertEquals(-1, SparseBlockBCSR.computeTileSize(mbA.getSparseBlock(), rows, cols));
+		Assert.assertFalse(mbA.getSparseBlock() instanceof SparseBlockBCSR);
+	}
+
+	@Test
+	public void testSparseBlockBCSRUnstructured() {
+		double[][] A = TestUtils.generateTestMatrix(rows, cols, -1, 1, 0.1, 7);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		Assert.assertEquals(-1, SparseBlockBCSR.computeTileSize(mbA.getSparseBlock(), rows, cols));
+		Assert.assertFalse(mbA.getSparseBlock() instanceof SparseBlockBCSR);
+	}
+
+	@Test
+	public void testSparseBlockBCSRMatrixMult8() {
+		runSparseBlockMatrixMultTest(8, 20, 1);
+	}
+
+	@Test
+	public void testSparseBlockBCSRMatrixMult3() {
+		runSparseBlockMatrixMultTest(3, 20, 1);
+	}
+
+	@Test
+	public void testSparseBlockBCSRMatrixVector8() {
+		runSparseBlockMatrixMultTest(8, 1, 1);
+	}
+
+	@Test
+	public void testSparseBlockBCSRMatrixMultParallel3() {
+		runSparseBlockMatrixMultTest(3, 20, 3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRMatrixMultParallelRhs8() {
+		runSparseBlockMatrixMultTest(8, 16, 20, 3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRDenseSparseMult8() {
+		runSparseBlockDenseSparseMultTest(8, 20);
+	}
+
+	@Test
+	public void testSparseBlockBCSRVectorMatrixMult3() {
+		runSparseBlockDenseSparseMultTest(3, 1);
+	}
+
+	@Test
+	public void testSparseBlockBCSRAccess8() {
+		runSparseBlockAccessTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRAccess3() {
+		runSparseBlockAccessTest(3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRSerialize8() throws Exception {
+		runSparseBlockSerializeTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRSerialize3() throws Exception {
+		runSparseBlockSerializeTest(3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRColSums8() {
+		runSparseBlockColSumsTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRColSums3() {
+		runSparseBlockColSumsTest(3);
+	}
+
+	@Test
+	public void testSparseBlockBCSRUpdate8() {
+		runSparseBlockUpdateTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialMatrixMult8() {
+		runSparseBlockMatrixMultTest(8, rows, 20, 3, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialMatrixVector3() {
+		runSparseBlockMatrixMultTest(3, rows, 1, 1, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialDenseSparseMult8() {
+		runSparseBlockDenseSparseMultTest(8, 20, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialAccess8() {
+		runSparseBlockAccessTest(8, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialAccess3() {
+		runSparseBlockAccessTest(3, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialSerialize8() throws Exception {
+		runSparseBlockSerializeTest(8, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialColSums8() {
+		runSparseBlockColSumsTest(8, partial);
+	}
+
+	@Test
+	public void testSparseBlockBCSRPartialUpdate8() {
+		runSparseBlockPartialUpdateTest(8);
+	}
+
+	@Test
+	public void testSparseBlockBCSRCopy3() {
+		double[][] A = getTiledMatrix(3, 1.0);
+		SparseBlock sblock = getTiledSparseBlock(A, 3);
+		SparseBlock csr = SparseBlockFactory.copySparseBlock(SparseBlock.Type.CSR, sblock, true);
+		SparseBlock bcsr = SparseBlockFactory.copySparseBlock(SparseBlock.Type.BCSR, csr, true);
+		Assert.assertEquals(3, ((SparseBlockBCSR)bcsr).getTileSize());
+		checkSparseBlock(A, bcsr);
+	}
+
+	private static void runSparseBlockSelectionTest(int blen) {
+		runSparseBlockSelectionTest(blen, 1.0);
+	}
+
+	private static void runSparseBlockSelectionTest(int blen, double fill) {
+		double[][] A = getTiledMatrix(blen, fill);
+		SparseBlockBCSR sblock = (SparseBlockBCSR) getTiledSparseBlock(A, blen);
+		Assert.assertTrue(sblock.checkValidity(rows, cols, sblock.size(), true));
+		Assert.assertEquals(fill == 1, sblock.isFullTiles());
+		checkSparseBlock(A, sblock);
+		//row-wise access to explicit zeros converts to CSR
+		Assert.assertEquals(fill == 1, sblock.isTiled());
+	}
+
+	private static void runSparseBlockMatrixMultTest(int blen, int n, int k) {
+		runSparseBlockMatrixMultTest(blen, rows, n, k);
+	}
+
+	private static void runSparseBlockMatrixMultTest(int blen, int m, int n, int k) {
+		runSparseBlockMatrixMultTest(blen, m, n, k, 1.0);
+	}
+
+	private static void runSparseBlockMatrixMultTest(int blen, int m, int n, int k, double fill) {
+		double[][] A = Arrays.copyOf(getTiledMatrix(blen, fill), m);
+		double[][] B = TestUtils.generateTestMatrix(cols, n, -1, 1, 1.0, 3);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		checkTiledSparseBlock(mbA, blen);
+		MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+		MatrixBlock mbC = new MatrixBlock(m, n, false);
+		LibMatrixMult.matrixMult(mbA, mbB, mbC, k);
+
+		double[][] C = new double[m][n];
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<cols; j++ )
+				for( int l=0; l<n; l++ )
+					C[i][l] += A[i][j] * B[j][l];
+		TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(mbC), m, n, eps);
+		checkNoMaterializedIndexes(mbA.getSparseBlock());
+	}
+
+	private static void runSparseBlockDenseSparseMultTest(int blen, int m) {
+		runSparseBlockDenseSparseMultTest(blen, m, 1.0);
+	}
+
+	private static void runSparseBlockDenseSparseMultTest(int blen, int m, double fill) {
+		double[][] A = TestUtils.generateTestMatrix(m, rows, -1, 1, 1.0, 3);
+		double[][] B = getTiledMatrix(blen, fill);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+		checkTiledSparseBlock(mbB, blen);
+		MatrixBlock mbC = new MatrixBlock(m, cols, false);
+		LibMatrixMult.matrixMult(mbA, mbB, mbC, 3);
+
+		double[][] C = new double[m][cols];
+		for( int i=0; i<m; i++ )
+			for( int j=0; j<rows; j++ )
+				for( int l=0; l<cols; l++ )
+					C[i][l] += A[i][j] * B[j][l];
+		TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(mbC), m, cols, eps);
+		checkNoMaterializedIndexes(mbB.getSparseBlock());
+	}
+
+	private static void runSparseBlockAccessTest(int blen) {
+		runSparseBlockAccessTest(blen, 1.0);
+	}
+
+	private static void runSparseBlockAccessTest(int blen, double fill) {
+		double[][] A = getTiledMatrix(blen, fill);
+		SparseBlock sblock = getTiledSparseBlock(A, blen);
+		double[][] C1 = new double[rows][cols];
+		double[][] C2 = new double[rows][cols];
+		double[][] C3 = new double[rows][cols];
+		Iterator<IJV> iter = sblock.getIterator();
+		while( iter.hasNext() ) {
+			IJV cell = iter.next();
+			C1[cell.getI()][cell.getJ()] = cell.getV();
+		}
+		SparseBlockCursor cur = sblock.getCursor(0, rows);
+		while( cur.next() )
+			C2[cur.getRow()][cur.getCol()] = cur.getValue();
+		for( int i=0; i<rows; i++ )
+			sblock.scatter(i, C3[i], 0);
+		TestUtils.compareMatrices(A, C1, rows, cols, 0);
+		TestUtils.compareMatrices(A, C2, rows, cols, 0);
+		TestUtils.compareMatrices(A, C3, rows, cols, 0);
+		long nnz = 0;
+		for( int i=0; i<rows; i++ ) {
+			int lnnz = 0, lnnz2 = 0;
+			for( int j=0; j<cols; j++ ) {
+				lnnz += (A[i][j] != 0) ? 1 : 0;
+				lnnz2 += (A[i][j] != 0 && j >= 5 && j < 50) ? 1 : 0;
+			}
+			Assert.assertEquals(lnnz, sblock.size(i));
+			Assert.assertEquals(lnnz, sblock.get(i).size());
+			Assert.assertEquals(lnnz2, sblock.size(i, i+1, 5, 50));
+			nnz += lnnz;
+		}
+		Assert.assertEquals(nnz, sblock.size());
+		checkNoMaterializedIndexes(sblock);
+	}
+
+	private static void runSparseBlockSerializeTest(int blen) throws Exception {
+		runSparseBlockSerializeTest(blen, 1.0);
+	}
+
+	private static void runSparseBlockSerializeTest(int blen, double fill) throws Exception {
+		double[][] A = getTiledMatrix(blen, fill);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		checkTiledSparseBlock(mbA, blen);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		mbA.write(new DataOutputStream(bos));
+		MatrixBlock mbB = new MatrixBlock();
+		mbB.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		Assert.assertEquals(mbA.getNonZeros(), mbB.getNonZeros());
+		TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mbB), rows, cols, 0);
+		checkNoMaterializedIndexes(mbA.getSparseBlock());
+	}
+
+	private static void runSparseBlockColSumsTest(int blen) {
+		runSparseBlockColSumsTest(blen, 1.0);
+	}
+
+	private static void runSparseBlockColSumsTest(int blen, double fill) {
+		double[][] A = getTiledMatrix(blen, fill);
+		MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+		checkTiledSparseBlock(mbA, blen);
+		MatrixBlock ret = (MatrixBlock) mbA.aggregateUnaryOperations(
+			InstructionUtils.parseBasicAggregateUnaryOperator("uack+"),
+			new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+		checkNoMaterializedIndexes(mbA.getSparseBlock());
+
+		double[][] C = new double[1][cols];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				C[0][j] += A[i][j];
+		TestUtils.compareMatrices(C, DataConverter.convertToDoubleMatrix(ret), 1, cols, eps);
+	}
+
+	private static void runSparseBlockUpdateTest(int blen) {
+		double[][] A = getTiledMatrix(blen, 1.0);
+		SparseBlockBCSR sblock = (SparseBlockBCSR) getTiledSparseBlock(A, blen);
+
+		//in-tile update preserves tiling
+		Assert.assertFalse(sblock.set(1, 2, 7));
+		A[1][2] = 7;
+		Assert.assertTrue(sblock.isTiled());
+		Assert.assertFalse(sblock.set(1, 9, 0));
+		Assert.assertTrue(sblock.isTiled());
+		checkSparseBlock(A, sblock);
+
+		//delete and insert untile the sparse block
+		Assert.assertTrue(sblock.set(1, 2, 0));
+		A[1][2] = 0;
+		Assert.assertFalse(sblock.isTiled());
+		Assert.assertTrue(sblock.set(1, 9, 3));
+		A[1][9] = 3;
+		checkSparseBlock(A, sblock);
+	}
+
+	private static void runSparseBlockPartialUpdateTest(int blen) {
+		double[][] A = getTiledMatrix(blen, partial);
+		SparseBlockBCSR sblock = (SparseBlockBCSR) getTiledSparseBlock(A, blen);
+		int[] zero = findTileCell(A, blen, true);
+		int[] nz = findTileCell(A, blen, false);
+
+		//in-tile update of non-zeros and zero on explicit zero preserve tiling
+		Assert.assertFalse(sblock.set(nz[0], nz[1], 7));
+		A[nz[0]][nz[1]] = 7;
+		Assert.assertFalse(sblock.set(zero[0], zero[1], 0));
+		Assert.assertFalse(sblock.add(nz[0], nz[1], 2));
+		A[nz[0]][nz[1]] += 2;
+		Assert.assertTrue(sblock.isTiled());
+		Assert.assertTrue(sblock.checkValidity(rows, cols, sblock.size(), true));
+
+		//insert into explicit zero untiles the sparse block
+		Assert.assertTrue(sblock.set(zero[0], zero[1], 3));
+		A[zero[0]][zero[1]] = 3;
+		Assert.assertFalse(sblock.isTiled());
+		checkSparseBlock(A, sblock);
+	}
+
+	private static int[] findTileCell(double[][] A, int blen, boolean zero) {
+		//find a zero or non-zero cell within the diagonal tiles
+		for( int i=0; i<rows; i++ )
+			for( int j=i/blen*blen; j<Math.min(cols, (i/blen+1)*blen); j++ )
+				if( (A[i][j] == 0) == zero )
+					return new int[]{i, j};
+		throw new RuntimeException("No matching tile cell.");
+	}
+
+	private static double[][] getTiledMatrix(int blen, double fill) {
+		//block-diagonal plus off-diagonal tiles, w/ narrow last tile column,
+		//and zeros within tiles for fill ratios below 1
+		double[][] R = TestUtils.generateTestMatrix(rows, cols, 1, 2, fill, 13);
+		double[][] A = new double[rows][cols];
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				int bi = i / blen, bj = j / blen;
+				if( bi == bj || (bi+bj) % 5 == 0 )
+					A[i][j] = R[i][j];
+			}
+		return A;
+	}
+
+	private static SparseBlock getTiledSparseBlock(double[][] A, int blen) {
+		return checkTiledSparseBlock(DataConverter.convertToMatrixBlock(A), blen);
+	}
+
+	private static SparseBlock checkTiledSparseBlock(MatrixBlock mbA, int blen) {
+		Assert.assertTrue(mbA.isInSparseFormat());
+		SparseBlock sblock = mbA.getSparseBlock();
+		Assert.assertEquals(SparseBlock.Type.BCSR, SparseBlockFactory.getSparseBlockType(sblock));
+		Assert.assertEquals(blen, ((SparseBlockBCSR)sblock).getTileSize());
+		return sblock;
+	}
+
+	private static void checkNoMaterializedIndexes(SparseBlock sblock) {
+		try {
+			Field f = SparseBlockBCSR.class.getDeclaredField("_indexes");
+			f.setAccessible(true);
+			Assert.assertNull(f.get(sblock));
+			Assert.assertTrue(((SparseBlockBCSR)sblock).isTiled());
+		}
+		catch(ReflectiveOperationException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static void checkSparseBlock(double[][] A, SparseBlock sblock) {
+		long nnz = 0;
+		for( int i=0; i<rows; i++ ) {
+			int apos = sblock.pos(i);
+			int alen = sblock.size(i);
+			int[] aix = sblock.indexes(i);
+			double[] avals = sblock.values(i);
+			for( int k=apos; k<apos+alen; k++ )
+				Assert.assertEquals(A[i][aix[k]], avals[k], 0);
+			for( int j=0; j<cols; j++ ) {
+				Assert.assertEquals(A[i][j], sblock.get(i, j), 0);
+				nnz += (A[i][j] != 0) ? 1 : 0;
+			}
+		}
+		Assert.assertEquals(nnz, sblock.size());
+	}
+}
@@ -175,6 +175,96 @@ public class DenseBlockConstructionTest
 			DenseBlockFactory.getDenseBlockType(db));
 	}
 	
+	@Test
+	public void testMetaDenseBlock2FP16() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.FP16);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5, db.size());
+		Assert.assertEquals(3*5, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
+	@Test
+	public void testMetaDenseBlock2BF16() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.BF16);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5, db.size());
+		Assert.assertEquals(3*5, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
+	@Test
+	public void testMetaDenseBlock2Int8() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.INT8);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5, db.size());
+		Assert.assertEquals(3*5, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
+	@Test
+	public void testMetaDenseBlock3FP16() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.FP16);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5*7, db.size());
+		Assert.assertEquals(3*5*7, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
+	@Test
+	public void testMetaDenseBlock3BF16() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.BF16);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5*7, db.size());
+		Assert.assertEquals(3*5*7, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
+	@Test
+	public void testMetaDenseBlock3Int8() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.INT8);
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(true, db.isContiguous());
+		Assert.assertEquals(1, db.numBlocks());
+		Assert.assertEquals(3, db.blockSize());
+		Assert.assertEquals(3*5*7, db.size());
+		Assert.assertEquals(3*5*7, db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.DRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+	
 	private DenseBlock getDenseBlock2(ValueType vt) {
 		return DenseBlockFactory.createDenseBlock(vt, new int[] {3,5});
 	}
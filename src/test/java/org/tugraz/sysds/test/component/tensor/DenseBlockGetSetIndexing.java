@@ -86,6 +86,42 @@ public class DenseBlockGetSetIndexing
 		checkSequence(setSequence(db));
 	}
 	
+	@Test
+	public void testIndexDenseBlock2FP16Const() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.FP16);
+		checkSequence(setSequence(db));
+	}
+	
+	@Test
+	public void testIndexDenseBlock2BF16Const() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.BF16);
+		checkSequence(setSequence(db));
+	}
+	
+	@Test
+	public void testIndexDenseBlock2Int8Const() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.INT8);
+		checkSequence(setSequence(db));
+	}
+	
+	@Test
+	public void testIndexDenseBlock3FP16Const() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.FP16);
+		checkSequence(setSequence(db));
+	}
+	
+	@Test
+	public void testIndexDenseBlock3BF16Const() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.BF16);
+		checkSequence(setSequence(db));
+	}
+	
+	@Test
+	public void testIndexDenseBlock3Int8Const() throws Exception {
+		DenseBlock db = getDenseBlock3(ValueType.INT8);
+		checkSequence(setSequence(db));
+	}
+	
 	private DenseBlock getDenseBlock2(ValueType vt) {
 		return DenseBlockFactory.createDenseBlock(vt, new int[] {3,5});
 	}
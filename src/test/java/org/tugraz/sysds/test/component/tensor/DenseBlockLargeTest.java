@@ -0,0 +1,281 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.tensor;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.data.DenseBlock;
+import org.tugraz.sysds.runtime.data.DenseBlockFactory;
+import org.tugraz.sysds.runtime.data.DenseBlockLBool;
+import org.tugraz.sysds.runtime.data.DenseBlockLFP32;
+import org.tugraz.sysds.runtime.data.DenseBlockLFP64;
+import org.tugraz.sysds.runtime.data.DenseBlockLInt32;
+import org.tugraz.sysds.runtime.data.DenseBlockLInt64;
+import org.tugraz.sysds.runtime.data.DenseBlockOffHeapFP64;
+
+/**
+ * Tests for large dense row blocks (LDRB), where a small number of rows
+ * per block is used to force multiple underlying blocks.
+ */
+public class DenseBlockLargeTest
+{
+	private static final int BLEN = 2; //rows per block
+
+	@Test
+	public void testMetaLargeDenseBlock2FP32() throws Exception {
+		checkMeta(getDenseBlock2(ValueType.FP32));
+	}
+
+	@Test
+	public void testMetaLargeDenseBlock2FP64() throws Exception {
+		checkMeta(getDenseBlock2(ValueType.FP64));
+	}
+
+	@Test
+	public void testMetaLargeDenseBlock2Bool() throws Exception {
+		checkMeta(getDenseBlock2(ValueType.BOOLEAN));
+	}
+
+	@Test
+	public void testMetaLargeDenseBlock2Int32() throws Exception {
+		checkMeta(getDenseBlock2(ValueType.INT32));
+	}
+
+	@Test
+	public void testMetaLargeDenseBlock2Int64() throws Exception {
+		checkMeta(getDenseBlock2(ValueType.INT64));
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock2FP32() throws Exception {
+		checkSequence(setSequence(getDenseBlock2(ValueType.FP32)), false);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock2FP64() throws Exception {
+		checkSequence(setSequence(getDenseBlock2(ValueType.FP64)), false);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock2Bool() throws Exception {
+		checkSequence(setSequence(getDenseBlock2(ValueType.BOOLEAN)), true);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock2Int32() throws Exception {
+		checkSequence(setSequence(getDenseBlock2(ValueType.INT32)), false);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock2Int64() throws Exception {
+		checkSequence(setSequence(getDenseBlock2(ValueType.INT64)), false);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock3FP64() throws Exception {
+		checkSequence(setSequence(getDenseBlock3(ValueType.FP64)), false);
+	}
+
+	@Test
+	public void testIndexLargeDenseBlock3Int32() throws Exception {
+		checkSequence(setSequence(getDenseBlock3(ValueType.INT32)), false);
+	}
+
+	@Test
+	public void testRowValuesLargeDenseBlock2FP64() throws Exception {
+		DenseBlock db = setSequence(getDenseBlock2(ValueType.FP64));
+		for(int i=0; i<db.numRows(); i++) {
+			double[] vals = db.values(i);
+			int pos = db.pos(i);
+			Assert.assertTrue(vals == db.valuesAt(db.index(i)));
+			for(int j=0; j<5; j++)
+				Assert.assertEquals(i*5+j, vals[pos+j], 0);
+		}
+	}
+
+	@Test
+	public void testNnzRangeLargeDenseBlock2FP64() throws Exception {
+		DenseBlock db = setSequence(getDenseBlock2(ValueType.FP64));
+		Assert.assertEquals(14, db.countNonZeros());
+		Assert.assertEquals(4, db.countNonZeros(0));
+		Assert.assertEquals(5, db.countNonZeros(1));
+		Assert.assertEquals(10, db.countNonZeros(1, 3, 0, 5));
+		Assert.assertEquals(4, db.countNonZeros(1, 3, 1, 3));
+	}
+
+	@Test
+	public void testFillResetLargeDenseBlock2FP64() throws Exception {
+		DenseBlock db = getDenseBlock2(ValueType.FP64);
+		db.set(1, 3, 1, 4, 7);
+		Assert.assertEquals(6, db.countNonZeros());
+		Assert.assertEquals(7, db.get(2, 3), 0);
+		Assert.assertEquals(0, db.get(2, 4), 0);
+		db.reset(5, new int[]{4}, 3);
+		Assert.assertEquals(5*4, db.countNonZeros());
+		Assert.assertEquals(3, db.numBlocks());
+		db.reset();
+		Assert.assertEquals(0, db.countNonZeros());
+	}
+
+	@Test
+	public void testCopyLargeDenseBlock2FP64() throws Exception {
+		DenseBlock db1 = setSequence(getDenseBlock2(ValueType.FP64));
+		DenseBlock db2 = getDenseBlock2(ValueType.FP64);
+		db2.set(db1);
+		checkSequence(db2, false);
+		DenseBlock db3 = getDenseBlock2(ValueType.INT64);
+		db3.set(db1);
+		checkSequence(db3, false);
+	}
+
+	@Test
+	public void testMetaOffHeapDenseBlock2FP64() throws Exception {
+		checkMeta(new DenseBlockOffHeapFP64(new int[] {3,5}, BLEN));
+	}
+
+	@Test
+	public void testIndexOffHeapDenseBlock3FP64() throws Exception {
+		checkSequence(setSequence(new DenseBlockOffHeapFP64(new int[] {3,5,7}, BLEN)), false);
+	}
+
+	@Test
+	public void testRowValuesOffHeapDenseBlock2FP64() throws Exception {
+		DenseBlock db = setSequence(new DenseBlockOffHeapFP64(new int[] {3,5}, BLEN));
+		for(int i=0; i<db.numRows(); i++) {
+			double[] vals = db.values(i);
+			double[] blk = db.valuesAt(db.index(i));
+			Assert.assertEquals(db.size(db.index(i)), blk.length);
+			for(int j=0; j<5; j++) {
+				Assert.assertEquals(i*5+j, vals[j], 0);
+				Assert.assertEquals(i*5+j, blk[db.pos(i)+j], 0);
+			}
+		}
+	}
+
+	@Test
+	public void testCopyOffHeapDenseBlock2FP64() throws Exception {
+		DenseBlock db1 = setSequence(getDenseBlock2(ValueType.FP64));
+		DenseBlockOffHeapFP64 db2 = new DenseBlockOffHeapFP64(new int[] {3,5}, BLEN);
+		db2.set(db1);
+		checkSequence(db2, false);
+		Assert.assertEquals(14, db2.countNonZeros());
+		double[] c = new double[3*5];
+		db2.copyTo(c);
+		for(int i=0; i<c.length; i++)
+			Assert.assertEquals(i, c[i], 0);
+		ByteBuffer[] buffs = db2.getBuffers();
+		Assert.assertEquals(2, buffs.length);
+		Assert.assertEquals(10*8, buffs[0].remaining());
+		Assert.assertEquals(5*8, buffs[1].remaining());
+		Assert.assertEquals(12, buffs[1].asDoubleBuffer().get(2), 0);
+		db2.free();
+		Assert.assertEquals(-1, db2.capacity());
+	}
+
+	@Test
+	public void testCopyOffHeapDenseBlock2FP64ToLarge() throws Exception {
+		DenseBlockOffHeapFP64 db1 = new DenseBlockOffHeapFP64(new int[] {3,5}, BLEN);
+		setSequence(db1);
+		DenseBlock db2 = getDenseBlock2(ValueType.FP64);
+		db1.copyTo(db2);
+		checkSequence(db2, false);
+		//array accessors are read-only copies
+		db1.values(1)[0] = -1;
+		db1.valuesAt(0)[0] = -1;
+		checkSequence(db1, false);
+	}
+
+	private static void checkMeta(DenseBlock db) {
+		Assert.assertEquals(3, db.numRows());
+		Assert.assertEquals(true, db.isNumeric());
+		Assert.assertEquals(false, db.isContiguous());
+		Assert.assertEquals(true, db.isContiguous(0, 1));
+		Assert.assertEquals(false, db.isContiguous(1, 2));
+		Assert.assertEquals(2, db.numBlocks());
+		Assert.assertEquals(BLEN, db.blockSize());
+		Assert.assertEquals(1, db.blockSize(1));
+		Assert.assertEquals(5, db.size(1));
+		Assert.assertEquals(3*5, db.size());
+		Assert.assertTrue(3*5 <= db.capacity());
+		Assert.assertEquals(0, db.countNonZeros());
+		Assert.assertEquals(DenseBlock.Type.LDRB,
+			DenseBlockFactory.getDenseBlockType(db));
+	}
+
+	private static DenseBlock getDenseBlock2(ValueType vt) {
+		return getLargeDenseBlock(vt, new int[] {3,5});
+	}
+
+	private static DenseBlock getDenseBlock3(ValueType vt) {
+		return getLargeDenseBlock(vt, new int[] {3,5,7});
+	}
+
+	private static DenseBlock getLargeDenseBlock(ValueType vt, int[] dims) {
+		switch(vt) {
+			case FP32: return new DenseBlockLFP32(dims, BLEN);
+			case FP64: return new DenseBlockLFP64(dims, BLEN);
+			case INT32: return new DenseBlockLInt32(dims, BLEN);
+			case INT64: return new DenseBlockLInt64(dims, BLEN);
+			case BOOLEAN: return new DenseBlockLBool(dims, BLEN);
+			default: throw new RuntimeException("Unsupported value type: "+vt);
+		}
+	}
+
+	private static DenseBlock setSequence(DenseBlock db) {
+		if( db.numDims() == 3 ) {
+			int dim12 = 5*7;
+			int dim1 =5, dim2 = 7;
+			for(int i=0; i<db.numRows(); i++)
+				for(int j=0; j<dim1; j++)
+					for(int k=0; k<dim2; k++)
+						db.set(new int[] {i,j,k}, (double)i*dim12+j*dim2+k);
+		}
+		else { //num dims = 2
+			int dim1 = 5;
+			for(int i=0; i<db.numRows(); i++)
+				for(int j=0; j<dim1; j++)
+					db.set(i, j, i*dim1+j);
+		}
+		return db;
+	}
+
+	private static void checkSequence(DenseBlock db, boolean isBool) {
+		if( db.numDims() == 3 ) {
+			int dim12 = 5*7;
+			int dim1 = 5, dim2 = 7;
+			for(int i=0; i<db.numRows(); i++)
+				for(int j=0; j<dim1; j++)
+					for(int k=0; k<dim2; k++) {
+						int val = i*dim12+j*dim2+k;
+						double expected = isBool && val!=0 ? 1 : val;
+						Assert.assertEquals(expected, db.get(new int[] {i,j,k}), 0);
+					}
+		}
+		else { //num dims = 2
+			int dim1 = 5;
+			for(int i=0; i<db.numRows(); i++)
+				for(int j=0; j<dim1; j++) {
+					int val = i*dim1+j;
+					double expected = isBool && val!=0 ? 1 : val;
+					Assert.assertEquals(expected, db.get(i, j), 0);
+				}
+		}
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.component.tensor;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tugraz.sysds.common.Types.ValueType;
+import org.tugraz.sysds.runtime.data.SparseTensorCOO;
+import org.tugraz.sysds.runtime.data.TensorBlock;
+import org.tugraz.sysds.runtime.functionobjects.Multiply;
+import org.tugraz.sysds.runtime.functionobjects.Plus;
+import org.tugraz.sysds.runtime.matrix.operators.BinaryOperator;
+import org.tugraz.sysds.runtime.matrix.operators.RightScalarOperator;
+
+
+public class TensorSparseTest 
+{
+	private static final int[] DIMS = new int[] {7,11,13};
+	
+	@Test
+	public void testSparseGetSet() throws Exception {
+		TensorBlock tb = createTensor(ValueType.FP64, true, 0.05, 7);
+		TensorBlock tb2 = createTensor(ValueType.FP64, false, 0.05, 7);
+		Assert.assertTrue(tb.isSparse());
+		Assert.assertEquals(tb2.getNonZeros(), tb.getNonZeros());
+		Assert.assertEquals(tb.getNonZeros(), tb.getSparseBlock().size());
+		checkEquals(tb2, tb);
+		
+		//overwrite and delete existing non-zeros
+		long nnz = tb.getNonZeros();
+		long[] keys = tb.getSparseBlock().keys();
+		int[] ix = new int[3];
+		tb.getSparseBlock().delinearize(keys[0], ix);
+		tb.set(ix, 0);
+		Assert.assertEquals(nnz-1, tb.getNonZeros());
+		Assert.assertEquals(0, tb.get(ix), 0);
+		tb.set(ix, 3);
+		Assert.assertEquals(nnz, tb.getNonZeros());
+		Assert.assertEquals(3, tb.get(ix), 0);
+	}
+	
+	@Test
+	public void testSparseTypedValues() throws Exception {
+		TensorBlock tb = new TensorBlock(ValueType.INT64, DIMS, true);
+		tb.set(new int[] {1,2,3}, 7.7);
+		TensorBlock tb2 = new TensorBlock(ValueType.BOOLEAN, DIMS, true);
+		tb2.set(new int[] {1,2,3}, 7.7);
+		Assert.assertEquals(7, tb.get(new int[] {1,2,3}), 0);
+		Assert.assertEquals(1, tb2.get(new int[] {1,2,3}), 0);
+	}
+	
+	@Test
+	public void testUltraSparseLargeTensor() throws Exception {
+		//user x item x context tensor of 10^13 cells
+		int[] dims = new int[] {100000, 1000000, 100};
+		TensorBlock tb = new TensorBlock(ValueType.FP64, dims, true);
+		tb.set(new int[] {99999, 999999, 99}, 1);
+		tb.set(new int[] {7, 3, 2}, 2);
+		tb.set(new int[] {50000, 12, 0}, 3);
+		Assert.assertEquals(3, tb.getNonZeros());
+		Assert.assertEquals(6, tb.sum(), 0);
+		Assert.assertEquals(1, tb.get(new int[] {99999, 999999, 99}), 0);
+		Assert.assertTrue(tb.getInMemorySize() < 1024);
+		TensorBlock tb2 = tb.slice(new int[] {0,0,0}, new int[] {49999,999999,99});
+		Assert.assertEquals(1, tb2.getNonZeros());
+		Assert.assertEquals(2, tb2.get(new int[] {7, 3, 2}), 0);
+	}
+	
+	@Test
+	public void testFormatDecision() throws Exception {
+		Assert.assertTrue(TensorBlock.evalSparseFormatInMemory(ValueType.FP64, DIMS, 10));
+		Assert.assertFalse(TensorBlock.evalSparseFormatInMemory(ValueType.FP64, DIMS, 7*11*13/2));
+		//sparse format only if smaller than the typed dense representation
+		Assert.assertFalse(TensorBlock.evalSparseFormatInMemory(ValueType.BOOLEAN, DIMS, 100));
+		TensorBlock tb = new TensorBlock(ValueType.FP64, DIMS, false);
+		tb.reset(DIMS, 10);
+		Assert.assertTrue(tb.isSparse());
+		tb.reset(DIMS, 7*11*13);
+		Assert.assertFalse(tb.isSparse());
+	}
+	
+	@Test
+	public void testExamSparsity() throws Exception {
+		TensorBlock tb = createTensor(ValueType.FP64, false, 0.05, 3);
+		TensorBlock tb2 = new TensorBlock(tb);
+		tb.examSparsity();
+		Assert.assertTrue(tb.isSparse());
+		checkEquals(tb2, tb);
+		TensorBlock tb3 = createTensor(ValueType.FP64, true, 0.9, 3);
+		TensorBlock tb4 = new TensorBlock(tb3);
+		tb3.examSparsity();
+		Assert.assertFalse(tb3.isSparse());
+		Assert.assertTrue(tb4.isSparse());
+		checkEquals(tb4, tb3);
+	}
+	
+	@Test
+	public void testScalarSparseSafe() throws Exception {
+		runScalarTest(new RightScalarOperator(Multiply.getMultiplyFnObject(), 3), true);
+	}
+	
+	@Test
+	public void testScalarSparseUnsafe() throws Exception {
+		runScalarTest(new RightScalarOperator(Plus.getPlusFnObject(), 3), false);
+	}
+	
+	@Test
+	public void testBinaryMultSparseSparse() throws Exception {
+		runBinaryTest(new BinaryOperator(Multiply.getMultiplyFnObject()));
+	}
+	
+	@Test
+	public void testBinaryPlusSparseSparse() throws Exception {
+		runBinaryTest(new BinaryOperator(Plus.getPlusFnObject()));
+	}
+	
+	@Test
+	public void testAggregates() throws Exception {
+		TensorBlock tb = createTensor(ValueType.FP64, true, 0.05, 7);
+		TensorBlock tb2 = createTensor(ValueType.FP64, false, 0.05, 7);
+		Assert.assertEquals(tb2.sum(), tb.sum(), 1e-10);
+		Assert.assertEquals(tb2.min(), tb.min(), 0);
+		Assert.assertEquals(tb2.max(), tb.max(), 0);
+		Assert.assertTrue(tb.min() < 0 && tb.max() > 0);
+	}
+	
+	@Test
+	public void testSlice() throws Exception {
+		TensorBlock tb = createTensor(ValueType.FP64, true, 0.2, 7);
+		TensorBlock tb2 = createTensor(ValueType.FP64, false, 0.2, 7);
+		int[] lower = new int[] {2,3,4}, upper = new int[] {5,9,4};
+		TensorBlock ret1 = tb.slice(lower, upper);
+		TensorBlock ret2 = tb2.slice(lower, upper);
+		Assert.assertEquals(4, ret1.getNumRows());
+		Assert.assertEquals(7, ret1.getNumCols());
+		Assert.assertEquals(1, ret1.getDim(2));
+		checkEquals(ret2, ret1);
+		for( int i=0; i<4; i++ )
+			for( int j=0; j<7; j++ )
+				Assert.assertEquals(tb.get(new int[] {i+2,j+3,4}),
+					ret1.get(new int[] {i,j,0}), 0);
+	}
+	
+	@Test
+	public void testCOOLinearization() throws Exception {
+		SparseTensorCOO coo = new SparseTensorCOO(DIMS);
+		int[] ix = new int[3];
+		for( long k=0; k<7*11*13; k+=17 ) {
+			coo.delinearize(k, ix);
+			Assert.assertEquals(k, coo.linearize(ix));
+			coo.append(k, k+1);
+		}
+		Assert.assertEquals(7*11*13/17+1, coo.size());
+		coo.set(16, 1); //insert
+		coo.set(17, 0); //delete
+		Assert.assertEquals(1, coo.get(16), 0);
+		Assert.assertEquals(0, coo.get(17), 0);
+		Assert.assertEquals(7*11*13/17+1, coo.size());
+	}
+	
+	private void runScalarTest(RightScalarOperator op, boolean sparseOut) {
+		TensorBlock tb = createTensor(ValueType.FP64, true, 0.05, 7);
+		TensorBlock tb2 = createTensor(ValueType.FP64, false, 0.05, 7);
+		TensorBlock ret1 = tb.scalarOperations(op);
+		TensorBlock ret2 = tb2.scalarOperations(op);
+		Assert.assertEquals(sparseOut, ret1.isSparse());
+		checkEquals(ret2, ret1);
+	}
+	
+	private void runBinaryTest(BinaryOperator op) {
+		TensorBlock a = createTensor(ValueType.FP64, true, 0.1, 7);
+		TensorBlock b = createTensor(ValueType.FP64, true, 0.1, 3);
+		TensorBlock ret1 = a.binaryOperations(op, b);
+		Assert.assertTrue(ret1.isSparse());
+		TensorBlock ret2 = new TensorBlock(a);
+		ret2.sparseToDense();
+		ret2 = ret2.binaryOperations(op, b);
+		checkEquals(ret2, ret1);
+	}
+	
+	private static TensorBlock createTensor(ValueType vt, boolean sparse, double sparsity, long seed) {
+		TensorBlock tb = new TensorBlock(vt, DIMS.clone(), sparse);
+		Random rand = new Random(seed);
+		for( int i=0; i<DIMS[0]; i++ )
+			for( int j=0; j<DIMS[1]; j++ )
+				for( int k=0; k<DIMS[2]; k++ )
+					if( rand.nextDouble() < sparsity )
+						tb.set(new int[] {i,j,k}, rand.nextDouble()*2-1);
+		return tb;
+	}
+	
+	private static void checkEquals(TensorBlock expected, TensorBlock actual) {
+		Assert.assertEquals(expected.getNumDims(), actual.getNumDims());
+		Assert.assertEquals(expected.getNonZeros(), actual.getNonZeros());
+		int[] ix = new int[expected.getNumDims()];
+		for( int i=0; i<expected.getNumRows(); i++ )
+			for( int j=0; j<expected.getNumCols(); j++ )
+				for( int k=0; k<expected.getDim(2); k++ ) {
+					ix[0] = i; ix[1] = j; ix[2] = k;
+					Assert.assertEquals(expected.get(ix), actual.get(ix), 1e-10);
+				}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.tugraz.sysds.test.perf;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.apache.hadoop.io.Text;
+import org.tugraz.sysds.runtime.io.CSVLineParser;
+import org.tugraz.sysds.runtime.io.IOUtilFunctions;
+
+/**
+ * Micro benchmark of the byte-level CSV line parser against the string-based
+ * split and parse path (as used by the text CSV readers before) for numeric
+ * lines of dense matrices. This benchmark is not part of the test suite; run 
+ * it via main with optional arguments [numRows] [numCols] [numReps].
+ */
+public class CSVParserBenchmark 
+{
+	private static final int WARMUP_REPS = 5;
+	
+	public static void main(String[] args) {
+		int m = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+		int n = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+		int reps = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+		
+		//prepare inputs (shared across all variants)
+		Random rand = new Random(7);
+		Text[] lines = new Text[m];
+		StringBuilder sb = new StringBuilder();
+		for( int i=0; i<m; i++ ) {
+			sb.setLength(0);
+			for( int j=0; j<n; j++ )
+				sb.append(j>0 ? "," : "").append(rand.nextDouble()*100);
+			lines[i] = new Text(sb.toString());
+		}
+		
+		System.out.println("Benchmark with rows="+m+", cols="+n+", reps="+reps);
+		
+		measure("split + parseDouble", reps, () -> {
+			long nnz = 0;
+			for( Text line : lines ) {
+				String[] parts = IOUtilFunctions.split(line.toString().trim(), ",");
+				for( String part : parts )
+					nnz += (IOUtilFunctions.parseDoubleParallel(part.trim()) != 0) ? 1 : 0;
+			}
+			return nnz;
+		});
+		measure("splitCSV + parseDouble", reps, () -> {
+			long nnz = 0;
+			for( Text line : lines ) {
+				String[] parts = IOUtilFunctions.splitCSV(line.toString().trim(), ",");
+				for( String part : parts )
+					nnz += (IOUtilFunctions.parseDoubleParallel(part.trim()) != 0) ? 1 : 0;
+			}
+			return nnz;
+		});
+		measure("CSVLineParser", reps, () -> {
+			long nnz = 0;
+			CSVLineParser parser = new CSVLineParser(",");
+			for( Text line : lines ) {
+				parser.reset(line);
+				while( parser.next() )
+					nnz += (parser.getDouble() != 0) ? 1 : 0;
+			}
+			return nnz;
+		});
+	}
+	
+	private static void measure(String name, int reps, LongSupplier task) {
+		long check = 0;
+		for( int i=0; i<WARMUP_REPS; i++ )
+			check += task.getAsLong();
+		long t0 = System.nanoTime();
+		for( int i=0; i<reps; i++ )
+			check += task.getAsLong();
+		double ms = (System.nanoTime() - t0) / 1e6 / reps;
+		System.out.println(String.format("%-40s %10.3f ms/op (check=%d)", name, ms, check));
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.perf;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixMult.KernelType;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Micro benchmark of the unrolled and vectorized kernel sets of the dense vector
+ * primitives in LibMatrixMult (incl the shared dense and sparse-dense gather dot
+ * product kernels for reference), as well as sparse-dense and dense-dense matrix 
+ * multiplications using them. This benchmark is not part of the test suite; run 
+ * it via main with optional arguments [vectorLength] [numReps] [kernelTypes], where
+ * a single kernel type per run avoids recompilations after switching kernel sets.
+ */
+public class MultKernelBenchmark 
+{
+	private static final int WARMUP_REPS = 5;
+	
+	public static void main(String[] args) {
+		int len = (args.length > 0) ? Integer.parseInt(args[0]) : 1024;
+		int reps = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		String[] types = (args.length > 2) ? args[2].split(",") : new String[]{"unrolled", "vectorized"};
+		int calls = Math.max(1, 100_000_000 / len);
+		
+		//prepare inputs (shared across all variants)
+		Random rand = new Random(7);
+		double[] a = rand.doubles(len).toArray();
+		double[] b = rand.doubles(len).toArray();
+		double[] c = new double[len];
+		int nnz = Math.max(1, len / 10);
+		int[] aix = new int[nnz];
+		double[] avals = rand.doubles(nnz).toArray();
+		for( int i=0; i<nnz; i++ )
+			aix[i] = (int)((long)i * len / nnz);
+		MatrixBlock m1 = MatrixBlock.randOperations(2000, 2000, 0.05, -1, 1, "uniform", 3);
+		MatrixBlock m2 = MatrixBlock.randOperations(2000, 500, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock m3 = MatrixBlock.randOperations(1000, 1000, 1.0, -1, 1, "uniform", 11);
+		
+		System.out.println("Benchmark with len="+len+", calls="+calls+", reps="+reps
+			+", vectorized(auto)="+LibMatrixMult.isVectorizedKernels());
+		
+		for( String type : types ) {
+			LibMatrixMult.setKernelType(KernelType.valueOf(type.trim().toUpperCase()));
+			String prefix = type.trim().toLowerCase() + " ";
+			measure(prefix + "dotProduct", reps, () -> {
+				double sum = 0;
+				for( int i=0; i<calls; i++ )
+					sum += LibMatrixMult.dotProduct(a, b, 0, 0, len);
+				return (long) sum;
+			});
+			measure(prefix + "dotProduct sparse-dense", reps, () -> {
+				double sum = 0;
+				for( int i=0; i<calls; i++ )
+					sum += LibMatrixMult.dotProduct(avals, b, aix, 0, 0, nnz);
+				return (long) sum;
+			});
+			measure(prefix + "vectMultiplyAdd", reps, () -> {
+				for( int i=0; i<calls; i++ )
+					LibMatrixMult.vectMultiplyAdd(1e-9, b, c, 0, 0, len);
+				return (long) c[0];
+			});
+			measure(prefix + "vectMultiplyWrite", reps, () -> {
+				for( int i=0; i<calls; i++ )
+					LibMatrixMult.vectMultiplyWrite(a, b, c, 0, 0, 0, len);
+				return (long) c[0];
+			});
+			measure(prefix + "vectAdd", reps, () -> {
+				for( int i=0; i<calls; i++ )
+					LibMatrixMult.vectAdd(b, c, 0, 0, len);
+				return (long) c[0];
+			});
+			measure(prefix + "matrixMult sparse-dense", reps, () -> {
+				MatrixBlock ret = new MatrixBlock(m1.getNumRows(), m2.getNumColumns(), false);
+				LibMatrixMult.matrixMult(m1, m2, ret);
+				return ret.getNonZeros();
+			});
+			measure(prefix + "matrixMult dense-dense", reps, () -> {
+				MatrixBlock ret = new MatrixBlock(m3.getNumRows(), m3.getNumColumns(), false);
+				LibMatrixMult.matrixMult(m3, m3, ret);
+				return ret.getNonZeros();
+			});
+		}
+		LibMatrixMult.setKernelType(KernelType.AUTO);
+	}
+	
+	private static void measure(String name, int reps, LongSupplier task) {
+		long check = 0;
+		for( int i=0; i<WARMUP_REPS; i++ )
+			check += task.getAsLong();
+		long t0 = System.nanoTime();
+		for( int i=0; i<reps; i++ )
+			check += task.getAsLong();
+		double ms = (System.nanoTime() - t0) / 1e6 / reps;
+		System.out.println(String.format("%-40s %10.3f ms/op (check=%d)", name, ms, check));
+	}
+}
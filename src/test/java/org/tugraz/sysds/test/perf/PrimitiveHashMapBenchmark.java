@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.perf;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.tugraz.sysds.runtime.matrix.data.MatrixIndexes;
+import org.tugraz.sysds.runtime.util.LongLongDoubleHashMap;
+import org.tugraz.sysds.runtime.util.LongLongDoubleHashMap.EntryType;
+import org.tugraz.sysds.runtime.util.LongLongHashMap;
+import org.tugraz.sysds.runtime.util.StringLongHashMap;
+
+/**
+ * Micro benchmark of the primitive open-addressing hashmaps against boxed
+ * java.util.HashMap variants for the access patterns of recode map build, 
+ * ctable aggregation, and reshape result block lookups. This benchmark is 
+ * not part of the test suite; run it via main with optional arguments 
+ * [numOps] [numDistinct] [numReps].
+ */
+public class PrimitiveHashMapBenchmark 
+{
+	private static final int WARMUP_REPS = 5;
+	
+	public static void main(String[] args) {
+		int n = (args.length > 0) ? Integer.parseInt(args[0]) : 4_000_000;
+		int d = (args.length > 1) ? Integer.parseInt(args[1]) : 100_000;
+		int reps = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+		
+		//prepare inputs (shared across all variants)
+		Random rand = new Random(7);
+		String[] tokens = new String[n];
+		long[] keys1 = new long[n];
+		long[] keys2 = new long[n];
+		for( int i=0; i<n; i++ ) {
+			int r = rand.nextInt(d);
+			tokens[i] = "T" + r;
+			keys1[i] = r / 100 + 1;
+			keys2[i] = r % 100 + 1;
+		}
+		
+		System.out.println("Benchmark with n="+n+", distinct="+d+", reps="+reps);
+		
+		//recode map build and probe
+		measure("recode HashMap<String,Long>", reps, () -> {
+			HashMap<String,Long> map = new HashMap<>();
+			for( String t : tokens )
+				if( !map.containsKey(t) )
+					map.put(t, Long.valueOf(map.size()+1));
+			long sum = 0;
+			for( String t : tokens )
+				sum += map.get(t);
+			return sum;
+		});
+		measure("recode StringLongHashMap", reps, () -> {
+			StringLongHashMap map = new StringLongHashMap();
+			for( String t : tokens )
+				map.putIfAbsent(t, map.size()+1);
+			long sum = 0;
+			for( String t : tokens )
+				sum += map.get(t, -1);
+			return sum;
+		});
+		
+		//ctable aggregation
+		measure("ctable HashMap<MatrixIndexes,Double>", reps, () -> {
+			HashMap<MatrixIndexes,Double> map = new HashMap<>();
+			for( int i=0; i<n; i++ )
+				map.merge(new MatrixIndexes(keys1[i], keys2[i]), 1d, Double::sum);
+			return map.size();
+		});
+		measure("ctable LongLongDoubleHashMap(LONG)", reps, () -> {
+			LongLongDoubleHashMap map = new LongLongDoubleHashMap(EntryType.LONG);
+			for( int i=0; i<n; i++ )
+				map.addValue(keys1[i], keys2[i], 1);
+			return map.size();
+		});
+		measure("ctable LongLongDoubleHashMap(INT)", reps, () -> {
+			LongLongDoubleHashMap map = new LongLongDoubleHashMap(EntryType.INT);
+			for( int i=0; i<n; i++ )
+				map.addValue(keys1[i], keys2[i], 1);
+			return map.size();
+		});
+		
+		//reshape result block lookups
+		measure("reshape HashMap<MatrixIndexes,Integer>", reps, () -> {
+			HashMap<MatrixIndexes,Integer> map = new HashMap<>();
+			for( int i=0; i<d; i++ )
+				map.put(new MatrixIndexes(i/100+1, i%100+1), i);
+			MatrixIndexes ix = new MatrixIndexes();
+			long sum = 0;
+			for( int i=0; i<n; i++ )
+				sum += map.get(ix.setIndexes(keys1[i], keys2[i]));
+			return sum;
+		});
+		measure("reshape LongLongHashMap", reps, () -> {
+			LongLongHashMap map = new LongLongHashMap(d);
+			for( int i=0; i<d; i++ )
+				map.put((i/100)*100L + i%100, i);
+			long sum = 0;
+			for( int i=0; i<n; i++ )
+				sum += map.get((keys1[i]-1)*100 + keys2[i]-1, -1);
+			return sum;
+		});
+	}
+	
+	private static void measure(String name, int reps, LongSupplier task) {
+		long check = 0;
+		for( int i=0; i<WARMUP_REPS; i++ )
+			check += task.getAsLong();
+		long t0 = System.nanoTime();
+		for( int i=0; i<reps; i++ )
+			check += task.getAsLong();
+		double ms = (System.nanoTime() - t0) / 1e6 / reps;
+		System.out.println(String.format("%-40s %10.3f ms/op (check=%d)", name, ms, check));
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 Graz University of Technology
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.tugraz.sysds.test.perf;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.tugraz.sysds.runtime.matrix.data.IJV;
+import org.tugraz.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.tugraz.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Micro benchmark of the sparse-output reorg operations (transpose, rev, and
+ * rowwise reshape) with direct CSR construction, single-threaded and multi-threaded,
+ * against a naive MCSR transpose via cell appends for ultra-sparse, sparse, and 
+ * dense-skinny inputs. This benchmark is not part of the test suite; run it via 
+ * main with optional arguments [numThreads] [numReps].
+ */
+public class SparseReorgBenchmark 
+{
+	private static final int WARMUP_REPS = 5;
+	
+	public static void main(String[] args) {
+		int k = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int reps = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		
+		runShape("ultra-sparse", createInput(100_000, 100_000, 1e-5, true, 7), k, reps);
+		runShape("sparse", createInput(20_000, 5_000, 0.01, true, 3), k, reps);
+		runShape("dense-skinny", createInput(1_000_000, 10, 0.1, false, 5), k, reps);
+	}
+	
+	private static void runShape(String shape, MatrixBlock in, int k, int reps) {
+		int m = in.getNumRows(), n = in.getNumColumns();
+		System.out.println("Benchmark "+shape+" with rows="+m+", cols="+n
+			+", nnz="+in.getNonZeros()+", k="+k+", reps="+reps);
+		
+		measure("transpose naive MCSR", reps, () -> {
+			MatrixBlock out = new MatrixBlock(n, m, true);
+			if( in.isInSparseFormat() ) {
+				Iterator<IJV> iter = in.getSparseBlockIterator();
+				while( iter.hasNext() ) {
+					IJV cell = iter.next();
+					out.appendValue(cell.getJ(), cell.getI(), cell.getV());
+				}
+			}
+			else {
+				for( int i=0; i<m; i++ )
+					for( int j=0; j<n; j++ )
+						out.appendValue(j, i, in.quickGetValue(i, j));
+			}
+			out.sortSparseRows();
+			return out.recomputeNonZeros();
+		});
+		measure("transpose CSR k=1", reps, () ->
+			LibMatrixReorg.transpose(in, new MatrixBlock(n, m, true), 1).getNonZeros());
+		measure("transpose CSR k="+k, reps, () ->
+			LibMatrixReorg.transpose(in, new MatrixBlock(n, m, true), k).getNonZeros());
+		
+		if( in.isInSparseFormat() ) {
+			measure("rev CSR k=1", reps, () ->
+				LibMatrixReorg.rev(in, new MatrixBlock(m, n, true), 1).getNonZeros());
+			measure("rev CSR k="+k, reps, () ->
+				LibMatrixReorg.rev(in, new MatrixBlock(m, n, true), k).getNonZeros());
+			measure("reshape rowwise CSR k=1", reps, () ->
+				LibMatrixReorg.reshape(in, new MatrixBlock(), m/2, n*2, true, 1).getNonZeros());
+			measure("reshape rowwise CSR k="+k, reps, () ->
+				LibMatrixReorg.reshape(in, new MatrixBlock(), m/2, n*2, true, k).getNonZeros());
+		}
+	}
+	
+	private static MatrixBlock createInput(int rows, int cols, double sp, boolean sparse, long seed) {
+		Random rand = new Random(seed);
+		MatrixBlock ret = new MatrixBlock(rows, cols, sparse);
+		ret.allocateBlock();
+		long nnz = (long) (sp * rows * cols);
+		for( long t=0; t<nnz; t++ )
+			ret.quickSetValue(rand.nextInt(rows), rand.nextInt(cols), rand.nextDouble() + 1);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+	
+	private static void measure(String name, int reps, LongSupplier task) {
+		long check = 0;
+		for( int i=0; i<WARMUP_REPS; i++ )
+			check += task.getAsLong();
+		long t0 = System.nanoTime();
+		for( int i=0; i<reps; i++ )
+			check += task.getAsLong();
+		double ms = (System.nanoTime() - t0) / 1e6 / reps;
+		System.out.println(String.format("%-40s %10.3f ms/op (check=%d)", name, ms, check));
+	}
+}